@@ -22,6 +22,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.UUID;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 
 import org.killbill.billing.ErrorCode;
@@ -48,8 +49,12 @@ import org.killbill.billing.util.cache.CacheController;
 import org.killbill.billing.util.cache.CacheControllerDispatcher;
 import org.killbill.billing.util.cache.CacheLoaderArgument;
 import org.killbill.billing.util.dao.NonEntityDao;
+import org.killbill.billing.util.entity.Pagination;
+import org.killbill.billing.util.entity.dao.DefaultPaginationHelper.SourcePaginationBuilder;
 import org.killbill.commons.utils.Preconditions;
 
+import static org.killbill.billing.util.entity.dao.DefaultPaginationHelper.getEntityPaginationNoException;
+
 public class DefaultAccountInternalApi extends DefaultAccountApiBase implements AccountInternalApi {
 
     private final ImmutableAccountInternalApi immutableAccountInternalApi;
@@ -180,4 +185,30 @@ public class DefaultAccountInternalApi extends DefaultAccountApiBase implements
         }
         return childrenAccounts;
     }
+
+    @Override
+    public Pagination<Account> getAccounts(@Nullable final Long cursor, final Long offset, final Long limit, final InternalTenantContext context) {
+        return getEntityPaginationNoException(limit,
+                                              new SourcePaginationBuilder<AccountModelDao, AccountApiException>() {
+                                                  @Override
+                                                  public Pagination<AccountModelDao> build() {
+                                                      return accountDao.get(cursor, offset, limit, context);
+                                                  }
+                                              },
+                                              DefaultAccount::new
+                                             );
+    }
+
+    @Override
+    public Pagination<Account> searchAccounts(final String searchKey, @Nullable final Long cursor, final Long offset, final Long limit, final InternalTenantContext context) {
+        return getEntityPaginationNoException(limit,
+                                              new SourcePaginationBuilder<AccountModelDao, AccountApiException>() {
+                                                  @Override
+                                                  public Pagination<AccountModelDao> build() {
+                                                      return accountDao.searchAccounts(searchKey, cursor, offset, limit, context);
+                                                  }
+                                              },
+                                              DefaultAccount::new
+                                             );
+    }
 }
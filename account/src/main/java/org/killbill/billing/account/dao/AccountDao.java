@@ -21,6 +21,8 @@ package org.killbill.billing.account.dao;
 import java.util.List;
 import java.util.UUID;
 
+import javax.annotation.Nullable;
+
 import org.killbill.billing.account.api.Account;
 import org.killbill.billing.account.api.AccountApiException;
 import org.killbill.billing.callcontext.InternalCallContext;
@@ -36,6 +38,9 @@ public interface AccountDao extends EntityDao<AccountModelDao, Account, AccountA
 
     Pagination<AccountModelDao> searchAccounts(String searchKey, Long offset, Long limit, InternalTenantContext context);
 
+    // Keyset (seek) pagination, see DefaultPaginationSqlDaoHelper#getPaginationWithCursor
+    Pagination<AccountModelDao> searchAccounts(String searchKey, @Nullable Long cursor, Long offset, Long limit, InternalTenantContext context);
+
     /**
      * @throws AccountApiException when externalKey is null
      */
@@ -19,6 +19,8 @@
 
 package org.killbill.billing.account.dao;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
 
@@ -34,10 +36,11 @@ import org.killbill.billing.util.dao.TableName;
 import org.killbill.billing.util.entity.dao.EntityModelDao;
 import org.killbill.billing.util.entity.dao.EntityModelDaoBase;
 import org.killbill.billing.util.entity.dao.TimeZoneAwareEntity;
+import org.killbill.billing.util.search.SearchableModelDao;
 
 import static org.killbill.billing.account.api.DefaultMutableAccountData.DEFAULT_BILLING_CYCLE_DAY_LOCAL;
 
-public class AccountModelDao extends EntityModelDaoBase implements TimeZoneAwareEntity, EntityModelDao<Account> {
+public class AccountModelDao extends EntityModelDaoBase implements TimeZoneAwareEntity, EntityModelDao<Account>, SearchableModelDao {
 
     private String externalKey;
     private String email;
@@ -543,6 +546,11 @@ public class AccountModelDao extends EntityModelDaoBase implements TimeZoneAware
         return result;
     }
 
+    @Override
+    public List<String> searchableValues() {
+        return Arrays.asList(id.toString(), externalKey, email, name, companyName);
+    }
+
     @Override
     public TableName getTableName() {
         return TableName.ACCOUNT;
@@ -24,6 +24,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Named;
 
@@ -49,6 +50,7 @@ import org.killbill.billing.util.cache.Cachable.CacheType;
 import org.killbill.billing.util.cache.CacheController;
 import org.killbill.billing.util.cache.CacheControllerDispatcher;
 import org.killbill.billing.util.callcontext.InternalCallContextFactory;
+import org.killbill.billing.util.config.definition.SearchConfig;
 import org.killbill.billing.util.dao.NonEntityDao;
 import org.killbill.billing.util.dao.TableName;
 import org.killbill.billing.util.entity.DefaultPagination;
@@ -60,6 +62,7 @@ import org.killbill.billing.util.entity.dao.EntitySqlDaoTransactionalJdbiWrapper
 import org.killbill.billing.util.entity.dao.EntitySqlDaoWrapperFactory;
 import org.killbill.billing.util.features.KillbillFeatures;
 import org.killbill.billing.util.optimizer.BusOptimizer;
+import org.killbill.billing.util.search.SearchIndexPaginationIteratorBuilder;
 import org.killbill.bus.api.PersistentBus.EventBusException;
 import org.killbill.clock.Clock;
 import org.skife.jdbi.v2.IDBI;
@@ -78,6 +81,7 @@ public class DefaultAccountDao extends EntityDaoBase<AccountModelDao, Account, A
     private final KillbillFeatures killbillFeatures;
     private final InternalCallContextFactory internalCallContextFactory;
     private final AuditDao auditDao;
+    private final SearchConfig searchConfig;
 
     @Inject
     public DefaultAccountDao(final IDBI dbi,
@@ -88,13 +92,15 @@ public class DefaultAccountDao extends EntityDaoBase<AccountModelDao, Account, A
                              final CacheControllerDispatcher cacheControllerDispatcher,
                              final InternalCallContextFactory internalCallContextFactory,
                              final NonEntityDao nonEntityDao,
-                             final AuditDao auditDao) {
-        super(nonEntityDao, cacheControllerDispatcher, new EntitySqlDaoTransactionalJdbiWrapper(dbi, roDbi, clock, cacheControllerDispatcher, nonEntityDao, internalCallContextFactory), AccountSqlDao.class);
+                             final AuditDao auditDao,
+                             final SearchConfig searchConfig) {
+        super(nonEntityDao, cacheControllerDispatcher, new EntitySqlDaoTransactionalJdbiWrapper(dbi, roDbi, clock, cacheControllerDispatcher, nonEntityDao, internalCallContextFactory, searchConfig), AccountSqlDao.class);
         this.accountImmutableCacheController = cacheControllerDispatcher.getCacheController(CacheType.ACCOUNT_IMMUTABLE);
         this.eventBus = eventBus;
         this.internalCallContextFactory = internalCallContextFactory;
         this.killbillFeatures = killbillFeatures;
         this.auditDao = auditDao;
+        this.searchConfig = searchConfig;
     }
 
     @Override
@@ -167,25 +173,54 @@ public class DefaultAccountDao extends EntityDaoBase<AccountModelDao, Account, A
                                                           accountModelDao == null ? Collections.emptyIterator() : List.of(accountModelDao).iterator());
         }
 
-        // Otherwise, we pretty much need to do a full table scan (leading % in the like clause).
-        // Note: forcing MySQL to search indexes (like luckySearch above) doesn't always seem to help on large tables, especially with large offsets
         return paginationHelper.getPagination(AccountSqlDao.class,
-                                              new PaginationIteratorBuilder<AccountModelDao, Account, AccountSqlDao>() {
-                                                  @Override
-                                                  public Long getCount(final AccountSqlDao accountSqlDao, final InternalTenantContext context) {
-                                                      return accountSqlDao.getSearchCount(searchKey, String.format("%%%s%%", searchKey), context);
-                                                  }
-
-                                                  @Override
-                                                  public Iterator<AccountModelDao> build(final AccountSqlDao accountSqlDao, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context) {
-                                                      return accountSqlDao.search(searchKey, String.format("%%%s%%", searchKey), offset, limit, ordering.toString(), context);
-                                                  }
-                                              },
+                                              getSearchAccountsPaginationIteratorBuilder(searchKey),
                                               offset,
                                               limit,
                                               context);
     }
 
+    @Override
+    public Pagination<AccountModelDao> searchAccounts(final String searchKey, @Nullable final Long cursor, final Long offset, final Long limit, final InternalTenantContext context) {
+        final boolean userIsFeelingLucky = limit == 1 && offset == -1;
+        if (userIsFeelingLucky) {
+            // Single result
+            return searchAccounts(searchKey, offset, limit, context);
+        }
+
+        return paginationHelper.getPaginationWithCursor(AccountSqlDao.class,
+                                                        getSearchAccountsPaginationIteratorBuilder(searchKey),
+                                                        cursor,
+                                                        offset,
+                                                        limit,
+                                                        context);
+    }
+
+    private PaginationIteratorBuilder<AccountModelDao, Account, AccountSqlDao> getSearchAccountsPaginationIteratorBuilder(final String searchKey) {
+        if (searchConfig.isSearchIndexEnabled()) {
+            return new SearchIndexPaginationIteratorBuilder<AccountModelDao, Account, AccountSqlDao>(searchKey);
+        }
+
+        // Otherwise, we pretty much need to do a full table scan (leading % in the like clause).
+        // Note: forcing MySQL to search indexes (like luckySearch above) doesn't always seem to help on large tables, especially with large offsets
+        return new PaginationIteratorBuilder<AccountModelDao, Account, AccountSqlDao>() {
+            @Override
+            public Long getCount(final AccountSqlDao accountSqlDao, final InternalTenantContext context) {
+                return accountSqlDao.getSearchCount(searchKey, String.format("%%%s%%", searchKey), context);
+            }
+
+            @Override
+            public Iterator<AccountModelDao> build(final AccountSqlDao accountSqlDao, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context) {
+                return accountSqlDao.search(searchKey, String.format("%%%s%%", searchKey), offset, limit, ordering.toString(), context);
+            }
+
+            @Override
+            public Iterator<AccountModelDao> buildFromCursor(final AccountSqlDao accountSqlDao, final Long cursor, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context) {
+                return accountSqlDao.searchFromCursor(searchKey, String.format("%%%s%%", searchKey), cursor, offset, limit, ordering.toString(), ordering.getCursorComparator(), context);
+            }
+        };
+    }
+
     @Override
     public UUID getIdFromKey(final String externalKey, final InternalTenantContext context) throws AccountApiException {
         if (externalKey == null) {
@@ -0,0 +1,31 @@
+/* Same tokens as SearchIndexTokenizer: whole values and, for values containing whitespace, each word */
+/* Words are split on whitespace and common punctuation: the rare tokens which differ from SearchIndexTokenizer are fixed the next time the account is updated */
+insert into search_index (table_name, target_record_id, token, account_record_id, tenant_record_id)
+with recursive words (record_id, tenant_record_id, word, rest) as (
+    select record_id, tenant_record_id, substring(rest from 1 for position(' ' in rest) - 1), substring(rest from position(' ' in rest) + 1)
+    from (select record_id, tenant_record_id, concat(replace(replace(replace(replace(replace(replace(replace(replace(replace(replace(searchable_value, '-', ' '), '.', ' '), ',', ' '), '''', ' '), '&', ' '), '/', ' '), '(', ' '), ')', ' '), '@', ' '), '_', ' '), ' ') as rest
+          from (select record_id, tenant_record_id, lower(trim(external_key)) as searchable_value from accounts
+                union all
+                select record_id, tenant_record_id, lower(trim(email)) from accounts
+                union all
+                select record_id, tenant_record_id, lower(trim(name)) from accounts
+                union all
+                select record_id, tenant_record_id, lower(trim(company_name)) from accounts) searchable_values
+          where searchable_value like '% %') padded_values
+    union all
+    select record_id, tenant_record_id, substring(rest from 1 for position(' ' in rest) - 1), substring(rest from position(' ' in rest) + 1)
+    from words
+    where rest <> ''
+)
+select 'accounts', record_id, lower(id), record_id, tenant_record_id from accounts
+union
+select 'accounts', record_id, lower(trim(external_key)), record_id, tenant_record_id from accounts where trim(external_key) <> ''
+union
+select 'accounts', record_id, lower(trim(email)), record_id, tenant_record_id from accounts where trim(email) <> ''
+union
+select 'accounts', record_id, lower(trim(name)), record_id, tenant_record_id from accounts where trim(name) <> ''
+union
+select 'accounts', record_id, lower(trim(company_name)), record_id, tenant_record_id from accounts where trim(company_name) <> ''
+union
+select 'accounts', record_id, word, record_id, tenant_record_id from words where word <> ''
+;
@@ -0,0 +1 @@
+CREATE INDEX accounts_tenant_record_id_record_id ON accounts(tenant_record_id, record_id);
@@ -128,6 +128,11 @@ public class MockAccountDao extends MockEntityDaoBase<AccountModelDao, Account,
         return DefaultPagination.<AccountModelDao>build(offset, limit, maxNbRecords, results);
     }
 
+    @Override
+    public Pagination<AccountModelDao> searchAccounts(final String searchKey, final Long cursor, final Long offset, final Long limit, final InternalTenantContext context) {
+        return searchAccounts(searchKey, offset, limit, context);
+    }
+
     @Override
     public UUID getIdFromKey(final String externalKey, final InternalTenantContext context) {
         final AccountModelDao account = getAccountByKey(externalKey, context);
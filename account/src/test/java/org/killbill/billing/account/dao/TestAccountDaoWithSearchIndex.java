@@ -0,0 +1,92 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.account.dao;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.killbill.billing.account.AccountTestSuiteWithEmbeddedDB;
+import org.killbill.billing.account.api.AccountData;
+import org.killbill.billing.account.api.DefaultAccount;
+import org.killbill.billing.mock.MockAccountBuilder;
+import org.killbill.billing.platform.api.KillbillConfigSource;
+import org.killbill.billing.util.entity.Pagination;
+import org.killbill.commons.utils.collect.Iterators;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import static org.killbill.billing.account.AccountTestUtils.createTestAccount;
+
+public class TestAccountDaoWithSearchIndex extends AccountTestSuiteWithEmbeddedDB {
+
+    @Override
+    protected KillbillConfigSource getConfigSource(final Map<String, String> extraProperties) {
+        final Map<String, String> allExtraProperties = new HashMap<String, String>(extraProperties);
+        allExtraProperties.put("org.killbill.search.index.enabled", "true");
+        return getConfigSource(null, allExtraProperties);
+    }
+
+    @Test(groups = "slow", description = "Test Account DAO: search via the search index")
+    public void testSearch() throws Exception {
+        final String suffix = UUID.randomUUID().toString().substring(0, 8);
+        final AccountModelDao account1 = createAccount("Bernard Zorglub" + suffix, "bz" + suffix + "@example.com", "Acme" + suffix);
+        final AccountModelDao account2 = createAccount("Zorglub" + suffix + " Jr", "zj" + suffix + "@example.com", null);
+
+        // Word prefix, on multi-word values
+        checkSearch("zorglub" + suffix, 2, account1, account2);
+        checkSearch("ZORGLUB", 2, account1, account2);
+        checkSearch("Bernard Zorg", 1, account1);
+        // Email and company name
+        checkSearch("bz" + suffix, 1, account1);
+        checkSearch("acme" + suffix, 1, account1);
+        // Ids and external keys
+        checkSearch(account2.getId().toString(), 1, account2);
+        checkSearch(account1.getExternalKey(), 1, account1);
+        // Not a prefix of any token
+        checkSearch("orglub" + suffix, 0);
+
+        // Tokens of the previous name are removed
+        final AccountData accountData = new MockAccountBuilder(new DefaultAccount(account1)).name("Bernard Kirby" + suffix).build();
+        accountDao.update(new AccountModelDao(account1.getId(), accountData), true, internalCallContext);
+        checkSearch("zorglub" + suffix, 1, account2);
+        checkSearch("kirby" + suffix, 1, account1);
+        checkSearch("bernard", 1, account1);
+    }
+
+    private AccountModelDao createAccount(final String name, final String email, final String companyName) throws Exception {
+        final AccountData accountData = new MockAccountBuilder(new DefaultAccount(createTestAccount())).name(name)
+                                                                                                       .email(email)
+                                                                                                       .companyName(companyName)
+                                                                                                       .build();
+        final AccountModelDao account = new AccountModelDao(UUID.randomUUID(), accountData);
+        accountDao.create(account, internalCallContext);
+        return account;
+    }
+
+    private void checkSearch(final String searchKey, final long expectedTotal, final AccountModelDao... expectedAccounts) {
+        final Pagination<AccountModelDao> result = accountDao.searchAccounts(searchKey, 0L, 10L, internalCallContext);
+        Assert.assertEquals(result.getTotalNbRecords(), (Long) expectedTotal);
+        final List<AccountModelDao> accounts = Iterators.toUnmodifiableList(result.iterator());
+        Assert.assertEquals(accounts.size(), expectedAccounts.length);
+        for (int i = 0; i < expectedAccounts.length; i++) {
+            Assert.assertEquals(accounts.get(i).getId(), expectedAccounts[i].getId());
+        }
+    }
+}
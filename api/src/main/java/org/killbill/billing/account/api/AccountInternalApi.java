@@ -21,8 +21,11 @@ package org.killbill.billing.account.api;
 import java.util.List;
 import java.util.UUID;
 
+import javax.annotation.Nullable;
+
 import org.killbill.billing.callcontext.InternalCallContext;
 import org.killbill.billing.callcontext.InternalTenantContext;
+import org.killbill.billing.util.entity.Pagination;
 
 public interface AccountInternalApi extends ImmutableAccountInternalApi {
 
@@ -45,4 +48,8 @@ public interface AccountInternalApi extends ImmutableAccountInternalApi {
     UUID getByRecordId(Long recordId, InternalTenantContext context) throws AccountApiException;
 
     List<Account> getChildrenAccounts(UUID parentAccountId, InternalCallContext context) throws AccountApiException;
+
+    Pagination<Account> getAccounts(@Nullable Long cursor, Long offset, Long limit, InternalTenantContext context);
+
+    Pagination<Account> searchAccounts(String searchKey, @Nullable Long cursor, Long offset, Long limit, InternalTenantContext context);
 }
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.audit;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.UUID;
+
+import org.killbill.billing.callcontext.InternalTenantContext;
+import org.killbill.billing.util.audit.AuditLog;
+
+public interface AuditInternalApi {
+
+    /**
+     * Full audit logs of the account, read from the database as they are iterated over (single pass): unlike
+     * AuditUserApi#getAccountAuditLogs, the memory footprint doesn't depend on the size of the account history.
+     * The caller must close the returned stream, to release the underlying database connection.
+     */
+    public AuditLogStream streamAccountAuditLogs(UUID accountId, InternalTenantContext context);
+
+    public interface AuditLogStream extends Iterator<AuditLog>, Closeable {}
+}
@@ -20,15 +20,21 @@
 package org.killbill.billing.entitlement;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+import javax.annotation.Nullable;
+
+import org.joda.time.DateTime;
 import org.joda.time.LocalDate;
 import org.killbill.billing.callcontext.InternalCallContext;
 import org.killbill.billing.callcontext.InternalTenantContext;
 import org.killbill.billing.catalog.api.BillingActionPolicy;
 import org.killbill.billing.entitlement.api.Entitlement;
 import org.killbill.billing.entitlement.api.EntitlementApiException;
+import org.killbill.billing.entitlement.api.SubscriptionBundle;
 import org.killbill.billing.payment.api.PluginProperty;
+import org.killbill.billing.util.entity.Pagination;
 
 public interface EntitlementInternalApi {
 
@@ -38,9 +44,16 @@ public interface EntitlementInternalApi {
 
     Entitlement getEntitlementForId(final UUID uuid, final boolean includeDeletedEvents, final InternalTenantContext tenantContext) throws EntitlementApiException;
 
+    // Same as Entitlement#getEffectiveEndDate for the cancelled entitlements (possibly in the future) amongst these subscriptions, without building the entitlements
+    Map<UUID, DateTime> getEntitlementEffectiveEndDates(Iterable<UUID> subscriptionIds, InternalTenantContext context);
+
     void pause(UUID bundleId, LocalDate effectiveDate, Iterable<PluginProperty> properties, InternalCallContext context) throws EntitlementApiException;
 
     void resume(UUID bundleId, LocalDate localEffectiveDate, Iterable<PluginProperty> properties, InternalCallContext context) throws EntitlementApiException;
 
     void cancel(Iterable<Entitlement> entitlements, LocalDate effectiveDate, BillingActionPolicy billingPolicy, Iterable<PluginProperty> properties, InternalCallContext context) throws EntitlementApiException;
+
+    Pagination<SubscriptionBundle> getSubscriptionBundles(@Nullable Long cursor, Long offset, Long limit, InternalTenantContext context);
+
+    Pagination<SubscriptionBundle> searchSubscriptionBundles(String searchKey, @Nullable Long cursor, Long offset, Long limit, InternalTenantContext context);
 }
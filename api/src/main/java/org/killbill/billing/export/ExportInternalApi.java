@@ -0,0 +1,45 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.export;
+
+import java.util.UUID;
+
+import org.killbill.billing.callcontext.InternalCallContext;
+import org.killbill.billing.callcontext.InternalTenantContext;
+import org.killbill.billing.security.RequiresPermissions;
+
+import static org.killbill.billing.security.Permission.ADMIN_CAN_EXPORT;
+
+public interface ExportInternalApi {
+
+    /**
+     * Start the export of all the tenant data, as gzipped CSV chunks in the tenant export directory, in the background.
+     * An export which was interrupted (e.g. by a restart) is resumed where it left off by starting a new one.
+     *
+     * @return the status of the new export, or of the one already queued or running for that tenant
+     * @throws IllegalStateException if no tenant export directory is configured
+     */
+    @RequiresPermissions(ADMIN_CAN_EXPORT)
+    public TenantExportStatus exportDataAsCSVForTenant(InternalCallContext context);
+
+    /**
+     * @return the status of that export, or null if it isn't the last export of the tenant (statuses are only kept in memory)
+     */
+    @RequiresPermissions(ADMIN_CAN_EXPORT)
+    public TenantExportStatus getTenantExportStatus(UUID exportId, InternalTenantContext context);
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.export;
+
+import java.util.Map;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+import org.joda.time.DateTime;
+
+/**
+ * Snapshot of the state of a tenant export started through ExportInternalApi#exportDataAsCSVForTenant.
+ */
+public class TenantExportStatus {
+
+    public enum State {
+        QUEUED,
+        RUNNING,
+        SUCCEEDED,
+        FAILED
+    }
+
+    private final UUID exportId;
+    private final State state;
+    private final DateTime requestedDate;
+    private final DateTime completedDate;
+    private final Map<String, Long> nbRowsPerTable;
+    private final String message;
+
+    public TenantExportStatus(final UUID exportId,
+                              final State state,
+                              final DateTime requestedDate,
+                              @Nullable final DateTime completedDate,
+                              @Nullable final Map<String, Long> nbRowsPerTable,
+                              @Nullable final String message) {
+        this.exportId = exportId;
+        this.state = state;
+        this.requestedDate = requestedDate;
+        this.completedDate = completedDate;
+        this.nbRowsPerTable = nbRowsPerTable;
+        this.message = message;
+    }
+
+    public UUID getExportId() {
+        return exportId;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public DateTime getRequestedDate() {
+        return requestedDate;
+    }
+
+    public DateTime getCompletedDate() {
+        return completedDate;
+    }
+
+    // Number of rows exported by this run per table, once SUCCEEDED
+    public Map<String, Long> getNbRowsPerTable() {
+        return nbRowsPerTable;
+    }
+
+    // Cause of the failure, once FAILED
+    public String getMessage() {
+        return message;
+    }
+
+    public boolean isCompleted() {
+        return state == State.SUCCEEDED || state == State.FAILED;
+    }
+
+    @Override
+    public String toString() {
+        return "TenantExportStatus{" +
+               "exportId=" + exportId +
+               ", state=" + state +
+               ", requestedDate=" + requestedDate +
+               ", completedDate=" + completedDate +
+               ", nbRowsPerTable=" + nbRowsPerTable +
+               ", message='" + message + '\'' +
+               '}';
+    }
+}
@@ -24,12 +24,16 @@ import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+import javax.annotation.Nullable;
+
 import org.joda.time.DateTime;
 import org.joda.time.LocalDate;
 import org.killbill.billing.callcontext.InternalCallContext;
 import org.killbill.billing.callcontext.InternalTenantContext;
 import org.killbill.billing.catalog.api.Currency;
+import org.killbill.billing.util.callcontext.CallContext;
 import org.killbill.billing.util.callcontext.TenantContext;
+import org.killbill.billing.util.entity.Pagination;
 
 public interface InvoiceInternalApi {
 
@@ -83,4 +87,17 @@ public interface InvoiceInternalApi {
     List<InvoicePayment> getInvoicePaymentsByInvoice(UUID invoiceId, InternalTenantContext context);
 
     InvoicePayment getInvoicePaymentByCookieId(String cookieId, TenantContext context);
+
+    /**
+     * Check the account balance ledger against the invoice history (under the account lock), and rebuild it if needed.
+     *
+     * @param accountId the account id
+     * @param context   the call context
+     * @return true if the ledger was missing or out of sync (and has been rebuilt)
+     */
+    boolean rebuildAccountBalance(UUID accountId, CallContext context) throws InvoiceApiException;
+
+    Pagination<Invoice> getInvoices(@Nullable Long cursor, Long offset, Long limit, InternalTenantContext context);
+
+    Pagination<Invoice> searchInvoices(String searchKey, @Nullable Long cursor, Long offset, Long limit, InternalTenantContext context);
 }
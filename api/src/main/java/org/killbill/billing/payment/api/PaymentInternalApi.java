@@ -0,0 +1,33 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.payment.api;
+
+import javax.annotation.Nullable;
+
+import org.killbill.billing.callcontext.InternalTenantContext;
+import org.killbill.billing.util.entity.Pagination;
+
+public interface PaymentInternalApi {
+
+    public Pagination<Payment> getPayments(@Nullable Long cursor, Long offset, Long limit, boolean withPluginInfo, boolean withAttempts, Iterable<PluginProperty> properties, InternalTenantContext context);
+
+    // The plugin info cannot be paginated with a cursor: the searches ignore the cursor when withPluginInfo is set
+    public Pagination<Payment> searchPayments(String searchKey, @Nullable Long cursor, Long offset, Long limit, boolean withPluginInfo, boolean withAttempts, Iterable<PluginProperty> properties, InternalTenantContext context);
+
+    public Pagination<PaymentMethod> searchPaymentMethods(String searchKey, @Nullable Long cursor, Long offset, Long limit, boolean withPluginInfo, Iterable<PluginProperty> properties, InternalTenantContext context);
+}
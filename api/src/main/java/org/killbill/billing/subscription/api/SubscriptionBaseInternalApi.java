@@ -68,6 +68,10 @@ public interface SubscriptionBaseInternalApi {
 
     public Pagination<SubscriptionBaseBundle> searchBundles(String searchKey, Long offset, Long limit, InternalTenantContext context);
 
+    public Pagination<SubscriptionBaseBundle> getBundles(@Nullable Long cursor, Long offset, Long limit, InternalTenantContext context);
+
+    public Pagination<SubscriptionBaseBundle> searchBundles(String searchKey, @Nullable Long cursor, Long offset, Long limit, InternalTenantContext context);
+
     public Iterable<UUID> getNonAOSubscriptionIdsForKey(String bundleKey, InternalTenantContext context);
 
     public SubscriptionBaseBundle getActiveBundleForKey(VersionedCatalog catalog, String bundleKey, InternalTenantContext context);
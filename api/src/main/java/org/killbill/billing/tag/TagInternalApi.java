@@ -19,10 +19,13 @@ package org.killbill.billing.tag;
 import java.util.List;
 import java.util.UUID;
 
+import javax.annotation.Nullable;
+
 import org.killbill.billing.ObjectType;
 import org.killbill.billing.util.api.TagApiException;
 import org.killbill.billing.callcontext.InternalCallContext;
 import org.killbill.billing.callcontext.InternalTenantContext;
+import org.killbill.billing.util.entity.Pagination;
 import org.killbill.billing.util.tag.Tag;
 import org.killbill.billing.util.tag.TagDefinition;
 
@@ -48,4 +51,8 @@ public interface TagInternalApi {
     public void addTag(final UUID objectId, final ObjectType objectType, UUID tagDefinitionId, InternalCallContext context) throws TagApiException;
 
     public void removeTag(final UUID objectId, final ObjectType objectType, final UUID tagDefinitionId, InternalCallContext context) throws TagApiException;
+
+    public Pagination<Tag> getTags(@Nullable Long cursor, Long offset, Long limit, InternalTenantContext context);
+
+    public Pagination<Tag> searchTags(String searchKey, @Nullable Long cursor, Long offset, Long limit, InternalTenantContext context);
 }
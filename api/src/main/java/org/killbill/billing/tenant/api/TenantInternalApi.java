@@ -20,11 +20,15 @@ package org.killbill.billing.tenant.api;
 import java.util.List;
 import java.util.Locale;
 
+import org.killbill.billing.callcontext.InternalCallContext;
 import org.killbill.billing.callcontext.InternalTenantContext;
 import org.killbill.billing.tenant.api.TenantKV.TenantKey;
 
 public interface TenantInternalApi {
 
+    // Prefix of the keys owned by Kill Bill (see updateTenantValueForKey), which cannot be set through the TenantUserApi
+    public static final String INTERNAL_KEY_PREFIX = "KB_INTERNAL_";
+
     public interface CacheInvalidationCallback {
 
         /**
@@ -57,5 +61,13 @@ public interface TenantInternalApi {
 
     public List<String> getTenantValuesForKey(final String key, final InternalTenantContext tenantContext);
 
+    /**
+     * Set the value for a key which isn't a (system) TenantKey, replacing the last value if one exists. No broadcast is issued.
+     * Keys which must not be writable by the tenant itself should start with INTERNAL_KEY_PREFIX.
+     */
+    public void updateTenantValueForKey(final String key, final String value, final InternalCallContext context);
+
+    public List<Long> getAllTenantRecordIds();
+
     public Tenant getTenantByApiKey(final String key) throws TenantApiException;
 }
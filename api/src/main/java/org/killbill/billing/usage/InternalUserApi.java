@@ -18,14 +18,48 @@
 package org.killbill.billing.usage;
 
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 
 import org.joda.time.DateTime;
+import org.joda.time.LocalDate;
+import org.killbill.billing.callcontext.InternalCallContext;
 import org.killbill.billing.callcontext.InternalTenantContext;
 import org.killbill.billing.invoice.api.DryRunInfo;
 import org.killbill.billing.payment.api.PluginProperty;
+import org.killbill.billing.security.RequiresPermissions;
 import org.killbill.billing.usage.api.RawUsageRecord;
+import org.killbill.billing.usage.api.SubscriptionUsageRecord;
+
+import static org.killbill.billing.security.Permission.USAGE_CAN_RECORD;
 
 public interface InternalUserApi {
 
     public List<RawUsageRecord> getRawUsageForAccount(DateTime stateDate, DateTime endDate, DryRunInfo dryRunInfo, final Iterable<PluginProperty> pluginProperties, InternalTenantContext tenantContext);
+
+    /**
+     * Same as getRawUsageForAccount but reads the daily usage rollups: each returned record aggregates the points of a given day,
+     * unless one of the splitDates falls within that day's points, in which case the raw points are returned instead.
+     * The points of the capacityUnitTypes are aggregated with the max (CAPACITY usage), the other ones with the sum (CONSUMABLE usage).
+     * A day recorded with several tracking ids is only aggregated once all its tracking ids have been invoiced: the raw points are returned
+     * until then, so that the tracking ids of the new invoice are the same as with getRawUsageForAccount.
+     */
+    public List<RawUsageRecord> getRolledUpUsageForAccount(DateTime stateDate, DateTime endDate, Iterable<DateTime> splitDates, Set<String> capacityUnitTypes, InvoicedTrackingIds invoicedTrackingIds, DryRunInfo dryRunInfo, final Iterable<PluginProperty> pluginProperties, InternalTenantContext tenantContext);
+
+    /**
+     * Bulk version of UsageUserApi#recordRolledUpUsage, for records spanning many subscriptions (and accounts) of the tenant.
+     * Records are validated independently and persisted in one batch per account: the result list has one entry per input record, in the same order.
+     * Backs the bulk usage endpoint, hence the same permission as UsageUserApi#recordRolledUpUsage.
+     */
+    @RequiresPermissions(USAGE_CAN_RECORD)
+    public List<SubscriptionUsageRecordResult> recordRolledUpUsage(List<SubscriptionUsageRecord> records, InternalCallContext context);
+
+    public interface InvoicedTrackingIds {
+
+        // Record date, as seen by the invoice code
+        public LocalDate toLocalDate(DateTime recordDate);
+
+        // Number of tracking ids already invoiced for that subscription, unit type and record date
+        public int getNbTrackingIds(UUID subscriptionId, String unitType, LocalDate recordDate);
+    }
 }
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.usage;
+
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+/**
+ * Outcome of a single SubscriptionUsageRecord submitted through InternalUserApi#recordRolledUpUsage.
+ */
+public class SubscriptionUsageRecordResult {
+
+    public enum Status {
+        ACCEPTED,
+        REJECTED
+    }
+
+    private final UUID subscriptionId;
+    private final String trackingId;
+    private final Status status;
+    private final String message;
+
+    private SubscriptionUsageRecordResult(final UUID subscriptionId, @Nullable final String trackingId, final Status status, @Nullable final String message) {
+        this.subscriptionId = subscriptionId;
+        this.trackingId = trackingId;
+        this.status = status;
+        this.message = message;
+    }
+
+    public static SubscriptionUsageRecordResult accepted(final UUID subscriptionId, final String trackingId) {
+        return new SubscriptionUsageRecordResult(subscriptionId, trackingId, Status.ACCEPTED, null);
+    }
+
+    public static SubscriptionUsageRecordResult rejected(final UUID subscriptionId, @Nullable final String trackingId, final String message) {
+        return new SubscriptionUsageRecordResult(subscriptionId, trackingId, Status.REJECTED, message);
+    }
+
+    public UUID getSubscriptionId() {
+        return subscriptionId;
+    }
+
+    public String getTrackingId() {
+        return trackingId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return "SubscriptionUsageRecordResult{" +
+               "subscriptionId=" + subscriptionId +
+               ", trackingId='" + trackingId + '\'' +
+               ", status=" + status +
+               ", message='" + message + '\'' +
+               '}';
+    }
+}
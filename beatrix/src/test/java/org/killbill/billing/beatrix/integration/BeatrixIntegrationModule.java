@@ -75,6 +75,7 @@ import org.killbill.billing.util.glue.KillbillApiAopModule;
 import org.killbill.billing.util.glue.NodesModule;
 import org.killbill.billing.util.glue.NonEntityDaoModule;
 import org.killbill.billing.util.glue.RecordIdModule;
+import org.killbill.billing.util.glue.SearchModule;
 import org.killbill.billing.util.glue.SecurityModule;
 import org.killbill.billing.util.glue.TagStoreModule;
 import org.killbill.clock.Clock;
@@ -134,6 +135,7 @@ public class BeatrixIntegrationModule extends KillBillModule {
         install(new DefaultTenantModule(configSource));
         install(new ExportModule(configSource));
         install(new NonEntityDaoModule(configSource));
+        install(new SearchModule(configSource));
         install(new RecordIdModule(configSource));
         install(new UsageModule(configSource));
         install(new SecurityModule(configSource));
@@ -1302,6 +1302,36 @@ public class TestIntegrationBase extends BeatrixTestSuiteWithEmbeddedDB implemen
             return defaultInvoiceConfig.isUsageMissingLenient();
         }
 
+        @Override
+        public boolean isUsageRollupEnabled() {
+            return defaultInvoiceConfig.isUsageRollupEnabled();
+        }
+
+        @Override
+        public boolean isUsageRollupEnabled(final InternalTenantContext tenantContext) {
+            return defaultInvoiceConfig.isUsageRollupEnabled();
+        }
+
+        @Override
+        public boolean isAccountBalanceLedgerEnabled() {
+            return defaultInvoiceConfig.isAccountBalanceLedgerEnabled();
+        }
+
+        @Override
+        public boolean isAccountBalanceLedgerEnabled(final InternalTenantContext tenantContext) {
+            return defaultInvoiceConfig.isAccountBalanceLedgerEnabled();
+        }
+
+        @Override
+        public boolean isBinaryBillingEventsFormatEnabled() {
+            return defaultInvoiceConfig.isBinaryBillingEventsFormatEnabled();
+        }
+
+        @Override
+        public boolean isBinaryBillingEventsFormatEnabled(final InternalTenantContext tenantContext) {
+            return defaultInvoiceConfig.isBinaryBillingEventsFormatEnabled();
+        }
+
         @Override
         public int getMaxDailyNumberOfItemsSafetyBound() {
             return defaultInvoiceConfig.getMaxDailyNumberOfItemsSafetyBound();
@@ -1365,6 +1395,61 @@ public class TestIntegrationBase extends BeatrixTestSuiteWithEmbeddedDB implemen
             return defaultInvoiceConfig.getMaxGlobalLockRetries();
         }
 
+        @Override
+        public int getInvoiceBatchThreadNb() {
+            return defaultInvoiceConfig.getInvoiceBatchThreadNb();
+        }
+
+        @Override
+        public boolean isInvoiceBatchEnabled() {
+            return defaultInvoiceConfig.isInvoiceBatchEnabled();
+        }
+
+        @Override
+        public TimeSpan getInvoiceBatchMinInterval() {
+            return defaultInvoiceConfig.getInvoiceBatchMinInterval();
+        }
+
+        @Override
+        public TimeSpan getInvoiceBatchClaimTimeout() {
+            return defaultInvoiceConfig.getInvoiceBatchClaimTimeout();
+        }
+
+        @Override
+        public boolean isInvoiceRunCoalescingEnabled() {
+            return defaultInvoiceConfig.isInvoiceRunCoalescingEnabled();
+        }
+
+        @Override
+        public TimeSpan getInvoiceRunCoalescingWindow() {
+            return defaultInvoiceConfig.getInvoiceRunCoalescingWindow();
+        }
+
+        @Override
+        public int getUsageInvoiceThreadNb() {
+            return defaultInvoiceConfig.getUsageInvoiceThreadNb();
+        }
+
+        @Override
+        public int getUsageInvoiceParallelMinSubscriptions() {
+            return defaultInvoiceConfig.getUsageInvoiceParallelMinSubscriptions();
+        }
+
+        @Override
+        public int getInvoiceTreeThreadNb() {
+            return defaultInvoiceConfig.getInvoiceTreeThreadNb();
+        }
+
+        @Override
+        public int getInvoiceTreeParallelMinSubscriptions() {
+            return defaultInvoiceConfig.getInvoiceTreeParallelMinSubscriptions();
+        }
+
+        @Override
+        public boolean isInvoiceTreeFlat() {
+            return defaultInvoiceConfig.isInvoiceTreeFlat();
+        }
+
         @Override
         public List<String> getInvoicePluginNames() {
             return defaultInvoiceConfig.getInvoicePluginNames();
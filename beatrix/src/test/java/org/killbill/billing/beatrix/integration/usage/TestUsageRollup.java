@@ -0,0 +1,116 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.beatrix.integration.usage;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.LocalDate;
+import org.killbill.billing.account.api.Account;
+import org.killbill.billing.account.api.AccountData;
+import org.killbill.billing.api.TestApiListener.NextEvent;
+import org.killbill.billing.beatrix.integration.TestIntegrationBase;
+import org.killbill.billing.beatrix.util.InvoiceChecker.ExpectedInvoiceItemCheck;
+import org.killbill.billing.catalog.api.BillingPeriod;
+import org.killbill.billing.catalog.api.ProductCategory;
+import org.killbill.billing.entitlement.api.DefaultEntitlement;
+import org.killbill.billing.invoice.api.Invoice;
+import org.killbill.billing.invoice.api.InvoiceItemType;
+import org.killbill.billing.platform.api.KillbillConfigSource;
+import org.killbill.billing.usage.api.SubscriptionUsageRecord;
+import org.killbill.billing.usage.api.UnitUsageRecord;
+import org.killbill.billing.usage.api.UsageRecord;
+import org.testng.annotations.Test;
+
+public class TestUsageRollup extends TestIntegrationBase {
+
+    @Override
+    protected KillbillConfigSource getConfigSource(final Map<String, String> extraProperties) {
+        final Map<String, String> allExtraProperties = new HashMap<String, String>(extraProperties);
+        allExtraProperties.putAll(DEFAULT_BEATRIX_PROPERTIES);
+        allExtraProperties.put("org.killbill.catalog.uri", "catalogs/testWithoutZeroUsageItems");
+        allExtraProperties.put("org.killbill.invoice.usage.rollup.enabled", "true");
+        return getConfigSource(null, allExtraProperties);
+    }
+
+    @Test(groups = "slow")
+    public void testCapacityInArrearWithDailyRollups() throws Exception {
+        clock.setDay(new LocalDate(2012, 4, 1));
+
+        final AccountData accountData = getAccountData(1);
+        final Account account = createAccountWithNonOsgiPaymentMethod(accountData);
+        accountChecker.checkAccount(account.getId(), accountData, callContext);
+
+        final DefaultEntitlement bpSubscription = createBaseEntitlementAndCheckForCompletion(account.getId(), "bundleKey", "Trebuchet", ProductCategory.BASE, BillingPeriod.NO_BILLING_PERIOD, NextEvent.CREATE, NextEvent.BLOCK, NextEvent.NULL_INVOICE);
+
+        // Both points end up in the same daily bucket: the max (70, first tier) is billed, not the sum (130, second tier)
+        final DateTime recordDay = new LocalDate(2012, 4, 5).toDateTimeAtStartOfDay(DateTimeZone.UTC);
+        final List<UsageRecord> stoneRecords = List.of(new UsageRecord(recordDay.plusHours(10), BigDecimal.valueOf(60L)),
+                                                       new UsageRecord(recordDay.plusHours(14), BigDecimal.valueOf(70L)));
+        recordUsageData(new SubscriptionUsageRecord(bpSubscription.getId(), "xxx-1", List.of(new UnitUsageRecord("stones", stoneRecords))), callContext);
+
+        busHandler.pushExpectedEvents(NextEvent.INVOICE, NextEvent.PAYMENT, NextEvent.INVOICE_PAYMENT);
+        clock.addMonths(1);
+        assertListenerStatus();
+
+        final Invoice invoice = invoiceChecker.checkInvoice(account.getId(), 1, callContext,
+                                                            new ExpectedInvoiceItemCheck(new LocalDate(2012, 4, 1), new LocalDate(2012, 5, 1), InvoiceItemType.USAGE, new BigDecimal("100")));
+        invoiceChecker.checkTrackingIds(invoice, Set.of("xxx-1"), internalCallContext);
+    }
+
+    @Test(groups = "slow")
+    public void testDailyRollupsWithOneTrackingIdPerRecording() throws Exception {
+        clock.setDay(new LocalDate(2012, 4, 1));
+
+        final AccountData accountData = getAccountData(1);
+        final Account account = createAccountWithNonOsgiPaymentMethod(accountData);
+        accountChecker.checkAccount(account.getId(), accountData, callContext);
+
+        final DefaultEntitlement bpSubscription = createBaseEntitlementAndCheckForCompletion(account.getId(), "bundleKey", "Trebuchet", ProductCategory.BASE, BillingPeriod.NO_BILLING_PERIOD, NextEvent.CREATE, NextEvent.BLOCK, NextEvent.NULL_INVOICE);
+
+        // Both recordings end up in the same daily bucket
+        final DateTime recordDay = new LocalDate(2012, 4, 5).toDateTimeAtStartOfDay(DateTimeZone.UTC);
+        recordUsageData(new SubscriptionUsageRecord(bpSubscription.getId(), "xxx-1", List.of(new UnitUsageRecord("stones", List.of(new UsageRecord(recordDay.plusHours(10), BigDecimal.valueOf(60L)))))), callContext);
+        recordUsageData(new SubscriptionUsageRecord(bpSubscription.getId(), "xxx-2", List.of(new UnitUsageRecord("stones", List.of(new UsageRecord(recordDay.plusHours(14), BigDecimal.valueOf(70L)))))), callContext);
+
+        busHandler.pushExpectedEvents(NextEvent.INVOICE, NextEvent.PAYMENT, NextEvent.INVOICE_PAYMENT);
+        clock.addMonths(1);
+        assertListenerStatus();
+
+        // The day hasn't been invoiced yet: both tracking ids are recorded
+        final Invoice firstInvoice = invoiceChecker.checkInvoice(account.getId(), 1, callContext,
+                                                                 new ExpectedInvoiceItemCheck(new LocalDate(2012, 4, 1), new LocalDate(2012, 5, 1), InvoiceItemType.USAGE, new BigDecimal("100")));
+        invoiceChecker.checkTrackingIds(firstInvoice, Set.of("xxx-1", "xxx-2"), internalCallContext);
+
+        recordUsageData(new SubscriptionUsageRecord(bpSubscription.getId(), "xxx-3", List.of(new UnitUsageRecord("stones", List.of(new UsageRecord(recordDay.plusMonths(1), BigDecimal.valueOf(50L)))))), callContext);
+
+        busHandler.pushExpectedEvents(NextEvent.INVOICE, NextEvent.PAYMENT, NextEvent.INVOICE_PAYMENT);
+        clock.addMonths(1);
+        assertListenerStatus();
+
+        // The previous period is read from the rollups, its tracking ids aren't recorded again
+        final Invoice secondInvoice = invoiceChecker.checkInvoice(account.getId(), 2, callContext,
+                                                                  new ExpectedInvoiceItemCheck(new LocalDate(2012, 5, 1), new LocalDate(2012, 6, 1), InvoiceItemType.USAGE, new BigDecimal("100")));
+        invoiceChecker.checkTrackingIds(secondInvoice, Set.of("xxx-3"), internalCallContext);
+    }
+}
@@ -18,6 +18,10 @@
 
 package org.killbill.billing.catalog;
 
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
 import javax.inject.Inject;
 import javax.inject.Named;
 
@@ -35,6 +39,7 @@ import org.killbill.billing.tenant.api.TenantInternalApi;
 import org.killbill.billing.tenant.api.TenantInternalApi.CacheInvalidationCallback;
 import org.killbill.billing.tenant.api.TenantKV.TenantKey;
 import org.killbill.billing.util.config.definition.CatalogConfig;
+import org.killbill.commons.concurrent.Executors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -84,6 +89,40 @@ public class DefaultCatalogService implements KillbillService, CatalogService {
         tenantInternalApi.initializeCacheInvalidationCallback(TenantKey.CATALOG, cacheInvalidationCallback);
     }
 
+    @LifecycleHandlerType(LifecycleLevel.START_SERVICE)
+    public void warmUpCatalogs() {
+        final int nbThreads = config.getCatalogWarmupThreadNb();
+        if (nbThreads <= 0) {
+            return;
+        }
+
+        final List<Long> tenantRecordIds = tenantInternalApi.getAllTenantRecordIds();
+        final long startTime = System.currentTimeMillis();
+        final ExecutorService executorService = Executors.newFixedThreadPool(nbThreads, "catalog-warmup");
+        try {
+            for (final Long tenantRecordId : tenantRecordIds) {
+                executorService.submit(() -> {
+                    try {
+                        // Same arguments as most internal callers, so that they hit the warm cache entry
+                        catalogCache.getCatalog(true, true, false, new InternalTenantContext(tenantRecordId));
+                    } catch (final CatalogApiException | RuntimeException e) {
+                        log.warn("Unable to warm up the catalog for tenantRecordId='{}'", tenantRecordId, e);
+                    }
+                });
+            }
+        } finally {
+            executorService.shutdown();
+        }
+
+        try {
+            executorService.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            log.info("Warmed up the catalogs of {} tenants in {} ms", tenantRecordIds.size(), System.currentTimeMillis() - startTime);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while warming up the catalogs");
+        }
+    }
+
     @LifecycleHandlerType(LifecycleLevel.STOP_SERVICE)
     public void stop() {
         versionedCatalogLoader.close();
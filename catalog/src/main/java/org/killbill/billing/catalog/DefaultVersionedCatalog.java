@@ -21,6 +21,7 @@ package org.killbill.billing.catalog;
 import java.io.Externalizable;
 import java.io.IOException;
 import java.io.ObjectInput;
+import java.io.ObjectInputFilter;
 import java.io.ObjectOutput;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -31,6 +32,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
 
+import javax.xml.bind.Marshaller;
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlElement;
@@ -38,11 +40,11 @@ import javax.xml.bind.annotation.XmlElementWrapper;
 import javax.xml.bind.annotation.XmlRootElement;
 
 import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
 import org.killbill.billing.catalog.api.Plan;
 import org.killbill.billing.catalog.api.PlanPhase;
 import org.killbill.billing.catalog.api.StaticCatalog;
 import org.killbill.billing.catalog.api.VersionedCatalog;
-import org.killbill.billing.util.catalog.CatalogDateHelper;
 import org.killbill.xmlloader.ValidatingConfig;
 import org.killbill.xmlloader.ValidationError;
 import org.killbill.xmlloader.ValidationErrors;
@@ -52,12 +54,27 @@ import org.killbill.xmlloader.ValidationErrors;
 public class DefaultVersionedCatalog extends ValidatingConfig<DefaultVersionedCatalog> implements VersionedCatalog, Externalizable {
 
     private static final long serialVersionUID = 3181874902672322725L;
+
+    // Marker for the compact serialized form (entries written by previous releases contain the list of versions instead)
+    private static final String COMPACT_SERIALIZATION_FORMAT = "compact-v1";
+
+    // Classes a serialized catalog can reference (catalog classes, as well as the JDK and Joda-Time types they use): anything else is rejected on read
+    public static final ObjectInputFilter SERIALIZATION_FILTER = ObjectInputFilter.Config.createFilter("maxdepth=64;"
+                                                                                                       + "java.lang.*;java.util.*;java.math.*;java.net.URI;"
+                                                                                                       + "org.joda.time.**;org.killbill.billing.catalog.**;!*");
+
     @XmlElementWrapper(name = "versions", required = true)
     @XmlElement(name = "version", type = StandaloneCatalog.class, required = true)
     private final List<StaticCatalog> versions;
     @XmlElement(required = true)
     private String catalogName;
 
+    // Sorted effective dates (in millis) of the versions, lazily built for the lookups by date
+    private transient volatile long[] effectiveDatesMillis;
+
+    // Versions not decoded yet, when deserialized from the compact form
+    private transient volatile SerializedCatalogVersions serializedVersions;
+
     // Required for JAXB deserialization
     public DefaultVersionedCatalog() {
         this.versions = new ArrayList<StaticCatalog>();
@@ -65,58 +82,106 @@ public class DefaultVersionedCatalog extends ValidatingConfig<DefaultVersionedCa
 
     @Override
     public String getCatalogName() {
-        return !versions.isEmpty() ? versions.get(0).getCatalogName() : null;
+        return getNbVersions() > 0 ? getVersionAt(0).getCatalogName() : null;
     }
 
     @Override
     public List<StaticCatalog> getVersions() {
-        return versions;
+        return getDecodedVersions();
     }
 
     @Override
     public StaticCatalog getCurrentVersion() {
         // Looks like we sometimes cache empty catalog ?
-        return !versions.isEmpty() ? versions.get(versions.size() - 1) : null;
+        final int nbVersions = getNbVersions();
+        return nbVersions > 0 ? getVersionAt(nbVersions - 1) : null;
     }
 
     @Override
     public StaticCatalog getVersion(final Date date) {
-        return versionForDate(CatalogDateHelper.toUTCDateTime(date));
+        return getVersionAt(indexOfVersionForDate(date.getTime()));
     }
 
-    private StaticCatalog versionForDate(final DateTime date) {
-        return versions.get(indexOfVersionForDate(date.toDate()));
+    private int getNbVersions() {
+        final SerializedCatalogVersions serialized = serializedVersions;
+        return serialized != null ? serialized.size() : versions.size();
+    }
+
+    private StaticCatalog getVersionAt(final int index) {
+        final SerializedCatalogVersions serialized = serializedVersions;
+        return serialized != null ? serialized.get(index) : versions.get(index);
+    }
+
+    private List<StaticCatalog> getDecodedVersions() {
+        final SerializedCatalogVersions serialized = serializedVersions;
+        if (serialized != null) {
+            synchronized (serialized) {
+                if (serializedVersions != null) {
+                    versions.addAll(serialized.getAll());
+                    serializedVersions = null;
+                }
+            }
+        }
+        return versions;
     }
 
-    private int indexOfVersionForDate(final Date date) {
+    private int indexOfVersionForDate(final long dateMillis) {
+        final long[] effectiveDates = getEffectiveDatesMillis();
 
-        for (int i = versions.size() - 1; i >= 0; i--) {
-            final StaticCatalog c = versions.get(i);
-            if (c.getEffectiveDate().getTime() <= date.getTime()) {
-                return i;
+        // Binary search for the last version effective on or before the date
+        int low = 0;
+        int high = effectiveDates.length - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            if (effectiveDates[mid] <= dateMillis) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
             }
         }
+        if (high >= 0) {
+            return high;
+        }
         // If the only version we have are after the input date, we return the first version
         // This is not strictly correct from an api point of view, but there is no real good use case
         // where the system would ask for the catalog for a date prior any catalog was uploaded and
         // yet time manipulation could end of inn that state -- see https://github.com/killbill/killbill/issues/760
-        if (!versions.isEmpty()) {
+        if (getNbVersions() > 0) {
             return 0;
         }
-        throw new IllegalStateException(String.format("No existing versions in the VersionedCatalog catalog for input date %s", date));
+        throw new IllegalStateException(String.format("No existing versions in the VersionedCatalog catalog for input date %s", new DateTime(dateMillis, DateTimeZone.UTC)));
+    }
+
+    private long[] getEffectiveDatesMillis() {
+        final SerializedCatalogVersions serialized = serializedVersions;
+        if (serialized != null) {
+            return serialized.getEffectiveDatesMillis();
+        }
+
+        long[] result = effectiveDatesMillis;
+        // The versions are populated by JAXB (or through add), so also rebuild if we missed a change
+        if (result == null || result.length != versions.size()) {
+            result = new long[versions.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = versions.get(i).getEffectiveDate().getTime();
+            }
+            effectiveDatesMillis = result;
+        }
+        return result;
     }
 
     public void add(final StandaloneCatalog e) {
         if (catalogName == null && e.getCatalogName() != null) {
             catalogName = e.getCatalogName();
         }
-        versions.add(e);
+        getDecodedVersions().add(e);
         Collections.sort(versions, new Comparator<StaticCatalog>() {
             @Override
             public int compare(final StaticCatalog c1, final StaticCatalog c2) {
                 return c1.getEffectiveDate().compareTo(c2.getEffectiveDate());
             }
         });
+        effectiveDatesMillis = null;
     }
 
     @Override
@@ -126,6 +191,7 @@ public class DefaultVersionedCatalog extends ValidatingConfig<DefaultVersionedCa
         // and then later on the VersionedCatalog, so we only initialize and validate VersionedCatalog
         // *without** recursively through each StandaloneCatalog
         //
+        getDecodedVersions();
         super.initialize(catalog);
         CatalogSafetyInitializer.initializeNonRequiredNullFieldsWithDefaultValue(this);
     }
@@ -134,7 +200,7 @@ public class DefaultVersionedCatalog extends ValidatingConfig<DefaultVersionedCa
     public ValidationErrors validate(final DefaultVersionedCatalog catalog, final ValidationErrors errors) {
         final Set<Date> effectiveDates = new TreeSet<Date>();
 
-        for (final StaticCatalog c : versions) {
+        for (final StaticCatalog c : getDecodedVersions()) {
             if (effectiveDates.contains(c.getEffectiveDate())) {
                 errors.add(new ValidationError(String.format("Catalog effective date '%s' already exists for a previous version", c.getEffectiveDate()),
                                                DefaultVersionedCatalog.class, ""));
@@ -154,12 +220,13 @@ public class DefaultVersionedCatalog extends ValidatingConfig<DefaultVersionedCa
     }
 
     private void validateUniformPlanShapeAcrossVersions(final ValidationErrors errors) {
-        for (int i = 0; i < versions.size(); i++) {
-            final StaticCatalog c = versions.get(i);
+        final List<StaticCatalog> decodedVersions = getDecodedVersions();
+        for (int i = 0; i < decodedVersions.size(); i++) {
+            final StaticCatalog c = decodedVersions.get(i);
             for (final Plan plan : ((StandaloneCatalog) c).getPlans()) {
 
-                for (int j = i + 1; j < versions.size(); j++) {
-                    final StaticCatalog next = versions.get(j);
+                for (int j = i + 1; j < decodedVersions.size(); j++) {
+                    final StaticCatalog next = decodedVersions.get(j);
                     final Plan targetPlan = ((StandaloneCatalog) next).getPlansMap().findByName(plan.getName());
                     if (targetPlan != null) {
                         validatePlanShape(plan, targetPlan, errors);
@@ -192,10 +259,20 @@ public class DefaultVersionedCatalog extends ValidatingConfig<DefaultVersionedCa
     }
     
 
+    // JAXB callback: the marshaller accesses the versions field directly
+    private void beforeMarshal(final Marshaller marshaller) {
+        getDecodedVersions();
+    }
+
     @Override
     public void readExternal(final ObjectInput in) throws IOException, ClassNotFoundException {
         this.catalogName = in.readBoolean() ? in.readUTF() : null;
-        this.versions.addAll((Collection<? extends StandaloneCatalog>) in.readObject());
+        final Object versionsOrFormat = in.readObject();
+        if (COMPACT_SERIALIZATION_FORMAT.equals(versionsOrFormat)) {
+            this.serializedVersions = SerializedCatalogVersions.readFrom(in);
+        } else {
+            this.versions.addAll((Collection<? extends StandaloneCatalog>) versionsOrFormat);
+        }
     }
 
     @Override
@@ -205,7 +282,10 @@ public class DefaultVersionedCatalog extends ValidatingConfig<DefaultVersionedCa
             // Can be null for placeholder XML
             oo.writeUTF(catalogName);
         }
-        oo.writeObject(versions);
+        oo.writeObject(COMPACT_SERIALIZATION_FORMAT);
+        // Versions which haven't been decoded are written back as is
+        final SerializedCatalogVersions serialized = serializedVersions;
+        (serialized != null ? serialized : SerializedCatalogVersions.encode(versions)).writeTo(oo);
     }
 
     @Override
@@ -219,7 +299,7 @@ public class DefaultVersionedCatalog extends ValidatingConfig<DefaultVersionedCa
 
         final DefaultVersionedCatalog that = (DefaultVersionedCatalog) o;
 
-        if (versions != null ? !versions.equals(that.versions) : that.versions != null) {
+        if (!getDecodedVersions().equals(that.getDecodedVersions())) {
             return false;
         }
         return catalogName != null ? catalogName.equals(that.catalogName) : that.catalogName == null;
@@ -227,7 +307,7 @@ public class DefaultVersionedCatalog extends ValidatingConfig<DefaultVersionedCa
 
     @Override
     public int hashCode() {
-        int result = versions != null ? versions.hashCode() : 0;
+        int result = getDecodedVersions().hashCode();
         result = 31 * result + (catalogName != null ? catalogName.hashCode() : 0);
         return result;
     }
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.catalog;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutput;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.killbill.billing.catalog.api.StaticCatalog;
+
+/**
+ * Compact serialized form of the versions of a {@link DefaultVersionedCatalog}, as shipped to distributed caches.
+ * <p>
+ * Each version is serialized and deflated on its own (the plan, phase and price list names repeated throughout a version
+ * compress very well), next to its effective date. This lets a node look up the version for a date and only
+ * decode that version, the other ones being decoded on first access.
+ */
+final class SerializedCatalogVersions {
+
+    private final long[] effectiveDatesMillis;
+    private final byte[][] encodedVersions;
+    private final StaticCatalog[] decodedVersions;
+
+    private SerializedCatalogVersions(final long[] effectiveDatesMillis, final byte[][] encodedVersions, final StaticCatalog[] decodedVersions) {
+        this.effectiveDatesMillis = effectiveDatesMillis;
+        this.encodedVersions = encodedVersions;
+        this.decodedVersions = decodedVersions;
+    }
+
+    static SerializedCatalogVersions encode(final List<StaticCatalog> versions) throws IOException {
+        final long[] effectiveDatesMillis = new long[versions.size()];
+        final byte[][] encodedVersions = new byte[versions.size()][];
+        final StaticCatalog[] decodedVersions = new StaticCatalog[versions.size()];
+        for (int i = 0; i < versions.size(); i++) {
+            effectiveDatesMillis[i] = versions.get(i).getEffectiveDate().getTime();
+            encodedVersions[i] = encode(versions.get(i));
+            decodedVersions[i] = versions.get(i);
+        }
+        return new SerializedCatalogVersions(effectiveDatesMillis, encodedVersions, decodedVersions);
+    }
+
+    static SerializedCatalogVersions readFrom(final ObjectInput in) throws IOException {
+        final int nbVersions = in.readInt();
+        final long[] effectiveDatesMillis = new long[nbVersions];
+        final byte[][] encodedVersions = new byte[nbVersions][];
+        for (int i = 0; i < nbVersions; i++) {
+            effectiveDatesMillis[i] = in.readLong();
+            encodedVersions[i] = new byte[in.readInt()];
+            in.readFully(encodedVersions[i]);
+        }
+        return new SerializedCatalogVersions(effectiveDatesMillis, encodedVersions, new StaticCatalog[nbVersions]);
+    }
+
+    void writeTo(final ObjectOutput out) throws IOException {
+        out.writeInt(encodedVersions.length);
+        for (int i = 0; i < encodedVersions.length; i++) {
+            out.writeLong(effectiveDatesMillis[i]);
+            out.writeInt(encodedVersions[i].length);
+            out.write(encodedVersions[i]);
+        }
+    }
+
+    int size() {
+        return encodedVersions.length;
+    }
+
+    long[] getEffectiveDatesMillis() {
+        return effectiveDatesMillis;
+    }
+
+    synchronized StaticCatalog get(final int index) {
+        if (decodedVersions[index] == null) {
+            decodedVersions[index] = decode(encodedVersions[index]);
+        }
+        return decodedVersions[index];
+    }
+
+    synchronized List<StaticCatalog> getAll() {
+        final List<StaticCatalog> result = new ArrayList<StaticCatalog>(decodedVersions.length);
+        for (int i = 0; i < decodedVersions.length; i++) {
+            result.add(get(i));
+        }
+        return result;
+    }
+
+    private static byte[] encode(final StaticCatalog version) throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (final ObjectOutputStream out = new ObjectOutputStream(new DeflaterOutputStream(bos, deflater))) {
+            out.writeObject(version);
+        } finally {
+            deflater.end();
+        }
+        return bos.toByteArray();
+    }
+
+    private static StaticCatalog decode(final byte[] encodedVersion) {
+        try (final ObjectInputStream in = new ObjectInputStream(new InflaterInputStream(new ByteArrayInputStream(encodedVersion)))) {
+            in.setObjectInputFilter(DefaultVersionedCatalog.SERIALIZATION_FILTER);
+            return (StaticCatalog) in.readObject();
+        } catch (final IOException | ClassNotFoundException e) {
+            throw new IllegalStateException("Unable to decode catalog version", e);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.catalog.caching;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+
+import org.killbill.billing.callcontext.InternalCallContext;
+import org.killbill.billing.callcontext.InternalTenantContext;
+import org.killbill.billing.catalog.DefaultVersionedCatalog;
+import org.killbill.billing.catalog.api.VersionedCatalog;
+import org.killbill.billing.tenant.api.TenantInternalApi;
+import org.killbill.billing.util.callcontext.CallOrigin;
+import org.killbill.billing.util.callcontext.InternalCallContextFactory;
+import org.killbill.billing.util.callcontext.UserType;
+import org.killbill.billing.util.config.definition.CatalogConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pre-parsed (and validated) tenant catalogs, persisted next to the catalog versions in the tenant key-value store.
+ * <p>
+ * A snapshot is keyed by a hash of the catalog XMLs it was built from (as well as the Kill Bill version, since it
+ * relies on the serialized form of the catalog classes): as long as the catalog versions of the tenant don't change,
+ * cache misses can deserialize the snapshot instead of parsing and validating each XML again.
+ */
+public class CatalogSnapshots {
+
+    // These must not start with a TenantKey name, so that updating a snapshot doesn't invalidate the catalog caches,
+    // and are internal keys, so that tenants cannot write them through the TenantUserApi
+    static final String CATALOG_SNAPSHOT_KEY = TenantInternalApi.INTERNAL_KEY_PREFIX + "CATALOG_SNAPSHOT";
+    static final String CATALOG_SNAPSHOT_WITHOUT_TEMPLATES_KEY = TenantInternalApi.INTERNAL_KEY_PREFIX + "CATALOG_SNAPSHOT_WITHOUT_TEMPLATES";
+
+    // Bump if the snapshot layout changes
+    private static final String SNAPSHOT_FORMAT = "1";
+    private static final char HASH_SEPARATOR = ':';
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshots.class);
+
+    private final CatalogConfig config;
+    private final TenantInternalApi tenantInternalApi;
+    private final InternalCallContextFactory internalCallContextFactory;
+
+    @Inject
+    public CatalogSnapshots(final CatalogConfig config,
+                            final TenantInternalApi tenantInternalApi,
+                            final InternalCallContextFactory internalCallContextFactory) {
+        this.config = config;
+        this.tenantInternalApi = tenantInternalApi;
+        this.internalCallContextFactory = internalCallContextFactory;
+    }
+
+    public boolean isEnabled() {
+        return config.isCatalogSnapshotEnabled();
+    }
+
+    /**
+     * @return the snapshot matching these catalog XMLs, or null if there is none (or it cannot be read)
+     */
+    @Nullable
+    public DefaultVersionedCatalog getSnapshot(final List<String> catalogXMLs, final boolean filterTemplateCatalog, final Long tenantRecordId) {
+        final List<String> values = tenantInternalApi.getTenantValuesForKey(getKey(filterTemplateCatalog), new InternalTenantContext(tenantRecordId));
+        if (values.isEmpty()) {
+            return null;
+        }
+
+        final String value = values.get(values.size() - 1);
+        final int separatorIndex = value.indexOf(HASH_SEPARATOR);
+        if (separatorIndex < 0 || !value.substring(0, separatorIndex).equals(computeHash(catalogXMLs, filterTemplateCatalog))) {
+            // Catalog versions have changed since the snapshot was taken
+            return null;
+        }
+
+        final byte[] serialized = Base64.getDecoder().decode(value.substring(separatorIndex + 1));
+        try (final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            in.setObjectInputFilter(DefaultVersionedCatalog.SERIALIZATION_FILTER);
+            return (DefaultVersionedCatalog) in.readObject();
+        } catch (final IOException | ClassNotFoundException | RuntimeException e) {
+            logger.warn("Unable to read the catalog snapshot for tenantRecordId='{}', ignoring it", tenantRecordId, e);
+            return null;
+        }
+    }
+
+    public void saveSnapshot(final List<String> catalogXMLs, final boolean filterTemplateCatalog, final Long tenantRecordId, final VersionedCatalog catalog) {
+        if (!(catalog instanceof DefaultVersionedCatalog)) {
+            return;
+        }
+
+        try {
+            final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            try (final ObjectOutputStream out = new ObjectOutputStream(bos)) {
+                out.writeObject(catalog);
+            }
+            final String value = computeHash(catalogXMLs, filterTemplateCatalog) + HASH_SEPARATOR + Base64.getEncoder().encodeToString(bos.toByteArray());
+
+            final InternalCallContext context = internalCallContextFactory.createInternalCallContext(tenantRecordId, null, "CatalogSnapshot", CallOrigin.INTERNAL, UserType.SYSTEM, null);
+            tenantInternalApi.updateTenantValueForKey(getKey(filterTemplateCatalog), value, context);
+        } catch (final IOException | RuntimeException e) {
+            // The snapshot is only an optimization
+            logger.warn("Unable to save the catalog snapshot for tenantRecordId='{}'", tenantRecordId, e);
+        }
+    }
+
+    private static String getKey(final boolean filterTemplateCatalog) {
+        return filterTemplateCatalog ? CATALOG_SNAPSHOT_WITHOUT_TEMPLATES_KEY : CATALOG_SNAPSHOT_KEY;
+    }
+
+    static String computeHash(final List<String> catalogXMLs, final boolean filterTemplateCatalog) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        update(digest, SNAPSHOT_FORMAT);
+        update(digest, String.valueOf(DefaultVersionedCatalog.class.getPackage().getImplementationVersion()));
+        update(digest, String.valueOf(filterTemplateCatalog));
+        for (final String catalogXML : catalogXMLs) {
+            update(digest, catalogXML);
+        }
+
+        final StringBuilder result = new StringBuilder();
+        for (final byte b : digest.digest()) {
+            result.append(String.format("%02x", b));
+        }
+        return result.toString();
+    }
+
+    private static void update(final MessageDigest digest, final String value) {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        // Length prefixed, so that the boundaries between the XMLs are part of the hash
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+}
@@ -63,6 +63,7 @@ public class DefaultCatalogCache implements CatalogCache {
     private final VersionedCatalogMapper versionedCatalogMapper;
     private final PriceOverride priceOverride;
     private final InternalCallContextFactory internalCallContextFactory;
+    private final CatalogSnapshots catalogSnapshots;
     private VersionedCatalog defaultCatalog;
 
     @Inject
@@ -71,13 +72,15 @@ public class DefaultCatalogCache implements CatalogCache {
                                final CacheControllerDispatcher cacheControllerDispatcher,
                                final VersionedCatalogLoader loader,
                                final PriceOverride priceOverride,
-                               final InternalCallContextFactory internalCallContextFactory) {
+                               final InternalCallContextFactory internalCallContextFactory,
+                               final CatalogSnapshots catalogSnapshots) {
         this.pluginRegistry = pluginRegistry;
         this.versionedCatalogMapper = versionedCatalogMapper;
         this.cacheController = cacheControllerDispatcher.getCacheController(CacheType.TENANT_CATALOG);
         this.loader = loader;
         this.priceOverride = priceOverride;
         this.internalCallContextFactory = internalCallContextFactory;
+        this.catalogSnapshots = catalogSnapshots;
         this.cacheLoaderArgumentWithTemplateFiltering = initializeCacheLoaderArgument(true);
         this.cacheLoaderArgument = initializeCacheLoaderArgument(false);
         setDefaultCatalog();
@@ -208,8 +211,18 @@ public class DefaultCatalogCache implements CatalogCache {
         final LoaderCallback loaderCallback = new LoaderCallback() {
             @Override
             public VersionedCatalog loadCatalog(final List<String> catalogXMLs, final Long tenantRecordId) throws CatalogApiException {
-                final VersionedCatalog versionedCatalog = loader.load(catalogXMLs, filterTemplateCatalog, tenantRecordId);
+                VersionedCatalog versionedCatalog = null;
+                if (catalogSnapshots.isEnabled()) {
+                    versionedCatalog = catalogSnapshots.getSnapshot(catalogXMLs, filterTemplateCatalog, tenantRecordId);
+                }
+                if (versionedCatalog == null) {
+                    versionedCatalog = loader.load(catalogXMLs, filterTemplateCatalog, tenantRecordId);
+                    if (versionedCatalog != null && catalogSnapshots.isEnabled()) {
+                        catalogSnapshots.saveSnapshot(catalogXMLs, filterTemplateCatalog, tenantRecordId, versionedCatalog);
+                    }
+                }
                 if (versionedCatalog != null) {
+                    // Also required for snapshots, as the price override and call context factory are not serialized
                     initializeCatalog(versionedCatalog);
                 }
                 return versionedCatalog;
@@ -28,6 +28,7 @@ import org.killbill.billing.catalog.api.DefaultCatalogInternalApi;
 import org.killbill.billing.catalog.api.user.DefaultCatalogUserApi;
 import org.killbill.billing.catalog.caching.CatalogCache;
 import org.killbill.billing.catalog.caching.CatalogCacheInvalidationCallback;
+import org.killbill.billing.catalog.caching.CatalogSnapshots;
 import org.killbill.billing.catalog.caching.DefaultCatalogCache;
 import org.killbill.billing.catalog.caching.DefaultOverriddenPlanCache;
 import org.killbill.billing.catalog.caching.OverriddenPlanCache;
@@ -88,6 +89,7 @@ public class CatalogModule extends KillBillModule {
     }
 
     public void installCatalogConfigCache() {
+        bind(CatalogSnapshots.class).asEagerSingleton();
         bind(CatalogCache.class).to(DefaultCatalogCache.class).asEagerSingleton();
         bind(CacheInvalidationCallback.class).annotatedWith(Names.named(CATALOG_INVALIDATION_CALLBACK)).to(CatalogCacheInvalidationCallback.class).asEagerSingleton();
 
@@ -25,7 +25,10 @@ import java.io.ObjectOutput;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+import javax.annotation.Nullable;
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlElement;
@@ -39,6 +42,7 @@ import org.killbill.billing.catalog.api.BillingAlignment;
 import org.killbill.billing.catalog.api.CatalogApiException;
 import org.killbill.billing.catalog.api.IllegalPlanChange;
 import org.killbill.billing.catalog.api.PlanAlignmentChange;
+import org.killbill.billing.catalog.api.PhaseType;
 import org.killbill.billing.catalog.api.PlanAlignmentCreate;
 import org.killbill.billing.catalog.api.PlanChangeResult;
 import org.killbill.billing.catalog.api.PlanPhaseSpecifier;
@@ -58,6 +62,9 @@ import org.killbill.xmlloader.ValidationErrors;
 @XmlAccessorType(XmlAccessType.NONE)
 public class DefaultPlanRules extends ValidatingConfig<StandaloneCatalog> implements PlanRules, Externalizable {
 
+    // Upper bound on the number of memoized specifiers per rule (plan names with price overrides are not bounded by the catalog)
+    private static final int MAX_MEMOIZED_SPECIFIERS = 10000;
+
     @XmlElementWrapper(name = "changePolicy")
     @XmlElement(name = "changePolicyCase", required = false)
     private DefaultCaseChangePlanPolicy[] changeCase;
@@ -82,6 +89,11 @@ public class DefaultPlanRules extends ValidatingConfig<StandaloneCatalog> implem
     @XmlElement(name = "priceListCase", required = false)
     private DefaultCasePriceList[] priceListCase;
 
+    // Rules are evaluated for each billing event: memoize the resolved case for each specifier (the catalog is immutable once loaded)
+    private final Map<List<Object>, PlanAlignmentCreate> planCreateAlignments = new ConcurrentHashMap<>();
+    private final Map<List<Object>, BillingActionPolicy> planCancelPolicies = new ConcurrentHashMap<>();
+    private final Map<List<Object>, BillingAlignment> billingAlignments = new ConcurrentHashMap<>();
+
     // Required for deserialization
     public DefaultPlanRules() {
     }
@@ -124,20 +136,55 @@ public class DefaultPlanRules extends ValidatingConfig<StandaloneCatalog> implem
 
     @Override
     public PlanAlignmentCreate getPlanCreateAlignment(final PlanSpecifier specifier) throws CatalogApiException {
-        final PlanAlignmentCreate result = DefaultCase.getResult(createAlignmentCase, specifier, root);
-        return (result != null) ? result : PlanAlignmentCreate.START_OF_BUNDLE;
+        final List<Object> key = toMemoizationKey(specifier, null);
+        PlanAlignmentCreate result = planCreateAlignments.get(key);
+        if (result == null) {
+            result = DefaultCase.getResult(createAlignmentCase, specifier, root);
+            result = (result != null) ? result : PlanAlignmentCreate.START_OF_BUNDLE;
+            memoize(planCreateAlignments, key, result);
+        }
+        return result;
     }
 
     @Override
     public BillingActionPolicy getPlanCancelPolicy(final PlanPhaseSpecifier planPhase) throws CatalogApiException {
-        final BillingActionPolicy result = DefaultCasePhase.getResult(cancelCase, planPhase, root);
-        return (result != null) ? result : BillingActionPolicy.END_OF_TERM;
+        final List<Object> key = toMemoizationKey(planPhase, planPhase.getPhaseType());
+        BillingActionPolicy result = planCancelPolicies.get(key);
+        if (result == null) {
+            result = DefaultCasePhase.getResult(cancelCase, planPhase, root);
+            result = (result != null) ? result : BillingActionPolicy.END_OF_TERM;
+            memoize(planCancelPolicies, key, result);
+        }
+        return result;
     }
 
     @Override
     public BillingAlignment getBillingAlignment(final PlanPhaseSpecifier planPhase) throws CatalogApiException {
-        final BillingAlignment result = DefaultCasePhase.getResult(billingAlignmentCase, planPhase, root);
-        return (result != null) ? result : BillingAlignment.ACCOUNT;
+        final List<Object> key = toMemoizationKey(planPhase, planPhase.getPhaseType());
+        BillingAlignment result = billingAlignments.get(key);
+        if (result == null) {
+            result = DefaultCasePhase.getResult(billingAlignmentCase, planPhase, root);
+            result = (result != null) ? result : BillingAlignment.ACCOUNT;
+            memoize(billingAlignments, key, result);
+        }
+        return result;
+    }
+
+    private static List<Object> toMemoizationKey(final PlanSpecifier specifier, @Nullable final PhaseType phaseType) {
+        // PlanSpecifier doesn't implement equals/hashCode
+        return Arrays.asList(specifier.getPlanName(), specifier.getProductName(), specifier.getBillingPeriod(), specifier.getPriceListName(), phaseType);
+    }
+
+    private static <K> void memoize(final Map<List<Object>, K> memoized, final List<Object> key, final K result) {
+        if (memoized.size() < MAX_MEMOIZED_SPECIFIERS) {
+            memoized.put(key, result);
+        }
+    }
+
+    private void clearMemoizedResults() {
+        planCreateAlignments.clear();
+        planCancelPolicies.clear();
+        billingAlignments.clear();
     }
 
     @Override
@@ -281,6 +328,7 @@ public class DefaultPlanRules extends ValidatingConfig<StandaloneCatalog> implem
     public void initialize(final StandaloneCatalog catalog) {
         super.initialize(catalog);
         CatalogSafetyInitializer.initializeNonRequiredNullFieldsWithDefaultValue(this);
+        clearMemoizedResults();
 
         for (final DefaultCaseChangePlanPolicy cur : changeCase) {
             cur.initialize(catalog);
@@ -308,33 +356,39 @@ public class DefaultPlanRules extends ValidatingConfig<StandaloneCatalog> implem
 
     public DefaultPlanRules setChangeCase(final DefaultCaseChangePlanPolicy[] changeCase) {
         this.changeCase = changeCase;
+        clearMemoizedResults();
         return this;
     }
 
     public DefaultPlanRules setChangeAlignmentCase(
             final DefaultCaseChangePlanAlignment[] changeAlignmentCase) {
         this.changeAlignmentCase = changeAlignmentCase;
+        clearMemoizedResults();
         return this;
     }
 
     public DefaultPlanRules setCancelCase(final DefaultCaseCancelPolicy[] cancelCase) {
         this.cancelCase = cancelCase;
+        clearMemoizedResults();
         return this;
     }
 
     public DefaultPlanRules setCreateAlignmentCase(final DefaultCaseCreateAlignment[] createAlignmentCase) {
         this.createAlignmentCase = createAlignmentCase;
+        clearMemoizedResults();
         return this;
     }
 
     public DefaultPlanRules setBillingAlignmentCase(
             final DefaultCaseBillingAlignment[] billingAlignmentCase) {
         this.billingAlignmentCase = billingAlignmentCase;
+        clearMemoizedResults();
         return this;
     }
 
     public DefaultPlanRules setPriceListCase(final DefaultCasePriceList[] priceListCase) {
         this.priceListCase = priceListCase;
+        clearMemoizedResults();
         return this;
     }
 
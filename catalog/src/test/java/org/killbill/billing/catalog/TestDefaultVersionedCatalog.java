@@ -0,0 +1,117 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.catalog;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Date;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.killbill.billing.catalog.api.CatalogApiException;
+import org.killbill.billing.catalog.api.StaticCatalog;
+import org.killbill.commons.utils.io.Resources;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestDefaultVersionedCatalog extends CatalogTestSuiteNoDB {
+
+    @Test(groups = "fast")
+    public void testGetVersionForDate() {
+        final DefaultVersionedCatalog catalog = new DefaultVersionedCatalog();
+        // Added out of order on purpose
+        final StandaloneCatalog v2 = createVersion(new DateTime(2020, 6, 1, 0, 0, DateTimeZone.UTC));
+        final StandaloneCatalog v1 = createVersion(new DateTime(2020, 1, 1, 0, 0, DateTimeZone.UTC));
+        final StandaloneCatalog v3 = createVersion(new DateTime(2021, 1, 1, 0, 0, DateTimeZone.UTC));
+        catalog.add(v2);
+        catalog.add(v1);
+
+        Assert.assertSame(catalog.getVersion(toDate(2020, 3, 1)), v1);
+        Assert.assertSame(catalog.getVersion(toDate(2022, 1, 1)), v2);
+
+        // The index is rebuilt when a new version is added
+        catalog.add(v3);
+
+        // Prior to any version, the first one is returned
+        Assert.assertSame(catalog.getVersion(toDate(2019, 1, 1)), v1);
+        Assert.assertSame(catalog.getVersion(v1.getEffectiveDate()), v1);
+        Assert.assertSame(catalog.getVersion(new Date(v2.getEffectiveDate().getTime() - 1)), v1);
+        Assert.assertSame(catalog.getVersion(v2.getEffectiveDate()), v2);
+        Assert.assertSame(catalog.getVersion(toDate(2020, 12, 31)), v2);
+        Assert.assertSame(catalog.getVersion(v3.getEffectiveDate()), v3);
+        Assert.assertSame(catalog.getVersion(toDate(2030, 1, 1)), v3);
+        Assert.assertSame(catalog.getCurrentVersion(), v3);
+    }
+
+    @Test(groups = "fast", expectedExceptions = IllegalStateException.class)
+    public void testGetVersionForDateWithoutVersions() {
+        new DefaultVersionedCatalog().getVersion(toDate(2020, 1, 1));
+    }
+
+    @Test(groups = "fast")
+    public void testCompactSerialization() throws Exception {
+        final DefaultVersionedCatalog catalog = loadVersionedCatalog();
+        Assert.assertEquals(catalog.getVersions().size(), 4);
+
+        final byte[] serialized = serialize(catalog);
+        // Smaller than the previous format (the list of versions serialized as a whole)
+        Assert.assertTrue(serialized.length < serialize(new ArrayList<StaticCatalog>(catalog.getVersions())).length);
+
+        final DefaultVersionedCatalog deserialized = (DefaultVersionedCatalog) deserialize(serialized);
+        Assert.assertEquals(deserialized.getCatalogName(), catalog.getCatalogName());
+        final Date date = new DateTime("2011-02-02T12:00:00+00:00").toDate();
+        Assert.assertEquals(deserialized.getVersion(date).getEffectiveDate(), catalog.getVersion(date).getEffectiveDate());
+        Assert.assertEquals(deserialized.getCurrentVersion().getEffectiveDate(), catalog.getCurrentVersion().getEffectiveDate());
+
+        // Serialize again, before and after all versions have been decoded
+        Assert.assertEquals(deserialize(serialize(deserialized)), catalog);
+        Assert.assertEquals(deserialized, catalog);
+        Assert.assertEquals(deserialize(serialize(deserialized)), catalog);
+    }
+
+    private DefaultVersionedCatalog loadVersionedCatalog() throws CatalogApiException {
+        return (DefaultVersionedCatalog) loader.loadDefaultCatalog(Resources.getResource("org/killbill/billing/catalog/versionedCatalog").toString());
+    }
+
+    private byte[] serialize(final Object object) throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (final ObjectOutputStream out = new ObjectOutputStream(bos)) {
+            out.writeObject(object);
+        }
+        return bos.toByteArray();
+    }
+
+    private Object deserialize(final byte[] bytes) throws IOException, ClassNotFoundException {
+        try (final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        }
+    }
+
+    private StandaloneCatalog createVersion(final DateTime effectiveDate) {
+        return new StandaloneCatalog().setCatalogName("versioned")
+                                      .setEffectiveDate(effectiveDate.toDate());
+    }
+
+    private Date toDate(final int year, final int month, final int day) {
+        return new DateTime(year, month, day, 0, 0, DateTimeZone.UTC).toDate();
+    }
+}
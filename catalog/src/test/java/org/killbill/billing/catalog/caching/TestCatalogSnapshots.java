@@ -0,0 +1,132 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.catalog.caching;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.killbill.billing.callcontext.InternalCallContext;
+import org.killbill.billing.callcontext.InternalTenantContext;
+import org.killbill.billing.catalog.CatalogTestSuiteNoDB;
+import org.killbill.billing.catalog.DefaultVersionedCatalog;
+import org.killbill.billing.catalog.api.VersionedCatalog;
+import org.killbill.billing.tenant.api.TenantInternalApi;
+import org.killbill.billing.util.callcontext.InternalCallContextFactory;
+import org.killbill.billing.util.config.definition.CatalogConfig;
+import org.killbill.commons.utils.io.CharStreams;
+import org.killbill.commons.utils.io.Resources;
+import org.killbill.xmlloader.UriAccessor;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestCatalogSnapshots extends CatalogTestSuiteNoDB {
+
+    @Test(groups = "fast")
+    public void testHash() throws Exception {
+        final String basic = getCatalogXML("SpyCarBasic.xml");
+        final String advanced = getCatalogXML("SpyCarAdvanced.xml");
+
+        final String hash = CatalogSnapshots.computeHash(List.of(basic), false);
+        Assert.assertEquals(CatalogSnapshots.computeHash(List.of(basic), false), hash);
+        Assert.assertNotEquals(CatalogSnapshots.computeHash(List.of(basic), true), hash);
+        Assert.assertNotEquals(CatalogSnapshots.computeHash(List.of(basic, advanced), false), hash);
+        Assert.assertNotEquals(CatalogSnapshots.computeHash(List.of(advanced, basic), false), CatalogSnapshots.computeHash(List.of(basic, advanced), false));
+    }
+
+    @Test(groups = "fast")
+    public void testSaveAndGetSnapshot() throws Exception {
+        final List<String> values = new ArrayList<>();
+        final TenantInternalApi snapshotTenantInternalApi = Mockito.mock(TenantInternalApi.class);
+        Mockito.when(snapshotTenantInternalApi.getTenantValuesForKey(Mockito.eq(CatalogSnapshots.CATALOG_SNAPSHOT_KEY), Mockito.any(InternalTenantContext.class))).thenReturn(values);
+        Mockito.doAnswer(invocation -> {
+            values.clear();
+            values.add((String) invocation.getArguments()[1]);
+            return null;
+        }).when(snapshotTenantInternalApi).updateTenantValueForKey(Mockito.eq(CatalogSnapshots.CATALOG_SNAPSHOT_KEY), Mockito.anyString(), Mockito.nullable(InternalCallContext.class));
+
+        final CatalogConfig config = Mockito.mock(CatalogConfig.class);
+        Mockito.when(config.isCatalogSnapshotEnabled()).thenReturn(true);
+        final CatalogSnapshots catalogSnapshots = new CatalogSnapshots(config, snapshotTenantInternalApi, Mockito.mock(InternalCallContextFactory.class));
+
+        final List<String> catalogXMLs = List.of(getCatalogXML("SpyCarBasic.xml"));
+        Assert.assertNull(catalogSnapshots.getSnapshot(catalogXMLs, false, 1L));
+
+        final VersionedCatalog catalog = loader.load(catalogXMLs, false, 1L);
+        catalogSnapshots.saveSnapshot(catalogXMLs, false, 1L, catalog);
+        Assert.assertEquals(values.size(), 1);
+
+        final DefaultVersionedCatalog snapshot = catalogSnapshots.getSnapshot(catalogXMLs, false, 1L);
+        Assert.assertNotNull(snapshot);
+        Assert.assertEquals(snapshot, catalog);
+
+        // Catalog versions changed since the snapshot was taken
+        Assert.assertNull(catalogSnapshots.getSnapshot(List.of(getCatalogXML("SpyCarAdvanced.xml")), false, 1L));
+
+        // Corrupted snapshot
+        values.set(0, CatalogSnapshots.computeHash(catalogXMLs, false) + ":AAAA");
+        Assert.assertNull(catalogSnapshots.getSnapshot(catalogXMLs, false, 1L));
+    }
+
+    @Test(groups = "fast")
+    public void testSnapshotWithUnexpectedClasses() throws Exception {
+        final List<String> catalogXMLs = List.of(getCatalogXML("SpyCarBasic.xml"));
+
+        // Non-catalog classes are rejected before being instantiated
+        final Map<String, Object> unexpected = new HashMap<>();
+        unexpected.put("file", new File("/tmp"));
+        final byte[] serialized = serialize(unexpected);
+        try (final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            in.setObjectInputFilter(DefaultVersionedCatalog.SERIALIZATION_FILTER);
+            Assert.expectThrows(InvalidClassException.class, in::readObject);
+        }
+
+        final List<String> values = new ArrayList<>();
+        values.add(CatalogSnapshots.computeHash(catalogXMLs, false) + ":" + Base64.getEncoder().encodeToString(serialized));
+        final TenantInternalApi snapshotTenantInternalApi = Mockito.mock(TenantInternalApi.class);
+        Mockito.when(snapshotTenantInternalApi.getTenantValuesForKey(Mockito.eq(CatalogSnapshots.CATALOG_SNAPSHOT_KEY), Mockito.any(InternalTenantContext.class))).thenReturn(values);
+        final CatalogSnapshots catalogSnapshots = new CatalogSnapshots(Mockito.mock(CatalogConfig.class), snapshotTenantInternalApi, Mockito.mock(InternalCallContextFactory.class));
+        Assert.assertNull(catalogSnapshots.getSnapshot(catalogXMLs, false, 1L));
+    }
+
+    private byte[] serialize(final Object object) throws Exception {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (final ObjectOutputStream out = new ObjectOutputStream(bos)) {
+            out.writeObject(object);
+        }
+        return bos.toByteArray();
+    }
+
+    private String getCatalogXML(final String name) throws Exception {
+        final InputStream inputStream = UriAccessor.accessUri(new URI(Resources.getResource("org/killbill/billing/catalog/" + name).toExternalForm()));
+        return CharStreams.toString(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    }
+}
@@ -169,6 +169,14 @@ public class DefaultSubscriptionApi implements SubscriptionApi {
             throw new SubscriptionApiException(e);
         }
 
+        return toSubscriptionBundle(accountId, baseBundle, bundleEntitlements, internalTenantContextWithValidAccountRecordId);
+    }
+
+    // Also used by DefaultEntitlementInternalApi, which this class depends on
+    public static SubscriptionBundle toSubscriptionBundle(final UUID accountId,
+                                                          final SubscriptionBaseBundle baseBundle,
+                                                          final List<Entitlement> bundleEntitlements,
+                                                          final InternalTenantContext internalTenantContextWithValidAccountRecordId) {
         // Build subscriptions
         final List<Subscription> bundleSubscriptions = new LinkedList<Subscription>();
         for (final Entitlement entitlement : bundleEntitlements) {
@@ -181,12 +189,12 @@ public class DefaultSubscriptionApi implements SubscriptionApi {
 
         final String bundleExternalKey = bundleSubscriptions.get(0).getBundleExternalKey();
         final SubscriptionBundleTimeline timeline = new DefaultSubscriptionBundleTimeline(accountId,
-                                                                                          bundleId,
+                                                                                          baseBundle.getId(),
                                                                                           bundleExternalKey,
                                                                                           bundleEntitlements,
                                                                                           internalTenantContextWithValidAccountRecordId);
 
-        return new DefaultSubscriptionBundle(bundleId,
+        return new DefaultSubscriptionBundle(baseBundle.getId(),
                                              accountId,
                                              bundleExternalKey,
                                              bundleSubscriptions,
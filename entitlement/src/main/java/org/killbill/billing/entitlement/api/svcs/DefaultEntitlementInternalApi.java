@@ -37,6 +37,7 @@ import org.joda.time.DateTime;
 import org.joda.time.LocalDate;
 import org.killbill.billing.account.api.AccountInternalApi;
 import org.killbill.billing.callcontext.InternalCallContext;
+import org.killbill.billing.callcontext.InternalTenantContext;
 import org.killbill.billing.catalog.api.BillingActionPolicy;
 import org.killbill.billing.entitlement.DefaultEntitlementService;
 import org.killbill.billing.entitlement.EntitlementInternalApi;
@@ -47,12 +48,14 @@ import org.killbill.billing.entitlement.api.DefaultBaseEntitlementWithAddOnsSpec
 import org.killbill.billing.entitlement.api.DefaultEntitlement;
 import org.killbill.billing.entitlement.api.DefaultEntitlementApi;
 import org.killbill.billing.entitlement.api.DefaultEntitlementContext;
+import org.killbill.billing.entitlement.api.DefaultSubscriptionApi;
 import org.killbill.billing.entitlement.api.Entitlement;
 import org.killbill.billing.entitlement.api.Entitlement.EntitlementState;
 import org.killbill.billing.entitlement.api.EntitlementApi;
 import org.killbill.billing.entitlement.api.EntitlementApiException;
 import org.killbill.billing.entitlement.api.EntitlementPluginExecution;
 import org.killbill.billing.entitlement.api.EntitlementPluginExecution.WithEntitlementPlugin;
+import org.killbill.billing.entitlement.api.SubscriptionBundle;
 import org.killbill.billing.entitlement.block.BlockingChecker;
 import org.killbill.billing.entitlement.dao.BlockingStateDao;
 import org.killbill.billing.entitlement.engine.core.EntitlementUtils;
@@ -66,8 +69,11 @@ import org.killbill.billing.security.api.SecurityApi;
 import org.killbill.billing.subscription.api.SubscriptionBase;
 import org.killbill.billing.subscription.api.SubscriptionBaseInternalApi;
 import org.killbill.billing.subscription.api.user.SubscriptionBaseApiException;
+import org.killbill.billing.subscription.api.user.SubscriptionBaseBundle;
 import org.killbill.billing.util.callcontext.CallContext;
 import org.killbill.billing.util.callcontext.InternalCallContextFactory;
+import org.killbill.billing.util.entity.Pagination;
+import org.killbill.billing.util.entity.dao.DefaultPaginationHelper.SourcePaginationBuilder;
 import org.killbill.billing.util.optimizer.BusOptimizer;
 import org.killbill.clock.Clock;
 import org.killbill.notificationq.api.NotificationEvent;
@@ -75,6 +81,8 @@ import org.killbill.notificationq.api.NotificationQueue;
 import org.killbill.notificationq.api.NotificationQueueService;
 import org.killbill.notificationq.api.NotificationQueueService.NoSuchNotificationQueue;
 
+import static org.killbill.billing.util.entity.dao.DefaultPaginationHelper.getEntityPaginationNoException;
+
 public class DefaultEntitlementInternalApi extends DefaultEntitlementApiBase implements EntitlementInternalApi {
 
     private final BlockingStateDao blockingStateDao;
@@ -163,6 +171,57 @@ public class DefaultEntitlementInternalApi extends DefaultEntitlementApiBase imp
         }
     }
 
+    @Override
+    public Map<UUID, DateTime> getEntitlementEffectiveEndDates(final Iterable<UUID> subscriptionIds, final InternalTenantContext context) {
+        // Only the blocking states of the subscriptions are needed, see DefaultEventsStream#computeEntitlementCancelEvent
+        final Map<UUID, DateTime> result = new HashMap<>();
+        for (final BlockingState state : blockingStateDao.getByBlockingIds(subscriptionIds, false, context)) {
+            if (state.getType() == BlockingStateType.SUBSCRIPTION &&
+                KILLBILL_SERVICES.ENTITLEMENT_SERVICE.getServiceName().equals(state.getService()) &&
+                DefaultEntitlementApi.ENT_STATE_CANCELLED.equals(state.getStateName())) {
+                result.merge(state.getBlockedId(), state.getEffectiveDate(), (first, second) -> first.compareTo(second) <= 0 ? first : second);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Pagination<SubscriptionBundle> getSubscriptionBundles(@Nullable final Long cursor, final Long offset, final Long limit, final InternalTenantContext context) {
+        return getEntityPaginationNoException(limit,
+                                              new SourcePaginationBuilder<SubscriptionBaseBundle, EntitlementApiException>() {
+                                                  @Override
+                                                  public Pagination<SubscriptionBaseBundle> build() {
+                                                      return subscriptionInternalApi.getBundles(cursor, offset, limit, context);
+                                                  }
+                                              },
+                                              subscriptionBaseBundle -> toSubscriptionBundle(subscriptionBaseBundle, context)
+                                             );
+    }
+
+    @Override
+    public Pagination<SubscriptionBundle> searchSubscriptionBundles(final String searchKey, @Nullable final Long cursor, final Long offset, final Long limit, final InternalTenantContext context) {
+        return getEntityPaginationNoException(limit,
+                                              new SourcePaginationBuilder<SubscriptionBaseBundle, EntitlementApiException>() {
+                                                  @Override
+                                                  public Pagination<SubscriptionBaseBundle> build() {
+                                                      return subscriptionInternalApi.searchBundles(searchKey, cursor, offset, limit, context);
+                                                  }
+                                              },
+                                              subscriptionBaseBundle -> toSubscriptionBundle(subscriptionBaseBundle, context)
+                                             );
+    }
+
+    private SubscriptionBundle toSubscriptionBundle(final SubscriptionBaseBundle baseBundle, final InternalTenantContext context) {
+        final InternalTenantContext internalTenantContextWithValidAccountRecordId = internalCallContextFactory.createInternalTenantContext(baseBundle.getAccountId(), context);
+        try {
+            final List<Entitlement> bundleEntitlements = getAllEntitlementsForBundle(baseBundle.getId(), internalTenantContextWithValidAccountRecordId);
+            return DefaultSubscriptionApi.toSubscriptionBundle(baseBundle.getAccountId(), baseBundle, bundleEntitlements, internalTenantContextWithValidAccountRecordId);
+        } catch (final EntitlementApiException e) {
+            log.warn("Error retrieving bundleId='{}'", baseBundle.getId(), e);
+            return null;
+        }
+    }
+
     private void recordFutureNotification(final DateTime effectiveDate,
                                           final NotificationEvent notificationEvent,
                                           final InternalCallContext context) {
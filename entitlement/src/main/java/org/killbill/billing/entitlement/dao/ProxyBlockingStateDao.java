@@ -213,6 +213,11 @@ public class ProxyBlockingStateDao implements BlockingStateDao {
         return delegate.get(offset, limit, context);
     }
 
+    @Override
+    public Pagination<BlockingStateModelDao> get(final Long cursor, final Long offset, final Long limit, final InternalTenantContext context) {
+        return delegate.get(cursor, offset, limit, context);
+    }
+
     @Override
     public Long getCount(final InternalTenantContext context) {
         return delegate.getCount(context);
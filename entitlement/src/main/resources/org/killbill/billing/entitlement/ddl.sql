@@ -24,6 +24,7 @@ CREATE TABLE blocking_states (
 CREATE INDEX blocking_states_id ON blocking_states(blockable_id);
 CREATE INDEX blocking_states_id_real ON blocking_states(id);
 CREATE INDEX blocking_states_tenant_account_record_id ON blocking_states(tenant_record_id, account_record_id);
+CREATE INDEX blocking_states_tenant_record_id_record_id ON blocking_states(tenant_record_id, record_id);
 
 DROP TABLE IF EXISTS blocking_state_history;
 CREATE TABLE blocking_state_history (
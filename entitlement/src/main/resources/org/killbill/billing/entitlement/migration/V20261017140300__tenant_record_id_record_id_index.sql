@@ -0,0 +1 @@
+CREATE INDEX blocking_states_tenant_record_id_record_id ON blocking_states(tenant_record_id, record_id);
@@ -21,6 +21,7 @@ package org.killbill.billing.entitlement.api;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.joda.time.DateTime;
@@ -127,9 +128,12 @@ public class TestDefaultEntitlement extends EntitlementTestSuiteWithEmbeddedDB {
         assertEquals(entitlement.getState(), EntitlementState.ACTIVE);
         assertEquals(entitlement.getSourceType(), EntitlementSourceType.NATIVE);
 
+        assertEquals(entitlementInternalApi.getEntitlementEffectiveEndDates(List.of(entitlementId), internalCallContext), Map.of());
+
         final DateTime cancelDateTime = new DateTime(clock.getUTCNow().plusDays(5));
         entitlement.cancelEntitlementWithDate(cancelDateTime, cancelDateTime, Collections.emptyList(), callContext);
         assertListenerStatus();
+        assertEquals(entitlementInternalApi.getEntitlementEffectiveEndDates(List.of(entitlementId), internalCallContext).get(entitlementId).compareTo(cancelDateTime), 0);
 
         clock.addDays(5);
         testListener.pushExpectedEvents(NextEvent.CANCEL, NextEvent.BLOCK);
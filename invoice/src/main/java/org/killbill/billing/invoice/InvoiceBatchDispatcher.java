@@ -0,0 +1,589 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.invoice;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.joda.time.DateTime;
+import org.joda.time.LocalDate;
+import org.killbill.billing.callcontext.InternalCallContext;
+import org.killbill.billing.callcontext.InternalTenantContext;
+import org.killbill.billing.catalog.api.CatalogApiException;
+import org.killbill.billing.catalog.api.CatalogInternalApi;
+import org.killbill.billing.invoice.api.Invoice;
+import org.killbill.billing.invoice.notification.DefaultNextBillingDateNotifier;
+import org.killbill.billing.invoice.notification.NextBillingDateNotificationKey;
+import org.killbill.billing.platform.api.KillbillService.KILLBILL_SERVICES;
+import org.killbill.billing.util.cache.CacheControllerDispatcher;
+import org.killbill.billing.util.callcontext.CallOrigin;
+import org.killbill.billing.util.callcontext.InternalCallContextFactory;
+import org.killbill.billing.util.callcontext.UserType;
+import org.killbill.billing.util.config.definition.InvoiceConfig;
+import org.killbill.billing.util.dao.NonEntityDao;
+import org.killbill.billing.util.entity.dao.EntitySqlDaoTransactionWrapper;
+import org.killbill.billing.util.entity.dao.EntitySqlDaoTransactionalJdbiWrapper;
+import org.killbill.billing.util.entity.dao.EntitySqlDaoWrapperFactory;
+import org.killbill.billing.util.globallocker.LockerType;
+import org.killbill.clock.Clock;
+import org.killbill.commons.concurrent.Executors;
+import org.killbill.commons.concurrent.WithProfilingThreadPoolExecutor;
+import org.killbill.commons.locker.GlobalLock;
+import org.killbill.commons.locker.GlobalLocker;
+import org.killbill.commons.locker.LockFailedException;
+import org.killbill.commons.utils.Preconditions;
+import org.killbill.commons.utils.annotation.VisibleForTesting;
+import org.killbill.commons.utils.collect.Iterables;
+import org.killbill.notificationq.api.NotificationEventWithMetadata;
+import org.killbill.notificationq.api.NotificationQueue;
+import org.killbill.notificationq.api.NotificationQueueService;
+import org.killbill.notificationq.api.NotificationQueueService.NoSuchNotificationQueue;
+import org.skife.jdbi.v2.IDBI;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.killbill.billing.util.glue.IDBISetup.MAIN_RO_IDBI_NAMED;
+
+/**
+ * Runs invoice generation for a batch of accounts of a given tenant (typically all the accounts due on a bill cycle day)
+ * on a bounded pool of workers. Each account is still processed through the {@link InvoiceDispatcher} (and therefore
+ * grabs its own ACCNT_INV_PAY lock), but tenant level state such as the catalog is loaded once for the whole batch.
+ * <p>
+ * When enabled, the {@link DefaultNextBillingDateNotifier} schedules a batch run for the tenant, which takes over the next
+ * billing date notifications already due. The run executes off the notifier thread, and a single node at a time runs it for
+ * a given tenant (INVOICE_BATCH global lock). Right before an account is processed, its due notifications are claimed:
+ * they are replaced, in the same transaction, by a notification further in the future (the claim timeout), which is removed
+ * once the account has been invoiced. If the run doesn't complete for that account (failure, node stopped), the queue
+ * processes the account again once the claim times out.
+ */
+public class InvoiceBatchDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(InvoiceBatchDispatcher.class);
+
+    private static final long NANO_TO_MILLI_SEC = (1000L * 1000L);
+    private static final long TIMEOUT_EXECUTOR_SEC = 3L;
+
+    private static final String INVOICE_BATCH_THREAD_PREFIX = "invoice-batch-th-";
+    private static final String INVOICE_BATCH_TH_GROUP_NAME = "invoice-batch-grp";
+    private static final String INVOICE_BATCH_COORDINATOR_NAME = "invoice-batch-coordinator";
+
+    private static final String INVOICE_BATCH_USER_NAME = "Invoice Batch Run";
+
+    public enum AccountInvoiceRunStatus {
+        INVOICED,
+        NOTHING_TO_INVOICE,
+        FAILED
+    }
+
+    private final InvoiceDispatcher dispatcher;
+    private final CatalogInternalApi catalogInternalApi;
+    private final InternalCallContextFactory internalCallContextFactory;
+    private final NotificationQueueService notificationQueueService;
+    private final GlobalLocker locker;
+    private final EntitySqlDaoTransactionalJdbiWrapper transactionalSqlDao;
+    private final Clock clock;
+    private final InvoiceConfig invoiceConfig;
+
+    // Tenants for which a batch run is scheduled (or running) on this node, and when their last run started
+    private final Set<Long> tenantsScheduled = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Long> lastRunNanosByTenant = new ConcurrentHashMap<>();
+
+    private volatile ExecutorService coordinatorExecutorService;
+    private volatile ExecutorService batchExecutorService;
+
+    @Inject
+    public InvoiceBatchDispatcher(final InvoiceDispatcher dispatcher,
+                                  final CatalogInternalApi catalogInternalApi,
+                                  final InternalCallContextFactory internalCallContextFactory,
+                                  final NotificationQueueService notificationQueueService,
+                                  final GlobalLocker locker,
+                                  final IDBI dbi,
+                                  @Named(MAIN_RO_IDBI_NAMED) final IDBI roDbi,
+                                  final CacheControllerDispatcher cacheControllerDispatcher,
+                                  final NonEntityDao nonEntityDao,
+                                  final Clock clock,
+                                  final InvoiceConfig invoiceConfig) {
+        this.dispatcher = dispatcher;
+        this.catalogInternalApi = catalogInternalApi;
+        this.internalCallContextFactory = internalCallContextFactory;
+        this.notificationQueueService = notificationQueueService;
+        this.locker = locker;
+        this.transactionalSqlDao = new EntitySqlDaoTransactionalJdbiWrapper(dbi, roDbi, clock, cacheControllerDispatcher, nonEntityDao, internalCallContextFactory);
+        this.clock = clock;
+        this.invoiceConfig = invoiceConfig;
+    }
+
+    public void initialize() {
+        this.coordinatorExecutorService = Executors.newSingleThreadExecutor(INVOICE_BATCH_COORDINATOR_NAME);
+        this.batchExecutorService = createBatchExecutorService();
+    }
+
+    public void stop() throws InterruptedException {
+        if (coordinatorExecutorService != null) {
+            coordinatorExecutorService.shutdownNow();
+            coordinatorExecutorService.awaitTermination(TIMEOUT_EXECUTOR_SEC, TimeUnit.SECONDS);
+            coordinatorExecutorService = null;
+        }
+        if (batchExecutorService != null) {
+            batchExecutorService.shutdownNow();
+            batchExecutorService.awaitTermination(TIMEOUT_EXECUTOR_SEC, TimeUnit.SECONDS);
+            batchExecutorService = null;
+        }
+    }
+
+    /**
+     * Schedule, in the background, a run of {@link #processAccountsWithPendingNotifications} for the tenant, unless one
+     * is already scheduled on this node or the last one started less than org.killbill.invoice.batch.minInterval ago
+     * (the notifications not taken over by a batch run are processed by the queue as usual).
+     *
+     * @return whether a run was scheduled
+     */
+    public boolean scheduleAccountsWithPendingNotifications(final Long tenantRecordId, @Nullable final UUID userToken) {
+        final ExecutorService executorService = coordinatorExecutorService;
+        if (executorService == null) {
+            return false;
+        }
+
+        final Long lastRunNanos = lastRunNanosByTenant.get(tenantRecordId);
+        if (lastRunNanos != null && System.nanoTime() - lastRunNanos < TimeUnit.MILLISECONDS.toNanos(invoiceConfig.getInvoiceBatchMinInterval().getMillis())) {
+            return false;
+        }
+        if (!tenantsScheduled.add(tenantRecordId)) {
+            return false;
+        }
+
+        try {
+            executorService.submit(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        lastRunNanosByTenant.put(tenantRecordId, System.nanoTime());
+                        processAccountsWithPendingNotifications(clock.getUTCNow(), tenantRecordId, userToken);
+                    } catch (final RuntimeException e) {
+                        log.warn("Invoice batch run failed for tenantRecordId='{}'", tenantRecordId, e);
+                    } finally {
+                        tenantsScheduled.remove(tenantRecordId);
+                    }
+                }
+            });
+            return true;
+        } catch (final RejectedExecutionException e) {
+            // Shutting down
+            tenantsScheduled.remove(tenantRecordId);
+            return false;
+        }
+    }
+
+    /**
+     * Generate the invoices of all the accounts of the tenant that have a next billing date notification due before the
+     * specified date. Nothing is done if another node is already running a batch for that tenant.
+     */
+    public InvoiceBatchResult processAccountsWithPendingNotifications(final DateTime targetDateTime,
+                                                                      final Long tenantRecordId,
+                                                                      @Nullable final UUID userToken) {
+        final GlobalLock lock;
+        try {
+            lock = locker.lockWithNumberOfTries(LockerType.INVOICE_BATCH.toString(), tenantRecordId.toString(), 1);
+        } catch (final LockFailedException e) {
+            log.debug("Invoice batch run already in progress for tenantRecordId='{}'", tenantRecordId);
+            return new InvoiceBatchResult(Collections.emptyList(), 0L);
+        }
+
+        try {
+            final List<AccountRun> accountRuns = new ArrayList<>();
+            for (final Long accountRecordId : getAccountsWithPendingNotifications(targetDateTime, tenantRecordId)) {
+                // The target date and rescheduled flag come from the notifications claimed by the worker
+                accountRuns.add(new AccountRun(accountRecordId, targetDateTime, false, true));
+            }
+            return processAccountRuns(accountRuns, tenantRecordId, userToken);
+        } finally {
+            lock.release();
+        }
+    }
+
+    /**
+     * Generate the invoices of the specified accounts, all belonging to the same tenant.
+     */
+    public InvoiceBatchResult processAccounts(final Collection<Long> accountRecordIds,
+                                              final DateTime targetDateTime,
+                                              final Long tenantRecordId,
+                                              @Nullable final UUID userToken) {
+        final List<AccountRun> accountRuns = new ArrayList<>(accountRecordIds.size());
+        for (final Long accountRecordId : accountRecordIds) {
+            accountRuns.add(new AccountRun(accountRecordId, targetDateTime, false, false));
+        }
+        return processAccountRuns(accountRuns, tenantRecordId, userToken);
+    }
+
+    private InvoiceBatchResult processAccountRuns(final Collection<AccountRun> accountRuns,
+                                                  final Long tenantRecordId,
+                                                  @Nullable final UUID userToken) {
+        Preconditions.checkState(batchExecutorService != null, "InvoiceBatchDispatcher has not been initialized");
+
+        final long startNano = System.nanoTime();
+        if (accountRuns.isEmpty()) {
+            return new InvoiceBatchResult(Collections.emptyList(), 0L);
+        }
+
+        warmUpTenantState(tenantRecordId, accountRuns.iterator().next().accountRecordId);
+
+        final List<Future<AccountInvoiceRunResult>> futures = new ArrayList<>(accountRuns.size());
+        for (final AccountRun accountRun : accountRuns) {
+            futures.add(batchExecutorService.submit(new Callable<AccountInvoiceRunResult>() {
+                @Override
+                public AccountInvoiceRunResult call() {
+                    return accountRun.claimNotifications ? processAccountWithPendingNotifications(accountRun, tenantRecordId, userToken) : processAccount(accountRun, tenantRecordId, userToken);
+                }
+            }));
+        }
+
+        final List<AccountInvoiceRunResult> results = new ArrayList<>(futures.size());
+        for (final Future<AccountInvoiceRunResult> future : futures) {
+            try {
+                final AccountInvoiceRunResult result = future.get();
+                if (result != null) {
+                    results.add(result);
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Interrupted while waiting for invoice batch run for tenantRecordId='{}'", tenantRecordId);
+                for (final Future<AccountInvoiceRunResult> remaining : futures) {
+                    remaining.cancel(true);
+                }
+                break;
+            } catch (final ExecutionException e) {
+                // processAccount catches everything, so this is unexpected
+                log.warn("Unexpected failure during invoice batch run for tenantRecordId='{}'", tenantRecordId, e.getCause());
+            }
+        }
+
+        final InvoiceBatchResult result = new InvoiceBatchResult(results, (System.nanoTime() - startNano) / NANO_TO_MILLI_SEC);
+        log.info("Invoice batch run for tenantRecordId='{}': {}", tenantRecordId, result);
+        return result;
+    }
+
+    // Returns null if the notifications of the account have been processed by the queue in the meantime
+    private AccountInvoiceRunResult processAccountWithPendingNotifications(final AccountRun accountRun,
+                                                                          final Long tenantRecordId,
+                                                                          @Nullable final UUID userToken) {
+        final NotificationQueue notificationQueue = getNextBillingQueue();
+        final DateTime claimedUntil = clock.getUTCNow().plus(invoiceConfig.getInvoiceBatchClaimTimeout().getMillis());
+        final NextBillingDateNotificationKey claimed;
+        try {
+            claimed = claimNotifications(notificationQueue, accountRun, claimedUntil, tenantRecordId);
+        } catch (final RuntimeException e) {
+            log.warn("Failed to claim next billing date notifications for accountRecordId='{}', leaving them to the queue", accountRun.accountRecordId, e);
+            return null;
+        }
+        if (claimed == null) {
+            return null;
+        }
+
+        final AccountInvoiceRunResult result = processAccount(new AccountRun(accountRun.accountRecordId, claimed.getTargetDate(), Boolean.TRUE.equals(claimed.isRescheduled()), true),
+                                                              tenantRecordId,
+                                                              userToken);
+        if (result.getStatus() == AccountInvoiceRunStatus.FAILED) {
+            log.warn("Invoice batch run failed for accountRecordId='{}': the queue will retry it at {}", accountRun.accountRecordId, claimedUntil);
+        } else {
+            releaseClaim(notificationQueue, accountRun.accountRecordId, tenantRecordId, claimed, claimedUntil);
+        }
+        return result;
+    }
+
+    private AccountInvoiceRunResult processAccount(final AccountRun accountRun,
+                                                   final Long tenantRecordId,
+                                                   @Nullable final UUID userToken) {
+        final Long accountRecordId = accountRun.accountRecordId;
+        final long startNano = System.nanoTime();
+        UUID accountId = null;
+        try {
+            final InternalCallContext context = internalCallContextFactory.createInternalCallContext(tenantRecordId, accountRecordId, INVOICE_BATCH_USER_NAME, CallOrigin.INTERNAL, UserType.SYSTEM, userToken);
+            accountId = internalCallContextFactory.createCallContext(context).getAccountId();
+            final LocalDate targetDate = context.toLocalDate(accountRun.targetDateTime);
+
+            final List<Invoice> invoices = dispatcher.processAccountFromNotificationOrBusEvent(accountId, targetDate, null, accountRun.isRescheduled, context);
+            final AccountInvoiceRunStatus status = invoices.isEmpty() ? AccountInvoiceRunStatus.NOTHING_TO_INVOICE : AccountInvoiceRunStatus.INVOICED;
+            return new AccountInvoiceRunResult(accountRecordId, accountId, status, invoices.size(), (System.nanoTime() - startNano) / NANO_TO_MILLI_SEC, null);
+        } catch (final Exception e) {
+            log.warn("Failed to generate invoice for accountRecordId='{}', targetDate='{}'", accountRecordId, accountRun.targetDateTime, e);
+            return new AccountInvoiceRunResult(accountRecordId, accountId, AccountInvoiceRunStatus.FAILED, 0, (System.nanoTime() - startNano) / NANO_TO_MILLI_SEC, e);
+        }
+    }
+
+    // Load the per-tenant state once, before the workers start, so they all hit the caches instead of racing to populate them
+    // (the catalog is cached per tenant, but internal callers are required to provide an account)
+    private void warmUpTenantState(final Long tenantRecordId, final Long accountRecordId) {
+        final InternalTenantContext tenantContext = internalCallContextFactory.createInternalTenantContext(tenantRecordId, accountRecordId);
+        try {
+            catalogInternalApi.getFullCatalog(true, true, tenantContext);
+        } catch (final CatalogApiException e) {
+            log.warn("Failed to load catalog for tenantRecordId='{}' prior to invoice batch run", tenantRecordId, e);
+        }
+        invoiceConfig.isInvoicingSystemEnabled(tenantContext);
+    }
+
+    private NotificationQueue getNextBillingQueue() {
+        try {
+            return notificationQueueService.getNotificationQueue(KILLBILL_SERVICES.INVOICE_SERVICE.getServiceName(),
+                                                                 DefaultNextBillingDateNotifier.NEXT_BILLING_DATE_NOTIFIER_QUEUE);
+        } catch (final NoSuchNotificationQueue e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Collection<Long> getAccountsWithPendingNotifications(final DateTime targetDateTime, final Long tenantRecordId) {
+        final Map<Long, Boolean> accountRecordIds = new LinkedHashMap<>();
+        // Only returns the AVAILABLE entries, i.e. the ones not yet claimed by the queue dispatcher
+        final Iterable<NotificationEventWithMetadata<NextBillingDateNotificationKey>> notifications = getNextBillingQueue().getFutureNotificationForSearchKey2(targetDateTime, tenantRecordId);
+        for (final NotificationEventWithMetadata<NextBillingDateNotificationKey> notification : notifications) {
+            if (isDue(notification, targetDateTime)) {
+                accountRecordIds.put(notification.getSearchKey1(), Boolean.TRUE);
+            }
+        }
+        return accountRecordIds.keySet();
+    }
+
+    // Replace the due notifications of the account by a single one at claimedUntil (with the latest target date, which covers the earlier ones)
+    @VisibleForTesting
+    NextBillingDateNotificationKey claimNotifications(final NotificationQueue notificationQueue,
+                                                      final AccountRun accountRun,
+                                                      final DateTime claimedUntil,
+                                                      final Long tenantRecordId) {
+        return transactionalSqlDao.execute(false, new EntitySqlDaoTransactionWrapper<NextBillingDateNotificationKey>() {
+            @Override
+            public NextBillingDateNotificationKey inTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory) throws IOException {
+                final Connection connection = entitySqlDaoWrapperFactory.getHandle().getConnection();
+                final List<NotificationEventWithMetadata<NextBillingDateNotificationKey>> dueNotifications = new ArrayList<>();
+                final Iterator<NotificationEventWithMetadata<NextBillingDateNotificationKey>> iterator = notificationQueue.<NextBillingDateNotificationKey>getFutureNotificationFromTransactionForSearchKeys(accountRun.accountRecordId, tenantRecordId, connection).iterator();
+                while (iterator.hasNext()) {
+                    final NotificationEventWithMetadata<NextBillingDateNotificationKey> notification = iterator.next();
+                    if (isDue(notification, accountRun.targetDateTime)) {
+                        dueNotifications.add(notification);
+                    }
+                }
+                if (dueNotifications.isEmpty()) {
+                    return null;
+                }
+
+                NotificationEventWithMetadata<NextBillingDateNotificationKey> latest = dueNotifications.get(0);
+                for (final NotificationEventWithMetadata<NextBillingDateNotificationKey> notification : dueNotifications) {
+                    if (notification.getEvent().getTargetDate().isAfter(latest.getEvent().getTargetDate())) {
+                        latest = notification;
+                    }
+                    notificationQueue.removeNotificationFromTransaction(connection, notification.getRecordId());
+                }
+                notificationQueue.recordFutureNotificationFromTransaction(connection, claimedUntil, latest.getEvent(), latest.getFutureUserToken(), accountRun.accountRecordId, tenantRecordId);
+                return latest.getEvent();
+            }
+        });
+    }
+
+    private void releaseClaim(final NotificationQueue notificationQueue,
+                              final Long accountRecordId,
+                              final Long tenantRecordId,
+                              final NextBillingDateNotificationKey claimed,
+                              final DateTime claimedUntil) {
+        try {
+            transactionalSqlDao.execute(false, new EntitySqlDaoTransactionWrapper<Void>() {
+                @Override
+                public Void inTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory) {
+                    final Connection connection = entitySqlDaoWrapperFactory.getHandle().getConnection();
+                    final Iterator<NotificationEventWithMetadata<NextBillingDateNotificationKey>> iterator = notificationQueue.<NextBillingDateNotificationKey>getFutureNotificationFromTransactionForSearchKeys(accountRecordId, tenantRecordId, connection).iterator();
+                    final List<Long> claimRecordIds = new ArrayList<>();
+                    while (iterator.hasNext()) {
+                        final NotificationEventWithMetadata<NextBillingDateNotificationKey> notification = iterator.next();
+                        // Skip it if new subscriptions were merged into it in the meantime (next billing date on the same day)
+                        if (Math.abs(notification.getEffectiveDate().getMillis() - claimedUntil.getMillis()) < 1000L &&
+                            notification.getEvent().getTargetDate().equals(claimed.getTargetDate()) &&
+                            Iterables.toUnmodifiableSet(notification.getEvent().getUuidKeys()).equals(Iterables.toUnmodifiableSet(claimed.getUuidKeys()))) {
+                            claimRecordIds.add(notification.getRecordId());
+                        }
+                    }
+                    for (final Long recordId : claimRecordIds) {
+                        notificationQueue.removeNotificationFromTransaction(connection, recordId);
+                    }
+                    return null;
+                }
+            });
+        } catch (final RuntimeException e) {
+            // The queue will run invoicing once more (nothing to invoice) when the claim times out
+            log.warn("Failed to release the claim on the next billing date notifications of accountRecordId='{}'", accountRecordId, e);
+        }
+    }
+
+    private static boolean isDue(final NotificationEventWithMetadata<NextBillingDateNotificationKey> notification, final DateTime targetDateTime) {
+        return !Boolean.TRUE.equals(notification.getEvent().isDryRunForInvoiceNotification()) && !notification.getEffectiveDate().isAfter(targetDateTime);
+    }
+
+    private ExecutorService createBatchExecutorService() {
+        return new WithProfilingThreadPoolExecutor(invoiceConfig.getInvoiceBatchThreadNb(),
+                                                   invoiceConfig.getInvoiceBatchThreadNb(),
+                                                   0L,
+                                                   TimeUnit.MILLISECONDS,
+                                                   new LinkedBlockingQueue<Runnable>(),
+                                                   new ThreadFactory() {
+
+                                                       @Override
+                                                       public Thread newThread(final Runnable r) {
+                                                           final Thread th = new Thread(new ThreadGroup(INVOICE_BATCH_TH_GROUP_NAME), r);
+                                                           th.setName(INVOICE_BATCH_THREAD_PREFIX + th.getId());
+                                                           return th;
+                                                       }
+                                                   });
+    }
+
+    @VisibleForTesting
+    static final class AccountRun {
+
+        private final Long accountRecordId;
+        private final DateTime targetDateTime;
+        private final boolean isRescheduled;
+        // Whether the due next billing date notifications of the account must be claimed first
+        private final boolean claimNotifications;
+
+        AccountRun(final Long accountRecordId, final DateTime targetDateTime, final boolean isRescheduled, final boolean claimNotifications) {
+            this.accountRecordId = accountRecordId;
+            this.targetDateTime = targetDateTime;
+            this.isRescheduled = isRescheduled;
+            this.claimNotifications = claimNotifications;
+        }
+    }
+
+    public static class AccountInvoiceRunResult {
+
+        private final Long accountRecordId;
+        private final UUID accountId;
+        private final AccountInvoiceRunStatus status;
+        private final int nbInvoices;
+        private final long durationMs;
+        private final Exception error;
+
+        public AccountInvoiceRunResult(final Long accountRecordId,
+                                       @Nullable final UUID accountId,
+                                       final AccountInvoiceRunStatus status,
+                                       final int nbInvoices,
+                                       final long durationMs,
+                                       @Nullable final Exception error) {
+            this.accountRecordId = accountRecordId;
+            this.accountId = accountId;
+            this.status = status;
+            this.nbInvoices = nbInvoices;
+            this.durationMs = durationMs;
+            this.error = error;
+        }
+
+        public Long getAccountRecordId() {
+            return accountRecordId;
+        }
+
+        public UUID getAccountId() {
+            return accountId;
+        }
+
+        public AccountInvoiceRunStatus getStatus() {
+            return status;
+        }
+
+        public int getNbInvoices() {
+            return nbInvoices;
+        }
+
+        public long getDurationMs() {
+            return durationMs;
+        }
+
+        public Exception getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("AccountInvoiceRunResult{");
+            sb.append("accountRecordId=").append(accountRecordId);
+            sb.append(", accountId=").append(accountId);
+            sb.append(", status=").append(status);
+            sb.append(", nbInvoices=").append(nbInvoices);
+            sb.append(", durationMs=").append(durationMs);
+            sb.append('}');
+            return sb.toString();
+        }
+    }
+
+    public static class InvoiceBatchResult {
+
+        private final List<AccountInvoiceRunResult> accountResults;
+        private final long durationMs;
+
+        public InvoiceBatchResult(final List<AccountInvoiceRunResult> accountResults, final long durationMs) {
+            this.accountResults = accountResults;
+            this.durationMs = durationMs;
+        }
+
+        public List<AccountInvoiceRunResult> getAccountResults() {
+            return accountResults;
+        }
+
+        public long getDurationMs() {
+            return durationMs;
+        }
+
+        public int getNbAccounts(final AccountInvoiceRunStatus status) {
+            int result = 0;
+            for (final AccountInvoiceRunResult accountResult : accountResults) {
+                if (accountResult.getStatus() == status) {
+                    result++;
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("InvoiceBatchResult{");
+            sb.append("nbAccounts=").append(accountResults.size());
+            sb.append(", invoiced=").append(getNbAccounts(AccountInvoiceRunStatus.INVOICED));
+            sb.append(", nothingToInvoice=").append(getNbAccounts(AccountInvoiceRunStatus.NOTHING_TO_INVOICE));
+            sb.append(", failed=").append(getNbAccounts(AccountInvoiceRunStatus.FAILED));
+            sb.append(", durationMs=").append(durationMs);
+            sb.append('}');
+            return sb.toString();
+        }
+    }
+}
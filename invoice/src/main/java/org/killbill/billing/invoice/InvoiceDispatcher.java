@@ -197,6 +197,12 @@ public class InvoiceDispatcher {
         }
     }
 
+    // The invoice run for this trigger was coalesced into another one (see InvoiceRunCoalescer): complete the user request
+    public void processCoalescedInvoiceRun(final InternalCallContext context) {
+        final UUID accountId = internalCallContextFactory.createCallContext(context).getAccountId();
+        postEvent(new DefaultNullInvoiceEvent(accountId, clock.getUTCToday(), context.getAccountRecordId(), context.getTenantRecordId(), context.getUserToken()));
+    }
+
     public void processSubscriptionStartRequestedDate(final RequestedSubscriptionInternalEvent transition, final InternalCallContext context) {
         final long dryRunNotificationTime = invoiceConfig.getDryRunNotificationSchedule(context).getMillis();
         final boolean isInvoiceNotificationEnabled = dryRunNotificationTime > 0;
@@ -67,7 +67,12 @@ public class InvoiceListener extends RetryableService implements InvoiceListener
 
     private static final Logger log = LoggerFactory.getLogger(InvoiceListener.class);
 
+    private static final String SUBSCRIPTION_TRANSITION_RUN = "SUBSCRIPTION_TRANSITION";
+    private static final String BLOCKING_TRANSITION_RUN = "BLOCKING_TRANSITION";
+    private static final String BCD_CHANGE_RUN = "BCD_CHANGE";
+
     private final InvoiceDispatcher dispatcher;
+    private final InvoiceRunCoalescer invoiceRunCoalescer;
     private final InternalCallContextFactory internalCallContextFactory;
     private final InvoiceInternalApi invoiceApi;
     private final RetryableSubscriber retryableSubscriber;
@@ -78,12 +83,14 @@ public class InvoiceListener extends RetryableService implements InvoiceListener
     public InvoiceListener(final AccountInternalApi accountApi,
                            final InternalCallContextFactory internalCallContextFactory,
                            final InvoiceDispatcher dispatcher,
+                           final InvoiceRunCoalescer invoiceRunCoalescer,
                            final InvoiceInternalApi invoiceApi,
                            final NotificationQueueService notificationQueueService,
                            final BusDispatcherOptimizer busDispatcherOptimizer,
                            final Clock clock) {
         super(notificationQueueService);
         this.dispatcher = dispatcher;
+        this.invoiceRunCoalescer = invoiceRunCoalescer;
         this.internalCallContextFactory = internalCallContextFactory;
         this.invoiceApi = invoiceApi;
         this.busDispatcherOptimizer = busDispatcherOptimizer;
@@ -101,7 +108,9 @@ public class InvoiceListener extends RetryableService implements InvoiceListener
                                                          return;
                                                      }
                                                      final InternalCallContext context = internalCallContextFactory.createInternalCallContext(event.getSearchKey2(), event.getSearchKey1(), "SubscriptionBaseTransition", CallOrigin.INTERNAL, UserType.SYSTEM, event.getUserToken());
-                                                     dispatcher.processSubscriptionForInvoiceGeneration(event, context);
+                                                     invoiceRunCoalescer.runOrCoalesce(event.getSearchKey1(), SUBSCRIPTION_TRANSITION_RUN, context.toLocalDate(event.getEffectiveTransitionTime()),
+                                                                                       () -> dispatcher.processSubscriptionForInvoiceGeneration(event, context),
+                                                                                       () -> dispatcher.processCoalescedInvoiceRun(context));
                                                  } catch (final InvoiceApiException e) {
                                                      log.warn("Unable to process event {}", event, e);
                                                  }
@@ -119,7 +128,9 @@ public class InvoiceListener extends RetryableService implements InvoiceListener
                                                  try {
                                                      final InternalCallContext context = internalCallContextFactory.createInternalCallContext(event.getSearchKey2(), event.getSearchKey1(), "SubscriptionBaseTransition", CallOrigin.INTERNAL, UserType.SYSTEM, event.getUserToken());
                                                      final UUID accountId = accountApi.getByRecordId(event.getSearchKey1(), context);
-                                                     dispatcher.processAccountFromNotificationOrBusEvent(accountId, null, null, false, context);
+                                                     invoiceRunCoalescer.runOrCoalesce(event.getSearchKey1(), BLOCKING_TRANSITION_RUN, null,
+                                                                                       () -> dispatcher.processAccountFromNotificationOrBusEvent(accountId, null, null, false, context),
+                                                                                       () -> dispatcher.processCoalescedInvoiceRun(context));
                                                  } catch (final InvoiceApiException e) {
                                                      log.warn("Unable to process event {}", event, e);
                                                  } catch (final AccountApiException e) {
@@ -189,7 +200,13 @@ public class InvoiceListener extends RetryableService implements InvoiceListener
                                                          !Objects.equals(changedField.getOldValue(), changedField.getNewValue()) &&
                                                          !"0".equals(changedField.getOldValue())) {
                                                          final InternalCallContext context = internalCallContextFactory.createInternalCallContext(event.getSearchKey2(), event.getSearchKey1(), "AccountBCDChange", CallOrigin.INTERNAL, UserType.SYSTEM, event.getUserToken());
-                                                         dispatcher.processAccountBCDChange(event.getAccountId(), context);
+                                                         try {
+                                                             invoiceRunCoalescer.runOrCoalesce(event.getSearchKey1(), BCD_CHANGE_RUN, null,
+                                                                                               () -> dispatcher.processAccountBCDChange(event.getAccountId(), context),
+                                                                                               () -> dispatcher.processCoalescedInvoiceRun(context));
+                                                         } catch (final InvoiceApiException e) {
+                                                             log.warn("Unable to process event {}", event, e);
+                                                         }
                                                          return;
                                                      }
                                                  }
@@ -213,6 +230,7 @@ public class InvoiceListener extends RetryableService implements InvoiceListener
     @LifecycleHandlerType(LifecycleLevel.INIT_SERVICE)
     public void initialize() {
         super.initialize("invoice-listener", subscriberQueueHandler);
+        invoiceRunCoalescer.initialize();
     }
 
     @LifecycleHandlerType(LifecycleLevel.START_SERVICE)
@@ -223,6 +241,7 @@ public class InvoiceListener extends RetryableService implements InvoiceListener
     @LifecycleHandlerType(LifecycleLevel.STOP_SERVICE)
     public void stop() throws NoSuchNotificationQueue {
         super.stop();
+        invoiceRunCoalescer.stop();
     }
 
     private void handleEvent(final BusInternalEvent event) {
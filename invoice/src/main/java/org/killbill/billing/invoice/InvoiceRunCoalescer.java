@@ -0,0 +1,254 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.invoice;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+
+import org.joda.time.LocalDate;
+import org.killbill.billing.invoice.api.InvoiceApiException;
+import org.killbill.billing.util.config.definition.InvoiceConfig;
+import org.killbill.commons.concurrent.Executors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collapses the invoice runs triggered by bus events for the same account, operation and target date.
+ * <p>
+ * The first trigger for a given key becomes the runner: it runs the latest pending invoice run, until no new trigger
+ * came in while it was running. Triggers received in the meantime only replace the pending run and return immediately,
+ * so a burst of events results in at most two invoice runs (the one in progress and a single follow-up one, which sees
+ * all the changes). The callback of each replaced trigger is invoked once the run it was coalesced into has completed,
+ * so that its user request can complete as well.
+ * <p>
+ * When a coalescing window is configured, the runs are scheduled after the window on a dedicated thread instead of
+ * the bus thread: failures are then only logged, as there is no bus event left to retry.
+ */
+public class InvoiceRunCoalescer {
+
+    private static final Logger log = LoggerFactory.getLogger(InvoiceRunCoalescer.class);
+
+    private static final long TERMINATION_TIMEOUT_SEC = 5;
+
+    public interface InvoiceRun {
+
+        void run() throws InvoiceApiException;
+    }
+
+    public interface CoalescedRunCallback {
+
+        void onCoalesced();
+    }
+
+    private final InvoiceConfig invoiceConfig;
+    private final ConcurrentMap<CoalescingKey, PendingRun> pendingRuns = new ConcurrentHashMap<>();
+
+    private volatile ScheduledExecutorService coalescingExecutor;
+
+    @Inject
+    public InvoiceRunCoalescer(final InvoiceConfig invoiceConfig) {
+        this.invoiceConfig = invoiceConfig;
+    }
+
+    public void initialize() {
+        if (invoiceConfig.isInvoiceRunCoalescingEnabled() && invoiceConfig.getInvoiceRunCoalescingWindow().getMillis() > 0) {
+            coalescingExecutor = Executors.newSingleThreadScheduledExecutor("InvoiceRunCoalescer");
+        }
+    }
+
+    public void stop() {
+        final ScheduledExecutorService executor = coalescingExecutor;
+        if (executor == null) {
+            return;
+        }
+
+        // New triggers are rejected from now on (and retried by the bus)
+        executor.shutdownNow();
+        try {
+            if (!executor.awaitTermination(TERMINATION_TIMEOUT_SEC, TimeUnit.SECONDS)) {
+                log.warn("InvoiceRunCoalescer failed to complete termination within {}sec", TERMINATION_TIMEOUT_SEC);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // The runs still waiting for their window are run right away rather than dropped, as their bus events have already been acknowledged
+        final List<CoalescingKey> waitingKeys = new ArrayList<>(pendingRuns.keySet());
+        coalescingExecutor = null;
+        for (final CoalescingKey key : waitingKeys) {
+            runScheduledInvoiceRuns(key);
+        }
+    }
+
+    public void runOrCoalesce(final Long accountRecordId,
+                              final String operation,
+                              @Nullable final LocalDate targetDate,
+                              final InvoiceRun invoiceRun,
+                              final CoalescedRunCallback coalescedRunCallback) throws InvoiceApiException {
+        if (!invoiceConfig.isInvoiceRunCoalescingEnabled()) {
+            invoiceRun.run();
+            return;
+        }
+
+        final CoalescingKey key = new CoalescingKey(accountRecordId, operation, targetDate);
+        final PendingRun ownedRun = new PendingRun(invoiceRun, coalescedRunCallback);
+        final PendingRun pendingRun = pendingRuns.merge(key, ownedRun, (existing, ignored) -> {
+            if (existing.next != null) {
+                existing.coalescedRunCallbacks.add(existing.nextCallback);
+            }
+            existing.next = invoiceRun;
+            existing.nextCallback = coalescedRunCallback;
+            return existing;
+        });
+        if (pendingRun != ownedRun) {
+            log.debug("Coalescing invoice run for accountRecordId='{}', operation='{}', targetDate='{}'", accountRecordId, operation, targetDate);
+            return;
+        }
+
+        boolean completed = false;
+        try {
+            final ScheduledExecutorService executor = coalescingExecutor;
+            if (executor == null) {
+                runPendingInvoiceRuns(key);
+            } else {
+                executor.schedule(() -> runScheduledInvoiceRuns(key),
+                                  invoiceConfig.getInvoiceRunCoalescingWindow().getMillis(),
+                                  TimeUnit.MILLISECONDS);
+            }
+            completed = true;
+        } finally {
+            if (!completed) {
+                pendingRuns.remove(key, ownedRun);
+            }
+        }
+    }
+
+    private void runScheduledInvoiceRuns(final CoalescingKey key) {
+        try {
+            runPendingInvoiceRuns(key);
+        } catch (final InvoiceApiException | RuntimeException e) {
+            log.warn("Failed coalesced invoice run for accountRecordId='{}', operation='{}', targetDate='{}'", key.accountRecordId, key.operation, key.targetDate, e);
+        }
+    }
+
+    private void runPendingInvoiceRuns(final CoalescingKey key) throws InvoiceApiException {
+        InvoiceApiException invoiceApiFailure = null;
+        RuntimeException runtimeFailure = null;
+
+        final List<CoalescedRunCallback> coalescedRunCallbacks = new ArrayList<>();
+        InvoiceRun invoiceRun;
+        while ((invoiceRun = takeNextInvoiceRun(key, coalescedRunCallbacks)) != null) {
+            // Keep going on failures, as the triggers that were coalesced into the next run have already been acknowledged
+            try {
+                invoiceRun.run();
+            } catch (final InvoiceApiException e) {
+                if (invoiceApiFailure == null) {
+                    invoiceApiFailure = e;
+                }
+            } catch (final RuntimeException e) {
+                if (runtimeFailure == null) {
+                    runtimeFailure = e;
+                }
+            }
+
+            for (final CoalescedRunCallback callback : coalescedRunCallbacks) {
+                try {
+                    callback.onCoalesced();
+                } catch (final RuntimeException e) {
+                    log.warn("Failed to complete coalesced invoice run", e);
+                }
+            }
+            coalescedRunCallbacks.clear();
+        }
+
+        if (runtimeFailure != null) {
+            throw runtimeFailure;
+        } else if (invoiceApiFailure != null) {
+            throw invoiceApiFailure;
+        }
+    }
+
+    @Nullable
+    private InvoiceRun takeNextInvoiceRun(final CoalescingKey key, final List<CoalescedRunCallback> coalescedRunCallbacks) {
+        final InvoiceRun[] next = new InvoiceRun[1];
+        pendingRuns.computeIfPresent(key, (k, pendingRun) -> {
+            next[0] = pendingRun.next;
+            pendingRun.next = null;
+            pendingRun.nextCallback = null;
+            coalescedRunCallbacks.addAll(pendingRun.coalescedRunCallbacks);
+            pendingRun.coalescedRunCallbacks.clear();
+            // Release the key once there is nothing left to run, so that the next trigger becomes the runner
+            return next[0] == null ? null : pendingRun;
+        });
+        return next[0];
+    }
+
+    private static final class PendingRun {
+
+        // Guarded by the map (only accessed from within the atomic map operations)
+        private InvoiceRun next;
+        private CoalescedRunCallback nextCallback;
+        // Triggers replaced by a later one before they ran
+        private final List<CoalescedRunCallback> coalescedRunCallbacks = new ArrayList<>();
+
+        private PendingRun(final InvoiceRun next, final CoalescedRunCallback nextCallback) {
+            this.next = next;
+            this.nextCallback = nextCallback;
+        }
+    }
+
+    private static final class CoalescingKey {
+
+        private final Long accountRecordId;
+        private final String operation;
+        private final LocalDate targetDate;
+
+        private CoalescingKey(final Long accountRecordId, final String operation, @Nullable final LocalDate targetDate) {
+            this.accountRecordId = accountRecordId;
+            this.operation = operation;
+            this.targetDate = targetDate;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final CoalescingKey that = (CoalescingKey) o;
+            return Objects.equals(accountRecordId, that.accountRecordId) &&
+                   Objects.equals(operation, that.operation) &&
+                   Objects.equals(targetDate, that.targetDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(accountRecordId, operation, targetDate);
+        }
+    }
+}
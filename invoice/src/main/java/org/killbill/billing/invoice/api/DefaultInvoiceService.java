@@ -20,6 +20,7 @@ package org.killbill.billing.invoice.api;
 
 import javax.inject.Inject;
 
+import org.killbill.billing.invoice.InvoiceBatchDispatcher;
 import org.killbill.billing.invoice.notification.ParentInvoiceCommitmentNotifier;
 import org.killbill.billing.util.optimizer.BusOptimizer;
 import org.killbill.bus.api.PersistentBus;
@@ -38,15 +39,18 @@ public class DefaultInvoiceService implements InvoiceService {
     private final InvoiceTagHandler tagHandler;
     private final BusOptimizer eventBus;
     private final ParentInvoiceCommitmentNotifier parentInvoiceNotifier;
+    private final InvoiceBatchDispatcher batchDispatcher;
 
     @Inject
     public DefaultInvoiceService(final InvoiceListener invoiceListener, final InvoiceTagHandler tagHandler, final BusOptimizer eventBus,
-                                 final NextBillingDateNotifier dateNotifier, final ParentInvoiceCommitmentNotifier parentInvoiceNotifier) {
+                                 final NextBillingDateNotifier dateNotifier, final ParentInvoiceCommitmentNotifier parentInvoiceNotifier,
+                                 final InvoiceBatchDispatcher batchDispatcher) {
         this.invoiceListener = invoiceListener;
         this.tagHandler = tagHandler;
         this.eventBus = eventBus;
         this.dateNotifier = dateNotifier;
         this.parentInvoiceNotifier = parentInvoiceNotifier;
+        this.batchDispatcher = batchDispatcher;
     }
 
     @Override
@@ -69,6 +73,7 @@ public class DefaultInvoiceService implements InvoiceService {
         }
         dateNotifier.initialize();
         parentInvoiceNotifier.initialize();
+        batchDispatcher.initialize();
     }
 
     @LifecycleHandlerType(LifecycleLevel.START_SERVICE)
@@ -87,5 +92,10 @@ public class DefaultInvoiceService implements InvoiceService {
         }
         dateNotifier.stop();
         parentInvoiceNotifier.stop();
+        try {
+            batchDispatcher.stop();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 }
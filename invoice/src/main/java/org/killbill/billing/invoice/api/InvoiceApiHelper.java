@@ -155,6 +155,20 @@ public class InvoiceApiHelper {
         }
     }
 
+    public boolean rebuildAccountBalance(final UUID accountId, final InternalCallContext internalCallContext) throws InvoiceApiException {
+        GlobalLock lock = null;
+        try {
+            lock = locker.lockWithNumberOfTries(LockerType.ACCNT_INV_PAY.toString(), accountId.toString(), invoiceConfig.getMaxGlobalLockRetries());
+            return dao.rebuildAccountBalance(internalCallContext);
+        } catch (final LockFailedException e) {
+            throw new InvoiceApiException(e, ErrorCode.UNEXPECTED_ERROR, "Failed to rebuild the account balance: failed to acquire lock");
+        } finally {
+            if (lock != null) {
+                lock.release();
+            }
+        }
+    }
+
     /**
      * Create an adjustment for a given invoice item. This just creates the object in memory, it doesn't write it to disk.
      *
@@ -26,6 +26,7 @@ import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 
 import org.joda.time.DateTime;
@@ -54,9 +55,13 @@ import org.killbill.commons.utils.annotation.VisibleForTesting;
 import org.killbill.billing.util.callcontext.CallContext;
 import org.killbill.billing.util.callcontext.InternalCallContextFactory;
 import org.killbill.billing.util.callcontext.TenantContext;
+import org.killbill.billing.util.entity.Pagination;
+import org.killbill.billing.util.entity.dao.DefaultPaginationHelper.SourcePaginationBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static org.killbill.billing.util.entity.dao.DefaultPaginationHelper.getEntityPaginationNoException;
+
 public class DefaultInvoiceInternalApi implements InvoiceInternalApi {
 
     private static final Logger log = LoggerFactory.getLogger(DefaultInvoiceInternalApi.class);
@@ -209,4 +214,37 @@ public class DefaultInvoiceInternalApi implements InvoiceInternalApi {
         final InvoicePaymentModelDao invoicePaymentModelDao = dao.getInvoicePaymentByCookieId(cookieId, internalCallContextFactory.createInternalTenantContext(context.getAccountId(), ObjectType.ACCOUNT, context));
         return invoicePaymentModelDao == null ? null : new DefaultInvoicePayment(invoicePaymentModelDao);
     }
+
+    @Override
+    public boolean rebuildAccountBalance(final UUID accountId, final CallContext context) throws InvoiceApiException {
+        return invoiceApiHelper.rebuildAccountBalance(accountId, internalCallContextFactory.createInternalCallContext(accountId, context));
+    }
+
+    @Override
+    public Pagination<Invoice> getInvoices(@Nullable final Long cursor, final Long offset, final Long limit, final InternalTenantContext context) {
+        return getEntityPaginationNoException(limit,
+                                              new SourcePaginationBuilder<InvoiceModelDao, InvoiceApiException>() {
+                                                  @Override
+                                                  public Pagination<InvoiceModelDao> build() {
+                                                      // Invoices will be shallow, i.e. won't contain items nor payments
+                                                      return dao.get(cursor, offset, limit, context);
+                                                  }
+                                              },
+                                              DefaultInvoice::new
+                                             );
+    }
+
+    @Override
+    public Pagination<Invoice> searchInvoices(final String searchKey, @Nullable final Long cursor, final Long offset, final Long limit, final InternalTenantContext context) {
+        return getEntityPaginationNoException(limit,
+                                              new SourcePaginationBuilder<InvoiceModelDao, InvoiceApiException>() {
+                                                  @Override
+                                                  public Pagination<InvoiceModelDao> build() {
+                                                      // Invoices will be shallow, i.e. won't contain items nor payments
+                                                      return dao.searchInvoices(searchKey, cursor, offset, limit, context);
+                                                  }
+                                              },
+                                              DefaultInvoice::new
+                                             );
+    }
 }
@@ -99,6 +99,48 @@ public class MultiTenantInvoiceConfig extends MultiTenantLockAwareConfigBase imp
         return isUsageMissingLenient();
     }
 
+    @Override
+    public boolean isUsageRollupEnabled() {
+        return staticConfig.isUsageRollupEnabled();
+    }
+
+    @Override
+    public boolean isUsageRollupEnabled(final InternalTenantContext tenantContext) {
+        final String result = getStringTenantConfig("isUsageRollupEnabled", tenantContext);
+        if (result != null) {
+            return Boolean.parseBoolean(result);
+        }
+        return isUsageRollupEnabled();
+    }
+
+    @Override
+    public boolean isAccountBalanceLedgerEnabled() {
+        return staticConfig.isAccountBalanceLedgerEnabled();
+    }
+
+    @Override
+    public boolean isAccountBalanceLedgerEnabled(final InternalTenantContext tenantContext) {
+        final String result = getStringTenantConfig("isAccountBalanceLedgerEnabled", tenantContext);
+        if (result != null) {
+            return Boolean.parseBoolean(result);
+        }
+        return isAccountBalanceLedgerEnabled();
+    }
+
+    @Override
+    public boolean isBinaryBillingEventsFormatEnabled() {
+        return staticConfig.isBinaryBillingEventsFormatEnabled();
+    }
+
+    @Override
+    public boolean isBinaryBillingEventsFormatEnabled(final InternalTenantContext tenantContext) {
+        final String result = getStringTenantConfig("isBinaryBillingEventsFormatEnabled", tenantContext);
+        if (result != null) {
+            return Boolean.parseBoolean(result);
+        }
+        return isBinaryBillingEventsFormatEnabled();
+    }
+
     @Override
     public int getMaxDailyNumberOfItemsSafetyBound() {
         return staticConfig.getMaxDailyNumberOfItemsSafetyBound();
@@ -180,6 +222,61 @@ public class MultiTenantInvoiceConfig extends MultiTenantLockAwareConfigBase imp
         return staticConfig.getMaxGlobalLockRetries();
     }
 
+    @Override
+    public int getInvoiceBatchThreadNb() {
+        return staticConfig.getInvoiceBatchThreadNb();
+    }
+
+    @Override
+    public boolean isInvoiceBatchEnabled() {
+        return staticConfig.isInvoiceBatchEnabled();
+    }
+
+    @Override
+    public TimeSpan getInvoiceBatchMinInterval() {
+        return staticConfig.getInvoiceBatchMinInterval();
+    }
+
+    @Override
+    public TimeSpan getInvoiceBatchClaimTimeout() {
+        return staticConfig.getInvoiceBatchClaimTimeout();
+    }
+
+    @Override
+    public boolean isInvoiceRunCoalescingEnabled() {
+        return staticConfig.isInvoiceRunCoalescingEnabled();
+    }
+
+    @Override
+    public TimeSpan getInvoiceRunCoalescingWindow() {
+        return staticConfig.getInvoiceRunCoalescingWindow();
+    }
+
+    @Override
+    public int getUsageInvoiceThreadNb() {
+        return staticConfig.getUsageInvoiceThreadNb();
+    }
+
+    @Override
+    public int getUsageInvoiceParallelMinSubscriptions() {
+        return staticConfig.getUsageInvoiceParallelMinSubscriptions();
+    }
+
+    @Override
+    public int getInvoiceTreeThreadNb() {
+        return staticConfig.getInvoiceTreeThreadNb();
+    }
+
+    @Override
+    public int getInvoiceTreeParallelMinSubscriptions() {
+        return staticConfig.getInvoiceTreeParallelMinSubscriptions();
+    }
+
+    @Override
+    public boolean isInvoiceTreeFlat() {
+        return staticConfig.isInvoiceTreeFlat();
+    }
+
     @Override
     public List<String> getInvoicePluginNames() {
         return staticConfig.getInvoicePluginNames();
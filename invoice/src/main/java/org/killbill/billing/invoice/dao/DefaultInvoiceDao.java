@@ -123,6 +123,7 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
     private final InternalCallContextFactory internalCallContextFactory;
     private final InvoiceDaoHelper invoiceDaoHelper;
     private final CBADao cbaDao;
+    private final InvoiceAccountBalanceDao invoiceAccountBalanceDao;
     private final InvoiceConfig invoiceConfig;
     private final CacheController<String, UUID> objectIdCacheController;
     private final NonEntityDao nonEntityDao;
@@ -144,6 +145,7 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
                              final InvoiceConfig invoiceConfig,
                              final InvoiceDaoHelper invoiceDaoHelper,
                              final CBADao cbaDao,
+                             final InvoiceAccountBalanceDao invoiceAccountBalanceDao,
                              final ParentInvoiceCommitmentPoster parentInvoiceCommitmentPoster,
                              final AuditDao auditDao,
                              final InternalCallContextFactory internalCallContextFactory) {
@@ -155,6 +157,7 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
         this.internalCallContextFactory = internalCallContextFactory;
         this.invoiceDaoHelper = invoiceDaoHelper;
         this.cbaDao = cbaDao;
+        this.invoiceAccountBalanceDao = invoiceAccountBalanceDao;
         this.auditDao = auditDao;
         this.objectIdCacheController = cacheControllerDispatcher.getCacheController(CacheType.OBJECT_ID);
         this.nonEntityDao = nonEntityDao;
@@ -360,6 +363,8 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
         final Set<UUID> allInvoiceIds = new HashSet<UUID>();
         // Track invoices that are committed but were not created or reused -- to sent the InvoiceAdjustment bus event
         final Set<UUID> adjustedCommittedInvoiceIds = new HashSet<UUID>();
+        // Track invoices with existing items being updated -- for the account balance ledger
+        final Set<UUID> updatedInvoiceIds = new HashSet<UUID>();
 
         // Track set of invoices being referenced - note that input invoices can be used as 'containers' with items that belong to them
         // However, if this is the case, we expect the invoice to exist
@@ -408,7 +413,7 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
                             invoiceModelDao.setGrpId(grpId);
                             createAndRefresh(invoiceSqlDao, invoiceModelDao, context);
                             if (billingEvents != null) {
-                                billingEventSqlDao.create(new InvoiceBillingEventModelDao(invoiceModelDao.getId(), BillingEventSerializer.serialize(billingEvents), context.getCreatedDate()), context);
+                                billingEventSqlDao.create(new InvoiceBillingEventModelDao(invoiceModelDao.getId(), BillingEventSerializer.serialize(billingEvents, invoiceConfig.isBinaryBillingEventsFormatEnabled(context)), context.getCreatedDate()), context);
                             }
                             createdInvoiceIds.add(invoiceModelDao.getId());
                         } else {
@@ -451,6 +456,7 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
                                    (invoiceItemModelDao.getAmount().compareTo(existingInvoiceItem.getAmount()) != 0)) {
                             if (checkAgainstExistingInvoiceItemState(existingInvoiceItem, invoiceItemModelDao)) {
                                 transInvoiceItemSqlDao.updateItemFields(invoiceItemModelDao.getId().toString(), invoiceItemModelDao.getAmount(), invoiceItemModelDao.getDescription(), invoiceItemModelDao.getItemDetails(), context);
+                                updatedInvoiceIds.add(existingInvoiceItem.getInvoiceId());
                             }
                         }
                     }
@@ -488,7 +494,10 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
                 // CBA COMPLEXITY...
                 //
                 // Optimized path where we don't need to refresh invoices
-                final CBALogicWrapper cbaWrapper = new CBALogicWrapper(accountId, invoicesTags, context, entitySqlDaoWrapperFactory);
+                final Set<UUID> modifiedInvoiceIds = new HashSet<UUID>(committedReusedInvoiceId);
+                modifiedInvoiceIds.addAll(updatedInvoiceIds);
+                final CBALogicWrapper cbaWrapper = new CBALogicWrapper(accountId, invoicesTags, context, entitySqlDaoWrapperFactory,
+                                                                       modifiedInvoiceIds, invoiceConfig.isAccountBalanceLedgerEnabled(context));
                 if (createdInvoiceIds.equals(allInvoiceIds)) {
                     final List<InvoiceModelDao> cbaInvoicesInput = new ArrayList<>();
                     for (final UUID id : createdInvoiceIds) {
@@ -536,6 +545,24 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
 
     @Override
     public Pagination<InvoiceModelDao> searchInvoices(final String searchKey, final Long offset, final Long limit, final InternalTenantContext context) {
+        return paginationHelper.getPagination(InvoiceSqlDao.class,
+                                              getSearchInvoicesPaginationIteratorBuilder(searchKey),
+                                              offset,
+                                              limit,
+                                              context);
+    }
+
+    @Override
+    public Pagination<InvoiceModelDao> searchInvoices(final String searchKey, @Nullable final Long cursor, final Long offset, final Long limit, final InternalTenantContext context) {
+        return paginationHelper.getPaginationWithCursor(InvoiceSqlDao.class,
+                                                        getSearchInvoicesPaginationIteratorBuilder(searchKey),
+                                                        cursor,
+                                                        offset,
+                                                        limit,
+                                                        context);
+    }
+
+    private PaginationIteratorBuilder<InvoiceModelDao, Invoice, InvoiceSqlDao> getSearchInvoicesPaginationIteratorBuilder(final String searchKey) {
         Integer invoiceNumberParsed = null;
         try {
             invoiceNumberParsed = Integer.parseInt(searchKey);
@@ -546,38 +573,45 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
 
         final boolean isSearchKeyCurrency = isSearchKeyCurrency(searchKey);
 
-        return paginationHelper.getPagination(InvoiceSqlDao.class,
-                                              new PaginationIteratorBuilder<InvoiceModelDao, Invoice, InvoiceSqlDao>() {
-                                                  @Override
-                                                  public Long getCount(final InvoiceSqlDao invoiceSqlDao, final InternalTenantContext context) {
-                                                      if (invoiceNumber != null) {
-                                                          return (Long) 1L;
-                                                      }
-                                                      if (isSearchKeyCurrency) {
-                                                          return invoiceSqlDao.getSearchByCurrencyCount(searchKey, context);
-                                                      }
-                                                      return invoiceSqlDao.getSearchByAccountOrInvoiceIdCount(searchKey, context);
-                                                  }
-
-                                                  @Override
-                                                  public Iterator<InvoiceModelDao> build(final InvoiceSqlDao invoiceSqlDao, final Long offset, final Long limit, final DefaultPaginationSqlDaoHelper.Ordering ordering, final InternalTenantContext context) {
-                                                      try {
-                                                          if (invoiceNumber != null) {
-                                                              return List.<InvoiceModelDao>of(getByNumber(invoiceNumber, false, context)).iterator();
-                                                          }
-                                                          if (isSearchKeyCurrency) {
-                                                              return invoiceSqlDao.searchByCurrency(searchKey, offset, limit, ordering.toString(), context);
-                                                          }
-                                                          return invoiceSqlDao.searchByAccountOrInvoiceId(searchKey, offset, limit, ordering.toString(), context);
-                                                      } catch (final InvoiceApiException ignored) {
-                                                          return Collections.emptyIterator();
-                                                      }
-                                                  }
-                                              },
-                                              offset,
-                                              limit,
-                                              context);
+        return new PaginationIteratorBuilder<InvoiceModelDao, Invoice, InvoiceSqlDao>() {
+            @Override
+            public Long getCount(final InvoiceSqlDao invoiceSqlDao, final InternalTenantContext context) {
+                if (invoiceNumber != null) {
+                    return (Long) 1L;
+                }
+                if (isSearchKeyCurrency) {
+                    return invoiceSqlDao.getSearchByCurrencyCount(searchKey, context);
+                }
+                return invoiceSqlDao.getSearchByAccountOrInvoiceIdCount(searchKey, context);
+            }
+
+            @Override
+            public Iterator<InvoiceModelDao> build(final InvoiceSqlDao invoiceSqlDao, final Long offset, final Long limit, final DefaultPaginationSqlDaoHelper.Ordering ordering, final InternalTenantContext context) {
+                try {
+                    if (invoiceNumber != null) {
+                        return List.<InvoiceModelDao>of(getByNumber(invoiceNumber, false, context)).iterator();
+                    }
+                    if (isSearchKeyCurrency) {
+                        return invoiceSqlDao.searchByCurrency(searchKey, offset, limit, ordering.toString(), context);
+                    }
+                    return invoiceSqlDao.searchByAccountOrInvoiceId(searchKey, offset, limit, ordering.toString(), context);
+                } catch (final InvoiceApiException ignored) {
+                    return Collections.emptyIterator();
+                }
+            }
 
+            @Override
+            public Iterator<InvoiceModelDao> buildFromCursor(final InvoiceSqlDao invoiceSqlDao, final Long cursor, final Long offset, final Long limit, final DefaultPaginationSqlDaoHelper.Ordering ordering, final InternalTenantContext context) {
+                if (invoiceNumber != null) {
+                    // Single result
+                    return null;
+                }
+                if (isSearchKeyCurrency) {
+                    return invoiceSqlDao.searchByCurrencyFromCursor(searchKey, cursor, offset, limit, ordering.toString(), ordering.getCursorComparator(), context);
+                }
+                return invoiceSqlDao.searchByAccountOrInvoiceIdFromCursor(searchKey, cursor, offset, limit, ordering.toString(), ordering.getCursorComparator(), context);
+            }
+        };
     }
 
     @Override
@@ -585,6 +619,13 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
         final List<Tag> invoicesTags = getInvoicesTags(context);
 
         return transactionalSqlDao.execute(true, entitySqlDaoWrapperFactory -> {
+            if (invoiceConfig.isAccountBalanceLedgerEnabled(context)) {
+                final BigDecimal ledgerAccountBalance = invoiceAccountBalanceDao.getAccountBalanceFromTransaction(invoicesTags, entitySqlDaoWrapperFactory, context);
+                if (ledgerAccountBalance != null) {
+                    return ledgerAccountBalance;
+                }
+            }
+
             BigDecimal cba = BigDecimal.ZERO;
 
             BigDecimal accountBalance = BigDecimal.ZERO;
@@ -614,7 +655,20 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
 
     @Override
     public BigDecimal getAccountCBA(final UUID accountId, final InternalTenantContext context) {
-        return transactionalSqlDao.execute(true, entityWrapperFactory -> cbaDao.getAccountCBAFromTransaction(entityWrapperFactory, context));
+        return transactionalSqlDao.execute(true, entityWrapperFactory -> {
+            if (invoiceConfig.isAccountBalanceLedgerEnabled(context)) {
+                final BigDecimal ledgerAccountCBA = invoiceAccountBalanceDao.getAccountCBAFromTransaction(entityWrapperFactory, context);
+                if (ledgerAccountCBA != null) {
+                    return ledgerAccountCBA;
+                }
+            }
+            return cbaDao.getAccountCBAFromTransaction(entityWrapperFactory, context);
+        });
+    }
+
+    @Override
+    public boolean rebuildAccountBalance(final InternalCallContext context) {
+        return transactionalSqlDao.execute(false, entitySqlDaoWrapperFactory -> invoiceAccountBalanceDao.rebuildFromTransaction(entitySqlDaoWrapperFactory, context));
     }
 
     @Override
@@ -759,6 +813,8 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
                 final CBALogicWrapper cbaWrapper = new CBALogicWrapper(invoice.getAccountId(), invoicesTags, context, entitySqlDaoWrapperFactory);
                 cbaWrapper.runCBALogicWithNotificationEvents(initSet, Collections.emptySet(), List.of(invoice));
 
+            } else {
+                invoiceAccountBalanceDao.refreshFromTransaction(Set.of(payment.getInvoiceId()), false, entitySqlDaoWrapperFactory, context);
             }
             final UUID accountId = transactional.getAccountIdFromInvoicePaymentId(result.getId().toString(), context);
             notifyBusOfInvoicePayment(entitySqlDaoWrapperFactory, result, accountId, paymentAttemptId, context.getUserToken(), context);
@@ -976,6 +1032,7 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
                                                 invoicePayment.getStatus().toString(),
                                                 context);
                 }
+                invoiceAccountBalanceDao.refreshFromTransaction(Set.of(invoicePayment.getInvoiceId()), false, entitySqlDaoWrapperFactory, context);
             }
 
             if (completion) {
@@ -1072,6 +1129,8 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
                     throw new InvoiceApiException(ErrorCode.INVOICE_CBA_DELETED, cbaItem.getId());
                 }
             }
+            invoiceAccountBalanceDao.refreshFromTransaction(invoiceIds, false, entitySqlDaoWrapperFactory, context);
+
             // renamed to 'invId' because: Variable 'invoiceId' is already defined in the scope
             for (final UUID invId : invoiceIds) {
                 notifyBusOfInvoiceAdjustment(entitySqlDaoWrapperFactory, invId, accountId, context.getUserToken(), context);
@@ -1085,7 +1144,8 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
         final List<Tag> invoicesTags = getInvoicesTags(context);
 
         transactionalSqlDao.execute(false, entitySqlDaoWrapperFactory -> {
-            cbaDao.doCBAComplexityFromTransaction(invoicesTags, entitySqlDaoWrapperFactory, context);
+            final Set<UUID> modifiedInvoiceIds = cbaDao.doCBAComplexityFromTransaction(invoicesTags, entitySqlDaoWrapperFactory, context);
+            invoiceAccountBalanceDao.refreshFromTransaction(modifiedInvoiceIds, false, entitySqlDaoWrapperFactory, context);
             return null;
         });
     }
@@ -1237,7 +1297,9 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
 
             // Run through all invoices
             // Current invoice could be a credit item that needs to be rebalanced
-            cbaDao.doCBAComplexityFromTransaction(invoicesTags, entitySqlDaoWrapperFactory, context);
+            final Set<UUID> modifiedInvoiceIds = new HashSet<>(cbaDao.doCBAComplexityFromTransaction(invoicesTags, entitySqlDaoWrapperFactory, context));
+            modifiedInvoiceIds.add(invoiceId);
+            invoiceAccountBalanceDao.refreshFromTransaction(modifiedInvoiceIds, false, entitySqlDaoWrapperFactory, context);
 
             // Invoice creation event sent on COMMITTED
             if (InvoiceStatus.COMMITTED.equals(newStatus)) {
@@ -1296,6 +1358,13 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
         transactionalSqlDao.execute(false, entitySqlDaoWrapperFactory -> {
             final InvoiceParentChildrenSqlDao transactional = entitySqlDaoWrapperFactory.become(InvoiceParentChildrenSqlDao.class);
             createAndRefresh(transactional, invoiceRelation, context);
+
+            // The child invoice balance now depends on its parent invoice
+            final Long childAccountRecordId = internalCallContextFactory.getRecordIdFromObject(invoiceRelation.getChildAccountId(), ObjectType.ACCOUNT, internalCallContextFactory.createTenantContext(context));
+            if (childAccountRecordId != null) {
+                final InternalCallContext childContext = internalCallContextFactory.createInternalCallContext(childAccountRecordId, context);
+                invoiceAccountBalanceDao.refreshFromTransaction(Set.of(invoiceRelation.getChildInvoiceId()), false, entitySqlDaoWrapperFactory, childContext);
+            }
             return null;
         });
     }
@@ -1335,6 +1404,7 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
             }
 
             transactional.updateItemFields(invoiceItemId.toString(), amount, null, null, context);
+            invoiceAccountBalanceDao.refreshFromTransaction(Set.of(invoiceItem.getInvoiceId()), false, entitySqlDaoWrapperFactory, context);
             return null;
         });
     }
@@ -1479,20 +1549,30 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
         private final List<Tag> invoicesTags;
         private final InternalCallContext context;
         private final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory;
+        // Invoices modified by the caller which aren't part of the CBA logic input
+        private final Set<UUID> modifiedInvoiceIds;
+        private final boolean createAccountBalanceIfMissing;
 
         public CBALogicWrapper(final UUID accountId, final List<Tag> invoicesTags, final InternalCallContext context, final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory) {
+            this(accountId, invoicesTags, context, entitySqlDaoWrapperFactory, Collections.emptySet(), false);
+        }
+
+        public CBALogicWrapper(final UUID accountId, final List<Tag> invoicesTags, final InternalCallContext context, final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory,
+                               final Set<UUID> modifiedInvoiceIds, final boolean createAccountBalanceIfMissing) {
             this.accountId = accountId;
             this.invoicesTags = invoicesTags;
             this.context = context;
             this.entitySqlDaoWrapperFactory = entitySqlDaoWrapperFactory;
+            this.modifiedInvoiceIds = modifiedInvoiceIds;
+            this.createAccountBalanceIfMissing = createAccountBalanceIfMissing;
         }
 
         public void runCBALogicWithNotificationEvents(final Set<UUID> allInvoiceIds) throws EntityPersistenceException, InvoiceApiException {
-            runCBALogicWithNotificationEventsInternal(Collections.emptySet(), Collections.emptySet(), runCBALogicWithInvoiceIds(allInvoiceIds));
+            runCBALogicWithNotificationEventsInternal(Collections.emptySet(), Collections.emptySet(), allInvoiceIds, runCBALogicWithInvoiceIds(allInvoiceIds));
         }
 
         public void runCBALogicWithNotificationEvents(final Set<UUID> initSet, final Set<UUID> excludedSet, final Set<UUID> allInvoiceIds) throws EntityPersistenceException, InvoiceApiException {
-            runCBALogicWithNotificationEventsInternal(initSet, excludedSet, runCBALogicWithInvoiceIds(allInvoiceIds));
+            runCBALogicWithNotificationEventsInternal(initSet, excludedSet, allInvoiceIds, runCBALogicWithInvoiceIds(allInvoiceIds));
         }
 
         public void runCBALogicWithNotificationEvents(final List<InvoiceModelDao> invoices) throws EntityPersistenceException, InvoiceApiException {
@@ -1500,16 +1580,24 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
         }
 
         public void runCBALogicWithNotificationEvents(final Set<UUID> initSet, final Set<UUID> excludedSet, final List<InvoiceModelDao> invoices) throws EntityPersistenceException, InvoiceApiException {
-            runCBALogicWithNotificationEventsInternal(initSet, excludedSet, runCBALogicWithInvoices(invoices));
+            final Set<UUID> invoiceIds = invoices.stream().map(InvoiceModelDao::getId).collect(Collectors.toUnmodifiableSet());
+            runCBALogicWithNotificationEventsInternal(initSet, excludedSet, invoiceIds, runCBALogicWithInvoices(invoices));
         }
 
-        private void runCBALogicWithNotificationEventsInternal(final Set<UUID> initSet, final Set<UUID> excludedSet, final Set<UUID> resCbaInvoiceIds) {
+        private void runCBALogicWithNotificationEventsInternal(final Set<UUID> initSet, final Set<UUID> excludedSet, final Set<UUID> inputInvoiceIds, final Set<UUID> resCbaInvoiceIds) {
             final Set<UUID> candidateModifiedInvoiceIds = new HashSet<>(initSet);
             candidateModifiedInvoiceIds.addAll(resCbaInvoiceIds);
             final Set<UUID> modifiedInvoiceIds = Sets.difference(candidateModifiedInvoiceIds, excludedSet);
             for (UUID id : modifiedInvoiceIds) {
                 notifyBusOfInvoiceAdjustment(entitySqlDaoWrapperFactory, id, accountId, context.getUserToken(), context);
             }
+
+            // Excluded invoices (e.g. new ones) don't need an adjustment event, but they still need to be reflected in the ledger
+            final Set<UUID> allModifiedInvoiceIds = new HashSet<>(candidateModifiedInvoiceIds);
+            allModifiedInvoiceIds.addAll(excludedSet);
+            allModifiedInvoiceIds.addAll(inputInvoiceIds);
+            allModifiedInvoiceIds.addAll(this.modifiedInvoiceIds);
+            invoiceAccountBalanceDao.refreshFromTransaction(allModifiedInvoiceIds, createAccountBalanceIfMissing, entitySqlDaoWrapperFactory, context);
         }
 
         private Set<UUID> runCBALogicWithInvoices(final List<InvoiceModelDao> invoices) throws EntityPersistenceException, InvoiceApiException {
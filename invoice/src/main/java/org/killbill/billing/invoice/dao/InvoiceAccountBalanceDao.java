@@ -0,0 +1,294 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.invoice.dao;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+
+import org.killbill.billing.callcontext.InternalCallContext;
+import org.killbill.billing.callcontext.InternalTenantContext;
+import org.killbill.billing.catalog.api.Currency;
+import org.killbill.billing.invoice.api.InvoiceStatus;
+import org.killbill.billing.util.entity.dao.EntitySqlDaoWrapperFactory;
+import org.killbill.billing.util.tag.ControlTagType;
+import org.killbill.billing.util.tag.Tag;
+import org.skife.jdbi.v2.sqlobject.SqlObjectBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Per-account balance ledger: each COMMITTED invoice has a row with its raw balance and CBA amount, and the account row keeps the sums.
+ * <p>
+ * Rows are refreshed (for the invoices modified) within the transactions modifying the invoice tables, so reading the account balance
+ * or CBA doesn't require loading the whole invoice history. As with the CBA logic, this relies on the callers holding the account lock.
+ * <p>
+ * The ledger is built lazily (see {@link #rebuildFromTransaction(EntitySqlDaoWrapperFactory, InternalCallContext)}) and readers fall back
+ * to the computation from history when it doesn't exist yet, or when it cannot be used: the balance of a child invoice in hierarchical billing
+ * depends on the state of its parent invoice, which is tracked on the parent account.
+ */
+public class InvoiceAccountBalanceDao {
+
+    private static final Logger log = LoggerFactory.getLogger(InvoiceAccountBalanceDao.class);
+
+    private final InvoiceDaoHelper invoiceDaoHelper;
+
+    @Inject
+    public InvoiceAccountBalanceDao(final InvoiceDaoHelper invoiceDaoHelper) {
+        this.invoiceDaoHelper = invoiceDaoHelper;
+    }
+
+    // Same semantics as DefaultInvoiceDao#getAccountBalance, null if the ledger cannot be used
+    @Nullable
+    public BigDecimal getAccountBalanceFromTransaction(final List<Tag> invoicesTags, final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory, final InternalTenantContext context) {
+        final InvoiceBalanceSqlDao invoiceBalanceSqlDao = getInvoiceBalanceSqlDao(entitySqlDaoWrapperFactory);
+        final InvoiceAccountBalanceModelDao accountBalance = invoiceBalanceSqlDao.getAccountBalance(context);
+        if (!isUsable(accountBalance)) {
+            return null;
+        }
+        if (accountBalance.getNbInvoices() == 0) {
+            return BigDecimal.ZERO;
+        }
+
+        // WRITTEN_OFF invoices are excluded from the balance (but not from the CBA). Tags aren't managed by the invoice module,
+        // so they are applied here instead of being maintained in the ledger
+        BigDecimal rawBalance = accountBalance.getRawBalance();
+        final List<String> writtenOffInvoiceIds = invoicesTags.stream()
+                                                              .filter(tag -> tag.getTagDefinitionId().equals(ControlTagType.WRITTEN_OFF.getId()))
+                                                              .map(tag -> tag.getObjectId().toString())
+                                                              .distinct()
+                                                              .collect(Collectors.toUnmodifiableList());
+        if (!writtenOffInvoiceIds.isEmpty()) {
+            for (final InvoiceBalanceModelDao writtenOffInvoiceBalance : invoiceBalanceSqlDao.getInvoiceBalances(writtenOffInvoiceIds, context)) {
+                rawBalance = rawBalance.subtract(writtenOffInvoiceBalance.getRawBalance());
+            }
+        }
+        return rawBalance.subtract(accountBalance.getCba());
+    }
+
+    // Same semantics as CBADao#getAccountCBAFromTransaction, null if the ledger cannot be used
+    @Nullable
+    public BigDecimal getAccountCBAFromTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory, final InternalTenantContext context) {
+        final InvoiceAccountBalanceModelDao accountBalance = getInvoiceBalanceSqlDao(entitySqlDaoWrapperFactory).getAccountBalance(context);
+        return isUsable(accountBalance) ? accountBalance.getCba() : null;
+    }
+
+    /**
+     * Update the ledger after some invoices of the account have been modified.
+     *
+     * @param invoiceIds                 the invoices which may have been modified (invoices of other accounts are ignored)
+     * @param entitySqlDaoWrapperFactory the current transaction, which needs to see these modifications
+     * @param createIfMissing            whether to build the ledger from history if it doesn't exist yet for that account
+     * @param context                    the account context
+     */
+    public void refreshFromTransaction(final Collection<UUID> invoiceIds,
+                                       final boolean createIfMissing,
+                                       final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory,
+                                       final InternalCallContext context) {
+        final InvoiceBalanceSqlDao invoiceBalanceSqlDao = getInvoiceBalanceSqlDao(entitySqlDaoWrapperFactory);
+        final InvoiceAccountBalanceModelDao accountBalance = invoiceBalanceSqlDao.getAccountBalance(context);
+        if (accountBalance == null) {
+            if (createIfMissing) {
+                rebuildFromTransaction(invoiceBalanceSqlDao, null, entitySqlDaoWrapperFactory, context);
+            }
+            return;
+        }
+        if (invoiceIds.isEmpty()) {
+            return;
+        }
+
+        final List<String> ids = invoiceIds.stream().map(UUID::toString).distinct().collect(Collectors.toUnmodifiableList());
+        final List<InvoiceModelDao> invoices = entitySqlDaoWrapperFactory.become(InvoiceSqlDao.class).getByIds(ids, context)
+                                                                         .stream()
+                                                                         .filter(invoice -> context.getAccountRecordId().equals(invoice.getAccountRecordId()))
+                                                                         .collect(Collectors.toUnmodifiableList());
+        final Map<UUID, InvoiceBalanceModelDao> expectedInvoiceBalances = computeInvoiceBalances(invoices, entitySqlDaoWrapperFactory, context);
+        final Map<UUID, InvoiceBalanceModelDao> currentInvoiceBalances = new HashMap<>();
+        for (final InvoiceBalanceModelDao invoiceBalance : invoiceBalanceSqlDao.getInvoiceBalances(ids, context)) {
+            currentInvoiceBalances.put(invoiceBalance.getInvoiceId(), invoiceBalance);
+        }
+
+        final Collection<InvoiceBalanceModelDao> toCreate = new LinkedList<>();
+        final Collection<InvoiceBalanceModelDao> toUpdate = new LinkedList<>();
+        final Collection<String> toDelete = new LinkedList<>();
+        final InvoiceAccountBalanceModelDao delta = new InvoiceAccountBalanceModelDao(getCurrency(invoices), BigDecimal.ZERO, BigDecimal.ZERO, 0, 0);
+        for (final UUID invoiceId : invoiceIds) {
+            final InvoiceBalanceModelDao expected = expectedInvoiceBalances.remove(invoiceId);
+            final InvoiceBalanceModelDao current = currentInvoiceBalances.remove(invoiceId);
+            if (expected != null && current == null) {
+                toCreate.add(expected);
+                add(delta, expected, 1);
+            } else if (expected == null && current != null) {
+                toDelete.add(invoiceId.toString());
+                add(delta, current, -1);
+            } else if (expected != null && !expected.isSameContribution(current)) {
+                toUpdate.add(expected);
+                add(delta, expected, 1);
+                add(delta, current, -1);
+            }
+        }
+        if (toCreate.isEmpty() && toUpdate.isEmpty() && toDelete.isEmpty()) {
+            return;
+        }
+
+        if (!toCreate.isEmpty()) {
+            invoiceBalanceSqlDao.createInvoiceBalances(toCreate, context);
+        }
+        for (final InvoiceBalanceModelDao invoiceBalance : toUpdate) {
+            invoiceBalanceSqlDao.updateInvoiceBalance(invoiceBalance, context);
+        }
+        if (!toDelete.isEmpty()) {
+            invoiceBalanceSqlDao.deleteInvoiceBalances(toDelete, context);
+        }
+        invoiceBalanceSqlDao.updateAccountBalance(delta.getCurrency() == null ? null : delta.getCurrency().toString(),
+                                                  delta.getRawBalance(),
+                                                  delta.getCba(),
+                                                  delta.getNbInvoices(),
+                                                  delta.getNbChildInvoices(),
+                                                  context);
+    }
+
+    /**
+     * Recompute the ledger of the account from its invoice history.
+     *
+     * @return true if the ledger was missing or out of sync (and has been rebuilt), false otherwise
+     */
+    public boolean rebuildFromTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory, final InternalCallContext context) {
+        final InvoiceBalanceSqlDao invoiceBalanceSqlDao = getInvoiceBalanceSqlDao(entitySqlDaoWrapperFactory);
+        return rebuildFromTransaction(invoiceBalanceSqlDao, invoiceBalanceSqlDao.getAccountBalance(context), entitySqlDaoWrapperFactory, context);
+    }
+
+    private boolean rebuildFromTransaction(final InvoiceBalanceSqlDao invoiceBalanceSqlDao,
+                                           @Nullable final InvoiceAccountBalanceModelDao currentAccountBalance,
+                                           final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory,
+                                           final InternalCallContext context) {
+        final List<InvoiceModelDao> invoices = entitySqlDaoWrapperFactory.become(InvoiceSqlDao.class).getByAccountRecordId(context);
+        final Map<UUID, InvoiceBalanceModelDao> expectedInvoiceBalances = computeInvoiceBalances(invoices, entitySqlDaoWrapperFactory, context);
+        final InvoiceAccountBalanceModelDao expectedAccountBalance = new InvoiceAccountBalanceModelDao(getCurrency(invoices), BigDecimal.ZERO, BigDecimal.ZERO, 0, 0);
+        for (final InvoiceBalanceModelDao invoiceBalance : expectedInvoiceBalances.values()) {
+            add(expectedAccountBalance, invoiceBalance, 1);
+        }
+
+        if (currentAccountBalance != null) {
+            if (isInSync(invoiceBalanceSqlDao, currentAccountBalance, expectedAccountBalance, expectedInvoiceBalances, context)) {
+                return false;
+            }
+            log.warn("Account balance ledger out of sync for accountRecordId='{}': ledger='{}', expected='{}'", context.getAccountRecordId(), currentAccountBalance, expectedAccountBalance);
+            invoiceBalanceSqlDao.deleteAccountBalance(context);
+        }
+        // Also cleans up rows left behind by a partially deleted ledger
+        invoiceBalanceSqlDao.deleteAllInvoiceBalances(context);
+
+        if (!expectedInvoiceBalances.isEmpty()) {
+            invoiceBalanceSqlDao.createInvoiceBalances(expectedInvoiceBalances.values(), context);
+        }
+        invoiceBalanceSqlDao.createAccountBalance(expectedAccountBalance.getCurrency() == null ? null : expectedAccountBalance.getCurrency().toString(),
+                                                  expectedAccountBalance.getRawBalance(),
+                                                  expectedAccountBalance.getCba(),
+                                                  expectedAccountBalance.getNbInvoices(),
+                                                  expectedAccountBalance.getNbChildInvoices(),
+                                                  context);
+        return true;
+    }
+
+    private boolean isInSync(final InvoiceBalanceSqlDao invoiceBalanceSqlDao,
+                             final InvoiceAccountBalanceModelDao currentAccountBalance,
+                             final InvoiceAccountBalanceModelDao expectedAccountBalance,
+                             final Map<UUID, InvoiceBalanceModelDao> expectedInvoiceBalances,
+                             final InternalTenantContext context) {
+        if (!currentAccountBalance.isSameBalance(expectedAccountBalance) ||
+            (expectedAccountBalance.getNbInvoices() > 0 && currentAccountBalance.getCurrency() != expectedAccountBalance.getCurrency())) {
+            return false;
+        }
+
+        final List<InvoiceBalanceModelDao> currentInvoiceBalances = invoiceBalanceSqlDao.getAllInvoiceBalances(context);
+        if (currentInvoiceBalances.size() != expectedInvoiceBalances.size()) {
+            return false;
+        }
+        for (final InvoiceBalanceModelDao currentInvoiceBalance : currentInvoiceBalances) {
+            final InvoiceBalanceModelDao expectedInvoiceBalance = expectedInvoiceBalances.get(currentInvoiceBalance.getInvoiceId());
+            if (expectedInvoiceBalance == null || !expectedInvoiceBalance.isSameContribution(currentInvoiceBalance)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Contributions of the COMMITTED invoices (see DefaultInvoiceDao#getAccountBalance)
+    private Map<UUID, InvoiceBalanceModelDao> computeInvoiceBalances(final Collection<InvoiceModelDao> invoices,
+                                                                     final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory,
+                                                                     final InternalTenantContext context) {
+        final List<InvoiceModelDao> committedInvoices = new ArrayList<>();
+        for (final InvoiceModelDao invoice : invoices) {
+            if (invoice.getStatus() == InvoiceStatus.COMMITTED) {
+                committedInvoices.add(invoice);
+            }
+        }
+        // WRITTEN_OFF is applied at read time, so we don't need the tags
+        invoiceDaoHelper.populateChildren(committedInvoices, Collections.emptyList(), false, entitySqlDaoWrapperFactory, context);
+
+        final Map<UUID, InvoiceBalanceModelDao> invoiceBalances = new HashMap<>();
+        for (final InvoiceModelDao invoice : committedInvoices) {
+            invoiceBalances.put(invoice.getId(), new InvoiceBalanceModelDao(invoice.getId(),
+                                                                            InvoiceModelDaoHelper.getRawBalanceForRegularInvoice(invoice),
+                                                                            InvoiceModelDaoHelper.getCBAAmount(invoice),
+                                                                            invoice.getParentInvoice() != null));
+        }
+        return invoiceBalances;
+    }
+
+    private static void add(final InvoiceAccountBalanceModelDao accountBalance, final InvoiceBalanceModelDao invoiceBalance, final int sign) {
+        final BigDecimal multiplier = BigDecimal.valueOf(sign);
+        accountBalance.setRawBalance(accountBalance.getRawBalance().add(invoiceBalance.getRawBalance().multiply(multiplier)));
+        accountBalance.setCba(accountBalance.getCba().add(invoiceBalance.getCba().multiply(multiplier)));
+        accountBalance.setNbInvoices(accountBalance.getNbInvoices() + sign);
+        if (invoiceBalance.isChildInvoice()) {
+            accountBalance.setNbChildInvoices(accountBalance.getNbChildInvoices() + sign);
+        }
+    }
+
+    @Nullable
+    private static Currency getCurrency(final Iterable<InvoiceModelDao> invoices) {
+        for (final InvoiceModelDao invoice : invoices) {
+            if (invoice.getCurrency() != null) {
+                return invoice.getCurrency();
+            }
+        }
+        return null;
+    }
+
+    private static boolean isUsable(@Nullable final InvoiceAccountBalanceModelDao accountBalance) {
+        return accountBalance != null &&
+               accountBalance.getNbChildInvoices() == 0 &&
+               (accountBalance.getNbInvoices() == 0 || accountBalance.getCurrency() != null);
+    }
+
+    private static InvoiceBalanceSqlDao getInvoiceBalanceSqlDao(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory) {
+        return SqlObjectBuilder.attach(entitySqlDaoWrapperFactory.getHandle(), InvoiceBalanceSqlDao.class);
+    }
+}
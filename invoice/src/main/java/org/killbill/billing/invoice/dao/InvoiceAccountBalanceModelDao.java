@@ -0,0 +1,127 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.invoice.dao;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+import org.killbill.billing.catalog.api.Currency;
+
+/**
+ * Sum of the {@link InvoiceBalanceModelDao} contributions of all (COMMITTED) invoices of an account.
+ */
+public class InvoiceAccountBalanceModelDao {
+
+    private Currency currency;
+    private BigDecimal rawBalance;
+    private BigDecimal cba;
+    private int nbInvoices;
+    private int nbChildInvoices;
+
+    public InvoiceAccountBalanceModelDao() { /* For the DAO mapper */ }
+
+    public InvoiceAccountBalanceModelDao(final Currency currency, final BigDecimal rawBalance, final BigDecimal cba, final int nbInvoices, final int nbChildInvoices) {
+        this.currency = currency;
+        this.rawBalance = rawBalance;
+        this.cba = cba;
+        this.nbInvoices = nbInvoices;
+        this.nbChildInvoices = nbChildInvoices;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(final Currency currency) {
+        this.currency = currency;
+    }
+
+    public BigDecimal getRawBalance() {
+        return rawBalance;
+    }
+
+    public void setRawBalance(final BigDecimal rawBalance) {
+        this.rawBalance = rawBalance;
+    }
+
+    public BigDecimal getCba() {
+        return cba;
+    }
+
+    public void setCba(final BigDecimal cba) {
+        this.cba = cba;
+    }
+
+    public int getNbInvoices() {
+        return nbInvoices;
+    }
+
+    public void setNbInvoices(final int nbInvoices) {
+        this.nbInvoices = nbInvoices;
+    }
+
+    public int getNbChildInvoices() {
+        return nbChildInvoices;
+    }
+
+    public void setNbChildInvoices(final int nbChildInvoices) {
+        this.nbChildInvoices = nbChildInvoices;
+    }
+
+    // BigDecimal#compareTo as the database may not return the same scale
+    public boolean isSameBalance(final InvoiceAccountBalanceModelDao that) {
+        return rawBalance.compareTo(that.rawBalance) == 0 &&
+               cba.compareTo(that.cba) == 0 &&
+               nbInvoices == that.nbInvoices &&
+               nbChildInvoices == that.nbChildInvoices;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("InvoiceAccountBalanceModelDao");
+        sb.append("{currency=").append(currency);
+        sb.append(", rawBalance=").append(rawBalance);
+        sb.append(", cba=").append(cba);
+        sb.append(", nbInvoices=").append(nbInvoices);
+        sb.append(", nbChildInvoices=").append(nbChildInvoices);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final InvoiceAccountBalanceModelDao that = (InvoiceAccountBalanceModelDao) o;
+        return nbInvoices == that.nbInvoices &&
+               nbChildInvoices == that.nbChildInvoices &&
+               currency == that.currency &&
+               Objects.equals(rawBalance, that.rawBalance) &&
+               Objects.equals(cba, that.cba);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(currency, rawBalance, cba, nbInvoices, nbChildInvoices);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.invoice.dao;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Contribution of a single invoice to the account balance ledger (see {@link InvoiceAccountBalanceDao}).
+ * Only COMMITTED invoices have a row; the raw balance ignores the WRITTEN_OFF tag, which is applied at read time.
+ */
+public class InvoiceBalanceModelDao {
+
+    private UUID invoiceId;
+    private BigDecimal rawBalance;
+    private BigDecimal cba;
+    private boolean childInvoice;
+
+    public InvoiceBalanceModelDao() { /* For the DAO mapper */ }
+
+    public InvoiceBalanceModelDao(final UUID invoiceId, final BigDecimal rawBalance, final BigDecimal cba, final boolean childInvoice) {
+        this.invoiceId = invoiceId;
+        this.rawBalance = rawBalance;
+        this.cba = cba;
+        this.childInvoice = childInvoice;
+    }
+
+    public UUID getInvoiceId() {
+        return invoiceId;
+    }
+
+    public void setInvoiceId(final UUID invoiceId) {
+        this.invoiceId = invoiceId;
+    }
+
+    public BigDecimal getRawBalance() {
+        return rawBalance;
+    }
+
+    public void setRawBalance(final BigDecimal rawBalance) {
+        this.rawBalance = rawBalance;
+    }
+
+    public BigDecimal getCba() {
+        return cba;
+    }
+
+    public void setCba(final BigDecimal cba) {
+        this.cba = cba;
+    }
+
+    public boolean isChildInvoice() {
+        return childInvoice;
+    }
+
+    public void setChildInvoice(final boolean childInvoice) {
+        this.childInvoice = childInvoice;
+    }
+
+    // BigDecimal#compareTo as the database may not return the same scale
+    public boolean isSameContribution(final InvoiceBalanceModelDao that) {
+        return rawBalance.compareTo(that.rawBalance) == 0 &&
+               cba.compareTo(that.cba) == 0 &&
+               childInvoice == that.childInvoice;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("InvoiceBalanceModelDao");
+        sb.append("{invoiceId=").append(invoiceId);
+        sb.append(", rawBalance=").append(rawBalance);
+        sb.append(", cba=").append(cba);
+        sb.append(", childInvoice=").append(childInvoice);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final InvoiceBalanceModelDao that = (InvoiceBalanceModelDao) o;
+        return childInvoice == that.childInvoice &&
+               Objects.equals(invoiceId, that.invoiceId) &&
+               Objects.equals(rawBalance, that.rawBalance) &&
+               Objects.equals(cba, that.cba);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(invoiceId, rawBalance, cba, childInvoice);
+    }
+}
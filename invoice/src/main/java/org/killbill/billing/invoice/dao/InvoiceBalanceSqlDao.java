@@ -0,0 +1,125 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.invoice.dao;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+
+import org.killbill.billing.callcontext.InternalCallContext;
+import org.killbill.billing.callcontext.InternalTenantContext;
+import org.killbill.billing.catalog.api.Currency;
+import org.killbill.billing.util.dao.MapperBase;
+import org.killbill.commons.jdbi.binder.SmartBindBean;
+import org.killbill.commons.jdbi.template.KillBillSqlDaoStringTemplate;
+import org.skife.jdbi.v2.StatementContext;
+import org.skife.jdbi.v2.sqlobject.Bind;
+import org.skife.jdbi.v2.sqlobject.SqlBatch;
+import org.skife.jdbi.v2.sqlobject.SqlQuery;
+import org.skife.jdbi.v2.sqlobject.SqlUpdate;
+import org.skife.jdbi.v2.sqlobject.customizers.BatchChunkSize;
+import org.skife.jdbi.v2.sqlobject.customizers.Mapper;
+import org.skife.jdbi.v2.sqlobject.mixins.CloseMe;
+import org.skife.jdbi.v2.sqlobject.mixins.Transactional;
+import org.skife.jdbi.v2.tweak.ResultSetMapper;
+import org.skife.jdbi.v2.unstable.BindIn;
+
+/**
+ * Account balance ledger tables. These are derived data (they can always be rebuilt from the invoice tables),
+ * so this is not an EntitySqlDao: rows are neither audited nor cached.
+ * <p>
+ * As a consequence, IDBISetup doesn't register mappers for these models: queries specify theirs (registering mappers on a Query or Handle is disabled).
+ */
+@KillBillSqlDaoStringTemplate
+public interface InvoiceBalanceSqlDao extends Transactional<InvoiceBalanceSqlDao>, CloseMe {
+
+    @SqlQuery
+    @Mapper(InvoiceAccountBalanceModelDaoMapper.class)
+    InvoiceAccountBalanceModelDao getAccountBalance(@SmartBindBean final InternalTenantContext context);
+
+    @SqlUpdate
+    void createAccountBalance(@Bind("currency") final String currency,
+                              @Bind("rawBalance") final BigDecimal rawBalance,
+                              @Bind("cba") final BigDecimal cba,
+                              @Bind("nbInvoices") final int nbInvoices,
+                              @Bind("nbChildInvoices") final int nbChildInvoices,
+                              @SmartBindBean final InternalCallContext context);
+
+    // Deltas, so concurrent updates of different invoices on the same account can't lose each other's changes
+    @SqlUpdate
+    void updateAccountBalance(@Bind("currency") final String currency,
+                              @Bind("rawBalance") final BigDecimal rawBalanceDelta,
+                              @Bind("cba") final BigDecimal cbaDelta,
+                              @Bind("nbInvoices") final int nbInvoicesDelta,
+                              @Bind("nbChildInvoices") final int nbChildInvoicesDelta,
+                              @SmartBindBean final InternalCallContext context);
+
+    @SqlUpdate
+    void deleteAccountBalance(@SmartBindBean final InternalTenantContext context);
+
+    @SqlQuery
+    @Mapper(InvoiceBalanceModelDaoMapper.class)
+    List<InvoiceBalanceModelDao> getInvoiceBalances(@BindIn("invoiceIds") final Collection<String> invoiceIds,
+                                                    @SmartBindBean final InternalTenantContext context);
+
+    @SqlQuery
+    @Mapper(InvoiceBalanceModelDaoMapper.class)
+    List<InvoiceBalanceModelDao> getAllInvoiceBalances(@SmartBindBean final InternalTenantContext context);
+
+    @SqlBatch
+    @BatchChunkSize(1000)
+    void createInvoiceBalances(@SmartBindBean final Iterable<InvoiceBalanceModelDao> invoiceBalances,
+                               @SmartBindBean final InternalCallContext context);
+
+    @SqlUpdate
+    void updateInvoiceBalance(@SmartBindBean final InvoiceBalanceModelDao invoiceBalance,
+                              @SmartBindBean final InternalCallContext context);
+
+    @SqlUpdate
+    void deleteInvoiceBalances(@BindIn("invoiceIds") final Collection<String> invoiceIds,
+                               @SmartBindBean final InternalTenantContext context);
+
+    @SqlUpdate
+    void deleteAllInvoiceBalances(@SmartBindBean final InternalTenantContext context);
+
+    class InvoiceAccountBalanceModelDaoMapper extends MapperBase implements ResultSetMapper<InvoiceAccountBalanceModelDao> {
+
+        @Override
+        public InvoiceAccountBalanceModelDao map(final int index, final ResultSet r, final StatementContext ctx) throws SQLException {
+            final String currency = r.getString("currency");
+            return new InvoiceAccountBalanceModelDao(currency == null ? null : Currency.valueOf(currency),
+                                                     r.getBigDecimal("raw_balance"),
+                                                     r.getBigDecimal("cba"),
+                                                     r.getInt("nb_invoices"),
+                                                     r.getInt("nb_child_invoices"));
+        }
+    }
+
+    class InvoiceBalanceModelDaoMapper extends MapperBase implements ResultSetMapper<InvoiceBalanceModelDao> {
+
+        @Override
+        public InvoiceBalanceModelDao map(final int index, final ResultSet r, final StatementContext ctx) throws SQLException {
+            return new InvoiceBalanceModelDao(getUUID(r, "invoice_id"),
+                                              r.getBigDecimal("raw_balance"),
+                                              r.getBigDecimal("cba"),
+                                              r.getBoolean("child_invoice"));
+        }
+    }
+}
@@ -75,6 +75,9 @@ public interface InvoiceDao extends EntityDao<InvoiceModelDao, Invoice, InvoiceA
 
     Pagination<InvoiceModelDao> searchInvoices(String searchKey, Long offset, Long limit, InternalTenantContext context);
 
+    // Keyset (seek) pagination, see DefaultPaginationSqlDaoHelper#getPaginationWithCursor
+    Pagination<InvoiceModelDao> searchInvoices(String searchKey, @Nullable Long cursor, Long offset, Long limit, InternalTenantContext context);
+
     UUID getInvoiceIdByPaymentId(UUID paymentId, InternalTenantContext context);
 
     List<InvoicePaymentModelDao> getInvoicePaymentsByPaymentId(UUID paymentId, InternalTenantContext context);
@@ -91,6 +94,14 @@ public interface InvoiceDao extends EntityDao<InvoiceModelDao, Invoice, InvoiceA
 
     BigDecimal getAccountCBA(UUID accountId, InternalTenantContext context);
 
+    /**
+     * Rebuild the account balance ledger from the invoice history.
+     *
+     * @param context the account context
+     * @return true if the ledger was missing or out of sync
+     */
+    boolean rebuildAccountBalance(InternalCallContext context);
+
     List<InvoiceModelDao> getUnpaidInvoicesByAccountId(UUID accountId, @Nullable LocalDate startDate, @Nullable LocalDate upToDate, InternalTenantContext context);
 
     // Include migrated invoices
@@ -75,6 +75,16 @@ public interface InvoiceSqlDao extends EntitySqlDao<InvoiceModelDao, Invoice> {
                                                          @Define("ordering") final String ordering,
                                                          @SmartBindBean final InternalTenantContext context);
 
+    @SqlQuery
+    @SmartFetchSize(shouldStream = true)
+    Iterator<InvoiceModelDao> searchByAccountOrInvoiceIdFromCursor(@Bind("searchKey") final String searchKey,
+                                                                   @Bind("cursor") final Long cursor,
+                                                                   @Bind("offset") final Long offset,
+                                                                   @Bind("rowCount") final Long rowCount,
+                                                                   @Define("ordering") final String ordering,
+                                                                   @Define("cursorComparator") final String cursorComparator,
+                                                                   @SmartBindBean final InternalTenantContext context);
+
     @SqlQuery
     Long getSearchByAccountOrInvoiceIdCount(@Bind("searchKey") final String searchKey,
                                             @SmartBindBean final InternalTenantContext context);
@@ -87,6 +97,16 @@ public interface InvoiceSqlDao extends EntitySqlDao<InvoiceModelDao, Invoice> {
                                                @Define("ordering") final String ordering,
                                                @SmartBindBean final InternalTenantContext context);
 
+    @SqlQuery
+    @SmartFetchSize(shouldStream = true)
+    Iterator<InvoiceModelDao> searchByCurrencyFromCursor(@Bind("searchKey") final String searchKey,
+                                                         @Bind("cursor") final Long cursor,
+                                                         @Bind("offset") final Long offset,
+                                                         @Bind("rowCount") final Long rowCount,
+                                                         @Define("ordering") final String ordering,
+                                                         @Define("cursorComparator") final String cursorComparator,
+                                                         @SmartBindBean final InternalTenantContext context);
+
     @SqlQuery
     Long getSearchByCurrencyCount(@Bind("searchKey") final String searchKey,
                                   @SmartBindBean final InternalTenantContext context);
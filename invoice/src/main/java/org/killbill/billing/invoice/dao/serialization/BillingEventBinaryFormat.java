@@ -0,0 +1,341 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.invoice.dao.serialization;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.killbill.billing.catalog.api.BillingAlignment;
+import org.killbill.billing.catalog.api.BillingPeriod;
+import org.killbill.billing.invoice.dao.serialization.BillingEventSetJson.BillingEventJson;
+import org.killbill.billing.invoice.dao.serialization.BillingEventSetJson.SubscriptionBillingEventJson;
+import org.killbill.billing.subscription.api.SubscriptionBaseTransitionType;
+
+/**
+ * Compact binary encoding of a {@link BillingEventSetJson}.
+ * <p>
+ * Layout (version 1), all integers being (zigzag for signed values) varints:
+ * <pre>
+ * header          : MAGIC, version, flags (account AUTO_INVOICING_OFF, draft, reuse draft)
+ * dictionary      : nbEntries, (length, UTF-8 bytes)*  -- plan, phase and enum names
+ * subscriptions   : nbSubscriptions, (subscriptionId (16 bytes), blockLength, block)*
+ * block           : autoInvoiceOff, nbEvents, event*
+ * event           : presence bits, bcdLocal, alignment, planName, phaseName, billingPeriod, transitionType (dictionary index + 1, 0 for null),
+ *                   effDate and catalogEffDt (delta with the previous event of the subscription, in millis),
+ *                   fixedPrice and recurringPrice (scale, unscaled value bytes)
+ * </pre>
+ * Subscription blocks are length-prefixed, so a single subscription can be decoded without decoding the others.
+ */
+public abstract class BillingEventBinaryFormat {
+
+    // Not a valid start of a Snappy block (non minimal varint), so both formats can be told apart
+    private static final byte[] MAGIC = {(byte) 0xFF, (byte) 0x00, 'K', 'B'};
+    private static final int VERSION = 1;
+
+    private static final int FLAG_AUTO_INVOICE_OFF = 1;
+    private static final int FLAG_AUTO_INVOICE_DRAFT = 2;
+    private static final int FLAG_AUTO_INVOICE_REUSE_DRAFT = 4;
+
+    private static final int HAS_EFF_DATE = 1;
+    private static final int HAS_FIXED_PRICE = 2;
+    private static final int HAS_RECURRING_PRICE = 4;
+    private static final int HAS_CATALOG_EFF_DT = 8;
+
+    public static boolean isBinaryFormat(final byte[] data) {
+        if (data.length < MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (data[i] != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static byte[] serialize(final BillingEventSetJson eventSet) throws IOException {
+        final Map<String, Integer> dictionary = new LinkedHashMap<>();
+        for (final SubscriptionBillingEventJson subscription : eventSet.getSubscriptionEvents()) {
+            for (final BillingEventJson event : subscription.getEvents()) {
+                addToDictionary(dictionary, event.getAlignment() != null ? event.getAlignment().name() : null);
+                addToDictionary(dictionary, event.getPlanName());
+                addToDictionary(dictionary, event.getPhaseName());
+                addToDictionary(dictionary, event.getBillingPeriod() != null ? event.getBillingPeriod().name() : null);
+                addToDictionary(dictionary, event.getTransitionType() != null ? event.getTransitionType().name() : null);
+            }
+        }
+
+        final Output output = new Output();
+        output.write(MAGIC, 0, MAGIC.length);
+        output.writeVarInt(VERSION);
+        output.writeVarInt((eventSet.isAutoInvoiceOff() ? FLAG_AUTO_INVOICE_OFF : 0) |
+                           (eventSet.isAutoInvoiceDraft() ? FLAG_AUTO_INVOICE_DRAFT : 0) |
+                           (eventSet.isAutoInvoiceReuseDraft() ? FLAG_AUTO_INVOICE_REUSE_DRAFT : 0));
+
+        output.writeVarInt(dictionary.size());
+        for (final String entry : dictionary.keySet()) {
+            output.writeByteArray(entry.getBytes(StandardCharsets.UTF_8));
+        }
+
+        output.writeVarInt(eventSet.getSubscriptionEvents().size());
+        final Output block = new Output();
+        for (final SubscriptionBillingEventJson subscription : eventSet.getSubscriptionEvents()) {
+            block.reset();
+            block.writeVarInt(subscription.isAutoInvoiceOff() ? 1 : 0);
+            block.writeVarInt(subscription.getEvents().size());
+            long previousEffDate = 0;
+            long previousCatalogEffDt = 0;
+            for (final BillingEventJson event : subscription.getEvents()) {
+                block.writeVarInt((event.getEffDate() != null ? HAS_EFF_DATE : 0) |
+                                  (event.getFixedPrice() != null ? HAS_FIXED_PRICE : 0) |
+                                  (event.getRecurringPrice() != null ? HAS_RECURRING_PRICE : 0) |
+                                  (event.getCatalogEffDt() != null ? HAS_CATALOG_EFF_DT : 0));
+                block.writeSignedVarLong(event.getBcdLocal());
+                block.writeVarInt(dictionaryIndex(dictionary, event.getAlignment() != null ? event.getAlignment().name() : null));
+                block.writeVarInt(dictionaryIndex(dictionary, event.getPlanName()));
+                block.writeVarInt(dictionaryIndex(dictionary, event.getPhaseName()));
+                block.writeVarInt(dictionaryIndex(dictionary, event.getBillingPeriod() != null ? event.getBillingPeriod().name() : null));
+                block.writeVarInt(dictionaryIndex(dictionary, event.getTransitionType() != null ? event.getTransitionType().name() : null));
+                if (event.getEffDate() != null) {
+                    block.writeSignedVarLong(event.getEffDate().getMillis() - previousEffDate);
+                    previousEffDate = event.getEffDate().getMillis();
+                }
+                if (event.getCatalogEffDt() != null) {
+                    block.writeSignedVarLong(event.getCatalogEffDt().getMillis() - previousCatalogEffDt);
+                    previousCatalogEffDt = event.getCatalogEffDt().getMillis();
+                }
+                if (event.getFixedPrice() != null) {
+                    block.writeBigDecimal(event.getFixedPrice());
+                }
+                if (event.getRecurringPrice() != null) {
+                    block.writeBigDecimal(event.getRecurringPrice());
+                }
+            }
+
+            output.writeUUID(subscription.getSubscriptionId());
+            output.writeVarInt(block.size());
+            block.writeTo(output);
+        }
+
+        return output.toByteArray();
+    }
+
+    public static BillingEventSetJson deserialize(final byte[] data) {
+        final Reader reader = new Reader(data);
+        final int flags = reader.flags;
+        final int nbSubscriptions = reader.readVarInt();
+        final List<SubscriptionBillingEventJson> subscriptions = new ArrayList<>(nbSubscriptions);
+        for (int i = 0; i < nbSubscriptions; i++) {
+            final UUID subscriptionId = reader.readUUID();
+            reader.readVarInt(); // block length
+            subscriptions.add(reader.readSubscription(subscriptionId));
+        }
+        return new BillingEventSetJson((flags & FLAG_AUTO_INVOICE_OFF) != 0,
+                                       (flags & FLAG_AUTO_INVOICE_DRAFT) != 0,
+                                       (flags & FLAG_AUTO_INVOICE_REUSE_DRAFT) != 0,
+                                       subscriptions);
+    }
+
+    /**
+     * @return the events of that subscription (the events of the other subscriptions are skipped), null if the subscription isn't part of the set
+     */
+    @Nullable
+    public static SubscriptionBillingEventJson readSubscription(final byte[] data, final UUID subscriptionId) {
+        final Reader reader = new Reader(data);
+        final int nbSubscriptions = reader.readVarInt();
+        for (int i = 0; i < nbSubscriptions; i++) {
+            final UUID curSubscriptionId = reader.readUUID();
+            final int blockLength = reader.readVarInt();
+            if (curSubscriptionId.equals(subscriptionId)) {
+                return reader.readSubscription(curSubscriptionId);
+            }
+            reader.skip(blockLength);
+        }
+        return null;
+    }
+
+    private static void addToDictionary(final Map<String, Integer> dictionary, @Nullable final String value) {
+        if (value != null) {
+            dictionary.putIfAbsent(value, dictionary.size());
+        }
+    }
+
+    private static int dictionaryIndex(final Map<String, Integer> dictionary, @Nullable final String value) {
+        return value == null ? 0 : dictionary.get(value) + 1;
+    }
+
+    private static final class Output extends ByteArrayOutputStream {
+
+        private void writeVarInt(final int value) {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        private void writeSignedVarLong(final long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        private void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        private void writeByteArray(final byte[] value) {
+            writeVarInt(value.length);
+            write(value, 0, value.length);
+        }
+
+        private void writeUUID(final UUID value) {
+            final ByteBuffer buffer = ByteBuffer.allocate(16);
+            buffer.putLong(value.getMostSignificantBits());
+            buffer.putLong(value.getLeastSignificantBits());
+            write(buffer.array(), 0, 16);
+        }
+
+        private void writeBigDecimal(final BigDecimal value) {
+            writeSignedVarLong(value.scale());
+            writeByteArray(value.unscaledValue().toByteArray());
+        }
+    }
+
+    private static final class Reader {
+
+        private final ByteBuffer buffer;
+        private final int flags;
+        private final String[] dictionary;
+
+        private Reader(final byte[] data) {
+            if (!isBinaryFormat(data)) {
+                throw new IllegalArgumentException("Not a binary billing event set");
+            }
+            this.buffer = ByteBuffer.wrap(data);
+            buffer.position(MAGIC.length);
+
+            final int version = readVarInt();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported binary billing event set version " + version);
+            }
+            this.flags = readVarInt();
+            this.dictionary = new String[readVarInt()];
+            for (int i = 0; i < dictionary.length; i++) {
+                dictionary[i] = new String(readByteArray(), StandardCharsets.UTF_8);
+            }
+        }
+
+        private SubscriptionBillingEventJson readSubscription(final UUID subscriptionId) {
+            final boolean autoInvoiceOff = readVarInt() == 1;
+            final int nbEvents = readVarInt();
+            final List<BillingEventJson> events = new ArrayList<>(nbEvents);
+            long previousEffDate = 0;
+            long previousCatalogEffDt = 0;
+            for (int i = 0; i < nbEvents; i++) {
+                final int presence = readVarInt();
+                final int bcdLocal = (int) readSignedVarLong();
+                final String alignment = readDictionaryEntry();
+                final String planName = readDictionaryEntry();
+                final String phaseName = readDictionaryEntry();
+                final String billingPeriod = readDictionaryEntry();
+                final String transitionType = readDictionaryEntry();
+                DateTime effDate = null;
+                if ((presence & HAS_EFF_DATE) != 0) {
+                    previousEffDate += readSignedVarLong();
+                    effDate = new DateTime(previousEffDate, DateTimeZone.UTC);
+                }
+                DateTime catalogEffDt = null;
+                if ((presence & HAS_CATALOG_EFF_DT) != 0) {
+                    previousCatalogEffDt += readSignedVarLong();
+                    catalogEffDt = new DateTime(previousCatalogEffDt, DateTimeZone.UTC);
+                }
+                final BigDecimal fixedPrice = (presence & HAS_FIXED_PRICE) != 0 ? readBigDecimal() : null;
+                final BigDecimal recurringPrice = (presence & HAS_RECURRING_PRICE) != 0 ? readBigDecimal() : null;
+
+                events.add(new BillingEventJson(bcdLocal,
+                                                alignment != null ? BillingAlignment.valueOf(alignment) : null,
+                                                planName,
+                                                phaseName,
+                                                billingPeriod != null ? BillingPeriod.valueOf(billingPeriod) : null,
+                                                effDate,
+                                                fixedPrice,
+                                                recurringPrice,
+                                                transitionType != null ? SubscriptionBaseTransitionType.valueOf(transitionType) : null,
+                                                catalogEffDt));
+            }
+            return new SubscriptionBillingEventJson(autoInvoiceOff, subscriptionId, events);
+        }
+
+        private String readDictionaryEntry() {
+            final int index = readVarInt();
+            return index == 0 ? null : dictionary[index - 1];
+        }
+
+        private int readVarInt() {
+            return (int) readVarLong();
+        }
+
+        private long readSignedVarLong() {
+            final long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get();
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+
+        private byte[] readByteArray() {
+            final byte[] value = new byte[readVarInt()];
+            buffer.get(value);
+            return value;
+        }
+
+        private UUID readUUID() {
+            return new UUID(buffer.getLong(), buffer.getLong());
+        }
+
+        private BigDecimal readBigDecimal() {
+            final int scale = (int) readSignedVarLong();
+            return new BigDecimal(new BigInteger(readByteArray()), scale);
+        }
+
+        private void skip(final int length) {
+            buffer.position(buffer.position() + length);
+        }
+    }
+}
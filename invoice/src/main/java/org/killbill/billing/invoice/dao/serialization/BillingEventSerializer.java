@@ -18,7 +18,11 @@
 package org.killbill.billing.invoice.dao.serialization;
 
 import java.io.IOException;
+import java.util.UUID;
 
+import javax.annotation.Nullable;
+
+import org.killbill.billing.invoice.dao.serialization.BillingEventSetJson.SubscriptionBillingEventJson;
 import org.killbill.billing.junction.BillingEventSet;
 import org.xerial.snappy.Snappy;
 
@@ -40,9 +44,38 @@ public class BillingEventSerializer {
     }
 
     public static byte[] serialize(final BillingEventSet eventSet) throws IOException {
+        return serialize(eventSet, false);
+    }
 
+    public static byte[] serialize(final BillingEventSet eventSet, final boolean binaryFormat) throws IOException {
         final BillingEventSetJson json = new BillingEventSetJson(eventSet);
+        return binaryFormat ? BillingEventBinaryFormat.serialize(json) : serializeJson(json);
+    }
+
+    static byte[] serializeJson(final BillingEventSetJson json) throws IOException {
         final byte[] data = mapper.writeValueAsBytes(json);
         return Snappy.compress(data);
     }
+
+    // Supports both formats
+    public static BillingEventSetJson deserialize(final byte[] data) throws IOException {
+        if (BillingEventBinaryFormat.isBinaryFormat(data)) {
+            return BillingEventBinaryFormat.deserialize(data);
+        }
+        return mapper.readValue(Snappy.uncompress(data), BillingEventSetJson.class);
+    }
+
+    // Only the binary format can be read without decoding the events of the other subscriptions
+    @Nullable
+    public static SubscriptionBillingEventJson deserializeSubscription(final byte[] data, final UUID subscriptionId) throws IOException {
+        if (BillingEventBinaryFormat.isBinaryFormat(data)) {
+            return BillingEventBinaryFormat.readSubscription(data, subscriptionId);
+        }
+        for (final SubscriptionBillingEventJson subscription : deserialize(data).getSubscriptionEvents()) {
+            if (subscription.getSubscriptionId().equals(subscriptionId)) {
+                return subscription;
+            }
+        }
+        return null;
+    }
 }
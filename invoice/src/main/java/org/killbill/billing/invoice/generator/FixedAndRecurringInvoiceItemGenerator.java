@@ -28,6 +28,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
 
 import javax.annotation.Nullable;
 import javax.inject.Inject;
@@ -78,11 +79,16 @@ public class FixedAndRecurringInvoiceItemGenerator extends InvoiceItemGenerator
 
     private static final Logger log = LoggerFactory.getLogger(FixedAndRecurringInvoiceItemGenerator.class);
 
+    private static final String TREE_THREAD_NAME = "invoice-tree";
+
     private final InvoiceConfig config;
+    // Null when the subscription trees are always built and merged sequentially
+    private final ExecutorService treeExecutorService;
 
     @Inject
     public FixedAndRecurringInvoiceItemGenerator(final InvoiceConfig config, final Clock clock) {
         this.config = config;
+        this.treeExecutorService = createSubscriptionExecutorService(config.getInvoiceTreeThreadNb(), TREE_THREAD_NAME);
     }
 
     public InvoiceGeneratorResult generateItems(final ImmutableAccountData account, final UUID invoiceId, final BillingEventSet eventSet,
@@ -95,7 +101,7 @@ public class FixedAndRecurringInvoiceItemGenerator extends InvoiceItemGenerator
 
         final InvoicePruner invoicePruner = new InvoicePruner(existingInvoices);
         final Set<UUID> toBeIgnored = invoicePruner.getFullyRepairedItemsClosure();
-        final AccountItemTree accountItemTree = new AccountItemTree(account.getId(), invoiceId, config.getProrationFixedDays(internalCallContext));
+        final AccountItemTree accountItemTree = new AccountItemTree(account.getId(), invoiceId, config.getProrationFixedDays(internalCallContext), treeExecutorService, config.getInvoiceTreeParallelMinSubscriptions(), config.isInvoiceTreeFlat());
         for (final Invoice invoice : existingInvoices.getInvoices()) {
             for (final InvoiceItem item : invoice.getInvoiceItems()) {
                 if (toBeIgnored.contains(item.getId())) {
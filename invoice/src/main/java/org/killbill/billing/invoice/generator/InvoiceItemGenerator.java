@@ -22,6 +22,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
 
 import org.joda.time.LocalDate;
 import org.killbill.billing.account.api.ImmutableAccountData;
@@ -35,6 +40,7 @@ import org.killbill.billing.invoice.generator.InvoiceWithMetadata.TrackingRecord
 import org.killbill.billing.invoice.optimizer.InvoiceOptimizerBase.AccountInvoices;
 import org.killbill.billing.junction.BillingEventSet;
 import org.killbill.billing.payment.api.PluginProperty;
+import org.killbill.commons.concurrent.Executors;
 import org.slf4j.Logger;
 
 public abstract class InvoiceItemGenerator {
@@ -44,6 +50,17 @@ public abstract class InvoiceItemGenerator {
                                                          final Currency targetCurrency, Map<UUID, SubscriptionFutureNotificationDates> perSubscriptionFutureNotificationDate,
                                                          final DryRunInfo dryRunInfo, final Iterable<PluginProperty> pluginProperties, final InternalCallContext context) throws InvoiceApiException;
 
+    //
+    // Executor used to process the subscriptions of large accounts in parallel, or null when they are always processed sequentially (threadNb <= 0).
+    // Idle threads are reclaimed, and the invoicing thread does the work itself when all threads are busy.
+    //
+    @Nullable
+    protected static ExecutorService createSubscriptionExecutorService(final int threadNb, final String threadName) {
+        return threadNb > 0 ?
+               Executors.newCachedThreadPool(0, threadNb, threadName, 60, TimeUnit.SECONDS, new ThreadPoolExecutor.CallerRunsPolicy()) :
+               null;
+    }
+
     public static class InvoiceGeneratorResult {
 
         private final List<InvoiceItem> items;
@@ -81,14 +98,14 @@ public abstract class InvoiceItemGenerator {
             this.enabled = delegate.isDebugEnabled();
         }
 
-        public void append(final Object event, final Collection<InvoiceItem> items) {
+        public synchronized void append(final Object event, final Collection<InvoiceItem> items) {
             if (!enabled || items.isEmpty()) {
                 return;
             }
             append(event, items.toArray(new InvoiceItem[items.size()]));
         }
 
-        public void append(final Object event, final InvoiceItem... items) {
+        public synchronized void append(final Object event, final InvoiceItem... items) {
             if (!enabled || items.length == 0) {
                 return;
             }
@@ -102,7 +119,7 @@ public abstract class InvoiceItemGenerator {
             }
         }
 
-        public void logItems() {
+        public synchronized void logItems() {
             if (enabled && logStringBuilder != null) {
                 delegate.debug(getLogStringBuilder().toString());
             }
@@ -0,0 +1,286 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.invoice.generator;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+import org.joda.time.LocalDate;
+import org.killbill.billing.invoice.generator.InvoiceWithMetadata.TrackingRecordId;
+
+/**
+ * Compact set of {@link TrackingRecordId}, all sharing the same invoice id.
+ * <p>
+ * Tracking ids are dictionary encoded and grouped per (subscription, unit type, record date): each group only holds the
+ * sorted array of its tracking id codes. The {@link TrackingRecordId} instances are only created when iterating over the set.
+ */
+public class TrackingIds extends AbstractSet<TrackingRecordId> {
+
+    private final UUID invoiceId;
+    private final Map<String, Integer> codes;
+    private final List<String> trackingIds;
+    private final Map<TrackingKey, TrackingCodes> perKeyCodes;
+    private int size;
+
+    /**
+     * @param invoiceId invoice id of all the records, or null if they should not be retained (e.g. existing records, only used
+     *                  to find similar records)
+     */
+    public TrackingIds(@Nullable final UUID invoiceId) {
+        this.invoiceId = invoiceId;
+        this.codes = new HashMap<>();
+        this.trackingIds = new ArrayList<>();
+        this.perKeyCodes = new HashMap<>();
+        this.size = 0;
+    }
+
+    public boolean add(final String trackingId, final UUID subscriptionId, final String unitType, final LocalDate recordDate) {
+        final Integer existingCode = codes.get(trackingId);
+        final int code;
+        if (existingCode == null) {
+            code = trackingIds.size();
+            codes.put(trackingId, code);
+            trackingIds.add(trackingId);
+        } else {
+            code = existingCode;
+        }
+
+        final TrackingCodes keyCodes = perKeyCodes.computeIfAbsent(new TrackingKey(subscriptionId, unitType, recordDate), key -> new TrackingCodes());
+        if (!keyCodes.add(code)) {
+            return false;
+        }
+        size++;
+        return true;
+    }
+
+    @Override
+    public boolean add(final TrackingRecordId trackingRecordId) {
+        if (!Objects.equals(invoiceId, trackingRecordId.getInvoiceId())) {
+            throw new IllegalArgumentException(String.format("Tracking record for invoiceId='%s' cannot be added to tracking ids of invoiceId='%s'", trackingRecordId.getInvoiceId(), invoiceId));
+        }
+        return add(trackingRecordId.getTrackingId(), trackingRecordId.getSubscriptionId(), trackingRecordId.getUnitType(), trackingRecordId.getRecordDate());
+    }
+
+    @Override
+    public boolean addAll(final Collection<? extends TrackingRecordId> records) {
+        if (!(records instanceof TrackingIds)) {
+            return super.addAll(records);
+        }
+
+        // Same checks as add(TrackingRecordId), but without materializing the records
+        final TrackingIds other = (TrackingIds) records;
+        if (!other.isEmpty() && !Objects.equals(invoiceId, other.invoiceId)) {
+            throw new IllegalArgumentException(String.format("Tracking records for invoiceId='%s' cannot be added to tracking ids of invoiceId='%s'", other.invoiceId, invoiceId));
+        }
+        boolean modified = false;
+        for (final Entry<TrackingKey, TrackingCodes> entry : other.perKeyCodes.entrySet()) {
+            final TrackingCodes keyCodes = entry.getValue();
+            for (int i = 0; i < keyCodes.size; i++) {
+                modified |= add(other.trackingIds.get(keyCodes.codes[i]), entry.getKey().subscriptionId, entry.getKey().unitType, entry.getKey().recordDate);
+            }
+        }
+        return modified;
+    }
+
+    /**
+     * Remove all the records for that unit type.
+     */
+    public void removeUnitType(final String unitType) {
+        final Iterator<Entry<TrackingKey, TrackingCodes>> iterator = perKeyCodes.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Entry<TrackingKey, TrackingCodes> entry = iterator.next();
+            if (unitType.equals(entry.getKey().unitType)) {
+                size -= entry.getValue().size;
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * @return whether a record was issued from the same usage record (subscriptionId, trackingId, unitType, recordDate), regardless of its invoice
+     */
+    public boolean containsSimilarRecord(final String trackingId, final UUID subscriptionId, final String unitType, final LocalDate recordDate) {
+        final Integer code = codes.get(trackingId);
+        if (code == null) {
+            return false;
+        }
+        final TrackingCodes keyCodes = perKeyCodes.get(new TrackingKey(subscriptionId, unitType, recordDate));
+        return keyCodes != null && keyCodes.contains(code);
+    }
+
+    /**
+     * @return the number of distinct tracking ids recorded for that subscription, unit type and record date
+     */
+    public int getNbTrackingIds(final UUID subscriptionId, final String unitType, final LocalDate recordDate) {
+        final TrackingCodes keyCodes = perKeyCodes.get(new TrackingKey(subscriptionId, unitType, recordDate));
+        return keyCodes == null ? 0 : keyCodes.size;
+    }
+
+    /**
+     * @return the records which don't have any similar record in {@code existing}
+     */
+    public TrackingIds withoutSimilarRecords(final TrackingIds existing) {
+        final TrackingIds result = new TrackingIds(invoiceId);
+        for (final Entry<TrackingKey, TrackingCodes> entry : perKeyCodes.entrySet()) {
+            final TrackingKey key = entry.getKey();
+            final TrackingCodes keyCodes = entry.getValue();
+            for (int i = 0; i < keyCodes.size; i++) {
+                final String trackingId = trackingIds.get(keyCodes.codes[i]);
+                if (!existing.containsSimilarRecord(trackingId, key.subscriptionId, key.unitType, key.recordDate)) {
+                    result.add(trackingId, key.subscriptionId, key.unitType, key.recordDate);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return existing records as TrackingIds (without retaining their invoice ids), to look for similar records
+     */
+    public static TrackingIds ofExistingRecords(final Collection<TrackingRecordId> existingRecords) {
+        if (existingRecords instanceof TrackingIds) {
+            return (TrackingIds) existingRecords;
+        }
+        final TrackingIds result = new TrackingIds(null);
+        for (final TrackingRecordId cur : existingRecords) {
+            result.add(cur.getTrackingId(), cur.getSubscriptionId(), cur.getUnitType(), cur.getRecordDate());
+        }
+        return result;
+    }
+
+    @Override
+    public boolean contains(final Object o) {
+        if (!(o instanceof TrackingRecordId)) {
+            return false;
+        }
+        final TrackingRecordId trackingRecordId = (TrackingRecordId) o;
+        return Objects.equals(invoiceId, trackingRecordId.getInvoiceId()) &&
+               containsSimilarRecord(trackingRecordId.getTrackingId(), trackingRecordId.getSubscriptionId(), trackingRecordId.getUnitType(), trackingRecordId.getRecordDate());
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<TrackingRecordId> iterator() {
+        final Iterator<Entry<TrackingKey, TrackingCodes>> keyIterator = perKeyCodes.entrySet().iterator();
+        return new Iterator<TrackingRecordId>() {
+
+            private TrackingKey curKey = null;
+            private TrackingCodes curCodes = null;
+            private int nextIndex = 0;
+
+            @Override
+            public boolean hasNext() {
+                while (curCodes == null || nextIndex >= curCodes.size) {
+                    if (!keyIterator.hasNext()) {
+                        return false;
+                    }
+                    final Entry<TrackingKey, TrackingCodes> entry = keyIterator.next();
+                    curKey = entry.getKey();
+                    curCodes = entry.getValue();
+                    nextIndex = 0;
+                }
+                return true;
+            }
+
+            @Override
+            public TrackingRecordId next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return new TrackingRecordId(trackingIds.get(curCodes.codes[nextIndex++]), invoiceId, curKey.subscriptionId, curKey.unitType, curKey.recordDate);
+            }
+        };
+    }
+
+    // Sorted tracking id codes of a group: codes are allocated in increasing order, so they are mostly appended
+    private static final class TrackingCodes {
+
+        private int[] codes = new int[4];
+        private int size = 0;
+
+        private boolean add(final int code) {
+            int index = size;
+            if (size > 0 && codes[size - 1] >= code) {
+                index = Arrays.binarySearch(codes, 0, size, code);
+                if (index >= 0) {
+                    return false;
+                }
+                index = -index - 1;
+            }
+            if (size == codes.length) {
+                codes = Arrays.copyOf(codes, size * 2);
+            }
+            System.arraycopy(codes, index, codes, index + 1, size - index);
+            codes[index] = code;
+            size++;
+            return true;
+        }
+
+        private boolean contains(final int code) {
+            return Arrays.binarySearch(codes, 0, size, code) >= 0;
+        }
+    }
+
+    private static final class TrackingKey {
+
+        private final UUID subscriptionId;
+        private final String unitType;
+        private final LocalDate recordDate;
+
+        private TrackingKey(final UUID subscriptionId, final String unitType, final LocalDate recordDate) {
+            this.subscriptionId = subscriptionId;
+            this.unitType = unitType;
+            this.recordDate = recordDate;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final TrackingKey that = (TrackingKey) o;
+            return Objects.equals(subscriptionId, that.subscriptionId) &&
+                   Objects.equals(unitType, that.unitType) &&
+                   Objects.equals(recordDate, that.recordDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(subscriptionId, unitType, recordDate);
+        }
+    }
+}
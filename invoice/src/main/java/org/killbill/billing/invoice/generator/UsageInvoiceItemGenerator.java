@@ -20,13 +20,14 @@ package org.killbill.billing.invoice.generator;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nullable;
@@ -35,6 +36,7 @@ import javax.inject.Inject;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
 import org.joda.time.LocalDate;
+import org.killbill.billing.ErrorCode;
 import org.killbill.billing.account.api.ImmutableAccountData;
 import org.killbill.billing.callcontext.InternalCallContext;
 import org.killbill.billing.catalog.api.BillingMode;
@@ -47,8 +49,8 @@ import org.killbill.billing.invoice.api.InvoiceApiException;
 import org.killbill.billing.invoice.api.InvoiceItem;
 import org.killbill.billing.invoice.api.InvoiceItemType;
 import org.killbill.billing.invoice.generator.InvoiceWithMetadata.SubscriptionFutureNotificationDates;
-import org.killbill.billing.invoice.generator.InvoiceWithMetadata.TrackingRecordId;
 import org.killbill.billing.invoice.optimizer.InvoiceOptimizerBase.AccountInvoices;
+import org.killbill.billing.invoice.usage.RawUsageIndex;
 import org.killbill.billing.invoice.usage.RawUsageOptimizer;
 import org.killbill.billing.invoice.usage.RawUsageOptimizer.RawUsageOptimizerResult;
 import org.killbill.billing.invoice.usage.SubscriptionUsageInArrear;
@@ -69,13 +71,18 @@ public class UsageInvoiceItemGenerator extends InvoiceItemGenerator {
 
     private static final Logger log = LoggerFactory.getLogger(UsageInvoiceItemGenerator.class);
 
+    private static final String USAGE_THREAD_NAME = "invoice-usage";
+
     private final RawUsageOptimizer rawUsageOptimizer;
     private final InvoiceConfig invoiceConfig;
+    // Null when the usage items of the subscriptions are always computed sequentially
+    private final ExecutorService usageExecutorService;
 
     @Inject
     public UsageInvoiceItemGenerator(final RawUsageOptimizer rawUsageOptimizer, final InvoiceConfig invoiceConfig) {
         this.rawUsageOptimizer = rawUsageOptimizer;
         this.invoiceConfig = invoiceConfig;
+        this.usageExecutorService = createSubscriptionExecutorService(invoiceConfig.getUsageInvoiceThreadNb(), USAGE_THREAD_NAME);
     }
 
 
@@ -97,12 +104,14 @@ public class UsageInvoiceItemGenerator extends InvoiceItemGenerator {
             final UsageDetailMode usageDetailMode = invoiceConfig.getItemResultBehaviorMode(internalCallContext);
             final DateTime minBillingEventDate = getMinBillingEventDate(eventSet, internalCallContext);
 
-            final Set<TrackingRecordId> trackingIds = new HashSet<>();
+            final TrackingIds trackingIds = new TrackingIds(invoiceId);
             final List<InvoiceItem> items = new ArrayList<>();
             final Iterator<BillingEvent> events = eventSet.iterator();
 
             final boolean isDryRun = dryRunInfo != null;
             RawUsageOptimizerResult rawUsgRes = null;
+            RawUsageIndex rawUsageIndex = null;
+            final List<Entry<UUID, SubscriptionUsageInArrear>> subscriptionsUsageInArrear = new ArrayList<>();
             List<BillingEvent> curEvents = new ArrayList<>();
             UUID curSubscriptionId = null;
             while (events.hasNext()) {
@@ -119,7 +128,11 @@ public class UsageInvoiceItemGenerator extends InvoiceItemGenerator {
                             .flatMap(Collection::stream)
                             .collect(Collectors.toUnmodifiableList());
 
-                    rawUsgRes = rawUsageOptimizer.getInArrearUsage(minBillingEventDate, targetDate, existingUsageItems, eventSet.getUsages(), dryRunInfo, pluginProperties, internalCallContext);
+                    final Iterable<DateTime> billingEventDates = eventSet.stream()
+                            .map(BillingEvent::getEffectiveDate)
+                            .collect(Collectors.toUnmodifiableSet());
+
+                    rawUsgRes = rawUsageOptimizer.getInArrearUsage(minBillingEventDate, targetDate, existingUsageItems, eventSet.getUsages(), billingEventDates, dryRunInfo, pluginProperties, internalCallContext);
 
                     // Check existingInvoices#cutoffDate <= rawUsgRes#rawUsageStartDate + 1 P, where P = max{all Periods available} (e.g MONTHLY)
                     // To make it simpler we check existingInvoices#cutoffDate <= rawUsgRes#rawUsageStartDate, and warn if this is not the case
@@ -131,6 +144,8 @@ public class UsageInvoiceItemGenerator extends InvoiceItemGenerator {
                         log.warn("Detected an invoice cuttOff date={}, and usage optimized start date= {} that could lead to some issues", existingInvoices.getCutoffDate(), rawUsgRes.getRawUsageStartDate());
                     }
 
+                    rawUsageIndex = new RawUsageIndex(rawUsgRes.getRawUsage());
+
                 }
 
                 // None of the billing events report any usage IN_ARREAR sections
@@ -142,29 +157,25 @@ public class UsageInvoiceItemGenerator extends InvoiceItemGenerator {
 
                 final UUID subscriptionId = event.getSubscriptionId();
                 if (curSubscriptionId != null && !curSubscriptionId.equals(subscriptionId)) {
-                    final SubscriptionUsageInArrear subscriptionUsageInArrear = new SubscriptionUsageInArrear(account.getId(), invoiceId, curEvents, rawUsgRes.getRawUsage(), rawUsgRes.getExistingTrackingIds(), targetDate, rawUsgRes.getRawUsageStartDate(), usageDetailMode, invoiceConfig, internalCallContext);
-                    final List<InvoiceItem> usageInArrearItems = perSubscriptionInArrearUsageItems.get(curSubscriptionId);
-
-                    final SubscriptionUsageInArrearItemsAndNextNotificationDate subscriptionResult = subscriptionUsageInArrear.computeMissingUsageInvoiceItems(usageInArrearItems != null ? usageInArrearItems : Collections.emptyList(), invoiceItemGeneratorLogger, isDryRun);
-                    final List<InvoiceItem> newInArrearUsageItems = subscriptionResult.getInvoiceItems();
-                    items.addAll(newInArrearUsageItems);
-                    trackingIds.addAll(subscriptionResult.getTrackingIds());
-
-                    updatePerSubscriptionNextNotificationUsageDate(curSubscriptionId, subscriptionResult.getPerUsageNotificationDates(), BillingMode.IN_ARREAR, perSubscriptionFutureNotificationDates);
+                    final SubscriptionUsageInArrear subscriptionUsageInArrear = new SubscriptionUsageInArrear(account.getId(), invoiceId, curEvents, rawUsageIndex.getSubscriptionRawUsage(curSubscriptionId), rawUsgRes.getExistingTrackingIds(), targetDate, rawUsgRes.getRawUsageStartDate(), usageDetailMode, invoiceConfig, internalCallContext);
+                    subscriptionsUsageInArrear.add(Map.entry(curSubscriptionId, subscriptionUsageInArrear));
                     curEvents = new ArrayList<>();
                 }
                 curSubscriptionId = subscriptionId;
                 curEvents.add(event);
             }
             if (curSubscriptionId != null) {
-                final SubscriptionUsageInArrear subscriptionUsageInArrear = new SubscriptionUsageInArrear(account.getId(), invoiceId, curEvents, rawUsgRes.getRawUsage(), rawUsgRes.getExistingTrackingIds(), targetDate, rawUsgRes.getRawUsageStartDate(), usageDetailMode, invoiceConfig, internalCallContext);
-                final List<InvoiceItem> usageInArrearItems = perSubscriptionInArrearUsageItems.get(curSubscriptionId);
+                final SubscriptionUsageInArrear subscriptionUsageInArrear = new SubscriptionUsageInArrear(account.getId(), invoiceId, curEvents, rawUsageIndex.getSubscriptionRawUsage(curSubscriptionId), rawUsgRes.getExistingTrackingIds(), targetDate, rawUsgRes.getRawUsageStartDate(), usageDetailMode, invoiceConfig, internalCallContext);
+                subscriptionsUsageInArrear.add(Map.entry(curSubscriptionId, subscriptionUsageInArrear));
+            }
 
-                final SubscriptionUsageInArrearItemsAndNextNotificationDate subscriptionResult = subscriptionUsageInArrear.computeMissingUsageInvoiceItems(usageInArrearItems != null ? usageInArrearItems : Collections.emptyList(), invoiceItemGeneratorLogger, isDryRun);
-                final List<InvoiceItem> newInArrearUsageItems = subscriptionResult.getInvoiceItems();
-                items.addAll(newInArrearUsageItems);
+            final List<SubscriptionUsageInArrearItemsAndNextNotificationDate> subscriptionResults = computeMissingUsageInvoiceItems(subscriptionsUsageInArrear, perSubscriptionInArrearUsageItems, invoiceItemGeneratorLogger, isDryRun);
+            for (int i = 0; i < subscriptionsUsageInArrear.size(); i++) {
+                final UUID subscriptionId = subscriptionsUsageInArrear.get(i).getKey();
+                final SubscriptionUsageInArrearItemsAndNextNotificationDate subscriptionResult = subscriptionResults.get(i);
+                items.addAll(subscriptionResult.getInvoiceItems());
                 trackingIds.addAll(subscriptionResult.getTrackingIds());
-                updatePerSubscriptionNextNotificationUsageDate(curSubscriptionId, subscriptionResult.getPerUsageNotificationDates(), BillingMode.IN_ARREAR, perSubscriptionFutureNotificationDates);
+                updatePerSubscriptionNextNotificationUsageDate(subscriptionId, subscriptionResult.getPerUsageNotificationDates(), BillingMode.IN_ARREAR, perSubscriptionFutureNotificationDates);
             }
             invoiceItemGeneratorLogger.logItems();
 
@@ -174,6 +185,53 @@ public class UsageInvoiceItemGenerator extends InvoiceItemGenerator {
         }
     }
 
+    //
+    // The subscriptions are independent from each other: for large accounts, their usage items are computed in parallel. The results
+    // are returned in the same order as the input in both cases, so that the generated items don't depend on the threads scheduling.
+    //
+    private List<SubscriptionUsageInArrearItemsAndNextNotificationDate> computeMissingUsageInvoiceItems(final List<Entry<UUID, SubscriptionUsageInArrear>> subscriptionsUsageInArrear,
+                                                                                                        final Map<UUID, List<InvoiceItem>> perSubscriptionInArrearUsageItems,
+                                                                                                        final InvoiceItemGeneratorLogger invoiceItemGeneratorLogger,
+                                                                                                        final boolean isDryRun) throws CatalogApiException, InvoiceApiException {
+        final List<SubscriptionUsageInArrearItemsAndNextNotificationDate> result = new ArrayList<>(subscriptionsUsageInArrear.size());
+        if (usageExecutorService == null || subscriptionsUsageInArrear.size() < invoiceConfig.getUsageInvoiceParallelMinSubscriptions()) {
+            for (final Entry<UUID, SubscriptionUsageInArrear> entry : subscriptionsUsageInArrear) {
+                final List<InvoiceItem> usageInArrearItems = perSubscriptionInArrearUsageItems.get(entry.getKey());
+                result.add(entry.getValue().computeMissingUsageInvoiceItems(usageInArrearItems != null ? usageInArrearItems : Collections.emptyList(), invoiceItemGeneratorLogger, isDryRun));
+            }
+            return result;
+        }
+
+        final List<Future<SubscriptionUsageInArrearItemsAndNextNotificationDate>> futures = new ArrayList<>(subscriptionsUsageInArrear.size());
+        for (final Entry<UUID, SubscriptionUsageInArrear> entry : subscriptionsUsageInArrear) {
+            final List<InvoiceItem> usageInArrearItems = perSubscriptionInArrearUsageItems.get(entry.getKey());
+            futures.add(usageExecutorService.submit(() -> entry.getValue().computeMissingUsageInvoiceItems(usageInArrearItems != null ? usageInArrearItems : Collections.emptyList(), invoiceItemGeneratorLogger, isDryRun)));
+        }
+
+        try {
+            for (final Future<SubscriptionUsageInArrearItemsAndNextNotificationDate> future : futures) {
+                result.add(future.get());
+            }
+            return result;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InvoiceApiException(e, ErrorCode.UNEXPECTED_ERROR, "Interrupted while computing usage items");
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof CatalogApiException) {
+                throw (CatalogApiException) e.getCause();
+            } else if (e.getCause() instanceof InvoiceApiException) {
+                throw (InvoiceApiException) e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new InvoiceApiException(e.getCause(), ErrorCode.UNEXPECTED_ERROR, "Failed to compute usage items");
+        } finally {
+            for (final Future<SubscriptionUsageInArrearItemsAndNextNotificationDate> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
     private DateTime getMinBillingEventDate(final BillingEventSet eventSet, final InternalCallContext internalCallContext) {
         DateTime minDate = null;
         for (final BillingEvent cur : eventSet) {
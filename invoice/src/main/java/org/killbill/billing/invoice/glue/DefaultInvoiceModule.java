@@ -19,8 +19,10 @@
 package org.killbill.billing.invoice.glue;
 
 import org.killbill.billing.glue.InvoiceModule;
+import org.killbill.billing.invoice.InvoiceBatchDispatcher;
 import org.killbill.billing.invoice.InvoiceDispatcher;
 import org.killbill.billing.invoice.InvoiceListener;
+import org.killbill.billing.invoice.InvoiceRunCoalescer;
 import org.killbill.billing.invoice.InvoiceTagHandler;
 import org.killbill.billing.invoice.ParkedAccountsManager;
 import org.killbill.billing.invoice.api.DefaultInvoiceService;
@@ -34,6 +36,7 @@ import org.killbill.billing.invoice.api.svcs.DefaultInvoiceInternalApi;
 import org.killbill.billing.invoice.api.user.DefaultInvoiceUserApi;
 import org.killbill.billing.invoice.config.MultiTenantInvoiceConfig;
 import org.killbill.billing.invoice.dao.CBADao;
+import org.killbill.billing.invoice.dao.InvoiceAccountBalanceDao;
 import org.killbill.billing.invoice.dao.DefaultInvoiceDao;
 import org.killbill.billing.invoice.dao.InvoiceDao;
 import org.killbill.billing.invoice.dao.InvoiceDaoHelper;
@@ -74,6 +77,7 @@ public class DefaultInvoiceModule extends KillBillModule implements InvoiceModul
         bind(InvoiceDao.class).to(DefaultInvoiceDao.class).asEagerSingleton();
         bind(InvoiceDaoHelper.class).asEagerSingleton();
         bind(CBADao.class).asEagerSingleton();
+        bind(InvoiceAccountBalanceDao.class).asEagerSingleton();
     }
 
     @Override
@@ -115,6 +119,8 @@ public class DefaultInvoiceModule extends KillBillModule implements InvoiceModul
 
     protected void installInvoiceDispatcher() {
         bind(InvoiceDispatcher.class).asEagerSingleton();
+        bind(InvoiceBatchDispatcher.class).asEagerSingleton();
+        bind(InvoiceRunCoalescer.class).asEagerSingleton();
     }
 
     protected void installInvoiceListener() {
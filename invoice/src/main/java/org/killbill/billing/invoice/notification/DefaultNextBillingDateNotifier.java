@@ -24,8 +24,10 @@ import java.util.UUID;
 import javax.inject.Inject;
 
 import org.joda.time.DateTime;
+import org.killbill.billing.invoice.InvoiceBatchDispatcher;
 import org.killbill.billing.invoice.InvoiceListener;
 import org.killbill.billing.platform.api.KillbillService.KILLBILL_SERVICES;
+import org.killbill.billing.util.config.definition.InvoiceConfig;
 import org.killbill.clock.Clock;
 import org.killbill.notificationq.api.NotificationEvent;
 import org.killbill.notificationq.api.NotificationQueue;
@@ -47,17 +49,23 @@ public class DefaultNextBillingDateNotifier extends RetryableService implements
     private final Clock clock;
     private final NotificationQueueService notificationQueueService;
     private final InvoiceListener listener;
+    private final InvoiceBatchDispatcher batchDispatcher;
+    private final InvoiceConfig invoiceConfig;
 
     private NotificationQueue nextBillingQueue;
 
     @Inject
     public DefaultNextBillingDateNotifier(final Clock clock,
                                           final NotificationQueueService notificationQueueService,
-                                          final InvoiceListener listener) {
+                                          final InvoiceListener listener,
+                                          final InvoiceBatchDispatcher batchDispatcher,
+                                          final InvoiceConfig invoiceConfig) {
         super(notificationQueueService);
         this.clock = clock;
         this.notificationQueueService = notificationQueueService;
         this.listener = listener;
+        this.batchDispatcher = batchDispatcher;
+        this.invoiceConfig = invoiceConfig;
     }
 
     @Override
@@ -110,6 +118,11 @@ public class DefaultNextBillingDateNotifier extends RetryableService implements
 
     private void processEventForInvoiceGeneration(final DateTime eventDateTime, final boolean isRescheduled, final UUID userToken, final Long accountRecordId, final Long tenantRecordId) {
         listener.handleNextBillingDateEvent(eventDateTime, isRescheduled, userToken, accountRecordId, tenantRecordId);
+
+        if (invoiceConfig.isInvoiceBatchEnabled()) {
+            // Bill cycle day peak: take over, in the background, the other notifications of the tenant which are already due
+            batchDispatcher.scheduleAccountsWithPendingNotifications(tenantRecordId, userToken);
+        }
     }
 
     private void processEventForInvoiceNotification(final DateTime eventDateTime, final UUID userToken, final Long accountRecordId, final Long tenantRecordId) {
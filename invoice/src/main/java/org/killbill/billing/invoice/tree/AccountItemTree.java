@@ -21,16 +21,23 @@ package org.killbill.billing.invoice.tree;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+
+import javax.annotation.Nullable;
 
 import org.killbill.billing.invoice.api.InvoiceItem;
 import org.killbill.billing.invoice.api.InvoiceItemType;
 import org.killbill.commons.utils.Preconditions;
-import org.killbill.commons.utils.collect.Iterables;
 
 /**
  * Tree of invoice items for a given account.
@@ -39,7 +46,10 @@ import org.killbill.commons.utils.collect.Iterables;
  * associated to a given subscription. That also means that invoice item adjustment which cross subscriptions
  * can't be correctly handled when they compete with other forms of adjustments.
  * <p/>
- * <p>The class is not thread safe, there is no such use case today, and there is a lifecyle to respect:
+ * <p>When an executor is provided, the subscription trees of large accounts are built and merged in parallel (the trees are
+ * independent from each other). The resulting list does not depend on it.
+ * <p/>
+ * <p>The class itself is not thread safe, there is no such use case today, and there is a lifecyle to respect:
  * <ul>
  * <li>Add existing invoice items
  * <li>Build the tree,
@@ -52,21 +62,37 @@ public class AccountItemTree {
     private final UUID accountId;
     private final UUID targetInvoiceId;
     private final Map<UUID, SubscriptionItemTree> subscriptionItemTree;
-    private final List<InvoiceItem> allExistingItems;
+    // Existing items per id, only used to retrieve the original item for linked items
+    private final Map<UUID, InvoiceItem> allExistingItems;
     private final List<InvoiceItem> pendingItemAdj;
+    private final ExecutorService executorService;
+    private final int parallelMinSubscriptions;
+    private final boolean useFlatTrees;
 
     private boolean isBuilt;
 
     private int prorationFixedDays;
 
     public AccountItemTree(final UUID accountId, final UUID targetInvoiceId, final int prorationFixedDays) {
+        this(accountId, targetInvoiceId, prorationFixedDays, null, Integer.MAX_VALUE, false);
+    }
+
+    /**
+     * @param executorService          executor used to build and merge the subscription trees in parallel, or null to always do it sequentially
+     * @param parallelMinSubscriptions minimum number of subscription trees for the executor to be used
+     * @param useFlatTrees             whether the subscription trees should use the array based implementation (see FlatItemsTree)
+     */
+    public AccountItemTree(final UUID accountId, final UUID targetInvoiceId, final int prorationFixedDays, @Nullable final ExecutorService executorService, final int parallelMinSubscriptions, final boolean useFlatTrees) {
         this.accountId = accountId;
         this.targetInvoiceId = targetInvoiceId;
         this.subscriptionItemTree = new HashMap<UUID, SubscriptionItemTree>();
         this.isBuilt = false;
-        this.allExistingItems = new LinkedList<InvoiceItem>();
+        this.allExistingItems = new HashMap<UUID, InvoiceItem>();
         this.pendingItemAdj = new LinkedList<InvoiceItem>();
         this.prorationFixedDays = prorationFixedDays;
+        this.executorService = executorService;
+        this.parallelMinSubscriptions = parallelMinSubscriptions;
+        this.useFlatTrees = useFlatTrees;
     }
 
     /**
@@ -81,9 +107,7 @@ public class AccountItemTree {
             }
             pendingItemAdj.clear();
         }
-        for (final SubscriptionItemTree tree : subscriptionItemTree.values()) {
-            tree.build();
-        }
+        forEachTree((subscriptionId, tree) -> tree.build());
         isBuilt = true;
     }
 
@@ -99,8 +123,8 @@ public class AccountItemTree {
     private void addExistingItem(final InvoiceItem existingItem, final boolean failOnMissingSubscription) {
         Preconditions.checkState(!isBuilt);
 
-        // Only used to retrieve the original item for linked items
-        allExistingItems.add(existingItem);
+        // Only used to retrieve the original item for linked items (first one wins, as ids are expected to be unique)
+        allExistingItems.putIfAbsent(existingItem.getId(), existingItem);
 
         if (existingItem.getInvoiceItemType() == InvoiceItemType.ITEM_ADJ) {
             final InvoiceItem linkedInvoiceItem = getLinkedInvoiceItem(existingItem, allExistingItems);
@@ -122,7 +146,7 @@ public class AccountItemTree {
         }
 
         if (!subscriptionItemTree.containsKey(subscriptionId)) {
-            subscriptionItemTree.put(subscriptionId, new SubscriptionItemTree(subscriptionId, targetInvoiceId, prorationFixedDays));
+            subscriptionItemTree.put(subscriptionId, new SubscriptionItemTree(subscriptionId, targetInvoiceId, prorationFixedDays, useFlatTrees));
         }
         final SubscriptionItemTree tree = subscriptionItemTree.get(subscriptionId);
         tree.addItem(existingItem);
@@ -136,22 +160,63 @@ public class AccountItemTree {
     public void mergeWithProposedItems(final List<InvoiceItem> proposedItems) {
 
         build();
-        for (final SubscriptionItemTree tree : subscriptionItemTree.values()) {
-            tree.flatten(true);
-        }
 
+        // The trees are independent: group the proposed items per tree (keeping their order), and then flatten, merge and build each tree
+        final Set<UUID> existingSubscriptionIds = new HashSet<UUID>(subscriptionItemTree.keySet());
+        final Map<UUID, List<InvoiceItem>> perSubscriptionProposedItems = new HashMap<UUID, List<InvoiceItem>>();
         for (final InvoiceItem item : proposedItems) {
             final UUID subscriptionId = getSubscriptionId(item, null);
-            SubscriptionItemTree tree = subscriptionItemTree.get(subscriptionId);
-            if (tree == null) {
-                tree = new SubscriptionItemTree(subscriptionId, targetInvoiceId, prorationFixedDays);
-                subscriptionItemTree.put(subscriptionId, tree);
+            if (!subscriptionItemTree.containsKey(subscriptionId)) {
+                subscriptionItemTree.put(subscriptionId, new SubscriptionItemTree(subscriptionId, targetInvoiceId, prorationFixedDays, useFlatTrees));
             }
-            tree.mergeProposedItem(item);
+            perSubscriptionProposedItems.computeIfAbsent(subscriptionId, id -> new LinkedList<InvoiceItem>()).add(item);
         }
 
-        for (final SubscriptionItemTree tree : subscriptionItemTree.values()) {
+        forEachTree((subscriptionId, tree) -> {
+            if (existingSubscriptionIds.contains(subscriptionId)) {
+                tree.flatten(true);
+            }
+            final List<InvoiceItem> treeProposedItems = perSubscriptionProposedItems.get(subscriptionId);
+            if (treeProposedItems != null) {
+                for (final InvoiceItem item : treeProposedItems) {
+                    tree.mergeProposedItem(item);
+                }
+            }
             tree.buildForMerge();
+        });
+    }
+
+    private void forEachTree(final BiConsumer<UUID, SubscriptionItemTree> action) {
+        if (executorService == null || subscriptionItemTree.size() < parallelMinSubscriptions) {
+            for (final Entry<UUID, SubscriptionItemTree> entry : subscriptionItemTree.entrySet()) {
+                action.accept(entry.getKey(), entry.getValue());
+            }
+            return;
+        }
+
+        final List<Future<?>> futures = new ArrayList<Future<?>>(subscriptionItemTree.size());
+        try {
+            for (final Entry<UUID, SubscriptionItemTree> entry : subscriptionItemTree.entrySet()) {
+                futures.add(executorService.submit(() -> action.accept(entry.getKey(), entry.getValue())));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while building the subscription trees", e);
+        } catch (final ExecutionException e) {
+            // Surface the same exceptions as the sequential mode (e.g. IllegalStateException on invalid trees)
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            for (final Future<?> future : futures) {
+                future.cancel(true);
+            }
         }
     }
 
@@ -173,7 +238,7 @@ public class AccountItemTree {
         return accountId;
     }
 
-    private UUID getSubscriptionId(final InvoiceItem item, final List<InvoiceItem> allItems) {
+    private UUID getSubscriptionId(final InvoiceItem item, @Nullable final Map<UUID, InvoiceItem> allItems) {
         if (item.getInvoiceItemType() == InvoiceItemType.RECURRING ||
             item.getInvoiceItemType() == InvoiceItemType.FIXED) {
             return item.getSubscriptionId();
@@ -183,10 +248,11 @@ public class AccountItemTree {
         }
     }
 
-    private InvoiceItem getLinkedInvoiceItem(final InvoiceItem item, final Iterable<InvoiceItem> allItems) {
-        return Iterables.toStream(allItems)
-                .filter(input -> input.getId().equals(item.getLinkedItemId()))
-                .findFirst().orElse(null);
+    private InvoiceItem getLinkedInvoiceItem(final InvoiceItem item, @Nullable final Map<UUID, InvoiceItem> allItems) {
+        if (allItems == null || item.getLinkedItemId() == null) {
+            return null;
+        }
+        return allItems.get(item.getLinkedItemId());
     }
 
     @Override
@@ -0,0 +1,620 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.invoice.tree;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+import org.joda.time.LocalDate;
+import org.killbill.billing.invoice.api.InvoiceItem;
+import org.killbill.billing.invoice.tree.Item.ItemAction;
+import org.killbill.commons.utils.Preconditions;
+
+/**
+ * ItemsTree stored in flat arrays, with the exact same semantics as the ItemsNodeInterval tree.
+ * <p/>
+ * Nodes are referenced by their index: the interval of each node is kept as epoch days (to compare dates without going
+ * through LocalDate), and the tree structure as parent, left child and right sibling indexes (children are sorted).
+ * Items are kept in a single array, each node pointing to a linked list of item indexes. Walking, searching and building
+ * the tree only go through these arrays, without allocating callbacks or iterators.
+ * <p/>
+ * The root node is at index 0: like for the ItemsNodeInterval tree, its interval grows as nodes are added and it never
+ * has any item.
+ */
+public class FlatItemsTree implements ItemsTree {
+
+    private static final int ROOT = 0;
+    private static final int NONE = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int prorationFixedDays;
+
+    // Nodes
+    private int nbNodes;
+    private int[] startDays;
+    private int[] endDays;
+    private LocalDate[] startDates;
+    private LocalDate[] endDates;
+    private int[] parents;
+    private int[] leftChildren;
+    private int[] rightSiblings;
+    private int[] firstItems;
+    // Proration fixed days of the items built by each node (ItemsNodeInterval nodes issued from a split use 0)
+    private int[] nodeProrationFixedDays;
+
+    // Items, linked per node
+    private int nbItems;
+    private Item[] items;
+    private int[] nextItems;
+
+    public FlatItemsTree(final int prorationFixedDays) {
+        this.prorationFixedDays = prorationFixedDays;
+        this.startDays = new int[INITIAL_CAPACITY];
+        this.endDays = new int[INITIAL_CAPACITY];
+        this.startDates = new LocalDate[INITIAL_CAPACITY];
+        this.endDates = new LocalDate[INITIAL_CAPACITY];
+        this.parents = new int[INITIAL_CAPACITY];
+        this.leftChildren = new int[INITIAL_CAPACITY];
+        this.rightSiblings = new int[INITIAL_CAPACITY];
+        this.firstItems = new int[INITIAL_CAPACITY];
+        this.nodeProrationFixedDays = new int[INITIAL_CAPACITY];
+        this.items = new Item[INITIAL_CAPACITY];
+        this.nextItems = new int[INITIAL_CAPACITY];
+        this.nbNodes = 0;
+        this.nbItems = 0;
+
+        newNode(null, null, NONE, prorationFixedDays);
+    }
+
+    @Override
+    public void addExistingItem(final Item item) {
+        addNode(ROOT, item, prorationFixedDays, null);
+    }
+
+    @Override
+    public void addAdjustment(final InvoiceItem item) {
+        final UUID targetId = item.getLinkedItemId();
+
+        Item targetItem = null;
+        for (int node = ROOT; node != NONE && targetItem == null; node = nextInPreOrder(node, ROOT)) {
+            targetItem = findItem(node, targetId);
+        }
+        Preconditions.checkNotNull(targetItem, "Unable to find item interval for id='%s', tree=%s", targetId, this);
+
+        final BigDecimal adjustmentAmount = item.getAmount().negate();
+        targetItem.incrementAdjustedAmount(adjustmentAmount);
+    }
+
+    @Override
+    public void buildForExistingItems(final Collection<Item> output, final UUID targetInvoiceId) {
+        // Sanity on the tree
+        validateTree();
+        build(output, targetInvoiceId, false);
+    }
+
+    @Override
+    public List<Item> addProposedItem(final Item item) {
+        final List<Item> keptItems = new LinkedList<>();
+        addNode(ROOT, item, prorationFixedDays, keptItems);
+        return keptItems;
+    }
+
+    @Override
+    public void mergeExistingAndProposed(final Collection<Item> output, final UUID targetInvoiceId) {
+        build(output, targetInvoiceId, true);
+    }
+
+    @Override
+    public ItemsNodeInterval getRoot() {
+        final ItemsNodeInterval root = new ItemsNodeInterval(prorationFixedDays);
+        root.start = startDates[ROOT];
+        root.end = endDates[ROOT];
+        linkChildren(ROOT, root);
+        return root;
+    }
+
+    private void linkChildren(final int node, final ItemsNodeInterval nodeInterval) {
+        NodeInterval prevChildInterval = null;
+        for (int child = leftChildren[node]; child != NONE; child = rightSiblings[child]) {
+            final ItemsNodeInterval childInterval = new ItemsNodeInterval(nodeInterval, startDates[child], endDates[child], nodeProrationFixedDays[child]);
+            for (int i = firstItems[child]; i != NONE; i = nextItems[i]) {
+                childInterval.getItemsInterval().add(items[i]);
+            }
+            if (prevChildInterval == null) {
+                nodeInterval.leftChild = childInterval;
+            } else {
+                prevChildInterval.rightSibling = childInterval;
+            }
+            prevChildInterval = childInterval;
+            linkChildren(child, childInterval);
+        }
+    }
+
+    //
+    // Insertion, see NodeInterval#addNode: when keptItems is null, we add an existing item, otherwise a proposed item
+    //
+    private boolean addNode(final int node, final Item newItem, final int newItemProrationFixedDays, @Nullable final List<Item> keptItems) {
+        final int newStartDay = toEpochDay(newItem.getStartDate());
+        final int newEndDay = toEpochDay(newItem.getEndDate());
+
+        // We've found a exact node matching that new interval
+        if (node != ROOT && newStartDay == startDays[node] && newEndDay == endDays[node]) {
+            return onExistingNode(node, newItem, keptItems);
+        }
+
+        // Initialize (or update) the root interval
+        if (node == ROOT) {
+            if (startDates[ROOT] == null || startDays[ROOT] > newStartDay) {
+                startDates[ROOT] = newItem.getStartDate();
+                startDays[ROOT] = newStartDay;
+            }
+            if (endDates[ROOT] == null || endDays[ROOT] < newEndDay) {
+                endDates[ROOT] = newItem.getEndDate();
+                endDays[ROOT] = newEndDay;
+            }
+        }
+
+        int prevChild = NONE;
+        int curChild = leftChildren[node];
+        while (curChild != NONE) {
+            if (newStartDay < startDays[curChild]) {
+                if (newEndDay <= startDays[curChild]) {
+                    // New interval is strictly prior curChild, insert before
+                    return insertNode(node, prevChild, curChild, newItem, newItemProrationFixedDays, keptItems);
+                } else {
+                    // New interval starts prior curChild, but overlaps, split on the curChild#start
+                    final Item[] newItems = split(newItem, startDates[curChild]);
+                    addNode(node, newItems[0], 0, keptItems);
+                    return addNode(node, newItems[1], 0, keptItems);
+                }
+            } else if (newEndDay <= endDays[curChild]) {
+                // New interval is contained within curChild, recurse to have curChild become the parent
+                return addNode(curChild, newItem, newItemProrationFixedDays, keptItems);
+            } else if (newStartDay < endDays[curChild]) {
+                // New interval starts after curChild#start, but overlaps curChild, split on the curChild#end
+                final Item[] newItems = split(newItem, endDates[curChild]);
+                addNode(node, newItems[0], 0, keptItems);
+                return addNode(node, newItems[1], 0, keptItems);
+            } else {
+                // Go to next child and try again...
+                prevChild = curChild;
+                curChild = rightSiblings[curChild];
+            }
+        }
+        // We reached to end, this node belongs after the last child, insert
+        return insertNode(node, prevChild, NONE, newItem, newItemProrationFixedDays, keptItems);
+    }
+
+    private Item[] split(final Item item, final LocalDate splitDate) {
+        Preconditions.checkState(splitDate.compareTo(item.getStartDate()) > 0 && splitDate.compareTo(item.getEndDate()) < 0,
+                                 String.format("Unexpected item split with startDate='%s' and endDate='%s', splitDate='%s'", item.getStartDate(), item.getEndDate(), splitDate));
+        return item.split(splitDate);
+    }
+
+    private boolean insertNode(final int parent, final int prevNode, final int nextNode, final Item newItem, final int newItemProrationFixedDays, @Nullable final List<Item> keptItems) {
+        if (keptItems != null && !shouldInsertProposedNode(parent, newItem, keptItems)) {
+            return false;
+        }
+
+        final int newNode = newNode(newItem.getStartDate(), newItem.getEndDate(), parent, newItemProrationFixedDays);
+        addItem(newNode, newItem);
+        if (prevNode == NONE) {
+            leftChildren[parent] = newNode;
+        } else {
+            rightSiblings[prevNode] = newNode;
+        }
+        rightSiblings[newNode] = nextNode;
+        return true;
+    }
+
+    // See ItemsNodeInterval#addExistingItem and ItemsNodeInterval#addProposedItem
+    private boolean onExistingNode(final int existingNode, final Item newItem, @Nullable final List<Item> keptItems) {
+        if (keptItems == null) {
+            // There is no new node added but instead we just populated the list of items for the already existing node
+            addItem(existingNode, newItem);
+            return false;
+        }
+
+        // If we receive a new proposed that is the same kind as the reversed existing (current node),
+        // we match existing and proposed. If not, we keep the proposed item as-is outside of the tree.
+        if (isSameKind(existingNode, newItem)) {
+            Preconditions.checkState((newItem.getAction() == ItemAction.ADD), "item.getAction != ADD");
+            Preconditions.checkState(getNbItems(existingNode) == 1, "items.size() != 1");
+            Preconditions.checkState((items[firstItems[existingNode]].getAction() == ItemAction.CANCEL), "item.get(0).getAction() != CANCEL");
+            firstItems[existingNode] = NONE;
+            return true;
+        } else {
+            keptItems.add(newItem);
+            return false;
+        }
+    }
+
+    private boolean shouldInsertProposedNode(final int insertionNode, final Item newItem, final List<Item> keptItems) {
+        // If this new node is about to be inserted at the root level, this means the proposed item overlaps any
+        // existing item. We keep these as-is, outside of the tree: they will become part of the resulting list
+        // (unless the interval is empty).
+        if (insertionNode == ROOT) {
+            if (!newItem.getStartDate().equals(newItem.getEndDate())) {
+                keptItems.add(newItem);
+            }
+            return false;
+        }
+
+        // If we receive a new proposed that is the same kind as the reversed existing (parent node),
+        // we want to insert it to generate a piece of repair. If not, we keep the proposed item as-is outside of the tree.
+        final boolean result = isSameKind(insertionNode, newItem);
+        if (!result) {
+            keptItems.add(newItem);
+        }
+        return result;
+    }
+
+    private boolean isSameKind(final int node, final Item item) {
+        Preconditions.checkState(getNbItems(node) == 1, "Expected existing node to have only one item");
+        return items[firstItems[node]].isSameKind(item);
+    }
+
+    //
+    // Build, see ItemsNodeInterval#build
+    //
+    private void build(final Collection<Item> output, final UUID targetInvoiceId, final boolean mergeMode) {
+        final List<Item> tmpOutput = new LinkedList<Item>(output);
+        output.clear();
+        build(ROOT, tmpOutput, targetInvoiceId, mergeMode);
+        ItemsNodeInterval.joinSplitItems(tmpOutput, output);
+    }
+
+    private void build(final int node, final List<Item> output, final UUID targetInvoiceId, final boolean mergeMode) {
+        if (leftChildren[node] == NONE) {
+            buildForInterval(node, null, null, null, output, mergeMode);
+            return;
+        }
+
+        LocalDate curDate = startDates[node];
+        int curDay = startDays[node];
+        for (int curChild = leftChildren[node]; curChild != NONE; curChild = rightSiblings[curChild]) {
+            if (startDays[curChild] > curDay) {
+                buildForInterval(node, curDate, startDates[curChild], targetInvoiceId, output, mergeMode);
+            }
+            build(curChild, output, targetInvoiceId, mergeMode);
+            // Note that skip to child endDate, meaning that we always consider the child [start end]
+            curDate = endDates[curChild];
+            curDay = endDays[curChild];
+        }
+
+        // Finally if there is a hole at the end, we build the missing piece from ourselves
+        if (curDay < endDays[node]) {
+            buildForInterval(node, curDate, endDates[node], targetInvoiceId, output, mergeMode);
+        }
+    }
+
+    // See ItemsInterval#createNewItem
+    private void buildForInterval(final int node, @Nullable final LocalDate startDate, @Nullable final LocalDate endDate, @Nullable final UUID targetInvoiceId, final List<Item> output, final boolean mergeMode) {
+        final Item item = mergeMode ? getResultingCancelItem(node) : getResultingAddItem(node);
+        if (item == null) {
+            return;
+        }
+        if (startDate == null || endDate == null || targetInvoiceId == null) {
+            output.add(item);
+            return;
+        }
+
+        // Prorate (build phase) or repair (merge phase) this item, as needed
+        final InvoiceItem proratedInvoiceItem = item.toProratedInvoiceItem(startDate, endDate);
+        // Keep track of the repaired amount for this item
+        item.incrementCurrentRepairedAmount(proratedInvoiceItem.getAmount().abs());
+        output.add(new Item(proratedInvoiceItem, targetInvoiceId, item.getAction(), nodeProrationFixedDays[node]));
+    }
+
+    private Item getResultingCancelItem(final int node) {
+        Preconditions.checkState(getNbItems(node) <= 1, "Too many items=%s", getItemsAsString(node));
+        return findItem(node, ItemAction.CANCEL);
+    }
+
+    // See ItemsInterval#getResulting_ADD_Item
+    private Item getResultingAddItem(final int node) {
+        //
+        // At this point we pruned the items so that we can have either:
+        // - 2 items (ADD + CANCEL)
+        // - 1 ADD item, simple enough we return it
+        // - 1 CANCEL, there is nothing to return but the period will be ignored by the parent
+        //
+        final int nbItems = getNbItems(node);
+        Preconditions.checkState(nbItems <= 2, "Double billing detected: %s", getItemsAsString(node));
+        Preconditions.checkState(getNbItems(node, ItemAction.ADD) <= 1, "Double billing detected: %s", getItemsAsString(node));
+
+        final Item item = findItem(node, ItemAction.ADD);
+        if (item == null) {
+            return null;
+        }
+
+        // Double billing sanity check across nodes
+        final Set<UUID> addItemsCancelled = new HashSet<>();
+        final Item cancelItem = findItem(node, ItemAction.CANCEL);
+        Item result = item;
+        if (cancelItem != null) {
+            Preconditions.checkState(cancelItem.getLinkedId() != null, "Invalid CANCEL item=%s", cancelItem);
+            if (cancelItem.getLinkedId().equals(item.getId())) {
+                // Cancelling pair, we don't return anything
+                result = null;
+            } else {
+                addItemsCancelled.add(cancelItem.getLinkedId());
+            }
+        }
+        final Set<UUID> addItemsToBeCancelled = new HashSet<>();
+        for (int parent = parents[node]; parent != NONE; parent = parents[parent]) {
+            final Item parentAddItem = getResultingAddItem(parent);
+            if (parentAddItem != null) {
+                Preconditions.checkState(parentAddItem.getId() != null, "Invalid ADD item=%s", parentAddItem);
+                addItemsToBeCancelled.add(parentAddItem.getId());
+
+                // Old behavior compatibility for full item adjustment (Temp code should go away as move in time)
+                // discard as double billing potential old full item adj data that looks like REPAIR
+                if (parentAddItem.isFullyAdjusted()) {
+                    addItemsCancelled.add(parentAddItem.getId());
+                }
+            }
+
+            final Item parentCancelItem = findItem(parent, ItemAction.CANCEL);
+            if (parentCancelItem != null) {
+                Preconditions.checkState(parentCancelItem.getLinkedId() != null, "Invalid CANCEL item=%s", parentCancelItem);
+                addItemsCancelled.add(parentCancelItem.getLinkedId());
+            }
+        }
+        Preconditions.checkState(addItemsCancelled.equals(addItemsToBeCancelled), "Double billing detected: addItemsCancelled=%s, addItemsToBeCancelled=%s", addItemsCancelled, addItemsToBeCancelled);
+
+        return result;
+    }
+
+    //
+    // This is not strictly necessary -- just there to add a layer of sanity on what our tree contains (see ItemsNodeInterval#validateTree)
+    //
+    private void validateTree() {
+        for (int node = nextInPreOrder(ROOT, ROOT); node != NONE; node = nextInPreOrder(node, ROOT)) {
+            final int leftChild = leftChildren[node];
+
+            // The items are looked up by index, as the list of the node can change below
+            final int firstItem = firstItems[node];
+            for (int i = firstItem; i != NONE; i = nextItems[i]) {
+                final Item curCancelItem = items[i];
+                if (curCancelItem.getAction() != ItemAction.CANCEL) {
+                    continue;
+                }
+
+                // Sanity: cancelled items should only be in the same node or parents
+                if (leftChild != NONE) {
+                    for (int child = leftChild; child != NONE; child = nextInPreOrder(child, leftChild)) {
+                        final Item cancelledItem = findAddItemWithId(child, curCancelItem.getLinkedId());
+                        Preconditions.checkState(cancelledItem == null, "Invalid cancelledItem=%s for cancelItem=%s", cancelledItem, curCancelItem);
+                    }
+                }
+
+                // Sanity: make sure the CANCEL item points to an ADD item
+                boolean hasCancelledItem = false;
+                for (int cur = ROOT; cur != NONE && !hasCancelledItem; cur = nextInPreOrder(cur, ROOT)) {
+                    hasCancelledItem = findAddItemWithId(cur, curCancelItem.getLinkedId()) != null;
+                }
+                Preconditions.checkState(hasCancelledItem, "Missing cancelledItem for cancelItem=%s", curCancelItem);
+            }
+
+            for (int i = firstItem; i != NONE; i = nextItems[i]) {
+                final Item curAddItem = items[i];
+                if (curAddItem.getAction() != ItemAction.ADD) {
+                    continue;
+                }
+
+                // Sanity: verify the item hasn't been repaired too much
+                if (leftChild != NONE) {
+                    BigDecimal totalRepaired = BigDecimal.ZERO;
+                    for (int child = leftChild; child != NONE; child = nextInPreOrder(child, leftChild)) {
+                        final Item cancellingItem = findCancelItemLinkedTo(child, curAddItem.getId());
+                        if (cancellingItem != null && curAddItem.getId().equals(cancellingItem.getLinkedId())) {
+                            totalRepaired = totalRepaired.add(cancellingItem.getAmount());
+                        }
+                    }
+                    Preconditions.checkState(curAddItem.getNetAmount().compareTo(totalRepaired) >= 0, "Item %s overly repaired", curAddItem);
+                }
+
+                // Old behavior compatibility for full item adjustment (Temp code should go away as move in time)
+                // If we see a fully adjusted item and an existing child (one ADD item), we discard the fully adjusted item
+                // in such a way that we are left with the child that will look like the proposed and nothing will be generated.
+                if (curAddItem.isFullyAdjusted() && leftChild != NONE) {
+                    if (getNbItems(leftChild) == 1 && items[firstItems[leftChild]].getAction() == ItemAction.ADD) {
+                        removeItem(node, curAddItem);
+                    }
+                }
+            }
+        }
+    }
+
+    //
+    // Walk: the subtree of subtreeRoot (subtreeRoot included, but not its siblings) is visited depth first, like NodeInterval#walkTree
+    //
+    private int nextInPreOrder(final int node, final int subtreeRoot) {
+        if (leftChildren[node] != NONE) {
+            return leftChildren[node];
+        }
+        int cur = node;
+        while (cur != subtreeRoot) {
+            if (rightSiblings[cur] != NONE) {
+                return rightSiblings[cur];
+            }
+            cur = parents[cur];
+        }
+        return NONE;
+    }
+
+    //
+    // Items of a node
+    //
+    private void addItem(final int node, final Item item) {
+        if (nbItems == items.length) {
+            items = Arrays.copyOf(items, nbItems * 2);
+            nextItems = Arrays.copyOf(nextItems, nbItems * 2);
+        }
+        final int newItem = nbItems++;
+        items[newItem] = item;
+        nextItems[newItem] = NONE;
+
+        if (firstItems[node] == NONE) {
+            firstItems[node] = newItem;
+        } else {
+            int lastItem = firstItems[node];
+            while (nextItems[lastItem] != NONE) {
+                lastItem = nextItems[lastItem];
+            }
+            nextItems[lastItem] = newItem;
+        }
+    }
+
+    private void removeItem(final int node, final Item item) {
+        int prevItem = NONE;
+        for (int i = firstItems[node]; i != NONE; i = nextItems[i]) {
+            if (items[i].equals(item)) {
+                if (prevItem == NONE) {
+                    firstItems[node] = nextItems[i];
+                } else {
+                    nextItems[prevItem] = nextItems[i];
+                }
+                return;
+            }
+            prevItem = i;
+        }
+    }
+
+    private int getNbItems(final int node) {
+        int result = 0;
+        for (int i = firstItems[node]; i != NONE; i = nextItems[i]) {
+            result++;
+        }
+        return result;
+    }
+
+    private int getNbItems(final int node, final ItemAction action) {
+        int result = 0;
+        for (int i = firstItems[node]; i != NONE; i = nextItems[i]) {
+            if (items[i].getAction() == action) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    private Item findItem(final int node, final ItemAction action) {
+        for (int i = firstItems[node]; i != NONE; i = nextItems[i]) {
+            if (items[i].getAction() == action) {
+                return items[i];
+            }
+        }
+        return null;
+    }
+
+    private Item findItem(final int node, final UUID targetId) {
+        Item result = null;
+        for (int i = firstItems[node]; i != NONE; i = nextItems[i]) {
+            if (items[i].getId().equals(targetId)) {
+                Preconditions.checkState(result == null, "Too many items matching id='%s' among items='%s'", targetId, getItemsAsString(node));
+                result = items[i];
+            }
+        }
+        return result;
+    }
+
+    private Item findAddItemWithId(final int node, final UUID id) {
+        for (int i = firstItems[node]; i != NONE; i = nextItems[i]) {
+            if (items[i].getAction() == ItemAction.ADD && items[i].getId().equals(id)) {
+                return items[i];
+            }
+        }
+        return null;
+    }
+
+    private Item findCancelItemLinkedTo(final int node, final UUID targetId) {
+        for (int i = firstItems[node]; i != NONE; i = nextItems[i]) {
+            if (items[i].getAction() == ItemAction.CANCEL && items[i].getLinkedId().equals(targetId)) {
+                return items[i];
+            }
+        }
+        return null;
+    }
+
+    private String getItemsAsString(final int node) {
+        final List<Item> result = new ArrayList<>();
+        for (int i = firstItems[node]; i != NONE; i = nextItems[i]) {
+            result.add(items[i]);
+        }
+        return result.toString();
+    }
+
+    //
+    // Nodes
+    //
+    private int newNode(@Nullable final LocalDate startDate, @Nullable final LocalDate endDate, final int parent, final int nodeProrationFixedDays) {
+        if (nbNodes == startDays.length) {
+            final int newCapacity = nbNodes * 2;
+            startDays = Arrays.copyOf(startDays, newCapacity);
+            endDays = Arrays.copyOf(endDays, newCapacity);
+            startDates = Arrays.copyOf(startDates, newCapacity);
+            endDates = Arrays.copyOf(endDates, newCapacity);
+            parents = Arrays.copyOf(parents, newCapacity);
+            leftChildren = Arrays.copyOf(leftChildren, newCapacity);
+            rightSiblings = Arrays.copyOf(rightSiblings, newCapacity);
+            firstItems = Arrays.copyOf(firstItems, newCapacity);
+            this.nodeProrationFixedDays = Arrays.copyOf(this.nodeProrationFixedDays, newCapacity);
+        }
+        final int node = nbNodes++;
+        startDates[node] = startDate;
+        endDates[node] = endDate;
+        startDays[node] = startDate != null ? toEpochDay(startDate) : 0;
+        endDays[node] = endDate != null ? toEpochDay(endDate) : 0;
+        parents[node] = parent;
+        leftChildren[node] = NONE;
+        rightSiblings[node] = NONE;
+        firstItems[node] = NONE;
+        this.nodeProrationFixedDays[node] = nodeProrationFixedDays;
+        return node;
+    }
+
+    // Days since 1970-01-01 in the proleptic Gregorian calendar (ISO chronology)
+    static int toEpochDay(final LocalDate date) {
+        final int year = date.getYear();
+        final int month = date.getMonthOfYear();
+        final int day = date.getDayOfMonth();
+
+        final int y = month <= 2 ? year - 1 : year;
+        final int era = Math.floorDiv(y, 400);
+        final int yearOfEra = y - era * 400;
+        final int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        final int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    @Override
+    public String toString() {
+        return getRoot().toString();
+    }
+}
@@ -303,12 +303,19 @@ public class ItemsNodeInterval extends NodeInterval {
             }
         });
 
-        //
-        // Join items that were previously split to fit in the tree as necessary.
-        //
+        joinSplitItems(tmpOutput, output);
+    }
+
+    /**
+     * Join items that were previously split to fit in the tree as necessary.
+     *
+     * @param builtItems items built from the tree
+     * @param output     result list of joined items
+     */
+    static void joinSplitItems(final List<Item> builtItems, final Collection<Item> output) {
         // 1. Build a map for each item pointing to a heap of (potential) split items
         final Map<UUID, PriorityQueue<Item>> joinMap = new HashMap<>();
-        for (final Item i : tmpOutput) {
+        for (final Item i : builtItems) {
             PriorityQueue<Item> l = joinMap.get(i.getId());
             if (l == null) {
                 l = new PriorityQueue<>(new Comparator<Item>() {
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.invoice.tree;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.killbill.billing.invoice.api.InvoiceItem;
+
+/**
+ * Interval tree of items used by the SubscriptionItemTree.
+ * <p/>
+ * The tree is first populated with existing items (and adjustments) and built, to get the existing view. It is then
+ * re-created from the flattened (reversed) existing view, and merged with the proposed items to get the resulting items.
+ *
+ * @see ItemsNodeInterval
+ * @see FlatItemsTree
+ */
+public interface ItemsTree {
+
+    /**
+     * Add an existing item in the tree.
+     *
+     * @param item an existing item
+     */
+    void addExistingItem(Item item);
+
+    /**
+     * Add the adjustment amount on the item it is linked to.
+     *
+     * @param item an ITEM_ADJ item
+     */
+    void addAdjustment(InvoiceItem item);
+
+    /**
+     * Build the existing view of the tree.
+     *
+     * @param output          result list of built items
+     * @param targetInvoiceId the new invoice id being generated
+     */
+    void buildForExistingItems(Collection<Item> output, UUID targetInvoiceId);
+
+    /**
+     * Add a proposed item into the (flattened and reversed) tree.
+     *
+     * @param item a proposed item
+     * @return the items which should be kept as-is, outside of the tree
+     */
+    List<Item> addProposedItem(Item item);
+
+    /**
+     * Build the resulting items, once all the proposed items have been added.
+     *
+     * @param output          result list of built items
+     * @param targetInvoiceId the new invoice id being generated
+     */
+    void mergeExistingAndProposed(Collection<Item> output, UUID targetInvoiceId);
+
+    /**
+     * @return the tree, as linked nodes (e.g. to print it)
+     */
+    ItemsNodeInterval getRoot();
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.invoice.tree;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.killbill.billing.invoice.api.InvoiceItem;
+
+/**
+ * ItemsTree made of linked ItemsNodeInterval nodes.
+ */
+public class NodeIntervalItemsTree implements ItemsTree {
+
+    private final ItemsNodeInterval root;
+    private final int prorationFixedDays;
+
+    public NodeIntervalItemsTree(final int prorationFixedDays) {
+        this.root = new ItemsNodeInterval(prorationFixedDays);
+        this.prorationFixedDays = prorationFixedDays;
+    }
+
+    @Override
+    public void addExistingItem(final Item item) {
+        root.addExistingItem(new ItemsNodeInterval(root, item, prorationFixedDays));
+    }
+
+    @Override
+    public void addAdjustment(final InvoiceItem item) {
+        root.addAdjustment(item);
+    }
+
+    @Override
+    public void buildForExistingItems(final Collection<Item> output, final UUID targetInvoiceId) {
+        root.buildForExistingItems(output, targetInvoiceId);
+    }
+
+    @Override
+    public List<Item> addProposedItem(final Item item) {
+        final List<Item> result = new ArrayList<>();
+        for (final ItemsNodeInterval cur : root.addProposedItem(new ItemsNodeInterval(root, item, prorationFixedDays))) {
+            result.addAll(cur.getItems());
+        }
+        return result;
+    }
+
+    @Override
+    public void mergeExistingAndProposed(final Collection<Item> output, final UUID targetInvoiceId) {
+        root.mergeExistingAndProposed(output, targetInvoiceId);
+    }
+
+    @Override
+    public ItemsNodeInterval getRoot() {
+        return root;
+    }
+
+    @Override
+    public String toString() {
+        return root.toString();
+    }
+}
@@ -21,9 +21,11 @@ package org.killbill.billing.invoice.tree;
 
 import java.math.BigDecimal;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -46,11 +48,12 @@ public class SubscriptionItemTree {
     private final UUID targetInvoiceId;
     private final UUID subscriptionId;
 
-    private ItemsNodeInterval root;
+    private ItemsTree root;
     private boolean isBuilt = false;
     private boolean isMerged = false;
 
     private int prorationFixedDays;
+    private final boolean useFlatTree;
 
     private static final Comparator<InvoiceItem> INVOICE_ITEM_COMPARATOR = new Comparator<InvoiceItem>() {
         @Override
@@ -74,10 +77,20 @@ public class SubscriptionItemTree {
 
     // targetInvoiceId is the new invoice id being generated
     public SubscriptionItemTree(final UUID subscriptionId, final UUID targetInvoiceId, final int prorationFixedDays) {
+        this(subscriptionId, targetInvoiceId, prorationFixedDays, false);
+    }
+
+    // useFlatTree selects the array based implementation of the tree (see FlatItemsTree), which yields the same items
+    public SubscriptionItemTree(final UUID subscriptionId, final UUID targetInvoiceId, final int prorationFixedDays, final boolean useFlatTree) {
         this.subscriptionId = subscriptionId;
         this.targetInvoiceId = targetInvoiceId;
         this.prorationFixedDays = prorationFixedDays;
-        this.root  = new ItemsNodeInterval(prorationFixedDays);
+        this.useFlatTree = useFlatTree;
+        this.root = createItemsTree();
+    }
+
+    private ItemsTree createItemsTree() {
+        return useFlatTree ? new FlatItemsTree(prorationFixedDays) : new NodeIntervalItemsTree(prorationFixedDays);
     }
 
     /**
@@ -94,12 +107,12 @@ public class SubscriptionItemTree {
                     // Nothing to repair -- https://github.com/killbill/killbill/issues/783
                     existingIgnoredItems.add(invoiceItem);
                 } else {
-                    root.addExistingItem(new ItemsNodeInterval(root, new Item(invoiceItem, targetInvoiceId, ItemAction.ADD, prorationFixedDays), prorationFixedDays));
+                    root.addExistingItem(new Item(invoiceItem, targetInvoiceId, ItemAction.ADD, prorationFixedDays));
                 }
                 break;
 
             case REPAIR_ADJ:
-                root.addExistingItem(new ItemsNodeInterval(root, new Item(invoiceItem, targetInvoiceId, ItemAction.CANCEL, prorationFixedDays), prorationFixedDays));
+                root.addExistingItem(new Item(invoiceItem, targetInvoiceId, ItemAction.CANCEL, prorationFixedDays));
                 break;
 
             case FIXED:
@@ -121,11 +134,15 @@ public class SubscriptionItemTree {
     public void build() {
         Preconditions.checkState(!isBuilt);
 
+        final Set<UUID> existingIgnoredItemIds = new HashSet<UUID>();
+        if (!pendingItemAdj.isEmpty()) {
+            for (final InvoiceItem item : existingIgnoredItems) {
+                existingIgnoredItemIds.add(item.getId());
+            }
+        }
         for (final InvoiceItem item : pendingItemAdj) {
             // If the linked item was ignored, ignore this adjustment too
-            final boolean isLinkedItemExist = existingIgnoredItems
-                    .stream()
-                    .anyMatch(input -> input.getId().equals(item.getLinkedItemId()));
+            final boolean isLinkedItemExist = existingIgnoredItemIds.contains(item.getLinkedItemId());
             if (!isLinkedItemExist) {
                 root.addAdjustment(item);
             }
@@ -149,10 +166,10 @@ public class SubscriptionItemTree {
             build();
         }
 
-        root = new ItemsNodeInterval(prorationFixedDays);
+        root = createItemsTree();
         for (final Item item : items) {
             Preconditions.checkState(item.getAction() == ItemAction.ADD);
-            root.addExistingItem(new ItemsNodeInterval(root, new Item(item, reverse ? ItemAction.CANCEL : ItemAction.ADD), prorationFixedDays));
+            root.addExistingItem(new Item(item, reverse ? ItemAction.CANCEL : ItemAction.ADD));
         }
         items.clear();
         isBuilt = false;
@@ -175,10 +192,7 @@ public class SubscriptionItemTree {
         switch (invoiceItem.getInvoiceItemType()) {
             case RECURRING:
                 // merged means we've either matched the proposed to an existing, or triggered a repair
-                final List<ItemsNodeInterval> newNodes = root.addProposedItem(new ItemsNodeInterval(root, new Item(invoiceItem, targetInvoiceId, ItemAction.ADD, prorationFixedDays), prorationFixedDays));
-                for (final ItemsNodeInterval cur : newNodes) {
-                    items.addAll(cur.getItems());
-                }
+                items.addAll(root.addProposedItem(new Item(invoiceItem, targetInvoiceId, ItemAction.ADD, prorationFixedDays)));
                 break;
 
             case FIXED:
@@ -292,6 +306,6 @@ public class SubscriptionItemTree {
 
     @VisibleForTesting
     ItemsNodeInterval getRoot() {
-        return root;
+        return root.getRoot();
     }
 }
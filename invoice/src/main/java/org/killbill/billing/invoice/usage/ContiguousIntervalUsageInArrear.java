@@ -52,7 +52,9 @@ import org.killbill.billing.invoice.api.InvoiceItem;
 import org.killbill.billing.invoice.api.InvoiceItemType;
 import org.killbill.billing.invoice.generator.BillingIntervalDetail;
 import org.killbill.billing.invoice.generator.InvoiceWithMetadata.TrackingRecordId;
+import org.killbill.billing.invoice.generator.TrackingIds;
 import org.killbill.billing.invoice.model.UsageInvoiceItem;
+import org.killbill.billing.invoice.usage.RawUsageIndex.SubscriptionRawUsage;
 import org.killbill.billing.invoice.usage.details.UsageInArrearAggregate;
 import org.killbill.billing.junction.BillingEvent;
 import org.killbill.billing.subscription.api.SubscriptionBaseTransitionType;
@@ -91,8 +93,8 @@ public abstract class ContiguousIntervalUsageInArrear {
 
     protected final Usage usage;
     protected final Set<String> unitTypes;
-    protected final List<RawUsageRecord> rawSubscriptionUsage;
-    protected final Set<TrackingRecordId> allExistingTrackingIds;
+    protected final SubscriptionRawUsage rawSubscriptionUsage;
+    protected final TrackingIds allExistingTrackingIds;
     protected final LocalDate targetDate;
     protected final UUID accountId;
     protected final UUID invoiceId;
@@ -146,8 +148,8 @@ public abstract class ContiguousIntervalUsageInArrear {
         this.accountId = accountId;
         this.invoiceId = invoiceId;
         this.unitTypes = usage.getUsageType() == UsageType.CAPACITY ? getCapacityInArrearUnitTypes(usage) : getConsumableInArrearUnitTypes(usage);
-        this.rawSubscriptionUsage = rawSubscriptionUsage;
-        this.allExistingTrackingIds = existingTrackingIds;
+        this.rawSubscriptionUsage = SubscriptionRawUsage.of(rawSubscriptionUsage);
+        this.allExistingTrackingIds = TrackingIds.ofExistingRecords(existingTrackingIds);
         this.targetDate = targetDate;
         this.rawUsageStartDate = rawUsageStartDate;
         this.invoiceConfig = invoiceConfig;
@@ -281,7 +283,7 @@ public abstract class ContiguousIntervalUsageInArrear {
         Preconditions.checkState(isBuilt.get(), "#computeMissingItemsAndNextNotificationDate(): isBuilt");
 
         if (transitionTimes.size() < 2) {
-            return new UsageInArrearItemsAndNextNotificationDate(Collections.emptyList(), Collections.emptySet(), computeNextNotificationDate());
+            return new UsageInArrearItemsAndNextNotificationDate(Collections.emptyList(), new TrackingIds(invoiceId), computeNextNotificationDate());
         }
 
         final List<InvoiceItem> result = new LinkedList<>();
@@ -289,13 +291,10 @@ public abstract class ContiguousIntervalUsageInArrear {
         final RolledUpUnitsWithTracking allUsageWithTracking = getRolledUpUsage();
         final List<RolledUpUsageWithMetadata> allUsage = allUsageWithTracking.getUsage();
 
-        final Set<TrackingRecordId> allTrackingIds = allUsageWithTracking.getTrackingIds();
+        final TrackingIds allTrackingIds = allUsageWithTracking.getTrackingIds();
 
-        final Set<TrackingRecordId> existingTrackingIds = extractTrackingIds(allExistingTrackingIds);
-
-        final Set<TrackingRecordId> newTrackingIds = allTrackingIds.stream()
-                .filter(allRecord -> existingTrackingIds.stream().noneMatch(existingRecord -> existingRecord.isSimilarRecord(allRecord)))
-                .collect(Collectors.toUnmodifiableSet());
+        // Records are grouped per subscription, so only the existing records of that subscription are looked at
+        final TrackingIds newTrackingIds = allTrackingIds.withoutSimilarRecords(allExistingTrackingIds);
 
         // Each RolledUpUsage 'ru' is for a specific time period and across all units
         for (final RolledUpUsageWithMetadata ru : allUsage) {
@@ -396,30 +395,24 @@ public abstract class ContiguousIntervalUsageInArrear {
     RolledUpUnitsWithTracking getRolledUpUsage() throws InvoiceApiException {
 
         final List<RolledUpUsageWithMetadata> result = new ArrayList<>();
-        final Set<TrackingRecordId> trackingIds = new HashSet<>();
+        final TrackingIds trackingIds = new TrackingIds(invoiceId);
 
-        final Iterator<RawUsageRecord> rawUsageIterator = rawSubscriptionUsage.iterator();
-        if (!rawUsageIterator.hasNext()) {
-            return new RolledUpUnitsWithTracking(getEmptyRolledUpUsage(), Collections.emptySet());
+        if (rawSubscriptionUsage.isEmpty()) {
+            return new RolledUpUnitsWithTracking(getEmptyRolledUpUsage(), trackingIds);
         }
 
         //
         // Skip all items before our first transition date
         //
-        // 'prevRawUsage' keeps track of first unconsumed raw usage element
-        RawUsageRecord prevRawUsage = null;
-        while (rawUsageIterator.hasNext()) {
-            final RawUsageRecord curRawUsage = rawUsageIterator.next();
-            if (curRawUsage.getDate().compareTo(transitionTimes.get(0).getDate()) >= 0) {
-                prevRawUsage = curRawUsage;
-                break;
-            }
-        }
+        // 'prevRawUsage' keeps track of the index of the first unconsumed raw usage element (-1 if none)
+        int prevRawUsage = rawSubscriptionUsage.getFirstIndexOnOrAfter(transitionTimes.get(0).getDate().getMillis());
 
         // Optimize path where all raw usage items are outside or our transitionTimes range
-        if (prevRawUsage == null || prevRawUsage.getDate().compareTo(transitionTimes.get(transitionTimes.size() - 1).getDate()) > 0) {
-            return new RolledUpUnitsWithTracking(getEmptyRolledUpUsage(), Collections.emptySet());
+        if (prevRawUsage == rawSubscriptionUsage.size() || rawSubscriptionUsage.getDateMillis(prevRawUsage) > transitionTimes.get(transitionTimes.size() - 1).getDate().getMillis()) {
+            return new RolledUpUnitsWithTracking(getEmptyRolledUpUsage(), trackingIds);
         }
+        // Index of the next raw usage element to look at
+        int nextRawUsage = prevRawUsage + 1;
 
         //
         // Loop through each interval [prevDate, curDate) and consume as many rawSubscriptionUsage elements within that range
@@ -431,6 +424,7 @@ public abstract class ContiguousIntervalUsageInArrear {
             final TransitionTime curTransition = transitionTimes.get(i);
 
             final DateTime curDate = curTransition.getDate();
+            final long curDateMillis = curDate.getMillis();
             if (prevDate != null) {
 
                 // Allocate and initialize new perRangeUnitToAmount for this interval and populate with rawSubscriptionUsage items
@@ -440,46 +434,42 @@ public abstract class ContiguousIntervalUsageInArrear {
                 }
 
                 // Start consuming prevRawUsage element if it exists and falls into the range
-                if (prevRawUsage != null) {
+                if (prevRawUsage >= 0) {
+                    final long prevRawUsageDateMillis = rawSubscriptionUsage.getDateMillis(prevRawUsage);
 
                     // Special treatment for final cancellation to make sure we include this usage point as part of the interval and bill for usage reported on cancellation date
                     final boolean isUsageForCancellationDay = i == transitionTimes.size() - 1 &&
                                                               curTransition.getTargetBillingEvent().getTransitionType() == SubscriptionBaseTransitionType.CANCEL &&
-                                                              curDate.compareTo(prevRawUsage.getDate()) == 0;
-
-                    if (prevRawUsage.getDate().compareTo(prevDate) >= 0 &&
-                        (prevRawUsage.getDate().compareTo(curDate) < 0 || isUsageForCancellationDay)) {
-                        final BigDecimal currentAmount = perRangeUnitToAmount.get(prevRawUsage.getUnitType());
-                        final BigDecimal updatedAmount = computeUpdatedAmount(currentAmount, prevRawUsage.getAmount());
-                        perRangeUnitToAmount.put(prevRawUsage.getUnitType(), updatedAmount);
-                        trackingIds.add(new TrackingRecordId(prevRawUsage.getTrackingId(), invoiceId, prevRawUsage.getSubscriptionId(), prevRawUsage.getUnitType(), usageClockUtil.toLocalDate(prevRawUsage.getDate(), internalTenantContext)));
-                        prevRawUsage = null;
+                                                              curDateMillis == prevRawUsageDateMillis;
+
+                    if (prevRawUsageDateMillis >= prevDate.getMillis() &&
+                        (prevRawUsageDateMillis < curDateMillis || isUsageForCancellationDay)) {
+                        consumeRawUsage(prevRawUsage, perRangeUnitToAmount, trackingIds);
+                        prevRawUsage = -1;
                     }
                 }
 
                 //
-                // If prevRawUsage != null it means that our first and current rawSubscriptionUsage does not fall into that interval; we can't
+                // If prevRawUsage >= 0 it means that our first and current rawSubscriptionUsage does not fall into that interval; we can't
                 // just 'continue' as we need to correctly set next 'prevDate'
-                // If prevRawUsage == null, then consume as much as we can for that interval. Note that the stop condition requires consuming
+                // If prevRawUsage < 0, then consume as much as we can for that interval. Note that the stop condition requires consuming
                 // one additional element which will become the prevRawUsage for the next interval.
                 //
-                if (prevRawUsage == null) {
-                    while (rawUsageIterator.hasNext()) {
-                        final RawUsageRecord curRawUsage = rawUsageIterator.next();
+                if (prevRawUsage < 0) {
+                    while (nextRawUsage < rawSubscriptionUsage.size()) {
+                        final int curRawUsage = nextRawUsage++;
+                        final long curRawUsageDateMillis = rawSubscriptionUsage.getDateMillis(curRawUsage);
                         final boolean isUsageForCancellationDay = i == transitionTimes.size() - 1 &&
                                                                   curTransition.getTargetBillingEvent().getTransitionType() == SubscriptionBaseTransitionType.CANCEL &&
-                                                                  curDate.compareTo(curRawUsage.getDate()) == 0;
+                                                                  curDateMillis == curRawUsageDateMillis;
                         // Special treatment for final cancellation to make sure we include this usage point as part of the interval and bill for usage reported on cancellation date
                         if (!isUsageForCancellationDay &&
-                        		curRawUsage.getDate().compareTo(curDate) >= 0) {
+                            curRawUsageDateMillis >= curDateMillis) {
                             prevRawUsage = curRawUsage;
                             break;
                         }
 
-                        final BigDecimal currentAmount = perRangeUnitToAmount.get(curRawUsage.getUnitType());
-                        final BigDecimal updatedAmount = computeUpdatedAmount(currentAmount, curRawUsage.getAmount());
-                        perRangeUnitToAmount.put(curRawUsage.getUnitType(), updatedAmount);
-                        trackingIds.add(new TrackingRecordId(curRawUsage.getTrackingId(), invoiceId, curRawUsage.getSubscriptionId(), curRawUsage.getUnitType(), usageClockUtil.toLocalDate(curRawUsage.getDate(), internalTenantContext)));
+                        consumeRawUsage(curRawUsage, perRangeUnitToAmount, trackingIds);
                     }
                 }
 
@@ -498,13 +488,7 @@ public abstract class ContiguousIntervalUsageInArrear {
                             } else {
                                 log.warn("Ignoring unit type {} for subscription {} (not defined in the catalog effective Date {})", unitType, curTransition.getTargetBillingEvent().getSubscriptionId(), curTransition.getTargetBillingEvent().getCatalogEffectiveDate());
                                 // Make sure to remove the associated tracking ids
-                                final Iterator<TrackingRecordId> itr = trackingIds.iterator();
-                                while (itr.hasNext()) {
-                                    final TrackingRecordId t = itr.next();
-                                    if (unitType.equals(t.getUnitType())) {
-                                        itr.remove();
-                                    }
-                                }
+                                trackingIds.removeUnitType(unitType);
                             }
                         } else if (unitTypes.contains(unitType)) { // Other usage type not for us -- safely ignore
                             rolledUpUnits.add(new DefaultRolledUpUnit(unitType, entry.getValue()));
@@ -519,6 +503,15 @@ public abstract class ContiguousIntervalUsageInArrear {
         return new RolledUpUnitsWithTracking(result, trackingIds);
     }    
 
+    private void consumeRawUsage(final int index, final Map<String, BigDecimal> perRangeUnitToAmount, final TrackingIds trackingIds) {
+        final RawUsageRecord rawUsage = rawSubscriptionUsage.get(index);
+        final String unitType = rawSubscriptionUsage.getUnitType(index);
+        final BigDecimal currentAmount = perRangeUnitToAmount.get(unitType);
+        final BigDecimal updatedAmount = computeUpdatedAmount(currentAmount, rawUsage.getAmount());
+        perRangeUnitToAmount.put(unitType, updatedAmount);
+        trackingIds.add(rawUsage.getTrackingId(), rawUsage.getSubscriptionId(), unitType, usageClockUtil.toLocalDate(rawUsage.getDate(), internalTenantContext));
+    }
+
     private List<RolledUpUsageWithMetadata> getEmptyRolledUpUsage() {
         final List<RolledUpUsageWithMetadata> result = new ArrayList<RolledUpUsageWithMetadata>();
 
@@ -553,13 +546,6 @@ public abstract class ContiguousIntervalUsageInArrear {
         }
     }
 
-    private Set<TrackingRecordId> extractTrackingIds(final Set<TrackingRecordId> input) {
-        return input.stream()
-                .filter(trackingRecordId -> trackingRecordId.getSubscriptionId().equals(getSubscriptionId()))
-                .collect(Collectors.toUnmodifiableSet());
-
-    }
-
     /**
      * @param filteredUsageForInterval the list of invoiceItem to consider
      * @return the price amount that was already billed for that period and usage section (across unitTypes)
@@ -673,9 +659,9 @@ public abstract class ContiguousIntervalUsageInArrear {
     public static class RolledUpUnitsWithTracking {
 
         private final List<RolledUpUsageWithMetadata> usage;
-        private final Set<TrackingRecordId> trackingIds;
+        private final TrackingIds trackingIds;
 
-        public RolledUpUnitsWithTracking(final List<RolledUpUsageWithMetadata> usage, final Set<TrackingRecordId> trackingIds) {
+        public RolledUpUnitsWithTracking(final List<RolledUpUsageWithMetadata> usage, final TrackingIds trackingIds) {
             this.usage = usage;
             this.trackingIds = trackingIds;
         }
@@ -684,7 +670,7 @@ public abstract class ContiguousIntervalUsageInArrear {
             return usage;
         }
 
-        public Set<TrackingRecordId> getTrackingIds() {
+        public TrackingIds getTrackingIds() {
             return trackingIds;
         }
     }
@@ -693,9 +679,9 @@ public abstract class ContiguousIntervalUsageInArrear {
 
         private final List<InvoiceItem> invoiceItems;
         private final LocalDate nextNotificationDate;
-        private final Set<TrackingRecordId> trackingIds;
+        private final TrackingIds trackingIds;
 
-        public UsageInArrearItemsAndNextNotificationDate(final List<InvoiceItem> invoiceItems, final Set<TrackingRecordId> trackingIds, final LocalDate nextNotificationDate) {
+        public UsageInArrearItemsAndNextNotificationDate(final List<InvoiceItem> invoiceItems, final TrackingIds trackingIds, final LocalDate nextNotificationDate) {
             this.invoiceItems = invoiceItems;
             this.nextNotificationDate = nextNotificationDate;
             this.trackingIds = trackingIds;
@@ -709,7 +695,7 @@ public abstract class ContiguousIntervalUsageInArrear {
             return nextNotificationDate;
         }
 
-        public Set<TrackingRecordId> getTrackingIds() {
+        public TrackingIds getTrackingIds() {
             return trackingIds;
         }
     }
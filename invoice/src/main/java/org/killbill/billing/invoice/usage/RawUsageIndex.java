@@ -0,0 +1,167 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.invoice.usage;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+import org.killbill.billing.usage.api.RawUsageRecord;
+
+/**
+ * Raw usage of an account, partitioned per subscription and sorted by date.
+ * <p>
+ * The partitioning is done in a single pass over the raw usage records, instead of having each
+ * {@link SubscriptionUsageInArrear} filter the records of the whole account.
+ */
+public class RawUsageIndex {
+
+    private static final Comparator<RawUsageRecord> RAW_USAGE_DATE_COMPARATOR = new Comparator<RawUsageRecord>() {
+        @Override
+        public int compare(final RawUsageRecord o1, final RawUsageRecord o2) {
+            int compared = o1.getDate().compareTo(o2.getDate());
+            if (compared != 0) {
+                return compared;
+            } else {
+                compared = o1.getUnitType().compareTo(o2.getUnitType());
+                if (compared != 0) {
+                    return compared;
+                } else {
+                    return o1.hashCode() != o2.hashCode() ? o1.hashCode() - o2.hashCode() : 0;
+                }
+            }
+        }
+    };
+
+    private final Map<UUID, SubscriptionRawUsage> perSubscriptionRawUsage;
+
+    public RawUsageIndex(final Iterable<RawUsageRecord> rawUsage) {
+        final Map<UUID, List<RawUsageRecord>> perSubscriptionRecords = new HashMap<>();
+        for (final RawUsageRecord cur : rawUsage) {
+            perSubscriptionRecords.computeIfAbsent(cur.getSubscriptionId(), subscriptionId -> new ArrayList<>()).add(cur);
+        }
+
+        // Unit types are shared across subscriptions
+        final Map<String, String> unitTypes = new HashMap<>();
+        this.perSubscriptionRawUsage = new HashMap<>();
+        for (final Map.Entry<UUID, List<RawUsageRecord>> entry : perSubscriptionRecords.entrySet()) {
+            perSubscriptionRawUsage.put(entry.getKey(), new SubscriptionRawUsage(entry.getKey(), entry.getValue(), unitTypes));
+        }
+    }
+
+    public SubscriptionRawUsage getSubscriptionRawUsage(final UUID subscriptionId) {
+        return perSubscriptionRawUsage.getOrDefault(subscriptionId, SubscriptionRawUsage.EMPTY);
+    }
+
+    /**
+     * Raw usage records of a subscription, sorted by date, alongside their dates (epoch millis) and interned unit types.
+     */
+    public static class SubscriptionRawUsage extends AbstractList<RawUsageRecord> implements RandomAccess {
+
+        static final SubscriptionRawUsage EMPTY = new SubscriptionRawUsage(null, List.of(), Map.of());
+
+        // Null when not known (records passed as-is to of(List))
+        private final UUID subscriptionId;
+        private final RawUsageRecord[] records;
+        private final long[] dateMillis;
+        private final String[] unitTypes;
+
+        private SubscriptionRawUsage(@Nullable final UUID subscriptionId, final List<RawUsageRecord> rawUsage, final Map<String, String> unitTypesPool) {
+            this.subscriptionId = subscriptionId;
+            this.records = rawUsage.toArray(new RawUsageRecord[0]);
+            Arrays.sort(records, RAW_USAGE_DATE_COMPARATOR);
+            this.dateMillis = new long[records.length];
+            this.unitTypes = new String[records.length];
+            for (int i = 0; i < records.length; i++) {
+                dateMillis[i] = records[i].getDate().getMillis();
+                unitTypes[i] = unitTypesPool.computeIfAbsent(records[i].getUnitType(), unitType -> unitType);
+            }
+        }
+
+        /**
+         * @param rawSubscriptionUsage raw usage records of a single subscription
+         */
+        public static SubscriptionRawUsage of(final List<RawUsageRecord> rawSubscriptionUsage) {
+            if (rawSubscriptionUsage instanceof SubscriptionRawUsage) {
+                return (SubscriptionRawUsage) rawSubscriptionUsage;
+            }
+            return rawSubscriptionUsage.isEmpty() ? EMPTY : new SubscriptionRawUsage(null, rawSubscriptionUsage, new HashMap<>());
+        }
+
+        /**
+         * @param subscriptionId subscription to extract the raw usage for
+         * @param rawUsage       raw usage records, possibly of other subscriptions too
+         */
+        public static SubscriptionRawUsage of(final UUID subscriptionId, final List<RawUsageRecord> rawUsage) {
+            if (rawUsage instanceof SubscriptionRawUsage && subscriptionId.equals(((SubscriptionRawUsage) rawUsage).subscriptionId)) {
+                return (SubscriptionRawUsage) rawUsage;
+            }
+
+            final List<RawUsageRecord> rawSubscriptionUsage = new ArrayList<>();
+            for (final RawUsageRecord cur : rawUsage) {
+                if (subscriptionId.equals(cur.getSubscriptionId())) {
+                    rawSubscriptionUsage.add(cur);
+                }
+            }
+            return rawSubscriptionUsage.isEmpty() ? EMPTY : new SubscriptionRawUsage(subscriptionId, rawSubscriptionUsage, new HashMap<>());
+        }
+
+        @Override
+        public RawUsageRecord get(final int index) {
+            return records[index];
+        }
+
+        @Override
+        public int size() {
+            return records.length;
+        }
+
+        public long getDateMillis(final int index) {
+            return dateMillis[index];
+        }
+
+        public String getUnitType(final int index) {
+            return unitTypes[index];
+        }
+
+        /**
+         * @return the index of the first record whose date is on or after {@code millis}, or {@link #size()} if there is none
+         */
+        public int getFirstIndexOnOrAfter(final long millis) {
+            int low = 0;
+            int high = dateMillis.length;
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                if (dateMillis[mid] < millis) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -26,6 +26,7 @@ import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nullable;
@@ -36,17 +37,20 @@ import org.joda.time.DateTimeZone;
 import org.joda.time.LocalDate;
 import org.joda.time.Period;
 import org.killbill.billing.callcontext.InternalCallContext;
+import org.killbill.billing.catalog.api.BillingMode;
 import org.killbill.billing.catalog.api.BillingPeriod;
 import org.killbill.billing.catalog.api.Usage;
+import org.killbill.billing.catalog.api.UsageType;
 import org.killbill.billing.invoice.api.DryRunInfo;
 import org.killbill.billing.invoice.api.InvoiceItem;
 import org.killbill.billing.invoice.dao.InvoiceDao;
 import org.killbill.billing.invoice.dao.InvoiceTrackingModelDao;
 import org.killbill.billing.invoice.generator.InvoiceDateUtils;
-import org.killbill.billing.invoice.generator.InvoiceWithMetadata.TrackingRecordId;
+import org.killbill.billing.invoice.generator.TrackingIds;
 import org.killbill.billing.invoice.model.UsageInvoiceItem;
 import org.killbill.billing.payment.api.PluginProperty;
 import org.killbill.billing.usage.InternalUserApi;
+import org.killbill.billing.usage.InternalUserApi.InvoicedTrackingIds;
 import org.killbill.billing.usage.api.RawUsageRecord;
 import org.killbill.commons.utils.annotation.VisibleForTesting;
 import org.killbill.commons.utils.collect.Iterables;
@@ -65,6 +69,7 @@ public class RawUsageOptimizer {
     private final InvoiceConfig config;
     private final InvoiceDao invoiceDao;
     private final Clock clock;
+    private final UsageClockUtil usageClockUtil;
 
     @Inject
     public RawUsageOptimizer(final InvoiceConfig config, final InvoiceDao invoiceDao, final InternalUserApi usageApi, final Clock clock) {
@@ -72,9 +77,10 @@ public class RawUsageOptimizer {
         this.config = config;
         this.invoiceDao = invoiceDao;
         this.clock = clock;
+        this.usageClockUtil = new UsageClockUtil(config);
     }
 
-    public RawUsageOptimizerResult getInArrearUsage(final DateTime firstEventStartDate, final LocalDate targetDate, final Iterable<InvoiceItem> existingUsageItems, final Map<String, Usage> knownUsage, @Nullable final DryRunInfo dryRunInfo, final Iterable<PluginProperty> inputProperties, final InternalCallContext internalCallContext) {
+    public RawUsageOptimizerResult getInArrearUsage(final DateTime firstEventStartDate, final LocalDate targetDate, final Iterable<InvoiceItem> existingUsageItems, final Map<String, Usage> knownUsage, final Iterable<DateTime> billingEventDates, @Nullable final DryRunInfo dryRunInfo, final Iterable<PluginProperty> inputProperties, final InternalCallContext internalCallContext) {
 
         // The idea is that if we need to come up with a DateTime we use the largest possible based on the provided LocalDate to return enough points and have the usage invoice code filter what is not relevant.
         final DateTime targetDateMax = targetDate.plusDays(1).toDateTimeAtStartOfDay(DateTimeZone.UTC).minus(Period.millis(1));
@@ -83,16 +89,57 @@ public class RawUsageOptimizer {
         log.debug("RawUsageOptimizerResult accountRecordId='{}', configRawUsagePreviousPeriod='{}', firstEventStartDate='{}', optimizedStartDate='{}',  targetDate='{}'",
                   internalCallContext.getAccountRecordId(), configRawUsagePreviousPeriod, firstEventStartDate, optimizedStartDate, targetDate);
 
-        final List<RawUsageRecord> rawUsageData = usageApi.getRawUsageForAccount(optimizedStartDate, targetDateMax, dryRunInfo, inputProperties, internalCallContext);
-
         final List<InvoiceTrackingModelDao> trackingIds = invoiceDao.getTrackingsByDateRange(optimizedStartDate.toLocalDate(), targetDate, internalCallContext);
-        final Set<TrackingRecordId> existingTrackingIds = new HashSet<>();
+        // Only used to find similar records: the invoice ids are not retained
+        final TrackingIds existingTrackingIds = new TrackingIds(null);
         for (final InvoiceTrackingModelDao invoiceTrackingModelDao : trackingIds) {
-            existingTrackingIds.add(new TrackingRecordId(invoiceTrackingModelDao.getTrackingId(), invoiceTrackingModelDao.getInvoiceId(), invoiceTrackingModelDao.getSubscriptionId(), invoiceTrackingModelDao.getUnitType(), invoiceTrackingModelDao.getRecordDate()));
+            existingTrackingIds.add(invoiceTrackingModelDao.getTrackingId(), invoiceTrackingModelDao.getSubscriptionId(), invoiceTrackingModelDao.getUnitType(), invoiceTrackingModelDao.getRecordDate());
+        }
+
+        // The daily rollups are only reused as single points when no billing event falls within the points of a given day,
+        // and when the tracking ids of that day are known (see InternalUserApi#getRolledUpUsageForAccount)
+        final Set<String> capacityUnitTypes = config.isUsageRollupEnabled(internalCallContext) ? getCapacityUnitTypes(knownUsage) : null;
+        final List<RawUsageRecord> rawUsageData;
+        if (capacityUnitTypes != null) {
+            final InvoicedTrackingIds invoicedTrackingIds = new InvoicedTrackingIds() {
+                @Override
+                public LocalDate toLocalDate(final DateTime recordDate) {
+                    return usageClockUtil.toLocalDate(recordDate, internalCallContext);
+                }
+
+                @Override
+                public int getNbTrackingIds(final UUID subscriptionId, final String unitType, final LocalDate recordDate) {
+                    return existingTrackingIds.getNbTrackingIds(subscriptionId, unitType, recordDate);
+                }
+            };
+            rawUsageData = usageApi.getRolledUpUsageForAccount(optimizedStartDate, targetDateMax, billingEventDates, capacityUnitTypes, invoicedTrackingIds, dryRunInfo, inputProperties, internalCallContext);
+        } else {
+            rawUsageData = usageApi.getRawUsageForAccount(optimizedStartDate, targetDateMax, dryRunInfo, inputProperties, internalCallContext);
         }
         return new RawUsageOptimizerResult(optimizedStartDate, rawUsageData, existingTrackingIds);
     }
 
+    //
+    // CAPACITY usage is aggregated with the max and CONSUMABLE usage with the sum: the daily rollups can only be used if each unit type
+    // is billed one way. Returns null if a unit type is shared between a CAPACITY and a CONSUMABLE usage (the raw usage is read instead).
+    //
+    @VisibleForTesting
+    static Set<String> getCapacityUnitTypes(final Map<String, Usage> knownUsage) {
+        final Set<String> capacityUnitTypes = new HashSet<>();
+        final Set<String> consumableUnitTypes = new HashSet<>();
+        for (final Usage usage : knownUsage.values()) {
+            if (usage.getBillingMode() != BillingMode.IN_ARREAR || usage.getTiers().length == 0) {
+                continue;
+            }
+            if (usage.getUsageType() == UsageType.CAPACITY) {
+                capacityUnitTypes.addAll(UsageUtils.getCapacityInArrearUnitTypes(usage));
+            } else {
+                consumableUnitTypes.addAll(UsageUtils.getConsumableInArrearUnitTypes(usage));
+            }
+        }
+        return Collections.disjoint(capacityUnitTypes, consumableUnitTypes) ? capacityUnitTypes : null;
+    }
+
     @VisibleForTesting
     DateTime getOptimizedRawUsageStartDate(final DateTime firstEventStartDate, final LocalDate targetDate, final Iterable<InvoiceItem> existingUsageItems, final Map<String, Usage> knownUsage, final InternalCallContext internalCallContext) {
 
@@ -209,9 +256,9 @@ public class RawUsageOptimizer {
 
         private final DateTime rawUsageStartDate;
         private final List<RawUsageRecord> rawUsage;
-        private final Set<TrackingRecordId> existingTrackingIds;
+        private final TrackingIds existingTrackingIds;
 
-        public RawUsageOptimizerResult(final DateTime rawUsageStartDate, final List<RawUsageRecord> rawUsage, final Set<TrackingRecordId> existingTrackingIds) {
+        public RawUsageOptimizerResult(final DateTime rawUsageStartDate, final List<RawUsageRecord> rawUsage, final TrackingIds existingTrackingIds) {
             this.rawUsageStartDate = rawUsageStartDate;
             this.rawUsage = rawUsage;
             this.existingTrackingIds = existingTrackingIds;
@@ -225,7 +272,7 @@ public class RawUsageOptimizer {
             return rawUsage;
         }
 
-        public Set<TrackingRecordId> getExistingTrackingIds() {
+        public TrackingIds getExistingTrackingIds() {
             return existingTrackingIds;
         }
     }
@@ -19,7 +19,6 @@ package org.killbill.billing.invoice.usage;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -28,7 +27,6 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 import org.joda.time.DateTime;
 import org.joda.time.LocalDate;
@@ -41,7 +39,9 @@ import org.killbill.billing.invoice.api.InvoiceApiException;
 import org.killbill.billing.invoice.api.InvoiceItem;
 import org.killbill.billing.invoice.generator.InvoiceItemGenerator.InvoiceItemGeneratorLogger;
 import org.killbill.billing.invoice.generator.InvoiceWithMetadata.TrackingRecordId;
+import org.killbill.billing.invoice.generator.TrackingIds;
 import org.killbill.billing.invoice.usage.ContiguousIntervalUsageInArrear.UsageInArrearItemsAndNextNotificationDate;
+import org.killbill.billing.invoice.usage.RawUsageIndex.SubscriptionRawUsage;
 import org.killbill.billing.junction.BillingEvent;
 import org.killbill.billing.usage.api.RawUsageRecord;
 import org.killbill.commons.utils.annotation.VisibleForTesting;
@@ -57,29 +57,12 @@ public class SubscriptionUsageInArrear {
 
     private static final Logger log = LoggerFactory.getLogger(SubscriptionUsageInArrear.class);
 
-    private static final Comparator<RawUsageRecord> RAW_USAGE_DATE_COMPARATOR = new Comparator<RawUsageRecord>() {
-        @Override
-        public int compare(final RawUsageRecord o1, final RawUsageRecord o2) {
-            int compared = o1.getDate().compareTo(o2.getDate());
-            if (compared != 0) {
-                return compared;
-            } else {
-                compared = o1.getUnitType().compareTo(o2.getUnitType());
-                if (compared != 0) {
-                    return compared;
-                } else {
-                    return o1.hashCode() != o2.hashCode() ? o1.hashCode() - o2.hashCode() : 0;
-                }
-            }
-        }
-    };
-
     private final UUID accountId;
     private final UUID invoiceId;
     private final List<BillingEvent> subscriptionBillingEvents;
     private final LocalDate targetDate;
-    private final List<RawUsageRecord> rawSubscriptionUsage;
-    private final Set<TrackingRecordId> existingTrackingIds;
+    private final SubscriptionRawUsage rawSubscriptionUsage;
+    private final TrackingIds existingTrackingIds;
     private final DateTime rawUsageStartDate;
     private final InternalTenantContext internalTenantContext;
     private final UsageDetailMode usageDetailMode;
@@ -102,12 +85,9 @@ public class SubscriptionUsageInArrear {
         this.targetDate = targetDate;
         this.rawUsageStartDate = rawUsageStartDate;
         this.internalTenantContext = internalTenantContext;
-        // Extract raw usage for that subscription and sort it by date
-        this.rawSubscriptionUsage = rawUsage.stream()
-                .filter(input -> input.getSubscriptionId().equals(subscriptionBillingEvents.get(0).getSubscriptionId()))
-                .sorted(RAW_USAGE_DATE_COMPARATOR)
-                .collect(Collectors.toUnmodifiableList());
-        this.existingTrackingIds = existingTrackingIds;
+        // Extract raw usage for that subscription and sort it by date (already done when partitioned by RawUsageIndex)
+        this.rawSubscriptionUsage = SubscriptionRawUsage.of(subscriptionBillingEvents.get(0).getSubscriptionId(), rawUsage);
+        this.existingTrackingIds = TrackingIds.ofExistingRecords(existingTrackingIds);
         this.usageDetailMode = usageDetailMode;
         this.invoiceConfig = invoiceConfig;
     }
@@ -119,7 +99,7 @@ public class SubscriptionUsageInArrear {
      * @throws CatalogApiException
      */
     public SubscriptionUsageInArrearItemsAndNextNotificationDate computeMissingUsageInvoiceItems(final List<InvoiceItem> existingUsage, final InvoiceItemGeneratorLogger invoiceItemGeneratorLogger, final boolean isDryRun) throws CatalogApiException, InvoiceApiException {
-        final SubscriptionUsageInArrearItemsAndNextNotificationDate result = new SubscriptionUsageInArrearItemsAndNextNotificationDate();
+        final SubscriptionUsageInArrearItemsAndNextNotificationDate result = new SubscriptionUsageInArrearItemsAndNextNotificationDate(invoiceId);
         final List<ContiguousIntervalUsageInArrear> billingEventTransitionTimePeriods = computeInArrearUsageInterval(isDryRun);
         for (final ContiguousIntervalUsageInArrear usageInterval : billingEventTransitionTimePeriods) {
             final UsageInArrearItemsAndNextNotificationDate newItemsWithDetailsAndDate = usageInterval.computeMissingItemsAndNextNotificationDate(existingUsage);
@@ -221,12 +201,12 @@ public class SubscriptionUsageInArrear {
 
         private final List<InvoiceItem> invoiceItems;
         private final Map<String, LocalDate> perUsageNotificationDates;
-        private final Set<TrackingRecordId> trackingIds;
+        private final TrackingIds trackingIds;
 
-        public SubscriptionUsageInArrearItemsAndNextNotificationDate() {
+        public SubscriptionUsageInArrearItemsAndNextNotificationDate(final UUID invoiceId) {
             this.invoiceItems = new LinkedList<InvoiceItem>();
             this.perUsageNotificationDates = new HashMap<String, LocalDate>();
-            this.trackingIds = new HashSet<>();
+            this.trackingIds = new TrackingIds(invoiceId);
         }
 
         public void addUsageInArrearItemsAndNextNotificationDate(final String usageName, final UsageInArrearItemsAndNextNotificationDate input) {
@@ -239,7 +219,7 @@ public class SubscriptionUsageInArrear {
             }
         }
 
-        public void addTrackingIds(final Set<TrackingRecordId> input) {
+        public void addTrackingIds(final TrackingIds input) {
             trackingIds.addAll(input);
         }
 
@@ -251,7 +231,7 @@ public class SubscriptionUsageInArrear {
             return perUsageNotificationDates;
         }
 
-        public Set<TrackingRecordId> getTrackingIds() {
+        public TrackingIds getTrackingIds() {
             return trackingIds;
         }
     }
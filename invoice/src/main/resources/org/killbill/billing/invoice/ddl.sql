@@ -82,6 +82,7 @@ CREATE INDEX invoice_items_invoice_id ON invoice_items(invoice_id ASC);
 CREATE INDEX invoice_items_account_id ON invoice_items(account_id ASC);
 CREATE INDEX invoice_items_linked_item_id ON invoice_items(linked_item_id ASC);
 CREATE INDEX invoice_items_tenant_account_record_id ON invoice_items(tenant_record_id, account_record_id);
+CREATE INDEX invoice_items_tenant_record_id_record_id ON invoice_items(tenant_record_id, record_id);
 
 DROP TABLE IF EXISTS invoice_item_history;
 CREATE TABLE invoice_item_history (
@@ -141,6 +142,7 @@ CREATE TABLE invoices (
 CREATE UNIQUE INDEX invoices_id ON invoices(id);
 CREATE INDEX invoices_account ON invoices(account_id ASC);
 CREATE INDEX invoices_tenant_account_record_id ON invoices(tenant_record_id, account_record_id);
+CREATE INDEX invoices_tenant_record_id_record_id ON invoices(tenant_record_id, record_id);
 CREATE INDEX invoice_grp_id ON invoices(grp_id ASC);
 CREATE INDEX invoice_currency ON invoices(currency ASC);
 
@@ -196,6 +198,7 @@ CREATE INDEX invoice_payments_reversals ON invoice_payments(linked_invoice_payme
 CREATE INDEX invoice_payments_payment_id ON invoice_payments(payment_id);
 CREATE INDEX invoice_payments_payment_cookie_id ON invoice_payments(payment_cookie_id);
 CREATE INDEX invoice_payments_tenant_account_record_id ON invoice_payments(tenant_record_id, account_record_id);
+CREATE INDEX invoice_payments_tenant_record_id_record_id ON invoice_payments(tenant_record_id, record_id);
 
 DROP TABLE IF EXISTS invoice_payment_history;
 CREATE TABLE invoice_payment_history (
@@ -254,4 +257,41 @@ CREATE TABLE invoice_billing_events (
     PRIMARY KEY(record_id)
 ) /*! CHARACTER SET utf8 COLLATE utf8_bin */;
 CREATE UNIQUE INDEX invoice_billing_events_invoice_id ON invoice_billing_events(invoice_id);
-CREATE INDEX invoice_billing_events_tenant_account_record_id ON invoice_billing_events(tenant_record_id, account_record_id);
\ No newline at end of file
+CREATE INDEX invoice_billing_events_tenant_account_record_id ON invoice_billing_events(tenant_record_id, account_record_id);
+
+DROP TABLE IF EXISTS invoice_balances;
+CREATE TABLE invoice_balances (
+    record_id serial unique,
+    invoice_id varchar(36) NOT NULL,
+    raw_balance numeric(15,9) NOT NULL,
+    cba numeric(15,9) NOT NULL,
+    child_invoice boolean NOT NULL,
+    created_by varchar(50) NOT NULL,
+    created_date datetime NOT NULL,
+    updated_by varchar(50) NOT NULL,
+    updated_date datetime NOT NULL,
+    account_record_id bigint /*! unsigned */ not null,
+    tenant_record_id bigint /*! unsigned */ not null default 0,
+    PRIMARY KEY(record_id)
+) /*! CHARACTER SET utf8 COLLATE utf8_bin */;
+CREATE UNIQUE INDEX invoice_balances_invoice_id ON invoice_balances(invoice_id);
+CREATE INDEX invoice_balances_tenant_account_record_id ON invoice_balances(tenant_record_id, account_record_id);
+
+DROP TABLE IF EXISTS invoice_account_balances;
+CREATE TABLE invoice_account_balances (
+    record_id serial unique,
+    currency varchar(3) DEFAULT NULL,
+    raw_balance numeric(15,9) NOT NULL,
+    cba numeric(15,9) NOT NULL,
+    nb_invoices int NOT NULL,
+    nb_child_invoices int NOT NULL,
+    created_by varchar(50) NOT NULL,
+    created_date datetime NOT NULL,
+    updated_by varchar(50) NOT NULL,
+    updated_date datetime NOT NULL,
+    account_record_id bigint /*! unsigned */ not null,
+    tenant_record_id bigint /*! unsigned */ not null default 0,
+    PRIMARY KEY(record_id)
+) /*! CHARACTER SET utf8 COLLATE utf8_bin */;
+CREATE UNIQUE INDEX invoice_account_balances_account_record_id ON invoice_account_balances(account_record_id);
+CREATE INDEX invoice_account_balances_tenant_account_record_id ON invoice_account_balances(tenant_record_id, account_record_id);
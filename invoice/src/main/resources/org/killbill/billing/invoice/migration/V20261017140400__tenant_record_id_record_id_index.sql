@@ -0,0 +1,3 @@
+CREATE INDEX invoice_items_tenant_record_id_record_id ON invoice_items(tenant_record_id, record_id);
+CREATE INDEX invoices_tenant_record_id_record_id ON invoices(tenant_record_id, record_id);
+CREATE INDEX invoice_payments_tenant_record_id_record_id ON invoice_payments(tenant_record_id, record_id);
@@ -102,6 +102,8 @@ public abstract class InvoiceTestSuiteWithEmbeddedDB extends GuicyKillbillTestSu
     @Inject
     protected InvoicePluginDispatcher invoicePluginDispatcher;
     @Inject
+    protected InvoiceBatchDispatcher invoiceBatchDispatcher;
+    @Inject
     protected InvoiceConfig invoiceConfig;
     @Inject
     protected ParkedAccountsManager parkedAccountsManager;
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.invoice;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.DateTime;
+import org.joda.time.LocalDate;
+import org.killbill.billing.account.api.Account;
+import org.killbill.billing.callcontext.InternalCallContext;
+import org.killbill.billing.catalog.MockPlan;
+import org.killbill.billing.catalog.MockPlanPhase;
+import org.killbill.billing.catalog.api.BillingMode;
+import org.killbill.billing.catalog.api.BillingPeriod;
+import org.killbill.billing.catalog.api.Currency;
+import org.killbill.billing.catalog.api.Plan;
+import org.killbill.billing.catalog.api.PlanPhase;
+import org.killbill.billing.invoice.InvoiceBatchDispatcher.AccountInvoiceRunResult;
+import org.killbill.billing.invoice.InvoiceBatchDispatcher.AccountInvoiceRunStatus;
+import org.killbill.billing.invoice.InvoiceBatchDispatcher.InvoiceBatchResult;
+import org.killbill.billing.invoice.api.DryRunArguments;
+import org.killbill.billing.invoice.dao.InvoiceModelDao;
+import org.killbill.billing.invoice.notification.DefaultNextBillingDateNotifier;
+import org.killbill.billing.invoice.notification.NextBillingDateNotificationKey;
+import org.killbill.billing.junction.BillingEventSet;
+import org.killbill.billing.platform.api.KillbillService.KILLBILL_SERVICES;
+import org.killbill.billing.subscription.api.SubscriptionBase;
+import org.killbill.billing.subscription.api.SubscriptionBaseTransitionType;
+import org.killbill.billing.util.globallocker.LockerType;
+import org.killbill.commons.locker.GlobalLock;
+import org.killbill.notificationq.api.NotificationEventWithMetadata;
+import org.killbill.notificationq.api.NotificationQueue;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestInvoiceBatchDispatcher extends InvoiceTestSuiteWithEmbeddedDB {
+
+    @Test(groups = "slow")
+    public void testProcessAccounts() throws Exception {
+        final Account account = invoiceUtil.createAccount(callContext);
+        final SubscriptionBase subscription = invoiceUtil.createSubscription();
+        final InternalCallContext context = internalCallContextFactory.createInternalCallContext(account.getId(), callContext);
+
+        final BillingEventSet events = new MockBillingEventSet();
+        final Plan plan = MockPlan.createBicycleNoTrialEvergreen1USD();
+        final PlanPhase planPhase = MockPlanPhase.create1USDMonthlyEvergreen();
+        final DateTime effectiveDate = clock.getUTCNow().minusDays(1);
+        events.add(invoiceUtil.createMockBillingEvent(account, subscription, effectiveDate, plan, planPhase,
+                                                      null, BigDecimal.ONE, Currency.USD, BillingPeriod.MONTHLY, 1,
+                                                      BillingMode.IN_ADVANCE, "", 1L, SubscriptionBaseTransitionType.CREATE));
+        Mockito.when(billingApi.getBillingEventsForAccountAndUpdateAccountBCD(Mockito.<UUID>any(), Mockito.<DryRunArguments>any(), Mockito.<LocalDate>any(), Mockito.<InternalCallContext>any())).thenReturn(events);
+
+        final InvoiceBatchResult firstRun = invoiceBatchDispatcher.processAccounts(Collections.singletonList(context.getAccountRecordId()), effectiveDate, context.getTenantRecordId(), null);
+        Assert.assertEquals(firstRun.getAccountResults().size(), 1);
+        final AccountInvoiceRunResult firstAccountResult = firstRun.getAccountResults().get(0);
+        Assert.assertEquals(firstAccountResult.getAccountId(), account.getId());
+        Assert.assertEquals(firstAccountResult.getStatus(), AccountInvoiceRunStatus.INVOICED);
+        Assert.assertEquals(firstAccountResult.getNbInvoices(), 1);
+
+        final List<InvoiceModelDao> invoices = invoiceDao.getInvoicesByAccount(false, true, context);
+        Assert.assertEquals(invoices.size(), 1);
+
+        // Nothing left to invoice for that target date
+        final InvoiceBatchResult secondRun = invoiceBatchDispatcher.processAccounts(Collections.singletonList(context.getAccountRecordId()), effectiveDate, context.getTenantRecordId(), null);
+        Assert.assertEquals(secondRun.getNbAccounts(AccountInvoiceRunStatus.NOTHING_TO_INVOICE), 1);
+        Assert.assertEquals(invoiceDao.getInvoicesByAccount(false, true, context).size(), 1);
+    }
+
+    @Test(groups = "slow")
+    public void testProcessAccountsWithPendingNotifications() throws Exception {
+        final NotificationQueue nextBillingQueue = notificationQueueService.getNotificationQueue(KILLBILL_SERVICES.INVOICE_SERVICE.getServiceName(), DefaultNextBillingDateNotifier.NEXT_BILLING_DATE_NOTIFIER_QUEUE);
+
+        final Plan plan = MockPlan.createBicycleNoTrialEvergreen1USD();
+        final PlanPhase planPhase = MockPlanPhase.create1USDMonthlyEvergreen();
+        final DateTime now = clock.getUTCNow();
+        // Not yet due for the queue dispatcher, so only the batch run can pick these up
+        final DateTime notificationDate = now.plusHours(1);
+
+        final Map<UUID, BillingEventSet> eventsByAccountId = new HashMap<>();
+        final List<InternalCallContext> contexts = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            final Account account = invoiceUtil.createAccount(callContext);
+            final SubscriptionBase subscription = invoiceUtil.createSubscription();
+            final InternalCallContext context = internalCallContextFactory.createInternalCallContext(account.getId(), callContext);
+            contexts.add(context);
+
+            final BillingEventSet events = new MockBillingEventSet();
+            events.add(invoiceUtil.createMockBillingEvent(account, subscription, now.minusDays(1), plan, planPhase,
+                                                          null, BigDecimal.ONE, Currency.USD, BillingPeriod.MONTHLY, 1,
+                                                          BillingMode.IN_ADVANCE, "", 1L, SubscriptionBaseTransitionType.CREATE));
+            eventsByAccountId.put(account.getId(), events);
+
+            // Two notifications for the same account must still result in a single run
+            nextBillingQueue.recordFutureNotification(notificationDate, new NextBillingDateNotificationKey(null, List.of(subscription.getId()), now.minusDays(1), Boolean.FALSE, Boolean.FALSE), null, context.getAccountRecordId(), context.getTenantRecordId());
+            nextBillingQueue.recordFutureNotification(notificationDate, new NextBillingDateNotificationKey(null, List.of(subscription.getId()), now, Boolean.FALSE, Boolean.FALSE), null, context.getAccountRecordId(), context.getTenantRecordId());
+        }
+        // Dry-run notifications are left to the queue
+        nextBillingQueue.recordFutureNotification(notificationDate, new NextBillingDateNotificationKey(null, List.of(UUID.randomUUID()), now, Boolean.TRUE, Boolean.FALSE), null, contexts.get(0).getAccountRecordId(), contexts.get(0).getTenantRecordId());
+
+        Mockito.when(billingApi.getBillingEventsForAccountAndUpdateAccountBCD(Mockito.<UUID>any(), Mockito.<DryRunArguments>any(), Mockito.<LocalDate>any(), Mockito.<InternalCallContext>any()))
+               .thenAnswer(invocation -> eventsByAccountId.get(invocation.<UUID>getArgument(0)));
+
+        final Long tenantRecordId = contexts.get(0).getTenantRecordId();
+        final InvoiceBatchResult firstRun = invoiceBatchDispatcher.processAccountsWithPendingNotifications(notificationDate.plusHours(1), tenantRecordId, null);
+        Assert.assertEquals(firstRun.getAccountResults().size(), 3);
+        Assert.assertEquals(firstRun.getNbAccounts(AccountInvoiceRunStatus.INVOICED), 3);
+        for (final InternalCallContext context : contexts) {
+            Assert.assertEquals(invoiceDao.getInvoicesByAccount(false, true, context).size(), 1);
+        }
+
+        // The notifications handled by the batch run were removed from the queue (the new invoices scheduled the next ones, a month later)
+        final List<NotificationEventWithMetadata<NextBillingDateNotificationKey>> remaining = new ArrayList<>();
+        nextBillingQueue.<NextBillingDateNotificationKey>getFutureNotificationForSearchKey2(notificationDate.plusHours(1), tenantRecordId).forEach(remaining::add);
+        Assert.assertEquals(remaining.size(), 1);
+        Assert.assertTrue(remaining.get(0).getEvent().isDryRunForInvoiceNotification());
+
+        final InvoiceBatchResult secondRun = invoiceBatchDispatcher.processAccountsWithPendingNotifications(notificationDate.plusHours(1), tenantRecordId, null);
+        Assert.assertTrue(secondRun.getAccountResults().isEmpty());
+        for (final InternalCallContext context : contexts) {
+            Assert.assertEquals(invoiceDao.getInvoicesByAccount(false, true, context).size(), 1);
+        }
+    }
+
+    @Test(groups = "slow")
+    public void testFailedAccountIsLeftToTheQueue() throws Exception {
+        final NotificationQueue nextBillingQueue = notificationQueueService.getNotificationQueue(KILLBILL_SERVICES.INVOICE_SERVICE.getServiceName(), DefaultNextBillingDateNotifier.NEXT_BILLING_DATE_NOTIFIER_QUEUE);
+        final Account account = invoiceUtil.createAccount(callContext);
+        final SubscriptionBase subscription = invoiceUtil.createSubscription();
+        final InternalCallContext context = internalCallContextFactory.createInternalCallContext(account.getId(), callContext);
+
+        final DateTime now = clock.getUTCNow();
+        final DateTime notificationDate = now.plusHours(1);
+        final NextBillingDateNotificationKey notificationKey = new NextBillingDateNotificationKey(null, List.of(subscription.getId()), now, Boolean.FALSE, Boolean.FALSE);
+        nextBillingQueue.recordFutureNotification(notificationDate, notificationKey, null, context.getAccountRecordId(), context.getTenantRecordId());
+
+        Mockito.when(billingApi.getBillingEventsForAccountAndUpdateAccountBCD(Mockito.<UUID>any(), Mockito.<DryRunArguments>any(), Mockito.<LocalDate>any(), Mockito.<InternalCallContext>any()))
+               .thenAnswer(invocation -> {
+                   if (account.getId().equals(invocation.getArgument(0))) {
+                       throw new IllegalStateException("Simulated failure");
+                   }
+                   return null;
+               });
+
+        final InvoiceBatchResult result = invoiceBatchDispatcher.processAccountsWithPendingNotifications(notificationDate.plusMinutes(1), context.getTenantRecordId(), null);
+        Assert.assertEquals(result.getNbAccounts(AccountInvoiceRunStatus.FAILED), 1);
+
+        // The notification is still claimed: the queue processes the account once the claim times out
+        final List<NotificationEventWithMetadata<NextBillingDateNotificationKey>> remaining = new ArrayList<>();
+        nextBillingQueue.<NextBillingDateNotificationKey>getFutureNotificationForSearchKeys(context.getAccountRecordId(), context.getTenantRecordId()).forEach(remaining::add);
+        Assert.assertEquals(remaining.size(), 1);
+        Assert.assertEquals(remaining.get(0).getEvent(), notificationKey);
+        Assert.assertTrue(remaining.get(0).getEffectiveDate().isBefore(notificationDate));
+        Assert.assertFalse(remaining.get(0).getEffectiveDate().isBefore(now.plus(invoiceConfig.getInvoiceBatchClaimTimeout().getMillis()).minusSeconds(1)));
+    }
+
+    @Test(groups = "slow")
+    public void testSingleRunPerTenant() throws Exception {
+        final NotificationQueue nextBillingQueue = notificationQueueService.getNotificationQueue(KILLBILL_SERVICES.INVOICE_SERVICE.getServiceName(), DefaultNextBillingDateNotifier.NEXT_BILLING_DATE_NOTIFIER_QUEUE);
+        final Account account = invoiceUtil.createAccount(callContext);
+        final SubscriptionBase subscription = invoiceUtil.createSubscription();
+        final InternalCallContext context = internalCallContextFactory.createInternalCallContext(account.getId(), callContext);
+
+        final DateTime now = clock.getUTCNow();
+        final DateTime notificationDate = now.plusHours(1);
+        nextBillingQueue.recordFutureNotification(notificationDate, new NextBillingDateNotificationKey(null, List.of(subscription.getId()), now, Boolean.FALSE, Boolean.FALSE), null, context.getAccountRecordId(), context.getTenantRecordId());
+
+        final BillingEventSet events = new MockBillingEventSet();
+        events.add(invoiceUtil.createMockBillingEvent(account, subscription, now.minusDays(1), MockPlan.createBicycleNoTrialEvergreen1USD(), MockPlanPhase.create1USDMonthlyEvergreen(),
+                                                      null, BigDecimal.ONE, Currency.USD, BillingPeriod.MONTHLY, 1,
+                                                      BillingMode.IN_ADVANCE, "", 1L, SubscriptionBaseTransitionType.CREATE));
+        Mockito.when(billingApi.getBillingEventsForAccountAndUpdateAccountBCD(Mockito.<UUID>any(), Mockito.<DryRunArguments>any(), Mockito.<LocalDate>any(), Mockito.<InternalCallContext>any())).thenReturn(events);
+
+        // Another node is running a batch for that tenant
+        final GlobalLock lock = locker.lockWithNumberOfTries(LockerType.INVOICE_BATCH.toString(), context.getTenantRecordId().toString(), 1);
+        try {
+            final InvoiceBatchResult result = CompletableFuture.supplyAsync(() -> invoiceBatchDispatcher.processAccountsWithPendingNotifications(notificationDate.plusMinutes(1), context.getTenantRecordId(), null)).get(10, TimeUnit.SECONDS);
+            Assert.assertTrue(result.getAccountResults().isEmpty());
+        } finally {
+            lock.release();
+        }
+
+        final InvoiceBatchResult result = CompletableFuture.supplyAsync(() -> invoiceBatchDispatcher.processAccountsWithPendingNotifications(notificationDate.plusMinutes(1), context.getTenantRecordId(), null)).get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(result.getNbAccounts(AccountInvoiceRunStatus.INVOICED), 1);
+        Assert.assertEquals(invoiceDao.getInvoicesByAccount(false, true, context).size(), 1);
+    }
+
+    @Test(groups = "slow")
+    public void testScheduleAccountsWithPendingNotifications() throws Exception {
+        // Runs in the background, at most once per org.killbill.invoice.batch.minInterval
+        Assert.assertTrue(invoiceBatchDispatcher.scheduleAccountsWithPendingNotifications(internalCallContext.getTenantRecordId(), null));
+        Assert.assertFalse(invoiceBatchDispatcher.scheduleAccountsWithPendingNotifications(internalCallContext.getTenantRecordId(), null));
+    }
+
+    @Test(groups = "slow")
+    public void testProcessNoAccounts() {
+        final InvoiceBatchResult result = invoiceBatchDispatcher.processAccounts(Collections.emptyList(), clock.getUTCNow(), internalCallContext.getTenantRecordId(), null);
+        Assert.assertTrue(result.getAccountResults().isEmpty());
+    }
+}
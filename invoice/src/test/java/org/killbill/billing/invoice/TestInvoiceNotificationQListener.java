@@ -40,10 +40,11 @@ public class TestInvoiceNotificationQListener extends InvoiceListener {
                                             final Clock clock,
                                             final InternalCallContextFactory internalCallContextFactory,
                                             final InvoiceDispatcher dispatcher,
+                                            final InvoiceRunCoalescer invoiceRunCoalescer,
                                             final InvoiceInternalApi invoiceApi,
                                             final BusDispatcherOptimizer busOptimizer,
                                             final NotificationQueueService notificationQueueService) {
-        super(accountApi, internalCallContextFactory, dispatcher, invoiceApi, notificationQueueService, busOptimizer, clock);
+        super(accountApi, internalCallContextFactory, dispatcher, invoiceRunCoalescer, invoiceApi, notificationQueueService, busOptimizer, clock);
     }
 
     @Override
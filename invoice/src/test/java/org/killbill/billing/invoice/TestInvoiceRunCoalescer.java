@@ -0,0 +1,185 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.invoice;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.joda.time.LocalDate;
+import org.killbill.billing.ErrorCode;
+import org.killbill.billing.invoice.api.InvoiceApiException;
+import org.killbill.billing.util.config.definition.InvoiceConfig;
+import org.mockito.Mockito;
+import org.skife.config.TimeSpan;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestInvoiceRunCoalescer extends InvoiceTestSuiteNoDB {
+
+    private static final String OPERATION = "SUBSCRIPTION_TRANSITION";
+    private static final InvoiceRunCoalescer.CoalescedRunCallback NOT_COALESCED = Assert::fail;
+
+    @Test(groups = "fast")
+    public void testCoalesceTriggersWhileRunning() throws Exception {
+        final InvoiceRunCoalescer coalescer = createCoalescer(true);
+        final LocalDate targetDate = new LocalDate(2026, 1, 1);
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<String> runs = new CopyOnWriteArrayList<>();
+        final Thread runner = new Thread(() -> {
+            try {
+                coalescer.runOrCoalesce(1L, OPERATION, targetDate, () -> {
+                    runs.add("first");
+                    started.countDown();
+                    await(release);
+                }, NOT_COALESCED);
+            } catch (final InvoiceApiException e) {
+                Assert.fail(e.getMessage());
+            }
+        });
+        runner.start();
+        Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        // All these return immediately, only the latest one is kept
+        coalescer.runOrCoalesce(1L, OPERATION, targetDate, () -> runs.add("second"), () -> runs.add("second coalesced"));
+        coalescer.runOrCoalesce(1L, OPERATION, targetDate, () -> runs.add("third"), () -> runs.add("third coalesced"));
+        coalescer.runOrCoalesce(1L, OPERATION, targetDate, () -> runs.add("fourth"), () -> runs.add("fourth coalesced"));
+        Assert.assertEquals(runs, List.of("first"));
+
+        release.countDown();
+        runner.join(10000);
+        // The replaced triggers are completed once the run they were coalesced into is done
+        Assert.assertEquals(runs, List.of("first", "fourth", "second coalesced", "third coalesced"));
+
+        // The key has been released: the next trigger runs right away
+        coalescer.runOrCoalesce(1L, OPERATION, targetDate, () -> runs.add("fifth"), NOT_COALESCED);
+        Assert.assertEquals(runs, List.of("first", "fourth", "second coalesced", "third coalesced", "fifth"));
+    }
+
+    @Test(groups = "fast")
+    public void testCoalescingWindowDoesNotBlockCaller() throws Exception {
+        final InvoiceRunCoalescer coalescer = createCoalescer(true, "1h");
+        coalescer.initialize();
+        final LocalDate targetDate = new LocalDate(2026, 1, 1);
+        final AtomicInteger nbRuns = new AtomicInteger();
+        final AtomicInteger nbCoalesced = new AtomicInteger();
+
+        // Both return right away: the run is scheduled after the window
+        coalescer.runOrCoalesce(1L, OPERATION, targetDate, nbRuns::incrementAndGet, nbCoalesced::incrementAndGet);
+        coalescer.runOrCoalesce(1L, OPERATION, targetDate, nbRuns::incrementAndGet, nbCoalesced::incrementAndGet);
+        Assert.assertEquals(nbRuns.get(), 0);
+        Assert.assertEquals(nbCoalesced.get(), 0);
+
+        // Stopping doesn't drop the waiting run
+        coalescer.stop();
+        Assert.assertEquals(nbRuns.get(), 1);
+        Assert.assertEquals(nbCoalesced.get(), 1);
+    }
+
+    @Test(groups = "fast")
+    public void testDifferentKeysAreNotCoalesced() throws Exception {
+        final InvoiceRunCoalescer coalescer = createCoalescer(true);
+        final LocalDate targetDate = new LocalDate(2026, 1, 1);
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Thread runner = new Thread(() -> {
+            try {
+                coalescer.runOrCoalesce(1L, OPERATION, targetDate, () -> {
+                    started.countDown();
+                    await(release);
+                }, NOT_COALESCED);
+            } catch (final InvoiceApiException e) {
+                Assert.fail(e.getMessage());
+            }
+        });
+        runner.start();
+        Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        final AtomicInteger nbRuns = new AtomicInteger();
+        // Other account
+        coalescer.runOrCoalesce(2L, OPERATION, targetDate, nbRuns::incrementAndGet, NOT_COALESCED);
+        // Other target date
+        coalescer.runOrCoalesce(1L, OPERATION, targetDate.plusDays(1), nbRuns::incrementAndGet, NOT_COALESCED);
+        // Other operation
+        coalescer.runOrCoalesce(1L, "BLOCKING_TRANSITION", null, nbRuns::incrementAndGet, NOT_COALESCED);
+        Assert.assertEquals(nbRuns.get(), 3);
+
+        release.countDown();
+        runner.join(10000);
+    }
+
+    @Test(groups = "fast")
+    public void testFailureReleasesKey() throws Exception {
+        final InvoiceRunCoalescer coalescer = createCoalescer(true);
+        final LocalDate targetDate = new LocalDate(2026, 1, 1);
+
+        try {
+            coalescer.runOrCoalesce(1L, OPERATION, targetDate, () -> {
+                throw new InvoiceApiException(ErrorCode.INVOICE_NOT_FOUND, UUID.randomUUID());
+            }, NOT_COALESCED);
+            Assert.fail();
+        } catch (final InvoiceApiException e) {
+            Assert.assertEquals(e.getCode(), ErrorCode.INVOICE_NOT_FOUND.getCode());
+        }
+
+        final AtomicInteger nbRuns = new AtomicInteger();
+        coalescer.runOrCoalesce(1L, OPERATION, targetDate, nbRuns::incrementAndGet, NOT_COALESCED);
+        Assert.assertEquals(nbRuns.get(), 1);
+    }
+
+    @Test(groups = "fast")
+    public void testDisabled() throws Exception {
+        final InvoiceRunCoalescer coalescer = createCoalescer(false);
+        final LocalDate targetDate = new LocalDate(2026, 1, 1);
+
+        final AtomicInteger nbRuns = new AtomicInteger();
+        final AtomicInteger nbNestedRuns = new AtomicInteger();
+        // A trigger for the same key while a run is in progress isn't coalesced
+        coalescer.runOrCoalesce(1L, OPERATION, targetDate, () -> {
+            nbRuns.incrementAndGet();
+            coalescer.runOrCoalesce(1L, OPERATION, targetDate, nbNestedRuns::incrementAndGet, NOT_COALESCED);
+        }, NOT_COALESCED);
+        Assert.assertEquals(nbRuns.get(), 1);
+        Assert.assertEquals(nbNestedRuns.get(), 1);
+    }
+
+    private InvoiceRunCoalescer createCoalescer(final boolean enabled) {
+        return createCoalescer(enabled, "0s");
+    }
+
+    private InvoiceRunCoalescer createCoalescer(final boolean enabled, final String window) {
+        final InvoiceConfig config = Mockito.mock(InvoiceConfig.class);
+        Mockito.when(config.isInvoiceRunCoalescingEnabled()).thenReturn(enabled);
+        Mockito.when(config.getInvoiceRunCoalescingWindow()).thenReturn(new TimeSpan(window));
+        return new InvoiceRunCoalescer(config);
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
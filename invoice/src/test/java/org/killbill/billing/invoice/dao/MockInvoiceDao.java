@@ -243,6 +243,11 @@ public class MockInvoiceDao extends MockEntityDaoBase<InvoiceModelDao, Invoice,
         return DefaultPagination.build(offset, limit, maxNbRecords, results);
     }
 
+    @Override
+    public Pagination<InvoiceModelDao> searchInvoices(final String searchKey, final Long cursor, final Long offset, final Long limit, final InternalTenantContext context) {
+        return searchInvoices(searchKey, offset, limit, context);
+    }
+
     @Override
     public void test(final InternalTenantContext context) {
     }
@@ -428,6 +433,11 @@ public class MockInvoiceDao extends MockEntityDaoBase<InvoiceModelDao, Invoice,
         return null;
     }
 
+    @Override
+    public boolean rebuildAccountBalance(final InternalCallContext context) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public InvoicePaymentModelDao createRefund(final UUID paymentId, final UUID paymentAttemptId, final BigDecimal amount, final boolean isInvoiceAdjusted,
                                                final Map<UUID, BigDecimal> invoiceItemIdsWithAmounts, final String transactionExternalKey,
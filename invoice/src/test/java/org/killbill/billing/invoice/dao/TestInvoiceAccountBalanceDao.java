@@ -0,0 +1,164 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.invoice.dao;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.killbill.billing.ObjectType;
+import org.killbill.billing.account.api.Account;
+import org.killbill.billing.callcontext.InternalCallContext;
+import org.killbill.billing.catalog.api.Currency;
+import org.killbill.billing.invoice.InvoiceTestSuiteWithEmbeddedDB;
+import org.killbill.billing.invoice.api.InvoicePaymentStatus;
+import org.killbill.billing.invoice.api.InvoicePaymentType;
+import org.killbill.billing.invoice.api.InvoiceStatus;
+import org.killbill.billing.invoice.model.CreditAdjInvoiceItem;
+import org.killbill.billing.invoice.model.DefaultInvoicePayment;
+import org.killbill.billing.invoice.model.ExternalChargeInvoiceItem;
+import org.killbill.billing.platform.api.KillbillConfigSource;
+import org.killbill.billing.util.tag.ControlTagType;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestInvoiceAccountBalanceDao extends InvoiceTestSuiteWithEmbeddedDB {
+
+    private Account account;
+    private InternalCallContext context;
+
+    @Override
+    protected KillbillConfigSource getConfigSource(final Map<String, String> extraProperties) {
+        final Map<String, String> allExtraProperties = new HashMap<String, String>(extraProperties);
+        allExtraProperties.put("org.killbill.invoice.account.balance.ledger.enabled", "true");
+        return getConfigSource(null, allExtraProperties);
+    }
+
+    @BeforeMethod(groups = "slow")
+    public void setUp() throws Exception {
+        if (hasFailed()) {
+            return;
+        }
+        account = invoiceUtil.createAccount(callContext);
+        context = internalCallContextFactory.createInternalCallContext(account.getId(), callContext);
+    }
+
+    @Test(groups = "slow")
+    public void testLedgerFollowsInvoiceLifecycle() throws Exception {
+        // No invoice yet: the ledger is created lazily, the computation from history is used in the meantime
+        assertEquals(invoiceDao.getAccountBalance(account.getId(), context).compareTo(BigDecimal.ZERO), 0);
+        assertEquals(invoiceDao.getAccountCBA(account.getId(), context).compareTo(BigDecimal.ZERO), 0);
+
+        final UUID invoiceId1 = createExternalCharge(new BigDecimal("20"), InvoiceStatus.COMMITTED);
+        checkBalance("20", "0");
+
+        final UUID paymentId = UUID.randomUUID();
+        final DefaultInvoicePayment payment = new DefaultInvoicePayment(InvoicePaymentType.ATTEMPT, paymentId, invoiceId1, clock.getUTCNow(), new BigDecimal("20"), Currency.USD, Currency.USD, "cookie", InvoicePaymentStatus.SUCCESS);
+        invoiceDao.notifyOfPaymentCompletion(new InvoicePaymentModelDao(payment), UUID.randomUUID(), context);
+        checkBalance("0", "0");
+
+        invoiceDao.createRefund(paymentId, UUID.randomUUID(), new BigDecimal("7"), false, Collections.emptyMap(), UUID.randomUUID().toString(), InvoicePaymentStatus.SUCCESS, context);
+        checkBalance("7", "0");
+
+        // The credit is consumed right away by the unpaid invoice
+        createCredit(new BigDecimal("5"));
+        checkBalance("2", "0");
+
+        // DRAFT invoices don't contribute until they are committed
+        final UUID invoiceId2 = createExternalCharge(new BigDecimal("10"), InvoiceStatus.DRAFT);
+        checkBalance("2", "0");
+        invoiceDao.changeInvoiceStatus(invoiceId2, InvoiceStatus.COMMITTED, context);
+        checkBalance("12", "0");
+
+        tagUserApi.addTag(invoiceId2, ObjectType.INVOICE, ControlTagType.WRITTEN_OFF.getId(), callContext);
+        checkBalance("2", "0");
+
+        final UUID invoiceId3 = createExternalCharge(new BigDecimal("15"), InvoiceStatus.COMMITTED);
+        checkBalance("17", "0");
+        invoiceDao.changeInvoiceStatus(invoiceId3, InvoiceStatus.VOID, context);
+        checkBalance("2", "0");
+
+        // Credit larger than the balance: the remainder is left as CBA
+        createCredit(new BigDecimal("12"));
+        checkBalance("-10", "10");
+    }
+
+    @Test(groups = "slow")
+    public void testRebuildOutOfSyncLedger() throws Exception {
+        createExternalCharge(new BigDecimal("20"), InvoiceStatus.COMMITTED);
+        checkBalance("20", "0");
+
+        corrupt("update invoice_account_balances set raw_balance = raw_balance + 100 where account_record_id = " + context.getAccountRecordId());
+        assertEquals(invoiceDao.getAccountBalance(account.getId(), context).compareTo(new BigDecimal("120")), 0);
+        assertTrue(invoiceDao.rebuildAccountBalance(context));
+        checkBalance("20", "0");
+
+        corrupt("delete from invoice_balances where account_record_id = " + context.getAccountRecordId());
+        assertTrue(invoiceDao.rebuildAccountBalance(context));
+        checkBalance("20", "0");
+
+        corrupt("delete from invoice_account_balances where account_record_id = " + context.getAccountRecordId());
+        assertEquals(invoiceDao.getAccountBalance(account.getId(), context).compareTo(new BigDecimal("20")), 0);
+        assertTrue(invoiceDao.rebuildAccountBalance(context));
+        checkBalance("20", "0");
+    }
+
+    @Test(groups = "slow")
+    public void testLedgerBalanceMatchesComputedBalance() throws Exception {
+        createExternalCharge(new BigDecimal("10.12"), InvoiceStatus.COMMITTED);
+        createCredit(new BigDecimal("0.5"));
+        final BigDecimal ledgerBalance = invoiceDao.getAccountBalance(account.getId(), context);
+        corrupt("delete from invoice_account_balances where account_record_id = " + context.getAccountRecordId());
+        // The ledger value isn't rounded again, it matches the sum of the invoice balances computed from history
+        assertEquals(ledgerBalance.compareTo(invoiceDao.getAccountBalance(account.getId(), context)), 0);
+    }
+
+    private void checkBalance(final String expectedBalance, final String expectedCBA) {
+        assertEquals(invoiceDao.getAccountBalance(account.getId(), context).compareTo(new BigDecimal(expectedBalance)), 0);
+        assertEquals(invoiceDao.getAccountCBA(account.getId(), context).compareTo(new BigDecimal(expectedCBA)), 0);
+        // The incrementally maintained ledger must match a full recomputation
+        assertFalse(invoiceDao.rebuildAccountBalance(context));
+    }
+
+    private UUID createExternalCharge(final BigDecimal amount, final InvoiceStatus status) {
+        final InvoiceModelDao invoice = new InvoiceModelDao(account.getId(), clock.getUTCToday(), clock.getUTCToday(), Currency.USD, false, status);
+        invoice.addInvoiceItem(new InvoiceItemModelDao(new ExternalChargeInvoiceItem(invoice.getId(), account.getId(), null, null, clock.getUTCToday(), clock.getUTCToday(), amount, Currency.USD, null)));
+        invoiceDao.createInvoices(List.of(invoice), null, Collections.emptySet(), null, null, true, context);
+        return invoice.getId();
+    }
+
+    private void createCredit(final BigDecimal amount) {
+        final InvoiceModelDao invoice = new InvoiceModelDao(account.getId(), clock.getUTCToday(), clock.getUTCToday(), Currency.USD, false, InvoiceStatus.COMMITTED);
+        invoice.addInvoiceItem(new InvoiceItemModelDao(new CreditAdjInvoiceItem(UUID.randomUUID(), context.getCreatedDate(), invoice.getId(), account.getId(), clock.getUTCToday(), null, amount.negate(), Currency.USD, null)));
+        invoiceDao.createInvoices(List.of(invoice), null, Collections.emptySet(), null, null, true, context);
+    }
+
+    private void corrupt(final String sql) {
+        dbi.withHandle(handle -> {
+            handle.execute(sql);
+            return null;
+        });
+    }
+}
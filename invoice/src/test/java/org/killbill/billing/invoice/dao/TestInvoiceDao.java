@@ -75,6 +75,7 @@ import org.killbill.billing.junction.BillingEventSet;
 import org.killbill.billing.subscription.api.SubscriptionBase;
 import org.killbill.billing.subscription.api.SubscriptionBaseTransitionType;
 import org.killbill.billing.util.currency.KillBillMoney;
+import org.killbill.billing.util.entity.DefaultPagination;
 import org.killbill.billing.util.entity.Pagination;
 import org.killbill.clock.ClockMock;
 import org.killbill.commons.utils.collect.Iterables;
@@ -2073,6 +2074,25 @@ public class TestInvoiceDao extends InvoiceTestSuiteWithEmbeddedDB {
         Assert.assertNotNull(all);
         Assert.assertEquals(all.size(), 1);
 
+        // keyset pagination, based on account id and currency
+        final Pagination<InvoiceModelDao> firstAccountPage = invoiceDao.searchInvoices(account.getId().toString(), null, 0L, 2L, internalCallContext);
+        Assert.assertEquals(Iterables.toUnmodifiableList(firstAccountPage).size(), 2);
+        final Long accountCursor = ((DefaultPagination<InvoiceModelDao>) firstAccountPage).getNextCursor();
+        Assert.assertNotNull(accountCursor);
+        final Pagination<InvoiceModelDao> secondAccountPage = invoiceDao.searchInvoices(account.getId().toString(), accountCursor, 2L, 2L, internalCallContext);
+        Assert.assertEquals(Iterables.toUnmodifiableList(secondAccountPage).size(), 1);
+        Assert.assertNull(secondAccountPage.getNextOffset());
+
+        final Pagination<InvoiceModelDao> firstCurrencyPage = invoiceDao.searchInvoices("USD", null, 0L, 1L, internalCallContext);
+        Assert.assertEquals(Iterables.toUnmodifiableList(firstCurrencyPage).size(), 1);
+        final Long currencyCursor = ((DefaultPagination<InvoiceModelDao>) firstCurrencyPage).getNextCursor();
+        Assert.assertNotNull(currencyCursor);
+        final Pagination<InvoiceModelDao> secondCurrencyPage = invoiceDao.searchInvoices("USD", currencyCursor, 1L, 1L, internalCallContext);
+        final List<InvoiceModelDao> secondCurrencyInvoices = Iterables.toUnmodifiableList(secondCurrencyPage);
+        Assert.assertEquals(secondCurrencyInvoices.size(), 1);
+        Assert.assertEquals(secondCurrencyInvoices.get(0).getCurrency(), Currency.USD);
+        Assert.assertTrue(secondCurrencyInvoices.get(0).getRecordId() > currencyCursor);
+
         //search based on invoice number
         page = invoiceDao.searchInvoices(all.get(0).getInvoiceNumber().toString(), 0L, 10L, internalCallContext);
         all = Iterables.toUnmodifiableList(page);
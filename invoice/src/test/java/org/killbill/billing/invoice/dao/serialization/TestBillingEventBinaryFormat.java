@@ -0,0 +1,131 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.invoice.dao.serialization;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.killbill.billing.catalog.api.BillingAlignment;
+import org.killbill.billing.catalog.api.BillingPeriod;
+import org.killbill.billing.invoice.InvoiceTestSuiteNoDB;
+import org.killbill.billing.invoice.dao.serialization.BillingEventSetJson.BillingEventJson;
+import org.killbill.billing.invoice.dao.serialization.BillingEventSetJson.SubscriptionBillingEventJson;
+import org.killbill.billing.subscription.api.SubscriptionBaseTransitionType;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class TestBillingEventBinaryFormat extends InvoiceTestSuiteNoDB {
+
+    private static final DateTime START_DATE = new DateTime(2019, 9, 26, 10, 12, 13, DateTimeZone.UTC);
+
+    @Test(groups = "fast")
+    public void testRoundTrip() throws Exception {
+        final SubscriptionBillingEventJson sub1 = new SubscriptionBillingEventJson(false, UUID.randomUUID(), List.of(
+                new BillingEventJson(26, BillingAlignment.ACCOUNT, "pistol-monthly", "pistol-monthly-trial", BillingPeriod.NO_BILLING_PERIOD,
+                                     START_DATE, BigDecimal.ZERO, null, SubscriptionBaseTransitionType.CREATE, START_DATE.minusYears(1)),
+                new BillingEventJson(26, BillingAlignment.ACCOUNT, "pistol-monthly", "pistol-monthly-evergreen", BillingPeriod.MONTHLY,
+                                     START_DATE.plusDays(30), null, new BigDecimal("29.95"), SubscriptionBaseTransitionType.PHASE, START_DATE.minusYears(1)),
+                // Events are not necessarily sorted by effective date
+                new BillingEventJson(1, null, null, null, null,
+                                     START_DATE.minusDays(2), null, new BigDecimal("-1234567890123456789012.123456789"), SubscriptionBaseTransitionType.CANCEL, null)));
+        final SubscriptionBillingEventJson sub2 = new SubscriptionBillingEventJson(true, UUID.randomUUID(), List.of(
+                new BillingEventJson(3, BillingAlignment.SUBSCRIPTION, "shotgun-annual", "shotgun-annual-evergreen", BillingPeriod.ANNUAL,
+                                     START_DATE, null, new BigDecimal("249.95"), SubscriptionBaseTransitionType.CREATE, START_DATE)));
+        final BillingEventSetJson eventSet = new BillingEventSetJson(false, true, true, List.of(sub1, sub2));
+
+        final byte[] data = BillingEventBinaryFormat.serialize(eventSet);
+        assertTrue(BillingEventBinaryFormat.isBinaryFormat(data));
+
+        final BillingEventSetJson result = BillingEventBinaryFormat.deserialize(data);
+        assertFalse(result.isAutoInvoiceOff());
+        assertTrue(result.isAutoInvoiceDraft());
+        assertTrue(result.isAutoInvoiceReuseDraft());
+        assertEquals(result.getSubscriptionEvents().size(), 2);
+        checkSubscription(result.getSubscriptionEvents().get(0), sub1);
+        checkSubscription(result.getSubscriptionEvents().get(1), sub2);
+
+        // Single subscription
+        checkSubscription(BillingEventBinaryFormat.readSubscription(data, sub2.getSubscriptionId()), sub2);
+        assertNull(BillingEventBinaryFormat.readSubscription(data, UUID.randomUUID()));
+    }
+
+    @Test(groups = "fast")
+    public void testBothFormats() throws Exception {
+        final BillingEventSetJson eventSet = createLargeEventSet(200, 10);
+        final UUID subscriptionId = eventSet.getSubscriptionEvents().get(150).getSubscriptionId();
+
+        final byte[] binary = BillingEventBinaryFormat.serialize(eventSet);
+        final byte[] json = BillingEventSerializer.serializeJson(eventSet);
+        assertFalse(BillingEventBinaryFormat.isBinaryFormat(json));
+        assertTrue(binary.length < json.length, String.format("binary=%s, json=%s", binary.length, json.length));
+
+        for (final byte[] data : List.of(binary, json)) {
+            final BillingEventSetJson result = BillingEventSerializer.deserialize(data);
+            assertEquals(result.getSubscriptionEvents().size(), 200);
+            for (int i = 0; i < 200; i++) {
+                checkSubscription(result.getSubscriptionEvents().get(i), eventSet.getSubscriptionEvents().get(i));
+            }
+            checkSubscription(BillingEventSerializer.deserializeSubscription(data, subscriptionId), eventSet.getSubscriptionEvents().get(150));
+        }
+    }
+
+    private BillingEventSetJson createLargeEventSet(final int nbSubscriptions, final int nbEventsPerSubscription) {
+        final List<SubscriptionBillingEventJson> subscriptions = new ArrayList<>();
+        for (int i = 0; i < nbSubscriptions; i++) {
+            final List<BillingEventJson> events = new ArrayList<>();
+            for (int j = 0; j < nbEventsPerSubscription; j++) {
+                events.add(new BillingEventJson(i % 28 + 1, BillingAlignment.ACCOUNT, "plan-" + (i % 5), "plan-" + (i % 5) + "-evergreen", BillingPeriod.MONTHLY,
+                                                START_DATE.plusMonths(j).plusSeconds(i), null, new BigDecimal("10.00").add(BigDecimal.valueOf(j)), SubscriptionBaseTransitionType.CHANGE, START_DATE));
+            }
+            subscriptions.add(new SubscriptionBillingEventJson(false, UUID.randomUUID(), events));
+        }
+        return new BillingEventSetJson(false, false, false, subscriptions);
+    }
+
+    private void checkSubscription(final SubscriptionBillingEventJson actual, final SubscriptionBillingEventJson expected) {
+        assertEquals(actual.getSubscriptionId(), expected.getSubscriptionId());
+        assertEquals(actual.isAutoInvoiceOff(), expected.isAutoInvoiceOff());
+        assertEquals(actual.getEvents().size(), expected.getEvents().size());
+        for (int i = 0; i < expected.getEvents().size(); i++) {
+            final BillingEventJson actualEvent = actual.getEvents().get(i);
+            final BillingEventJson expectedEvent = expected.getEvents().get(i);
+            assertEquals(actualEvent.getBcdLocal(), expectedEvent.getBcdLocal());
+            assertEquals(actualEvent.getAlignment(), expectedEvent.getAlignment());
+            assertEquals(actualEvent.getPlanName(), expectedEvent.getPlanName());
+            assertEquals(actualEvent.getPhaseName(), expectedEvent.getPhaseName());
+            assertEquals(actualEvent.getBillingPeriod(), expectedEvent.getBillingPeriod());
+            assertEquals(toMillis(actualEvent.getEffDate()), toMillis(expectedEvent.getEffDate()));
+            assertEquals(toMillis(actualEvent.getCatalogEffDt()), toMillis(expectedEvent.getCatalogEffDt()));
+            assertEquals(actualEvent.getFixedPrice(), expectedEvent.getFixedPrice());
+            assertEquals(actualEvent.getRecurringPrice(), expectedEvent.getRecurringPrice());
+            assertEquals(actualEvent.getTransitionType(), expectedEvent.getTransitionType());
+        }
+    }
+
+    private Long toMillis(final DateTime dateTime) {
+        return dateTime == null ? null : dateTime.getMillis();
+    }
+}
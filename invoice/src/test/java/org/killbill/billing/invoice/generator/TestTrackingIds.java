@@ -0,0 +1,98 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.invoice.generator;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import org.joda.time.LocalDate;
+import org.killbill.billing.invoice.InvoiceTestSuiteNoDB;
+import org.killbill.billing.invoice.generator.InvoiceWithMetadata.TrackingRecordId;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestTrackingIds extends InvoiceTestSuiteNoDB {
+
+    @Test(groups = "fast")
+    public void testAddAndIterate() {
+        final UUID invoiceId = UUID.randomUUID();
+        final UUID subscriptionId = UUID.randomUUID();
+        final LocalDate date = new LocalDate(2024, 1, 1);
+
+        final TrackingIds trackingIds = new TrackingIds(invoiceId);
+        Assert.assertTrue(trackingIds.add("tracking-2", subscriptionId, "unit", date));
+        Assert.assertTrue(trackingIds.add("tracking-1", subscriptionId, "unit", date));
+        Assert.assertTrue(trackingIds.add("tracking-1", subscriptionId, "unit", date.plusDays(1)));
+        Assert.assertTrue(trackingIds.add("tracking-1", subscriptionId, "other", date));
+        // Duplicates
+        Assert.assertFalse(trackingIds.add("tracking-2", subscriptionId, "unit", date));
+        Assert.assertFalse(trackingIds.add(new TrackingRecordId("tracking-1", invoiceId, subscriptionId, "unit", date)));
+        Assert.assertEquals(trackingIds.size(), 4);
+
+        final Set<TrackingRecordId> expected = Set.of(new TrackingRecordId("tracking-2", invoiceId, subscriptionId, "unit", date),
+                                                      new TrackingRecordId("tracking-1", invoiceId, subscriptionId, "unit", date),
+                                                      new TrackingRecordId("tracking-1", invoiceId, subscriptionId, "unit", date.plusDays(1)),
+                                                      new TrackingRecordId("tracking-1", invoiceId, subscriptionId, "other", date));
+        Assert.assertEquals(new HashSet<>(trackingIds), expected);
+        Assert.assertEquals(trackingIds, expected);
+        Assert.assertTrue(trackingIds.contains(new TrackingRecordId("tracking-2", invoiceId, subscriptionId, "unit", date)));
+        Assert.assertFalse(trackingIds.contains(new TrackingRecordId("tracking-2", UUID.randomUUID(), subscriptionId, "unit", date)));
+        Assert.assertFalse(trackingIds.contains(new TrackingRecordId("tracking-2", invoiceId, subscriptionId, "other", date)));
+
+        trackingIds.removeUnitType("unit");
+        Assert.assertEquals(trackingIds, Set.of(new TrackingRecordId("tracking-1", invoiceId, subscriptionId, "other", date)));
+    }
+
+    @Test(groups = "fast", expectedExceptions = IllegalArgumentException.class)
+    public void testAddFromOtherInvoice() {
+        new TrackingIds(UUID.randomUUID()).add(new TrackingRecordId("tracking-1", UUID.randomUUID(), UUID.randomUUID(), "unit", new LocalDate(2024, 1, 1)));
+    }
+
+    @Test(groups = "fast")
+    public void testWithoutSimilarRecords() {
+        final UUID invoiceId = UUID.randomUUID();
+        final UUID subscriptionId1 = UUID.randomUUID();
+        final UUID subscriptionId2 = UUID.randomUUID();
+        final LocalDate date = new LocalDate(2024, 1, 1);
+
+        // Existing records were billed on a previous invoice
+        final TrackingIds existing = TrackingIds.ofExistingRecords(Set.of(new TrackingRecordId("tracking-1", UUID.randomUUID(), subscriptionId1, "unit", date),
+                                                                          new TrackingRecordId("tracking-2", UUID.randomUUID(), subscriptionId1, "unit", date)));
+        Assert.assertTrue(existing.containsSimilarRecord("tracking-1", subscriptionId1, "unit", date));
+        Assert.assertFalse(existing.containsSimilarRecord("tracking-1", subscriptionId2, "unit", date));
+        Assert.assertSame(TrackingIds.ofExistingRecords(existing), existing);
+
+        final TrackingIds trackingIds = new TrackingIds(invoiceId);
+        trackingIds.add("tracking-1", subscriptionId1, "unit", date);
+        trackingIds.add("tracking-1", subscriptionId2, "unit", date);
+        trackingIds.add("tracking-2", subscriptionId1, "unit", date.plusDays(1));
+        trackingIds.add("tracking-3", subscriptionId1, "unit", date);
+
+        final TrackingIds newTrackingIds = trackingIds.withoutSimilarRecords(existing);
+        Assert.assertEquals(newTrackingIds, Set.of(new TrackingRecordId("tracking-1", invoiceId, subscriptionId2, "unit", date),
+                                                   new TrackingRecordId("tracking-2", invoiceId, subscriptionId1, "unit", date.plusDays(1)),
+                                                   new TrackingRecordId("tracking-3", invoiceId, subscriptionId1, "unit", date)));
+
+        final TrackingIds merged = new TrackingIds(invoiceId);
+        merged.add("tracking-3", subscriptionId1, "unit", date);
+        Assert.assertTrue(merged.addAll(newTrackingIds));
+        Assert.assertEquals(merged, newTrackingIds);
+        Assert.assertFalse(merged.addAll(newTrackingIds));
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.invoice.generator;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.LocalDate;
+import org.killbill.billing.account.api.ImmutableAccountData;
+import org.killbill.billing.catalog.DefaultTier;
+import org.killbill.billing.catalog.DefaultTieredBlock;
+import org.killbill.billing.catalog.api.BillingPeriod;
+import org.killbill.billing.catalog.api.TierBlockPolicy;
+import org.killbill.billing.catalog.api.Usage;
+import org.killbill.billing.invoice.api.InvoiceItem;
+import org.killbill.billing.invoice.generator.InvoiceItemGenerator.InvoiceGeneratorResult;
+import org.killbill.billing.invoice.generator.InvoiceWithMetadata.SubscriptionFutureNotificationDates;
+import org.killbill.billing.invoice.optimizer.InvoiceOptimizerBase.AccountInvoices;
+import org.killbill.billing.invoice.usage.RawUsageOptimizer;
+import org.killbill.billing.invoice.usage.RawUsageOptimizer.RawUsageOptimizerResult;
+import org.killbill.billing.invoice.usage.TestUsageInArrearBase;
+import org.killbill.billing.junction.BillingEvent;
+import org.killbill.billing.junction.BillingEventSet;
+import org.killbill.billing.usage.api.RawUsageRecord;
+import org.killbill.billing.usage.api.svcs.DefaultRawUsage;
+import org.killbill.billing.util.config.definition.InvoiceConfig;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestUsageInvoiceItemGenerator extends TestUsageInArrearBase {
+
+    private static final int NB_SUBSCRIPTIONS = 12;
+
+    @Test(groups = "fast")
+    public void testParallelItemsMatchSerialItems() throws Exception {
+        final DefaultTieredBlock block = createDefaultTieredBlock("unit", 100, 1000, BigDecimal.ONE);
+        final DefaultTier tier = createDefaultTierWithBlocks(block);
+        final Usage usage = createConsumableInArrearUsage(usageName, BillingPeriod.MONTHLY, TierBlockPolicy.ALL_TIERS, tier);
+
+        final DateTime startDate = new DateTime(2013, 3, 23, 4, 34, 59, DateTimeZone.UTC);
+        final LocalDate targetDate = new LocalDate(2013, 6, 23);
+
+        final List<BillingEvent> billingEvents = new ArrayList<>();
+        final List<RawUsageRecord> rawUsages = new ArrayList<>();
+        for (int i = 0; i < NB_SUBSCRIPTIONS; i++) {
+            // createMockBillingEvent uses the current subscriptionId
+            subscriptionId = UUID.randomUUID();
+            billingEvents.add(createMockBillingEvent(startDate, BillingPeriod.MONTHLY, List.of(usage), catalogEffectiveDate));
+            for (int month = 0; month < 3; month++) {
+                rawUsages.add(new DefaultRawUsage(subscriptionId, startDate.plusMonths(month).plusDays(1), "unit", BigDecimal.valueOf(100L * (i + 1) + month), "tracking-" + i + "-" + month));
+            }
+        }
+
+        final InvoiceGeneratorResult serialResult = generateItems(createGenerator(0, rawUsages), billingEvents, usage, targetDate);
+        final InvoiceGeneratorResult parallelResult = generateItems(createGenerator(4, rawUsages), billingEvents, usage, targetDate);
+
+        Assert.assertEquals(serialResult.getItems().size(), NB_SUBSCRIPTIONS * 3);
+        Assert.assertEquals(parallelResult.getItems().size(), serialResult.getItems().size());
+        for (int i = 0; i < serialResult.getItems().size(); i++) {
+            final InvoiceItem serialItem = serialResult.getItems().get(i);
+            final InvoiceItem parallelItem = parallelResult.getItems().get(i);
+            Assert.assertTrue(serialItem.matches(parallelItem), String.format("Serial item %s doesn't match parallel item %s", serialItem, parallelItem));
+        }
+        Assert.assertEquals(parallelResult.getTrackingIds(), serialResult.getTrackingIds());
+    }
+
+    private UsageInvoiceItemGenerator createGenerator(final int usageThreadNb, final List<RawUsageRecord> rawUsages) {
+        final InvoiceConfig config = Mockito.spy(invoiceConfig);
+        Mockito.doReturn(usageThreadNb).when(config).getUsageInvoiceThreadNb();
+        Mockito.doReturn(1).when(config).getUsageInvoiceParallelMinSubscriptions();
+
+        final RawUsageOptimizer rawUsageOptimizer = Mockito.mock(RawUsageOptimizer.class);
+        Mockito.when(rawUsageOptimizer.getInArrearUsage(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
+               .thenAnswer(invocation -> new RawUsageOptimizerResult(invocation.getArgument(0), rawUsages, new TrackingIds(null)));
+
+        return new UsageInvoiceItemGenerator(rawUsageOptimizer, config);
+    }
+
+    private InvoiceGeneratorResult generateItems(final UsageInvoiceItemGenerator generator, final List<BillingEvent> billingEvents, final Usage usage, final LocalDate targetDate) throws Exception {
+        final BillingEventSet eventSet = Mockito.mock(BillingEventSet.class);
+        Mockito.when(eventSet.iterator()).thenAnswer(invocation -> billingEvents.iterator());
+        Mockito.when(eventSet.stream()).thenAnswer(invocation -> billingEvents.stream());
+        Mockito.when(eventSet.getUsages()).thenReturn(Map.of(usage.getName(), usage));
+
+        final ImmutableAccountData account = Mockito.mock(ImmutableAccountData.class);
+        Mockito.when(account.getId()).thenReturn(accountId);
+
+        final Map<UUID, SubscriptionFutureNotificationDates> perSubscriptionFutureNotificationDates = new HashMap<>();
+        return generator.generateItems(account, invoiceId, eventSet, new AccountInvoices(), targetDate, currency, perSubscriptionFutureNotificationDates, null, List.of(), internalCallContext);
+    }
+}
@@ -26,6 +26,7 @@ import org.killbill.billing.invoice.TestInvoiceNotificationQListener;
 import org.killbill.billing.platform.api.KillbillConfigSource;
 import org.killbill.billing.util.glue.AuditModule;
 import org.killbill.billing.util.glue.NonEntityDaoModule;
+import org.killbill.billing.util.glue.SearchModule;
 import org.killbill.billing.util.glue.TagStoreModule;
 import org.killbill.clock.ClockMock;
 import org.mockito.Mockito;
@@ -51,6 +52,7 @@ public class TestInvoiceModuleWithEmbeddedDb extends TestInvoiceModule {
         install(new DefaultAccountModule(configSource));
         install(new GuicyKillbillTestWithEmbeddedDBModule(configSource, clock));
         install(new NonEntityDaoModule(configSource));
+        install(new SearchModule(configSource));
         install(new TagStoreModule(configSource));
         install(new AuditModule(configSource));
 
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.invoice.tree;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+
+import org.joda.time.LocalDate;
+import org.killbill.billing.catalog.api.Currency;
+import org.killbill.billing.invoice.InvoiceTestSuiteNoDB;
+import org.killbill.billing.invoice.api.InvoiceItem;
+import org.killbill.billing.invoice.api.InvoiceItemType;
+import org.killbill.billing.invoice.model.ItemAdjInvoiceItem;
+import org.killbill.billing.invoice.model.RecurringInvoiceItem;
+import org.killbill.commons.concurrent.Executors;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestAccountItemTree extends InvoiceTestSuiteNoDB {
+
+    private final UUID accountId = UUID.randomUUID();
+    private final UUID bundleId = UUID.randomUUID();
+    private final UUID existingInvoiceId = UUID.randomUUID();
+    private final UUID targetInvoiceId = UUID.randomUUID();
+    private final LocalDate startDate = new LocalDate(2020, 1, 1);
+    private final BigDecimal oldRate = new BigDecimal("10.00");
+    private final BigDecimal newRate = new BigDecimal("20.00");
+
+    @Test(groups = "fast")
+    public void testParallelBuildAndMerge() throws Exception {
+        final int nbSubscriptions = 60;
+        final int nbMonths = 24;
+
+        final List<InvoiceItem> existingItems = new ArrayList<InvoiceItem>();
+        final List<InvoiceItem> proposedItems = new ArrayList<InvoiceItem>();
+        for (int i = 0; i < nbSubscriptions; i++) {
+            final UUID subscriptionId = UUID.randomUUID();
+            for (int month = 0; month < nbMonths; month++) {
+                final InvoiceItem existing = createRecurringItem(existingInvoiceId, subscriptionId, month, oldRate);
+                existingItems.add(existing);
+                if (month == i % nbMonths) {
+                    existingItems.add(new ItemAdjInvoiceItem(existing, existing.getStartDate(), new BigDecimal("-1.00"), Currency.USD));
+                }
+                // Price change half-way through, which requires repairing the existing items
+                proposedItems.add(createRecurringItem(targetInvoiceId, subscriptionId, month, month < nbMonths / 2 ? oldRate : newRate));
+            }
+            // Next period
+            proposedItems.add(createRecurringItem(targetInvoiceId, subscriptionId, nbMonths, newRate));
+        }
+
+        final List<InvoiceItem> sequentialResult = buildAndMerge(existingItems, proposedItems, null, false);
+        Assert.assertEquals(sequentialResult.stream().filter(item -> item.getInvoiceItemType() == InvoiceItemType.RECURRING).count(), (long) nbSubscriptions * (nbMonths / 2 + 1));
+        Assert.assertEquals(sequentialResult.stream().filter(item -> item.getInvoiceItemType() == InvoiceItemType.REPAIR_ADJ).count(), (long) nbSubscriptions * (nbMonths / 2));
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(4, "TestAccountItemTree");
+        try {
+            // Same items, in the same order
+            final List<InvoiceItem> parallelResult = buildAndMerge(existingItems, proposedItems, executorService, false);
+            assertSameItems(parallelResult, sequentialResult);
+
+            // Same items with the flat trees
+            assertSameItems(buildAndMerge(existingItems, proposedItems, null, true), sequentialResult);
+            assertSameItems(buildAndMerge(existingItems, proposedItems, executorService, true), sequentialResult);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private void assertSameItems(final List<InvoiceItem> result, final List<InvoiceItem> expected) {
+        Assert.assertEquals(result.size(), expected.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertTrue(result.get(i).matches(expected.get(i)), String.format("Unexpected item %s, expected %s", result.get(i), expected.get(i)));
+        }
+    }
+
+    private List<InvoiceItem> buildAndMerge(final List<InvoiceItem> existingItems, final List<InvoiceItem> proposedItems, final ExecutorService executorService, final boolean useFlatTrees) {
+        final AccountItemTree tree = new AccountItemTree(accountId, targetInvoiceId, invoiceConfig.getProrationFixedDays(), executorService, 1, useFlatTrees);
+        for (final InvoiceItem existingItem : existingItems) {
+            tree.addExistingItem(existingItem);
+        }
+        tree.mergeWithProposedItems(proposedItems);
+        return tree.getResultingItemList();
+    }
+
+    private InvoiceItem createRecurringItem(final UUID invoiceId, final UUID subscriptionId, final int month, final BigDecimal rate) {
+        return new RecurringInvoiceItem(invoiceId, accountId, bundleId, subscriptionId, "product", "plan", "phase", null,
+                                        startDate.plusMonths(month), startDate.plusMonths(month + 1), rate, rate, Currency.USD);
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.invoice.tree;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import org.joda.time.Days;
+import org.joda.time.LocalDate;
+import org.killbill.billing.catalog.api.Currency;
+import org.killbill.billing.invoice.InvoiceTestSuiteNoDB;
+import org.killbill.billing.invoice.api.InvoiceItem;
+import org.killbill.billing.invoice.model.ItemAdjInvoiceItem;
+import org.killbill.billing.invoice.model.RecurringInvoiceItem;
+import org.killbill.billing.invoice.model.RepairAdjInvoiceItem;
+import org.killbill.billing.util.jackson.ObjectMapper;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Differential tests between FlatItemsTree and the ItemsNodeInterval tree: on random scenarios, both implementations
+ * must produce the same trees and the same items (or fail the same way).
+ */
+public class TestFlatItemsTree extends InvoiceTestSuiteNoDB {
+
+    private static final int NB_SCENARIOS = 2000;
+
+    private final UUID accountId = UUID.randomUUID();
+    private final UUID bundleId = UUID.randomUUID();
+    private final UUID subscriptionId = UUID.randomUUID();
+    private final UUID existingInvoiceId = UUID.randomUUID();
+    private final UUID targetInvoiceId = UUID.randomUUID();
+    private final LocalDate startDate = new LocalDate(2020, 1, 1);
+    private final String[] planNames = {"plan-a", "plan-b"};
+    private final BigDecimal[] rates = {new BigDecimal("30.00"), new BigDecimal("45.00")};
+
+    @Test(groups = "fast")
+    public void testToEpochDay() {
+        final LocalDate epoch = new LocalDate(1970, 1, 1);
+        for (LocalDate date = new LocalDate(1899, 12, 1); date.isBefore(new LocalDate(2101, 3, 1)); date = date.plusDays(1)) {
+            Assert.assertEquals(FlatItemsTree.toEpochDay(date), Days.daysBetween(epoch, date).getDays(), date.toString());
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testRandomScenarios() throws IOException {
+        final Random random = new Random(7);
+        int nbSuccessfulScenarios = 0;
+        for (int i = 0; i < NB_SCENARIOS; i++) {
+            final int prorationFixedDays = random.nextBoolean() ? 0 : 30;
+            final List<InvoiceItem> existingItems = createExistingItems(random);
+            final List<InvoiceItem> proposedItems = createProposedItems(random, existingItems);
+
+            final String scenario = String.format("scenario=%s, prorationFixedDays=%s, existingItems=%s, proposedItems=%s", i, prorationFixedDays, existingItems, proposedItems);
+            final Result expected = run(existingItems, proposedItems, prorationFixedDays, false);
+            final Result result = run(existingItems, proposedItems, prorationFixedDays, true);
+
+            Assert.assertEquals(result.existingTree, expected.existingTree, scenario);
+            assertSameItems(result.existingView, expected.existingView, scenario);
+            assertSameItems(result.mergedView, expected.mergedView, scenario);
+            Assert.assertEquals(result.exception == null ? null : result.exception.getClass(),
+                                expected.exception == null ? null : expected.exception.getClass(),
+                                scenario + ", exception=" + expected.exception);
+            if (expected.exception == null) {
+                nbSuccessfulScenarios++;
+            }
+        }
+        // Make sure the random scenarios are not only invalid ones
+        Assert.assertTrue(nbSuccessfulScenarios > NB_SCENARIOS / 2, "Only " + nbSuccessfulScenarios + " valid scenarios");
+    }
+
+    private Result run(final List<InvoiceItem> existingItems, final List<InvoiceItem> proposedItems, final int prorationFixedDays, final boolean useFlatTree) throws IOException {
+        final Result result = new Result();
+        final SubscriptionItemTree tree = new SubscriptionItemTree(subscriptionId, targetInvoiceId, prorationFixedDays, useFlatTree);
+        try {
+            for (final InvoiceItem existingItem : existingItems) {
+                tree.addItem(existingItem);
+            }
+            final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            tree.getRoot().jsonSerializeTree(new ObjectMapper(), outputStream);
+            result.existingTree = outputStream.toString("UTF-8");
+
+            tree.build();
+            result.existingView = tree.getView();
+
+            tree.flatten(true);
+            for (final InvoiceItem proposedItem : proposedItems) {
+                tree.mergeProposedItem(proposedItem);
+            }
+            tree.buildForMerge();
+            result.mergedView = tree.getView();
+        } catch (final RuntimeException e) {
+            result.exception = e;
+        }
+        return result;
+    }
+
+    // Contiguous periods, with some plan changes (repaired), item adjustments and an occasional overlapping item
+    private List<InvoiceItem> createExistingItems(final Random random) {
+        final List<InvoiceItem> result = new ArrayList<InvoiceItem>();
+        final List<InvoiceItem> recurringItems = new ArrayList<InvoiceItem>();
+        int curDay = 0;
+        final int nbPeriods = 1 + random.nextInt(3);
+        for (int i = 0; i < nbPeriods; i++) {
+            final int length = 10 + random.nextInt(50);
+            final int plan = random.nextInt(planNames.length);
+            final InvoiceItem item = createRecurringItem(existingInvoiceId, curDay, curDay + length, plan);
+            result.add(item);
+            recurringItems.add(item);
+
+            if (random.nextInt(10) < 4) {
+                final int changeDay = curDay + 1 + random.nextInt(length - 1);
+                final BigDecimal repairedAmount = item.getAmount().multiply(BigDecimal.valueOf(curDay + length - changeDay))
+                                                      .divide(BigDecimal.valueOf(length), 2, RoundingMode.HALF_UP);
+                result.add(new RepairAdjInvoiceItem(existingInvoiceId, accountId, day(changeDay), day(curDay + length), repairedAmount.negate(), Currency.USD, item.getId()));
+                final InvoiceItem newItem = createRecurringItem(existingInvoiceId, changeDay, curDay + length, (plan + 1) % planNames.length);
+                result.add(newItem);
+                recurringItems.add(newItem);
+            }
+            curDay += length + (random.nextInt(10) < 2 ? random.nextInt(10) : 0);
+        }
+
+        if (random.nextInt(10) < 3) {
+            final InvoiceItem item = recurringItems.get(random.nextInt(recurringItems.size()));
+            final BigDecimal amount = random.nextBoolean() ? item.getAmount() : BigDecimal.ONE;
+            result.add(new ItemAdjInvoiceItem(item, item.getStartDate(), amount.negate(), Currency.USD));
+        }
+        if (random.nextInt(10) < 1) {
+            final int start = random.nextInt(curDay);
+            result.add(createRecurringItem(existingInvoiceId, start, start + 1 + random.nextInt(30), random.nextInt(planNames.length)));
+        }
+        return result;
+    }
+
+    // Either the existing periods (possibly cut or changed), or random ones
+    private List<InvoiceItem> createProposedItems(final Random random, final List<InvoiceItem> existingItems) {
+        final List<InvoiceItem> result = new ArrayList<InvoiceItem>();
+        if (random.nextInt(10) < 2) {
+            int curDay = random.nextInt(10);
+            while (curDay < 150 && random.nextInt(10) < 8) {
+                final int endDay = curDay + 1 + random.nextInt(40);
+                result.add(createRecurringItem(targetInvoiceId, curDay, endDay, random.nextInt(planNames.length)));
+                curDay = endDay + (random.nextBoolean() ? 0 : random.nextInt(5));
+            }
+            return result;
+        }
+
+        int lastEndDay = 0;
+        for (final InvoiceItem existingItem : existingItems) {
+            if (!(existingItem instanceof RecurringInvoiceItem)) {
+                continue;
+            }
+            final int startDay = Days.daysBetween(startDate, existingItem.getStartDate()).getDays();
+            final int endDay = Days.daysBetween(startDate, existingItem.getEndDate()).getDays();
+            final int plan = planNames[0].equals(existingItem.getPlanName()) ? 0 : 1;
+            if (startDay < lastEndDay) {
+                // Existing item which was changed (or overlapping one)
+                continue;
+            }
+            switch (random.nextInt(6)) {
+                case 0:
+                    // Cancelled
+                    break;
+                case 1:
+                    // Cancelled before the end of the period
+                    result.add(createRecurringItem(targetInvoiceId, startDay, startDay + 1 + random.nextInt(endDay - startDay), plan));
+                    break;
+                case 2:
+                    // Plan change during the period
+                    final int changeDay = startDay + random.nextInt(endDay - startDay);
+                    if (changeDay > startDay) {
+                        result.add(createRecurringItem(targetInvoiceId, startDay, changeDay, plan));
+                    }
+                    result.add(createRecurringItem(targetInvoiceId, changeDay, endDay, (plan + 1) % planNames.length));
+                    break;
+                default:
+                    result.add(createRecurringItem(targetInvoiceId, startDay, endDay, plan));
+            }
+            lastEndDay = endDay;
+        }
+        if (random.nextBoolean()) {
+            result.add(createRecurringItem(targetInvoiceId, lastEndDay, lastEndDay + 30, random.nextInt(planNames.length)));
+        }
+        return result;
+    }
+
+    private InvoiceItem createRecurringItem(final UUID invoiceId, final int startDay, final int endDay, final int plan) {
+        final BigDecimal amount = rates[plan].multiply(BigDecimal.valueOf(endDay - startDay)).divide(BigDecimal.valueOf(30), 2, RoundingMode.HALF_UP);
+        return new RecurringInvoiceItem(invoiceId, accountId, bundleId, subscriptionId, "product", planNames[plan], planNames[plan] + "-evergreen", null,
+                                        day(startDay), day(endDay), amount, rates[plan], Currency.USD);
+    }
+
+    private LocalDate day(final int day) {
+        return startDate.plusDays(day);
+    }
+
+    private void assertSameItems(final List<InvoiceItem> result, final List<InvoiceItem> expected, final String scenario) {
+        if (expected == null || result == null) {
+            Assert.assertEquals(result, expected, scenario);
+            return;
+        }
+        Assert.assertEquals(result.size(), expected.size(), scenario);
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertTrue(result.get(i).matches(expected.get(i)), String.format("Unexpected item %s, expected %s, %s", result.get(i), expected.get(i), scenario));
+        }
+    }
+
+    private static final class Result {
+
+        private String existingTree;
+        private List<InvoiceItem> existingView;
+        private List<InvoiceItem> mergedView;
+        private RuntimeException exception;
+    }
+}
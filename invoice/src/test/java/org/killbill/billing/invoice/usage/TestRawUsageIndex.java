@@ -0,0 +1,79 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.invoice.usage;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.killbill.billing.invoice.InvoiceTestSuiteNoDB;
+import org.killbill.billing.invoice.usage.RawUsageIndex.SubscriptionRawUsage;
+import org.killbill.billing.usage.api.RawUsageRecord;
+import org.killbill.billing.usage.api.svcs.DefaultRawUsage;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestRawUsageIndex extends InvoiceTestSuiteNoDB {
+
+    @Test(groups = "fast")
+    public void testPartitionPerSubscription() {
+        final UUID subscriptionId1 = UUID.randomUUID();
+        final UUID subscriptionId2 = UUID.randomUUID();
+        final DateTime date = new DateTime(2024, 1, 1, 0, 0, DateTimeZone.UTC);
+
+        final RawUsageRecord raw1 = new DefaultRawUsage(subscriptionId1, date.plusDays(3), new String("unit"), BigDecimal.ONE, "tracking-1");
+        final RawUsageRecord raw2 = new DefaultRawUsage(subscriptionId2, date.plusDays(1), new String("unit"), BigDecimal.ONE, "tracking-2");
+        final RawUsageRecord raw3 = new DefaultRawUsage(subscriptionId1, date.plusDays(1), new String("unit"), BigDecimal.ONE, "tracking-3");
+        final RawUsageRecord raw4 = new DefaultRawUsage(subscriptionId1, date.plusDays(2), "other", BigDecimal.ONE, "tracking-4");
+
+        final RawUsageIndex index = new RawUsageIndex(List.of(raw1, raw2, raw3, raw4));
+
+        final SubscriptionRawUsage rawUsage1 = index.getSubscriptionRawUsage(subscriptionId1);
+        Assert.assertEquals(rawUsage1, List.of(raw3, raw4, raw1));
+        Assert.assertEquals(rawUsage1.getDateMillis(0), date.plusDays(1).getMillis());
+        Assert.assertEquals(rawUsage1.getDateMillis(2), date.plusDays(3).getMillis());
+        // Unit types are interned across subscriptions
+        Assert.assertSame(rawUsage1.getUnitType(0), rawUsage1.getUnitType(2));
+        Assert.assertSame(rawUsage1.getUnitType(0), index.getSubscriptionRawUsage(subscriptionId2).getUnitType(0));
+
+        Assert.assertEquals(index.getSubscriptionRawUsage(subscriptionId2), List.of(raw2));
+        Assert.assertTrue(index.getSubscriptionRawUsage(UUID.randomUUID()).isEmpty());
+
+        // Raw usage of the whole account is filtered, partitions are reused as-is
+        Assert.assertEquals(SubscriptionRawUsage.of(subscriptionId2, List.of(raw1, raw2, raw3, raw4)), List.of(raw2));
+        Assert.assertSame(SubscriptionRawUsage.of(subscriptionId1, rawUsage1), rawUsage1);
+        Assert.assertTrue(SubscriptionRawUsage.of(subscriptionId2, rawUsage1).isEmpty());
+    }
+
+    @Test(groups = "fast")
+    public void testFirstIndexOnOrAfter() {
+        final UUID subscriptionId = UUID.randomUUID();
+        final DateTime date = new DateTime(2024, 1, 1, 0, 0, DateTimeZone.UTC);
+        final SubscriptionRawUsage rawUsage = SubscriptionRawUsage.of(List.of(new DefaultRawUsage(subscriptionId, date.plusDays(2), "unit", BigDecimal.ONE, "tracking-1"),
+                                                                              new DefaultRawUsage(subscriptionId, date, "unit", BigDecimal.ONE, "tracking-2"),
+                                                                              new DefaultRawUsage(subscriptionId, date.plusDays(2), "unit", BigDecimal.TEN, "tracking-3")));
+
+        Assert.assertEquals(rawUsage.getFirstIndexOnOrAfter(date.minusDays(1).getMillis()), 0);
+        Assert.assertEquals(rawUsage.getFirstIndexOnOrAfter(date.getMillis()), 0);
+        Assert.assertEquals(rawUsage.getFirstIndexOnOrAfter(date.plusDays(1).getMillis()), 1);
+        Assert.assertEquals(rawUsage.getFirstIndexOnOrAfter(date.plusDays(2).getMillis()), 1);
+        Assert.assertEquals(rawUsage.getFirstIndexOnOrAfter(date.plusDays(3).getMillis()), 3);
+    }
+}
@@ -22,11 +22,14 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.joda.time.DateTime;
 import org.joda.time.LocalDate;
+import org.killbill.billing.catalog.DefaultLimit;
 import org.killbill.billing.catalog.DefaultTier;
 import org.killbill.billing.catalog.DefaultTieredBlock;
+import org.killbill.billing.catalog.DefaultUnit;
 import org.killbill.billing.catalog.DefaultUsage;
 import org.killbill.billing.catalog.api.BillingPeriod;
 import org.killbill.billing.catalog.api.Currency;
@@ -39,6 +42,21 @@ import org.testng.annotations.Test;
 
 public class TestRawUsageOptimizer extends TestUsageInArrearBase {
 
+    @Test(groups = "fast")
+    public void testGetCapacityUnitTypes() {
+        final Map<String, Usage> knownUsage = new HashMap<>();
+        final DefaultLimit limit = new DefaultLimit().setUnit(new DefaultUnit().setName("capacity-unit")).setMax(BigDecimal.valueOf(100));
+        knownUsage.put("capacity", createCapacityInArrearUsage("capacity", BillingPeriod.MONTHLY, createDefaultTierWithLimits(BigDecimal.TEN, limit)));
+        final DefaultTieredBlock block = createDefaultTieredBlock("consumable-unit", 100, 1000, BigDecimal.ONE);
+        knownUsage.put("consumable", createConsumableInArrearUsage("consumable", BillingPeriod.MONTHLY, TierBlockPolicy.ALL_TIERS, createDefaultTierWithBlocks(block)));
+        Assert.assertEquals(RawUsageOptimizer.getCapacityUnitTypes(knownUsage), Set.of("capacity-unit"));
+
+        // The same unit type is billed both as CAPACITY and CONSUMABLE: the rollups can't be used
+        final DefaultTieredBlock sharedBlock = createDefaultTieredBlock("capacity-unit", 100, 1000, BigDecimal.ONE);
+        knownUsage.put("shared", createConsumableInArrearUsage("shared", BillingPeriod.MONTHLY, TierBlockPolicy.ALL_TIERS, createDefaultTierWithBlocks(sharedBlock)));
+        Assert.assertNull(RawUsageOptimizer.getCapacityUnitTypes(knownUsage));
+    }
+
     @Test(groups = "fast")
     public void testWithNoItems() {
 
@@ -18,11 +18,14 @@
 
 package org.killbill.billing.jaxrs.json;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -33,13 +36,14 @@ import org.killbill.billing.invoice.api.Invoice;
 import org.killbill.billing.invoice.api.InvoiceItem;
 import org.killbill.billing.invoice.api.InvoiceItemType;
 import org.killbill.billing.invoice.api.InvoicePayment;
-import org.killbill.billing.jaxrs.resources.JaxRsResourceBase;
+import org.killbill.billing.invoice.api.InvoicePaymentType;
 import org.killbill.billing.payment.api.Payment;
 import org.killbill.billing.util.audit.AccountAuditLogs;
 import org.killbill.billing.util.audit.AuditLog;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
 
 import io.swagger.annotations.ApiModel;
 
@@ -69,14 +73,76 @@ public class AccountTimelineJson {
                                final List<SubscriptionBundle> bundles,
                                final AccountAuditLogs accountAuditLogs) throws CatalogApiException {
         this.account = new AccountJson(account, null, null, accountAuditLogs);
-        this.bundles = new LinkedList<BundleJson>();
+        this.bundles = toBundlesJson(account, bundles, accountAuditLogs);
+
+        this.invoices = new LinkedList<InvoiceJson>();
+        final List<InvoiceItemJson> credits = getCredits(invoices, accountAuditLogs);
+        for (final Invoice invoice : invoices) {
+            this.invoices.add(toInvoiceJson(invoice, bundles, credits, accountAuditLogs));
+        }
+
+        this.payments = new LinkedList<InvoicePaymentJson>();
+        final Map<UUID, UUID> invoiceIdsByPaymentId = getInvoiceIdsByPaymentId(invoicePayments);
+        for (final Payment payment : payments) {
+            this.payments.add(new InvoicePaymentJson(payment, invoiceIdsByPaymentId.get(payment.getId()), accountAuditLogs));
+        }
+    }
+
+    public static List<BundleJson> toBundlesJson(final Account account, final List<SubscriptionBundle> bundles, final AccountAuditLogs accountAuditLogs) throws CatalogApiException {
+        final List<BundleJson> result = new LinkedList<BundleJson>();
         for (final SubscriptionBundle bundle : bundles) {
-            final BundleJson jsonWithSubscriptions = new BundleJson(bundle, account.getCurrency(), accountAuditLogs);
-            this.bundles.add(jsonWithSubscriptions);
+            result.add(new BundleJson(bundle, account.getCurrency(), accountAuditLogs));
         }
+        return result;
+    }
 
-        this.invoices = new LinkedList<InvoiceJson>();
-        // Extract the credits from the invoices first
+    /**
+     * Write the timeline, with the same format as AccountTimelineJson, one element at a time: the json objects of the invoices
+     * and payments are created as they are written, so they are never all kept in memory.
+     *
+     * @param bundlesJson bundles, see toBundlesJson
+     */
+    public static void write(final JsonGenerator generator,
+                             final Account account,
+                             final List<Invoice> invoices,
+                             final List<Payment> payments,
+                             final List<InvoicePayment> invoicePayments,
+                             final List<SubscriptionBundle> bundles,
+                             final List<BundleJson> bundlesJson,
+                             final AccountAuditLogs accountAuditLogs) throws IOException {
+        generator.writeStartObject();
+
+        generator.writeFieldName("account");
+        generator.writeObject(new AccountJson(account, null, null, accountAuditLogs));
+
+        generator.writeFieldName("bundles");
+        generator.writeStartArray();
+        for (final BundleJson bundleJson : bundlesJson) {
+            generator.writeObject(bundleJson);
+        }
+        generator.writeEndArray();
+
+        generator.writeFieldName("invoices");
+        generator.writeStartArray();
+        final List<InvoiceItemJson> credits = getCredits(invoices, accountAuditLogs);
+        for (final Invoice invoice : invoices) {
+            generator.writeObject(toInvoiceJson(invoice, bundles, credits, accountAuditLogs));
+        }
+        generator.writeEndArray();
+
+        generator.writeFieldName("payments");
+        generator.writeStartArray();
+        final Map<UUID, UUID> invoiceIdsByPaymentId = getInvoiceIdsByPaymentId(invoicePayments);
+        for (final Payment payment : payments) {
+            generator.writeObject(new InvoicePaymentJson(payment, invoiceIdsByPaymentId.get(payment.getId()), accountAuditLogs));
+        }
+        generator.writeEndArray();
+
+        generator.writeEndObject();
+    }
+
+    // The credits of all the invoices are returned with each invoice
+    private static List<InvoiceItemJson> getCredits(final List<Invoice> invoices, final AccountAuditLogs accountAuditLogs) {
         final List<InvoiceItemJson> credits = new ArrayList<InvoiceItemJson>();
         for (final Invoice invoice : invoices) {
             for (final InvoiceItem invoiceItem : invoice.getInvoiceItems()) {
@@ -86,20 +152,23 @@ public class AccountTimelineJson {
                 }
             }
         }
-        // Create now the invoice json objects
-        for (final Invoice invoice : invoices) {
-            final List<AuditLog> auditLogs = accountAuditLogs.getAuditLogsForInvoice(invoice.getId());
-            this.invoices.add(new InvoiceJson(invoice,
-                                              getBundleExternalKey(invoice, bundles),
-                                              credits,
-                                              auditLogs));
-        }
+        return credits;
+    }
 
-        this.payments = new LinkedList<InvoicePaymentJson>();
-        for (final Payment payment : payments) {
-            final UUID invoiceId = JaxRsResourceBase.getInvoiceId(invoicePayments, payment);
-            this.payments.add(new InvoicePaymentJson(payment, invoiceId, accountAuditLogs));
+    private static InvoiceJson toInvoiceJson(final Invoice invoice, final List<SubscriptionBundle> bundles, final List<InvoiceItemJson> credits, final AccountAuditLogs accountAuditLogs) {
+        final List<AuditLog> auditLogs = accountAuditLogs.getAuditLogsForInvoice(invoice.getId());
+        return new InvoiceJson(invoice, getBundleExternalKey(invoice, bundles), credits, auditLogs);
+    }
+
+    // Same as JaxRsResourceBase#getInvoiceId, for all the payments at once
+    private static Map<UUID, UUID> getInvoiceIdsByPaymentId(final List<InvoicePayment> invoicePayments) {
+        final Map<UUID, UUID> result = new HashMap<UUID, UUID>();
+        for (final InvoicePayment invoicePayment : invoicePayments) {
+            if (invoicePayment.getType() == InvoicePaymentType.ATTEMPT) {
+                result.putIfAbsent(invoicePayment.getPaymentId(), invoicePayment.getInvoiceId());
+            }
         }
+        return result;
     }
 
     public AccountJson getAccount() {
@@ -166,7 +235,7 @@ public class AccountTimelineJson {
         return result;
     }
 
-    private String getBundleExternalKey(final Invoice invoice, final List<SubscriptionBundle> bundles) {
+    private static String getBundleExternalKey(final Invoice invoice, final List<SubscriptionBundle> bundles) {
         final Set<UUID> b = new HashSet<UUID>();
         for (final InvoiceItem cur : invoice.getInvoiceItems()) {
             b.add(cur.getBundleId());
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.jaxrs.json;
+
+import java.util.Map;
+import java.util.UUID;
+
+import org.joda.time.DateTime;
+import org.killbill.billing.export.TenantExportStatus;
+import org.killbill.billing.export.TenantExportStatus.State;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+@ApiModel(value = "TenantExportStatus")
+public class TenantExportStatusJson {
+
+    private final UUID exportId;
+    private final State state;
+    @ApiModelProperty(dataType = "org.joda.time.DateTime")
+    private final DateTime requestedDate;
+    @ApiModelProperty(dataType = "org.joda.time.DateTime")
+    private final DateTime completedDate;
+    private final Map<String, Long> nbRowsPerTable;
+    private final String message;
+
+    @JsonCreator
+    public TenantExportStatusJson(@JsonProperty("exportId") final UUID exportId,
+                                  @JsonProperty("state") final State state,
+                                  @JsonProperty("requestedDate") final DateTime requestedDate,
+                                  @JsonProperty("completedDate") final DateTime completedDate,
+                                  @JsonProperty("nbRowsPerTable") final Map<String, Long> nbRowsPerTable,
+                                  @JsonProperty("message") final String message) {
+        this.exportId = exportId;
+        this.state = state;
+        this.requestedDate = requestedDate;
+        this.completedDate = completedDate;
+        this.nbRowsPerTable = nbRowsPerTable;
+        this.message = message;
+    }
+
+    public TenantExportStatusJson(final TenantExportStatus input) {
+        this(input.getExportId(), input.getState(), input.getRequestedDate(), input.getCompletedDate(), input.getNbRowsPerTable(), input.getMessage());
+    }
+
+    public UUID getExportId() {
+        return exportId;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public DateTime getRequestedDate() {
+        return requestedDate;
+    }
+
+    public DateTime getCompletedDate() {
+        return completedDate;
+    }
+
+    public Map<String, Long> getNbRowsPerTable() {
+        return nbRowsPerTable;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return "TenantExportStatusJson{" +
+               "exportId=" + exportId +
+               ", state=" + state +
+               ", requestedDate=" + requestedDate +
+               ", completedDate=" + completedDate +
+               ", nbRowsPerTable=" + nbRowsPerTable +
+               ", message='" + message + '\'' +
+               '}';
+    }
+}
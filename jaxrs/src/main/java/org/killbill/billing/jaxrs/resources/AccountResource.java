@@ -18,6 +18,8 @@
 
 package org.killbill.billing.jaxrs.resources;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.net.URI;
 import java.util.ArrayList;
@@ -31,6 +33,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
@@ -52,8 +56,10 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 
 import org.joda.time.DateTime;
@@ -65,7 +71,11 @@ import org.killbill.billing.account.api.Account;
 import org.killbill.billing.account.api.AccountApiException;
 import org.killbill.billing.account.api.AccountData;
 import org.killbill.billing.account.api.AccountEmail;
+import org.killbill.billing.account.api.AccountInternalApi;
 import org.killbill.billing.account.api.AccountUserApi;
+import org.killbill.billing.audit.AuditInternalApi;
+import org.killbill.billing.audit.AuditInternalApi.AuditLogStream;
+import org.killbill.billing.callcontext.InternalTenantContext;
 import org.killbill.billing.catalog.api.BillingActionPolicy;
 import org.killbill.billing.catalog.api.CatalogApiException;
 import org.killbill.billing.catalog.api.Currency;
@@ -141,6 +151,8 @@ import org.killbill.commons.metrics.api.annotation.TimedResource;
 import org.killbill.notificationq.api.NotificationQueue;
 import org.killbill.notificationq.api.NotificationQueueService;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
@@ -164,6 +176,8 @@ public class AccountResource extends JaxRsResourceBase {
     private final JaxrsConfig jaxrsConfig;
     private final RecordIdApi recordIdApi;
     private final NotificationQueueService notificationQueueService;
+    private final AccountInternalApi accountInternalApi;
+    private final AuditInternalApi auditInternalApi;
 
     @Inject
     public AccountResource(final JaxrsUriBuilder uriBuilder,
@@ -181,7 +195,9 @@ public class AccountResource extends JaxRsResourceBase {
                            final JaxrsConfig jaxrsConfig,
                            final Context context,
                            final RecordIdApi recordIdApi,
-                           final NotificationQueueService notificationQueueService) {
+                           final NotificationQueueService notificationQueueService,
+                           final AccountInternalApi accountInternalApi,
+                           final AuditInternalApi auditInternalApi) {
         super(uriBuilder, tagUserApi, customFieldUserApi, auditUserApi, accountApi, paymentApi, invoicePaymentApi, subscriptionApi, clock, context);
         this.subscriptionApi = subscriptionApi;
         this.invoiceApi = invoiceApi;
@@ -191,6 +207,8 @@ public class AccountResource extends JaxRsResourceBase {
         this.jaxrsConfig = jaxrsConfig;
         this.recordIdApi = recordIdApi;
         this.notificationQueueService = notificationQueueService;
+        this.accountInternalApi = accountInternalApi;
+        this.auditInternalApi = auditInternalApi;
     }
 
     @TimedResource
@@ -220,15 +238,16 @@ public class AccountResource extends JaxRsResourceBase {
     @ApiResponses(value = {})
     public Response getAccounts(@QueryParam(QUERY_SEARCH_OFFSET) @DefaultValue("0") final Long offset,
                                 @QueryParam(QUERY_SEARCH_LIMIT) @DefaultValue("100") final Long limit,
+                                @QueryParam(QUERY_SEARCH_CURSOR) final Long cursor,
                                 @QueryParam(QUERY_ACCOUNT_WITH_BALANCE) @DefaultValue("false") final Boolean accountWithBalance,
                                 @QueryParam(QUERY_ACCOUNT_WITH_BALANCE_AND_CBA) @DefaultValue("false") final Boolean accountWithBalanceAndCBA,
                                 @QueryParam(QUERY_AUDIT) @DefaultValue("NONE") final AuditMode auditMode,
                                 @javax.ws.rs.core.Context final HttpServletRequest request) throws AccountApiException {
         final TenantContext tenantContext = context.createTenantContextNoAccountId(request);
-        final Pagination<Account> accounts = accountUserApi.getAccounts(offset, limit, tenantContext);
+        final Pagination<Account> accounts = accountInternalApi.getAccounts(cursor, offset, limit, context.toInternalTenantContext(tenantContext));
         final URI nextPageUri = uriBuilder.nextPage(AccountResource.class,
                                                     "getAccounts",
-                                                    accounts.getNextOffset(),
+                                                    accounts,
                                                     limit,
                                                     Map.of(QUERY_ACCOUNT_WITH_BALANCE, accountWithBalance.toString(),
                                                            QUERY_ACCOUNT_WITH_BALANCE_AND_CBA, accountWithBalanceAndCBA.toString(),
@@ -252,15 +271,16 @@ public class AccountResource extends JaxRsResourceBase {
     public Response searchAccounts(@PathParam("searchKey") final String searchKey,
                                    @QueryParam(QUERY_SEARCH_OFFSET) @DefaultValue("0") final Long offset,
                                    @QueryParam(QUERY_SEARCH_LIMIT) @DefaultValue("100") final Long limit,
+                                   @QueryParam(QUERY_SEARCH_CURSOR) final Long cursor,
                                    @QueryParam(QUERY_ACCOUNT_WITH_BALANCE) @DefaultValue("false") final Boolean accountWithBalance,
                                    @QueryParam(QUERY_ACCOUNT_WITH_BALANCE_AND_CBA) @DefaultValue("false") final Boolean accountWithBalanceAndCBA,
                                    @QueryParam(QUERY_AUDIT) @DefaultValue("NONE") final AuditMode auditMode,
                                    @javax.ws.rs.core.Context final HttpServletRequest request) throws AccountApiException {
         final TenantContext tenantContext = context.createTenantContextNoAccountId(request);
-        final Pagination<Account> accounts = accountUserApi.searchAccounts(searchKey, offset, limit, tenantContext);
+        final Pagination<Account> accounts = accountInternalApi.searchAccounts(searchKey, cursor, offset, limit, context.toInternalTenantContext(tenantContext));
         final URI nextPageUri = uriBuilder.nextPage(AccountResource.class,
                                                     "searchAccounts",
-                                                    accounts.getNextOffset(),
+                                                    accounts,
                                                     limit,
                                                     Map.of(QUERY_ACCOUNT_WITH_BALANCE, accountWithBalance.toString(),
                                                            QUERY_ACCOUNT_WITH_BALANCE_AND_CBA, accountWithBalanceAndCBA.toString(),
@@ -554,69 +574,98 @@ public class AccountResource extends JaxRsResourceBase {
             }
         };
 
-        final AccountTimelineJson json;
-
-        List<Invoice> invoices = null;
-        List<SubscriptionBundle> bundles = null;
-        List<InvoicePayment> invoicePayments = null;
-        List<Payment> payments = null;
-        AccountAuditLogs accountAuditLogs = null;
-
-        if (parallel) {
-            final ExecutorService executor = jaxrsExecutors.getJaxrsExecutorService();
-            final Future<List<SubscriptionBundle>> futureBundlesCallable = executor.submit(bundlesCallable);
-            final Future<List<Invoice>> futureInvoicesCallable = executor.submit(invoicesCallable);
-            final Future<List<InvoicePayment>> futureInvoicePaymentsCallable = executor.submit(invoicePaymentsCallable);
-            final Future<List<Payment>> futurePaymentsCallable = executor.submit(paymentsCallable);
-            final Future<AccountAuditLogs> futureAuditsCallable = executor.submit(auditsCallable);
-            final List<Future> toBeCancelled = List.of(futureBundlesCallable, futureInvoicesCallable, futureInvoicePaymentsCallable, futurePaymentsCallable, futureAuditsCallable);
-            final int timeoutMsec = 100;
-
-            final long ini = System.currentTimeMillis();
-            do {
-                bundles = (bundles == null) ? waitOnFutureAndHandleTimeout("bundles", futureBundlesCallable, timeoutMsec, toBeCancelled) : bundles;
-                invoices = (invoices == null) ? waitOnFutureAndHandleTimeout("invoices", futureInvoicesCallable, timeoutMsec, toBeCancelled) : invoices;
-                invoicePayments = (invoicePayments == null) ? waitOnFutureAndHandleTimeout("invoicePayments", futureInvoicePaymentsCallable, timeoutMsec, toBeCancelled) : invoicePayments;
-                payments = (payments == null) ? waitOnFutureAndHandleTimeout("payments", futurePaymentsCallable, timeoutMsec, toBeCancelled) : payments;
-                accountAuditLogs = (accountAuditLogs == null) ? waitOnFutureAndHandleTimeout("accountAuditLogs", futureAuditsCallable, timeoutMsec, toBeCancelled) : accountAuditLogs;
-            } while ((System.currentTimeMillis() - ini < jaxrsConfig.getJaxrsTimeout().getMillis()) &&
-                     (bundles == null || invoices == null || invoicePayments == null || payments == null || accountAuditLogs == null));
-
-            if (bundles == null || invoices == null || invoicePayments == null || payments == null || accountAuditLogs == null) {
-                Response.status(Status.SERVICE_UNAVAILABLE).build();
-            }
-        } else {
-            invoices = runCallable("invoices", invoicesCallable);
-            payments = runCallable("payments", paymentsCallable);
-            bundles = runCallable("bundles", bundlesCallable);
-            accountAuditLogs = runCallable("accountAuditLogs", auditsCallable);
-            invoicePayments = runCallable("invoicePayments", invoicePaymentsCallable);
+        if (!parallel) {
+            final List<Invoice> invoices = runCallable("invoices", invoicesCallable);
+            final List<Payment> payments = runCallable("payments", paymentsCallable);
+            final List<SubscriptionBundle> bundles = runCallable("bundles", bundlesCallable);
+            final AccountAuditLogs accountAuditLogs = runCallable("accountAuditLogs", auditsCallable);
+            final List<InvoicePayment> invoicePayments = runCallable("invoicePayments", invoicePaymentsCallable);
+            return buildTimelineResponse(account, invoices, payments, invoicePayments, bundles, accountAuditLogs);
         }
 
-        json = new AccountTimelineJson(account, invoices, payments, invoicePayments, bundles, accountAuditLogs);
-        return Response.status(Status.OK).entity(json).build();
-    }
+        final ExecutorService executor = jaxrsExecutors.getJaxrsExecutorService();
+        final CompletableFuture<List<SubscriptionBundle>> futureBundles = submitCallable(executor, bundlesCallable);
+        final CompletableFuture<List<Invoice>> futureInvoices = submitCallable(executor, invoicesCallable);
+        final CompletableFuture<List<InvoicePayment>> futureInvoicePayments = submitCallable(executor, invoicePaymentsCallable);
+        final CompletableFuture<List<Payment>> futurePayments = submitCallable(executor, paymentsCallable);
+        final CompletableFuture<AccountAuditLogs> futureAudits = submitCallable(executor, auditsCallable);
+        final List<CompletableFuture<?>> futures = List.of(futureBundles, futureInvoices, futureInvoicePayments, futurePayments, futureAudits);
 
-    private <T> T waitOnFutureAndHandleTimeout(final String logSuffix, final Future<T> future, final long timeoutMsec, final Iterable<Future> toBeCancelled) throws PaymentApiException, AccountApiException, InvoiceApiException, SubscriptionApiException {
         try {
-            return waitOnFutureAndHandleTimeout(future, timeoutMsec);
-        } catch (final InterruptedException e) {
-            log.warn("InterruptedException while retrieving {}", logSuffix, e);
-            handleCallableException(e, toBeCancelled);
-        } catch (final ExecutionException e) {
-            log.warn("ExecutionException while retrieving {}", logSuffix, e);
-            handleCallableException(e.getCause(), toBeCancelled);
+            waitOnFutures(futures, jaxrsConfig.getJaxrsTimeout().getMillis());
+        } catch (final TimeoutException e) {
+            log.warn("Timeout while retrieving the timeline for accountId='{}'", accountId);
+            return Response.status(Status.SERVICE_UNAVAILABLE).build();
         }
 
-        // Never reached
-        return null;
+        return buildTimelineResponse(account, futureInvoices.join(), futurePayments.join(), futureInvoicePayments.join(), futureBundles.join(), futureAudits.join());
+    }
+
+    // Write the timeline as it is serialized, to avoid keeping the json objects of all the invoices and payments in memory
+    private Response buildTimelineResponse(final Account account,
+                                           final List<Invoice> invoices,
+                                           final List<Payment> payments,
+                                           final List<InvoicePayment> invoicePayments,
+                                           final List<SubscriptionBundle> bundles,
+                                           final AccountAuditLogs accountAuditLogs) throws CatalogApiException {
+        // Bundles are converted beforehand, so that catalog errors are still returned as such
+        final List<BundleJson> bundlesJson = AccountTimelineJson.toBundlesJson(account, bundles, accountAuditLogs);
+        final StreamingOutput json = new StreamingOutput() {
+            @Override
+            public void write(final OutputStream output) throws IOException, WebApplicationException {
+                final JsonGenerator generator = mapper.getFactory().createGenerator(output);
+                generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+
+                AccountTimelineJson.write(generator, account, invoices, payments, invoicePayments, bundles, bundlesJson, accountAuditLogs);
+                generator.close();
+            }
+        };
+        return Response.status(Status.OK).entity(json).build();
+    }
+
+    // Unlike CompletableFuture#supplyAsync, cancelling the returned future interrupts the callable
+    private static <T> CompletableFuture<T> submitCallable(final ExecutorService executor, final Callable<T> callable) {
+        final CompletableFuture<T> result = new CompletableFuture<T>();
+        final Future<?> task = executor.submit(() -> {
+            try {
+                result.complete(callable.call());
+            } catch (final Exception e) {
+                result.completeExceptionally(e);
+            }
+        });
+        result.whenComplete((value, throwable) -> {
+            if (result.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        return result;
     }
 
-    private <T> T waitOnFutureAndHandleTimeout(final Future<T> future, final long timeoutMsec) throws ExecutionException, InterruptedException {
+    // Wait for all the futures, until a single deadline: as soon as one of them fails (or the deadline is reached), the other ones are cancelled
+    private void waitOnFutures(final List<CompletableFuture<?>> futures, final long timeoutMsec) throws TimeoutException, PaymentApiException, AccountApiException, InvoiceApiException, SubscriptionApiException {
+        final CompletableFuture<Void> firstFailure = new CompletableFuture<Void>();
+        for (final CompletableFuture<?> future : futures) {
+            future.whenComplete((value, throwable) -> {
+                if (throwable != null) {
+                    firstFailure.completeExceptionally(throwable);
+                }
+            });
+        }
+
         try {
-            return future.get(timeoutMsec, TimeUnit.MILLISECONDS);
+            CompletableFuture.anyOf(CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])), firstFailure).get(timeoutMsec, TimeUnit.MILLISECONDS);
+        } catch (final InterruptedException e) {
+            log.warn("InterruptedException while retrieving the timeline", e);
+            handleCallableException(e, futures);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null ? e.getCause().getCause() : e.getCause();
+            log.warn("ExecutionException while retrieving the timeline", cause);
+            handleCallableException(cause, futures);
         } catch (final TimeoutException e) {
-            return null;
+            for (final Future<?> future : futures) {
+                future.cancel(true);
+            }
+            throw e;
         }
     }
 
@@ -632,8 +681,8 @@ public class AccountResource extends JaxRsResourceBase {
         return null;
     }
 
-    private void handleCallableException(final Throwable causeOrException, final Iterable<Future> toBeCancelled) throws AccountApiException, SubscriptionApiException, PaymentApiException, InvoiceApiException {
-        for (final Future f : toBeCancelled) {
+    private void handleCallableException(final Throwable causeOrException, final Iterable<? extends Future<?>> toBeCancelled) throws AccountApiException, SubscriptionApiException, PaymentApiException, InvoiceApiException {
+        for (final Future<?> f : toBeCancelled) {
             f.cancel(true);
         }
         handleCallableException(causeOrException);
@@ -1600,8 +1649,31 @@ public class AccountResource extends JaxRsResourceBase {
     public Response getAccountAuditLogs(@PathParam("accountId") final UUID accountId,
                                @javax.ws.rs.core.Context final HttpServletRequest request) throws AccountApiException {
         final TenantContext tenantContext = context.createTenantContextWithAccountId(accountId, request);
-        final AccountAuditLogs accountAuditLogs = auditUserApi.getAccountAuditLogs(accountId, AuditLevel.FULL, tenantContext);
-        return Response.status(Status.OK).entity(getAuditLogs(accountAuditLogs)).build();
+
+        // Write the entries as they are read from the database, to keep a constant memory footprint regardless of the size of the account history
+        // (the stream is only opened once the entity is written, so that no database connection is held if it never is)
+        final InternalTenantContext internalTenantContext = context.toInternalTenantContext(tenantContext);
+        final StreamingOutput json = new StreamingOutput() {
+            @Override
+            public void write(final OutputStream output) throws IOException, WebApplicationException {
+                final AuditLogStream auditLogs = auditInternalApi.streamAccountAuditLogs(accountId, internalTenantContext);
+                try {
+                    final JsonGenerator generator = mapper.getFactory().createGenerator(output);
+                    generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+
+                    generator.writeStartArray();
+                    while (auditLogs.hasNext()) {
+                        generator.writeObject(new AuditLogJson(auditLogs.next()));
+                    }
+                    generator.writeEndArray();
+                    generator.close();
+                } finally {
+                    // In case the client goes away (IOException), make sure to close the underlying DB connection
+                    auditLogs.close();
+                }
+            }
+        };
+        return Response.status(Status.OK).entity(json).build();
     }
 
     @TimedResource
@@ -1617,14 +1689,6 @@ public class AccountResource extends JaxRsResourceBase {
         return Response.status(Status.OK).entity(getAuditLogsWithHistory(auditLogWithHistory)).build();
     }
 
-    private List<AuditLogJson> getAuditLogs(final AccountAuditLogs accountAuditLogs) {
-        if (accountAuditLogs.getAuditLogs() == null) {
-            return null;
-        }
-
-        return accountAuditLogs.getAuditLogs().stream().map(AuditLogJson::new).collect(Collectors.toUnmodifiableList());
-    }
-
 
     private InvoiceItem createCreditItem(final UUID accountId, final BigDecimal creditAmount, final Currency currency) {
         return  new InvoiceItem() {
@@ -54,6 +54,7 @@ import org.killbill.billing.account.api.AccountUserApi;
 import org.killbill.billing.account.api.ImmutableAccountData;
 import org.killbill.billing.catalog.api.VersionedCatalog;
 import org.killbill.billing.invoice.api.InvoiceApiException;
+import org.killbill.billing.invoice.api.InvoiceInternalApi;
 import org.killbill.billing.invoice.api.InvoiceUserApi;
 import org.killbill.billing.jaxrs.json.AdminPaymentJson;
 import org.killbill.billing.jaxrs.util.Context;
@@ -113,6 +114,7 @@ public class AdminResource extends JaxRsResourceBase {
 
     private final AdminPaymentApi adminPaymentApi;
     private final InvoiceUserApi invoiceUserApi;
+    private final InvoiceInternalApi invoiceInternalApi;
     private final TenantUserApi tenantApi;
     private final CacheControllerDispatcher cacheControllerDispatcher;
     private final RecordIdApi recordIdApi;
@@ -130,6 +132,7 @@ public class AdminResource extends JaxRsResourceBase {
                          final InvoicePaymentApi invoicePaymentApi,
                          final AdminPaymentApi adminPaymentApi,
                          final InvoiceUserApi invoiceUserApi,
+                         final InvoiceInternalApi invoiceInternalApi,
                          final CacheControllerDispatcher cacheControllerDispatcher,
                          final TenantUserApi tenantApi,
                          final RecordIdApi recordIdApi,
@@ -141,6 +144,7 @@ public class AdminResource extends JaxRsResourceBase {
         super(uriBuilder, tagUserApi, customFieldUserApi, auditUserApi, accountUserApi, paymentApi, invoicePaymentApi, null, clock, context);
         this.adminPaymentApi = adminPaymentApi;
         this.invoiceUserApi = invoiceUserApi;
+        this.invoiceInternalApi = invoiceInternalApi;
         this.tenantApi = tenantApi;
         this.recordIdApi = recordIdApi;
         this.cacheControllerDispatcher = cacheControllerDispatcher;
@@ -324,6 +328,24 @@ public class AdminResource extends JaxRsResourceBase {
                        .build();
     }
 
+    @PUT
+    @Produces(APPLICATION_JSON)
+    @Path("/" + INVOICES + "/" + ACCOUNTS + "/{accountId:" + UUID_PATTERN + "}/balance")
+    @ApiOperation(value = "Check the account balance ledger against the invoice history and rebuild it if needed")
+    @ApiResponses(value = {@ApiResponse(code = 204, message = "Successful operation"),
+                           @ApiResponse(code = 400, message = "Invalid account id supplied")})
+    public Response rebuildAccountBalance(@PathParam("accountId") final UUID accountId,
+                                          @HeaderParam(HDR_CREATED_BY) final String createdBy,
+                                          @HeaderParam(HDR_REASON) final String reason,
+                                          @HeaderParam(HDR_COMMENT) final String comment,
+                                          @javax.ws.rs.core.Context final HttpServletRequest request) throws InvoiceApiException {
+        final CallContext callContext = context.createCallContextWithAccountId(accountId, createdBy, reason, comment, request);
+        if (invoiceInternalApi.rebuildAccountBalance(accountId, callContext)) {
+            log.info("Rebuilt account balance ledger for accountId='{}'", accountId);
+        }
+        return Response.status(Status.NO_CONTENT).build();
+    }
+
     @DELETE
     @Path("/" + CACHE)
     @Produces(APPLICATION_JSON)
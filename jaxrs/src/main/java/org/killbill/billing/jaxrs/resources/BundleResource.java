@@ -55,6 +55,7 @@ import org.killbill.billing.account.api.AccountApiException;
 import org.killbill.billing.account.api.AccountUserApi;
 import org.killbill.billing.catalog.api.BillingActionPolicy;
 import org.killbill.billing.catalog.api.CatalogApiException;
+import org.killbill.billing.entitlement.EntitlementInternalApi;
 import org.killbill.billing.entitlement.api.BcdTransfer;
 import org.killbill.billing.entitlement.api.BlockingStateType;
 import org.killbill.billing.entitlement.api.EntitlementApi;
@@ -106,6 +107,7 @@ public class BundleResource extends JaxRsResourceBase {
 
     private final SubscriptionApi subscriptionApi;
     private final EntitlementApi entitlementApi;
+    private final EntitlementInternalApi entitlementInternalApi;
 
     @Inject
     public BundleResource(final JaxrsUriBuilder uriBuilder,
@@ -118,10 +120,12 @@ public class BundleResource extends JaxRsResourceBase {
                           final PaymentApi paymentApi,
                           final InvoicePaymentApi invoicePaymentApi,
                           final Clock clock,
-                          final Context context) {
+                          final Context context,
+                          final EntitlementInternalApi entitlementInternalApi) {
         super(uriBuilder, tagUserApi, customFieldUserApi, auditUserApi, accountUserApi, paymentApi, invoicePaymentApi, subscriptionApi, clock, context);
         this.entitlementApi = entitlementApi;
         this.subscriptionApi = subscriptionApi;
+        this.entitlementInternalApi = entitlementInternalApi;
     }
 
     @TimedResource
@@ -192,13 +196,14 @@ public class BundleResource extends JaxRsResourceBase {
     @ApiResponses(value = {})
     public Response getBundles(@QueryParam(QUERY_SEARCH_OFFSET) @DefaultValue("0") final Long offset,
                                @QueryParam(QUERY_SEARCH_LIMIT) @DefaultValue("100") final Long limit,
+                               @QueryParam(QUERY_SEARCH_CURSOR) final Long cursor,
                                @QueryParam(QUERY_AUDIT) @DefaultValue("NONE") final AuditMode auditMode,
                                @javax.ws.rs.core.Context final HttpServletRequest request) throws SubscriptionApiException {
         final TenantContext tenantContext = context.createTenantContextNoAccountId(request);
-        final Pagination<SubscriptionBundle> bundles = subscriptionApi.getSubscriptionBundles(offset, limit, tenantContext);
+        final Pagination<SubscriptionBundle> bundles = entitlementInternalApi.getSubscriptionBundles(cursor, offset, limit, context.toInternalTenantContext(tenantContext));
         final URI nextPageUri = uriBuilder.nextPage(BundleResource.class,
                                                     "getBundles",
-                                                    bundles.getNextOffset(),
+                                                    bundles,
                                                     limit,
                                                     Map.of(QUERY_AUDIT, auditMode.getLevel().toString()),
                                                     Collections.emptyMap());
@@ -237,13 +242,14 @@ public class BundleResource extends JaxRsResourceBase {
     public Response searchBundles(@PathParam("searchKey") final String searchKey,
                                   @QueryParam(QUERY_SEARCH_OFFSET) @DefaultValue("0") final Long offset,
                                   @QueryParam(QUERY_SEARCH_LIMIT) @DefaultValue("100") final Long limit,
+                                  @QueryParam(QUERY_SEARCH_CURSOR) final Long cursor,
                                   @QueryParam(QUERY_AUDIT) @DefaultValue("NONE") final AuditMode auditMode,
                                   @javax.ws.rs.core.Context final HttpServletRequest request) throws SubscriptionApiException {
         final TenantContext tenantContext = context.createTenantContextNoAccountId(request);
-        final Pagination<SubscriptionBundle> bundles = subscriptionApi.searchSubscriptionBundles(searchKey, offset, limit, tenantContext);
+        final Pagination<SubscriptionBundle> bundles = entitlementInternalApi.searchSubscriptionBundles(searchKey, cursor, offset, limit, context.toInternalTenantContext(tenantContext));
         final URI nextPageUri = uriBuilder.nextPage(BundleResource.class,
                                                     "searchBundles",
-                                                    bundles.getNextOffset(),
+                                                    bundles,
                                                     limit,
                                                     Map.of(QUERY_AUDIT, auditMode.getLevel().toString()),
                                                     Map.of("searchKey", searchKey));
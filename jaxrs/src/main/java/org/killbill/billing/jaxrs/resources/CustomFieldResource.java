@@ -41,6 +41,7 @@ import javax.ws.rs.core.Response.Status;
 import org.killbill.billing.ObjectType;
 import org.killbill.billing.account.api.AccountApiException;
 import org.killbill.billing.account.api.AccountUserApi;
+import org.killbill.billing.customfield.CustomFieldInternalApi;
 import org.killbill.billing.jaxrs.json.AuditLogJson;
 import org.killbill.billing.jaxrs.json.CustomFieldJson;
 import org.killbill.billing.jaxrs.util.Context;
@@ -73,6 +74,8 @@ import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 @Api(value = JaxrsResource.CUSTOM_FIELDS_PATH, description = "Operations on custom fields", tags="CustomField")
 public class CustomFieldResource extends JaxRsResourceBase {
 
+    private final CustomFieldInternalApi customFieldInternalApi;
+
     @Inject
     public CustomFieldResource(final JaxrsUriBuilder uriBuilder,
                                final TagUserApi tagUserApi,
@@ -82,8 +85,10 @@ public class CustomFieldResource extends JaxRsResourceBase {
                                final PaymentApi paymentApi,
                                final InvoicePaymentApi invoicePaymentApi,
                                final Clock clock,
-                               final Context context) {
+                               final Context context,
+                               final CustomFieldInternalApi customFieldInternalApi) {
         super(uriBuilder, tagUserApi, customFieldUserApi, auditUserApi, accountUserApi, paymentApi, invoicePaymentApi, null, clock, context);
+        this.customFieldInternalApi = customFieldInternalApi;
     }
 
     @TimedResource
@@ -94,13 +99,14 @@ public class CustomFieldResource extends JaxRsResourceBase {
     @ApiResponses(value = {})
     public Response getCustomFields(@QueryParam(QUERY_SEARCH_OFFSET) @DefaultValue("0") final Long offset,
                                     @QueryParam(QUERY_SEARCH_LIMIT) @DefaultValue("100") final Long limit,
+                                    @QueryParam(QUERY_SEARCH_CURSOR) final Long cursor,
                                     @QueryParam(QUERY_AUDIT) @DefaultValue("NONE") final AuditMode auditMode,
                                     @javax.ws.rs.core.Context final HttpServletRequest request) throws CustomFieldApiException {
         final TenantContext tenantContext = context.createTenantContextNoAccountId(request);
-        final Pagination<CustomField> customFields = customFieldUserApi.getCustomFields(offset, limit, tenantContext);
+        final Pagination<CustomField> customFields = customFieldInternalApi.getCustomFields(cursor, offset, limit, context.toInternalTenantContext(tenantContext));
         final URI nextPageUri = uriBuilder.nextPage(CustomFieldResource.class,
                                                     "getCustomFields",
-                                                    customFields.getNextOffset(),
+                                                    customFields,
                                                     limit,
                                                     Map.of(QUERY_AUDIT, auditMode.getLevel().toString()),
                                                     Collections.emptyMap());
@@ -166,13 +172,14 @@ public class CustomFieldResource extends JaxRsResourceBase {
     public Response searchCustomFields(@PathParam("searchKey") final String searchKey,
                                        @QueryParam(QUERY_SEARCH_OFFSET) @DefaultValue("0") final Long offset,
                                        @QueryParam(QUERY_SEARCH_LIMIT) @DefaultValue("100") final Long limit,
+                                       @QueryParam(QUERY_SEARCH_CURSOR) final Long cursor,
                                        @QueryParam(QUERY_AUDIT) @DefaultValue("NONE") final AuditMode auditMode,
                                        @javax.ws.rs.core.Context final HttpServletRequest request) throws CustomFieldApiException {
         final TenantContext tenantContext = context.createTenantContextNoAccountId(request);
-        final Pagination<CustomField> customFields = customFieldUserApi.searchCustomFields(searchKey, offset, limit, tenantContext);
+        final Pagination<CustomField> customFields = customFieldInternalApi.searchCustomFields(searchKey, cursor, offset, limit, context.toInternalTenantContext(tenantContext));
         final URI nextPageUri = uriBuilder.nextPage(CustomFieldResource.class,
                                                     "searchCustomFields",
-                                                    customFields.getNextOffset(),
+                                                    customFields,
                                                     limit,
                                                     Map.of(QUERY_AUDIT, auditMode.getLevel().toString()),
                                                     Map.of("searchKey", searchKey));
@@ -27,14 +27,20 @@ import javax.inject.Singleton;
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.GET;
 import javax.ws.rs.HeaderParam;
+import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.core.UriInfo;
 
 import org.killbill.billing.account.api.AccountUserApi;
+import org.killbill.billing.export.ExportInternalApi;
+import org.killbill.billing.export.TenantExportStatus;
+import org.killbill.billing.jaxrs.json.TenantExportStatusJson;
 import org.killbill.billing.jaxrs.util.Context;
 import org.killbill.billing.jaxrs.util.JaxrsUriBuilder;
 import org.killbill.billing.payment.api.InvoicePaymentApi;
@@ -44,6 +50,7 @@ import org.killbill.billing.util.api.CustomFieldUserApi;
 import org.killbill.billing.util.api.ExportUserApi;
 import org.killbill.billing.util.api.TagUserApi;
 import org.killbill.billing.util.callcontext.CallContext;
+import org.killbill.billing.util.callcontext.TenantContext;
 import org.killbill.clock.Clock;
 import org.killbill.commons.metrics.api.annotation.TimedResource;
 
@@ -52,6 +59,7 @@ import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 import static javax.ws.rs.core.MediaType.APPLICATION_OCTET_STREAM;
 
 @Singleton
@@ -60,6 +68,7 @@ import static javax.ws.rs.core.MediaType.APPLICATION_OCTET_STREAM;
 public class ExportResource extends JaxRsResourceBase {
 
     private final ExportUserApi exportUserApi;
+    private final ExportInternalApi exportInternalApi;
 
     @Inject
     public ExportResource(final ExportUserApi exportUserApi,
@@ -71,9 +80,11 @@ public class ExportResource extends JaxRsResourceBase {
                           final PaymentApi paymentApi,
                           final InvoicePaymentApi invoicePaymentApi,
                           final Clock clock,
-                          final Context context) {
+                          final Context context,
+                          final ExportInternalApi exportInternalApi) {
         super(uriBuilder, tagUserApi, customFieldUserApi, auditUserApi, accountUserApi, paymentApi, invoicePaymentApi, null, clock, context);
         this.exportUserApi = exportUserApi;
+        this.exportInternalApi = exportInternalApi;
     }
 
     @TimedResource
@@ -98,4 +109,37 @@ public class ExportResource extends JaxRsResourceBase {
             }
         };
     }
+
+    @TimedResource
+    @POST
+    @Path("/" + EXPORT_TENANT)
+    @Produces(APPLICATION_JSON)
+    @ApiOperation(value = "Start (or resume) the export of all tenant data as gzipped CSV chunks, in the server export directory", response = TenantExportStatusJson.class)
+    @ApiResponses(value = {@ApiResponse(code = 202, message = "Export queued, or already in progress: returns its status")})
+    public Response exportDataForTenant(@HeaderParam(HDR_CREATED_BY) final String createdBy,
+                                        @HeaderParam(HDR_REASON) final String reason,
+                                        @HeaderParam(HDR_COMMENT) final String comment,
+                                        @javax.ws.rs.core.Context final HttpServletRequest request,
+                                        @javax.ws.rs.core.Context final UriInfo uriInfo) {
+        final CallContext callContext = context.createCallContextNoAccountId(createdBy, reason, comment, request);
+        final TenantExportStatus exportStatus = exportInternalApi.exportDataAsCSVForTenant(context.toInternalCallContext(callContext));
+        return uriBuilder.buildResponse(Response.status(Status.ACCEPTED).entity(new TenantExportStatusJson(exportStatus)), uriInfo, ExportResource.class, "getTenantExportStatus", exportStatus.getExportId(), request);
+    }
+
+    @TimedResource
+    @GET
+    @Path("/" + EXPORT_TENANT + "/{exportId:" + UUID_PATTERN + "}")
+    @Produces(APPLICATION_JSON)
+    @ApiOperation(value = "Retrieve the status of a tenant data export", response = TenantExportStatusJson.class)
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Success"),
+                           @ApiResponse(code = 404, message = "Export not found")})
+    public Response getTenantExportStatus(@PathParam("exportId") final UUID exportId,
+                                          @javax.ws.rs.core.Context final HttpServletRequest request) {
+        final TenantContext tenantContext = context.createTenantContextNoAccountId(request);
+        final TenantExportStatus exportStatus = exportInternalApi.getTenantExportStatus(exportId, context.toInternalTenantContext(tenantContext));
+        if (exportStatus == null) {
+            return Response.status(Status.NOT_FOUND).build();
+        }
+        return Response.status(Status.OK).entity(new TenantExportStatusJson(exportStatus)).build();
+    }
 }
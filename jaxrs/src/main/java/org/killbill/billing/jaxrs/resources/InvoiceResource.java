@@ -75,6 +75,7 @@ import org.killbill.billing.invoice.api.DryRunArguments;
 import org.killbill.billing.invoice.api.DryRunType;
 import org.killbill.billing.invoice.api.Invoice;
 import org.killbill.billing.invoice.api.InvoiceApiException;
+import org.killbill.billing.invoice.api.InvoiceInternalApi;
 import org.killbill.billing.invoice.api.InvoiceItem;
 import org.killbill.billing.invoice.api.InvoicePayment;
 import org.killbill.billing.invoice.api.InvoiceUserApi;
@@ -138,6 +139,7 @@ public class InvoiceResource extends JaxRsResourceBase {
     private final InvoiceUserApi invoiceApi;
     private final TenantUserApi tenantApi;
     private final Locale defaultLocale;
+    private final InvoiceInternalApi invoiceInternalApi;
 
     @Inject
     public InvoiceResource(final AccountUserApi accountUserApi,
@@ -150,11 +152,13 @@ public class InvoiceResource extends JaxRsResourceBase {
                            final CustomFieldUserApi customFieldUserApi,
                            final AuditUserApi auditUserApi,
                            final TenantUserApi tenantApi,
-                           final Context context) {
+                           final Context context,
+                           final InvoiceInternalApi invoiceInternalApi) {
         super(uriBuilder, tagUserApi, customFieldUserApi, auditUserApi, accountUserApi, paymentApi, invoicePaymentApi, null, clock, context);
         this.invoiceApi = invoiceApi;
         this.tenantApi = tenantApi;
         this.defaultLocale = Locale.getDefault();
+        this.invoiceInternalApi = invoiceInternalApi;
     }
 
     /**
@@ -313,11 +317,12 @@ public class InvoiceResource extends JaxRsResourceBase {
     @ApiResponses(value = {})
     public Response getInvoices(@QueryParam(QUERY_SEARCH_OFFSET) @DefaultValue("0") final Long offset,
                                 @QueryParam(QUERY_SEARCH_LIMIT) @DefaultValue("100") final Long limit,
+                                @QueryParam(QUERY_SEARCH_CURSOR) final Long cursor,
                                 @QueryParam(QUERY_AUDIT) @DefaultValue("NONE") final AuditMode auditMode,
                                 @javax.ws.rs.core.Context final HttpServletRequest request) throws InvoiceApiException {
         final TenantContext tenantContext = context.createTenantContextNoAccountId(request);
-        final Pagination<Invoice> invoices = invoiceApi.getInvoices(offset, limit, tenantContext);
-        final URI nextPageUri = uriBuilder.nextPage(InvoiceResource.class, "getInvoices", invoices.getNextOffset(), limit, Map.of(QUERY_AUDIT, auditMode.getLevel().toString()), Collections.emptyMap());
+        final Pagination<Invoice> invoices = invoiceInternalApi.getInvoices(cursor, offset, limit, context.toInternalTenantContext(tenantContext));
+        final URI nextPageUri = uriBuilder.nextPage(InvoiceResource.class, "getInvoices", invoices, limit, Map.of(QUERY_AUDIT, auditMode.getLevel().toString()), Collections.emptyMap());
 
         return buildInvoicesStreamingPaginationResponse(invoices, nextPageUri, auditMode, tenantContext);
     }
@@ -331,11 +336,12 @@ public class InvoiceResource extends JaxRsResourceBase {
     public Response searchInvoices(@PathParam("searchKey") final String searchKey,
                                    @QueryParam(QUERY_SEARCH_OFFSET) @DefaultValue("0") final Long offset,
                                    @QueryParam(QUERY_SEARCH_LIMIT) @DefaultValue("100") final Long limit,
+                                   @QueryParam(QUERY_SEARCH_CURSOR) final Long cursor,
                                    @QueryParam(QUERY_AUDIT) @DefaultValue("NONE") final AuditMode auditMode,
                                    @javax.ws.rs.core.Context final HttpServletRequest request) throws SubscriptionApiException {
         final TenantContext tenantContext = context.createTenantContextNoAccountId(request);
-        final Pagination<Invoice> invoices = invoiceApi.searchInvoices(searchKey, offset, limit, tenantContext);
-        final URI nextPageUri = uriBuilder.nextPage(InvoiceResource.class, "searchInvoices", invoices.getNextOffset(), limit, Map.of(QUERY_AUDIT, auditMode.getLevel().toString()), Map.of("searchKey", searchKey));
+        final Pagination<Invoice> invoices = invoiceInternalApi.searchInvoices(searchKey, cursor, offset, limit, context.toInternalTenantContext(tenantContext));
+        final URI nextPageUri = uriBuilder.nextPage(InvoiceResource.class, "searchInvoices", invoices, limit, Map.of(QUERY_AUDIT, auditMode.getLevel().toString()), Map.of("searchKey", searchKey));
 
         return buildInvoicesStreamingPaginationResponse(invoices, nextPageUri, auditMode, tenantContext);
     }
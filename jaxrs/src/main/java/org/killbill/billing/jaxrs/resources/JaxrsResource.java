@@ -85,6 +85,7 @@ public interface JaxrsResource {
     String QUERY_ENTITLEMENT_POLICY = "entitlementPolicy";
     String QUERY_SEARCH_OFFSET = "offset";
     String QUERY_SEARCH_LIMIT = "limit";
+    String QUERY_SEARCH_CURSOR = "cursor";
     String QUERY_ENTITLEMENT_EFFECTIVE_FROM_DT = "effectiveFromDate";
     String QUERY_FORCE_NEW_BCD_WITH_PAST_EFFECTIVE_DATE = "forceNewBcdWithPastEffectiveDate";
 
@@ -252,6 +253,7 @@ public interface JaxrsResource {
 
     String EXPORT = "export";
     String EXPORT_PATH = PREFIX + "/" + EXPORT;
+    String EXPORT_TENANT = "tenant";
 
     String PLUGINS_INFO = "pluginsInfo";
     String PLUGINS_INFO_PATH = PREFIX + "/" + PLUGINS_INFO;
@@ -56,6 +56,7 @@ import org.killbill.billing.jaxrs.util.JaxrsUriBuilder;
 import org.killbill.billing.payment.api.InvoicePaymentApi;
 import org.killbill.billing.payment.api.PaymentApi;
 import org.killbill.billing.payment.api.PaymentApiException;
+import org.killbill.billing.payment.api.PaymentInternalApi;
 import org.killbill.billing.payment.api.PaymentMethod;
 import org.killbill.billing.payment.api.PluginProperty;
 import org.killbill.commons.utils.Strings;
@@ -86,6 +87,8 @@ import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 @Api(value = JaxrsResource.PAYMENT_METHODS_PATH, description = "Operations on payment methods", tags="PaymentMethod")
 public class PaymentMethodResource extends JaxRsResourceBase {
 
+    private final PaymentInternalApi paymentInternalApi;
+
     @Inject
     public PaymentMethodResource(final AccountUserApi accountUserApi,
                                  final JaxrsUriBuilder uriBuilder,
@@ -95,8 +98,10 @@ public class PaymentMethodResource extends JaxRsResourceBase {
                                  final PaymentApi paymentApi,
                                  final InvoicePaymentApi invoicePaymentApi,
                                  final Clock clock,
-                                 final Context context) {
+                                 final Context context,
+                                 final PaymentInternalApi paymentInternalApi) {
         super(uriBuilder, tagUserApi, customFieldUserApi, auditUserApi, accountUserApi, paymentApi, invoicePaymentApi, null, clock, context);
+        this.paymentInternalApi = paymentInternalApi;
     }
 
 
@@ -213,7 +218,7 @@ public class PaymentMethodResource extends JaxRsResourceBase {
 
         final URI nextPageUri = uriBuilder.nextPage(PaymentMethodResource.class,
                                                     "getPaymentMethods",
-                                                    paymentMethods.getNextOffset(),
+                                                    paymentMethods,
                                                     limit,
                                                     Map.of(QUERY_PAYMENT_METHOD_PLUGIN_NAME, Strings.nullToEmpty(pluginName),
                                                            QUERY_AUDIT, auditMode.getLevel().toString()),
@@ -231,6 +236,7 @@ public class PaymentMethodResource extends JaxRsResourceBase {
     public Response searchPaymentMethods(@PathParam("searchKey") final String searchKey,
                                          @QueryParam(QUERY_SEARCH_OFFSET) @DefaultValue("0") final Long offset,
                                          @QueryParam(QUERY_SEARCH_LIMIT) @DefaultValue("100") final Long limit,
+                                         @QueryParam(QUERY_SEARCH_CURSOR) final Long cursor,
                                          @QueryParam(QUERY_PAYMENT_METHOD_PLUGIN_NAME) final String pluginName,
                                          @QueryParam(QUERY_WITH_PLUGIN_INFO) @DefaultValue("false") final Boolean withPluginInfo,
                                          @QueryParam(QUERY_PLUGIN_PROPERTY) final List<String> pluginPropertiesString,
@@ -242,14 +248,14 @@ public class PaymentMethodResource extends JaxRsResourceBase {
         // Search the plugin(s)
         final Pagination<PaymentMethod> paymentMethods;
         if (Strings.isNullOrEmpty(pluginName)) {
-            paymentMethods = paymentApi.searchPaymentMethods(searchKey, offset, limit, withPluginInfo, pluginProperties, tenantContext);
+            paymentMethods = paymentInternalApi.searchPaymentMethods(searchKey, cursor, offset, limit, withPluginInfo, pluginProperties, context.toInternalTenantContext(tenantContext));
         } else {
             paymentMethods = paymentApi.searchPaymentMethods(searchKey, offset, limit, pluginName, withPluginInfo, pluginProperties, tenantContext);
         }
 
         final URI nextPageUri = uriBuilder.nextPage(PaymentMethodResource.class,
                                                     "searchPaymentMethods",
-                                                    paymentMethods.getNextOffset(),
+                                                    paymentMethods,
                                                     limit,
                                                     Map.of(QUERY_PAYMENT_METHOD_PLUGIN_NAME, Strings.nullToEmpty(pluginName),
                                                            QUERY_AUDIT, auditMode.getLevel().toString()),
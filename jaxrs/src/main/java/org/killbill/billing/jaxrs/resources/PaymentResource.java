@@ -61,6 +61,7 @@ import org.killbill.billing.payment.api.InvoicePaymentApi;
 import org.killbill.billing.payment.api.Payment;
 import org.killbill.billing.payment.api.PaymentApi;
 import org.killbill.billing.payment.api.PaymentApiException;
+import org.killbill.billing.payment.api.PaymentInternalApi;
 import org.killbill.billing.payment.api.PaymentOptions;
 import org.killbill.billing.payment.api.PluginProperty;
 import org.killbill.billing.payment.api.TransactionType;
@@ -98,6 +99,8 @@ public class PaymentResource extends ComboPaymentResource {
 
     private static final String ID_PARAM_NAME = "paymentId";
 
+    private final PaymentInternalApi paymentInternalApi;
+
     @Inject
     public PaymentResource(final JaxrsUriBuilder uriBuilder,
                            final TagUserApi tagUserApi,
@@ -107,8 +110,10 @@ public class PaymentResource extends ComboPaymentResource {
                            final PaymentApi paymentApi,
                            final InvoicePaymentApi invoicePaymentApi,
                            final Clock clock,
-                           final Context context) {
+                           final Context context,
+                           final PaymentInternalApi paymentInternalApi) {
         super(uriBuilder, tagUserApi, customFieldUserApi, auditUserApi, accountUserApi, paymentApi, invoicePaymentApi, clock, context);
+        this.paymentInternalApi = paymentInternalApi;
     }
 
     @TimedResource(name = "getPayment")
@@ -160,6 +165,7 @@ public class PaymentResource extends ComboPaymentResource {
     @ApiResponses(value = {})
     public Response getPayments(@QueryParam(QUERY_SEARCH_OFFSET) @DefaultValue("0") final Long offset,
                                 @QueryParam(QUERY_SEARCH_LIMIT) @DefaultValue("100") final Long limit,
+                                @QueryParam(QUERY_SEARCH_CURSOR) final Long cursor,
                                 @QueryParam(QUERY_PAYMENT_PLUGIN_NAME) final String pluginName,
                                 @QueryParam(QUERY_WITH_PLUGIN_INFO) @DefaultValue("false") final Boolean withPluginInfo,
                                 @QueryParam(QUERY_WITH_ATTEMPTS) @DefaultValue("false") final Boolean withAttempts,
@@ -171,14 +177,14 @@ public class PaymentResource extends ComboPaymentResource {
 
         final Pagination<Payment> payments;
         if (Strings.isNullOrEmpty(pluginName)) {
-            payments = paymentApi.getPayments(offset, limit, withPluginInfo, withAttempts, pluginProperties, tenantContext);
+            payments = paymentInternalApi.getPayments(cursor, offset, limit, withPluginInfo, withAttempts, pluginProperties, context.toInternalTenantContext(tenantContext));
         } else {
             payments = paymentApi.getPayments(offset, limit, pluginName, withPluginInfo, withAttempts, pluginProperties, tenantContext);
         }
 
         final URI nextPageUri = uriBuilder.nextPage(PaymentResource.class,
                                                     "getPayments",
-                                                    payments.getNextOffset(),
+                                                    payments,
                                                     limit,
                                                     Map.of(QUERY_PAYMENT_METHOD_PLUGIN_NAME, Strings.nullToEmpty(pluginName),
                                                            QUERY_AUDIT, auditMode.getLevel().toString()),
@@ -207,6 +213,7 @@ public class PaymentResource extends ComboPaymentResource {
     public Response searchPayments(@PathParam("searchKey") final String searchKey,
                                    @QueryParam(QUERY_SEARCH_OFFSET) @DefaultValue("0") final Long offset,
                                    @QueryParam(QUERY_SEARCH_LIMIT) @DefaultValue("100") final Long limit,
+                                   @QueryParam(QUERY_SEARCH_CURSOR) final Long cursor,
                                    @QueryParam(QUERY_WITH_PLUGIN_INFO) @DefaultValue("false") final Boolean withPluginInfo,
                                    @QueryParam(QUERY_WITH_ATTEMPTS) @DefaultValue("false") final Boolean withAttempts,
                                    @QueryParam(QUERY_PAYMENT_PLUGIN_NAME) final String pluginName,
@@ -219,14 +226,14 @@ public class PaymentResource extends ComboPaymentResource {
         // Search the plugin(s)
         final Pagination<Payment> payments;
         if (Strings.isNullOrEmpty(pluginName)) {
-            payments = paymentApi.searchPayments(searchKey, offset, limit, withPluginInfo, withAttempts, pluginProperties, tenantContext);
+            payments = paymentInternalApi.searchPayments(searchKey, cursor, offset, limit, withPluginInfo, withAttempts, pluginProperties, context.toInternalTenantContext(tenantContext));
         } else {
             payments = paymentApi.searchPayments(searchKey, offset, limit, pluginName, withPluginInfo, withAttempts, pluginProperties, tenantContext);
         }
 
         final URI nextPageUri = uriBuilder.nextPage(PaymentResource.class,
                                                     "searchPayments",
-                                                    payments.getNextOffset(),
+                                                    payments,
                                                     limit,
                                                     Map.of(QUERY_PAYMENT_METHOD_PLUGIN_NAME, Strings.nullToEmpty(pluginName),
                                                            QUERY_AUDIT, auditMode.getLevel().toString()),
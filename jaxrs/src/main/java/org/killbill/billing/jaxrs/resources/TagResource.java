@@ -43,6 +43,7 @@ import org.killbill.billing.account.api.AccountUserApi;
 import org.killbill.billing.jaxrs.json.AuditLogJson;
 import org.killbill.billing.payment.api.InvoicePaymentApi;
 import org.killbill.billing.payment.api.PaymentApi;
+import org.killbill.billing.tag.TagInternalApi;
 import org.killbill.billing.util.api.AuditLevel;
 import org.killbill.billing.util.audit.AuditLogWithHistory;
 import org.killbill.clock.Clock;
@@ -72,6 +73,8 @@ import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 @Api(value = JaxrsResource.TAGS_PATH, description = "Operations on tags", tags="Tag")
 public class TagResource extends JaxRsResourceBase {
 
+    private final TagInternalApi tagInternalApi;
+
     @Inject
     public TagResource(final JaxrsUriBuilder uriBuilder,
                        final TagUserApi tagUserApi,
@@ -81,8 +84,10 @@ public class TagResource extends JaxRsResourceBase {
                        final PaymentApi paymentApi,
                        final InvoicePaymentApi invoicePaymentApi,
                        final Clock clock,
-                       final Context context) {
+                       final Context context,
+                       final TagInternalApi tagInternalApi) {
         super(uriBuilder, tagUserApi, customFieldUserApi, auditUserApi, accountUserApi, paymentApi, invoicePaymentApi, null, clock, context);
+        this.tagInternalApi = tagInternalApi;
     }
 
     @TimedResource
@@ -93,13 +98,14 @@ public class TagResource extends JaxRsResourceBase {
     @ApiResponses(value = {})
     public Response getTags(@QueryParam(QUERY_SEARCH_OFFSET) @DefaultValue("0") final Long offset,
                             @QueryParam(QUERY_SEARCH_LIMIT) @DefaultValue("100") final Long limit,
+                            @QueryParam(QUERY_SEARCH_CURSOR) final Long cursor,
                             @QueryParam(QUERY_AUDIT) @DefaultValue("NONE") final AuditMode auditMode,
                             @javax.ws.rs.core.Context final HttpServletRequest request) throws TagApiException {
         final TenantContext tenantContext = context.createTenantContextNoAccountId(request);
-        final Pagination<Tag> tags = tagUserApi.getTags(offset, limit, tenantContext);
+        final Pagination<Tag> tags = tagInternalApi.getTags(cursor, offset, limit, context.toInternalTenantContext(tenantContext));
         final URI nextPageUri = uriBuilder.nextPage(TagResource.class,
                                                     "getTags",
-                                                    tags.getNextOffset(), limit,
+                                                    tags, limit,
                                                     Map.of(QUERY_AUDIT, auditMode.getLevel().toString()),
                                                     Collections.emptyMap());
 
@@ -115,13 +121,14 @@ public class TagResource extends JaxRsResourceBase {
     public Response searchTags(@PathParam("searchKey") final String searchKey,
                                @QueryParam(QUERY_SEARCH_OFFSET) @DefaultValue("0") final Long offset,
                                @QueryParam(QUERY_SEARCH_LIMIT) @DefaultValue("100") final Long limit,
+                               @QueryParam(QUERY_SEARCH_CURSOR) final Long cursor,
                                @QueryParam(QUERY_AUDIT) @DefaultValue("NONE") final AuditMode auditMode,
                                @javax.ws.rs.core.Context final HttpServletRequest request) throws TagApiException {
         final TenantContext tenantContext = context.createTenantContextNoAccountId(request);
-        final Pagination<Tag> tags = tagUserApi.searchTags(searchKey, offset, limit, tenantContext);
+        final Pagination<Tag> tags = tagInternalApi.searchTags(searchKey, cursor, offset, limit, context.toInternalTenantContext(tenantContext));
         final URI nextPageUri = uriBuilder.nextPage(TagResource.class,
                                                     "searchTags",
-                                                    tags.getNextOffset(),
+                                                    tags,
                                                     limit,
                                                     Map.of(QUERY_AUDIT, auditMode.getLevel().toString()),
                                                     Map.of("searchKey", searchKey));
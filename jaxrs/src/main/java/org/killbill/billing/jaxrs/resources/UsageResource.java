@@ -17,11 +17,16 @@
 
 package org.killbill.billing.jaxrs.resources;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.servlet.http.HttpServletRequest;
@@ -40,6 +45,7 @@ import javax.ws.rs.core.UriInfo;
 import org.joda.time.DateTime;
 import org.killbill.billing.account.api.AccountApiException;
 import org.killbill.billing.account.api.AccountUserApi;
+import org.killbill.billing.entitlement.EntitlementInternalApi;
 import org.killbill.billing.entitlement.api.Entitlement;
 import org.killbill.billing.entitlement.api.EntitlementApi;
 import org.killbill.billing.entitlement.api.EntitlementApiException;
@@ -47,11 +53,14 @@ import org.killbill.billing.jaxrs.json.RolledUpUsageJson;
 import org.killbill.billing.jaxrs.json.SubscriptionUsageRecordJson;
 import org.killbill.billing.jaxrs.json.SubscriptionUsageRecordJson.UnitUsageRecordJson;
 import org.killbill.billing.jaxrs.json.SubscriptionUsageRecordJson.UsageRecordJson;
+import org.killbill.billing.jaxrs.json.UsageRecordResultJson;
 import org.killbill.billing.jaxrs.util.Context;
 import org.killbill.billing.jaxrs.util.JaxrsUriBuilder;
 import org.killbill.billing.payment.api.InvoicePaymentApi;
 import org.killbill.billing.payment.api.PaymentApi;
 import org.killbill.billing.payment.api.PluginProperty;
+import org.killbill.billing.usage.InternalUserApi;
+import org.killbill.billing.usage.SubscriptionUsageRecordResult;
 import org.killbill.billing.usage.api.RolledUpUsage;
 import org.killbill.billing.usage.api.SubscriptionUsageRecord;
 import org.killbill.billing.usage.api.UsageApiException;
@@ -80,7 +89,9 @@ import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 public class UsageResource extends JaxRsResourceBase {
 
     private final UsageUserApi usageUserApi;
+    private final InternalUserApi internalUserApi;
     private final EntitlementApi entitlementApi;
+    private final EntitlementInternalApi entitlementInternalApi;
 
     @Inject
     public UsageResource(final JaxrsUriBuilder uriBuilder,
@@ -89,14 +100,18 @@ public class UsageResource extends JaxRsResourceBase {
                          final AuditUserApi auditUserApi,
                          final AccountUserApi accountUserApi,
                          final UsageUserApi usageUserApi,
+                         final InternalUserApi internalUserApi,
                          final PaymentApi paymentApi,
                          final InvoicePaymentApi invoicePaymentApi,
                          final EntitlementApi entitlementApi,
+                         final EntitlementInternalApi entitlementInternalApi,
                          final Clock clock,
                          final Context context) {
         super(uriBuilder, tagUserApi, customFieldUserApi, auditUserApi, accountUserApi, paymentApi, invoicePaymentApi, null, clock, context);
         this.usageUserApi = usageUserApi;
+        this.internalUserApi = internalUserApi;
         this.entitlementApi = entitlementApi;
+        this.entitlementInternalApi = entitlementInternalApi;
     }
 
     @TimedResource
@@ -114,20 +129,7 @@ public class UsageResource extends JaxRsResourceBase {
                                 @javax.ws.rs.core.Context final UriInfo uriInfo) throws EntitlementApiException,
                                                                                         AccountApiException,
                                                                                         UsageApiException {
-        verifyNonNullOrEmpty(json, "SubscriptionUsageRecordJson body should be specified");
-        verifyNonNullOrEmpty(json.getSubscriptionId(), "SubscriptionUsageRecordJson subscriptionId needs to be set",
-                             json.getUnitUsageRecords(), "SubscriptionUsageRecordJson unitUsageRecords needs to be set");
-        Preconditions.checkArgument(!json.getUnitUsageRecords().isEmpty(), "json.getUnitUsageRecords() is empty");
-
-        for (final UnitUsageRecordJson unitUsageRecordJson : json.getUnitUsageRecords()) {
-            verifyNonNullOrEmpty(unitUsageRecordJson.getUnitType(), "UnitUsageRecordJson unitType need to be set");
-            Preconditions.checkArgument(Iterables.size(unitUsageRecordJson.getUsageRecords()) > 0,
-                                        "UnitUsageRecordJson usageRecords must have at least one element.");
-            for (final UsageRecordJson usageRecordJson : unitUsageRecordJson.getUsageRecords()) {
-                verifyNonNull(usageRecordJson.getAmount(), "UsageRecordJson amount needs to be set");
-                verifyNonNull(usageRecordJson.getRecordDate(), "UsageRecordJson recordDate needs to be set");
-            }
-        }
+        verifySubscriptionUsageRecordJson(json);
         final CallContext callContextNoAccount = context.createCallContextNoAccountId(createdBy, reason, comment, request);
         // Verify subscription exists..
         final Entitlement entitlement = entitlementApi.getEntitlementForId(json.getSubscriptionId(), false, callContextNoAccount);
@@ -145,6 +147,83 @@ public class UsageResource extends JaxRsResourceBase {
         return Response.status(Status.CREATED).build();
     }
 
+    @TimedResource
+    @POST
+    @Path("/bulk")
+    @Consumes(APPLICATION_JSON)
+    @Produces(APPLICATION_JSON)
+    @ApiOperation(value = "Record usage for multiple subscriptions", response = UsageRecordResultJson.class, responseContainer = "List")
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Successfully processed the usage records, see the result of each record"),
+                           @ApiResponse(code = 400, message = "Invalid usage records")})
+    public Response recordUsages(final List<SubscriptionUsageRecordJson> json,
+                                 @HeaderParam(HDR_CREATED_BY) final String createdBy,
+                                 @HeaderParam(HDR_REASON) final String reason,
+                                 @HeaderParam(HDR_COMMENT) final String comment,
+                                 @javax.ws.rs.core.Context final HttpServletRequest request) {
+        verifyNonNullOrEmpty(json, "SubscriptionUsageRecordJson list should be specified");
+        for (final SubscriptionUsageRecordJson subscriptionUsageRecordJson : json) {
+            verifySubscriptionUsageRecordJson(subscriptionUsageRecordJson);
+        }
+
+        final CallContext callContext = context.createCallContextNoAccountId(createdBy, reason, comment, request);
+
+        // Same checks as the single record API: records failing them are rejected, the other ones are recorded. The usage module
+        // rejects the subscriptions which don't exist (or belong to another tenant), so only the end dates are needed here
+        final Set<UUID> subscriptionIds = new HashSet<>();
+        for (final SubscriptionUsageRecordJson subscriptionUsageRecordJson : json) {
+            subscriptionIds.add(subscriptionUsageRecordJson.getSubscriptionId());
+        }
+        final Map<UUID, DateTime> effectiveEndDates = entitlementInternalApi.getEntitlementEffectiveEndDates(subscriptionIds, context.toInternalTenantContext(callContext));
+
+        final UsageRecordResultJson[] results = new UsageRecordResultJson[json.size()];
+        final List<SubscriptionUsageRecord> records = new ArrayList<>(json.size());
+        final List<Integer> recordIndexes = new ArrayList<>(json.size());
+        for (int i = 0; i < json.size(); i++) {
+            final SubscriptionUsageRecordJson subscriptionUsageRecordJson = json.get(i);
+            final String error = validateSubscriptionUsageRecord(subscriptionUsageRecordJson, effectiveEndDates.get(subscriptionUsageRecordJson.getSubscriptionId()));
+            if (error != null) {
+                results[i] = new UsageRecordResultJson(SubscriptionUsageRecordResult.rejected(subscriptionUsageRecordJson.getSubscriptionId(), subscriptionUsageRecordJson.getTrackingId(), error));
+            } else {
+                records.add(subscriptionUsageRecordJson.toSubscriptionUsageRecord());
+                recordIndexes.add(i);
+            }
+        }
+
+        // Always called, as it enforces the USAGE_CAN_RECORD permission
+        final List<SubscriptionUsageRecordResult> recordResults = internalUserApi.recordRolledUpUsage(records, context.toInternalCallContext(callContext));
+        for (int j = 0; j < recordResults.size(); j++) {
+            results[recordIndexes.get(j)] = new UsageRecordResultJson(recordResults.get(j));
+        }
+        return Response.status(Status.OK).entity(List.of(results)).build();
+    }
+
+    private String validateSubscriptionUsageRecord(final SubscriptionUsageRecordJson json, @Nullable final DateTime effectiveEndDate) {
+        if (effectiveEndDate != null) {
+            final DateTime highestRecordDate = getHighestRecordDate(json.getUnitUsageRecords());
+            if (effectiveEndDate.compareTo(highestRecordDate) < 0) {
+                return String.format("Usage recorded on %s is past the end date %s of the subscription", highestRecordDate, effectiveEndDate);
+            }
+        }
+        return null;
+    }
+
+    private void verifySubscriptionUsageRecordJson(final SubscriptionUsageRecordJson json) {
+        verifyNonNullOrEmpty(json, "SubscriptionUsageRecordJson body should be specified");
+        verifyNonNullOrEmpty(json.getSubscriptionId(), "SubscriptionUsageRecordJson subscriptionId needs to be set",
+                             json.getUnitUsageRecords(), "SubscriptionUsageRecordJson unitUsageRecords needs to be set");
+        Preconditions.checkArgument(!json.getUnitUsageRecords().isEmpty(), "json.getUnitUsageRecords() is empty");
+
+        for (final UnitUsageRecordJson unitUsageRecordJson : json.getUnitUsageRecords()) {
+            verifyNonNullOrEmpty(unitUsageRecordJson.getUnitType(), "UnitUsageRecordJson unitType need to be set");
+            Preconditions.checkArgument(Iterables.size(unitUsageRecordJson.getUsageRecords()) > 0,
+                                        "UnitUsageRecordJson usageRecords must have at least one element.");
+            for (final UsageRecordJson usageRecordJson : unitUsageRecordJson.getUsageRecords()) {
+                verifyNonNull(usageRecordJson.getAmount(), "UsageRecordJson amount needs to be set");
+                verifyNonNull(usageRecordJson.getRecordDate(), "UsageRecordJson recordDate needs to be set");
+            }
+        }
+    }
+
     @VisibleForTesting
     DateTime getHighestRecordDate(final List<UnitUsageRecordJson> records) {
         return records.stream()
@@ -24,6 +24,8 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.servlet.ServletRequest;
 
+import org.killbill.billing.callcontext.InternalCallContext;
+import org.killbill.billing.callcontext.InternalTenantContext;
 import org.killbill.billing.jaxrs.resources.JaxrsResource;
 import org.killbill.billing.tenant.api.Tenant;
 import org.killbill.commons.utils.Preconditions;
@@ -94,6 +96,15 @@ public class Context {
         return tenantContext;
     }
 
+    // Contexts for the internal APIs called by the resources
+    public InternalCallContext toInternalCallContext(final CallContext callContext) {
+        return internalCallContextFactory.createInternalCallContextWithoutAccountRecordId(callContext);
+    }
+
+    public InternalTenantContext toInternalTenantContext(final TenantContext tenantContext) {
+        return internalCallContextFactory.createInternalTenantContextWithoutAccountRecordId(tenantContext);
+    }
+
     // Use REQUEST_ID_HEADER if this is provided and looks like a UUID, if not allocate a random one.
     public static  UUID getOrCreateUserToken() {
         UUID userToken;
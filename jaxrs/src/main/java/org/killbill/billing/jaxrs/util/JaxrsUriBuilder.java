@@ -34,6 +34,8 @@ import javax.ws.rs.core.UriInfo;
 import org.killbill.billing.jaxrs.resources.JaxRsResourceBase;
 import org.killbill.billing.jaxrs.resources.JaxrsResource;
 import org.killbill.billing.util.config.definition.JaxrsConfig;
+import org.killbill.billing.util.entity.DefaultPagination;
+import org.killbill.billing.util.entity.Pagination;
 
 public class JaxrsUriBuilder {
 
@@ -117,6 +119,23 @@ public class JaxrsUriBuilder {
         return objectId != null ? uriBuilder.build(objectId) : uriBuilder.build();
     }
 
+    public URI nextPage(final Class<? extends JaxrsResource> theClass,
+                        final String getMethodName,
+                        final Pagination<?> pagination,
+                        final Long limit,
+                        final Map<String, String> queryParams,
+                        final Map<String, String> pathParams) {
+        final Long nextCursor = pagination instanceof DefaultPagination ? ((DefaultPagination<?>) pagination).getNextCursor() : null;
+        if (nextCursor == null) {
+            return nextPage(theClass, getMethodName, pagination.getNextOffset(), limit, queryParams, pathParams);
+        }
+
+        // Keyset pagination: the cursor takes precedence over the offset for the next page
+        final Map<String, String> queryParamsWithCursor = new HashMap<>(queryParams);
+        queryParamsWithCursor.put(JaxRsResourceBase.QUERY_SEARCH_CURSOR, String.valueOf(nextCursor));
+        return nextPage(theClass, getMethodName, pagination.getNextOffset(), limit, queryParamsWithCursor, pathParams);
+    }
+
     public URI nextPage(final Class<? extends JaxrsResource> theClass,
                         final String getMethodName,
                         final Long nextOffset,
@@ -16,7 +16,82 @@
 
 package org.killbill.billing.jaxrs.json;
 
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.joda.time.LocalDate;
+import org.killbill.billing.account.api.Account;
+import org.killbill.billing.catalog.api.Currency;
+import org.killbill.billing.entitlement.api.SubscriptionBundle;
+import org.killbill.billing.invoice.api.Invoice;
+import org.killbill.billing.invoice.api.InvoiceItem;
+import org.killbill.billing.invoice.api.InvoiceItemType;
+import org.killbill.billing.invoice.api.InvoicePayment;
+import org.killbill.billing.invoice.api.InvoicePaymentType;
 import org.killbill.billing.jaxrs.JaxrsTestSuiteNoDB;
+import org.killbill.billing.payment.api.Payment;
+import org.killbill.billing.util.audit.AccountAuditLogs;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.fasterxml.jackson.core.JsonGenerator;
 
 public class TestAccountTimelineJson extends JaxrsTestSuiteNoDB {
+
+    @Test(groups = "fast")
+    public void testWrite() throws Exception {
+        final UUID accountId = UUID.randomUUID();
+        final Account account = Mockito.mock(Account.class);
+        Mockito.when(account.getId()).thenReturn(accountId);
+        Mockito.when(account.getCurrency()).thenReturn(Currency.USD);
+
+        final InvoiceItem credit = Mockito.mock(InvoiceItem.class);
+        Mockito.when(credit.getId()).thenReturn(UUID.randomUUID());
+        Mockito.when(credit.getInvoiceItemType()).thenReturn(InvoiceItemType.CREDIT_ADJ);
+        Mockito.when(credit.getAmount()).thenReturn(BigDecimal.TEN);
+        final Invoice invoice1 = createInvoice(UUID.randomUUID(), accountId, List.of(credit));
+        final UUID invoiceId2 = UUID.randomUUID();
+        final Invoice invoice2 = createInvoice(invoiceId2, accountId, Collections.emptyList());
+
+        final UUID paymentId = UUID.randomUUID();
+        final Payment payment = Mockito.mock(Payment.class);
+        Mockito.when(payment.getId()).thenReturn(paymentId);
+        Mockito.when(payment.getAccountId()).thenReturn(accountId);
+        final InvoicePayment invoicePayment = Mockito.mock(InvoicePayment.class);
+        Mockito.when(invoicePayment.getPaymentId()).thenReturn(paymentId);
+        Mockito.when(invoicePayment.getInvoiceId()).thenReturn(invoiceId2);
+        Mockito.when(invoicePayment.getType()).thenReturn(InvoicePaymentType.ATTEMPT);
+
+        final List<Invoice> invoices = List.of(invoice1, invoice2);
+        final List<Payment> payments = List.of(payment);
+        final List<InvoicePayment> invoicePayments = List.of(invoicePayment);
+        final List<SubscriptionBundle> bundles = Collections.emptyList();
+        final AccountAuditLogs accountAuditLogs = Mockito.mock(AccountAuditLogs.class);
+
+        final AccountTimelineJson accountTimelineJson = new AccountTimelineJson(account, invoices, payments, invoicePayments, bundles, accountAuditLogs);
+        Assert.assertEquals(accountTimelineJson.getPayments().get(0).getTargetInvoiceId(), invoiceId2);
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final JsonGenerator generator = mapper.getFactory().createGenerator(output);
+        AccountTimelineJson.write(generator, account, invoices, payments, invoicePayments, bundles, AccountTimelineJson.toBundlesJson(account, bundles, accountAuditLogs), accountAuditLogs);
+        generator.close();
+
+        // Streamed timeline is the same as the serialized one
+        Assert.assertEquals(output.toString("UTF-8"), mapper.writeValueAsString(accountTimelineJson));
+        Assert.assertEquals(mapper.readValue(output.toByteArray(), AccountTimelineJson.class), accountTimelineJson);
+    }
+
+    private Invoice createInvoice(final UUID invoiceId, final UUID accountId, final List<InvoiceItem> invoiceItems) {
+        final Invoice invoice = Mockito.mock(Invoice.class);
+        Mockito.when(invoice.getId()).thenReturn(invoiceId);
+        Mockito.when(invoice.getAccountId()).thenReturn(accountId);
+        Mockito.when(invoice.getInvoiceDate()).thenReturn(new LocalDate(2020, 1, 1));
+        Mockito.when(invoice.getCurrency()).thenReturn(Currency.USD);
+        Mockito.when(invoice.getInvoiceItems()).thenReturn(invoiceItems);
+        return invoice;
+    }
 }
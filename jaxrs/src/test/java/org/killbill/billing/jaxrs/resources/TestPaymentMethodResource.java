@@ -77,7 +77,8 @@ public class TestPaymentMethodResource extends JaxrsTestSuiteNoDB {
                 paymentApi,
                 null,
                 clock,
-                context
+                context,
+                null
         );
         return Mockito.spy(toSpy);
     }
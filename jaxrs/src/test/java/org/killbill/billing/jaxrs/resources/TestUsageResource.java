@@ -19,12 +19,31 @@ package org.killbill.billing.jaxrs.resources;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.core.Response;
 
 import org.joda.time.DateTime;
 import org.joda.time.LocalDate;
+import org.killbill.billing.callcontext.InternalCallContext;
+import org.killbill.billing.callcontext.InternalTenantContext;
+import org.killbill.billing.entitlement.EntitlementInternalApi;
 import org.killbill.billing.jaxrs.JaxrsTestSuiteNoDB;
+import org.killbill.billing.jaxrs.json.SubscriptionUsageRecordJson;
 import org.killbill.billing.jaxrs.json.SubscriptionUsageRecordJson.UnitUsageRecordJson;
 import org.killbill.billing.jaxrs.json.SubscriptionUsageRecordJson.UsageRecordJson;
+import org.killbill.billing.jaxrs.json.UsageRecordResultJson;
+import org.killbill.billing.jaxrs.util.Context;
+import org.killbill.billing.usage.InternalUserApi;
+import org.killbill.billing.usage.SubscriptionUsageRecordResult;
+import org.killbill.billing.usage.SubscriptionUsageRecordResult.Status;
+import org.killbill.billing.usage.api.SubscriptionUsageRecord;
+import org.killbill.billing.util.callcontext.CallContext;
+import org.killbill.commons.utils.collect.Iterables;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -39,15 +58,73 @@ public class TestUsageResource extends JaxrsTestSuiteNoDB {
                 null, // auditUserApi
                 null, // accountUserApi
                 null, // usageUserApi
+                null, // internalUserApi
                 null, // paymentApi
                 null, // invoicePaymentApi
                 null, // entitlementApi
+                null, // entitlementInternalApi
                 null, // clock
                 null // context
         );
         return Mockito.spy(result);
     }
 
+    @Test(groups = "fast")
+    @SuppressWarnings("unchecked")
+    public void testRecordUsagesValidatesEachSubscription() throws Exception {
+        final DateTime recordDate = new LocalDate(2018, 3, 4).toDateTimeAtStartOfDay();
+
+        final UUID activeSubscriptionId = UUID.randomUUID();
+        final UUID cancelledSubscriptionId = UUID.randomUUID();
+        final UUID unknownSubscriptionId = UUID.randomUUID();
+
+        final EntitlementInternalApi entitlementInternalApi = Mockito.mock(EntitlementInternalApi.class);
+        Mockito.when(entitlementInternalApi.getEntitlementEffectiveEndDates(Mockito.<Iterable<UUID>>any(), Mockito.<InternalTenantContext>any()))
+               .thenAnswer(invocation -> Map.of(cancelledSubscriptionId, recordDate.minusDays(1)));
+
+        final InternalUserApi internalUserApi = Mockito.mock(InternalUserApi.class);
+        Mockito.when(internalUserApi.recordRolledUpUsage(Mockito.<List<SubscriptionUsageRecord>>any(), Mockito.<InternalCallContext>any()))
+               .thenAnswer(invocation -> List.of(SubscriptionUsageRecordResult.accepted(activeSubscriptionId, "t1"),
+                                                 SubscriptionUsageRecordResult.rejected(unknownSubscriptionId, "t3", "Object doesn't exist"),
+                                                 SubscriptionUsageRecordResult.accepted(activeSubscriptionId, "t4")));
+
+        final Context context = Mockito.mock(Context.class);
+        Mockito.when(context.createCallContextNoAccountId(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any())).thenReturn(Mockito.mock(CallContext.class));
+
+        final UsageResource usageResource = new UsageResource(null, null, null, null, null, null, internalUserApi, null, null, null, entitlementInternalApi, null, context);
+        final List<SubscriptionUsageRecordJson> json = List.of(createRecordJson(activeSubscriptionId, "t1", recordDate),
+                                                               createRecordJson(cancelledSubscriptionId, "t2", recordDate),
+                                                               createRecordJson(unknownSubscriptionId, "t3", recordDate),
+                                                               createRecordJson(activeSubscriptionId, "t4", recordDate));
+        final Response response = usageResource.recordUsages(json, "test", null, null, Mockito.mock(HttpServletRequest.class));
+
+        final List<UsageRecordResultJson> results = (List<UsageRecordResultJson>) response.getEntity();
+        Assert.assertEquals(results.size(), 4);
+        Assert.assertEquals(results.get(0).getStatus(), Status.ACCEPTED);
+        Assert.assertEquals(results.get(0).getTrackingId(), "t1");
+        // Past the end date of the subscription
+        Assert.assertEquals(results.get(1).getStatus(), Status.REJECTED);
+        Assert.assertEquals(results.get(1).getTrackingId(), "t2");
+        // Not visible from the tenant (rejected by the usage module)
+        Assert.assertEquals(results.get(2).getStatus(), Status.REJECTED);
+        Assert.assertEquals(results.get(2).getTrackingId(), "t3");
+        Assert.assertEquals(results.get(3).getStatus(), Status.ACCEPTED);
+        Assert.assertEquals(results.get(3).getTrackingId(), "t4");
+
+        // The records past the end date don't reach the usage module, and the end dates are looked up once for the distinct subscriptions
+        final ArgumentCaptor<List<SubscriptionUsageRecord>> recorded = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(internalUserApi).recordRolledUpUsage(recorded.capture(), Mockito.<InternalCallContext>any());
+        Assert.assertEquals(recorded.getValue().size(), 3);
+        final ArgumentCaptor<Iterable<UUID>> subscriptionIds = ArgumentCaptor.forClass(Iterable.class);
+        Mockito.verify(entitlementInternalApi, Mockito.times(1)).getEntitlementEffectiveEndDates(subscriptionIds.capture(), Mockito.<InternalTenantContext>any());
+        Assert.assertEquals(Set.copyOf(Iterables.toUnmodifiableList(subscriptionIds.getValue())), Set.of(activeSubscriptionId, cancelledSubscriptionId, unknownSubscriptionId));
+    }
+
+    private SubscriptionUsageRecordJson createRecordJson(final UUID subscriptionId, final String trackingId, final DateTime recordDate) {
+        final UnitUsageRecordJson unitUsageRecord = new UnitUsageRecordJson("foo", List.of(new UsageRecordJson(recordDate, BigDecimal.ONE)));
+        return new SubscriptionUsageRecordJson(subscriptionId, trackingId, List.of(unitUsageRecord));
+    }
+
     @Test(groups = "fast")
     public void testGetHighestRecordDate() {
         final UsageResource usageResource = createUsageResource();
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.junction.plumbing.billing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+
+import org.joda.time.LocalDate;
+import org.killbill.billing.catalog.api.Currency;
+import org.killbill.billing.catalog.api.StaticCatalog;
+import org.killbill.billing.catalog.api.VersionedCatalog;
+import org.killbill.billing.junction.BillingEvent;
+import org.killbill.billing.subscription.api.SubscriptionBase;
+import org.killbill.billing.subscription.api.user.SubscriptionBaseTransition;
+import org.killbill.billing.util.config.definition.JunctionConfig;
+
+/**
+ * In-memory, per-account snapshots of the billing events computed for each bundle (prior to applying blocking states).
+ * <p>
+ * A snapshot is only reused when the account level inputs (content of the catalog versions, account BCD and currency, cutoff date) did not change,
+ * and a bundle is only reused when none of its subscription events and AUTO_INVOICING_OFF tag changed. Blocking states
+ * are always applied on top of the resulting set, so they don't need to be part of the keys.
+ */
+public class BillingEventsSnapshots {
+
+    private final boolean enabled;
+    private final Map<Long, AccountBillingEventsSnapshot> snapshots;
+
+    @Inject
+    public BillingEventsSnapshots(final JunctionConfig junctionConfig) {
+        this.enabled = junctionConfig.isIncrementalBillingEventsEnabled();
+        final int maxAccounts = junctionConfig.getIncrementalBillingEventsMaxAccounts();
+        this.snapshots = Collections.synchronizedMap(new LinkedHashMap<Long, AccountBillingEventsSnapshot>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Long, AccountBillingEventsSnapshot> eldest) {
+                return size() > maxAccounts;
+            }
+        });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Nullable
+    public AccountBillingEventsSnapshot getSnapshot(final Long accountRecordId, final AccountKey accountKey) {
+        final AccountBillingEventsSnapshot snapshot = snapshots.get(accountRecordId);
+        if (snapshot == null || !snapshot.getAccountKey().equals(accountKey)) {
+            return null;
+        }
+        return snapshot;
+    }
+
+    public void putSnapshot(final Long accountRecordId, final AccountKey accountKey, @Nullable final AccountBillingEventsSnapshot previous, final Map<UUID, BundleBillingEvents> bundles) {
+        final long version = previous == null ? 1L : previous.getVersion() + 1L;
+        snapshots.put(accountRecordId, new AccountBillingEventsSnapshot(accountKey, version, bundles));
+    }
+
+    public void invalidate(final Long accountRecordId) {
+        snapshots.remove(accountRecordId);
+    }
+
+    public static class AccountBillingEventsSnapshot {
+
+        private final AccountKey accountKey;
+        private final long version;
+        private final Map<UUID, BundleBillingEvents> bundles;
+
+        private AccountBillingEventsSnapshot(final AccountKey accountKey, final long version, final Map<UUID, BundleBillingEvents> bundles) {
+            this.accountKey = accountKey;
+            this.version = version;
+            this.bundles = new HashMap<>(bundles);
+        }
+
+        public AccountKey getAccountKey() {
+            return accountKey;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        @Nullable
+        public BundleBillingEvents getBundle(final UUID bundleId, final BundleKey bundleKey) {
+            final BundleBillingEvents bundle = bundles.get(bundleId);
+            if (bundle == null || !bundleKey.equals(bundle.getKey())) {
+                return null;
+            }
+            return bundle;
+        }
+    }
+
+    public static class AccountKey {
+
+        private final String catalogName;
+        private final List<Date> catalogEffectiveDates;
+        // Compared by content: a version re-uploaded with the same effective date invalidates the snapshot. The common case
+        // (same cached catalog instance) is an identity check, and a new instance with the same content is only compared once,
+        // as the snapshot is then stored again with the new key.
+        private final List<StaticCatalog> catalogVersions;
+        private final int accountBCD;
+        private final Currency currency;
+        private final LocalDate cutoffDt;
+
+        public AccountKey(final VersionedCatalog catalog, final int accountBCD, final Currency currency, @Nullable final LocalDate cutoffDt) {
+            this.catalogName = catalog.getCatalogName();
+            this.catalogVersions = new ArrayList<>(catalog.getVersions());
+            this.catalogEffectiveDates = new ArrayList<>(catalogVersions.size());
+            for (final StaticCatalog version : catalogVersions) {
+                catalogEffectiveDates.add(version.getEffectiveDate());
+            }
+            this.accountBCD = accountBCD;
+            this.currency = currency;
+            this.cutoffDt = cutoffDt;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final AccountKey that = (AccountKey) o;
+            return accountBCD == that.accountBCD &&
+                   Objects.equals(catalogName, that.catalogName) &&
+                   Objects.equals(catalogEffectiveDates, that.catalogEffectiveDates) &&
+                   currency == that.currency &&
+                   Objects.equals(cutoffDt, that.cutoffDt) &&
+                   Objects.equals(catalogVersions, that.catalogVersions);
+        }
+
+        @Override
+        public int hashCode() {
+            // The content of the catalog versions is left out, as hashing it is expensive (and equal versions have equal effective dates)
+            return Objects.hash(catalogName, catalogEffectiveDates, accountBCD, currency, cutoffDt);
+        }
+    }
+
+    public static class BundleKey {
+
+        private final boolean autoInvoicingOff;
+        // Flattened (subscriptionId, [eventId, effectiveDate, transitionType]*)* for all subscriptions of the bundle
+        private final List<Object> subscriptionEvents;
+
+        public BundleKey(final List<SubscriptionBase> subscriptions, final boolean autoInvoicingOff) {
+            this.autoInvoicingOff = autoInvoicingOff;
+            this.subscriptionEvents = new ArrayList<>();
+            for (final SubscriptionBase subscription : subscriptions) {
+                subscriptionEvents.add(subscription.getId());
+                final List<SubscriptionBaseTransition> transitions = subscription.getAllTransitions(false);
+                if (transitions == null) {
+                    continue;
+                }
+                for (final SubscriptionBaseTransition transition : transitions) {
+                    subscriptionEvents.add(transition.getNextEventId());
+                    subscriptionEvents.add(transition.getEffectiveTransitionTime() != null ? transition.getEffectiveTransitionTime().getMillis() : null);
+                    subscriptionEvents.add(transition.getTransitionType());
+                }
+            }
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final BundleKey bundleKey = (BundleKey) o;
+            return autoInvoicingOff == bundleKey.autoInvoicingOff &&
+                   subscriptionEvents.equals(bundleKey.subscriptionEvents);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(autoInvoicingOff, subscriptionEvents);
+        }
+    }
+
+    public static class BundleBillingEvents {
+
+        private final BundleKey key;
+        private final List<BillingEvent> events;
+        private final Set<UUID> skippedSubscriptionIds;
+        private final Set<UUID> subscriptionIdsWithAutoInvoiceOff;
+
+        public BundleBillingEvents(@Nullable final BundleKey key,
+                                   final List<BillingEvent> events,
+                                   final Set<UUID> skippedSubscriptionIds,
+                                   final Set<UUID> subscriptionIdsWithAutoInvoiceOff) {
+            this.key = key;
+            this.events = events;
+            this.skippedSubscriptionIds = skippedSubscriptionIds;
+            this.subscriptionIdsWithAutoInvoiceOff = subscriptionIdsWithAutoInvoiceOff;
+        }
+
+        public BundleKey getKey() {
+            return key;
+        }
+
+        public List<BillingEvent> getEvents() {
+            return events;
+        }
+
+        public Set<UUID> getSkippedSubscriptionIds() {
+            return skippedSubscriptionIds;
+        }
+
+        public Set<UUID> getSubscriptionIdsWithAutoInvoiceOff() {
+            return subscriptionIdsWithAutoInvoiceOff;
+        }
+    }
+}
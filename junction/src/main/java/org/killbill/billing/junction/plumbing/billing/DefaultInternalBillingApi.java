@@ -19,11 +19,15 @@
 package org.killbill.billing.junction.plumbing.billing;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.UUID;
@@ -49,6 +53,10 @@ import org.killbill.billing.invoice.api.DryRunArguments;
 import org.killbill.billing.junction.BillingEvent;
 import org.killbill.billing.junction.BillingEventSet;
 import org.killbill.billing.junction.BillingInternalApi;
+import org.killbill.billing.junction.plumbing.billing.BillingEventsSnapshots.AccountBillingEventsSnapshot;
+import org.killbill.billing.junction.plumbing.billing.BillingEventsSnapshots.AccountKey;
+import org.killbill.billing.junction.plumbing.billing.BillingEventsSnapshots.BundleBillingEvents;
+import org.killbill.billing.junction.plumbing.billing.BillingEventsSnapshots.BundleKey;
 import org.killbill.billing.subscription.api.SubscriptionBase;
 import org.killbill.billing.subscription.api.SubscriptionBaseInternalApi;
 import org.killbill.billing.subscription.api.SubscriptionBaseTransitionType;
@@ -75,18 +83,21 @@ public class DefaultInternalBillingApi implements BillingInternalApi {
     private final CatalogInternalApi catalogInternalApi;
     private final BlockingCalculator blockCalculator;
     private final TagInternalApi tagApi;
+    private final BillingEventsSnapshots billingEventsSnapshots;
 
     @Inject
     public DefaultInternalBillingApi(final AccountInternalApi accountApi,
                                      final SubscriptionBaseInternalApi subscriptionApi,
                                      final BlockingCalculator blockCalculator,
                                      final CatalogInternalApi catalogInternalApi,
-                                     final TagInternalApi tagApi) {
+                                     final TagInternalApi tagApi,
+                                     final BillingEventsSnapshots billingEventsSnapshots) {
         this.accountApi = accountApi;
         this.subscriptionApi = subscriptionApi;
         this.catalogInternalApi = catalogInternalApi;
         this.blockCalculator = blockCalculator;
         this.tagApi = tagApi;
+        this.billingEventsSnapshots = billingEventsSnapshots;
     }
 
     @Override
@@ -112,7 +123,7 @@ public class DefaultInternalBillingApi implements BillingInternalApi {
 
         final ImmutableAccountData account = accountApi.getImmutableAccountDataById(accountId, context);
         result = new DefaultBillingEventSet(found_AUTO_INVOICING_OFF, found_INVOICING_DRAFT, found_INVOICING_REUSE_DRAFT);
-        addBillingEventsForBundles(account, dryRunArguments, context, result, skippedSubscriptions, subscriptionsForAccount, fullCatalog, tagsForAccount);
+        addBillingEventsForBundles(account, dryRunArguments, cutoffDt, context, result, skippedSubscriptions, subscriptionsForAccount, fullCatalog, tagsForAccount);
         if (result.isEmpty()) {
             log.info("No billing event for accountId='{}'", accountId);
             return result;
@@ -155,6 +166,7 @@ public class DefaultInternalBillingApi implements BillingInternalApi {
 
     private void addBillingEventsForBundles(final ImmutableAccountData account,
                                             final DryRunArguments dryRunArguments,
+                                            @Nullable final LocalDate cutoffDt,
                                             final InternalCallContext context,
                                             final DefaultBillingEventSet result,
                                             final Set<UUID> skipSubscriptionsSet,
@@ -162,26 +174,15 @@ public class DefaultInternalBillingApi implements BillingInternalApi {
                                             final VersionedCatalog catalog,
                                             final List<Tag> tagsForAccount) throws AccountApiException, CatalogApiException, SubscriptionBaseApiException {
         final int currentAccountBCD = accountApi.getBCD(context);
-        addBillingEventsForBundles(account,
-                                   dryRunArguments,
-                                   context,
-                                   result,
-                                   skipSubscriptionsSet,
-                                   subscriptionsForAccount,
-                                   catalog,
-                                   tagsForAccount,
-                                   currentAccountBCD);
-    }
 
-    private void addBillingEventsForBundles(final ImmutableAccountData account,
-                                            final DryRunArguments dryRunArguments,
-                                            final InternalCallContext context,
-                                            final DefaultBillingEventSet result,
-                                            final Set<UUID> skipSubscriptionsSet,
-                                            final Map<UUID, List<SubscriptionBase>> subscriptionsForAccount,
-                                            final VersionedCatalog catalog,
-                                            final List<Tag> tagsForAccount,
-                                            final int currentAccountBCD) throws AccountApiException, CatalogApiException, SubscriptionBaseApiException {
+        // Snapshots are not used in dryRun mode, nor until the account BCD has been set (one time computation)
+        final boolean useSnapshots = billingEventsSnapshots.isEnabled() && dryRunArguments == null && currentAccountBCD != 0;
+        final AccountKey accountKey = useSnapshots ? new AccountKey(catalog, currentAccountBCD, account.getCurrency(), cutoffDt) : null;
+        final AccountBillingEventsSnapshot previousSnapshot = useSnapshots ? billingEventsSnapshots.getSnapshot(context.getAccountRecordId(), accountKey) : null;
+
+        final Map<UUID, BundleBillingEvents> billingEventsPerBundle = new LinkedHashMap<>();
+        final Map<UUID, List<SubscriptionBase>> subscriptionsPerBundle = new HashMap<>();
+
         // In dryRun mode, when we care about invoice generated for new BASE subscription, no such bundle exists yet; we still
         // want to tap into subscriptionBase logic, so we make up a bundleId
         if (dryRunArguments != null &&
@@ -189,9 +190,11 @@ public class DefaultInternalBillingApi implements BillingInternalApi {
             dryRunArguments.getBundleId() == null) {
             final UUID fakeBundleId = UUIDs.randomUUID();
             final List<SubscriptionBase> subscriptions = subscriptionApi.getSubscriptionsForBundle(fakeBundleId, dryRunArguments, context);
-            addBillingEventsForSubscription(account, subscriptions, null, currentAccountBCD, context, result, skipSubscriptionsSet, catalog);
+            subscriptionsPerBundle.put(fakeBundleId, subscriptions);
+            billingEventsPerBundle.put(fakeBundleId, computeBillingEventsForBundle(account, subscriptions, null, false, null, currentAccountBCD, context, catalog));
         }
 
+        int nbReusedBundles = 0;
         for (final UUID bundleId : subscriptionsForAccount.keySet()) {
             final DryRunArguments dryRunArgumentsForBundle = (dryRunArguments != null &&
                                                               dryRunArguments.getBundleId() != null &&
@@ -204,44 +207,97 @@ public class DefaultInternalBillingApi implements BillingInternalApi {
             } else {
                 subscriptions = subscriptionApi.getSubscriptionsForBundle(bundleId, dryRunArgumentsForBundle, context);
             }
+            subscriptionsPerBundle.put(bundleId, subscriptions);
 
             // Check if billing is off for the bundle
             final List<Tag> bundleTags = getTagsForObjectType(ObjectType.BUNDLE, tagsForAccount, bundleId);
             final boolean found_AUTO_INVOICING_OFF = is_AUTO_INVOICING_OFF(bundleTags);
-            if (found_AUTO_INVOICING_OFF) {
-                for (final SubscriptionBase subscription : subscriptions) { // billing is off so list sub ids in set to be excluded
-                    result.getSubscriptionIdsWithAutoInvoiceOff().add(subscription.getId());
-                }
-            } else { // billing is not off
+
+            final BundleKey bundleKey = useSnapshots && subscriptions != null ? new BundleKey(subscriptions, found_AUTO_INVOICING_OFF) : null;
+            final BundleBillingEvents previousBundleBillingEvents = previousSnapshot != null && bundleKey != null ? previousSnapshot.getBundle(bundleId, bundleKey) : null;
+            if (previousBundleBillingEvents != null) {
+                billingEventsPerBundle.put(bundleId, previousBundleBillingEvents);
+                nbReusedBundles++;
+            } else {
                 final SubscriptionBase baseSubscription = subscriptions != null && !subscriptions.isEmpty() ? subscriptions.get(0) : null;
-                addBillingEventsForSubscription(account, subscriptions, baseSubscription, currentAccountBCD, context, result, skipSubscriptionsSet, catalog);
+                billingEventsPerBundle.put(bundleId, computeBillingEventsForBundle(account, subscriptions, baseSubscription, found_AUTO_INVOICING_OFF, bundleKey, currentAccountBCD, context, catalog));
             }
         }
 
         // If dryRun is specified, we don't want to update the account BCD value, so we initialize the flag updatedAccountBCD to true
         if (currentAccountBCD == 0) {
-            final Integer accountBCDCandidate = computeAccountBCD(result);
-            if (accountBCDCandidate == null) {
-                return;
+            final Integer accountBCDCandidate = computeAccountBCD(billingEventsPerBundle.values());
+            if (accountBCDCandidate != null) {
+                // Because we now have computed the real BCD, we need to re-compute the BillingEvents BCD for ACCOUNT alignments (see BillCycleDayCalculator#calculateBcdForAlignment).
+                // Bundles without any ACCOUNT aligned event don't depend on the account BCD and are left untouched.
+                for (final Entry<UUID, BundleBillingEvents> entry : billingEventsPerBundle.entrySet()) {
+                    if (!hasAccountAlignedEvents(entry.getValue())) {
+                        continue;
+                    }
+                    final List<SubscriptionBase> subscriptions = subscriptionsPerBundle.get(entry.getKey());
+                    // The made up dryRun bundle has no base subscription
+                    final SubscriptionBase baseSubscription = subscriptionsForAccount.containsKey(entry.getKey()) && subscriptions != null && !subscriptions.isEmpty() ? subscriptions.get(0) : null;
+                    entry.setValue(computeBillingEventsForBundle(account, subscriptions, baseSubscription, false, null, accountBCDCandidate, context, catalog));
+                }
+
+                final boolean dryRunMode = dryRunArguments != null;
+                if (!dryRunMode) {
+                    log.info("Setting account BCD='{}', accountId='{}'", accountBCDCandidate, account.getId());
+                    accountApi.updateBCD(account.getExternalKey(), accountBCDCandidate, context);
+                }
             }
+        }
+
+        for (final BundleBillingEvents bundleBillingEvents : billingEventsPerBundle.values()) {
+            result.addAll(bundleBillingEvents.getEvents());
+            skipSubscriptionsSet.addAll(bundleBillingEvents.getSkippedSubscriptionIds());
+            result.getSubscriptionIdsWithAutoInvoiceOff().addAll(bundleBillingEvents.getSubscriptionIdsWithAutoInvoiceOff());
+        }
 
-            // Because we now have computed the real BCD, we need to re-compute the BillingEvents BCD for ACCOUNT alignments (see BillCycleDayCalculator#calculateBcdForAlignment).
-            // The code could maybe be optimized (no need to re-run the full function?), but since it's run once per account, it's probably not worth it.
-            result.clear();
-            addBillingEventsForBundles(account, dryRunArguments, context, result, skipSubscriptionsSet, subscriptionsForAccount, catalog, tagsForAccount, accountBCDCandidate);
+        if (useSnapshots) {
+            billingEventsSnapshots.putSnapshot(context.getAccountRecordId(), accountKey, previousSnapshot, billingEventsPerBundle);
+            log.debug("Reused billing events for {}/{} bundles, accountId='{}'", nbReusedBundles, billingEventsPerBundle.size(), account.getId());
+        }
+    }
+
+    private BundleBillingEvents computeBillingEventsForBundle(final ImmutableAccountData account,
+                                                              @Nullable final List<SubscriptionBase> subscriptions,
+                                                              @Nullable final SubscriptionBase baseSubscription,
+                                                              final boolean autoInvoicingOff,
+                                                              @Nullable final BundleKey bundleKey,
+                                                              final int currentAccountBCD,
+                                                              final InternalCallContext context,
+                                                              final VersionedCatalog catalog) throws SubscriptionBaseApiException, CatalogApiException {
+        final List<BillingEvent> events = new ArrayList<>();
+        final Set<UUID> skippedSubscriptionIds = new HashSet<>();
+        final Set<UUID> subscriptionIdsWithAutoInvoiceOff = new HashSet<>();
+        if (autoInvoicingOff) {
+            if (subscriptions != null) {
+                for (final SubscriptionBase subscription : subscriptions) { // billing is off so list sub ids in set to be excluded
+                    subscriptionIdsWithAutoInvoiceOff.add(subscription.getId());
+                }
+            }
+        } else { // billing is not off
+            addBillingEventsForSubscription(account, subscriptions, baseSubscription, currentAccountBCD, context, events, skippedSubscriptionIds, catalog);
+        }
+        return new BundleBillingEvents(bundleKey, events, skippedSubscriptionIds, subscriptionIdsWithAutoInvoiceOff);
+    }
 
-            final boolean dryRunMode = dryRunArguments != null;
-            if (!dryRunMode) {
-                log.info("Setting account BCD='{}', accountId='{}'", accountBCDCandidate, account.getId());
-                accountApi.updateBCD(account.getExternalKey(), accountBCDCandidate, context);
+    private boolean hasAccountAlignedEvents(final BundleBillingEvents bundleBillingEvents) {
+        for (final BillingEvent event : bundleBillingEvents.getEvents()) {
+            if (event.getBillingAlignment() == BillingAlignment.ACCOUNT) {
+                return true;
             }
         }
+        return false;
     }
 
-    private Integer computeAccountBCD(final BillingEventSet result) throws CatalogApiException {
+    private Integer computeAccountBCD(final Collection<BundleBillingEvents> billingEventsPerBundle) throws CatalogApiException {
         BillingEvent oldestAccountAlignedBillingEvent = null;
 
-        for (final BillingEvent event : result) {
+        for (final BillingEvent event : billingEventsPerBundle.stream()
+                                                              .flatMap(bundleBillingEvents -> bundleBillingEvents.getEvents().stream())
+                                                              .collect(Collectors.toUnmodifiableList())) {
             if (event.getBillingAlignment() != BillingAlignment.ACCOUNT) {
                 continue;
             }
@@ -278,7 +334,7 @@ public class DefaultInternalBillingApi implements BillingInternalApi {
                                                  final SubscriptionBase baseSubscription,
                                                  final int currentAccountBCD,
                                                  final InternalCallContext context,
-                                                 final DefaultBillingEventSet result,
+                                                 final Collection<BillingEvent> result,
                                                  final Set<UUID> skipSubscriptionsSet,
                                                  final VersionedCatalog catalog) throws SubscriptionBaseApiException, CatalogApiException {
         if (subscriptions == null) {
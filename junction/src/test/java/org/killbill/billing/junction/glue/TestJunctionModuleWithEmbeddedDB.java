@@ -27,6 +27,7 @@ import org.killbill.billing.platform.api.KillbillConfigSource;
 import org.killbill.billing.subscription.glue.DefaultSubscriptionModule;
 import org.killbill.billing.util.glue.AuditModule;
 import org.killbill.billing.util.glue.NonEntityDaoModule;
+import org.killbill.billing.util.glue.SearchModule;
 import org.killbill.billing.util.glue.TagStoreModule;
 import org.killbill.clock.ClockMock;
 
@@ -45,6 +46,7 @@ public class TestJunctionModuleWithEmbeddedDB extends TestJunctionModule {
 
         install(new GuicyKillbillTestWithEmbeddedDBModule(configSource, clock));
         install(new NonEntityDaoModule(configSource));
+        install(new SearchModule(configSource));
         install(new CatalogModule(configSource));
         install(new DefaultAccountModule(configSource));
         install(new DefaultEntitlementModule(configSource));
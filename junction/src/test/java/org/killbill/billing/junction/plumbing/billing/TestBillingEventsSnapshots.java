@@ -0,0 +1,150 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.junction.plumbing.billing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.joda.time.DateTime;
+import org.killbill.billing.catalog.api.Currency;
+import org.killbill.billing.catalog.api.StaticCatalog;
+import org.killbill.billing.catalog.api.VersionedCatalog;
+import org.killbill.billing.junction.JunctionTestSuiteNoDB;
+import org.killbill.billing.junction.plumbing.billing.BillingEventsSnapshots.AccountBillingEventsSnapshot;
+import org.killbill.billing.junction.plumbing.billing.BillingEventsSnapshots.AccountKey;
+import org.killbill.billing.junction.plumbing.billing.BillingEventsSnapshots.BundleBillingEvents;
+import org.killbill.billing.junction.plumbing.billing.BillingEventsSnapshots.BundleKey;
+import org.killbill.billing.subscription.api.SubscriptionBase;
+import org.killbill.billing.subscription.api.SubscriptionBaseTransitionType;
+import org.killbill.billing.subscription.api.user.SubscriptionBaseTransition;
+import org.killbill.billing.util.config.definition.JunctionConfig;
+import org.mockito.Mockito;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+public class TestBillingEventsSnapshots extends JunctionTestSuiteNoDB {
+
+    @Test(groups = "fast")
+    public void testAccountKey() {
+        final VersionedCatalog catalog = createCatalog(new Date(1000L));
+        final BillingEventsSnapshots snapshots = createSnapshots(10);
+
+        final AccountKey accountKey = new AccountKey(catalog, 1, Currency.USD, null);
+        snapshots.putSnapshot(1L, accountKey, null, Collections.emptyMap());
+
+        final AccountBillingEventsSnapshot snapshot = snapshots.getSnapshot(1L, new AccountKey(catalog, 1, Currency.USD, null));
+        assertNotNull(snapshot);
+        assertEquals(snapshot.getVersion(), 1L);
+
+        // New BCD
+        assertNull(snapshots.getSnapshot(1L, new AccountKey(catalog, 2, Currency.USD, null)));
+        // New catalog version
+        assertNull(snapshots.getSnapshot(1L, new AccountKey(createCatalog(new Date(1000L), new Date(2000L)), 1, Currency.USD, null)));
+        // Same effective date, different content
+        assertNull(snapshots.getSnapshot(1L, new AccountKey(createCatalog(new Date(1000L)), 1, Currency.USD, null)));
+        // Unknown account
+        assertNull(snapshots.getSnapshot(2L, accountKey));
+
+        snapshots.putSnapshot(1L, accountKey, snapshot, Collections.emptyMap());
+        assertEquals(snapshots.getSnapshot(1L, accountKey).getVersion(), 2L);
+
+        snapshots.invalidate(1L);
+        assertNull(snapshots.getSnapshot(1L, accountKey));
+    }
+
+    @Test(groups = "fast")
+    public void testBundleKey() {
+        final UUID bundleId = UUID.randomUUID();
+        final DateTime startDate = clock.getUTCNow();
+        final SubscriptionBaseTransition create = createTransition(startDate, SubscriptionBaseTransitionType.CREATE);
+        final SubscriptionBase subscription = createSubscription(List.of(create));
+
+        final BillingEventsSnapshots snapshots = createSnapshots(10);
+        final AccountKey accountKey = new AccountKey(createCatalog(new Date(1000L)), 1, Currency.USD, null);
+        final BundleKey bundleKey = new BundleKey(List.of(subscription), false);
+        final BundleBillingEvents bundleBillingEvents = new BundleBillingEvents(bundleKey, Collections.emptyList(), Collections.emptySet(), Collections.emptySet());
+        snapshots.putSnapshot(1L, accountKey, null, Map.of(bundleId, bundleBillingEvents));
+
+        final AccountBillingEventsSnapshot snapshot = snapshots.getSnapshot(1L, accountKey);
+        assertEquals(snapshot.getBundle(bundleId, new BundleKey(List.of(subscription), false)), bundleBillingEvents);
+        // AUTO_INVOICING_OFF was added on the bundle
+        assertNull(snapshot.getBundle(bundleId, new BundleKey(List.of(subscription), true)));
+        // A new subscription event was added
+        final SubscriptionBase updatedSubscription = createSubscription(List.of(create, createTransition(startDate.plusMonths(1), SubscriptionBaseTransitionType.CHANGE)));
+        final UUID subscriptionId = subscription.getId();
+        Mockito.when(updatedSubscription.getId()).thenReturn(subscriptionId);
+        assertNull(snapshot.getBundle(bundleId, new BundleKey(List.of(updatedSubscription), false)));
+        // Unknown bundle
+        assertNull(snapshot.getBundle(UUID.randomUUID(), bundleKey));
+    }
+
+    @Test(groups = "fast")
+    public void testMaxAccounts() {
+        final BillingEventsSnapshots snapshots = createSnapshots(2);
+        final AccountKey accountKey = new AccountKey(createCatalog(new Date(1000L)), 1, Currency.USD, null);
+        snapshots.putSnapshot(1L, accountKey, null, Collections.emptyMap());
+        snapshots.putSnapshot(2L, accountKey, null, Collections.emptyMap());
+        snapshots.putSnapshot(3L, accountKey, null, Collections.emptyMap());
+
+        assertNull(snapshots.getSnapshot(1L, accountKey));
+        assertNotNull(snapshots.getSnapshot(2L, accountKey));
+        assertNotNull(snapshots.getSnapshot(3L, accountKey));
+    }
+
+    private BillingEventsSnapshots createSnapshots(final int maxAccounts) {
+        final JunctionConfig junctionConfig = Mockito.mock(JunctionConfig.class);
+        Mockito.when(junctionConfig.isIncrementalBillingEventsEnabled()).thenReturn(true);
+        Mockito.when(junctionConfig.getIncrementalBillingEventsMaxAccounts()).thenReturn(maxAccounts);
+        return new BillingEventsSnapshots(junctionConfig);
+    }
+
+    private VersionedCatalog createCatalog(final Date... effectiveDates) {
+        final List<StaticCatalog> versions = new ArrayList<>();
+        for (final Date effectiveDate : effectiveDates) {
+            final StaticCatalog version = Mockito.mock(StaticCatalog.class);
+            Mockito.when(version.getEffectiveDate()).thenReturn(effectiveDate);
+            versions.add(version);
+        }
+        final VersionedCatalog catalog = Mockito.mock(VersionedCatalog.class);
+        Mockito.when(catalog.getCatalogName()).thenReturn("catalog");
+        Mockito.when(catalog.getVersions()).thenReturn(versions);
+        return catalog;
+    }
+
+    private SubscriptionBase createSubscription(final List<SubscriptionBaseTransition> transitions) {
+        final SubscriptionBase subscription = Mockito.mock(SubscriptionBase.class);
+        Mockito.when(subscription.getId()).thenReturn(UUID.randomUUID());
+        Mockito.when(subscription.getAllTransitions(false)).thenReturn(transitions);
+        return subscription;
+    }
+
+    private SubscriptionBaseTransition createTransition(final DateTime effectiveDate, final SubscriptionBaseTransitionType type) {
+        final SubscriptionBaseTransition transition = Mockito.mock(SubscriptionBaseTransition.class);
+        Mockito.when(transition.getNextEventId()).thenReturn(UUID.randomUUID());
+        Mockito.when(transition.getEffectiveTransitionTime()).thenReturn(effectiveDate);
+        Mockito.when(transition.getTransitionType()).thenReturn(type);
+        return transition;
+    }
+}
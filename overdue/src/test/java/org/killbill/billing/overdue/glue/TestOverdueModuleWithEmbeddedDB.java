@@ -21,6 +21,7 @@ package org.killbill.billing.overdue.glue;
 import org.killbill.billing.GuicyKillbillTestWithEmbeddedDBModule;
 import org.killbill.billing.platform.api.KillbillConfigSource;
 import org.killbill.billing.util.glue.NonEntityDaoModule;
+import org.killbill.billing.util.glue.SearchModule;
 import org.killbill.clock.ClockMock;
 
 public class TestOverdueModuleWithEmbeddedDB extends TestOverdueModule {
@@ -38,5 +39,6 @@ public class TestOverdueModuleWithEmbeddedDB extends TestOverdueModule {
 
         install(new GuicyKillbillTestWithEmbeddedDBModule(configSource, clock));
         install(new NonEntityDaoModule(configSource));
+        install(new SearchModule(configSource));
     }
 }
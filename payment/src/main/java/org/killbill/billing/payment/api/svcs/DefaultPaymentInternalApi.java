@@ -0,0 +1,72 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.payment.api.svcs;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+
+import org.killbill.billing.callcontext.InternalTenantContext;
+import org.killbill.billing.payment.api.Payment;
+import org.killbill.billing.payment.api.PaymentInternalApi;
+import org.killbill.billing.payment.api.PaymentMethod;
+import org.killbill.billing.payment.api.PluginProperty;
+import org.killbill.billing.payment.core.PaymentControlAwareRefresher;
+import org.killbill.billing.payment.core.PaymentMethodProcessor;
+import org.killbill.billing.util.callcontext.InternalCallContextFactory;
+import org.killbill.billing.util.entity.Pagination;
+
+public class DefaultPaymentInternalApi implements PaymentInternalApi {
+
+    private static final boolean IS_API_PAYMENT = true;
+
+    private final PaymentControlAwareRefresher paymentControlAwareRefresher;
+    private final PaymentMethodProcessor paymentMethodProcessor;
+    private final InternalCallContextFactory internalCallContextFactory;
+
+    @Inject
+    public DefaultPaymentInternalApi(final PaymentControlAwareRefresher paymentControlAwareRefresher,
+                                     final PaymentMethodProcessor paymentMethodProcessor,
+                                     final InternalCallContextFactory internalCallContextFactory) {
+        this.paymentControlAwareRefresher = paymentControlAwareRefresher;
+        this.paymentMethodProcessor = paymentMethodProcessor;
+        this.internalCallContextFactory = internalCallContextFactory;
+    }
+
+    @Override
+    public Pagination<Payment> getPayments(@Nullable final Long cursor, final Long offset, final Long limit, final boolean withPluginInfo, final boolean withAttempts, final Iterable<PluginProperty> properties, final InternalTenantContext context) {
+        return paymentControlAwareRefresher.getPayments(cursor, offset, limit, withPluginInfo, withAttempts, IS_API_PAYMENT, properties, internalCallContextFactory.createTenantContext(context), context);
+    }
+
+    @Override
+    public Pagination<Payment> searchPayments(final String searchKey, @Nullable final Long cursor, final Long offset, final Long limit, final boolean withPluginInfo, final boolean withAttempts, final Iterable<PluginProperty> properties, final InternalTenantContext context) {
+        if (withPluginInfo) {
+            return paymentControlAwareRefresher.searchPayments(searchKey, offset, limit, withPluginInfo, withAttempts, IS_API_PAYMENT, properties, internalCallContextFactory.createTenantContext(context), context);
+        } else {
+            return paymentControlAwareRefresher.searchPayments(searchKey, cursor, offset, limit, withAttempts, IS_API_PAYMENT, context);
+        }
+    }
+
+    @Override
+    public Pagination<PaymentMethod> searchPaymentMethods(final String searchKey, @Nullable final Long cursor, final Long offset, final Long limit, final boolean withPluginInfo, final Iterable<PluginProperty> properties, final InternalTenantContext context) {
+        if (withPluginInfo) {
+            return paymentMethodProcessor.searchPaymentMethods(searchKey, offset, limit, withPluginInfo, properties, internalCallContextFactory.createTenantContext(context), context);
+        } else {
+            return paymentMethodProcessor.searchPaymentMethods(searchKey, cursor, offset, limit, context);
+        }
+    }
+}
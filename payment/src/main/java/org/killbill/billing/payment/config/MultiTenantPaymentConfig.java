@@ -166,6 +166,21 @@ public class MultiTenantPaymentConfig extends MultiTenantLockAwareConfigBase imp
         return staticConfig.getPaymentPluginThreadNb();
     }
 
+    @Override
+    public int getPaymentPluginBulkheadMaxConcurrentCalls() {
+        return staticConfig.getPaymentPluginBulkheadMaxConcurrentCalls();
+    }
+
+    @Override
+    public int getPaymentPluginInfoThreadNb() {
+        return staticConfig.getPaymentPluginInfoThreadNb();
+    }
+
+    @Override
+    public TimeSpan getPaymentPluginInfoTimeout() {
+        return staticConfig.getPaymentPluginInfoTimeout();
+    }
+
     @Override
     public int getMaxGlobalLockRetries() {
         return staticConfig.getMaxGlobalLockRetries();
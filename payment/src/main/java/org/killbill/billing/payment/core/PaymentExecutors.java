@@ -17,6 +17,8 @@
 
 package org.killbill.billing.payment.core;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
@@ -24,11 +26,15 @@ import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 
+import org.killbill.billing.payment.dispatcher.PluginBulkhead;
 import org.killbill.billing.util.config.definition.PaymentConfig;
 import org.killbill.commons.concurrent.Executors;
 import org.killbill.commons.concurrent.WithProfilingThreadPoolExecutor;
+import org.killbill.commons.metrics.api.Gauge;
+import org.killbill.commons.metrics.api.MetricRegistry;
 
 public class PaymentExecutors {
 
@@ -43,14 +49,19 @@ public class PaymentExecutors {
     public static final String PLUGIN_EXECUTOR_NAMED = "PluginExecutor";
 
     private final PaymentConfig paymentConfig;
+    private final MetricRegistry metricRegistry;
+    private final ConcurrentMap<String, PluginBulkhead> pluginBulkheads = new ConcurrentHashMap<String, PluginBulkhead>();
 
     private volatile ThreadPoolExecutor pluginExecutorService;
     private volatile ScheduledExecutorService janitorExecutorService;
 
     @Inject
-    public PaymentExecutors(PaymentConfig paymentConfig) {
+    public PaymentExecutors(final PaymentConfig paymentConfig, final MetricRegistry metricRegistry) {
         this.paymentConfig = paymentConfig;
+        this.metricRegistry = metricRegistry;
 
+        metricRegistry.gauge("killbill.payment.plugin.executor.queue", (Gauge<Integer>) () -> pluginExecutorService != null ? pluginExecutorService.getQueue().size() : 0);
+        metricRegistry.gauge("killbill.payment.plugin.executor.active", (Gauge<Integer>) () -> pluginExecutorService != null ? pluginExecutorService.getActiveCount() : 0);
     }
 
     public void initialize() {
@@ -79,6 +90,18 @@ public class PaymentExecutors {
         return janitorExecutorService;
     }
 
+    /**
+     * @return the bulkhead capping the number of concurrent calls to that plugin, or null if bulkheads are disabled
+     */
+    @Nullable
+    public PluginBulkhead getPluginBulkhead(final String pluginName) {
+        final int maxConcurrentCalls = paymentConfig.getPaymentPluginBulkheadMaxConcurrentCalls();
+        if (maxConcurrentCalls <= 0) {
+            return null;
+        }
+        return pluginBulkheads.computeIfAbsent(pluginName, name -> new PluginBulkhead(name, maxConcurrentCalls, metricRegistry));
+    }
+
     private ThreadPoolExecutor createPluginExecutorService() {
         final int minThreadNb = DEFAULT_MIN_PLUGIN_THREADS < paymentConfig.getPaymentPluginThreadNb() ? DEFAULT_MIN_PLUGIN_THREADS : paymentConfig.getPaymentPluginThreadNb();
         return new WithProfilingThreadPoolExecutor(minThreadNb,
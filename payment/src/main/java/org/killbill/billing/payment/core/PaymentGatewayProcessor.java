@@ -84,6 +84,7 @@ public class PaymentGatewayProcessor extends ProcessorBase {
         if (shouldDispatch) {
             return dispatchWithExceptionHandling(null,
                                                  pluginName,
+                                                 true,
                                                  new Callable<PluginDispatcherReturnType<GatewayNotification>>() {
                                                      @Override
                                                      public PluginDispatcherReturnType<GatewayNotification> call() throws PaymentApiException {
@@ -111,6 +112,7 @@ public class PaymentGatewayProcessor extends ProcessorBase {
         if (shouldDispatch) {
             return dispatchWithExceptionHandling(account,
                                                  pluginName,
+                                                 true,
                                                  new Callable<PluginDispatcherReturnType<HostedPaymentPageFormDescriptor>>() {
                                                      @Override
                                                      public PluginDispatcherReturnType<HostedPaymentPageFormDescriptor> call() throws PaymentApiException {
@@ -115,6 +115,7 @@ public class PaymentMethodProcessor extends ProcessorBase {
             throws PaymentApiException {
         return dispatchWithExceptionHandling(account,
                                              paymentPluginServiceName,
+                                             true,
                                              new CallableWithAccountLock<UUID, PaymentApiException>(locker,
                                                                                                     account.getId(),
                                                                                                     paymentConfig,
@@ -412,20 +413,36 @@ public class PaymentMethodProcessor extends ProcessorBase {
                                                   }
                                                  );
         } else {
-            try {
-                return getEntityPagination(limit,
-                                           new SourcePaginationBuilder<PaymentMethodModelDao, PaymentApiException>() {
-                                               @Override
-                                               public Pagination<PaymentMethodModelDao> build() {
-                                                   return paymentDao.searchPaymentMethods(searchKey, offset, limit, internalTenantContext);
-                                               }
-                                           },
-                                           paymentMethodModelDao -> new DefaultPaymentMethod(paymentMethodModelDao, null)
-                                          );
-            } catch (final PaymentApiException e) {
-                log.warn("Unable to search through payment methods", e);
-                return new DefaultPagination<PaymentMethod>(offset, limit, null, null, Collections.emptyIterator());
-            }
+            return searchPaymentMethods(new SourcePaginationBuilder<PaymentMethodModelDao, PaymentApiException>() {
+                                            @Override
+                                            public Pagination<PaymentMethodModelDao> build() {
+                                                return paymentDao.searchPaymentMethods(searchKey, offset, limit, internalTenantContext);
+                                            }
+                                        },
+                                        offset, limit);
+        }
+    }
+
+    // Keyset (seek) pagination, see DefaultPaginationSqlDaoHelper#getPaginationWithCursor: only the search of the Kill Bill payment methods (i.e. without plugin info) supports it
+    public Pagination<PaymentMethod> searchPaymentMethods(final String searchKey, @Nullable final Long cursor, final Long offset, final Long limit, final InternalTenantContext internalTenantContext) {
+        return searchPaymentMethods(new SourcePaginationBuilder<PaymentMethodModelDao, PaymentApiException>() {
+                                        @Override
+                                        public Pagination<PaymentMethodModelDao> build() {
+                                            return paymentDao.searchPaymentMethods(searchKey, cursor, offset, limit, internalTenantContext);
+                                        }
+                                    },
+                                    offset, limit);
+    }
+
+    private Pagination<PaymentMethod> searchPaymentMethods(final SourcePaginationBuilder<PaymentMethodModelDao, PaymentApiException> sourcePaginationBuilder, final Long offset, final Long limit) {
+        try {
+            return getEntityPagination(limit,
+                                       sourcePaginationBuilder,
+                                       paymentMethodModelDao -> new DefaultPaymentMethod(paymentMethodModelDao, null)
+                                      );
+        } catch (final PaymentApiException e) {
+            log.warn("Unable to search through payment methods", e);
+            return new DefaultPagination<PaymentMethod>(offset, limit, null, null, Collections.emptyIterator());
         }
     }
 
@@ -29,11 +29,19 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 
+import org.apache.shiro.util.ThreadContext;
 import org.killbill.billing.ErrorCode;
 import org.killbill.billing.account.api.AccountInternalApi;
 import org.killbill.billing.callcontext.InternalTenantContext;
@@ -53,6 +61,7 @@ import org.killbill.billing.payment.dao.PaymentModelDao;
 import org.killbill.billing.payment.dao.PaymentTransactionModelDao;
 import org.killbill.billing.payment.dao.PluginPropertySerializer;
 import org.killbill.billing.payment.dao.PluginPropertySerializer.PluginPropertySerializerException;
+import org.killbill.billing.payment.dispatcher.CallableWithRequestData;
 import org.killbill.billing.payment.plugin.api.PaymentPluginApi;
 import org.killbill.billing.payment.plugin.api.PaymentPluginApiException;
 import org.killbill.billing.payment.plugin.api.PaymentTransactionInfoPlugin;
@@ -60,9 +69,11 @@ import org.killbill.billing.payment.retry.DefaultRetryService;
 import org.killbill.billing.payment.retry.PaymentRetryNotificationKey;
 import org.killbill.billing.platform.api.KillbillService.KILLBILL_SERVICES;
 import org.killbill.billing.tag.TagInternalApi;
+import org.killbill.billing.util.UUIDs;
 import org.killbill.commons.utils.annotation.VisibleForTesting;
 import org.killbill.billing.util.callcontext.InternalCallContextFactory;
 import org.killbill.billing.util.callcontext.TenantContext;
+import org.killbill.billing.util.config.definition.PaymentConfig;
 import org.killbill.commons.utils.collect.Iterables;
 import org.killbill.commons.utils.collect.MultiValueHashMap;
 import org.killbill.commons.utils.collect.MultiValueMap;
@@ -72,6 +83,7 @@ import org.killbill.billing.util.entity.dao.DefaultPaginationHelper.EntityPagina
 import org.killbill.billing.util.entity.dao.DefaultPaginationHelper.SourcePaginationBuilder;
 import org.killbill.clock.Clock;
 import org.killbill.commons.locker.GlobalLocker;
+import org.killbill.commons.request.Request;
 import org.killbill.notificationq.api.NotificationEvent;
 import org.killbill.notificationq.api.NotificationEventWithMetadata;
 import org.killbill.notificationq.api.NotificationQueue;
@@ -79,6 +91,7 @@ import org.killbill.notificationq.api.NotificationQueueService;
 import org.killbill.notificationq.api.NotificationQueueService.NoSuchNotificationQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 
 import static org.killbill.billing.util.entity.dao.DefaultPaginationHelper.getEntityPagination;
 import static org.killbill.billing.util.entity.dao.DefaultPaginationHelper.getEntityPaginationFromPlugins;
@@ -93,6 +106,8 @@ public class PaymentRefresher extends ProcessorBase {
 
     private final NotificationQueueService notificationQueueService;
     private final IncompletePaymentTransactionTask incompletePaymentTransactionTask;
+    private final PaymentConfig paymentConfig;
+    private final PaymentExecutors paymentExecutors;
 
     @Inject
     public PaymentRefresher(final PaymentPluginServiceRegistration paymentPluginServiceRegistration,
@@ -104,10 +119,14 @@ public class PaymentRefresher extends ProcessorBase {
                             final InvoiceInternalApi invoiceApi,
                             final Clock clock,
                             final NotificationQueueService notificationQueueService,
-                            final IncompletePaymentTransactionTask incompletePaymentTransactionTask) {
+                            final IncompletePaymentTransactionTask incompletePaymentTransactionTask,
+                            final PaymentConfig paymentConfig,
+                            final PaymentExecutors paymentExecutors) {
         super(paymentPluginServiceRegistration, accountUserApi, paymentDao, tagUserApi, locker, internalCallContextFactory, invoiceApi, clock);
         this.notificationQueueService = notificationQueueService;
         this.incompletePaymentTransactionTask = incompletePaymentTransactionTask;
+        this.paymentConfig = paymentConfig;
+        this.paymentExecutors = paymentExecutors;
     }
 
     protected boolean invokeJanitor(final UUID accountId,
@@ -181,30 +200,11 @@ public class PaymentRefresher extends ProcessorBase {
         final List<PaymentModelDao> paymentsModelDao = paymentDao.getPaymentsForAccount(accountId, tenantContext);
         final List<PaymentTransactionModelDao> transactionsModelDao = paymentDao.getTransactionsForAccount(accountId, tenantContext);
 
-        final Map<UUID, PaymentPluginApi> paymentPluginByPaymentMethodId = new HashMap<>();
-        final Collection<UUID> absentPlugins = new HashSet<>();
-        final List<Payment> transformedPayments = paymentsModelDao
-                .stream()
-                .map(paymentModelDao -> {
-                    List<PaymentTransactionInfoPlugin> pluginInfo = null;
-
-                    if (withPluginInfo) {
-                        PaymentPluginApi pluginApi = paymentPluginByPaymentMethodId.get(paymentModelDao.getPaymentMethodId());
-                        if (pluginApi == null && !absentPlugins.contains(paymentModelDao.getPaymentMethodId())) {
-                            try {
-                                pluginApi = getPaymentProviderPlugin(paymentModelDao.getPaymentMethodId(), true, tenantContext);
-                                paymentPluginByPaymentMethodId.put(paymentModelDao.getPaymentMethodId(), pluginApi);
-                            } catch (final PaymentApiException e) {
-                                log.warn("Unable to retrieve pluginApi for payment method " + paymentModelDao.getPaymentMethodId());
-                                absentPlugins.add(paymentModelDao.getPaymentMethodId());
-                            }
-                        }
-
-                        pluginInfo = getPaymentTransactionInfoPluginsIfNeeded(pluginApi, paymentModelDao, context);
-                    }
-
-                    return toPayment(paymentModelDao, transactionsModelDao, pluginInfo, withAttempts, isApiPayment, tenantContext);
-                }).collect(Collectors.toUnmodifiableList());
+        final List<List<PaymentTransactionInfoPlugin>> pluginInfos = withPluginInfo ? getPaymentTransactionInfoPlugins(paymentsModelDao, context, tenantContext) : null;
+        final List<Payment> transformedPayments = new ArrayList<>(paymentsModelDao.size());
+        for (int i = 0; i < paymentsModelDao.size(); i++) {
+            transformedPayments.add(toPayment(paymentsModelDao.get(i), transactionsModelDao, pluginInfos != null ? pluginInfos.get(i) : null, withAttempts, isApiPayment, tenantContext));
+        }
 
         // Copy the transformed list, so the transformation function is applied once (otherwise, the Janitor could be invoked multiple times)
         return List.copyOf(transformedPayments);
@@ -284,17 +284,49 @@ public class PaymentRefresher extends ProcessorBase {
                                            final Iterable<PluginProperty> properties,
                                            final TenantContext tenantContext,
                                            final InternalTenantContext internalTenantContext) {
+        return getPayments(new SourcePaginationBuilder<PaymentModelDao, PaymentApiException>() {
+                               @Override
+                               public Pagination<PaymentModelDao> build() {
+                                   // Find all payments for all accounts
+                                   return paymentDao.get(offset, limit, internalTenantContext);
+                               }
+                           },
+                           offset, limit, withPluginInfo, withAttempts, isApiPayment, tenantContext, internalTenantContext);
+    }
+
+    // Keyset (seek) pagination, see DefaultPaginationSqlDaoHelper#getPaginationWithCursor
+    public Pagination<Payment> getPayments(@Nullable final Long cursor,
+                                           final Long offset,
+                                           final Long limit,
+                                           final boolean withPluginInfo,
+                                           final boolean withAttempts,
+                                           final boolean isApiPayment,
+                                           final Iterable<PluginProperty> properties,
+                                           final TenantContext tenantContext,
+                                           final InternalTenantContext internalTenantContext) {
+        return getPayments(new SourcePaginationBuilder<PaymentModelDao, PaymentApiException>() {
+                               @Override
+                               public Pagination<PaymentModelDao> build() {
+                                   // Find all payments for all accounts
+                                   return paymentDao.get(cursor, offset, limit, internalTenantContext);
+                               }
+                           },
+                           offset, limit, withPluginInfo, withAttempts, isApiPayment, tenantContext, internalTenantContext);
+    }
+
+    private Pagination<Payment> getPayments(final SourcePaginationBuilder<PaymentModelDao, PaymentApiException> sourcePaginationBuilder,
+                                            final Long offset,
+                                            final Long limit,
+                                            final boolean withPluginInfo,
+                                            final boolean withAttempts,
+                                            final boolean isApiPayment,
+                                            final TenantContext tenantContext,
+                                            final InternalTenantContext internalTenantContext) {
         final Map<UUID, Optional<PaymentPluginApi>> paymentMethodIdToPaymentPluginApi = new HashMap<>();
 
         try {
             return getEntityPagination(limit,
-                                       new SourcePaginationBuilder<PaymentModelDao, PaymentApiException>() {
-                                           @Override
-                                           public Pagination<PaymentModelDao> build() {
-                                               // Find all payments for all accounts
-                                               return paymentDao.get(offset, limit, internalTenantContext);
-                                           }
-                                       },
+                                       sourcePaginationBuilder,
                                        paymentModelDao -> {
                                            final PaymentPluginApi pluginApi;
                                            if (!withPluginInfo) {
@@ -370,20 +402,47 @@ public class PaymentRefresher extends ProcessorBase {
                                                   }
                                                  );
         } else {
-            try {
-                return getEntityPagination(limit,
-                                           new SourcePaginationBuilder<PaymentModelDao, PaymentApiException>() {
-                                               @Override
-                                               public Pagination<PaymentModelDao> build() {
-                                                   return paymentDao.searchPayments(searchKey, offset, limit, internalTenantContext);
-                                               }
-                                           },
-                                           paymentModelDao -> toPayment(paymentModelDao.getId(), null, withAttempts, isApiPayment, internalTenantContext)
-                                          );
-            } catch (final PaymentApiException e) {
-                log.warn("Unable to search through payments", e);
-                return new DefaultPagination<Payment>(offset, limit, null, null, Collections.emptyIterator());
-            }
+            return searchPayments(new SourcePaginationBuilder<PaymentModelDao, PaymentApiException>() {
+                                      @Override
+                                      public Pagination<PaymentModelDao> build() {
+                                          return paymentDao.searchPayments(searchKey, offset, limit, internalTenantContext);
+                                      }
+                                  },
+                                  offset, limit, withAttempts, isApiPayment, internalTenantContext);
+        }
+    }
+
+    // Keyset (seek) pagination, see DefaultPaginationSqlDaoHelper#getPaginationWithCursor: only the search of the Kill Bill payments (i.e. without plugin info) supports it
+    public Pagination<Payment> searchPayments(final String searchKey,
+                                              @Nullable final Long cursor,
+                                              final Long offset,
+                                              final Long limit,
+                                              final boolean withAttempts,
+                                              final boolean isApiPayment,
+                                              final InternalTenantContext internalTenantContext) {
+        return searchPayments(new SourcePaginationBuilder<PaymentModelDao, PaymentApiException>() {
+                                  @Override
+                                  public Pagination<PaymentModelDao> build() {
+                                      return paymentDao.searchPayments(searchKey, cursor, offset, limit, internalTenantContext);
+                                  }
+                              },
+                              offset, limit, withAttempts, isApiPayment, internalTenantContext);
+    }
+
+    private Pagination<Payment> searchPayments(final SourcePaginationBuilder<PaymentModelDao, PaymentApiException> sourcePaginationBuilder,
+                                               final Long offset,
+                                               final Long limit,
+                                               final boolean withAttempts,
+                                               final boolean isApiPayment,
+                                               final InternalTenantContext internalTenantContext) {
+        try {
+            return getEntityPagination(limit,
+                                       sourcePaginationBuilder,
+                                       paymentModelDao -> toPayment(paymentModelDao.getId(), null, withAttempts, isApiPayment, internalTenantContext)
+                                      );
+        } catch (final PaymentApiException e) {
+            log.warn("Unable to search through payments", e);
+            return new DefaultPagination<Payment>(offset, limit, null, null, Collections.emptyIterator());
         }
     }
 
@@ -621,6 +680,85 @@ public class PaymentRefresher extends ProcessorBase {
         return tenantContextWithAccountRecordId;
     }
 
+    // Plugin info for each payment (in the same order, null when not available)
+    private List<List<PaymentTransactionInfoPlugin>> getPaymentTransactionInfoPlugins(final List<PaymentModelDao> paymentsModelDao, final TenantContext context, final InternalTenantContext tenantContext) {
+        final Map<UUID, PaymentPluginApi> paymentPluginByPaymentMethodId = new HashMap<>();
+        final Collection<UUID> absentPlugins = new HashSet<>();
+        final List<PaymentPluginApi> pluginApis = new ArrayList<>(paymentsModelDao.size());
+        for (final PaymentModelDao paymentModelDao : paymentsModelDao) {
+            PaymentPluginApi pluginApi = paymentPluginByPaymentMethodId.get(paymentModelDao.getPaymentMethodId());
+            if (pluginApi == null && !absentPlugins.contains(paymentModelDao.getPaymentMethodId())) {
+                try {
+                    pluginApi = getPaymentProviderPlugin(paymentModelDao.getPaymentMethodId(), true, tenantContext);
+                    paymentPluginByPaymentMethodId.put(paymentModelDao.getPaymentMethodId(), pluginApi);
+                } catch (final PaymentApiException e) {
+                    log.warn("Unable to retrieve pluginApi for payment method " + paymentModelDao.getPaymentMethodId());
+                    absentPlugins.add(paymentModelDao.getPaymentMethodId());
+                }
+            }
+            pluginApis.add(pluginApi);
+        }
+
+        final int nbThreads = Math.min(paymentConfig.getPaymentPluginInfoThreadNb(), paymentsModelDao.size());
+        if (nbThreads <= 1) {
+            final List<List<PaymentTransactionInfoPlugin>> pluginInfos = new ArrayList<>(paymentsModelDao.size());
+            for (int i = 0; i < paymentsModelDao.size(); i++) {
+                pluginInfos.add(getPaymentTransactionInfoPluginsIfNeeded(pluginApis.get(i), paymentsModelDao.get(i), context));
+            }
+            return pluginInfos;
+        }
+
+        // Each worker picks the next payment to look up, so no more than nbThreads plugin calls are in flight for this request
+        final AtomicInteger nextPayment = new AtomicInteger();
+        final AtomicReferenceArray<List<PaymentTransactionInfoPlugin>> pluginInfos = new AtomicReferenceArray<>(paymentsModelDao.size());
+        final Callable<Void> pluginInfoLookup = () -> {
+            int cur;
+            while ((cur = nextPayment.getAndIncrement()) < paymentsModelDao.size() && !Thread.currentThread().isInterrupted()) {
+                try {
+                    pluginInfos.set(cur, getPaymentTransactionInfoPluginsIfNeeded(pluginApis.get(cur), paymentsModelDao.get(cur), context));
+                } catch (final RuntimeException e) {
+                    log.warn("Unable to retrieve plugin info for payment " + paymentsModelDao.get(cur).getId(), e);
+                }
+            }
+            return null;
+        };
+        final List<Future<Void>> workers = new ArrayList<>(nbThreads);
+        for (int i = 0; i < nbThreads; i++) {
+            // Keep the original requestId, subject, etc.
+            workers.add(paymentExecutors.getPluginExecutorService().submit(new CallableWithRequestData<Void>(Request.getPerThreadRequestData(),
+                                                                                                             UUIDs.getRandom(),
+                                                                                                             ThreadContext.getSecurityManager(),
+                                                                                                             ThreadContext.getSubject(),
+                                                                                                             MDC.getCopyOfContextMap(),
+                                                                                                             pluginInfoLookup)));
+        }
+
+        final long deadline = System.nanoTime() + paymentConfig.getPaymentPluginInfoTimeout().getMillis() * 1000000L;
+        try {
+            for (final Future<Void> worker : workers) {
+                worker.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+        } catch (final TimeoutException e) {
+            log.warn("Timeout while retrieving plugin info for accountId='{}', some payments will be returned without plugin info", paymentsModelDao.get(0).getAccountId());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException e) {
+            log.warn("Unable to retrieve plugin info for accountId='{}'", paymentsModelDao.get(0).getAccountId(), e.getCause());
+        } finally {
+            // Don't start new plugin calls (and interrupt pending ones) past that point
+            nextPayment.set(paymentsModelDao.size());
+            for (final Future<Void> worker : workers) {
+                worker.cancel(true);
+            }
+        }
+
+        final List<List<PaymentTransactionInfoPlugin>> result = new ArrayList<>(paymentsModelDao.size());
+        for (int i = 0; i < paymentsModelDao.size(); i++) {
+            result.add(pluginInfos.get(i));
+        }
+        return result;
+    }
+
     // Used in bulk get API (getAccountPayments / getPayments)
     private List<PaymentTransactionInfoPlugin> getPaymentTransactionInfoPluginsIfNeeded(@Nullable final PaymentPluginApi pluginApi, final PaymentModelDao paymentModelDao, final TenantContext context) {
         if (pluginApi == null) {
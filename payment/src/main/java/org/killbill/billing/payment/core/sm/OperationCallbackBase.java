@@ -59,6 +59,10 @@ public abstract class OperationCallbackBase<CallbackOperationResult, CallbackOpe
     // callback to eventually throw a OperationException, that will be used to drive the state machine in the right direction.
     //
     protected <ExceptionType extends Exception> OperationResult dispatchWithAccountLockAndTimeout(final String pluginNames, final DispatcherCallback<PluginDispatcherReturnType<OperationResult>, ExceptionType> callback) throws OperationException {
+        return dispatchWithAccountLockAndTimeout(pluginNames, false, callback);
+    }
+
+    protected <ExceptionType extends Exception> OperationResult dispatchWithAccountLockAndTimeout(final String pluginNames, final boolean withPluginBulkhead, final DispatcherCallback<PluginDispatcherReturnType<OperationResult>, ExceptionType> callback) throws OperationException {
         final Account account = paymentStateContext.getAccount();
         logger.debug("Dispatching plugin call for account {}", account.getExternalKey());
 
@@ -67,7 +71,7 @@ public abstract class OperationCallbackBase<CallbackOperationResult, CallbackOpe
                                                                                                                                            account.getId(),
                                                                                                                                            paymentConfig,
                                                                                                                                            callback);
-            final OperationResult operationResult = PaymentPluginDispatcher.dispatchWithExceptionHandling(account, pluginNames, task, paymentPluginDispatcher);
+            final OperationResult operationResult = PaymentPluginDispatcher.dispatchWithExceptionHandling(account, pluginNames, withPluginBulkhead, task, paymentPluginDispatcher);
             return operationResult;
         } catch (final PaymentApiException e) {
             throw unwrapExceptionFromDispatchedTask(e);
@@ -17,6 +17,8 @@
 
 package org.killbill.billing.payment.core.sm.payments;
 
+import java.util.concurrent.TimeoutException;
+
 import org.killbill.automaton.Operation.OperationCallback;
 import org.killbill.automaton.OperationException;
 import org.killbill.automaton.OperationResult;
@@ -27,6 +29,7 @@ import org.killbill.billing.payment.core.ProcessorBase.DispatcherCallback;
 import org.killbill.billing.payment.core.sm.OperationCallbackBase;
 import org.killbill.billing.payment.core.sm.PaymentAutomatonDAOHelper;
 import org.killbill.billing.payment.core.sm.PaymentStateContext;
+import org.killbill.billing.payment.dispatcher.PluginBulkhead;
 import org.killbill.billing.payment.dispatcher.PluginDispatcher;
 import org.killbill.billing.payment.dispatcher.PluginDispatcher.PluginDispatcherReturnType;
 import org.killbill.billing.payment.plugin.api.PaymentPluginApi;
@@ -45,6 +48,7 @@ public abstract class PaymentOperation extends OperationCallbackBase<PaymentTran
     private final Logger logger = LoggerFactory.getLogger(PaymentOperation.class);
 
     protected final PaymentAutomatonDAOHelper daoHelper;
+    private final PluginDispatcher<OperationResult> paymentPluginDispatcher;
     protected PaymentPluginApi paymentPluginApi;
 
     protected PaymentOperation(final GlobalLocker locker,
@@ -54,6 +58,7 @@ public abstract class PaymentOperation extends OperationCallbackBase<PaymentTran
                                final PaymentStateContext paymentStateContext) {
         super(locker, paymentPluginDispatcher, paymentConfig, paymentStateContext);
         this.daoHelper = daoHelper;
+        this.paymentPluginDispatcher = paymentPluginDispatcher;
     }
 
     @Override
@@ -69,7 +74,7 @@ public abstract class PaymentOperation extends OperationCallbackBase<PaymentTran
             return doOperationCallbackWithDispatchAndAccountLock(daoHelper.getPluginName());
         } else {
             try {
-                return doSimpleOperationCallback();
+                return doOperationCallbackWithBulkhead(daoHelper.getPluginName());
             } catch (final OperationException e) {
                 throw convertToUnknownTransactionStatusAndErroredPaymentState(e);
             }
@@ -114,7 +119,7 @@ public abstract class PaymentOperation extends OperationCallbackBase<PaymentTran
     protected abstract PaymentTransactionInfoPlugin doCallSpecificOperationCallback() throws PaymentPluginApiException;
 
     private OperationResult doOperationCallbackWithDispatchAndAccountLock(final String pluginName) throws OperationException {
-        return dispatchWithAccountLockAndTimeout(pluginName, new DispatcherCallback<PluginDispatcherReturnType<OperationResult>, OperationException>() {
+        return dispatchWithAccountLockAndTimeout(pluginName, true, new DispatcherCallback<PluginDispatcherReturnType<OperationResult>, OperationException>() {
             @Override
             public PluginDispatcherReturnType<OperationResult> doOperation() throws OperationException {
                 final OperationResult result = doSimpleOperationCallback();
@@ -123,6 +128,29 @@ public abstract class PaymentOperation extends OperationCallbackBase<PaymentTran
         });
     }
 
+    // Already dispatched (e.g. by the control plugins layer): the call runs in the current thread, but still counts against the plugin bulkhead
+    private OperationResult doOperationCallbackWithBulkhead(final String pluginName) throws OperationException {
+        final PluginBulkhead bulkhead;
+        try {
+            bulkhead = paymentPluginDispatcher.acquirePluginBulkhead(pluginName);
+        } catch (final TimeoutException e) {
+            final String errorMessage = String.format("Call TIMEOUT for accountId='%s' plugin='%s'", paymentStateContext.getAccount().getId(), pluginName);
+            logger.warn(errorMessage);
+            throw new OperationException(new PaymentApiException(ErrorCode.PAYMENT_PLUGIN_TIMEOUT, paymentStateContext.getAccount().getId(), errorMessage), OperationResult.EXCEPTION);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OperationException(e, OperationResult.EXCEPTION);
+        }
+
+        try {
+            return doSimpleOperationCallback();
+        } finally {
+            if (bulkhead != null) {
+                bulkhead.release();
+            }
+        }
+    }
+
     private OperationResult doSimpleOperationCallback() throws OperationException {
         try {
             return doOperation();
@@ -56,6 +56,7 @@ import org.killbill.billing.util.audit.AuditLogWithHistory;
 import org.killbill.billing.util.audit.dao.AuditDao;
 import org.killbill.billing.util.cache.CacheControllerDispatcher;
 import org.killbill.billing.util.callcontext.InternalCallContextFactory;
+import org.killbill.billing.util.config.definition.SearchConfig;
 import org.killbill.commons.utils.collect.Iterables;
 import org.killbill.billing.util.dao.NonEntityDao;
 import org.killbill.billing.util.dao.TableName;
@@ -69,6 +70,7 @@ import org.killbill.billing.util.entity.dao.EntitySqlDaoTransactionWrapper;
 import org.killbill.billing.util.entity.dao.EntitySqlDaoTransactionalJdbiWrapper;
 import org.killbill.billing.util.entity.dao.EntitySqlDaoWrapperFactory;
 import org.killbill.billing.util.optimizer.BusOptimizer;
+import org.killbill.billing.util.search.SearchIndexPaginationIteratorBuilder;
 import org.killbill.bus.api.PersistentBus.EventBusException;
 import org.killbill.clock.Clock;
 import org.skife.jdbi.v2.IDBI;
@@ -85,15 +87,18 @@ public class DefaultPaymentDao extends EntityDaoBase<PaymentModelDao, Payment, P
     private final BusOptimizer eventBus;
     private final Clock clock;
     private final AuditDao auditDao;
+    private final SearchConfig searchConfig;
 
     @Inject
     public DefaultPaymentDao(final IDBI dbi, @Named(MAIN_RO_IDBI_NAMED) final IDBI roDbi, final Clock clock, final CacheControllerDispatcher cacheControllerDispatcher,
-                             final NonEntityDao nonEntityDao, final InternalCallContextFactory internalCallContextFactory, final BusOptimizer eventBus, final AuditDao auditDao) {
-        super(nonEntityDao, cacheControllerDispatcher, new EntitySqlDaoTransactionalJdbiWrapper(dbi, roDbi, clock, cacheControllerDispatcher, nonEntityDao, internalCallContextFactory), PaymentSqlDao.class);
+                             final NonEntityDao nonEntityDao, final InternalCallContextFactory internalCallContextFactory, final BusOptimizer eventBus, final AuditDao auditDao,
+                             final SearchConfig searchConfig) {
+        super(nonEntityDao, cacheControllerDispatcher, new EntitySqlDaoTransactionalJdbiWrapper(dbi, roDbi, clock, cacheControllerDispatcher, nonEntityDao, internalCallContextFactory, searchConfig), PaymentSqlDao.class);
         this.paginationHelper = new DefaultPaginationSqlDaoHelper(transactionalSqlDao);
         this.eventBus = eventBus;
         this.clock = clock;
         this.auditDao = auditDao;
+        this.searchConfig = searchConfig;
     }
 
     @Override
@@ -255,25 +260,49 @@ public class DefaultPaymentDao extends EntityDaoBase<PaymentModelDao, Payment, P
 
     @Override
     public Pagination<PaymentModelDao> searchPayments(final String searchKey, final Long offset, final Long limit, final InternalTenantContext context) {
+        return paginationHelper.getPagination(PaymentSqlDao.class,
+                                              getSearchPaymentsPaginationIteratorBuilder(searchKey),
+                                              offset,
+                                              limit,
+                                              context);
+    }
+
+    @Override
+    public Pagination<PaymentModelDao> searchPayments(final String searchKey, @Nullable final Long cursor, final Long offset, final Long limit, final InternalTenantContext context) {
+        return paginationHelper.getPaginationWithCursor(PaymentSqlDao.class,
+                                                        getSearchPaymentsPaginationIteratorBuilder(searchKey),
+                                                        cursor,
+                                                        offset,
+                                                        limit,
+                                                        context);
+    }
+
+    private PaginationIteratorBuilder<PaymentModelDao, Payment, PaymentSqlDao> getSearchPaymentsPaginationIteratorBuilder(final String searchKey) {
         // Optimization: if the search key looks like a state name (e.g. _ERRORED), assume the user is searching by state only
         final List<String> paymentStates = expandSearchFilterToStateNames(searchKey);
 
+        if (paymentStates.isEmpty() && searchConfig.isSearchIndexEnabled()) {
+            return new SearchIndexPaginationIteratorBuilder<PaymentModelDao, Payment, PaymentSqlDao>(searchKey);
+        }
+
         final String likeSearchKey = String.format("%%%s%%", searchKey);
-        return paginationHelper.getPagination(PaymentSqlDao.class,
-                                              new PaginationIteratorBuilder<PaymentModelDao, Payment, PaymentSqlDao>() {
-                                                  @Override
-                                                  public Long getCount(final PaymentSqlDao paymentSqlDao, final InternalTenantContext context) {
-                                                      return !paymentStates.isEmpty() ? paymentSqlDao.getSearchByStateCount(paymentStates, context) : paymentSqlDao.getSearchCount(searchKey, likeSearchKey, context);
-                                                  }
+        return new PaginationIteratorBuilder<PaymentModelDao, Payment, PaymentSqlDao>() {
+            @Override
+            public Long getCount(final PaymentSqlDao paymentSqlDao, final InternalTenantContext context) {
+                return !paymentStates.isEmpty() ? paymentSqlDao.getSearchByStateCount(paymentStates, context) : paymentSqlDao.getSearchCount(searchKey, likeSearchKey, context);
+            }
 
-                                                  @Override
-                                                  public Iterator<PaymentModelDao> build(final PaymentSqlDao paymentSqlDao, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context) {
-                                                      return !paymentStates.isEmpty() ? paymentSqlDao.searchByState(paymentStates, offset, limit, ordering.toString(), context) : paymentSqlDao.search(searchKey, likeSearchKey, offset, limit, ordering.toString(), context);
-                                                  }
-                                              },
-                                              offset,
-                                              limit,
-                                              context);
+            @Override
+            public Iterator<PaymentModelDao> build(final PaymentSqlDao paymentSqlDao, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context) {
+                return !paymentStates.isEmpty() ? paymentSqlDao.searchByState(paymentStates, offset, limit, ordering.toString(), context) : paymentSqlDao.search(searchKey, likeSearchKey, offset, limit, ordering.toString(), context);
+            }
+
+            @Override
+            public Iterator<PaymentModelDao> buildFromCursor(final PaymentSqlDao paymentSqlDao, final Long cursor, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context) {
+                // Not supported when searching by state
+                return !paymentStates.isEmpty() ? null : paymentSqlDao.searchFromCursor(searchKey, likeSearchKey, cursor, offset, limit, ordering.toString(), ordering.getCursorComparator(), context);
+            }
+        };
     }
 
     private List<String> expandSearchFilterToStateNames(final String searchKey) {
@@ -586,22 +615,41 @@ public class DefaultPaymentDao extends EntityDaoBase<PaymentModelDao, Payment, P
     @Override
     public Pagination<PaymentMethodModelDao> searchPaymentMethods(final String searchKey, final Long offset, final Long limit, final InternalTenantContext context) {
         return paginationHelper.getPagination(PaymentMethodSqlDao.class,
-                                              new PaginationIteratorBuilder<PaymentMethodModelDao, PaymentMethod, PaymentMethodSqlDao>() {
-                                                  @Override
-                                                  public Long getCount(final PaymentMethodSqlDao paymentMethodSqlDao, final InternalTenantContext context) {
-                                                      return paymentMethodSqlDao.getSearchCount(searchKey, String.format("%%%s%%", searchKey), context);
-                                                  }
-
-                                                  @Override
-                                                  public Iterator<PaymentMethodModelDao> build(final PaymentMethodSqlDao paymentMethodSqlDao, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context) {
-                                                      return paymentMethodSqlDao.search(searchKey, String.format("%%%s%%", searchKey), offset, limit, ordering.toString(), context);
-                                                  }
-                                              },
+                                              getSearchPaymentMethodsPaginationIteratorBuilder(searchKey),
                                               offset,
                                               limit,
                                               context);
     }
 
+    @Override
+    public Pagination<PaymentMethodModelDao> searchPaymentMethods(final String searchKey, @Nullable final Long cursor, final Long offset, final Long limit, final InternalTenantContext context) {
+        return paginationHelper.getPaginationWithCursor(PaymentMethodSqlDao.class,
+                                                        getSearchPaymentMethodsPaginationIteratorBuilder(searchKey),
+                                                        cursor,
+                                                        offset,
+                                                        limit,
+                                                        context);
+    }
+
+    private PaginationIteratorBuilder<PaymentMethodModelDao, PaymentMethod, PaymentMethodSqlDao> getSearchPaymentMethodsPaginationIteratorBuilder(final String searchKey) {
+        return new PaginationIteratorBuilder<PaymentMethodModelDao, PaymentMethod, PaymentMethodSqlDao>() {
+            @Override
+            public Long getCount(final PaymentMethodSqlDao paymentMethodSqlDao, final InternalTenantContext context) {
+                return paymentMethodSqlDao.getSearchCount(searchKey, String.format("%%%s%%", searchKey), context);
+            }
+
+            @Override
+            public Iterator<PaymentMethodModelDao> build(final PaymentMethodSqlDao paymentMethodSqlDao, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context) {
+                return paymentMethodSqlDao.search(searchKey, String.format("%%%s%%", searchKey), offset, limit, ordering.toString(), context);
+            }
+
+            @Override
+            public Iterator<PaymentMethodModelDao> buildFromCursor(final PaymentMethodSqlDao paymentMethodSqlDao, final Long cursor, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context) {
+                return paymentMethodSqlDao.searchFromCursor(searchKey, String.format("%%%s%%", searchKey), cursor, offset, limit, ordering.toString(), ordering.getCursorComparator(), context);
+            }
+        };
+    }
+
     @Override
     public Pagination<PaymentMethodModelDao> getPaymentMethods(final String pluginName, final Long offset, final Long limit, final InternalTenantContext context) {
         return paginationHelper.getPagination(PaymentMethodSqlDao.class,
@@ -22,6 +22,8 @@ import java.math.BigDecimal;
 import java.util.List;
 import java.util.UUID;
 
+import javax.annotation.Nullable;
+
 import org.joda.time.DateTime;
 import org.killbill.billing.callcontext.InternalCallContext;
 import org.killbill.billing.callcontext.InternalTenantContext;
@@ -57,6 +59,9 @@ public interface PaymentDao extends EntityDao<PaymentModelDao, Payment, PaymentA
 
     public Pagination<PaymentModelDao> searchPayments(String searchKey, Long offset, Long limit, InternalTenantContext context);
 
+    // Keyset (seek) pagination, see DefaultPaginationSqlDaoHelper#getPaginationWithCursor
+    public Pagination<PaymentModelDao> searchPayments(String searchKey, @Nullable Long cursor, Long offset, Long limit, InternalTenantContext context);
+
     public PaymentAndTransactionModelDao insertPaymentWithFirstTransaction(PaymentModelDao payment, PaymentTransactionModelDao paymentTransaction, InternalCallContext context);
 
     public PaymentTransactionModelDao updatePaymentWithNewTransaction(UUID paymentId, PaymentTransactionModelDao paymentTransaction, InternalCallContext context);
@@ -121,6 +126,9 @@ public interface PaymentDao extends EntityDao<PaymentModelDao, Payment, PaymentA
 
     public Pagination<PaymentMethodModelDao> searchPaymentMethods(String searchKey, Long offset, Long limit, InternalTenantContext context);
 
+    // Keyset (seek) pagination, see DefaultPaginationSqlDaoHelper#getPaginationWithCursor
+    public Pagination<PaymentMethodModelDao> searchPaymentMethods(String searchKey, @Nullable Long cursor, Long offset, Long limit, InternalTenantContext context);
+
     public void deletedPaymentMethod(UUID paymentMethodId, InternalCallContext context);
 
     public List<PaymentMethodModelDao> refreshPaymentMethods(String pluginName, List<PaymentMethodModelDao> paymentMethods, InternalCallContext context);
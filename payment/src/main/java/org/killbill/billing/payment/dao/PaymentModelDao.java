@@ -17,6 +17,8 @@
 
 package org.killbill.billing.payment.dao;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
 
@@ -28,8 +30,9 @@ import org.killbill.billing.util.dao.TableName;
 import org.killbill.billing.util.entity.dao.EntityModelDao;
 import org.killbill.billing.util.entity.dao.EntityModelDaoBase;
 import org.killbill.billing.util.UUIDs;
+import org.killbill.billing.util.search.SearchableModelDao;
 
-public class PaymentModelDao extends EntityModelDaoBase implements EntityModelDao<Payment> {
+public class PaymentModelDao extends EntityModelDaoBase implements EntityModelDao<Payment>, SearchableModelDao {
 
     public static final Integer INVALID_PAYMENT_NUMBER = -17;
 
@@ -169,6 +172,14 @@ public class PaymentModelDao extends EntityModelDaoBase implements EntityModelDa
         return result;
     }
 
+    @Override
+    public List<String> searchableValues() {
+        return Arrays.asList(id.toString(),
+                             accountId == null ? null : accountId.toString(),
+                             paymentMethodId == null ? null : paymentMethodId.toString(),
+                             externalKey);
+    }
+
     @Override
     public TableName getTableName() {
         return TableName.PAYMENTS;
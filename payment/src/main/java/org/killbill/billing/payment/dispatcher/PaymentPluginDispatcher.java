@@ -38,12 +38,17 @@ public class PaymentPluginDispatcher {
     private static final Logger log = LoggerFactory.getLogger(PaymentPluginDispatcher.class);
 
     public static <ReturnType> ReturnType dispatchWithExceptionHandling(@Nullable final Account account, final String pluginNames, final Callable<PluginDispatcherReturnType<ReturnType>> callable, final PluginDispatcher<ReturnType> pluginDispatcher) throws PaymentApiException {
+        return dispatchWithExceptionHandling(account, pluginNames, false, callable, pluginDispatcher);
+    }
+
+    // withPluginBulkhead should only be set for direct calls to a single payment plugin (pluginNames), not for calls wrapping control plugins
+    public static <ReturnType> ReturnType dispatchWithExceptionHandling(@Nullable final Account account, final String pluginNames, final boolean withPluginBulkhead, final Callable<PluginDispatcherReturnType<ReturnType>> callable, final PluginDispatcher<ReturnType> pluginDispatcher) throws PaymentApiException {
         final UUID accountId = account != null ? account.getId() : null;
         final String accountExternalKey = account != null ? account.getExternalKey() : "";
 
         try {
             log.debug("Calling plugin(s) {}", pluginNames);
-            final ReturnType result = pluginDispatcher.dispatchWithTimeout(callable);
+            final ReturnType result = withPluginBulkhead ? pluginDispatcher.dispatchWithTimeout(pluginNames, callable) : pluginDispatcher.dispatchWithTimeout(callable);
             log.debug("Successful plugin(s) call of {} for account {} with result {}", pluginNames, accountExternalKey, result);
             return result;
         } catch (final TimeoutException e) {
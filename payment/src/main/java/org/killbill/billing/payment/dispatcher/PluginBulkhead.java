@@ -0,0 +1,81 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.killbill.billing.payment.dispatcher;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.killbill.commons.metrics.api.Gauge;
+import org.killbill.commons.metrics.api.MetricRegistry;
+import org.killbill.commons.metrics.api.Timer;
+
+/**
+ * Caps the number of concurrent calls to a given payment plugin, so that a slow gateway can only tie up
+ * its own share of the plugin executor. Callers wait (up to the plugin timeout) in their own thread for a permit,
+ * which is released once the dispatched task completes.
+ */
+public class PluginBulkhead {
+
+    private static final String METRIC_PREFIX = "killbill.payment.plugin.bulkhead.";
+
+    private final String pluginName;
+    private final int maxConcurrentCalls;
+    private final Semaphore permits;
+    private final AtomicInteger nbWaiting = new AtomicInteger();
+    private final Timer waitTime;
+
+    public PluginBulkhead(final String pluginName, final int maxConcurrentCalls, final MetricRegistry metricRegistry) {
+        this.pluginName = pluginName;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.permits = new Semaphore(maxConcurrentCalls, true);
+
+        final String metricPrefix = METRIC_PREFIX + pluginName;
+        metricRegistry.gauge(metricPrefix + ".waiting", (Gauge<Integer>) nbWaiting::get);
+        metricRegistry.gauge(metricPrefix + ".active", (Gauge<Integer>) this::getNbActive);
+        this.waitTime = metricRegistry.timer(metricPrefix + ".wait");
+    }
+
+    public boolean tryAcquire(final long timeout, final TimeUnit unit) throws InterruptedException {
+        final long startNanos = System.nanoTime();
+        nbWaiting.incrementAndGet();
+        try {
+            return permits.tryAcquire(timeout, unit);
+        } finally {
+            nbWaiting.decrementAndGet();
+            waitTime.update(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public String getPluginName() {
+        return pluginName;
+    }
+
+    public int getNbWaiting() {
+        return nbWaiting.get();
+    }
+
+    public int getNbActive() {
+        return maxConcurrentCalls - permits.availablePermits();
+    }
+}
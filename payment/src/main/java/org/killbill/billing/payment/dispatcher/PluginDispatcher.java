@@ -22,9 +22,12 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
+import javax.annotation.Nullable;
+
 import org.apache.shiro.util.ThreadContext;
 import org.killbill.billing.payment.core.PaymentExecutors;
 import org.killbill.billing.util.UUIDs;
@@ -48,14 +51,29 @@ public class PluginDispatcher<ReturnType> {
 
     // TODO Once we switch fully to automata, should this throw PaymentPluginApiException instead?
     public ReturnType dispatchWithTimeout(final Callable<PluginDispatcherReturnType<ReturnType>> task) throws TimeoutException, ExecutionException, InterruptedException {
-        return dispatchWithTimeout(task, timeoutSeconds, DEFAULT_PLUGIN_TIMEOUT_UNIT);
+        return dispatchWithTimeout(null, task, timeoutSeconds, DEFAULT_PLUGIN_TIMEOUT_UNIT);
+    }
+
+    // Same as above, but the call counts against the bulkhead of that plugin (if configured)
+    public ReturnType dispatchWithTimeout(final String pluginName, final Callable<PluginDispatcherReturnType<ReturnType>> task) throws TimeoutException, ExecutionException, InterruptedException {
+        return dispatchWithTimeout(pluginName, task, timeoutSeconds, DEFAULT_PLUGIN_TIMEOUT_UNIT);
     }
 
     @VisibleForTesting
     ReturnType dispatchWithTimeout(final Callable<PluginDispatcherReturnType<ReturnType>> task, final long timeout, final TimeUnit unit)
             throws TimeoutException, ExecutionException, InterruptedException {
+        return dispatchWithTimeout(null, task, timeout, unit);
+    }
+
+    @VisibleForTesting
+    ReturnType dispatchWithTimeout(@Nullable final String pluginName, final Callable<PluginDispatcherReturnType<ReturnType>> task, final long timeout, final TimeUnit unit)
+            throws TimeoutException, ExecutionException, InterruptedException {
 
         final ExecutorService pluginExecutor = paymentExecutors.getPluginExecutorService();
+        final long deadlineNanos = System.nanoTime() + unit.toNanos(timeout);
+
+        // Wait in the caller thread for a permit: a slow plugin doesn't get to occupy more executor threads than its share
+        final PluginBulkhead bulkhead = pluginName != null ? acquirePluginBulkhead(pluginName, timeout, unit) : null;
 
         // Wrap existing callable to keep the original requestId
         final Callable<PluginDispatcherReturnType<ReturnType>> callableWithRequestData = new CallableWithRequestData(Request.getPerThreadRequestData(),
@@ -65,8 +83,25 @@ public class PluginDispatcher<ReturnType> {
                                                                                                                      MDC.getCopyOfContextMap(),
                                                                                                                      task);
 
-        final Future<PluginDispatcherReturnType<ReturnType>> future = pluginExecutor.submit(callableWithRequestData);
-        final PluginDispatcherReturnType<ReturnType> pluginDispatcherResult = future.get(timeout, unit);
+        final Future<PluginDispatcherReturnType<ReturnType>> future;
+        if (bulkhead == null) {
+            future = pluginExecutor.submit(callableWithRequestData);
+        } else {
+            try {
+                // The permit is released once the plugin call returns, even if the caller timed out
+                future = pluginExecutor.submit(() -> {
+                    try {
+                        return callableWithRequestData.call();
+                    } finally {
+                        bulkhead.release();
+                    }
+                });
+            } catch (final RejectedExecutionException e) {
+                bulkhead.release();
+                throw e;
+            }
+        }
+        final PluginDispatcherReturnType<ReturnType> pluginDispatcherResult = future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
 
         if (pluginDispatcherResult instanceof WithProfilingPluginDispatcherReturnType) {
             // Transfer state from dispatch thread into current one.
@@ -78,6 +113,21 @@ public class PluginDispatcher<ReturnType> {
         return pluginDispatcherResult.getReturnType();
     }
 
+    // For plugin calls made from an already dispatched thread (e.g. payment plugin calls wrapped by control plugins): the caller
+    // gets a permit of the plugin bulkhead (if configured) and must release it once the call returns
+    @Nullable
+    public PluginBulkhead acquirePluginBulkhead(final String pluginName) throws TimeoutException, InterruptedException {
+        return acquirePluginBulkhead(pluginName, timeoutSeconds, DEFAULT_PLUGIN_TIMEOUT_UNIT);
+    }
+
+    private PluginBulkhead acquirePluginBulkhead(final String pluginName, final long timeout, final TimeUnit unit) throws TimeoutException, InterruptedException {
+        final PluginBulkhead bulkhead = paymentExecutors.getPluginBulkhead(pluginName);
+        if (bulkhead != null && !bulkhead.tryAcquire(timeout, unit)) {
+            throw new TimeoutException(String.format("Timeout waiting for a free slot for plugin='%s'", pluginName));
+        }
+        return bulkhead;
+    }
+
     public interface PluginDispatcherReturnType<ReturnType> {
         public ReturnType getReturnType();
     }
@@ -29,6 +29,7 @@ CREATE INDEX payment_attempts_payment_key ON payment_attempts(payment_external_k
 CREATE INDEX payment_attempts_payment_state ON payment_attempts(state_name);
 CREATE INDEX payment_attempts_payment_transaction_key ON payment_attempts(transaction_external_key);
 CREATE INDEX payment_attempts_tenant_account_record_id ON payment_attempts(tenant_record_id, account_record_id);
+CREATE INDEX payment_attempts_tenant_record_id_record_id ON payment_attempts(tenant_record_id, record_id);
 
 DROP TABLE IF EXISTS payment_attempt_history;
 CREATE TABLE payment_attempt_history (
@@ -78,6 +79,7 @@ CREATE UNIQUE INDEX payment_methods_id ON payment_methods(id);
 CREATE UNIQUE INDEX payment_methods_external_key ON payment_methods(external_key, tenant_record_id);
 CREATE INDEX payment_methods_plugin_name ON payment_methods(plugin_name);
 CREATE INDEX payment_methods_tenant_account_record_id ON payment_methods(tenant_record_id, account_record_id);
+CREATE INDEX payment_methods_tenant_record_id_record_id ON payment_methods(tenant_record_id, record_id);
 
 DROP TABLE IF EXISTS payment_method_history;
 CREATE TABLE payment_method_history (
@@ -122,6 +124,7 @@ CREATE UNIQUE INDEX payments_id ON payments(id);
 CREATE UNIQUE INDEX payments_key ON payments(external_key, tenant_record_id);
 CREATE INDEX payments_accnt ON payments(account_id);
 CREATE INDEX payments_tenant_account_record_id ON payments(tenant_record_id, account_record_id);
+CREATE INDEX payments_tenant_record_id_record_id ON payments(tenant_record_id, record_id);
 CREATE INDEX payments_tenant_record_id_state_name ON payments(tenant_record_id, state_name);
 
 
@@ -177,6 +180,7 @@ CREATE INDEX transactions_payment_id ON payment_transactions(payment_id);
 CREATE INDEX transactions_key ON payment_transactions(transaction_external_key);
 CREATE INDEX transactions_status ON payment_transactions(transaction_status);
 CREATE INDEX transactions_tenant_account_record_id ON payment_transactions(tenant_record_id, account_record_id);
+CREATE INDEX transactions_tenant_record_id_record_id ON payment_transactions(tenant_record_id, record_id);
 
 DROP TABLE IF EXISTS payment_transaction_history;
 CREATE TABLE payment_transaction_history (
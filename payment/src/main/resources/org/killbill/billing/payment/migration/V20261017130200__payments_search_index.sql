@@ -0,0 +1,23 @@
+/* Same tokens as SearchIndexTokenizer: whole values and, for values containing whitespace, each word */
+/* Words are split on whitespace and common punctuation: the rare tokens which differ from SearchIndexTokenizer are fixed the next time the payment is updated */
+insert into search_index (table_name, target_record_id, token, account_record_id, tenant_record_id)
+with recursive words (record_id, account_record_id, tenant_record_id, word, rest) as (
+    select record_id, account_record_id, tenant_record_id, substring(rest from 1 for position(' ' in rest) - 1), substring(rest from position(' ' in rest) + 1)
+    from (select record_id, account_record_id, tenant_record_id, concat(replace(replace(replace(replace(replace(replace(replace(replace(replace(replace(lower(trim(external_key)), '-', ' '), '.', ' '), ',', ' '), '''', ' '), '&', ' '), '/', ' '), '(', ' '), ')', ' '), '@', ' '), '_', ' '), ' ') as rest
+          from payments
+          where trim(external_key) like '% %') padded_values
+    union all
+    select record_id, account_record_id, tenant_record_id, substring(rest from 1 for position(' ' in rest) - 1), substring(rest from position(' ' in rest) + 1)
+    from words
+    where rest <> ''
+)
+select 'payments', record_id, lower(id), account_record_id, tenant_record_id from payments
+union
+select 'payments', record_id, lower(account_id), account_record_id, tenant_record_id from payments
+union
+select 'payments', record_id, lower(payment_method_id), account_record_id, tenant_record_id from payments
+union
+select 'payments', record_id, lower(trim(external_key)), account_record_id, tenant_record_id from payments where trim(external_key) <> ''
+union
+select 'payments', record_id, word, account_record_id, tenant_record_id from words where word <> ''
+;
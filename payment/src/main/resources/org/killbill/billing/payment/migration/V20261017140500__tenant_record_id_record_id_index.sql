@@ -0,0 +1,4 @@
+CREATE INDEX payment_attempts_tenant_record_id_record_id ON payment_attempts(tenant_record_id, record_id);
+CREATE INDEX payment_methods_tenant_record_id_record_id ON payment_methods(tenant_record_id, record_id);
+CREATE INDEX payments_tenant_record_id_record_id ON payments(tenant_record_id, record_id);
+CREATE INDEX transactions_tenant_record_id_record_id ON payment_transactions(tenant_record_id, record_id);
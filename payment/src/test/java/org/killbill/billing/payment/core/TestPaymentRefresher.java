@@ -103,7 +103,9 @@ public class TestPaymentRefresher extends PaymentTestSuiteNoDB {
                                                              invoiceApi,
                                                              clock,
                                                              null, // notificationQueueService
-                                                             null /* incompletePaymentTransactionTask */);
+                                                             null, // incompletePaymentTransactionTask
+                                                             paymentConfig,
+                                                             null /* paymentExecutors */);
         final PaymentRefresher toMock = Mockito.spy(result);
         Mockito.doReturn(anyPayment())
                .when(toMock).toPayment(Mockito.any(UUID.class),
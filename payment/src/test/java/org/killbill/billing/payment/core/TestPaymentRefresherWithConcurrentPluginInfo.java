@@ -0,0 +1,117 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.killbill.billing.payment.core;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.killbill.billing.account.api.Account;
+import org.killbill.billing.catalog.api.Currency;
+import org.killbill.billing.payment.PaymentTestSuiteWithEmbeddedDB;
+import org.killbill.billing.payment.api.Payment;
+import org.killbill.billing.payment.api.PaymentTransaction;
+import org.killbill.billing.payment.provider.MockPaymentProviderPlugin;
+import org.killbill.billing.platform.api.KillbillConfigSource;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class TestPaymentRefresherWithConcurrentPluginInfo extends PaymentTestSuiteWithEmbeddedDB {
+
+    private static final int NB_PAYMENTS = 10;
+
+    private MockPaymentProviderPlugin mockPaymentProviderPlugin;
+    private Account account;
+
+    @Override
+    protected KillbillConfigSource getConfigSource(final Map<String, String> extraProperties) {
+        final Map<String, String> allExtraProperties = new HashMap<String, String>(extraProperties);
+        allExtraProperties.put("org.killbill.payment.plugin.info.threads.nb", "4");
+        allExtraProperties.put("org.killbill.payment.plugin.info.timeout", "1s");
+        return super.getConfigSource(allExtraProperties);
+    }
+
+    @BeforeMethod(groups = "slow")
+    public void setUp() throws Exception {
+        if (hasFailed()) {
+            return;
+        }
+        mockPaymentProviderPlugin = (MockPaymentProviderPlugin) registry.getServiceForName(MockPaymentProviderPlugin.PLUGIN_NAME);
+        account = testHelper.createTestAccount(UUID.randomUUID().toString(), true);
+    }
+
+    @AfterMethod(groups = "slow")
+    public void tearDown() throws Exception {
+        if (hasFailed()) {
+            return;
+        }
+        mockPaymentProviderPlugin.makeGetPaymentInfoWaitSomeMilliseconds(0);
+    }
+
+    @Test(groups = "slow")
+    public void testGetAccountPaymentsWithPluginInfo() throws Exception {
+        final List<UUID> paymentIds = createPayments();
+
+        final List<Payment> payments = paymentControlAwareRefresher.getAccountPayments(account.getId(), true, false, true, callContext, internalCallContext);
+        Assert.assertEquals(payments.size(), NB_PAYMENTS);
+        for (int i = 0; i < NB_PAYMENTS; i++) {
+            final Payment payment = payments.get(i);
+            // Results are returned in the same order as the sequential path
+            Assert.assertEquals(payment.getId(), paymentIds.get(i));
+            final PaymentTransaction transaction = payment.getTransactions().get(0);
+            Assert.assertNotNull(transaction.getPaymentInfoPlugin());
+            Assert.assertEquals(transaction.getPaymentInfoPlugin().getKbPaymentId(), payment.getId());
+            Assert.assertEquals(transaction.getPaymentInfoPlugin().getKbTransactionPaymentId(), transaction.getId());
+        }
+    }
+
+    @Test(groups = "slow")
+    public void testGetAccountPaymentsWithSlowPlugin() throws Exception {
+        final List<UUID> paymentIds = createPayments();
+
+        // Each lookup is slower than the overall deadline: payments are returned without plugin info
+        mockPaymentProviderPlugin.makeGetPaymentInfoWaitSomeMilliseconds(5000);
+        final long startNanos = System.nanoTime();
+        final List<Payment> payments = paymentControlAwareRefresher.getAccountPayments(account.getId(), true, false, true, callContext, internalCallContext);
+        Assert.assertTrue(System.nanoTime() - startNanos < 4_000_000_000L);
+
+        Assert.assertEquals(payments.size(), NB_PAYMENTS);
+        for (int i = 0; i < NB_PAYMENTS; i++) {
+            Assert.assertEquals(payments.get(i).getId(), paymentIds.get(i));
+            Assert.assertNull(payments.get(i).getTransactions().get(0).getPaymentInfoPlugin());
+        }
+    }
+
+    private List<UUID> createPayments() throws Exception {
+        final List<UUID> paymentIds = new ArrayList<UUID>();
+        for (int i = 0; i < NB_PAYMENTS; i++) {
+            final Payment payment = paymentProcessor.createPurchase(true, null, account, account.getPaymentMethodId(), null, BigDecimal.TEN, Currency.USD, null,
+                                                                    UUID.randomUUID().toString(), UUID.randomUUID().toString(), null, null, true,
+                                                                    Collections.emptyList(), callContext, internalCallContext);
+            paymentIds.add(payment.getId());
+        }
+        return paymentIds;
+    }
+}
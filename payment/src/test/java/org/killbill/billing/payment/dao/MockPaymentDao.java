@@ -185,6 +185,11 @@ public class MockPaymentDao extends MockEntityDaoBase<PaymentModelDao, Payment,
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public Pagination<PaymentModelDao> searchPayments(final String searchKey, final Long cursor, final Long offset, final Long limit, final InternalTenantContext context) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public PaymentAndTransactionModelDao insertPaymentWithFirstTransaction(final PaymentModelDao payment, final PaymentTransactionModelDao paymentTransaction, final InternalCallContext context) {
         final PaymentAndTransactionModelDao paymentAndTransactionModelDao = new PaymentAndTransactionModelDao();
@@ -387,6 +392,11 @@ public class MockPaymentDao extends MockEntityDaoBase<PaymentModelDao, Payment,
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public Pagination<PaymentMethodModelDao> searchPaymentMethods(final String searchKey, final Long cursor, final Long offset, final Long limit, final InternalTenantContext context) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public void deletedPaymentMethod(final UUID paymentMethodId, final InternalCallContext context) {
         synchronized (this) {
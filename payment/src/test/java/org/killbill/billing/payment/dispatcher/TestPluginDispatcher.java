@@ -19,17 +19,26 @@
 package org.killbill.billing.payment.dispatcher;
 
 import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.killbill.billing.ErrorCode;
 import org.killbill.billing.payment.PaymentTestSuiteNoDB;
 import org.killbill.billing.payment.api.PaymentApiException;
+import org.killbill.billing.payment.core.PaymentExecutors;
 import org.killbill.billing.payment.dispatcher.PluginDispatcher.PluginDispatcherReturnType;
 import org.killbill.billing.util.UUIDs;
+import org.killbill.billing.util.config.definition.PaymentConfig;
+import org.killbill.commons.metrics.impl.NoOpMetricRegistry;
 import org.killbill.commons.request.Request;
 import org.killbill.commons.request.RequestData;
+import org.mockito.Mockito;
 import org.slf4j.MDC;
 import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
@@ -151,4 +160,57 @@ public class TestPluginDispatcher extends PaymentTestSuiteNoDB {
         Assert.assertEquals(actualRequestId, requestId);
     }
 
+    @Test(groups = "fast")
+    public void testDispatchWithPluginBulkhead() throws Exception {
+        final PaymentConfig bulkheadPaymentConfig = Mockito.mock(PaymentConfig.class);
+        Mockito.when(bulkheadPaymentConfig.getPaymentPluginThreadNb()).thenReturn(2);
+        Mockito.when(bulkheadPaymentConfig.getPaymentPluginBulkheadMaxConcurrentCalls()).thenReturn(1);
+        final PaymentExecutors bulkheadPaymentExecutors = new PaymentExecutors(bulkheadPaymentConfig, new NoOpMetricRegistry());
+        bulkheadPaymentExecutors.initialize();
+
+        final PluginDispatcher<String> bulkheadPluginDispatcher = new PluginDispatcher<String>(10, bulkheadPaymentExecutors);
+        final ExecutorService caller = Executors.newSingleThreadExecutor();
+        final CountDownLatch slowPluginStarted = new CountDownLatch(1);
+        final CountDownLatch slowPluginLatch = new CountDownLatch(1);
+        try {
+            // Plugin A is stuck on its only slot
+            final Future<String> slowCall = caller.submit(() -> bulkheadPluginDispatcher.dispatchWithTimeout("A", () -> {
+                slowPluginStarted.countDown();
+                slowPluginLatch.await();
+                return PluginDispatcher.createPluginDispatcherReturnType("slow");
+            }));
+            Assert.assertTrue(slowPluginStarted.await(5, TimeUnit.SECONDS));
+            Assert.assertEquals(bulkheadPaymentExecutors.getPluginBulkhead("A").getNbActive(), 1);
+
+            // Other calls to plugin A time out without ever reaching the plugin
+            final AtomicBoolean rejectedCallRan = new AtomicBoolean(false);
+            try {
+                bulkheadPluginDispatcher.dispatchWithTimeout("A", () -> {
+                    rejectedCallRan.set(true);
+                    return PluginDispatcher.createPluginDispatcherReturnType("rejected");
+                }, 100, TimeUnit.MILLISECONDS);
+                Assert.fail("Failed : should have had Timeout exception");
+            } catch (final TimeoutException e) {
+                Assert.assertFalse(rejectedCallRan.get());
+            }
+
+            // Plugin B isn't impacted
+            Assert.assertEquals(bulkheadPluginDispatcher.dispatchWithTimeout("B", () -> PluginDispatcher.createPluginDispatcherReturnType("B"), 1, TimeUnit.SECONDS), "B");
+
+            slowPluginLatch.countDown();
+            Assert.assertEquals(slowCall.get(5, TimeUnit.SECONDS), "slow");
+            Assert.assertEquals(bulkheadPluginDispatcher.dispatchWithTimeout("A", () -> PluginDispatcher.createPluginDispatcherReturnType("A"), 1, TimeUnit.SECONDS), "A");
+            Assert.assertEquals(bulkheadPaymentExecutors.getPluginBulkhead("A").getNbActive(), 0);
+
+            // Calls made from an already dispatched thread hold a slot as well
+            final PluginBulkhead bulkhead = bulkheadPluginDispatcher.acquirePluginBulkhead("A");
+            Assert.assertEquals(bulkhead.getNbActive(), 1);
+            bulkhead.release();
+            Assert.assertEquals(bulkheadPaymentExecutors.getPluginBulkhead("A").getNbActive(), 0);
+        } finally {
+            slowPluginLatch.countDown();
+            caller.shutdownNow();
+            bulkheadPaymentExecutors.stop();
+        }
+    }
 }
@@ -24,6 +24,7 @@ import org.killbill.billing.api.TestApiListener;
 import org.killbill.billing.platform.api.KillbillConfigSource;
 import org.killbill.billing.util.glue.AuditModule;
 import org.killbill.billing.util.glue.NonEntityDaoModule;
+import org.killbill.billing.util.glue.SearchModule;
 import org.killbill.clock.Clock;
 import org.killbill.clock.ClockMock;
 
@@ -40,6 +41,7 @@ public class TestPaymentModuleWithEmbeddedDB extends TestPaymentModule {
     protected void configure() {
         install(new GuicyKillbillTestWithEmbeddedDBModule(configSource, clock));
         install(new NonEntityDaoModule(configSource));
+        install(new SearchModule(configSource));
         install(new DefaultAccountModule(configSource));
         install(new AuditModule(configSource));
         bind(TestApiListener.class).asEagerSingleton();
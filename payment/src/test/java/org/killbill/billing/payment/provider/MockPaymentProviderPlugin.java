@@ -81,6 +81,7 @@ public class MockPaymentProviderPlugin implements PaymentPluginApi {
     private final AtomicBoolean makeNextPaymentPending = new AtomicBoolean(false);
     private final AtomicBoolean makeNextPaymentUnknown = new AtomicBoolean(false);
     private final AtomicInteger makePluginWaitSomeMilliseconds = new AtomicInteger(0);
+    private final AtomicInteger makeGetPaymentInfoWaitSomeMilliseconds = new AtomicInteger(0);
     private final AtomicReference<BigDecimal> overrideNextProcessedAmount = new AtomicReference<BigDecimal>();
     private final AtomicReference<Currency> overrideNextProcessedCurrency = new AtomicReference<Currency>();
 
@@ -213,6 +214,7 @@ public class MockPaymentProviderPlugin implements PaymentPluginApi {
         makeNextPaymentPending.set(false);
         makeNextPaymentUnknown.set(false);
         makePluginWaitSomeMilliseconds.set(0);
+        makeGetPaymentInfoWaitSomeMilliseconds.set(0);
         overrideNextProcessedAmount.set(null);
         paymentMethods.clear();
         payments.clear();
@@ -252,6 +254,10 @@ public class MockPaymentProviderPlugin implements PaymentPluginApi {
         makePluginWaitSomeMilliseconds.set(milliseconds);
     }
 
+    public void makeGetPaymentInfoWaitSomeMilliseconds(final int milliseconds) {
+        makeGetPaymentInfoWaitSomeMilliseconds.set(milliseconds);
+    }
+
     public void overrideNextProcessedAmount(final BigDecimal amount) {
         overrideNextProcessedAmount.set(amount);
     }
@@ -331,6 +337,14 @@ public class MockPaymentProviderPlugin implements PaymentPluginApi {
     @Override
     public List<PaymentTransactionInfoPlugin> getPaymentInfo(final UUID kbAccountId, final UUID kbPaymentId, final Iterable<PluginProperty> properties, final TenantContext context) throws PaymentPluginApiException {
         updateLastThreadState();
+        if (makeGetPaymentInfoWaitSomeMilliseconds.get() > 0) {
+            try {
+                Thread.sleep(makeGetPaymentInfoWaitSomeMilliseconds.get());
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PaymentPluginApiException("An Interruption occurred while the Thread was sleeping.", e);
+            }
+        }
         final List<PaymentTransactionInfoPlugin> result = paymentTransactions.get(kbPaymentId.toString());
         return result != null ? result : Collections.emptyList();
     }
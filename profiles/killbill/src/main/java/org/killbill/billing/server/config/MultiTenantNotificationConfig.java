@@ -59,6 +59,41 @@ public class MultiTenantNotificationConfig extends MultiTenantConfigBase impleme
         return getPushNotificationsRetries();
     }
 
+    @Override
+    public TimeSpan getPushNotificationsTimeout() {
+        return staticConfig.getPushNotificationsTimeout();
+    }
+
+    @Override
+    public int getPushNotificationsEndpointQueueSize() {
+        return staticConfig.getPushNotificationsEndpointQueueSize();
+    }
+
+    @Override
+    public int getPushNotificationsEndpointMaxConcurrentRequests() {
+        return staticConfig.getPushNotificationsEndpointMaxConcurrentRequests();
+    }
+
+    @Override
+    public int getPushNotificationsBatchSize() {
+        return staticConfig.getPushNotificationsBatchSize();
+    }
+
+    @Override
+    public int getPushNotificationsCircuitBreakerFailureThreshold() {
+        return staticConfig.getPushNotificationsCircuitBreakerFailureThreshold();
+    }
+
+    @Override
+    public TimeSpan getPushNotificationsCircuitBreakerOpenDuration() {
+        return staticConfig.getPushNotificationsCircuitBreakerOpenDuration();
+    }
+
+    @Override
+    public TimeSpan getPushNotificationsEndpointIdleTimeout() {
+        return staticConfig.getPushNotificationsEndpointIdleTimeout();
+    }
+
     @Override
     protected Class<? extends KillbillConfig> getConfigClass() {
         return NotificationConfig.class;
@@ -70,6 +70,7 @@ import org.killbill.billing.util.glue.KillbillApiAopModule;
 import org.killbill.billing.util.glue.NodesModule;
 import org.killbill.billing.util.glue.NonEntityDaoModule;
 import org.killbill.billing.util.glue.RecordIdModule;
+import org.killbill.billing.util.glue.SearchModule;
 import org.killbill.billing.util.glue.SecurityModule;
 import org.killbill.billing.util.glue.TagStoreModule;
 import org.killbill.billing.util.optimizer.BusDispatcherOptimizer;
@@ -210,6 +211,7 @@ public class KillbillServerModule extends KillbillPlatformModule {
 
         install(new KillBillShiroWebModule(servletContext, skifeConfigSource));
         install(new NonEntityDaoModule(configSource));
+        install(new SearchModule(configSource));
         install(new PaymentModule(configSource));
         install(new RecordIdModule(configSource));
         install(new SecurityModule(configSource));
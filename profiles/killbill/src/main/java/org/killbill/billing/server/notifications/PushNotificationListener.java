@@ -20,16 +20,11 @@
 package org.killbill.billing.server.notifications;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.time.Duration;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import javax.inject.Inject;
 
@@ -39,6 +34,7 @@ import org.killbill.billing.callcontext.InternalTenantContext;
 import org.killbill.billing.jaxrs.json.NotificationJson;
 import org.killbill.billing.notification.plugin.api.ExtBusEvent;
 import org.killbill.billing.platform.api.KillbillService.KILLBILL_SERVICES;
+import org.killbill.billing.server.notifications.PushNotificationSender.PushNotification;
 import org.killbill.billing.tenant.api.TenantApiException;
 import org.killbill.billing.tenant.api.TenantKV.TenantKey;
 import org.killbill.billing.tenant.api.TenantUserApi;
@@ -50,6 +46,7 @@ import org.killbill.billing.util.config.definition.NotificationConfig;
 import org.killbill.clock.Clock;
 import org.killbill.commons.eventbus.AllowConcurrentEvents;
 import org.killbill.commons.eventbus.Subscribe;
+import org.killbill.commons.metrics.api.MetricRegistry;
 import org.killbill.notificationq.api.NotificationQueue;
 import org.killbill.notificationq.api.NotificationQueueService;
 import org.killbill.notificationq.api.NotificationQueueService.NoSuchNotificationQueue;
@@ -57,7 +54,6 @@ import org.skife.config.TimeSpan;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 public class PushNotificationListener {
@@ -71,12 +67,9 @@ public class PushNotificationListener {
     @VisibleForTesting
     public static final String CONTENT_TYPE_JSON = "application/json; charset=UTF-8";
 
-    private static final int TIMEOUT_NOTIFICATION = 15; // 15 seconds
-
     private final TenantUserApi tenantApi;
     private final CallContextFactory contextFactory;
-    private final HttpClient httpClient;
-    private final ObjectMapper mapper;
+    private final PushNotificationSender sender;
     private final NotificationQueueService notificationQueueService;
     private final InternalCallContextFactory internalCallContextFactory;
     private final Clock clock;
@@ -85,16 +78,23 @@ public class PushNotificationListener {
     @Inject
     public PushNotificationListener(final ObjectMapper mapper, final TenantUserApi tenantApi, final CallContextFactory contextFactory,
                                     final NotificationQueueService notificationQueueService, final InternalCallContextFactory internalCallContextFactory,
-                                    final Clock clock, final NotificationConfig notificationConfig) {
-        this.httpClient = HttpClient.newBuilder()
-                                    .connectTimeout(Duration.of(TIMEOUT_NOTIFICATION, ChronoUnit.SECONDS)).build();
+                                    final Clock clock, final NotificationConfig notificationConfig, final MetricRegistry metricRegistry) {
         this.tenantApi = tenantApi;
         this.contextFactory = contextFactory;
-        this.mapper = mapper;
         this.notificationQueueService = notificationQueueService;
         this.internalCallContextFactory = internalCallContextFactory;
         this.clock = clock;
         this.notificationConfig = notificationConfig;
+        // Failed (or rejected) deliveries are re-scheduled through the PushNotificationRetryService queue
+        this.sender = new PushNotificationSender(notificationConfig,
+                                                 mapper,
+                                                 metricRegistry,
+                                                 USER_AGENT,
+                                                 (notification, reason) -> saveRetryPushNotificationInQueue(notification.getTenantId(),
+                                                                                                            notification.getUrl(),
+                                                                                                            notification.getNotification(),
+                                                                                                            notification.getAttemptNumber(),
+                                                                                                            reason));
     }
 
     @AllowConcurrentEvents
@@ -110,59 +110,34 @@ public class PushNotificationListener {
             dispatchCallback(event.getTenantId(), event, callbacks);
         } catch (final TenantApiException e) {
             log.warn("Failed to retrieve push notification callback for tenant {}", event.getTenantId());
-        } catch (final IOException e) {
-            log.warn("Failed to retrieve push notification callback for tenant {}", event.getTenantId());
         }
     }
 
     public void shutdown() throws IOException {
+        sender.shutdown();
     }
 
-    private void dispatchCallback(final UUID tenantId, final ExtBusEvent event, final Iterable<String> callbacks) throws IOException {
+    private void dispatchCallback(final UUID tenantId, final ExtBusEvent event, final Iterable<String> callbacks) {
         final NotificationJson notification = new NotificationJson(event);
-        final String body = mapper.writeValueAsString(notification);
+        final List<CompletableFuture<Void>> processed = new ArrayList<CompletableFuture<Void>>();
         for (final String cur : callbacks) {
-            doPost(tenantId, cur, body, notification, TIMEOUT_NOTIFICATION, 0);
+            processed.add(sender.send(new PushNotification(tenantId, cur, notification, 0)));
         }
-    }
-
-    private boolean doPost(final UUID tenantId, final String url, final String body, final NotificationJson notification,
-                           final int timeoutSec, final int attemptRetryNumber) {
-        log.info("Sending push notification url='{}', body='{}', attemptRetryNumber='{}'", url, body, attemptRetryNumber);
-        final HttpRequest request = HttpRequest.newBuilder()
-                                               .uri(URI.create(url))
-                                               .header("User-Agent", USER_AGENT)
-                                               .header(HTTP_HEADER_CONTENT_TYPE, CONTENT_TYPE_JSON)
-                                               .timeout(Duration.of(TIMEOUT_NOTIFICATION, ChronoUnit.SECONDS))
-                                               .POST(HttpRequest.BodyPublishers.ofString(body == null ? "{}" : body))
-                                               .build();
-
-        final HttpResponse<InputStream> response;
-        try {
-            response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
-        } catch (final Exception e) {
-            log.warn("Failed to push notification url='{}', tenantId='{}'", url, tenantId, e);
-            saveRetryPushNotificationInQueue(tenantId, url, notification, attemptRetryNumber, e.getMessage());
-            return false;
-        }
-
-        if (response.statusCode() >= 200 && response.statusCode() < 300) {
-            return true;
-        } else {
-            saveRetryPushNotificationInQueue(tenantId, url, notification, attemptRetryNumber, "statusCode=" + response.statusCode());
-            return false;
+        // Delivery failures are re-scheduled by the sender: don't wait for them, but let the bus retry the event if a notification
+        // rejected right away (queue full, circuit breaker open) couldn't be re-scheduled
+        for (final CompletableFuture<Void> cur : processed) {
+            cur.getNow(null);
         }
     }
 
-    public void resendPushNotification(final PushNotificationKey key) throws JsonProcessingException {
-
+    public void resendPushNotification(final PushNotificationKey key) {
         final NotificationJson notification = new NotificationJson(key.getEventType(),
                                                                    key.getAccountId(),
                                                                    key.getObjectType() != null ? key.getObjectType().toString() : null,
                                                                    key.getObjectId(),
                                                                    key.getMetaData());
-        final String body = mapper.writeValueAsString(notification);
-        doPost(key.getTenantId(), key.getUrl(), body, notification, TIMEOUT_NOTIFICATION, key.getAttemptNumber());
+        // Same as above: fail the retry notification if it was rejected right away and the next attempt couldn't be recorded
+        sender.send(new PushNotification(key.getTenantId(), key.getUrl(), notification, key.getAttemptNumber())).getNow(null);
     }
 
     private void saveRetryPushNotificationInQueue(final UUID tenantId, final String url, final NotificationJson notificationJson, final int attemptRetryNumber, final String reason) {
@@ -191,8 +166,10 @@ public class PushNotificationListener {
             notificationQueue.recordFutureNotification(nextNotificationTime, key, null, Objects.requireNonNullElse(accountRecordId, 0L), tenantRecordId);
         } catch (final NoSuchNotificationQueue noSuchNotificationQueue) {
             log.error("Failed to push notification url='{}', tenantId='{}'", key.getUrl(), key.getTenantId(), noSuchNotificationQueue);
+            throw new IllegalStateException("Failed to re-schedule push notification " + key, noSuchNotificationQueue);
         } catch (final IOException e) {
             log.error("Failed to push notification url='{}', tenantId='{}'", key.getUrl(), key.getTenantId(), e);
+            throw new IllegalStateException("Failed to re-schedule push notification " + key, e);
         }
     }
 
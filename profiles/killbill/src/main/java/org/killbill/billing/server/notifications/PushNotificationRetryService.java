@@ -34,7 +34,6 @@ import org.killbill.notificationq.api.NotificationQueueService.NotificationQueue
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.google.inject.Inject;
 
 public class PushNotificationRetryService {
@@ -69,11 +68,7 @@ public class PushNotificationRetryService {
                                                                                   return;
                                                                               }
                                                                               final PushNotificationKey key = (PushNotificationKey) notificationKey;
-                                                                              try {
-                                                                                  pushNotificationListener.resendPushNotification(key);
-                                                                              } catch (JsonProcessingException e) {
-                                                                                  log.error("Failed to push notification url='{}', tenantId='{}'", key.getUrl(), key.getTenantId(), e);
-                                                                              }
+                                                                              pushNotificationListener.resendPushNotification(key);
                                                                           }
                                                                       }
                                                                      );
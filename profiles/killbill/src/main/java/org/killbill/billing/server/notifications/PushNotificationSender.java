@@ -0,0 +1,438 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.server.notifications;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.killbill.billing.jaxrs.json.NotificationJson;
+import org.killbill.billing.util.config.definition.NotificationConfig;
+import org.killbill.commons.concurrent.Executors;
+import org.killbill.commons.metrics.api.Counter;
+import org.killbill.commons.metrics.api.Gauge;
+import org.killbill.commons.metrics.api.MetricRegistry;
+import org.killbill.commons.metrics.api.Timer;
+import org.killbill.commons.utils.annotation.VisibleForTesting;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Asynchronous delivery of push notifications, so that a slow callback URL doesn't hold the external bus dispatch threads (nor the other callback URLs).
+ * <p>
+ * Each callback URL of a tenant (endpoint) has its own bounded queue and a bounded number of in-flight requests (one by default, to preserve
+ * the ordering of the notifications). Notifications can optionally be batched, in which case the body is a JSON array.
+ * After too many consecutive failures, the circuit breaker of the endpoint opens: pending and new notifications are handed
+ * over to the {@link FailureHandler} (i.e. re-scheduled by the retry service) until the endpoint is tried again.
+ * <p>
+ * Metrics are keyed by tenant (callback URLs may contain credentials) and endpoints without any notification for a while are discarded.
+ */
+public class PushNotificationSender {
+
+    private static final Logger log = LoggerFactory.getLogger(PushNotificationSender.class);
+
+    private static final String METRIC_PREFIX = "killbill.server.push.notification.";
+    private static final String[] METRIC_SUFFIXES = {".backlog", ".inFlight", ".latency", ".failures"};
+
+    public interface FailureHandler {
+
+        // Hands the notification over (e.g. persists it for a later retry): a notification is only considered processed once this returns
+        void onFailure(PushNotification notification, String reason);
+    }
+
+    private final HttpClient httpClient;
+    private final ObjectMapper mapper;
+    private final MetricRegistry metricRegistry;
+    private final FailureHandler failureHandler;
+    private final String userAgent;
+    private final Duration timeout;
+    private final int queueSize;
+    private final int maxConcurrentRequests;
+    private final int batchSize;
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final long idleTimeoutNanos;
+    // Guarded by itself for creations and evictions
+    private final Map<UUID, TenantEndpoints> tenantEndpoints = new ConcurrentHashMap<UUID, TenantEndpoints>();
+    private final ScheduledExecutorService evictionExecutor;
+
+    private volatile boolean isShutdown = false;
+
+    public PushNotificationSender(final NotificationConfig notificationConfig,
+                                  final ObjectMapper mapper,
+                                  final MetricRegistry metricRegistry,
+                                  final String userAgent,
+                                  final FailureHandler failureHandler) {
+        this.timeout = Duration.ofMillis(notificationConfig.getPushNotificationsTimeout().getMillis());
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+        this.mapper = mapper;
+        this.metricRegistry = metricRegistry;
+        this.userAgent = userAgent;
+        this.failureHandler = failureHandler;
+        this.queueSize = Math.max(1, notificationConfig.getPushNotificationsEndpointQueueSize());
+        this.maxConcurrentRequests = Math.max(1, notificationConfig.getPushNotificationsEndpointMaxConcurrentRequests());
+        this.batchSize = Math.max(1, notificationConfig.getPushNotificationsBatchSize());
+        this.failureThreshold = notificationConfig.getPushNotificationsCircuitBreakerFailureThreshold();
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(notificationConfig.getPushNotificationsCircuitBreakerOpenDuration().getMillis());
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(notificationConfig.getPushNotificationsEndpointIdleTimeout().getMillis());
+
+        this.evictionExecutor = Executors.newSingleThreadScheduledExecutor("PushNotificationSender-eviction");
+        final long evictionPeriodMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(idleTimeoutNanos));
+        this.evictionExecutor.scheduleWithFixedDelay(this::evictIdleEndpoints, evictionPeriodMillis, evictionPeriodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return a future completed once the notification has been either delivered or handed over to the {@link FailureHandler}
+     * (exceptionally if the latter failed)
+     */
+    public CompletableFuture<Void> send(final PushNotification notification) {
+        if (isShutdown) {
+            handleFailure(notification, "shutdown");
+        } else {
+            // The endpoint may be evicted in between, in which case a new one is created
+            while (!getOrCreateEndpoint(notification.getTenantId(), notification.getUrl()).offer(notification)) {
+            }
+        }
+        return notification.getProcessed();
+    }
+
+    /**
+     * Stop accepting notifications: the pending ones are handed over to the {@link FailureHandler}.
+     */
+    public void shutdown() {
+        isShutdown = true;
+        evictionExecutor.shutdownNow();
+        for (final TenantEndpoints endpoints : tenantEndpoints.values()) {
+            for (final Endpoint endpoint : endpoints.endpoints.values()) {
+                endpoint.drain("shutdown");
+            }
+        }
+    }
+
+    @VisibleForTesting
+    void evictIdleEndpoints() {
+        final long nowNanos = System.nanoTime();
+        synchronized (tenantEndpoints) {
+            final Iterator<TenantEndpoints> tenantIterator = tenantEndpoints.values().iterator();
+            while (tenantIterator.hasNext()) {
+                final TenantEndpoints endpoints = tenantIterator.next();
+                endpoints.endpoints.values().removeIf(endpoint -> endpoint.evictIfIdle(nowNanos));
+                if (endpoints.endpoints.isEmpty()) {
+                    tenantIterator.remove();
+                    endpoints.removeMetrics();
+                }
+            }
+        }
+    }
+
+    @VisibleForTesting
+    int getNbEndpoints() {
+        int nbEndpoints = 0;
+        for (final TenantEndpoints endpoints : tenantEndpoints.values()) {
+            nbEndpoints += endpoints.endpoints.size();
+        }
+        return nbEndpoints;
+    }
+
+    @VisibleForTesting
+    int getBacklog(final UUID tenantId, final String url) {
+        final Endpoint endpoint = getEndpoint(tenantId, url);
+        return endpoint == null ? 0 : endpoint.getBacklog();
+    }
+
+    @VisibleForTesting
+    boolean isCircuitBreakerOpen(final UUID tenantId, final String url) {
+        final Endpoint endpoint = getEndpoint(tenantId, url);
+        return endpoint != null && endpoint.isCircuitBreakerOpen();
+    }
+
+    private Endpoint getEndpoint(final UUID tenantId, final String url) {
+        final TenantEndpoints endpoints = tenantEndpoints.get(tenantId);
+        return endpoints == null ? null : endpoints.endpoints.get(url);
+    }
+
+    private Endpoint getOrCreateEndpoint(final UUID tenantId, final String url) {
+        synchronized (tenantEndpoints) {
+            final TenantEndpoints endpoints = tenantEndpoints.computeIfAbsent(tenantId, TenantEndpoints::new);
+            return endpoints.endpoints.computeIfAbsent(url, key -> new Endpoint(endpoints, key));
+        }
+    }
+
+    private void handleFailure(final PushNotification notification, final String reason) {
+        try {
+            failureHandler.onFailure(notification, reason);
+            notification.getProcessed().complete(null);
+        } catch (final RuntimeException e) {
+            log.warn("Failed to handle push notification failure tenantId='{}'", notification.getTenantId(), e);
+            notification.getProcessed().completeExceptionally(e);
+        }
+    }
+
+    // Endpoints and metrics of a tenant
+    private final class TenantEndpoints {
+
+        private final String metricPrefix;
+        private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<String, Endpoint>();
+        private final Timer latency;
+        private final Counter failures;
+
+        private TenantEndpoints(final UUID tenantId) {
+            this.metricPrefix = METRIC_PREFIX + tenantId;
+            metricRegistry.gauge(metricPrefix + ".backlog", (Gauge<Integer>) () -> endpoints.values().stream().mapToInt(Endpoint::getBacklog).sum());
+            metricRegistry.gauge(metricPrefix + ".inFlight", (Gauge<Integer>) () -> endpoints.values().stream().mapToInt(Endpoint::getNbInFlight).sum());
+            this.latency = metricRegistry.timer(metricPrefix + ".latency");
+            this.failures = metricRegistry.counter(metricPrefix + ".failures");
+        }
+
+        private void removeMetrics() {
+            for (final String suffix : METRIC_SUFFIXES) {
+                metricRegistry.remove(metricPrefix + suffix);
+            }
+        }
+    }
+
+    private final class Endpoint {
+
+        private final TenantEndpoints tenant;
+        private final String url;
+        private final Deque<PushNotification> queue = new ArrayDeque<PushNotification>();
+
+        // All guarded by this
+        private int nbInFlight = 0;
+        private int nbConsecutiveFailures = 0;
+        private boolean circuitBreakerOpen = false;
+        private long circuitBreakerOpenedAtNanos;
+        private long lastOfferNanos = System.nanoTime();
+        private boolean evicted = false;
+
+        private Endpoint(final TenantEndpoints tenant, final String url) {
+            this.tenant = tenant;
+            this.url = url;
+        }
+
+        // Returns false if the endpoint has been evicted (the notification should be offered to a new one)
+        private boolean offer(final PushNotification notification) {
+            final String rejectionReason;
+            synchronized (this) {
+                if (evicted) {
+                    return false;
+                }
+                lastOfferNanos = System.nanoTime();
+                if (isCircuitBreakerOpen()) {
+                    rejectionReason = "circuit breaker open";
+                } else if (queue.size() >= queueSize) {
+                    rejectionReason = "queue full";
+                } else {
+                    queue.add(notification);
+                    rejectionReason = null;
+                }
+            }
+
+            if (rejectionReason != null) {
+                handleFailure(notification, rejectionReason);
+            } else {
+                pump();
+            }
+            return true;
+        }
+
+        private synchronized boolean evictIfIdle(final long nowNanos) {
+            evicted = queue.isEmpty() && nbInFlight == 0 && nowNanos - lastOfferNanos >= idleTimeoutNanos;
+            return evicted;
+        }
+
+        private void drain(final String reason) {
+            final List<PushNotification> pending;
+            synchronized (this) {
+                pending = new ArrayList<PushNotification>(queue);
+                queue.clear();
+            }
+            for (final PushNotification notification : pending) {
+                handleFailure(notification, reason);
+            }
+        }
+
+        private void pump() {
+            final List<List<PushNotification>> batches = new LinkedList<List<PushNotification>>();
+            synchronized (this) {
+                while (nbInFlight < maxConcurrentRequests && !queue.isEmpty()) {
+                    final List<PushNotification> batch = new ArrayList<PushNotification>(Math.min(batchSize, queue.size()));
+                    while (batch.size() < batchSize && !queue.isEmpty()) {
+                        batch.add(queue.poll());
+                    }
+                    nbInFlight++;
+                    batches.add(batch);
+                }
+            }
+
+            for (final List<PushNotification> batch : batches) {
+                post(batch);
+            }
+        }
+
+        private void post(final List<PushNotification> batch) {
+            final long startNanos = System.nanoTime();
+            final CompletableFuture<HttpResponse<Void>> response;
+            try {
+                final String body = toBody(batch);
+                log.info("Sending push notification url='{}', body='{}', attemptRetryNumber='{}'", url, body, batch.get(0).getAttemptNumber());
+                final HttpRequest request = HttpRequest.newBuilder()
+                                                       .uri(URI.create(url))
+                                                       .header("User-Agent", userAgent)
+                                                       .header(PushNotificationListener.HTTP_HEADER_CONTENT_TYPE, PushNotificationListener.CONTENT_TYPE_JSON)
+                                                       .timeout(timeout)
+                                                       .POST(HttpRequest.BodyPublishers.ofString(body))
+                                                       .build();
+                response = httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+            } catch (final JsonProcessingException | RuntimeException e) {
+                onComplete(batch, startNanos, null, e);
+                return;
+            }
+            response.whenComplete((httpResponse, throwable) -> onComplete(batch, startNanos, httpResponse, throwable));
+        }
+
+        private String toBody(final List<PushNotification> batch) throws JsonProcessingException {
+            if (batchSize == 1) {
+                return mapper.writeValueAsString(batch.get(0).getNotification());
+            }
+            final List<NotificationJson> notifications = new ArrayList<NotificationJson>(batch.size());
+            for (final PushNotification notification : batch) {
+                notifications.add(notification.getNotification());
+            }
+            return mapper.writeValueAsString(notifications);
+        }
+
+        private void onComplete(final List<PushNotification> batch, final long startNanos, final HttpResponse<Void> httpResponse, final Throwable throwable) {
+            tenant.latency.update(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+
+            final String failureReason;
+            if (throwable != null) {
+                final Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+                log.warn("Failed to push notification url='{}', tenantId='{}'", url, batch.get(0).getTenantId(), cause);
+                failureReason = String.valueOf(cause.getMessage());
+            } else if (httpResponse.statusCode() >= 200 && httpResponse.statusCode() < 300) {
+                failureReason = null;
+            } else {
+                failureReason = "statusCode=" + httpResponse.statusCode();
+            }
+
+            final List<PushNotification> rejected = new LinkedList<PushNotification>();
+            synchronized (this) {
+                nbInFlight--;
+                if (failureReason == null) {
+                    nbConsecutiveFailures = 0;
+                    circuitBreakerOpen = false;
+                } else {
+                    nbConsecutiveFailures++;
+                    if (failureThreshold > 0 && nbConsecutiveFailures >= failureThreshold) {
+                        if (!circuitBreakerOpen) {
+                            log.warn("Opening circuit breaker for push notifications url='{}' after {} consecutive failures", url, nbConsecutiveFailures);
+                        }
+                        circuitBreakerOpen = true;
+                        circuitBreakerOpenedAtNanos = System.nanoTime();
+                        rejected.addAll(queue);
+                        queue.clear();
+                    }
+                }
+            }
+
+            if (failureReason == null) {
+                for (final PushNotification notification : batch) {
+                    notification.getProcessed().complete(null);
+                }
+            } else {
+                tenant.failures.inc(batch.size());
+                for (final PushNotification notification : batch) {
+                    handleFailure(notification, failureReason);
+                }
+            }
+            for (final PushNotification notification : rejected) {
+                handleFailure(notification, "circuit breaker open");
+            }
+
+            pump();
+        }
+
+        private synchronized boolean isCircuitBreakerOpen() {
+            // Once the open duration has elapsed, let requests through again (a new failure re-opens it right away)
+            return circuitBreakerOpen && System.nanoTime() - circuitBreakerOpenedAtNanos < openDurationNanos;
+        }
+
+        private synchronized int getBacklog() {
+            return queue.size();
+        }
+
+        private synchronized int getNbInFlight() {
+            return nbInFlight;
+        }
+    }
+
+    public static final class PushNotification {
+
+        private final UUID tenantId;
+        private final String url;
+        private final NotificationJson notification;
+        private final int attemptNumber;
+        private final CompletableFuture<Void> processed = new CompletableFuture<Void>();
+
+        public PushNotification(final UUID tenantId, final String url, final NotificationJson notification, final int attemptNumber) {
+            this.tenantId = tenantId;
+            this.url = url;
+            this.notification = notification;
+            this.attemptNumber = attemptNumber;
+        }
+
+        public UUID getTenantId() {
+            return tenantId;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public NotificationJson getNotification() {
+            return notification;
+        }
+
+        public int getAttemptNumber() {
+            return attemptNumber;
+        }
+
+        private CompletableFuture<Void> getProcessed() {
+            return processed;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.jaxrs;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.core.Response.Status;
+
+import org.killbill.billing.client.KillBillClientException;
+import org.killbill.billing.client.RequestOptions;
+import org.killbill.billing.client.model.gen.RoleDefinition;
+import org.killbill.billing.client.model.gen.UserRoles;
+import org.killbill.billing.jaxrs.resources.JaxrsResource;
+import org.killbill.billing.security.Permission;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import static org.awaitility.Awaitility.await;
+
+public class TestExportTenant extends TestJaxrsBase {
+
+    private static final String EXPORT_TENANT_URI = JaxrsResource.EXPORT_PATH + "/" + JaxrsResource.EXPORT_TENANT;
+
+    private final RequestOptions noFollowRequestOptions = requestOptions.extend().withFollowLocation(false).build();
+
+    @Test(groups = "slow")
+    public void testExportTenant() throws Exception {
+        accountApi.createAccount(getAccount(), requestOptions);
+
+        final HttpResponse<InputStream> response = killBillHttpClient.doPost(EXPORT_TENANT_URI, null, noFollowRequestOptions);
+        Assert.assertEquals(response.statusCode(), Status.ACCEPTED.getStatusCode());
+        final String location = URI.create(response.headers().firstValue("Location").orElseThrow()).getPath();
+        Assert.assertTrue(location.startsWith(EXPORT_TENANT_URI + "/"), location);
+
+        // The export runs in the background: the returned location gives its status
+        await().atMost(DEFAULT_WAIT_COMPLETION_TIMEOUT_SEC, TimeUnit.SECONDS).until(() -> {
+            final Map<?, ?> exportStatus = killBillHttpClient.doGet(location, Map.class, requestOptions);
+            return "SUCCEEDED".equals(exportStatus.get("state")) || "FAILED".equals(exportStatus.get("state"));
+        });
+        final Map<?, ?> exportStatus = killBillHttpClient.doGet(location, Map.class, requestOptions);
+        Assert.assertEquals(exportStatus.get("state"), "SUCCEEDED", exportStatus.toString());
+        Assert.assertEquals(((Map<?, ?>) exportStatus.get("nbRowsPerTable")).get("accounts"), 1);
+
+        // Unknown export
+        Assert.assertNull(killBillHttpClient.doGet(EXPORT_TENANT_URI + "/" + UUID.randomUUID(), Map.class, requestOptions));
+    }
+
+    @Test(groups = "slow")
+    public void testExportTenantRequiresExportPermission() throws Exception {
+        final String roleDefinition = "accountsOnly";
+        securityApi.addRoleDefinition(new RoleDefinition(roleDefinition, List.of("account:*")), requestOptions);
+        final String username = UUID.randomUUID().toString();
+        final String password = UUID.randomUUID().toString();
+        securityApi.addUserRoles(new UserRoles(username, password, List.of(roleDefinition)), requestOptions);
+
+        logout();
+        login(username, password);
+        // Authenticated, with the account permissions
+        accountApi.createAccount(getAccount(), requestOptions);
+        try {
+            killBillHttpClient.doPost(EXPORT_TENANT_URI, null, noFollowRequestOptions);
+            Assert.fail("Export should require the " + Permission.ADMIN_CAN_EXPORT + " permission");
+        } catch (final KillBillClientException e) {
+            Assert.assertEquals(e.getResponse().statusCode(), Status.UNAUTHORIZED.getStatusCode());
+        }
+    }
+}
@@ -40,6 +40,7 @@ import org.killbill.billing.client.model.gen.TenantKeyValue;
 import org.killbill.billing.notification.plugin.api.ExtBusEventType;
 import org.killbill.billing.payment.api.TransactionStatus;
 import org.killbill.billing.payment.api.TransactionType;
+import org.killbill.billing.tenant.api.TenantInternalApi;
 import org.killbill.billing.tenant.api.TenantKV;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -170,6 +171,20 @@ public class TestTenantKV extends TestJaxrsBase {
         assertEquals(tenantKeyValues.get(1).getValues(), tenant2Config.getValues());
     }
 
+    @Test(groups = "slow", description = "Internal keys (e.g. catalog snapshots) cannot be written by the tenant")
+    public void testInternalKeysAreRejected() throws Exception {
+        final String internalKeyName = TenantInternalApi.INTERNAL_KEY_PREFIX + "CATALOG_SNAPSHOT";
+        try {
+            tenantApi.insertUserKeyValue(internalKeyName, "rO0ABXNy", requestOptions);
+            Assert.fail();
+        } catch (final KillBillClientException e) {
+            assertEquals(e.getResponse().statusCode(), 400);
+        }
+
+        final TenantKeyValue tenantKeyValue = tenantApi.getUserKeyValue(internalKeyName, requestOptions);
+        assertEquals(tenantKeyValue.getValues().size(), 0);
+    }
+
     private Payment createComboPaymentTransaction(final RequestOptions requestOptions) throws KillBillClientException {
         final Account accountJson = getAccount();
         accountJson.setAccountId(null);
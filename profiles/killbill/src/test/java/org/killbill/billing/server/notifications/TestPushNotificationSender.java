@@ -0,0 +1,266 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.server.notifications;
+
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.awaitility.Awaitility;
+import org.killbill.billing.GuicyKillbillTestSuiteNoDB;
+import org.killbill.billing.jaxrs.json.NotificationJson;
+import org.killbill.billing.server.notifications.PushNotificationSender.PushNotification;
+import org.killbill.billing.util.config.definition.NotificationConfig;
+import org.killbill.commons.metrics.api.MetricRegistry;
+import org.killbill.commons.metrics.impl.NoOpMetricRegistry;
+import org.mockito.Mockito;
+import org.skife.config.TimeSpan;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+
+public class TestPushNotificationSender extends GuicyKillbillTestSuiteNoDB {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final List<PushNotificationSender> senders = new ArrayList<PushNotificationSender>();
+
+    private HttpServer server;
+    private UUID tenantId;
+    private String url;
+    // Request bodies received by the stub
+    private List<String> received;
+    private List<String> failures;
+    private volatile int statusCode;
+    private volatile CountDownLatch requestLatch;
+
+    @BeforeMethod(groups = "fast")
+    public void beforeMethod() throws Exception {
+        if (hasFailed()) {
+            return;
+        }
+
+        tenantId = UUID.randomUUID();
+        received = new CopyOnWriteArrayList<String>();
+        failures = new CopyOnWriteArrayList<String>();
+        statusCode = 200;
+        requestLatch = new CountDownLatch(0);
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/callmeback", exchange -> {
+            try (final InputStream in = exchange.getRequestBody()) {
+                received.add(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+                requestLatch.await(10, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(statusCode, -1);
+            exchange.close();
+        });
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/callmeback";
+    }
+
+    @AfterMethod(groups = "fast")
+    public void afterMethod() {
+        for (final PushNotificationSender sender : senders) {
+            sender.shutdown();
+        }
+        senders.clear();
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testDeliveryPreservesOrdering() throws Exception {
+        final PushNotificationSender sender = createSender(1000, 1, 0);
+        for (int i = 0; i < 20; i++) {
+            sender.send(createPushNotification("EVENT_" + i));
+        }
+
+        Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() -> received.size() == 20);
+        for (int i = 0; i < 20; i++) {
+            Assert.assertEquals(mapper.readTree(received.get(i)).get("eventType").asText(), "EVENT_" + i);
+        }
+        Assert.assertTrue(failures.isEmpty());
+        Assert.assertEquals(sender.getBacklog(tenantId, url), 0);
+    }
+
+    @Test(groups = "fast")
+    public void testBatchedDelivery() throws Exception {
+        // Hold the first request, so that the next notifications pile up
+        requestLatch = new CountDownLatch(1);
+        final PushNotificationSender sender = createSender(1000, 5, 0);
+        sender.send(createPushNotification("EVENT_0"));
+        Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() -> received.size() == 1);
+        for (int i = 1; i < 11; i++) {
+            sender.send(createPushNotification("EVENT_" + i));
+        }
+        Assert.assertEquals(sender.getBacklog(tenantId, url), 10);
+        requestLatch.countDown();
+
+        Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() -> received.size() == 3);
+        int i = 0;
+        for (final String body : received) {
+            final JsonNode notifications = mapper.readTree(body);
+            Assert.assertTrue(notifications.isArray());
+            for (final JsonNode notification : notifications) {
+                Assert.assertEquals(notification.get("eventType").asText(), "EVENT_" + i++);
+            }
+        }
+        Assert.assertEquals(i, 11);
+        Assert.assertTrue(failures.isEmpty());
+    }
+
+    @Test(groups = "fast")
+    public void testQueueFull() throws Exception {
+        requestLatch = new CountDownLatch(1);
+        final PushNotificationSender sender = createSender(2, 1, 0);
+        sender.send(createPushNotification("EVENT_0"));
+        Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() -> received.size() == 1);
+        sender.send(createPushNotification("EVENT_1"));
+        sender.send(createPushNotification("EVENT_2"));
+        sender.send(createPushNotification("EVENT_3"));
+
+        Assert.assertEquals(failures, List.of("EVENT_3:queue full"));
+        requestLatch.countDown();
+        Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() -> received.size() == 3);
+    }
+
+    @Test(groups = "fast")
+    public void testCircuitBreaker() throws Exception {
+        statusCode = 500;
+        requestLatch = new CountDownLatch(1);
+        final PushNotificationSender sender = createSender(1000, 1, 2);
+        for (int i = 0; i < 5; i++) {
+            sender.send(createPushNotification("EVENT_" + i));
+        }
+        requestLatch.countDown();
+
+        // Two failed attempts open the circuit breaker: the pending notifications are handed over right away
+        Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() -> failures.size() == 5);
+        Assert.assertEquals(failures, List.of("EVENT_0:statusCode=500",
+                                              "EVENT_1:statusCode=500",
+                                              "EVENT_2:circuit breaker open",
+                                              "EVENT_3:circuit breaker open",
+                                              "EVENT_4:circuit breaker open"));
+        Assert.assertEquals(received.size(), 2);
+        Assert.assertTrue(sender.isCircuitBreakerOpen(tenantId, url));
+
+        sender.send(createPushNotification("EVENT_5"));
+        Assert.assertEquals(failures.get(5), "EVENT_5:circuit breaker open");
+        Assert.assertEquals(received.size(), 2);
+    }
+
+    @Test(groups = "fast")
+    public void testSendCompletesOnceProcessed() throws Exception {
+        requestLatch = new CountDownLatch(1);
+        final PushNotificationSender sender = createSender(1000, 1, 0);
+        final CompletableFuture<Void> delivered = sender.send(createPushNotification("EVENT_0"));
+        Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() -> received.size() == 1);
+        // Still in-flight
+        Assert.assertFalse(delivered.isDone());
+        requestLatch.countDown();
+        delivered.get(10, TimeUnit.SECONDS);
+
+        // The failure handler throwing (retry not recorded) fails the future
+        statusCode = 500;
+        final PushNotificationSender failingSender = createSender(createNotificationConfig(1000, 1, 0, "10m"), new NoOpMetricRegistry(), (notification, reason) -> {
+            throw new IllegalStateException("Failed to re-schedule");
+        });
+        final CompletableFuture<Void> failed = failingSender.send(createPushNotification("EVENT_1"));
+        Awaitility.await().atMost(10, TimeUnit.SECONDS).until(failed::isDone);
+        Assert.assertTrue(failed.isCompletedExceptionally());
+    }
+
+    @Test(groups = "fast")
+    public void testIdleEndpointsAreEvicted() throws Exception {
+        final MetricRegistry metricRegistry = Mockito.spy(new NoOpMetricRegistry());
+        final PushNotificationSender sender = createSender(createNotificationConfig(1000, 1, 0, "1h"), metricRegistry, (notification, reason) -> failures.add(reason));
+        sender.send(createPushNotification("EVENT_0")).get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(sender.getNbEndpoints(), 1);
+
+        // Metrics are keyed by tenant, not by callback URL
+        final String metricPrefix = "killbill.server.push.notification." + tenantId;
+        Mockito.verify(metricRegistry).gauge(Mockito.eq(metricPrefix + ".backlog"), Mockito.any());
+        Mockito.verify(metricRegistry).timer(metricPrefix + ".latency");
+        Mockito.verify(metricRegistry, Mockito.never()).counter(Mockito.contains("127.0.0.1"));
+
+        // Not idle long enough
+        sender.evictIdleEndpoints();
+        Assert.assertEquals(sender.getNbEndpoints(), 1);
+        Mockito.verify(metricRegistry, Mockito.never()).remove(Mockito.anyString());
+
+        final PushNotificationSender idleSender = createSender(createNotificationConfig(1000, 1, 0, "0ms"), metricRegistry, (notification, reason) -> failures.add(reason));
+        idleSender.send(createPushNotification("EVENT_1")).get(10, TimeUnit.SECONDS);
+        idleSender.evictIdleEndpoints();
+        Assert.assertEquals(idleSender.getNbEndpoints(), 0);
+        Mockito.verify(metricRegistry, Mockito.atLeastOnce()).remove(metricPrefix + ".backlog");
+        Mockito.verify(metricRegistry, Mockito.atLeastOnce()).remove(metricPrefix + ".inFlight");
+        Mockito.verify(metricRegistry, Mockito.atLeastOnce()).remove(metricPrefix + ".latency");
+        Mockito.verify(metricRegistry, Mockito.atLeastOnce()).remove(metricPrefix + ".failures");
+
+        // A new notification re-creates the endpoint
+        idleSender.send(createPushNotification("EVENT_2")).get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(received.size(), 3);
+        Assert.assertTrue(failures.isEmpty());
+    }
+
+    private PushNotificationSender createSender(final int queueSize, final int batchSize, final int failureThreshold) {
+        return createSender(createNotificationConfig(queueSize, batchSize, failureThreshold, "10m"),
+                            new NoOpMetricRegistry(),
+                            (notification, reason) -> failures.add(notification.getNotification().getEventType() + ":" + reason));
+    }
+
+    private PushNotificationSender createSender(final NotificationConfig notificationConfig,
+                                                final MetricRegistry metricRegistry,
+                                                final PushNotificationSender.FailureHandler failureHandler) {
+        final PushNotificationSender sender = new PushNotificationSender(notificationConfig, mapper, metricRegistry, "KillBill/1.0", failureHandler);
+        senders.add(sender);
+        return sender;
+    }
+
+    private NotificationConfig createNotificationConfig(final int queueSize, final int batchSize, final int failureThreshold, final String idleTimeout) {
+        final NotificationConfig notificationConfig = Mockito.mock(NotificationConfig.class);
+        Mockito.when(notificationConfig.getPushNotificationsTimeout()).thenReturn(new TimeSpan("15s"));
+        Mockito.when(notificationConfig.getPushNotificationsEndpointQueueSize()).thenReturn(queueSize);
+        Mockito.when(notificationConfig.getPushNotificationsEndpointMaxConcurrentRequests()).thenReturn(1);
+        Mockito.when(notificationConfig.getPushNotificationsBatchSize()).thenReturn(batchSize);
+        Mockito.when(notificationConfig.getPushNotificationsCircuitBreakerFailureThreshold()).thenReturn(failureThreshold);
+        Mockito.when(notificationConfig.getPushNotificationsCircuitBreakerOpenDuration()).thenReturn(new TimeSpan("1h"));
+        Mockito.when(notificationConfig.getPushNotificationsEndpointIdleTimeout()).thenReturn(new TimeSpan(idleTimeout));
+        return notificationConfig;
+    }
+
+    private PushNotification createPushNotification(final String eventType) {
+        return new PushNotification(tenantId, url, new NotificationJson(eventType, UUID.randomUUID(), "ACCOUNT", UUID.randomUUID(), null), 0);
+    }
+}
@@ -50,6 +50,7 @@ import org.killbill.billing.util.glue.KillbillApiAopModule;
 import org.killbill.billing.util.glue.NodesModule;
 import org.killbill.billing.util.glue.NonEntityDaoModule;
 import org.killbill.billing.util.glue.RecordIdModule;
+import org.killbill.billing.util.glue.SearchModule;
 import org.killbill.billing.util.glue.SecurityModule;
 import org.killbill.billing.util.glue.TagStoreModule;
 import org.skife.config.ConfigurationObjectFactory;
@@ -84,6 +85,7 @@ public class KillpayServerModule extends KillbillServerModule {
 
         install(new KillBillShiroWebModule(servletContext, skifeConfigSource));
         install(new NonEntityDaoModule(configSource));
+        install(new SearchModule(configSource));
         install(new PaymentModule(configSource));
         install(new RecordIdModule(configSource));
         install(new SecurityModule(configSource));
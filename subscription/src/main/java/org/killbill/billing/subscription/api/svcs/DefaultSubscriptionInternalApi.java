@@ -253,6 +253,32 @@ public class DefaultSubscriptionInternalApi extends DefaultSubscriptionBaseCreat
                                              );
 
     }
+
+    @Override
+    public Pagination<SubscriptionBaseBundle> getBundles(@Nullable final Long cursor, final Long offset, final Long limit, final InternalTenantContext context) {
+        return getEntityPaginationNoException(limit,
+                                              new SourcePaginationBuilder<SubscriptionBundleModelDao, SubscriptionBaseApiException>() {
+                                                  @Override
+                                                  public Pagination<SubscriptionBundleModelDao> build() {
+                                                      return dao.get(cursor, offset, limit, context);
+                                                  }
+                                              },
+                                              SubscriptionBundleModelDao::toSubscriptionBundle
+                                             );
+    }
+
+    @Override
+    public Pagination<SubscriptionBaseBundle> searchBundles(final String searchKey, @Nullable final Long cursor, final Long offset, final Long limit, final InternalTenantContext context) {
+        return getEntityPaginationNoException(limit,
+                                              new SourcePaginationBuilder<SubscriptionBundleModelDao, SubscriptionBaseApiException>() {
+                                                  @Override
+                                                  public Pagination<SubscriptionBundleModelDao> build() {
+                                                      return dao.searchSubscriptionBundles(searchKey, cursor, offset, limit, context);
+                                                  }
+                                              },
+                                              SubscriptionBundleModelDao::toSubscriptionBundle
+                                             );
+    }
     
     @Override
     public Iterable<UUID> getNonAOSubscriptionIdsForKey(final String bundleKey, final InternalTenantContext context) {
@@ -191,22 +191,41 @@ public class DefaultSubscriptionDao extends EntityDaoBase<SubscriptionBundleMode
     @Override
     public Pagination<SubscriptionBundleModelDao> searchSubscriptionBundles(final String searchKey, final Long offset, final Long limit, final InternalTenantContext context) {
         return paginationHelper.getPagination(BundleSqlDao.class,
-                                              new PaginationIteratorBuilder<SubscriptionBundleModelDao, SubscriptionBaseBundle, BundleSqlDao>() {
-                                                  @Override
-                                                  public Long getCount(final BundleSqlDao bundleSqlDao, final InternalTenantContext context) {
-                                                      return bundleSqlDao.getSearchCount(searchKey, String.format("%%%s%%", searchKey), context);
-                                                  }
-
-                                                  @Override
-                                                  public Iterator<SubscriptionBundleModelDao> build(final BundleSqlDao bundleSqlDao, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context) {
-                                                      return bundleSqlDao.search(searchKey, String.format("%%%s%%", searchKey), offset, limit, ordering.toString(), context);
-                                                  }
-                                              },
+                                              getSearchSubscriptionBundlesPaginationIteratorBuilder(searchKey),
                                               offset,
                                               limit,
                                               context);
     }
 
+    @Override
+    public Pagination<SubscriptionBundleModelDao> searchSubscriptionBundles(final String searchKey, @Nullable final Long cursor, final Long offset, final Long limit, final InternalTenantContext context) {
+        return paginationHelper.getPaginationWithCursor(BundleSqlDao.class,
+                                                        getSearchSubscriptionBundlesPaginationIteratorBuilder(searchKey),
+                                                        cursor,
+                                                        offset,
+                                                        limit,
+                                                        context);
+    }
+
+    private PaginationIteratorBuilder<SubscriptionBundleModelDao, SubscriptionBaseBundle, BundleSqlDao> getSearchSubscriptionBundlesPaginationIteratorBuilder(final String searchKey) {
+        return new PaginationIteratorBuilder<SubscriptionBundleModelDao, SubscriptionBaseBundle, BundleSqlDao>() {
+            @Override
+            public Long getCount(final BundleSqlDao bundleSqlDao, final InternalTenantContext context) {
+                return bundleSqlDao.getSearchCount(searchKey, String.format("%%%s%%", searchKey), context);
+            }
+
+            @Override
+            public Iterator<SubscriptionBundleModelDao> build(final BundleSqlDao bundleSqlDao, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context) {
+                return bundleSqlDao.search(searchKey, String.format("%%%s%%", searchKey), offset, limit, ordering.toString(), context);
+            }
+
+            @Override
+            public Iterator<SubscriptionBundleModelDao> buildFromCursor(final BundleSqlDao bundleSqlDao, final Long cursor, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context) {
+                return bundleSqlDao.searchFromCursor(searchKey, String.format("%%%s%%", searchKey), cursor, offset, limit, ordering.toString(), ordering.getCursorComparator(), context);
+            }
+        };
+    }
+
     @Override
     public Iterable<UUID> getNonAOSubscriptionIdsForKey(final String bundleKey, final InternalTenantContext context) {
         return transactionalSqlDao.execute(true, entitySqlDaoWrapperFactory -> {
@@ -394,53 +413,45 @@ public class DefaultSubscriptionDao extends EntityDaoBase<SubscriptionBundleMode
 
     @Override
     public Map<UUID, List<DefaultSubscriptionBase>> getSubscriptionsForAccount(final SubscriptionCatalog catalog, @Nullable final LocalDate cutoffDt, final InternalTenantContext context) throws CatalogApiException {
-        final Map<UUID, List<DefaultSubscriptionBase>> subscriptionsFromAccountId = getSubscriptionsFromAccountId(cutoffDt, context);
-        final List<SubscriptionBaseEvent> eventsForAccount = getEventsForAccountId(cutoffDt, context);
+        // Load the subscription graph of the account in a single read-only transaction: one query each for the subscriptions, the bundles (skipped when cutoffDt is set) and the events
+        final AccountSubscriptionGraph subscriptionGraph = transactionalSqlDao.execute(true, entitySqlDaoWrapperFactory -> new AccountSubscriptionGraph(getSubscriptionsFromAccountIdFromTransaction(cutoffDt, entitySqlDaoWrapperFactory, context),
+                                                                                                                                                  getEventsForAccountIdFromTransaction(cutoffDt, entitySqlDaoWrapperFactory, context)));
 
         final Map<UUID, List<DefaultSubscriptionBase>> result = new HashMap<>();
-        final MultiValueMap<UUID, SubscriptionBaseEvent> eventsForSubscriptions = new MultiValueHashMap<>();
-        for (final SubscriptionBaseEvent evt : eventsForAccount) {
-            eventsForSubscriptions.putElement(evt.getSubscriptionId(), evt);
-        }
-        for (final Entry<UUID, List<DefaultSubscriptionBase>> entry : subscriptionsFromAccountId.entrySet()) {
-            result.put(entry.getKey(), buildBundleSubscriptions(entry.getValue(), eventsForSubscriptions, null, catalog, context));
+        for (final Entry<UUID, List<DefaultSubscriptionBase>> entry : subscriptionGraph.getSubscriptionsPerBundle().entrySet()) {
+            result.put(entry.getKey(), buildBundleSubscriptions(entry.getValue(), subscriptionGraph.getEventsPerSubscription(), null, catalog, context));
         }
         return result;
     }
 
     public Map<UUID, List<DefaultSubscriptionBase>> getSubscriptionsFromAccountId(@Nullable final LocalDate cutoffDt, final InternalTenantContext context) {
-        final List<DefaultSubscriptionBase> allSubscriptions = transactionalSqlDao.execute(true, entitySqlDaoWrapperFactory -> {
-            final SubscriptionSqlDao subscriptionSqlDao = entitySqlDaoWrapperFactory.become(SubscriptionSqlDao.class);
-            final List<SubscriptionModelDao> subscriptionModels = cutoffDt == null ?
-                                                                  subscriptionSqlDao.getByAccountRecordId(context) :
-                                                                  subscriptionSqlDao.getActiveByAccountRecordId(cutoffDt.toDate(), context);
-
-            // We avoid pulling the bundles when a cutoffDt is specified, as those are not really used
-            final List<SubscriptionBundleModelDao> bundleModels = cutoffDt == null ?
-                                                                  entitySqlDaoWrapperFactory.become(BundleSqlDao.class).getByAccountRecordId(context) :
-                                                                  Collections.emptyList();
-            return subscriptionModels.stream()
-                                     .map(input -> {
-                                         final SubscriptionBundleModelDao bundleModel = bundleModels.stream()
-                                                                                                    .filter(bundleInput -> bundleInput.getId().equals(input.getBundleId()))
-                                                                                                    .findFirst().orElse(null);
-                                         final String bundleExternalKey = bundleModel != null ? bundleModel.getExternalKey() : null;
-
-                                         return SubscriptionModelDao.toSubscription(input, bundleExternalKey);
-                                     }).collect(Collectors.toUnmodifiableList());
-        });
+        return transactionalSqlDao.execute(true, entitySqlDaoWrapperFactory -> getSubscriptionsFromAccountIdFromTransaction(cutoffDt, entitySqlDaoWrapperFactory, context));
+    }
 
-        final Map<UUID, List<DefaultSubscriptionBase>> result = new HashMap<>();
-        for (final DefaultSubscriptionBase subscriptionBase : allSubscriptions) {
-            if (result.get(subscriptionBase.getBundleId()) == null) {
-                result.put(subscriptionBase.getBundleId(), new LinkedList<>());
+    private Map<UUID, List<DefaultSubscriptionBase>> getSubscriptionsFromAccountIdFromTransaction(@Nullable final LocalDate cutoffDt,
+                                                                                                 final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory,
+                                                                                                 final InternalTenantContext context) {
+        final SubscriptionSqlDao subscriptionSqlDao = entitySqlDaoWrapperFactory.become(SubscriptionSqlDao.class);
+        final List<SubscriptionModelDao> subscriptionModels = cutoffDt == null ?
+                                                              subscriptionSqlDao.getByAccountRecordId(context) :
+                                                              subscriptionSqlDao.getActiveByAccountRecordId(cutoffDt.toDate(), context);
+
+        // We avoid pulling the bundles when a cutoffDt is specified, as those are not really used
+        final Map<UUID, String> bundleExternalKeys = new HashMap<>();
+        if (cutoffDt == null) {
+            for (final SubscriptionBundleModelDao bundleModel : entitySqlDaoWrapperFactory.become(BundleSqlDao.class).getByAccountRecordId(context)) {
+                bundleExternalKeys.put(bundleModel.getId(), bundleModel.getExternalKey());
             }
-            result.get(subscriptionBase.getBundleId()).add(subscriptionBase);
+        }
+
+        final Map<UUID, List<DefaultSubscriptionBase>> result = new HashMap<>();
+        for (final SubscriptionModelDao subscriptionModel : subscriptionModels) {
+            final DefaultSubscriptionBase subscriptionBase = SubscriptionModelDao.toSubscription(subscriptionModel, bundleExternalKeys.get(subscriptionModel.getBundleId()));
+            result.computeIfAbsent(subscriptionBase.getBundleId(), bundleId -> new LinkedList<>()).add(subscriptionBase);
         }
         return result;
     }
 
-
     @Override
     public void updateChargedThroughDates(final Map<DateTime, List<UUID>> chargeThroughDates, final InternalCallContext context) {
         final InternalCallContext contextWithUpdatedDate = contextWithUpdatedDate(context);
@@ -700,12 +711,16 @@ public class DefaultSubscriptionDao extends EntityDaoBase<SubscriptionBundleMode
     }
 
     public List<SubscriptionBaseEvent> getEventsForAccountId(@Nullable final LocalDate cutoffDt, final InternalTenantContext context) {
-        return transactionalSqlDao.execute(true, entitySqlDaoWrapperFactory -> {
-            final SubscriptionEventSqlDao eventSqlDao = entitySqlDaoWrapperFactory.become(SubscriptionEventSqlDao.class);
-            final LocalDate effCutoffDt = cutoffDt == null ? NO_CUTOFF_DT : cutoffDt;
-            final SortedSet<SubscriptionEventModelDao> models = eventSqlDao.getActiveByAccountRecordId(effCutoffDt.toDate(), context);
-            return filterSubscriptionBaseEvents(models);
-        });
+        return transactionalSqlDao.execute(true, entitySqlDaoWrapperFactory -> getEventsForAccountIdFromTransaction(cutoffDt, entitySqlDaoWrapperFactory, context));
+    }
+
+    private List<SubscriptionBaseEvent> getEventsForAccountIdFromTransaction(@Nullable final LocalDate cutoffDt,
+                                                                             final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory,
+                                                                             final InternalTenantContext context) {
+        final SubscriptionEventSqlDao eventSqlDao = entitySqlDaoWrapperFactory.become(SubscriptionEventSqlDao.class);
+        final LocalDate effCutoffDt = cutoffDt == null ? NO_CUTOFF_DT : cutoffDt;
+        final SortedSet<SubscriptionEventModelDao> models = eventSqlDao.getActiveByAccountRecordId(effCutoffDt.toDate(), context);
+        return filterSubscriptionBaseEvents(models);
     }
 
     private void cancelOrExpireSubscriptionFromTransaction(final DefaultSubscriptionBase subscription,
@@ -1154,4 +1169,27 @@ public class DefaultSubscriptionDao extends EntityDaoBase<SubscriptionBundleMode
         return new InternalCallContext(input, input.getCreatedDate());
     }
 
+
+    // Subscriptions (per bundle) and events (per subscription) of an account, indexed by id
+    private static final class AccountSubscriptionGraph {
+
+        private final Map<UUID, List<DefaultSubscriptionBase>> subscriptionsPerBundle;
+        private final MultiValueMap<UUID, SubscriptionBaseEvent> eventsPerSubscription;
+
+        private AccountSubscriptionGraph(final Map<UUID, List<DefaultSubscriptionBase>> subscriptionsPerBundle, final List<SubscriptionBaseEvent> eventsForAccount) {
+            this.subscriptionsPerBundle = subscriptionsPerBundle;
+            this.eventsPerSubscription = new MultiValueHashMap<>();
+            for (final SubscriptionBaseEvent evt : eventsForAccount) {
+                eventsPerSubscription.putElement(evt.getSubscriptionId(), evt);
+            }
+        }
+
+        public Map<UUID, List<DefaultSubscriptionBase>> getSubscriptionsPerBundle() {
+            return subscriptionsPerBundle;
+        }
+
+        public MultiValueMap<UUID, SubscriptionBaseEvent> getEventsPerSubscription() {
+            return eventsPerSubscription;
+        }
+    }
 }
@@ -56,6 +56,9 @@ public interface SubscriptionDao extends EntityDao<SubscriptionBundleModelDao, S
 
     Pagination<SubscriptionBundleModelDao> searchSubscriptionBundles(String searchKey, Long offset, Long limit, InternalTenantContext context);
 
+    // Keyset (seek) pagination, see DefaultPaginationSqlDaoHelper#getPaginationWithCursor
+    Pagination<SubscriptionBundleModelDao> searchSubscriptionBundles(String searchKey, @Nullable Long cursor, Long offset, Long limit, InternalTenantContext context);
+
     Iterable<UUID> getNonAOSubscriptionIdsForKey(String bundleKey, InternalTenantContext context);
 
     SubscriptionBaseBundle getSubscriptionBundlesForAccountAndKey(UUID accountId, String bundleKey, InternalTenantContext context);
@@ -26,6 +26,7 @@ CREATE UNIQUE INDEX subscription_events_id ON subscription_events(id);
 CREATE INDEX idx_ent_1 ON subscription_events(subscription_id, is_active, effective_date);
 CREATE INDEX idx_ent_2 ON subscription_events(subscription_id, effective_date, created_date, id);
 CREATE INDEX subscription_events_tenant_account_record_id ON subscription_events(tenant_record_id, account_record_id);
+CREATE INDEX subscription_events_tenant_record_id_record_id ON subscription_events(tenant_record_id, record_id);
 
 
 DROP TABLE IF EXISTS subscription_event_history;
@@ -80,6 +81,7 @@ CREATE UNIQUE INDEX subscriptions_id ON subscriptions(id);
 CREATE UNIQUE INDEX subscriptions_external_key ON subscriptions(external_key, tenant_record_id);
 CREATE INDEX subscriptions_bundle_id ON subscriptions(bundle_id);
 CREATE INDEX subscriptions_tenant_account_record_id ON subscriptions(tenant_record_id, account_record_id);
+CREATE INDEX subscriptions_tenant_record_id_record_id ON subscriptions(tenant_record_id, record_id);
 
 DROP TABLE IF EXISTS subscription_history;
 CREATE TABLE subscription_history (
@@ -127,6 +129,7 @@ CREATE UNIQUE INDEX bundles_id ON bundles(id);
 CREATE UNIQUE INDEX bundles_external_key ON bundles(external_key, tenant_record_id);
 CREATE INDEX bundles_account ON bundles(account_id);
 CREATE INDEX bundles_tenant_account_record_id ON bundles(tenant_record_id, account_record_id);
+CREATE INDEX bundles_tenant_record_id_record_id ON bundles(tenant_record_id, record_id);
 
 DROP TABLE IF EXISTS bundle_history;
 CREATE TABLE bundle_history (
@@ -0,0 +1,3 @@
+CREATE INDEX subscription_events_tenant_record_id_record_id ON subscription_events(tenant_record_id, record_id);
+CREATE INDEX subscriptions_tenant_record_id_record_id ON subscriptions(tenant_record_id, record_id);
+CREATE INDEX bundles_tenant_record_id_record_id ON bundles(tenant_record_id, record_id);
@@ -153,6 +153,11 @@ public class MockSubscriptionDaoMemory extends MockEntityDaoBase<SubscriptionBun
         return DefaultPagination.<SubscriptionBundleModelDao>build(offset, limit, maxNbRecords, results);
     }
 
+    @Override
+    public Pagination<SubscriptionBundleModelDao> searchSubscriptionBundles(final String searchKey, final Long cursor, final Long offset, final Long limit, final InternalTenantContext context) {
+        return searchSubscriptionBundles(searchKey, offset, limit, context);
+    }
+
     @Override
     public List<UUID> getNonAOSubscriptionIdsForKey(final String bundleKey, final InternalTenantContext context) {
         throw new UnsupportedOperationException();
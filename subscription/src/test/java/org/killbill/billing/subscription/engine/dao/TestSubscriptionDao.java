@@ -342,6 +342,9 @@ public class TestSubscriptionDao extends SubscriptionTestSuiteWithEmbeddedDB {
         final Map<UUID, List<DefaultSubscriptionBase>> res1 =  dao.getSubscriptionsFromAccountId(null, callContextWithAccountID);
         assertEquals(res1.size(), 1);
         assertEquals(res1.get(bundle.getId()).size(), 2);
+        for (final DefaultSubscriptionBase subscription : res1.get(bundle.getId())) {
+            assertEquals(subscription.getBundleExternalKey(), bundleExternalKey);
+        }
 
         final List<SubscriptionBaseEvent> events1 = ((DefaultSubscriptionDao) dao).getEventsForAccountId(null, callContextWithAccountID);
         assertEquals(events1.size(), 3);
@@ -17,6 +17,8 @@
 
 package org.killbill.billing.tenant.api;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 
@@ -24,12 +26,16 @@ import javax.inject.Inject;
 import javax.inject.Named;
 
 import org.killbill.billing.ErrorCode;
+import org.killbill.billing.callcontext.InternalCallContext;
 import org.killbill.billing.callcontext.InternalTenantContext;
 import org.killbill.billing.tenant.api.TenantKV.TenantKey;
 import org.killbill.billing.tenant.dao.TenantDao;
 import org.killbill.billing.tenant.dao.TenantModelDao;
 import org.killbill.billing.tenant.glue.DefaultTenantModule;
 import org.killbill.billing.util.LocaleUtils;
+import org.killbill.billing.util.callcontext.InternalCallContextFactory;
+import org.killbill.billing.util.entity.Pagination;
+import org.killbill.commons.utils.Preconditions;
 
 /**
  * This is the private API which is used to extract per tenant objects (catalog, overdue, invoice templates, ..)
@@ -120,6 +126,25 @@ public class DefaultTenantInternalApi implements TenantInternalApi {
         return tenantDao.getTenantValueForKey(key, tenantContext);
     }
 
+    @Override
+    public void updateTenantValueForKey(final String key, final String value, final InternalCallContext context) {
+        Preconditions.checkArgument(!isSystemKey(key), "Key %s is a system key", key);
+        tenantDao.updateTenantLastKeyValue(key, value, context);
+    }
+
+    @Override
+    public List<Long> getAllTenantRecordIds() {
+        final List<Long> result = new ArrayList<Long>();
+        try (final Pagination<TenantModelDao> tenants = tenantDao.getAll(new InternalTenantContext(InternalCallContextFactory.INTERNAL_TENANT_RECORD_ID))) {
+            for (final TenantModelDao tenant : tenants) {
+                result.add(tenant.getRecordId());
+            }
+        } catch (final IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return result;
+    }
+
     @Override
     public Tenant getTenantByApiKey(final String key) throws TenantApiException {
         final TenantModelDao tenant = tenantDao.getTenantByApiKey(key);
@@ -129,6 +154,15 @@ public class DefaultTenantInternalApi implements TenantInternalApi {
         return new DefaultTenant(tenant);
     }
 
+    private static boolean isSystemKey(final String key) {
+        for (final TenantKey tenantKey : TenantKey.values()) {
+            if (key.startsWith(tenantKey.toString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private String getUniqueValue(final List<String> values, final String msg, final InternalTenantContext tenantContext) {
         if (values.isEmpty()) {
             return null;
@@ -36,6 +36,7 @@ import org.killbill.billing.tenant.api.DefaultTenant;
 import org.killbill.billing.tenant.api.Tenant;
 import org.killbill.billing.tenant.api.TenantApiException;
 import org.killbill.billing.tenant.api.TenantData;
+import org.killbill.billing.tenant.api.TenantInternalApi;
 import org.killbill.billing.tenant.api.TenantKV.TenantKey;
 import org.killbill.billing.tenant.api.TenantUserApi;
 import org.killbill.billing.tenant.dao.TenantDao;
@@ -48,6 +49,7 @@ import org.killbill.billing.util.cache.CacheLoaderArgument;
 import org.killbill.billing.util.callcontext.CallContext;
 import org.killbill.billing.util.callcontext.InternalCallContextFactory;
 import org.killbill.billing.util.callcontext.TenantContext;
+import org.killbill.commons.utils.Preconditions;
 import org.killbill.commons.utils.collect.Iterables;
 
 public class DefaultTenantUserApi implements TenantUserApi {
@@ -141,6 +143,7 @@ public class DefaultTenantUserApi implements TenantUserApi {
 
     @Override
     public void addTenantKeyValue(final String key, final String value, final CallContext context) throws TenantApiException {
+        checkNotInternalKey(key);
         // Invalidate tenantKVCache after we store (to avoid race conditions). Multi-node invalidation will follow the TenantBroadcast pattern
         final InternalCallContext internalContext = internalCallContextFactory.createInternalCallContextWithoutAccountRecordId(context);
         final String tenantKey = getCacheKeyName(key, internalContext);
@@ -150,6 +153,7 @@ public class DefaultTenantUserApi implements TenantUserApi {
 
     @Override
     public void updateTenantKeyValue(final String key, final String value, final CallContext context) throws TenantApiException {
+        checkNotInternalKey(key);
         // Invalidate tenantKVCache after we store (to avoid race conditions). Multi-node invalidation will follow the TenantBroadcast pattern
         final InternalCallContext internalContext = internalCallContextFactory.createInternalCallContextWithoutAccountRecordId(context);
         final String tenantKey = getCacheKeyName(key, internalContext);
@@ -199,6 +203,10 @@ public class DefaultTenantUserApi implements TenantUserApi {
         return tenantKey.toString();
     }
 
+    private void checkNotInternalKey(final String key) {
+        Preconditions.checkArgument(!key.startsWith(TenantInternalApi.INTERNAL_KEY_PREFIX), "Key %s is an internal key", key);
+    }
+
     private boolean isSingleValueKey(final String key) {
         return Arrays.stream(TenantKey.values()).anyMatch(input -> input.isSingleValue() && key.startsWith(input.toString()));
     }
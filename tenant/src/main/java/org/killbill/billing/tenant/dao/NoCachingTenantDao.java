@@ -142,6 +142,11 @@ public class NoCachingTenantDao extends EntityDaoBase<TenantModelDao, Tenant, Te
         throw new IllegalStateException("Not implemented by NoCachingTenantDao");
     }
 
+    @Override
+    public Pagination<TenantModelDao> get(final Long cursor, final Long offset, final Long limit, final InternalTenantContext context) {
+        throw new IllegalStateException("Not implemented by NoCachingTenantDao");
+    }
+
     @Override
     public Long getCount(final InternalTenantContext context) {
         throw new IllegalStateException("Not implemented by NoCachingTenantDao");
@@ -17,30 +17,54 @@
 
 package org.killbill.billing.usage.api.svcs;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 
 import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
 import org.joda.time.LocalDate;
+import org.killbill.billing.ErrorCode;
+import org.killbill.billing.ObjectType;
+import org.killbill.billing.callcontext.InternalCallContext;
 import org.killbill.billing.callcontext.InternalTenantContext;
 import org.killbill.billing.invoice.api.DryRunInfo;
 import org.killbill.billing.invoice.api.DryRunType;
 import org.killbill.billing.osgi.api.OSGIServiceRegistration;
 import org.killbill.billing.payment.api.PluginProperty;
 import org.killbill.billing.usage.InternalUserApi;
+import org.killbill.billing.usage.SubscriptionUsageRecordResult;
 import org.killbill.billing.usage.api.BaseUserApi;
 import org.killbill.billing.usage.api.DefaultUsageContext;
 import org.killbill.billing.usage.api.RawUsageRecord;
+import org.killbill.billing.usage.api.SubscriptionUsageRecord;
+import org.killbill.billing.usage.api.UnitUsageRecord;
+import org.killbill.billing.usage.api.UsageApiException;
+import org.killbill.billing.usage.api.UsageRecord;
+import org.killbill.billing.usage.dao.RolledUpUsageDailyModelDao;
 import org.killbill.billing.usage.dao.RolledUpUsageDao;
 import org.killbill.billing.usage.dao.RolledUpUsageModelDao;
 import org.killbill.billing.usage.plugin.api.UsageContext;
 import org.killbill.billing.usage.plugin.api.UsagePluginApi;
+import org.killbill.billing.util.UUIDs;
 import org.killbill.billing.util.callcontext.InternalCallContextFactory;
 import org.killbill.billing.util.callcontext.TenantContext;
+import org.killbill.clock.ClockUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -65,14 +89,7 @@ public class DefaultInternalUserApi extends BaseUserApi implements InternalUserA
 
         log.info("GetRawUsageForAccount startDate='{}', endDate='{}'", startDate, endDate);
 
-        final TenantContext tenantContext = internalCallContextFactory.createTenantContext(internalTenantContext);
-
-        final DryRunType dryRunType = dryRunInfo != null ? dryRunInfo.getDryRunType() : null;
-        final LocalDate inputTargetDate = dryRunInfo != null ? dryRunInfo.getInputTargetDate() : null;
-
-        final UsageContext usageContext = new DefaultUsageContext(dryRunType, inputTargetDate, tenantContext);
-
-        final List<RawUsageRecord> resultFromPlugin = getAccountUsageFromPlugin(startDate, endDate, pluginProperties, usageContext);
+        final List<RawUsageRecord> resultFromPlugin = getAccountUsageFromPlugin(startDate, endDate, pluginProperties, createUsageContext(dryRunInfo, internalTenantContext));
         if (resultFromPlugin != null) {
             return resultFromPlugin;
         }
@@ -83,4 +100,263 @@ public class DefaultInternalUserApi extends BaseUserApi implements InternalUserA
                 .collect(Collectors.toUnmodifiableList());
     }
 
+    @Override
+    public List<RawUsageRecord> getRolledUpUsageForAccount(final DateTime startDate, final DateTime endDate, final Iterable<DateTime> splitDates, final Set<String> capacityUnitTypes, final InvoicedTrackingIds invoicedTrackingIds, @Nullable final DryRunInfo dryRunInfo, final Iterable<PluginProperty> pluginProperties, final InternalTenantContext internalTenantContext) {
+
+        log.info("GetRolledUpUsageForAccount startDate='{}', endDate='{}'", startDate, endDate);
+
+        final List<RawUsageRecord> resultFromPlugin = getAccountUsageFromPlugin(startDate, endDate, pluginProperties, createUsageContext(dryRunInfo, internalTenantContext));
+        if (resultFromPlugin != null) {
+            return resultFromPlugin;
+        }
+
+        // Buckets straddling the query bounds need to be filtered point by point as well
+        final List<DateTime> allSplitDates = new ArrayList<>();
+        allSplitDates.add(startDate);
+        allSplitDates.add(endDate);
+        splitDates.forEach(allSplitDates::add);
+
+        final List<RolledUpUsageDailyModelDao> splitBuckets = new ArrayList<>();
+        final Map<DailyUsageKey, List<RolledUpUsageDailyModelDao>> bucketsPerLocalDate = new LinkedHashMap<>();
+        for (final RolledUpUsageDailyModelDao bucket : rolledUpUsageDao.getRolledUpUsageDailyForAccount(startDate, endDate, internalTenantContext)) {
+            if (!bucket.isSinglePoint() && isSplit(bucket, allSplitDates, internalTenantContext)) {
+                splitBuckets.add(bucket);
+            } else {
+                final DailyUsageKey key = new DailyUsageKey(bucket.getSubscriptionId(), bucket.getUnitType(), invoicedTrackingIds.toLocalDate(bucket.getStartRecordDate()));
+                bucketsPerLocalDate.computeIfAbsent(key, k -> new ArrayList<>()).add(bucket);
+            }
+        }
+
+        final List<RawUsageRecord> result = new ArrayList<>();
+        final List<RolledUpUsageDailyModelDao> rawBuckets = new ArrayList<>(splitBuckets);
+        final LocalDate startLocalDate = invoicedTrackingIds.toLocalDate(startDate);
+        final LocalDate endLocalDate = invoicedTrackingIds.toLocalDate(endDate);
+        for (final Entry<DailyUsageKey, List<RolledUpUsageDailyModelDao>> entry : bucketsPerLocalDate.entrySet()) {
+            final DailyUsageKey key = entry.getKey();
+            final List<RolledUpUsageDailyModelDao> buckets = entry.getValue();
+            if (isPartiallySplit(key, splitBuckets, invoicedTrackingIds) || !isTrackingExact(key, buckets, startLocalDate, endLocalDate, invoicedTrackingIds)) {
+                rawBuckets.addAll(buckets);
+                continue;
+            }
+            for (final RolledUpUsageDailyModelDao bucket : buckets) {
+                final BigDecimal amount = capacityUnitTypes.contains(bucket.getUnitType()) ? bucket.getMaxAmount() : bucket.getAmount();
+                result.add(new DefaultRawUsage(bucket.getSubscriptionId(), bucket.getStartRecordDate(), bucket.getUnitType(), amount, bucket.getTrackingId()));
+            }
+        }
+        result.addAll(getRawUsage(rawBuckets, startDate, endDate, internalTenantContext));
+
+        // Stable sort, to keep the insertion ordering for points recorded at the same time
+        result.sort(Comparator.comparing(RawUsageRecord::getDate));
+        return result;
+    }
+
+    //
+    // The buckets of a local date can be used as single points if they hold a single tracking id each, or if all their tracking ids
+    // have already been invoiced (the invoice code only records the new ones). Tracking ids being unique per subscription, nbTrackingIds
+    // is the number of recordings of each bucket: if their sum matches the number of invoiced tracking ids, all have been invoiced.
+    // This requires all the buckets of that local date to be known, i.e. none of them to fall outside of the query bounds.
+    //
+    private boolean isTrackingExact(final DailyUsageKey key, final Collection<RolledUpUsageDailyModelDao> buckets, final LocalDate startLocalDate, final LocalDate endLocalDate, final InvoicedTrackingIds invoicedTrackingIds) {
+        int nbTrackingIds = 0;
+        for (final RolledUpUsageDailyModelDao bucket : buckets) {
+            nbTrackingIds += bucket.getNbTrackingIds();
+        }
+        if (nbTrackingIds == buckets.size()) {
+            return true;
+        }
+        return !key.localDate.equals(startLocalDate) &&
+               !key.localDate.equals(endLocalDate) &&
+               invoicedTrackingIds.getNbTrackingIds(key.subscriptionId, key.unitType, key.localDate) == nbTrackingIds;
+    }
+
+    // Whether some points of that local date are read from the raw usage (the other buckets of that day are then read the same way)
+    private boolean isPartiallySplit(final DailyUsageKey key, final Iterable<RolledUpUsageDailyModelDao> splitBuckets, final InvoicedTrackingIds invoicedTrackingIds) {
+        for (final RolledUpUsageDailyModelDao splitBucket : splitBuckets) {
+            if (splitBucket.getSubscriptionId().equals(key.subscriptionId) &&
+                splitBucket.getUnitType().equals(key.unitType) &&
+                !invoicedTrackingIds.toLocalDate(splitBucket.getStartRecordDate()).isAfter(key.localDate) &&
+                !invoicedTrackingIds.toLocalDate(splitBucket.getEndRecordDate()).isBefore(key.localDate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Read back the raw points of these buckets, with one query per range of (nearly) contiguous buckets
+    private List<RawUsageRecord> getRawUsage(final List<RolledUpUsageDailyModelDao> rawBuckets, final DateTime startDate, final DateTime endDate, final InternalTenantContext internalTenantContext) {
+        final List<RawUsageRecord> result = new ArrayList<>();
+        if (rawBuckets.isEmpty()) {
+            return result;
+        }
+
+        final Map<String, List<RolledUpUsageDailyModelDao>> rawBucketsPerUnit = new HashMap<>();
+        for (final RolledUpUsageDailyModelDao bucket : rawBuckets) {
+            rawBucketsPerUnit.computeIfAbsent(toUnitKey(bucket.getSubscriptionId(), bucket.getUnitType()), k -> new ArrayList<>()).add(bucket);
+        }
+
+        rawBuckets.sort(Comparator.comparing(RolledUpUsageDailyModelDao::getStartRecordDate));
+        DateTime rangeStart = null;
+        DateTime rangeEnd = null;
+        for (final RolledUpUsageDailyModelDao bucket : rawBuckets) {
+            final DateTime bucketStart = bucket.getStartRecordDate().isBefore(startDate) ? startDate : bucket.getStartRecordDate();
+            final DateTime bucketEnd = bucket.getEndRecordDate().isAfter(endDate) ? endDate : bucket.getEndRecordDate();
+            if (rangeStart != null && bucketStart.isAfter(rangeEnd.plusDays(1))) {
+                addRawUsage(rangeStart, rangeEnd, rawBucketsPerUnit, result, internalTenantContext);
+                rangeStart = null;
+            }
+            if (rangeStart == null) {
+                rangeStart = bucketStart;
+                rangeEnd = bucketEnd;
+            } else if (bucketEnd.isAfter(rangeEnd)) {
+                rangeEnd = bucketEnd;
+            }
+        }
+        addRawUsage(rangeStart, rangeEnd, rawBucketsPerUnit, result, internalTenantContext);
+        return result;
+    }
+
+    private void addRawUsage(final DateTime rangeStart, final DateTime rangeEnd, final Map<String, List<RolledUpUsageDailyModelDao>> rawBucketsPerUnit, final Collection<RawUsageRecord> result, final InternalTenantContext internalTenantContext) {
+        for (final RolledUpUsageModelDao usage : rolledUpUsageDao.getRawUsageForAccount(rangeStart, rangeEnd, internalTenantContext)) {
+            for (final RolledUpUsageDailyModelDao bucket : rawBucketsPerUnit.getOrDefault(toUnitKey(usage.getSubscriptionId(), usage.getUnitType()), Collections.emptyList())) {
+                if (usage.getRecordDate().compareTo(bucket.getStartRecordDate()) >= 0 &&
+                    usage.getRecordDate().compareTo(bucket.getEndRecordDate()) <= 0) {
+                    result.add(new DefaultRawUsage(usage.getSubscriptionId(), usage.getRecordDate(), usage.getUnitType(), usage.getAmount(), usage.getTrackingId()));
+                    break;
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<SubscriptionUsageRecordResult> recordRolledUpUsage(final List<SubscriptionUsageRecord> records, final InternalCallContext tenantContext) {
+        final SubscriptionUsageRecordResult[] results = new SubscriptionUsageRecordResult[records.size()];
+
+        // Tracking ids need to be unique per subscription: check them all at once against the existing records
+        final Set<String> requestedTrackingIds = records.stream()
+                                                        .map(SubscriptionUsageRecord::getTrackingId)
+                                                        .filter(trackingId -> trackingId != null && !trackingId.isEmpty())
+                                                        .collect(Collectors.toSet());
+        final Set<String> usedTrackingIds = new HashSet<>();
+        if (!requestedTrackingIds.isEmpty()) {
+            for (final RolledUpUsageModelDao existing : rolledUpUsageDao.getUsageWithTrackingIds(requestedTrackingIds, tenantContext)) {
+                usedTrackingIds.add(toTrackingKey(existing.getSubscriptionId(), existing.getTrackingId()));
+            }
+        }
+
+        // Resolve the accounts of all the subscriptions at once (cached lookups), and group the usage per account to batch the inserts
+        final Set<UUID> subscriptionIds = records.stream().map(SubscriptionUsageRecord::getSubscriptionId).collect(Collectors.toSet());
+        final Map<UUID, Long> accountRecordIds = internalCallContextFactory.getAccountRecordIds(subscriptionIds, ObjectType.SUBSCRIPTION, tenantContext);
+        final Map<Long, InternalCallContext> contextPerAccount = new LinkedHashMap<>();
+        final Map<Long, List<RolledUpUsageModelDao>> usagesPerAccount = new HashMap<>();
+        final Map<Long, List<Integer>> recordIndexesPerAccount = new HashMap<>();
+        for (int i = 0; i < records.size(); i++) {
+            final SubscriptionUsageRecord record = records.get(i);
+            final UUID subscriptionId = record.getSubscriptionId();
+            final boolean hasTrackingId = record.getTrackingId() != null && !record.getTrackingId().isEmpty();
+            final String trackingId = hasTrackingId ? record.getTrackingId() : UUIDs.randomUUID().toString();
+
+            if (hasTrackingId && !usedTrackingIds.add(toTrackingKey(subscriptionId, trackingId))) {
+                results[i] = SubscriptionUsageRecordResult.rejected(subscriptionId, trackingId, new UsageApiException(ErrorCode.USAGE_RECORD_TRACKING_ID_ALREADY_EXISTS, trackingId).getMessage());
+                continue;
+            }
+
+            final Long accountRecordId = accountRecordIds.get(subscriptionId);
+            if (accountRecordId == null) {
+                results[i] = SubscriptionUsageRecordResult.rejected(subscriptionId, trackingId, new UsageApiException(ErrorCode.SUB_INVALID_SUBSCRIPTION_ID, subscriptionId).getMessage());
+                continue;
+            }
+            final InternalCallContext context = contextPerAccount.computeIfAbsent(accountRecordId, k -> internalCallContextFactory.createInternalCallContext(k, tenantContext));
+
+            final List<RolledUpUsageModelDao> usages = usagesPerAccount.computeIfAbsent(context.getAccountRecordId(), k -> new ArrayList<>());
+            for (final UnitUsageRecord unitUsageRecord : record.getUnitUsageRecord()) {
+                for (final UsageRecord usageRecord : unitUsageRecord.getDailyAmount()) {
+                    usages.add(new RolledUpUsageModelDao(subscriptionId, unitUsageRecord.getUnitType(), usageRecord.getDate(), usageRecord.getAmount(), trackingId));
+                }
+            }
+            recordIndexesPerAccount.computeIfAbsent(context.getAccountRecordId(), k -> new ArrayList<>()).add(i);
+            results[i] = SubscriptionUsageRecordResult.accepted(subscriptionId, trackingId);
+        }
+
+        for (final Entry<Long, InternalCallContext> entry : contextPerAccount.entrySet()) {
+            final Long accountRecordId = entry.getKey();
+            try {
+                rolledUpUsageDao.record(usagesPerAccount.get(accountRecordId), entry.getValue());
+            } catch (final RuntimeException e) {
+                log.warn("Failed to record usage for accountRecordId='{}'", accountRecordId, e);
+                for (final Integer i : recordIndexesPerAccount.get(accountRecordId)) {
+                    results[i] = SubscriptionUsageRecordResult.rejected(results[i].getSubscriptionId(), results[i].getTrackingId(), e.getMessage());
+                }
+            }
+        }
+
+        return List.of(results);
+    }
+
+    private static String toTrackingKey(final UUID subscriptionId, final String trackingId) {
+        return subscriptionId + "/" + trackingId;
+    }
+
+    private static String toUnitKey(final UUID subscriptionId, final String unitType) {
+        return subscriptionId + "/" + unitType;
+    }
+
+    //
+    // A bucket can only be used as a single point if no split date falls within its points, and if all its points map to the same
+    // local date (which is what the invoice code relies on to compute the billing intervals and the tracking ids)
+    //
+    private boolean isSplit(final RolledUpUsageDailyModelDao bucket, final Iterable<DateTime> splitDates, final InternalTenantContext internalTenantContext) {
+        for (final DateTime splitDate : splitDates) {
+            if (splitDate.compareTo(bucket.getStartRecordDate()) >= 0 && splitDate.compareTo(bucket.getEndRecordDate()) <= 0) {
+                return true;
+            }
+        }
+        return spansMultipleLocalDates(bucket, internalTenantContext.getFixedOffsetTimeZone()) ||
+               spansMultipleLocalDates(bucket, internalTenantContext.getAccountTimeZone());
+    }
+
+    private boolean spansMultipleLocalDates(final RolledUpUsageDailyModelDao bucket, @Nullable final DateTimeZone timeZone) {
+        return timeZone != null &&
+               !ClockUtil.toLocalDate(bucket.getStartRecordDate(), timeZone).equals(ClockUtil.toLocalDate(bucket.getEndRecordDate(), timeZone));
+    }
+
+    private UsageContext createUsageContext(@Nullable final DryRunInfo dryRunInfo, final InternalTenantContext internalTenantContext) {
+        final TenantContext tenantContext = internalCallContextFactory.createTenantContext(internalTenantContext);
+
+        final DryRunType dryRunType = dryRunInfo != null ? dryRunInfo.getDryRunType() : null;
+        final LocalDate inputTargetDate = dryRunInfo != null ? dryRunInfo.getInputTargetDate() : null;
+
+        return new DefaultUsageContext(dryRunType, inputTargetDate, tenantContext);
+    }
+
+    private static final class DailyUsageKey {
+
+        private final UUID subscriptionId;
+        private final String unitType;
+        private final LocalDate localDate;
+
+        private DailyUsageKey(final UUID subscriptionId, final String unitType, final LocalDate localDate) {
+            this.subscriptionId = subscriptionId;
+            this.unitType = unitType;
+            this.localDate = localDate;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final DailyUsageKey that = (DailyUsageKey) o;
+            return subscriptionId.equals(that.subscriptionId) &&
+                   unitType.equals(that.unitType) &&
+                   localDate.equals(that.localDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(subscriptionId, unitType, localDate);
+        }
+    }
 }
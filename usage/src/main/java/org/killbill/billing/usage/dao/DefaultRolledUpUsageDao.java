@@ -18,33 +18,88 @@
 
 package org.killbill.billing.usage.dao;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 import javax.inject.Named;
 
 import org.joda.time.DateTime;
-import org.joda.time.LocalDate;
+import org.joda.time.DateTimeZone;
 import org.killbill.billing.callcontext.InternalCallContext;
 import org.killbill.billing.callcontext.InternalTenantContext;
+import org.killbill.billing.util.cache.CacheControllerDispatcher;
+import org.killbill.billing.util.callcontext.InternalCallContextFactory;
+import org.killbill.billing.util.dao.NonEntityDao;
 import org.killbill.billing.util.entity.dao.DBRouter;
+import org.killbill.billing.util.entity.dao.EntitySqlDaoTransactionWrapper;
+import org.killbill.billing.util.entity.dao.EntitySqlDaoTransactionalJdbiWrapper;
+import org.killbill.billing.util.entity.dao.EntitySqlDaoWrapperFactory;
+import org.killbill.clock.Clock;
+import org.skife.jdbi.v2.Handle;
 import org.skife.jdbi.v2.IDBI;
+import org.skife.jdbi.v2.sqlobject.SqlObjectBuilder;
 
 import static org.killbill.billing.util.glue.IDBISetup.MAIN_RO_IDBI_NAMED;
 
 public class DefaultRolledUpUsageDao implements RolledUpUsageDao {
 
+    private static final int MAX_IDS_PER_QUERY = 1000;
+
+    private final EntitySqlDaoTransactionalJdbiWrapper transactionalSqlDao;
     private final DBRouter<RolledUpUsageSqlDao> dbRouter;
+    private final DBRouter<RolledUpUsageDailySqlDao> dailyDbRouter;
 
     @Inject
-    public DefaultRolledUpUsageDao(final IDBI dbi, @Named(MAIN_RO_IDBI_NAMED) final IDBI roDbi) {
+    public DefaultRolledUpUsageDao(final IDBI dbi, @Named(MAIN_RO_IDBI_NAMED) final IDBI roDbi, final Clock clock, final CacheControllerDispatcher cacheControllerDispatcher,
+                                   final NonEntityDao nonEntityDao, final InternalCallContextFactory internalCallContextFactory) {
+        this.transactionalSqlDao = new EntitySqlDaoTransactionalJdbiWrapper(dbi, roDbi, clock, cacheControllerDispatcher, nonEntityDao, internalCallContextFactory);
         this.dbRouter = new DBRouter<RolledUpUsageSqlDao>(dbi, roDbi, RolledUpUsageSqlDao.class);
+        this.dailyDbRouter = new DBRouter<RolledUpUsageDailySqlDao>(dbi, roDbi, RolledUpUsageDailySqlDao.class);
     }
 
     @Override
     public void record(final Iterable<RolledUpUsageModelDao> usages, final InternalCallContext context) {
-        dbRouter.onDemand(false).create(usages, context);
+        final Map<DailyKey, RolledUpUsageDailyModelDao> dailyUsages = rollupPerDay(usages);
+        transactionalSqlDao.execute(false, new EntitySqlDaoTransactionWrapper<Void>() {
+            @Override
+            public Void inTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory) {
+                // The usage tables are neither audited nor historized: bypass the EntitySqlDao wrapper
+                final Handle handle = entitySqlDaoWrapperFactory.getHandle();
+                SqlObjectBuilder.attach(handle, RolledUpUsageSqlDao.class).create(usages, context);
+
+                // Add the new points to the existing buckets of these days, if any
+                final RolledUpUsageDailySqlDao dailySqlDao = SqlObjectBuilder.attach(handle, RolledUpUsageDailySqlDao.class);
+                final Map<DailyKey, RolledUpUsageDailyModelDao> existingDailyUsages = getExistingDailyUsages(dailySqlDao, dailyUsages.keySet(), context);
+                final List<RolledUpUsageDailyModelDao> newDailyUsages = new ArrayList<>();
+                final List<RolledUpUsageDailyModelDao> updatedDailyUsages = new ArrayList<>();
+                for (final Map.Entry<DailyKey, RolledUpUsageDailyModelDao> entry : dailyUsages.entrySet()) {
+                    final RolledUpUsageDailyModelDao existingDailyUsage = existingDailyUsages.get(entry.getKey());
+                    if (existingDailyUsage == null) {
+                        newDailyUsages.add(entry.getValue());
+                    } else {
+                        entry.getValue().setId(existingDailyUsage.getId());
+                        updatedDailyUsages.add(entry.getValue());
+                    }
+                }
+                if (!newDailyUsages.isEmpty()) {
+                    dailySqlDao.create(newDailyUsages, context);
+                }
+                if (!updatedDailyUsages.isEmpty()) {
+                    dailySqlDao.addToRolledUpUsage(updatedDailyUsages, context);
+                }
+                return null;
+            }
+        });
     }
 
     @Override
@@ -52,6 +107,18 @@ public class DefaultRolledUpUsageDao implements RolledUpUsageDao {
         return dbRouter.onDemand(false).recordsWithTrackingIdExist(subscriptionId, trackingId, context) != null;
     }
 
+    @Override
+    public List<RolledUpUsageModelDao> getUsageWithTrackingIds(final Collection<String> trackingIds, final InternalTenantContext context) {
+        final List<RolledUpUsageModelDao> result = new ArrayList<>();
+        // Keep the IN clauses to a reasonable size
+        final List<String> allTrackingIds = new ArrayList<>(trackingIds);
+        for (int i = 0; i < allTrackingIds.size(); i += MAX_IDS_PER_QUERY) {
+            final List<String> chunk = allTrackingIds.subList(i, Math.min(i + MAX_IDS_PER_QUERY, allTrackingIds.size()));
+            result.addAll(dbRouter.onDemand(false).getUsageWithTrackingIds(chunk, context));
+        }
+        return result;
+    }
+
     @Override
     public List<RolledUpUsageModelDao> getUsageForSubscription(final UUID subscriptionId, final DateTime startDate, final DateTime endDate, final String unitType, final InternalTenantContext context) {
         return dbRouter.onDemand(true).getUsageForSubscription(subscriptionId, startDate.toDate(), endDate.toDate(), unitType, context);
@@ -67,4 +134,84 @@ public class DefaultRolledUpUsageDao implements RolledUpUsageDao {
     public List<RolledUpUsageModelDao> getRawUsageForAccount(final DateTime startDate, final DateTime endDate, final InternalTenantContext context) {
         return dbRouter.onDemand(true).getRawUsageForAccount(startDate.toDate(), endDate.toDate(), context);
     }
+
+    @Override
+    public List<RolledUpUsageDailyModelDao> getRolledUpUsageDailyForAccount(final DateTime startDate, final DateTime endDate, final InternalTenantContext context) {
+        return dailyDbRouter.onDemand(true).getRolledUpUsageForAccount(startDate.minusDays(1).toDate(), startDate.toDate(), endDate.toDate(), context);
+    }
+
+    // One bucket per subscription, unit type and (UTC) day
+    private Map<DailyKey, RolledUpUsageDailyModelDao> rollupPerDay(final Iterable<RolledUpUsageModelDao> usages) {
+        final Map<DailyKey, RolledUpUsageDailyModelDao> buckets = new LinkedHashMap<>();
+        final Map<DailyKey, Set<String>> trackingIdsPerBucket = new HashMap<>();
+        for (final RolledUpUsageModelDao usage : usages) {
+            final DailyKey key = new DailyKey(usage.getSubscriptionId(), usage.getUnitType(), usage.getRecordDate());
+            final RolledUpUsageDailyModelDao bucket = buckets.get(key);
+            if (bucket == null) {
+                buckets.put(key, new RolledUpUsageDailyModelDao(usage));
+            } else {
+                bucket.add(usage);
+            }
+            trackingIdsPerBucket.computeIfAbsent(key, k -> new HashSet<>()).add(usage.getTrackingId());
+        }
+        for (final Map.Entry<DailyKey, RolledUpUsageDailyModelDao> entry : buckets.entrySet()) {
+            entry.getValue().setNbTrackingIds(trackingIdsPerBucket.get(entry.getKey()).size());
+        }
+        return buckets;
+    }
+
+    // Concurrent recordings for the same day may have created several buckets: the first one is updated (readers handle them all)
+    private Map<DailyKey, RolledUpUsageDailyModelDao> getExistingDailyUsages(final RolledUpUsageDailySqlDao dailySqlDao, final Collection<DailyKey> keys, final InternalTenantContext context) {
+        final Map<DailyKey, RolledUpUsageDailyModelDao> result = new HashMap<>();
+        if (keys.isEmpty()) {
+            return result;
+        }
+
+        DateTime startDate = null;
+        DateTime endDate = null;
+        for (final DailyKey key : keys) {
+            startDate = startDate == null || key.day.isBefore(startDate) ? key.day : startDate;
+            endDate = endDate == null || key.day.isAfter(endDate) ? key.day : endDate;
+        }
+        final List<String> subscriptionIds = keys.stream().map(key -> key.subscriptionId.toString()).distinct().collect(Collectors.toList());
+        for (int i = 0; i < subscriptionIds.size(); i += MAX_IDS_PER_QUERY) {
+            final List<String> chunk = subscriptionIds.subList(i, Math.min(i + MAX_IDS_PER_QUERY, subscriptionIds.size()));
+            for (final RolledUpUsageDailyModelDao existing : dailySqlDao.getRolledUpUsageForSubscriptions(chunk, startDate.toDate(), endDate.plusDays(1).toDate(), context)) {
+                result.putIfAbsent(new DailyKey(existing.getSubscriptionId(), existing.getUnitType(), existing.getStartRecordDate()), existing);
+            }
+        }
+        return result;
+    }
+
+    private static final class DailyKey {
+
+        private final UUID subscriptionId;
+        private final String unitType;
+        private final DateTime day;
+
+        private DailyKey(final UUID subscriptionId, final String unitType, final DateTime recordDate) {
+            this.subscriptionId = subscriptionId;
+            this.unitType = unitType;
+            this.day = recordDate.toDateTime(DateTimeZone.UTC).withTimeAtStartOfDay();
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final DailyKey that = (DailyKey) o;
+            return subscriptionId.equals(that.subscriptionId) &&
+                   unitType.equals(that.unitType) &&
+                   day.equals(that.day);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(subscriptionId, unitType, day);
+        }
+    }
 }
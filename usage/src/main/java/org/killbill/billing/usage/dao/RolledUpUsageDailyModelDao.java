@@ -0,0 +1,213 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.usage.dao;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+import java.util.UUID;
+
+import org.joda.time.DateTime;
+import org.killbill.billing.util.UUIDs;
+import org.killbill.billing.util.dao.TableName;
+import org.killbill.billing.util.entity.Entity;
+import org.killbill.billing.util.entity.dao.EntityModelDao;
+import org.killbill.billing.util.entity.dao.EntityModelDaoBase;
+
+/**
+ * Aggregate of all the rolled_up_usage rows sharing the same subscription and unit type on a given (UTC) day, across recording calls.
+ * The first and last record dates of the bucket are kept so readers can tell whether the bucket can be used as a single point.
+ * Both the sum and the max of the amounts are kept, since CAPACITY usage is aggregated with the max and CONSUMABLE usage with the sum.
+ * The tracking id is the one of the first recording: since tracking ids are unique per subscription, nbTrackingIds is the number
+ * of recordings which contributed to the bucket.
+ */
+public class RolledUpUsageDailyModelDao extends EntityModelDaoBase implements EntityModelDao<Entity> {
+
+    private UUID subscriptionId;
+    private String unitType;
+    private DateTime startRecordDate;
+    private DateTime endRecordDate;
+    private BigDecimal amount;
+    private BigDecimal maxAmount;
+    private Integer nbRecords;
+    private Integer nbTrackingIds;
+    private String trackingId;
+
+    public RolledUpUsageDailyModelDao() { /* For the DAO mapper */ }
+
+    public RolledUpUsageDailyModelDao(final UUID id, final DateTime createdDate, final DateTime updatedDate, final UUID subscriptionId, final String unitType,
+                                      final DateTime startRecordDate, final DateTime endRecordDate, final BigDecimal amount, final BigDecimal maxAmount, final Integer nbRecords,
+                                      final Integer nbTrackingIds, final String trackingId) {
+        super(id, createdDate, updatedDate);
+        this.subscriptionId = subscriptionId;
+        this.unitType = unitType;
+        this.startRecordDate = startRecordDate;
+        this.endRecordDate = endRecordDate;
+        this.amount = amount;
+        this.maxAmount = maxAmount;
+        this.nbRecords = nbRecords;
+        this.nbTrackingIds = nbTrackingIds;
+        this.trackingId = trackingId;
+    }
+
+    public RolledUpUsageDailyModelDao(final RolledUpUsageModelDao rolledUpUsage) {
+        this(UUIDs.randomUUID(), null, null, rolledUpUsage.getSubscriptionId(), rolledUpUsage.getUnitType(),
+             rolledUpUsage.getRecordDate(), rolledUpUsage.getRecordDate(), rolledUpUsage.getAmount(), rolledUpUsage.getAmount(), 1, 1, rolledUpUsage.getTrackingId());
+    }
+
+    public void add(final RolledUpUsageModelDao rolledUpUsage) {
+        if (rolledUpUsage.getRecordDate().compareTo(startRecordDate) < 0) {
+            startRecordDate = rolledUpUsage.getRecordDate();
+        }
+        if (rolledUpUsage.getRecordDate().compareTo(endRecordDate) > 0) {
+            endRecordDate = rolledUpUsage.getRecordDate();
+        }
+        amount = amount.add(rolledUpUsage.getAmount());
+        maxAmount = maxAmount.max(rolledUpUsage.getAmount());
+        nbRecords = nbRecords + 1;
+    }
+
+    public boolean isSinglePoint() {
+        return startRecordDate.compareTo(endRecordDate) == 0;
+    }
+
+    public UUID getSubscriptionId() {
+        return subscriptionId;
+    }
+
+    public void setSubscriptionId(final UUID subscriptionId) {
+        this.subscriptionId = subscriptionId;
+    }
+
+    public String getUnitType() {
+        return unitType;
+    }
+
+    public void setUnitType(final String unitType) {
+        this.unitType = unitType;
+    }
+
+    public DateTime getStartRecordDate() {
+        return startRecordDate;
+    }
+
+    public void setStartRecordDate(final DateTime startRecordDate) {
+        this.startRecordDate = startRecordDate;
+    }
+
+    public DateTime getEndRecordDate() {
+        return endRecordDate;
+    }
+
+    public void setEndRecordDate(final DateTime endRecordDate) {
+        this.endRecordDate = endRecordDate;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(final BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public BigDecimal getMaxAmount() {
+        return maxAmount;
+    }
+
+    public void setMaxAmount(final BigDecimal maxAmount) {
+        this.maxAmount = maxAmount;
+    }
+
+    public Integer getNbRecords() {
+        return nbRecords;
+    }
+
+    public void setNbRecords(final Integer nbRecords) {
+        this.nbRecords = nbRecords;
+    }
+
+    public Integer getNbTrackingIds() {
+        return nbTrackingIds;
+    }
+
+    public void setNbTrackingIds(final Integer nbTrackingIds) {
+        this.nbTrackingIds = nbTrackingIds;
+    }
+
+    public String getTrackingId() {
+        return trackingId;
+    }
+
+    public void setTrackingId(final String trackingId) {
+        this.trackingId = trackingId;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("RolledUpUsageDailyModelDao");
+        sb.append("{id=").append(id);
+        sb.append(", subscriptionId=").append(subscriptionId);
+        sb.append(", unitType='").append(unitType).append('\'');
+        sb.append(", startRecordDate=").append(startRecordDate);
+        sb.append(", endRecordDate=").append(endRecordDate);
+        sb.append(", amount=").append(amount);
+        sb.append(", maxAmount=").append(maxAmount);
+        sb.append(", nbRecords=").append(nbRecords);
+        sb.append(", nbTrackingIds=").append(nbTrackingIds);
+        sb.append(", trackingId=").append(trackingId);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final RolledUpUsageDailyModelDao that = (RolledUpUsageDailyModelDao) o;
+        return Objects.equals(id, that.id) &&
+               Objects.equals(subscriptionId, that.subscriptionId) &&
+               Objects.equals(unitType, that.unitType) &&
+               Objects.equals(startRecordDate, that.startRecordDate) &&
+               Objects.equals(endRecordDate, that.endRecordDate) &&
+               Objects.equals(amount, that.amount) &&
+               Objects.equals(maxAmount, that.maxAmount) &&
+               Objects.equals(nbRecords, that.nbRecords) &&
+               Objects.equals(nbTrackingIds, that.nbTrackingIds) &&
+               Objects.equals(trackingId, that.trackingId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, subscriptionId, unitType, startRecordDate, endRecordDate, amount, maxAmount, nbRecords, nbTrackingIds, trackingId);
+    }
+
+    @Override
+    public TableName getTableName() {
+        return TableName.ROLLED_UP_USAGE_DAILY;
+    }
+
+    @Override
+    public TableName getHistoryTableName() {
+        return null;
+    }
+}
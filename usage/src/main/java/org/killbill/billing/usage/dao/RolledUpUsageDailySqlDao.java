@@ -0,0 +1,55 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.usage.dao;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import org.killbill.billing.callcontext.InternalCallContext;
+import org.killbill.billing.callcontext.InternalTenantContext;
+import org.killbill.billing.util.entity.Entity;
+import org.killbill.billing.util.entity.dao.EntitySqlDao;
+import org.killbill.commons.jdbi.binder.SmartBindBean;
+import org.killbill.commons.jdbi.template.KillBillSqlDaoStringTemplate;
+import org.skife.jdbi.v2.sqlobject.Bind;
+import org.skife.jdbi.v2.sqlobject.SqlBatch;
+import org.skife.jdbi.v2.sqlobject.SqlQuery;
+import org.skife.jdbi.v2.sqlobject.customizers.BatchChunkSize;
+import org.skife.jdbi.v2.unstable.BindIn;
+
+@KillBillSqlDaoStringTemplate
+public interface RolledUpUsageDailySqlDao extends EntitySqlDao<RolledUpUsageDailyModelDao, Entity> {
+
+    @SqlQuery
+    List<RolledUpUsageDailyModelDao> getRolledUpUsageForSubscriptions(@BindIn("subscriptionIds") final Collection<String> subscriptionIds,
+                                                                      @Bind("startDate") final Date startDate,
+                                                                      @Bind("endDate") final Date endDate,
+                                                                      @SmartBindBean final InternalTenantContext context);
+
+    @SqlBatch
+    @BatchChunkSize(1000)
+    void addToRolledUpUsage(@SmartBindBean final Iterable<RolledUpUsageDailyModelDao> dailyUsages,
+                            @SmartBindBean final InternalCallContext context);
+
+    @SqlQuery
+    List<RolledUpUsageDailyModelDao> getRolledUpUsageForAccount(@Bind("minStartDate") final Date minStartDate,
+                                                                @Bind("startDate") final Date startDate,
+                                                                @Bind("endDate") final Date endDate,
+                                                                @SmartBindBean final InternalTenantContext context);
+}
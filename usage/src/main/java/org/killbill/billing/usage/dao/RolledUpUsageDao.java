@@ -16,6 +16,7 @@
 
 package org.killbill.billing.usage.dao;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -29,9 +30,14 @@ public interface RolledUpUsageDao {
 
     Boolean recordsWithTrackingIdExist(UUID subscriptionId, String trackingId, InternalTenantContext context);
 
+    // Distinct (subscriptionId, trackingId) pairs already recorded for these tracking ids
+    List<RolledUpUsageModelDao> getUsageWithTrackingIds(Collection<String> trackingIds, InternalTenantContext context);
+
     List<RolledUpUsageModelDao> getUsageForSubscription(UUID subscriptionId, DateTime startDate, DateTime endDate, String unitType, InternalTenantContext context);
 
     List<RolledUpUsageModelDao> getAllUsageForSubscription(UUID subscriptionId, DateTime startDate, DateTime endDate, InternalTenantContext context);
 
     List<RolledUpUsageModelDao> getRawUsageForAccount(DateTime startDate, DateTime endDate, InternalTenantContext context);
+
+    List<RolledUpUsageDailyModelDao> getRolledUpUsageDailyForAccount(DateTime startDate, DateTime endDate, InternalTenantContext context);
 }
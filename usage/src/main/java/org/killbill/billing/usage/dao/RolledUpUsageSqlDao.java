@@ -18,6 +18,7 @@
 
 package org.killbill.billing.usage.dao;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
@@ -29,6 +30,7 @@ import org.killbill.commons.jdbi.binder.SmartBindBean;
 import org.killbill.commons.jdbi.template.KillBillSqlDaoStringTemplate;
 import org.skife.jdbi.v2.sqlobject.Bind;
 import org.skife.jdbi.v2.sqlobject.SqlQuery;
+import org.skife.jdbi.v2.unstable.BindIn;
 
 @KillBillSqlDaoStringTemplate
 public interface RolledUpUsageSqlDao extends EntitySqlDao<RolledUpUsageModelDao, Entity> {
@@ -38,6 +40,10 @@ public interface RolledUpUsageSqlDao extends EntitySqlDao<RolledUpUsageModelDao,
                                     @Bind("trackingId") final String trackingId,
                                     @SmartBindBean final InternalTenantContext context);
 
+    @SqlQuery
+    List<RolledUpUsageModelDao> getUsageWithTrackingIds(@BindIn("trackingIds") final Collection<String> trackingIds,
+                                                        @SmartBindBean final InternalTenantContext context);
+
     @SqlQuery
     List<RolledUpUsageModelDao> getUsageForSubscription(@Bind("subscriptionId") final UUID subscriptionId,
                                                         @Bind("startDate") final Date startDate,
@@ -18,5 +18,30 @@ CREATE TABLE rolled_up_usage (
 CREATE UNIQUE INDEX rolled_up_usage_id ON rolled_up_usage(id);
 CREATE INDEX rolled_up_usage_subscription_id ON rolled_up_usage(subscription_id ASC);
 CREATE INDEX rolled_up_usage_tenant_account_record_id ON rolled_up_usage(tenant_record_id, account_record_id);
+CREATE INDEX rolled_up_usage_tenant_record_id_record_id ON rolled_up_usage(tenant_record_id, record_id);
 CREATE INDEX rolled_up_usage_account_record_id ON rolled_up_usage(account_record_id);
 CREATE INDEX rolled_up_usage_tracking_id_subscription_id_tenant_record_id ON rolled_up_usage(tracking_id, subscription_id, tenant_record_id);
+
+DROP TABLE IF EXISTS rolled_up_usage_daily;
+CREATE TABLE rolled_up_usage_daily (
+    record_id serial unique,
+    id varchar(36) NOT NULL,
+    subscription_id varchar(36) NOT NULL,
+    unit_type varchar(255) NOT NULL,
+    start_record_date datetime NOT NULL,
+    end_record_date datetime NOT NULL,
+    amount decimal(18, 9) NOT NULL,
+    max_amount decimal(18, 9) NOT NULL,
+    nb_records int NOT NULL,
+    nb_tracking_ids int NOT NULL,
+    tracking_id varchar(128) NOT NULL,
+    created_by varchar(50) NOT NULL,
+    created_date datetime NOT NULL,
+    account_record_id bigint /*! unsigned */ not null,
+    tenant_record_id bigint /*! unsigned */ not null default 0,
+    PRIMARY KEY(record_id)
+) /*! CHARACTER SET utf8 COLLATE utf8_bin */;
+CREATE UNIQUE INDEX rolled_up_usage_daily_id ON rolled_up_usage_daily(id);
+CREATE INDEX rolled_up_usage_daily_subscription_id ON rolled_up_usage_daily(subscription_id ASC);
+CREATE INDEX rolled_up_usage_daily_tenant_account_record_id ON rolled_up_usage_daily(tenant_record_id, account_record_id);
+CREATE INDEX rolled_up_usage_daily_account_record_id_start_record_date ON rolled_up_usage_daily(account_record_id, start_record_date);
@@ -0,0 +1,27 @@
+CREATE TABLE rolled_up_usage_daily (
+    record_id serial unique,
+    id varchar(36) NOT NULL,
+    subscription_id varchar(36) NOT NULL,
+    unit_type varchar(255) NOT NULL,
+    start_record_date datetime NOT NULL,
+    end_record_date datetime NOT NULL,
+    amount decimal(18, 9) NOT NULL,
+    max_amount decimal(18, 9) NOT NULL,
+    nb_records int NOT NULL,
+    nb_tracking_ids int NOT NULL,
+    tracking_id varchar(128) NOT NULL,
+    created_by varchar(50) NOT NULL,
+    created_date datetime NOT NULL,
+    account_record_id bigint /*! unsigned */ not null,
+    tenant_record_id bigint /*! unsigned */ not null default 0,
+    PRIMARY KEY(record_id)
+) /*! CHARACTER SET utf8 COLLATE utf8_bin */;
+CREATE UNIQUE INDEX rolled_up_usage_daily_id ON rolled_up_usage_daily(id);
+CREATE INDEX rolled_up_usage_daily_subscription_id ON rolled_up_usage_daily(subscription_id ASC);
+CREATE INDEX rolled_up_usage_daily_tenant_account_record_id ON rolled_up_usage_daily(tenant_record_id, account_record_id);
+CREATE INDEX rolled_up_usage_daily_account_record_id_start_record_date ON rolled_up_usage_daily(account_record_id, start_record_date);
+
+INSERT INTO rolled_up_usage_daily (id, subscription_id, unit_type, start_record_date, end_record_date, amount, max_amount, nb_records, nb_tracking_ids, tracking_id, created_by, created_date, account_record_id, tenant_record_id)
+SELECT min(id), subscription_id, unit_type, min(record_date), max(record_date), sum(amount), max(amount), count(1), count(distinct tracking_id), min(tracking_id), 'Migration', max(created_date), account_record_id, tenant_record_id
+FROM rolled_up_usage
+GROUP BY tenant_record_id, account_record_id, subscription_id, unit_type, cast(record_date as date);
@@ -0,0 +1 @@
+CREATE INDEX rolled_up_usage_tenant_record_id_record_id ON rolled_up_usage(tenant_record_id, record_id);
@@ -21,6 +21,7 @@ package org.killbill.billing.usage;
 import javax.inject.Inject;
 
 import org.killbill.billing.GuicyKillbillTestSuiteWithEmbeddedDB;
+import org.killbill.billing.usage.InternalUserApi;
 import org.killbill.billing.usage.dao.RolledUpUsageDao;
 import org.killbill.billing.usage.glue.TestUsageModuleWithEmbeddedDB;
 import org.testng.annotations.BeforeClass;
@@ -32,6 +33,8 @@ public class UsageTestSuiteWithEmbeddedDB extends GuicyKillbillTestSuiteWithEmbe
 
     @Inject
     protected RolledUpUsageDao rolledUpUsageDao;
+    @Inject
+    protected InternalUserApi internalUserApi;
 
     @BeforeClass(groups = "slow")
     protected void beforeClass() throws Exception {
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.usage.api.svcs;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import javax.inject.Inject;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.LocalDate;
+import org.killbill.billing.account.api.Account;
+import org.killbill.billing.account.api.AccountUserApi;
+import org.killbill.billing.callcontext.InternalCallContext;
+import org.killbill.billing.catalog.api.Currency;
+import org.killbill.billing.mock.MockAccountBuilder;
+import org.killbill.billing.usage.InternalUserApi.InvoicedTrackingIds;
+import org.killbill.billing.usage.SubscriptionUsageRecordResult;
+import org.killbill.billing.usage.SubscriptionUsageRecordResult.Status;
+import org.killbill.billing.usage.UsageTestSuiteWithEmbeddedDB;
+import org.killbill.billing.usage.api.RawUsageRecord;
+import org.killbill.billing.usage.api.SubscriptionUsageRecord;
+import org.killbill.billing.usage.api.UnitUsageRecord;
+import org.killbill.billing.usage.api.UsageRecord;
+import org.killbill.billing.usage.dao.RolledUpUsageModelDao;
+import org.killbill.billing.util.UUIDs;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+
+public class TestDefaultInternalUserApi extends UsageTestSuiteWithEmbeddedDB {
+
+    @Inject
+    protected AccountUserApi accountUserApi;
+
+    @Test(groups = "slow")
+    public void testRolledUpUsageForAccount() throws Exception {
+        final Account account = createAccount();
+        final InternalCallContext context = internalCallContextFactory.createInternalCallContext(account.getId(), callContext);
+
+        final DateTime startDate = new LocalDate(2013, 1, 1).toDateTimeAtStartOfDay(DateTimeZone.UTC);
+        final DateTime endDate = new LocalDate(2013, 2, 1).toDateTimeAtStartOfDay(DateTimeZone.UTC);
+        final String trackingId = UUIDs.randomUUID().toString();
+
+        final RolledUpUsageModelDao usage1 = new RolledUpUsageModelDao(UUIDs.randomUUID(), "foo", startDate.plusHours(1), BigDecimal.valueOf(10L), trackingId);
+        final RolledUpUsageModelDao usage2 = new RolledUpUsageModelDao(usage1.getSubscriptionId(), "foo", startDate.plusHours(5), BigDecimal.valueOf(5L), trackingId);
+        final RolledUpUsageModelDao usage3 = new RolledUpUsageModelDao(usage1.getSubscriptionId(), "foo", startDate.plusDays(1), BigDecimal.valueOf(7L), trackingId);
+        rolledUpUsageDao.record(List.of(usage1, usage2, usage3), context);
+
+        final List<RawUsageRecord> rawUsage = internalUserApi.getRawUsageForAccount(startDate, endDate, null, Collections.emptyList(), context);
+        assertEquals(rawUsage.size(), 3);
+
+        // The points of the first day are aggregated
+        final List<RawUsageRecord> rolledUpUsage = internalUserApi.getRolledUpUsageForAccount(startDate, endDate, Collections.emptyList(), Collections.emptySet(), invoicedTrackingIds(0), null, Collections.emptyList(), context);
+        assertEquals(rolledUpUsage.size(), 2);
+        checkRecord(rolledUpUsage.get(0), startDate.plusHours(1), BigDecimal.valueOf(15L), trackingId);
+        checkRecord(rolledUpUsage.get(1), startDate.plusDays(1), BigDecimal.valueOf(7L), trackingId);
+
+        // A billing event falls within the points of the first day: the raw points are returned
+        final List<RawUsageRecord> splitUsage = internalUserApi.getRolledUpUsageForAccount(startDate, endDate, List.of(startDate.plusHours(3)), Collections.emptySet(), invoicedTrackingIds(0), null, Collections.emptyList(), context);
+        assertEquals(splitUsage.size(), 3);
+        checkRecord(splitUsage.get(0), startDate.plusHours(1), BigDecimal.valueOf(10L), trackingId);
+        checkRecord(splitUsage.get(1), startDate.plusHours(5), BigDecimal.valueOf(5L), trackingId);
+        checkRecord(splitUsage.get(2), startDate.plusDays(1), BigDecimal.valueOf(7L), trackingId);
+
+        // The start date falls within the points of the first day: only the points after it are returned
+        final List<RawUsageRecord> partialUsage = internalUserApi.getRolledUpUsageForAccount(startDate.plusHours(3), endDate, Collections.emptyList(), Collections.emptySet(), invoicedTrackingIds(0), null, Collections.emptyList(), context);
+        assertEquals(partialUsage.size(), 2);
+        checkRecord(partialUsage.get(0), startDate.plusHours(5), BigDecimal.valueOf(5L), trackingId);
+        checkRecord(partialUsage.get(1), startDate.plusDays(1), BigDecimal.valueOf(7L), trackingId);
+    }
+
+    @Test(groups = "slow")
+    public void testRolledUpCapacityUsageForAccount() throws Exception {
+        final Account account = createAccount();
+        final InternalCallContext context = internalCallContextFactory.createInternalCallContext(account.getId(), callContext);
+
+        final DateTime startDate = new LocalDate(2013, 1, 1).toDateTimeAtStartOfDay(DateTimeZone.UTC);
+        final DateTime endDate = new LocalDate(2013, 2, 1).toDateTimeAtStartOfDay(DateTimeZone.UTC);
+        final String trackingId = UUIDs.randomUUID().toString();
+
+        final UUID subscriptionId = UUIDs.randomUUID();
+        final RolledUpUsageModelDao usage1 = new RolledUpUsageModelDao(subscriptionId, "capacity", startDate.plusHours(1), BigDecimal.valueOf(10L), trackingId);
+        final RolledUpUsageModelDao usage2 = new RolledUpUsageModelDao(subscriptionId, "capacity", startDate.plusHours(5), BigDecimal.valueOf(5L), trackingId);
+        final RolledUpUsageModelDao usage3 = new RolledUpUsageModelDao(subscriptionId, "consumable", startDate.plusHours(2), BigDecimal.valueOf(3L), trackingId);
+        final RolledUpUsageModelDao usage4 = new RolledUpUsageModelDao(subscriptionId, "consumable", startDate.plusHours(4), BigDecimal.valueOf(4L), trackingId);
+        rolledUpUsageDao.record(List.of(usage1, usage2, usage3, usage4), context);
+
+        // CAPACITY points are aggregated with the max, the other ones with the sum
+        final List<RawUsageRecord> rolledUpUsage = internalUserApi.getRolledUpUsageForAccount(startDate, endDate, Collections.emptyList(), Set.of("capacity"), invoicedTrackingIds(0), null, Collections.emptyList(), context);
+        assertEquals(rolledUpUsage.size(), 2);
+        checkRecord(rolledUpUsage.get(0), startDate.plusHours(1), BigDecimal.valueOf(10L), trackingId);
+        assertEquals(rolledUpUsage.get(0).getUnitType(), "capacity");
+        checkRecord(rolledUpUsage.get(1), startDate.plusHours(2), BigDecimal.valueOf(7L), trackingId);
+        assertEquals(rolledUpUsage.get(1).getUnitType(), "consumable");
+
+        // Split buckets return the raw points, loaded at once
+        final List<RawUsageRecord> splitUsage = internalUserApi.getRolledUpUsageForAccount(startDate, endDate, List.of(startDate.plusHours(3)), Set.of("capacity"), invoicedTrackingIds(0), null, Collections.emptyList(), context);
+        assertEquals(splitUsage.size(), 4);
+        checkRecord(splitUsage.get(0), startDate.plusHours(1), BigDecimal.valueOf(10L), trackingId);
+        checkRecord(splitUsage.get(1), startDate.plusHours(2), BigDecimal.valueOf(3L), trackingId);
+        checkRecord(splitUsage.get(2), startDate.plusHours(4), BigDecimal.valueOf(4L), trackingId);
+        checkRecord(splitUsage.get(3), startDate.plusHours(5), BigDecimal.valueOf(5L), trackingId);
+    }
+
+    @Test(groups = "slow")
+    public void testRolledUpUsageWithSeveralTrackingIds() throws Exception {
+        final Account account = createAccount();
+        final InternalCallContext context = internalCallContextFactory.createInternalCallContext(account.getId(), callContext);
+
+        final DateTime startDate = new LocalDate(2013, 1, 1).toDateTimeAtStartOfDay(DateTimeZone.UTC);
+        final DateTime endDate = new LocalDate(2013, 2, 1).toDateTimeAtStartOfDay(DateTimeZone.UTC);
+        final DateTime recordDay = startDate.plusDays(10);
+
+        // One tracking id per point, across recordings: all end up in the same daily bucket
+        final UUID subscriptionId = UUIDs.randomUUID();
+        rolledUpUsageDao.record(List.of(new RolledUpUsageModelDao(subscriptionId, "foo", recordDay.plusHours(1), BigDecimal.valueOf(10L), "t1")), context);
+        rolledUpUsageDao.record(List.of(new RolledUpUsageModelDao(subscriptionId, "foo", recordDay.plusHours(5), BigDecimal.valueOf(5L), "t2")), context);
+
+        // Tracking ids not invoiced yet: the raw points are returned, to record both tracking ids
+        final List<RawUsageRecord> newUsage = internalUserApi.getRolledUpUsageForAccount(startDate, endDate, Collections.emptyList(), Collections.emptySet(), invoicedTrackingIds(1), null, Collections.emptyList(), context);
+        assertEquals(newUsage.size(), 2);
+        checkRecord(newUsage.get(0), recordDay.plusHours(1), BigDecimal.valueOf(10L), "t1");
+        checkRecord(newUsage.get(1), recordDay.plusHours(5), BigDecimal.valueOf(5L), "t2");
+
+        // All tracking ids invoiced: the points of the day are aggregated
+        final List<RawUsageRecord> invoicedUsage = internalUserApi.getRolledUpUsageForAccount(startDate, endDate, Collections.emptyList(), Collections.emptySet(), invoicedTrackingIds(2), null, Collections.emptyList(), context);
+        assertEquals(invoicedUsage.size(), 1);
+        checkRecord(invoicedUsage.get(0), recordDay.plusHours(1), BigDecimal.valueOf(15L), "t1");
+    }
+
+    @Test(groups = "slow")
+    public void testBulkRecordRolledUpUsage() throws Exception {
+        final Account account = createAccount();
+        final InternalCallContext context = internalCallContextFactory.createInternalCallContext(account.getId(), callContext);
+        final UUID subscriptionId = createSubscription(context);
+        final UUID unknownSubscriptionId = UUIDs.randomUUID();
+
+        final DateTime recordDate = new LocalDate(2013, 1, 1).toDateTimeAtStartOfDay(DateTimeZone.UTC);
+        final String existingTrackingId = UUIDs.randomUUID().toString();
+        rolledUpUsageDao.record(List.of(new RolledUpUsageModelDao(subscriptionId, "foo", recordDate, BigDecimal.ONE, existingTrackingId)), context);
+
+        final List<SubscriptionUsageRecord> records = List.of(createRecord(subscriptionId, "t1", recordDate.plusHours(1), 10L),
+                                                              createRecord(subscriptionId, existingTrackingId, recordDate.plusHours(2), 20L),
+                                                              createRecord(subscriptionId, "t2", recordDate.plusHours(3), 30L),
+                                                              createRecord(subscriptionId, "t2", recordDate.plusHours(4), 40L),
+                                                              createRecord(unknownSubscriptionId, "t3", recordDate.plusHours(5), 50L),
+                                                              createRecord(subscriptionId, null, recordDate.plusHours(6), 60L));
+        final List<SubscriptionUsageRecordResult> results = internalUserApi.recordRolledUpUsage(records, internalCallContextFactory.createInternalCallContextWithoutAccountRecordId(callContext));
+        assertEquals(results.size(), records.size());
+        checkResult(results.get(0), subscriptionId, Status.ACCEPTED);
+        // Tracking id already recorded
+        checkResult(results.get(1), subscriptionId, Status.REJECTED);
+        checkResult(results.get(2), subscriptionId, Status.ACCEPTED);
+        // Tracking id duplicated within the batch
+        checkResult(results.get(3), subscriptionId, Status.REJECTED);
+        checkResult(results.get(4), unknownSubscriptionId, Status.REJECTED);
+        // A tracking id is generated when missing
+        checkResult(results.get(5), subscriptionId, Status.ACCEPTED);
+        assertNotNull(results.get(5).getTrackingId());
+
+        final List<RawUsageRecord> rawUsage = internalUserApi.getRawUsageForAccount(recordDate, recordDate.plusDays(1), null, Collections.emptyList(), context);
+        assertEquals(rawUsage.size(), 4);
+        assertEquals(rawUsage.stream().map(RawUsageRecord::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add).compareTo(BigDecimal.valueOf(101L)), 0);
+    }
+
+    // Account in UTC, with the same number of invoiced tracking ids every day
+    private InvoicedTrackingIds invoicedTrackingIds(final int nbInvoicedTrackingIds) {
+        return new InvoicedTrackingIds() {
+            @Override
+            public LocalDate toLocalDate(final DateTime recordDate) {
+                return recordDate.toDateTime(DateTimeZone.UTC).toLocalDate();
+            }
+
+            @Override
+            public int getNbTrackingIds(final UUID subscriptionId, final String unitType, final LocalDate recordDate) {
+                return nbInvoicedTrackingIds;
+            }
+        };
+    }
+
+    private Account createAccount() throws Exception {
+        final Account accountData = new MockAccountBuilder().name(UUID.randomUUID().toString().substring(1, 8))
+                                                            .externalKey(UUID.randomUUID().toString())
+                                                            .currency(Currency.USD)
+                                                            .timeZone(DateTimeZone.UTC)
+                                                            .build();
+        return accountUserApi.createAccount(accountData, callContext);
+    }
+
+    // The usage module doesn't depend on the subscription one: insert the row needed to resolve the account of the subscription
+    private UUID createSubscription(final InternalCallContext context) {
+        final UUID subscriptionId = UUIDs.randomUUID();
+        final Date now = clock.getUTCNow().toDate();
+        dbi.withHandle(handle -> {
+            handle.execute("insert into subscriptions (id, bundle_id, external_key, category, start_date, bundle_start_date, created_by, created_date, updated_by, updated_date, account_record_id, tenant_record_id) " +
+                           "values (?, ?, ?, 'BASE', ?, ?, 'test', ?, 'test', ?, ?, ?)",
+                           subscriptionId.toString(), UUIDs.randomUUID().toString(), subscriptionId.toString(), now, now, now, now,
+                           context.getAccountRecordId(), context.getTenantRecordId());
+            return null;
+        });
+        return subscriptionId;
+    }
+
+    private SubscriptionUsageRecord createRecord(final UUID subscriptionId, final String trackingId, final DateTime recordDate, final long amount) {
+        final UnitUsageRecord unitUsageRecord = new UnitUsageRecord("foo", List.of(new UsageRecord(recordDate, BigDecimal.valueOf(amount))));
+        return new SubscriptionUsageRecord(subscriptionId, trackingId, List.of(unitUsageRecord));
+    }
+
+    private void checkResult(final SubscriptionUsageRecordResult result, final UUID subscriptionId, final Status status) {
+        assertEquals(result.getSubscriptionId(), subscriptionId);
+        assertEquals(result.getStatus(), status, result.toString());
+    }
+
+    private void checkRecord(final RawUsageRecord record, final DateTime date, final BigDecimal amount, final String trackingId) {
+        assertEquals(record.getDate().compareTo(date), 0);
+        assertEquals(record.getAmount().compareTo(amount), 0);
+        assertEquals(record.getTrackingId(), trackingId);
+    }
+}
@@ -194,4 +194,57 @@ public class TestDefaultRolledUpUsageDao extends UsageTestSuiteWithEmbeddedDB {
         assertEquals(rolledUpUsageDao.recordsWithTrackingIdExist(subscriptionId, trackingId, internalCallContext),
                      Boolean.TRUE);
     }
+
+    @Test(groups = "slow")
+    public void testDailyRollups() {
+        final UUID subscriptionId = UUIDs.randomUUID();
+        final String unitType1 = "foo";
+        final String unitType2 = "bar";
+        final DateTime startDate = new LocalDate(2013, 1, 1).toDateTimeAtStartOfDay(DateTimeZone.UTC);
+        final DateTime endDate = new LocalDate(2013, 2, 1).toDateTimeAtStartOfDay(DateTimeZone.UTC);
+        final String trackingId = UUIDs.randomUUID().toString();
+
+        final List<RolledUpUsageModelDao> usages = new ArrayList<RolledUpUsageModelDao>();
+        usages.add(new RolledUpUsageModelDao(subscriptionId, unitType1, startDate.plusHours(1), BigDecimal.valueOf(10L), trackingId));
+        usages.add(new RolledUpUsageModelDao(subscriptionId, unitType1, startDate.plusHours(5), BigDecimal.valueOf(5L), trackingId));
+        usages.add(new RolledUpUsageModelDao(subscriptionId, unitType2, startDate.plusHours(3), BigDecimal.valueOf(2L), trackingId));
+        usages.add(new RolledUpUsageModelDao(subscriptionId, unitType1, startDate.plusDays(1), BigDecimal.valueOf(7L), trackingId));
+        rolledUpUsageDao.record(usages, internalCallContext);
+
+        final List<RolledUpUsageDailyModelDao> result = rolledUpUsageDao.getRolledUpUsageDailyForAccount(startDate, endDate, internalCallContext);
+        assertEquals(result.size(), 3);
+        assertEquals(result.get(0).getUnitType(), unitType1);
+        assertEquals(result.get(0).getStartRecordDate().compareTo(startDate.plusHours(1)), 0);
+        assertEquals(result.get(0).getEndRecordDate().compareTo(startDate.plusHours(5)), 0);
+        assertEquals(result.get(0).getAmount().compareTo(BigDecimal.valueOf(15L)), 0);
+        assertEquals(result.get(0).getMaxAmount().compareTo(BigDecimal.valueOf(10L)), 0);
+        assertEquals(result.get(0).getNbRecords(), (Integer) 2);
+        assertEquals(result.get(0).getNbTrackingIds(), (Integer) 1);
+        assertEquals(result.get(0).getTrackingId(), trackingId);
+        assertEquals(result.get(1).getUnitType(), unitType2);
+        assertEquals(result.get(1).getAmount().compareTo(BigDecimal.valueOf(2L)), 0);
+        assertEquals(result.get(1).getNbRecords(), (Integer) 1);
+        assertEquals(result.get(2).getUnitType(), unitType1);
+        assertEquals(result.get(2).getStartRecordDate().compareTo(startDate.plusDays(1)), 0);
+        assertEquals(result.get(2).getAmount().compareTo(BigDecimal.valueOf(7L)), 0);
+
+        // Buckets straddling the start date are returned as well
+        assertEquals(rolledUpUsageDao.getRolledUpUsageDailyForAccount(startDate.plusHours(4), endDate, internalCallContext).size(), 2);
+        assertEquals(rolledUpUsageDao.getRolledUpUsageDailyForAccount(startDate.plusHours(6), endDate, internalCallContext).size(), 1);
+
+        // Later recordings (other tracking ids) are added to the existing buckets of the same day
+        rolledUpUsageDao.record(List.of(new RolledUpUsageModelDao(subscriptionId, unitType1, startDate, BigDecimal.valueOf(20L), UUIDs.randomUUID().toString()),
+                                        new RolledUpUsageModelDao(subscriptionId, unitType1, startDate.plusHours(2), BigDecimal.valueOf(3L), UUIDs.randomUUID().toString())),
+                                internalCallContext);
+        final List<RolledUpUsageDailyModelDao> updatedResult = rolledUpUsageDao.getRolledUpUsageDailyForAccount(startDate, endDate, internalCallContext);
+        assertEquals(updatedResult.size(), 3);
+        assertEquals(updatedResult.get(0).getId(), result.get(0).getId());
+        assertEquals(updatedResult.get(0).getStartRecordDate().compareTo(startDate), 0);
+        assertEquals(updatedResult.get(0).getEndRecordDate().compareTo(startDate.plusHours(5)), 0);
+        assertEquals(updatedResult.get(0).getAmount().compareTo(BigDecimal.valueOf(38L)), 0);
+        assertEquals(updatedResult.get(0).getMaxAmount().compareTo(BigDecimal.valueOf(20L)), 0);
+        assertEquals(updatedResult.get(0).getNbRecords(), (Integer) 4);
+        assertEquals(updatedResult.get(0).getNbTrackingIds(), (Integer) 3);
+        assertEquals(updatedResult.get(0).getTrackingId(), trackingId);
+    }
 }
\ No newline at end of file
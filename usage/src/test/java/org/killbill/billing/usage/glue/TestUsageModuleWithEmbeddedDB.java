@@ -26,6 +26,7 @@ import org.killbill.billing.util.glue.CacheModule;
 import org.killbill.billing.util.glue.ConfigModule;
 import org.killbill.billing.util.glue.EventModule;
 import org.killbill.billing.util.glue.NonEntityDaoModule;
+import org.killbill.billing.util.glue.SearchModule;
 import org.killbill.clock.ClockMock;
 
 public class TestUsageModuleWithEmbeddedDB extends TestUsageModule {
@@ -46,6 +47,7 @@ public class TestUsageModuleWithEmbeddedDB extends TestUsageModule {
         install(new ConfigModule(configSource));
         install(new EventModule(configSource));
         install(new NonEntityDaoModule(configSource));
+        install(new SearchModule(configSource));
         install(new DefaultAccountModule(configSource));
         install(new AuditModule(configSource));
     }
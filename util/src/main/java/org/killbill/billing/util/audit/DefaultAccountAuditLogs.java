@@ -16,6 +16,9 @@
 
 package org.killbill.billing.util.audit;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -34,7 +37,11 @@ public class DefaultAccountAuditLogs implements AccountAuditLogs {
 
     private final UUID accountId;
     private final AuditLevel auditLevel;
-    private final List<AuditLog> accountAuditLogs;
+    private final Iterator<AuditLog> accountAuditLogsOrderedByTableName;
+
+    // Loaded on first access for lazy instances, unless the audit logs are streamed
+    private List<AuditLog> accountAuditLogs;
+    private boolean streamed;
 
     private final Map<ObjectType, DefaultAccountAuditLogsForObjectType> auditLogsCache = new HashMap<ObjectType, DefaultAccountAuditLogsForObjectType>();
 
@@ -43,15 +50,41 @@ public class DefaultAccountAuditLogs implements AccountAuditLogs {
     }
 
     public DefaultAccountAuditLogs(final UUID accountId, final AuditLevel auditLevel, final Iterator<AuditLog> accountAuditLogsOrderedByTableName) {
+        this(accountId, auditLevel, accountAuditLogsOrderedByTableName, false);
+    }
+
+    // When lazy, entries are only loaded on first access (or streamed, see streamAuditLogs)
+    public DefaultAccountAuditLogs(final UUID accountId, final AuditLevel auditLevel, final Iterator<AuditLog> accountAuditLogsOrderedByTableName, final boolean lazy) {
         this.accountId = accountId;
         this.auditLevel = auditLevel;
-        // TODO pierre - lame, we should be smarter to avoid loading all entries in memory. It's a bit tricky though...
-        this.accountAuditLogs = Iterators.toUnmodifiableList(accountAuditLogsOrderedByTableName);
+        this.accountAuditLogsOrderedByTableName = accountAuditLogsOrderedByTableName;
+        if (!lazy) {
+            this.accountAuditLogs = Iterators.toUnmodifiableList(accountAuditLogsOrderedByTableName);
+        }
+    }
+
+    /**
+     * Single pass over the audit logs, without loading them in memory. This cannot be combined with the other getters.
+     * The caller is responsible for calling {@link #close()} if it doesn't go through all the entries.
+     */
+    public synchronized Iterator<AuditLog> streamAuditLogs() {
+        if (accountAuditLogs != null) {
+            return accountAuditLogs.iterator();
+        }
+        Preconditions.checkState(!streamed, "Audit logs have already been streamed");
+        streamed = true;
+        return accountAuditLogsOrderedByTableName;
     }
 
     public void close() {
-        // Make sure to go through the results to close the connection
-        // no-op for now, see TODO above
+        // Make sure to close the connection if the results weren't fully consumed
+        if (accountAuditLogsOrderedByTableName instanceof Closeable) {
+            try {
+                ((Closeable) accountAuditLogsOrderedByTableName).close();
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
     }
 
     @Override
@@ -127,7 +160,7 @@ public class DefaultAccountAuditLogs implements AccountAuditLogs {
     @Override
     public AccountAuditLogsForObjectType getAuditLogs(final ObjectType objectType) {
         if (auditLogsCache.get(objectType) == null) {
-            auditLogsCache.put(objectType, new DefaultAccountAuditLogsForObjectType(auditLevel, new ObjectTypeFilter(objectType, accountAuditLogs.iterator())));
+            auditLogsCache.put(objectType, new DefaultAccountAuditLogsForObjectType(auditLevel, new ObjectTypeFilter(objectType, getOrLoadAuditLogs().iterator())));
         }
 
         // Should never be null
@@ -136,6 +169,14 @@ public class DefaultAccountAuditLogs implements AccountAuditLogs {
 
     @Override
     public List<AuditLog> getAuditLogs() {
+        return getOrLoadAuditLogs();
+    }
+
+    private synchronized List<AuditLog> getOrLoadAuditLogs() {
+        if (accountAuditLogs == null) {
+            Preconditions.checkState(!streamed, "Audit logs have already been streamed");
+            accountAuditLogs = Iterators.toUnmodifiableList(accountAuditLogsOrderedByTableName);
+        }
         return accountAuditLogs;
     }
 
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.audit.api;
+
+import java.util.Iterator;
+import java.util.UUID;
+
+import javax.inject.Inject;
+
+import org.killbill.billing.audit.AuditInternalApi;
+import org.killbill.billing.callcontext.InternalTenantContext;
+import org.killbill.billing.util.audit.AuditLog;
+import org.killbill.billing.util.audit.DefaultAccountAuditLogs;
+import org.killbill.billing.util.audit.dao.AuditDao;
+import org.killbill.billing.util.callcontext.InternalCallContextFactory;
+
+public class DefaultAuditInternalApi implements AuditInternalApi {
+
+    private final AuditDao auditDao;
+    private final InternalCallContextFactory internalCallContextFactory;
+
+    @Inject
+    public DefaultAuditInternalApi(final AuditDao auditDao, final InternalCallContextFactory internalCallContextFactory) {
+        this.auditDao = auditDao;
+        this.internalCallContextFactory = internalCallContextFactory;
+    }
+
+    @Override
+    public AuditLogStream streamAccountAuditLogs(final UUID accountId, final InternalTenantContext context) {
+        final DefaultAccountAuditLogs accountAuditLogs = auditDao.streamAuditLogsForAccountRecordId(internalCallContextFactory.createInternalTenantContext(accountId, context));
+        final Iterator<AuditLog> auditLogs = accountAuditLogs.streamAuditLogs();
+        return new AuditLogStream() {
+            @Override
+            public boolean hasNext() {
+                return auditLogs.hasNext();
+            }
+
+            @Override
+            public AuditLog next() {
+                return auditLogs.next();
+            }
+
+            @Override
+            public void close() {
+                accountAuditLogs.close();
+            }
+        };
+    }
+}
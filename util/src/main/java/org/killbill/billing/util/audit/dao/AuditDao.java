@@ -33,6 +33,9 @@ public interface AuditDao {
     // Make sure to consume all or call close() when done to release the connection
     public DefaultAccountAuditLogs getAuditLogsForAccountRecordId(AuditLevel auditLevel, InternalTenantContext context);
 
+    // Full audit logs, to be consumed once via streamAuditLogs(): make sure to consume all or call close() when done to release the connection
+    public DefaultAccountAuditLogs streamAuditLogsForAccountRecordId(InternalTenantContext context);
+
     // Make sure to consume all or call close() when done to release the connection
     public DefaultAccountAuditLogsForObjectType getAuditLogsForAccountRecordId(TableName tableName, AuditLevel auditLevel, InternalTenantContext context);
 
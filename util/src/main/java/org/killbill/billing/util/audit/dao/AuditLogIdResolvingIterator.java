@@ -0,0 +1,138 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.killbill.billing.util.audit.dao;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.killbill.billing.ObjectType;
+import org.killbill.billing.callcontext.InternalTenantContext;
+import org.killbill.billing.util.audit.AuditLog;
+import org.killbill.billing.util.audit.DefaultAuditLog;
+import org.killbill.billing.util.dao.NonEntitySqlDao;
+import org.killbill.billing.util.dao.RecordIdIdMappings;
+import org.killbill.billing.util.dao.TableName;
+import org.killbill.commons.utils.collect.AbstractIterator;
+
+/**
+ * Resolves the audited entity ids of a stream of audit log rows by batches: for each batch, a single query per table
+ * retrieves the ids of the target records of that batch only. Memory usage is bounded by the batch size, regardless
+ * of the size of the account history.
+ */
+class AuditLogIdResolvingIterator extends AbstractIterator<AuditLog> implements Closeable {
+
+    static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private final Iterator<AuditLogModelDao> auditLogs;
+    private final NonEntitySqlDao nonEntitySqlDao;
+    private final InternalTenantContext context;
+    private final int batchSize;
+    private final Deque<AuditLog> resolvedAuditLogs;
+
+    AuditLogIdResolvingIterator(final Iterator<AuditLogModelDao> auditLogs, final NonEntitySqlDao nonEntitySqlDao, final InternalTenantContext context) {
+        this(auditLogs, nonEntitySqlDao, context, DEFAULT_BATCH_SIZE);
+    }
+
+    AuditLogIdResolvingIterator(final Iterator<AuditLogModelDao> auditLogs, final NonEntitySqlDao nonEntitySqlDao, final InternalTenantContext context, final int batchSize) {
+        this.auditLogs = auditLogs;
+        this.nonEntitySqlDao = nonEntitySqlDao;
+        this.context = context;
+        this.batchSize = batchSize;
+        this.resolvedAuditLogs = new ArrayDeque<AuditLog>(batchSize);
+    }
+
+    @Override
+    protected AuditLog computeNext() {
+        if (resolvedAuditLogs.isEmpty()) {
+            resolveNextBatch();
+        }
+        if (resolvedAuditLogs.isEmpty()) {
+            return endOfData();
+        }
+        return resolvedAuditLogs.poll();
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Release the underlying DB connection if the caller doesn't go through all results
+        if (auditLogs instanceof Closeable) {
+            ((Closeable) auditLogs).close();
+        }
+    }
+
+    private void resolveNextBatch() {
+        final List<AuditLogModelDao> batch = new ArrayList<AuditLogModelDao>(batchSize);
+        while (batch.size() < batchSize && auditLogs.hasNext()) {
+            batch.add(auditLogs.next());
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        // Rows are ordered by table name, so a batch usually spans one or two tables
+        final Map<TableName, Set<Long>> targetRecordIdsPerTableName = new LinkedHashMap<TableName, Set<Long>>();
+        for (final AuditLogModelDao auditLog : batch) {
+            targetRecordIdsPerTableName.computeIfAbsent(auditLog.getTableName(), tableName -> new HashSet<Long>()).add(auditLog.getTargetRecordId());
+        }
+
+        final Map<TableName, Map<Long, UUID>> idsPerTableName = new HashMap<TableName, Map<Long, UUID>>();
+        for (final Map.Entry<TableName, Set<Long>> entry : targetRecordIdsPerTableName.entrySet()) {
+            idsPerTableName.put(entry.getKey(), resolveIds(entry.getKey(), entry.getValue()));
+        }
+
+        for (final AuditLogModelDao auditLog : batch) {
+            final TableName originalTableNameForHistoryTableName = findTableNameForHistoryTableName(auditLog.getTableName());
+            final ObjectType objectType = originalTableNameForHistoryTableName != null ? originalTableNameForHistoryTableName.getObjectType() : auditLog.getTableName().getObjectType();
+            final UUID auditedEntityId = idsPerTableName.get(auditLog.getTableName()).get(auditLog.getTargetRecordId());
+            resolvedAuditLogs.add(new DefaultAuditLog(auditLog, objectType, auditedEntityId));
+        }
+    }
+
+    private Map<Long, UUID> resolveIds(final TableName auditedTableName, final Set<Long> targetRecordIds) {
+        final TableName originalTableNameForHistoryTableName = findTableNameForHistoryTableName(auditedTableName);
+        final Iterable<RecordIdIdMappings> mappings;
+        if (originalTableNameForHistoryTableName != null) {
+            // Audit logs point to history entries
+            mappings = nonEntitySqlDao.getHistoryRecordIdIdMappingsForHistoryRecordIds(originalTableNameForHistoryTableName.getTableName(), auditedTableName.getTableName(), targetRecordIds, context);
+        } else {
+            mappings = nonEntitySqlDao.getRecordIdIdMappingsForRecordIds(auditedTableName.getTableName(), targetRecordIds, context);
+        }
+        return RecordIdIdMappings.toMap(mappings);
+    }
+
+    private static TableName findTableNameForHistoryTableName(final TableName historyTableName) {
+        for (final TableName tableName : TableName.values()) {
+            if (historyTableName.equals(tableName.getHistoryTableName())) {
+                return tableName;
+            }
+        }
+        return null;
+    }
+}
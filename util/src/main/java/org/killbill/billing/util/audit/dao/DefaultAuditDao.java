@@ -18,10 +18,8 @@
 
 package org.killbill.billing.util.audit.dao;
 
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -41,12 +39,10 @@ import org.killbill.billing.util.audit.DefaultAuditLog;
 import org.killbill.billing.util.audit.DefaultAuditLogWithHistory;
 import org.killbill.billing.util.cache.CacheControllerDispatcher;
 import org.killbill.billing.util.callcontext.InternalCallContextFactory;
-import org.killbill.commons.utils.collect.Iterators;
 import org.killbill.billing.util.dao.EntityHistoryModelDao;
 import org.killbill.billing.util.dao.HistorySqlDao;
 import org.killbill.billing.util.dao.NonEntityDao;
 import org.killbill.billing.util.dao.NonEntitySqlDao;
-import org.killbill.billing.util.dao.RecordIdIdMappings;
 import org.killbill.billing.util.dao.TableName;
 import org.killbill.billing.util.entity.dao.DBRouter;
 import org.killbill.billing.util.entity.dao.EntitySqlDao;
@@ -81,6 +77,18 @@ public class DefaultAuditDao implements AuditDao {
         return new DefaultAccountAuditLogs(accountId, auditLevel, allAuditLogs);
     }
 
+    @Override
+    public DefaultAccountAuditLogs streamAuditLogsForAccountRecordId(final InternalTenantContext context) {
+        final UUID accountId = dbRouter.onDemand(true).getIdFromObject(context.getAccountRecordId(), TableName.ACCOUNT.getTableName());
+
+        // Same as above, but entries are only fetched (by batches) as the caller goes through them
+        final EntitySqlDao auditSqlDao = transactionalSqlDao.onDemandForStreamingResults(EntitySqlDao.class);
+        final Iterator<AuditLogModelDao> auditLogsForAccountRecordId = auditSqlDao.getAuditLogsForAccountRecordId(context);
+        final Iterator<AuditLog> allAuditLogs = buildAuditLogsFromModelDao(auditLogsForAccountRecordId, context);
+
+        return new DefaultAccountAuditLogs(accountId, AuditLevel.FULL, allAuditLogs, true);
+    }
+
     @Override
     public DefaultAccountAuditLogsForObjectType getAuditLogsForAccountRecordId(final TableName tableName, final AuditLevel auditLevel, final InternalTenantContext context) {
         final String actualTableName;
@@ -101,49 +109,8 @@ public class DefaultAuditDao implements AuditDao {
     }
 
     private Iterator<AuditLog> buildAuditLogsFromModelDao(final Iterator<AuditLogModelDao> auditLogsForAccountRecordId, final InternalTenantContext tenantContext) {
-        final Map<TableName, Map<Long, UUID>> recordIdIdsCache = new HashMap<>();
-        final Map<TableName, Map<Long, UUID>> historyRecordIdIdsCache = new HashMap<>();
-        return Iterators.transform(auditLogsForAccountRecordId, input -> {
-            final TableName originalTableNameForHistoryTableName = findTableNameForHistoryTableName(input.getTableName());
-            final NonEntitySqlDao nonEntitySqlDao = dbRouter.onDemand(true);
-            final ObjectType objectType;
-            final UUID auditedEntityId;
-            if (originalTableNameForHistoryTableName != null) {
-                // input point to a history entry
-                objectType = originalTableNameForHistoryTableName.getObjectType();
-
-                if (historyRecordIdIdsCache.get(originalTableNameForHistoryTableName) == null) {
-                    if (TableName.ACCOUNT.equals(originalTableNameForHistoryTableName)) {
-                        final Iterable<RecordIdIdMappings> mappings = nonEntitySqlDao.getHistoryRecordIdIdMappingsForAccountsTable(originalTableNameForHistoryTableName.getTableName(), input.getTableName().getTableName(), tenantContext);
-                        historyRecordIdIdsCache.put(originalTableNameForHistoryTableName, RecordIdIdMappings.toMap(mappings));
-                    } else if (TableName.TAG_DEFINITIONS.equals(originalTableNameForHistoryTableName)) {
-                        final Iterable<RecordIdIdMappings> mappings = nonEntitySqlDao.getHistoryRecordIdIdMappingsForTablesWithoutAccountRecordId(originalTableNameForHistoryTableName.getTableName(), input.getTableName().getTableName(), tenantContext);
-                        historyRecordIdIdsCache.put(originalTableNameForHistoryTableName, RecordIdIdMappings.toMap(mappings));
-                    } else {
-                        final Iterable<RecordIdIdMappings> mappings = nonEntitySqlDao.getHistoryRecordIdIdMappings(originalTableNameForHistoryTableName.getTableName(), input.getTableName().getTableName(), tenantContext);
-                        historyRecordIdIdsCache.put(originalTableNameForHistoryTableName, RecordIdIdMappings.toMap(mappings));
-                    }
-                }
-                auditedEntityId = historyRecordIdIdsCache.get(originalTableNameForHistoryTableName).get(input.getTargetRecordId());
-            } else {
-                objectType = input.getTableName().getObjectType();
-                if (recordIdIdsCache.get(input.getTableName()) == null) {
-                    final Iterable<RecordIdIdMappings> mappings = nonEntitySqlDao.getRecordIdIdMappings(input.getTableName().getTableName(), tenantContext);
-                    recordIdIdsCache.put(input.getTableName(), RecordIdIdMappings.toMap(mappings));
-                }
-                auditedEntityId = recordIdIdsCache.get(input.getTableName()).get(input.getTargetRecordId());
-            }
-            return new DefaultAuditLog(input, objectType, auditedEntityId);
-        });
-    }
-
-    private TableName findTableNameForHistoryTableName(final TableName historyTableName) {
-        for (final TableName tableName : TableName.values()) {
-            if (historyTableName.equals(tableName.getHistoryTableName())) {
-                return tableName;
-            }
-        }
-        return null;
+        // Resolve the audited entity ids by batches, instead of loading the record_id/id mappings of each table touched
+        return new AuditLogIdResolvingIterator(auditLogsForAccountRecordId, dbRouter.onDemand(true), tenantContext);
     }
 
     @Override
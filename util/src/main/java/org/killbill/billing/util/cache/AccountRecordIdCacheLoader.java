@@ -18,7 +18,12 @@
 
 package org.killbill.billing.util.cache;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -48,4 +53,14 @@ public class AccountRecordIdCacheLoader extends BaseIdCacheLoader<Long> {
     protected Long doRetrieveOperation(final String rawKey, final ObjectType objectType, final Handle handle) {
         return nonEntityDao.retrieveAccountRecordIdFromObjectInTransaction(UUID.fromString(rawKey), objectType, null, handle);
     }
+
+    @Override
+    protected Map<String, Long> doRetrieveOperations(final Collection<String> rawKeys, final ObjectType objectType, final Handle handle) {
+        final Collection<UUID> objectIds = rawKeys.stream().map(UUID::fromString).collect(Collectors.toUnmodifiableList());
+        final Map<String, Long> values = new HashMap<String, Long>();
+        for (final Entry<UUID, Long> entry : nonEntityDao.retrieveAccountRecordIdsFromObjectsInTransaction(objectIds, objectType, null, handle).entrySet()) {
+            values.put(entry.getKey().toString(), entry.getValue());
+        }
+        return values;
+    }
 }
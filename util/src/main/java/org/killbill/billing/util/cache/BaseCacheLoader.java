@@ -18,6 +18,10 @@
 
 package org.killbill.billing.util.cache;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
 import org.killbill.billing.util.cache.Cachable.CacheType;
 
 public abstract class BaseCacheLoader<K, V> {
@@ -27,4 +31,16 @@ public abstract class BaseCacheLoader<K, V> {
     public abstract CacheType getCacheType();
 
     public abstract V compute(final K key, final CacheLoaderArgument cacheLoaderArgument);
+
+    // Keys without a value are not part of the returned map. Loaders which can retrieve several keys at once (e.g. in one query) should override it
+    public Map<K, V> computeAll(final Collection<K> keys, final CacheLoaderArgument cacheLoaderArgument) {
+        final Map<K, V> values = new HashMap<K, V>();
+        for (final K key : keys) {
+            final V value = compute(key, cacheLoaderArgument);
+            if (value != null) {
+                values.put(key, value);
+            }
+        }
+        return values;
+    }
 }
@@ -18,9 +18,18 @@
 
 package org.killbill.billing.util.cache;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -29,6 +38,9 @@ import javax.cache.Cache.Entry;
 import javax.cache.CacheException;
 
 import org.killbill.billing.util.cache.Cachable.CacheType;
+import org.killbill.commons.metrics.api.Counter;
+import org.killbill.commons.metrics.api.MetricRegistry;
+import org.killbill.commons.metrics.api.Timer;
 import org.killbill.commons.utils.collect.Iterables;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,12 +49,24 @@ public class KillBillCacheController<K, V> implements CacheController<K, V> {
 
     private static final Logger logger = LoggerFactory.getLogger(KillBillCacheController.class);
 
+    private static final String METRIC_PREFIX = "killbill.cache.";
+
     private final Cache<K, V> cache;
     private final BaseCacheLoader<K, V> baseCacheLoader;
+    // Loads in progress: concurrent misses on the same key wait for the same load, misses on different keys don't block each other
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlightLoads = new ConcurrentHashMap<K, CompletableFuture<V>>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer loads;
 
-    public KillBillCacheController(final Cache<K, V> cache, final BaseCacheLoader<K, V> baseCacheLoader) {
+    public KillBillCacheController(final Cache<K, V> cache, final BaseCacheLoader<K, V> baseCacheLoader, final MetricRegistry metricRegistry) {
         this.cache = cache;
         this.baseCacheLoader = baseCacheLoader;
+
+        final String metricPrefix = METRIC_PREFIX + baseCacheLoader.getCacheType().getCacheName();
+        this.hits = metricRegistry.counter(metricPrefix + ".hits");
+        this.misses = metricRegistry.counter(metricPrefix + ".misses");
+        this.loads = metricRegistry.timer(metricPrefix + ".loads");
     }
 
     @Override
@@ -65,27 +89,84 @@ public class KillBillCacheController<K, V> implements CacheController<K, V> {
 
         V value;
         try {
-            if (!isKeyInCache(key)) {
-                synchronized (this) {
-                    if (!isKeyInCache(key)) {
-                        value = computeAndCacheValue(key, cacheLoaderArgument);
-                    } else {
-                        value = cache.get(key);
-                    }
-                }
+            value = cache.get(key);
+            if (value == null) {
+                misses.inc(1);
+                value = loadValue(key, cacheLoaderArgument);
             } else {
-                value = cache.get(key);
+                hits.inc(1);
             }
         } catch (final CacheException e) {
             logger.warn("Unable to retrieve cached value for key='{}' and cacheLoaderArgument='{}'", key, cacheLoaderArgument, e);
             value = computeValue(key, cacheLoaderArgument);
         }
 
-        if (value == null || value.equals(BaseCacheLoader.EMPTY_VALUE_PLACEHOLDER)) {
-            return null;
-        } else {
-            return value;
+        return unwrap(value);
+    }
+
+    @Override
+    public Map<K, V> getAll(final Collection<K> keys, final CacheLoaderArgument cacheLoaderArgument) {
+        final Set<K> keysToRetrieve = new LinkedHashSet<K>(keys);
+        keysToRetrieve.remove(null);
+
+        final Map<K, V> values = new HashMap<K, V>();
+        Map<K, V> cachedValues;
+        try {
+            // Single round-trip for all the cached entries
+            cachedValues = cache.getAll(keysToRetrieve);
+        } catch (final CacheException e) {
+            logger.warn("Unable to retrieve cached values for keys='{}' and cacheLoaderArgument='{}'", keysToRetrieve, cacheLoaderArgument, e);
+            cachedValues = Map.of();
         }
+
+        // Misses already being loaded are waited for, the other ones are loaded in a single batch (unlike in get, a load completed
+        // since our cache lookup isn't checked for: it is simply done again)
+        final Map<K, CompletableFuture<V>> existingLoads = new HashMap<K, CompletableFuture<V>>();
+        final Map<K, CompletableFuture<V>> newLoads = new HashMap<K, CompletableFuture<V>>();
+        for (final K key : keysToRetrieve) {
+            final V value = cachedValues.get(key);
+            if (value == null) {
+                misses.inc(1);
+                final CompletableFuture<V> load = new CompletableFuture<V>();
+                final CompletableFuture<V> existingLoad = inFlightLoads.putIfAbsent(key, load);
+                if (existingLoad != null) {
+                    existingLoads.put(key, existingLoad);
+                } else {
+                    newLoads.put(key, load);
+                }
+            } else {
+                hits.inc(1);
+                putIfNotEmpty(values, key, value);
+            }
+        }
+
+        if (!newLoads.isEmpty()) {
+            try {
+                final long startTime = System.nanoTime();
+                final Map<K, V> loadedValues = computeAndCacheValues(newLoads.keySet(), cacheLoaderArgument);
+                loads.update(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+                for (final Map.Entry<K, CompletableFuture<V>> load : newLoads.entrySet()) {
+                    final V value = loadedValues.get(load.getKey());
+                    load.getValue().complete(value);
+                    putIfNotEmpty(values, load.getKey(), value);
+                }
+            } catch (final RuntimeException e) {
+                for (final CompletableFuture<V> load : newLoads.values()) {
+                    load.completeExceptionally(e);
+                }
+                throw e;
+            } finally {
+                for (final Map.Entry<K, CompletableFuture<V>> load : newLoads.entrySet()) {
+                    inFlightLoads.remove(load.getKey(), load.getValue());
+                }
+            }
+        }
+
+        for (final Map.Entry<K, CompletableFuture<V>> load : existingLoads.entrySet()) {
+            putIfNotEmpty(values, load.getKey(), waitForLoad(load.getValue()));
+        }
+
+        return values;
     }
 
     @Override
@@ -129,6 +210,57 @@ public class KillBillCacheController<K, V> implements CacheController<K, V> {
         return baseCacheLoader.getCacheType();
     }
 
+    private V loadValue(final K key, final CacheLoaderArgument cacheLoaderArgument) {
+        final CompletableFuture<V> load = new CompletableFuture<V>();
+        final CompletableFuture<V> existingLoad = inFlightLoads.putIfAbsent(key, load);
+        if (existingLoad != null) {
+            return waitForLoad(existingLoad);
+        }
+
+        try {
+            // The previous load for that key might have completed since our cache lookup
+            V value = cache.get(key);
+            if (value == null) {
+                final long startTime = System.nanoTime();
+                value = computeAndCacheValue(key, cacheLoaderArgument);
+                loads.update(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+            }
+            load.complete(value);
+            return value;
+        } catch (final RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLoads.remove(key, load);
+        }
+    }
+
+    private V waitForLoad(final CompletableFuture<V> load) {
+        try {
+            return load.join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private void putIfNotEmpty(final Map<K, V> values, final K key, final V value) {
+        final V unwrappedValue = unwrap(value);
+        if (unwrappedValue != null) {
+            values.put(key, unwrappedValue);
+        }
+    }
+
+    private V unwrap(final V value) {
+        if (value == null || value.equals(BaseCacheLoader.EMPTY_VALUE_PLACEHOLDER)) {
+            return null;
+        } else {
+            return value;
+        }
+    }
+
     private V computeAndCacheValue(final K key, final CacheLoaderArgument cacheLoaderArgument) {
         final V value = computeValue(key, cacheLoaderArgument);
         if (value == null) {
@@ -140,6 +272,23 @@ public class KillBillCacheController<K, V> implements CacheController<K, V> {
         return value;
     }
 
+    private Map<K, V> computeAndCacheValues(final Collection<K> keys, final CacheLoaderArgument cacheLoaderArgument) {
+        final Map<K, V> values;
+        try {
+            values = baseCacheLoader.computeAll(keys, cacheLoaderArgument);
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
+        }
+
+        try {
+            cache.putAll(values);
+        } catch (final CacheException e) {
+            logger.warn("Unable to cache values for keys='{}' and cacheLoaderArgument='{}'", values.keySet(), cacheLoaderArgument, e);
+        }
+
+        return values;
+    }
+
     private V computeValue(final K key, final CacheLoaderArgument cacheLoaderArgument) {
         final V value;
         try {
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import javax.annotation.Nullable;
+
+import org.killbill.billing.util.cache.Cachable.CacheType;
+
+/**
+ * Bounded in-process cache (L1) in front of a shared, remote, cache (L2, e.g. Redis).
+ * <p>
+ * Local removals are propagated to the other nodes through the {@link NearCacheInvalidations}, so they can drop their L1 entry.
+ * Entries also expire after the configured TTL, except for immutable mappings (see {@link CacheType#isImmutable()}),
+ * which bounds the staleness if an invalidation is missed.
+ */
+public class NearCacheController<K, V> implements CacheController<K, V> {
+
+    private final CacheController<K, V> delegate;
+    private final NearCacheInvalidations invalidations;
+    private final long ttlMillis;
+    private final Map<K, NearCacheEntry<V>> entries;
+    // Bumped on each invalidation, so that values loaded concurrently from L2 aren't cached locally
+    private final AtomicLong nbInvalidations = new AtomicLong();
+
+    public NearCacheController(final CacheController<K, V> delegate,
+                               final NearCacheInvalidations invalidations,
+                               final int maxEntries,
+                               final long ttlMillis) {
+        this.delegate = delegate;
+        this.invalidations = invalidations;
+        this.ttlMillis = delegate.getCacheType().isImmutable() ? Long.MAX_VALUE : ttlMillis;
+        this.entries = new LinkedHashMap<K, NearCacheEntry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<K, NearCacheEntry<V>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public List<K> getKeys() {
+        return delegate.getKeys();
+    }
+
+    @Override
+    public boolean isKeyInCache(final K key) {
+        return getLocally(key) != null || delegate.isKeyInCache(key);
+    }
+
+    @Override
+    public V get(final K key, final CacheLoaderArgument cacheLoaderArgument) {
+        if (key == null) {
+            return null;
+        }
+
+        final V cachedValue = getLocally(key);
+        if (cachedValue != null) {
+            return cachedValue;
+        }
+
+        final long nbInvalidationsBeforeLoad = nbInvalidations.get();
+        final V value = delegate.get(key, cacheLoaderArgument);
+        putLocally(key, value, nbInvalidationsBeforeLoad);
+        return value;
+    }
+
+    @Override
+    public Map<K, V> getAll(final Collection<K> keys, final CacheLoaderArgument cacheLoaderArgument) {
+        final Map<K, V> values = new HashMap<K, V>();
+        final List<K> keysToLoad = new ArrayList<K>();
+        for (final K key : keys) {
+            if (key == null) {
+                continue;
+            }
+            final V cachedValue = getLocally(key);
+            if (cachedValue != null) {
+                values.put(key, cachedValue);
+            } else {
+                keysToLoad.add(key);
+            }
+        }
+
+        if (!keysToLoad.isEmpty()) {
+            final long nbInvalidationsBeforeLoad = nbInvalidations.get();
+            final Map<K, V> loadedValues = delegate.getAll(keysToLoad, cacheLoaderArgument);
+            for (final Map.Entry<K, V> loadedValue : loadedValues.entrySet()) {
+                putLocally(loadedValue.getKey(), loadedValue.getValue(), nbInvalidationsBeforeLoad);
+            }
+            values.putAll(loadedValues);
+        }
+
+        return values;
+    }
+
+    @Override
+    public boolean remove(final K key) {
+        invalidateLocally(key);
+        final boolean removed = delegate.remove(key);
+        invalidations.publish(getCacheType(), key);
+        return removed;
+    }
+
+    @Override
+    public void remove(final Function<K, Boolean> keyMatcher) {
+        delegate.remove(keyMatcher);
+        // The matcher can't be sent to the other nodes: they drop their whole local cache instead
+        invalidateAllLocally();
+        invalidations.publish(getCacheType(), null);
+    }
+
+    @Override
+    public void putIfAbsent(final K key, final V value) {
+        delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public void removeAll() {
+        invalidateAllLocally();
+        delegate.removeAll();
+        invalidations.publish(getCacheType(), null);
+    }
+
+    @Override
+    public CacheType getCacheType() {
+        return delegate.getCacheType();
+    }
+
+    void invalidateLocally(final Object key) {
+        synchronized (entries) {
+            nbInvalidations.incrementAndGet();
+            entries.remove(key);
+        }
+    }
+
+    void invalidateAllLocally() {
+        synchronized (entries) {
+            nbInvalidations.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    int localSize() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @Nullable
+    private V getLocally(final K key) {
+        synchronized (entries) {
+            final NearCacheEntry<V> entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.isExpired()) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.getValue();
+        }
+    }
+
+    private void putLocally(final K key, @Nullable final V value, final long nbInvalidationsBeforeLoad) {
+        if (value == null) {
+            return;
+        }
+
+        final long expirationTime = ttlMillis == Long.MAX_VALUE ? Long.MAX_VALUE : System.currentTimeMillis() + ttlMillis;
+        synchronized (entries) {
+            if (nbInvalidations.get() == nbInvalidationsBeforeLoad) {
+                entries.put(key, new NearCacheEntry<V>(value, expirationTime));
+            }
+        }
+    }
+
+    private static final class NearCacheEntry<V> {
+
+        private final V value;
+        private final long expirationTime;
+
+        private NearCacheEntry(final V value, final long expirationTime) {
+            this.value = value;
+            this.expirationTime = expirationTime;
+        }
+
+        public V getValue() {
+            return value;
+        }
+
+        public boolean isExpired() {
+            return expirationTime != Long.MAX_VALUE && System.currentTimeMillis() >= expirationTime;
+        }
+    }
+}
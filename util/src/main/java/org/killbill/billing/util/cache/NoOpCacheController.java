@@ -17,8 +17,13 @@
 
 package org.killbill.billing.util.cache;
 
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 
 import org.killbill.billing.util.cache.Cachable.CacheType;
@@ -56,6 +61,20 @@ public class NoOpCacheController<K, V> implements CacheController<K, V> {
         }
     }
 
+    @Override
+    public Map<K, V> getAll(final Collection<K> keys, final CacheLoaderArgument cacheLoaderArgument) {
+        final Set<K> keysToRetrieve = new HashSet<K>(keys);
+        keysToRetrieve.remove(null);
+
+        final Map<K, V> values = new HashMap<K, V>();
+        for (final Map.Entry<K, V> entry : baseCacheLoader.computeAll(keysToRetrieve, cacheLoaderArgument).entrySet()) {
+            if (!BaseCacheLoader.EMPTY_VALUE_PLACEHOLDER.equals(entry.getValue())) {
+                values.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return values;
+    }
+
     @Override
     public boolean remove(final K key) {
         return false;
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.cache;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nullable;
+
+import org.killbill.billing.util.cache.Cachable.CacheType;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.BaseStatusListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Near cache invalidations, through Redis pub/sub
+public class RedisNearCacheInvalidations implements NearCacheInvalidations {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisNearCacheInvalidations.class);
+
+    private static final String TOPIC_NAME = "killbill-near-cache-invalidations";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<CacheType, NearCacheController<?, ?>> nearCacheControllers = new ConcurrentHashMap<CacheType, NearCacheController<?, ?>>();
+    private final RTopic topic;
+
+    public RedisNearCacheInvalidations(final RedissonClient redissonClient) {
+        this.topic = redissonClient.getTopic(TOPIC_NAME);
+        topic.addListener(NearCacheInvalidation.class, (channel, invalidation) -> onInvalidation(invalidation));
+        topic.addListener(new BaseStatusListener() {
+            @Override
+            public void onSubscribe(final String channel) {
+                // Invalidations might have been missed while we were disconnected
+                for (final NearCacheController<?, ?> nearCacheController : nearCacheControllers.values()) {
+                    nearCacheController.invalidateAllLocally();
+                }
+            }
+        });
+    }
+
+    public void register(final NearCacheController<?, ?> nearCacheController) {
+        nearCacheControllers.put(nearCacheController.getCacheType(), nearCacheController);
+    }
+
+    @Override
+    public void publish(final CacheType cacheType, @Nullable final Object key) {
+        try {
+            topic.publish(new NearCacheInvalidation(nodeId, cacheType.getCacheName(), key));
+        } catch (final RuntimeException e) {
+            logger.warn("Unable to publish near cache invalidation for cacheName='{}', key='{}'", cacheType.getCacheName(), key, e);
+        }
+    }
+
+    private void onInvalidation(final NearCacheInvalidation invalidation) {
+        if (nodeId.equals(invalidation.getNodeId())) {
+            return;
+        }
+
+        final CacheType cacheType = CacheType.findByName(invalidation.getCacheName());
+        final NearCacheController<?, ?> nearCacheController = cacheType == null ? null : nearCacheControllers.get(cacheType);
+        if (nearCacheController == null) {
+            return;
+        }
+
+        if (invalidation.getKey() == null) {
+            nearCacheController.invalidateAllLocally();
+        } else {
+            nearCacheController.invalidateLocally(invalidation.getKey());
+        }
+    }
+
+    public static class NearCacheInvalidation implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String nodeId;
+        private final String cacheName;
+        private final Object key;
+
+        public NearCacheInvalidation(final String nodeId, final String cacheName, @Nullable final Object key) {
+            this.nodeId = nodeId;
+            this.cacheName = cacheName;
+            this.key = key;
+        }
+
+        public String getNodeId() {
+            return nodeId;
+        }
+
+        public String getCacheName() {
+            return cacheName;
+        }
+
+        public Object getKey() {
+            return key;
+        }
+    }
+}
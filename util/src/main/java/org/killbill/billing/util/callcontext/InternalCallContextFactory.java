@@ -18,6 +18,11 @@
 
 package org.killbill.billing.util.callcontext;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.UUID;
 
@@ -361,6 +366,18 @@ public class InternalCallContextFactory {
         }
     }
 
+    // Bulk version of the account record id lookup of createInternalCallContext(UUID, ObjectType, CallContext): objects which don't exist,
+    // or belong to another tenant, are not part of the returned map
+    public Map<UUID, Long> getAccountRecordIds(final Collection<UUID> objectIds, final ObjectType objectType, final InternalTenantContext context) {
+        final List<UUID> objectIdsForTenant = new ArrayList<UUID>();
+        for (final Entry<UUID, Long> entry : nonEntityDao.retrieveTenantRecordIdsFromObjects(objectIds, objectType, tenantRecordIdCacheController).entrySet()) {
+            if (entry.getValue().equals(context.getTenantRecordId())) {
+                objectIdsForTenant.add(entry.getKey());
+            }
+        }
+        return nonEntityDao.retrieveAccountRecordIdsFromObjects(objectIdsForTenant, objectType, accountRecordIdCacheController);
+    }
+
     // Safe method to retrieve the record id from any object (should only be used by DefaultRecordIdApi)
     public Long getRecordIdFromObject(final UUID objectId, final ObjectType objectType, final TenantContext context) {
         try {
@@ -32,4 +32,14 @@ public interface CatalogConfig extends KillbillConfig {
     @Default("1")
     @Description("Number of threads for the XML loader")
     Integer getCatalogThreadNb();
+
+    @Config("org.killbill.catalog.snapshot.enabled")
+    @Default("false")
+    @Description("Whether to persist a pre-parsed snapshot of the tenant catalogs, used instead of parsing the XML when the catalog versions didn't change")
+    boolean isCatalogSnapshotEnabled();
+
+    @Config("org.killbill.catalog.warmup.threads.nb")
+    @Default("0")
+    @Description("Number of threads used to load the catalogs of all the tenants on startup (0 to disable)")
+    int getCatalogWarmupThreadNb();
 }
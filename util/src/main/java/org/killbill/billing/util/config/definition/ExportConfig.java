@@ -0,0 +1,40 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.config.definition;
+
+import org.skife.config.Config;
+import org.skife.config.Default;
+import org.skife.config.Description;
+
+public interface ExportConfig extends KillbillConfig {
+
+    @Config("org.killbill.export.tenant.directory")
+    @Default("")
+    @Description("Directory where tenant-wide exports are written (tenant-wide exports are disabled until it is set)")
+    String getTenantExportDirectory();
+
+    @Config("org.killbill.export.tenant.threads.nb")
+    @Default("4")
+    @Description("Number of tables exported concurrently during a tenant-wide export (i.e. max number of database connections used)")
+    int getTenantExportNbThreads();
+
+    @Config("org.killbill.export.tenant.chunkSize")
+    @Default("50000")
+    @Description("Max number of rows per chunk file during a tenant-wide export")
+    int getTenantExportChunkSize();
+}
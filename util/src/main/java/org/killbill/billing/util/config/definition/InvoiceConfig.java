@@ -101,6 +101,36 @@ public interface InvoiceConfig extends LockAwareConfig {
     @Description("Whether we fail invoice when we discover missing past usage records")
     boolean isUsageMissingLenient(@Param("dummy") final InternalTenantContext tenantContext);
 
+    @Config("org.killbill.invoice.usage.rollup.enabled")
+    @Default("false")
+    @Description("Whether we read the daily usage rollups instead of the raw usage records when invoicing usage in arrear")
+    boolean isUsageRollupEnabled();
+
+    @Config("org.killbill.invoice.usage.rollup.enabled")
+    @Default("false")
+    @Description("Whether we read the daily usage rollups instead of the raw usage records when invoicing usage in arrear")
+    boolean isUsageRollupEnabled(@Param("dummy") final InternalTenantContext tenantContext);
+
+    @Config("org.killbill.invoice.account.balance.ledger.enabled")
+    @Default("false")
+    @Description("Whether we read the account balance and credit from the per-account balance ledger instead of recomputing them from all invoices")
+    boolean isAccountBalanceLedgerEnabled();
+
+    @Config("org.killbill.invoice.account.balance.ledger.enabled")
+    @Default("false")
+    @Description("Whether we read the account balance and credit from the per-account balance ledger instead of recomputing them from all invoices")
+    boolean isAccountBalanceLedgerEnabled(@Param("dummy") final InternalTenantContext tenantContext);
+
+    @Config("org.killbill.invoice.billingEvents.binaryFormat")
+    @Default("false")
+    @Description("Whether the billing events stored with each invoice use the compact binary format instead of compressed JSON")
+    boolean isBinaryBillingEventsFormatEnabled();
+
+    @Config("org.killbill.invoice.billingEvents.binaryFormat")
+    @Default("false")
+    @Description("Whether the billing events stored with each invoice use the compact binary format instead of compressed JSON")
+    boolean isBinaryBillingEventsFormatEnabled(@Param("dummy") final InternalTenantContext tenantContext);
+
     @Config("org.killbill.invoice.maxDailyNumberOfItemsSafetyBound")
     @Default("15")
     @Description("Maximum daily number of invoice items to generate for a subscription id")
@@ -136,6 +166,61 @@ public interface InvoiceConfig extends LockAwareConfig {
     @Description("Maximum number of times the system will retry to grab global lock (with a 100ms wait each time)")
     int getMaxGlobalLockRetries();
 
+    @Config("org.killbill.invoice.batch.threads.nb")
+    @Default("10")
+    @Description("Number of threads used to generate invoices for a batch of accounts")
+    int getInvoiceBatchThreadNb();
+
+    @Config("org.killbill.invoice.batch.enabled")
+    @Default("false")
+    @Description("Whether a next billing date notification also invoices, in batch, the other accounts of the tenant that have a notification due")
+    boolean isInvoiceBatchEnabled();
+
+    @Config("org.killbill.invoice.batch.minInterval")
+    @Default("1m")
+    @Description("Minimum delay between two batch runs for the same tenant on a node (batch only)")
+    TimeSpan getInvoiceBatchMinInterval();
+
+    @Config("org.killbill.invoice.batch.claimTimeout")
+    @Default("10m")
+    @Description("Delay after which the queue processes again an account whose notifications were claimed by a batch run which didn't complete for that account (batch only)")
+    TimeSpan getInvoiceBatchClaimTimeout();
+
+    @Config("org.killbill.invoice.coalescing.enabled")
+    @Default("false")
+    @Description("Whether invoice runs triggered by bus events for the same account and target date are collapsed while one is pending")
+    boolean isInvoiceRunCoalescingEnabled();
+
+    @Config("org.killbill.invoice.coalescing.window")
+    @Default("0s")
+    @Description("How long an invoice run triggered by a bus event waits for further triggers for the same account and target date (coalescing only)")
+    TimeSpan getInvoiceRunCoalescingWindow();
+
+    @Config("org.killbill.invoice.usage.threads.nb")
+    @Default("0")
+    @Description("Number of threads used to compute the usage items of the subscriptions of an account in parallel (0 to disable)")
+    int getUsageInvoiceThreadNb();
+
+    @Config("org.killbill.invoice.usage.parallel.minSubscriptions")
+    @Default("10")
+    @Description("Minimum number of subscriptions with usage on an account for their usage items to be computed in parallel")
+    int getUsageInvoiceParallelMinSubscriptions();
+
+    @Config("org.killbill.invoice.tree.threads.nb")
+    @Default("0")
+    @Description("Number of threads used to build and merge the item trees of the subscriptions of an account in parallel (0 to disable)")
+    int getInvoiceTreeThreadNb();
+
+    @Config("org.killbill.invoice.tree.parallel.minSubscriptions")
+    @Default("50")
+    @Description("Minimum number of subscriptions on an account for their item trees to be built and merged in parallel")
+    int getInvoiceTreeParallelMinSubscriptions();
+
+    @Config("org.killbill.invoice.tree.flat")
+    @Default("false")
+    @Description("Whether to use the array based implementation of the subscription item trees")
+    boolean isInvoiceTreeFlat();
+
     @Config("org.killbill.invoice.plugin")
     @Default("")
     @Description("Default invoice plugin names")
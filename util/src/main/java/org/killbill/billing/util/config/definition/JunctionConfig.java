@@ -0,0 +1,35 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.config.definition;
+
+import org.skife.config.Config;
+import org.skife.config.Default;
+import org.skife.config.Description;
+
+public interface JunctionConfig extends KillbillConfig {
+
+    @Config("org.killbill.billing.events.incremental.enabled")
+    @Default("false")
+    @Description("Whether billing events are recomputed only for the bundles whose subscription events or tags changed since the last invoice run")
+    boolean isIncrementalBillingEventsEnabled();
+
+    @Config("org.killbill.billing.events.incremental.maxAccounts")
+    @Default("10000")
+    @Description("Maximum number of accounts for which billing events snapshots are kept in memory")
+    int getIncrementalBillingEventsMaxAccounts();
+}
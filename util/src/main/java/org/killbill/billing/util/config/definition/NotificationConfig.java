@@ -38,4 +38,39 @@ public interface NotificationConfig extends KillbillConfig {
     @Description("Delay before which unresolved push notifications should be retried")
     List<TimeSpan> getPushNotificationsRetries(@Param("dummy") final InternalTenantContext tenantContext);
 
+    @Config("org.killbill.billing.server.notifications.timeout")
+    @Default("15s")
+    @Description("Connection and request timeout for push notifications")
+    TimeSpan getPushNotificationsTimeout();
+
+    @Config("org.killbill.billing.server.notifications.endpoint.queueSize")
+    @Default("1000")
+    @Description("Max number of push notifications waiting to be sent to a given callback URL (further notifications are re-scheduled)")
+    int getPushNotificationsEndpointQueueSize();
+
+    @Config("org.killbill.billing.server.notifications.endpoint.maxConcurrentRequests")
+    @Default("1")
+    @Description("Max number of concurrent requests to a given callback URL (1 preserves the ordering of the notifications)")
+    int getPushNotificationsEndpointMaxConcurrentRequests();
+
+    @Config("org.killbill.billing.server.notifications.batchSize")
+    @Default("1")
+    @Description("Max number of push notifications sent in a single request (when greater than 1, the body is a JSON array)")
+    int getPushNotificationsBatchSize();
+
+    @Config("org.killbill.billing.server.notifications.circuitBreaker.failureThreshold")
+    @Default("5")
+    @Description("Number of consecutive failures after which push notifications to a given callback URL are directly re-scheduled (0 to disable)")
+    int getPushNotificationsCircuitBreakerFailureThreshold();
+
+    @Config("org.killbill.billing.server.notifications.circuitBreaker.openDuration")
+    @Default("30s")
+    @Description("Delay before a callback URL is tried again, once its circuit breaker is open")
+    TimeSpan getPushNotificationsCircuitBreakerOpenDuration();
+
+    @Config("org.killbill.billing.server.notifications.endpoint.idleTimeout")
+    @Default("10m")
+    @Description("Delay after which the state (queue, circuit breaker and metrics) of a callback URL without any push notification is discarded")
+    TimeSpan getPushNotificationsEndpointIdleTimeout();
+
 }
\ No newline at end of file
@@ -125,6 +125,21 @@ public interface PaymentConfig extends LockAwareConfig {
     @Description("Number of threads for plugin executor dispatcher")
     int getPaymentPluginThreadNb();
 
+    @Config("org.killbill.payment.plugin.bulkhead.maxConcurrentCalls")
+    @Default("0")
+    @Description("Maximum number of concurrent calls per payment plugin (0 to disable): when set lower than org.killbill.payment.plugin.threads.nb, a slow plugin cannot occupy all the plugin executor threads")
+    int getPaymentPluginBulkheadMaxConcurrentCalls();
+
+    @Config("org.killbill.payment.plugin.info.threads.nb")
+    @Default("1")
+    @Description("Number of concurrent plugin calls when retrieving the plugin info of all the payments of an account (1 to call the plugin sequentially)")
+    int getPaymentPluginInfoThreadNb();
+
+    @Config("org.killbill.payment.plugin.info.timeout")
+    @Default("30s")
+    @Description("Overall timeout when retrieving concurrently the plugin info of all the payments of an account (payments are returned without plugin info past that deadline)")
+    TimeSpan getPaymentPluginInfoTimeout();
+
     @Config("org.killbill.payment.globalLock.retries")
     @Default("50")
     @Description("Maximum number of times the system will retry to grab global lock (with a 100ms wait each time)")
@@ -21,6 +21,7 @@ import org.skife.config.Config;
 import org.skife.config.Default;
 import org.skife.config.DefaultNull;
 import org.skife.config.Description;
+import org.skife.config.TimeSpan;
 
 public interface RedisCacheConfig extends KillbillConfig {
 
@@ -43,4 +44,19 @@ public interface RedisCacheConfig extends KillbillConfig {
     @DefaultNull
     @Description("Redis Password")
     public String getPassword();
+
+    @Config("org.killbill.cache.config.redis.nearCache.enabled")
+    @Default("false")
+    @Description("Whether to keep an in-process cache in front of Redis (invalidated across nodes via Redis pub/sub)")
+    public boolean isNearCacheEnabled();
+
+    @Config("org.killbill.cache.config.redis.nearCache.maxEntries")
+    @Default("10000")
+    @Description("Maximum number of entries of the in-process cache, per cache")
+    public int getNearCacheMaxEntries();
+
+    @Config("org.killbill.cache.config.redis.nearCache.ttl")
+    @Default("5m")
+    @Description("Time to live of the in-process cache entries (immutable mappings don't expire)")
+    public TimeSpan getNearCacheTtl();
 }
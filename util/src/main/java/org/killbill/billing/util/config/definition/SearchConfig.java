@@ -0,0 +1,36 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.config.definition;
+
+import org.skife.config.Config;
+import org.skife.config.Default;
+import org.skife.config.Description;
+
+public interface SearchConfig extends KillbillConfig {
+
+    @Config("org.killbill.search.index.enabled")
+    @Default("false")
+    // Note: this changes the search semantics, not only its cost. When enabled, a search key only matches records having a
+    // token (the whole trimmed value of a searchable column, or one of its words) starting with that key: e.g. 'smi' matches
+    // a 'John Smith' account, but 'mith' (which the substring LIKE matching used when disabled does match) doesn't anymore.
+    // The index is only maintained while enabled: when turning it on for a deployment which ran with it disabled, empty the
+    // search_index table and re-run the backfill statements of the accounts and payments search index migrations first.
+    @Description("Whether account and payment searches are answered from the search_index table (token prefix matches on whole values and words) " +
+                 "instead of scanning the tables (substring LIKE matches): a search key matching only the middle of a word is no longer found when enabled")
+    boolean isSearchIndexEnabled();
+}
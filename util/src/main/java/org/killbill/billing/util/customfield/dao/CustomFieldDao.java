@@ -19,6 +19,8 @@ package org.killbill.billing.util.customfield.dao;
 import java.util.List;
 import java.util.UUID;
 
+import javax.annotation.Nullable;
+
 import org.killbill.billing.ObjectType;
 import org.killbill.billing.callcontext.InternalCallContext;
 import org.killbill.billing.callcontext.InternalTenantContext;
@@ -33,6 +35,9 @@ public interface CustomFieldDao extends EntityDao<CustomFieldModelDao, CustomFie
 
     public Pagination<CustomFieldModelDao> searchCustomFields(String searchKey, Long offset, Long limit, InternalTenantContext context);
 
+    // Keyset (seek) pagination, see DefaultPaginationSqlDaoHelper#getPaginationWithCursor
+    public Pagination<CustomFieldModelDao> searchCustomFields(String searchKey, @Nullable Long cursor, Long offset, Long limit, InternalTenantContext context);
+
     public Pagination<CustomFieldModelDao> searchCustomFields(final String fieldName, final ObjectType objectType, Long offset, Long limit, InternalTenantContext context);
 
     public Pagination<CustomFieldModelDao> searchCustomFields(final String fieldName, final String fieldValue, final ObjectType objectType, Long offset, Long limit, InternalTenantContext context);
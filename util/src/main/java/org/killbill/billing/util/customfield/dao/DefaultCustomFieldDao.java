@@ -201,22 +201,41 @@ public class DefaultCustomFieldDao extends EntityDaoBase<CustomFieldModelDao, Cu
     @Override
     public Pagination<CustomFieldModelDao> searchCustomFields(final String searchKey, final Long offset, final Long limit, final InternalTenantContext context) {
         return paginationHelper.getPagination(CustomFieldSqlDao.class,
-                                              new PaginationIteratorBuilder<CustomFieldModelDao, CustomField, CustomFieldSqlDao>() {
-                                                  @Override
-                                                  public Long getCount(final CustomFieldSqlDao customFieldSqlDao, final InternalTenantContext context) {
-                                                      return customFieldSqlDao.getSearchCount(searchKey, String.format("%%%s%%", searchKey), context);
-                                                  }
-
-                                                  @Override
-                                                  public Iterator<CustomFieldModelDao> build(final CustomFieldSqlDao customFieldSqlDao, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context) {
-                                                      return customFieldSqlDao.search(searchKey, String.format("%%%s%%", searchKey), offset, limit, ordering.toString(), context);
-                                                  }
-                                              },
+                                              getSearchCustomFieldsPaginationIteratorBuilder(searchKey),
                                               offset,
                                               limit,
                                               context);
     }
 
+    @Override
+    public Pagination<CustomFieldModelDao> searchCustomFields(final String searchKey, @Nullable final Long cursor, final Long offset, final Long limit, final InternalTenantContext context) {
+        return paginationHelper.getPaginationWithCursor(CustomFieldSqlDao.class,
+                                                        getSearchCustomFieldsPaginationIteratorBuilder(searchKey),
+                                                        cursor,
+                                                        offset,
+                                                        limit,
+                                                        context);
+    }
+
+    private PaginationIteratorBuilder<CustomFieldModelDao, CustomField, CustomFieldSqlDao> getSearchCustomFieldsPaginationIteratorBuilder(final String searchKey) {
+        return new PaginationIteratorBuilder<CustomFieldModelDao, CustomField, CustomFieldSqlDao>() {
+            @Override
+            public Long getCount(final CustomFieldSqlDao customFieldSqlDao, final InternalTenantContext context) {
+                return customFieldSqlDao.getSearchCount(searchKey, String.format("%%%s%%", searchKey), context);
+            }
+
+            @Override
+            public Iterator<CustomFieldModelDao> build(final CustomFieldSqlDao customFieldSqlDao, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context) {
+                return customFieldSqlDao.search(searchKey, String.format("%%%s%%", searchKey), offset, limit, ordering.toString(), context);
+            }
+
+            @Override
+            public Iterator<CustomFieldModelDao> buildFromCursor(final CustomFieldSqlDao customFieldSqlDao, final Long cursor, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context) {
+                return customFieldSqlDao.searchFromCursor(searchKey, String.format("%%%s%%", searchKey), cursor, offset, limit, ordering.toString(), ordering.getCursorComparator(), context);
+            }
+        };
+    }
+
     @Override
     public Pagination<CustomFieldModelDao> searchCustomFields(final String fieldName, final ObjectType objectType, final Long offset, final Long limit, final InternalTenantContext context) {
         return paginationHelper.getPagination(CustomFieldSqlDao.class,
@@ -18,6 +18,10 @@
 
 package org.killbill.billing.util.dao;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.UUID;
 
 import javax.annotation.Nullable;
@@ -107,6 +111,35 @@ public class DefaultNonEntityDao implements NonEntityDao {
         }, objectIdOrNull, objectType, tableName, cache);
     }
 
+    @Override
+    public Map<UUID, Long> retrieveAccountRecordIdsFromObjects(final Collection<UUID> objectIds, final ObjectType objectType, @Nullable final CacheController<String, Long> cache) {
+        return retrieveAccountRecordIdsFromObjectsInTransaction(objectIds, objectType, cache, null);
+    }
+
+    @Override
+    public Map<UUID, Long> retrieveAccountRecordIdsFromObjectsInTransaction(final Collection<UUID> objectIds, final ObjectType objectType, @Nullable final CacheController<String, Long> cache, @Nullable final Handle handle) {
+        final TableName tableName = TableName.fromObjectType(objectType);
+        Preconditions.checkNotNull(tableName, "%s is not a valid ObjectType", objectType);
+
+        return withCachingObjectId.withCachingAll(new OperationRetrievalAll<String, Long>() {
+            @Override
+            public Map<String, Long> doRetrieve(final Collection<String> rawObjectIds, final ObjectType objectType) {
+                switch (tableName) {
+                    case TENANT:
+                    case TAG_DEFINITIONS:
+                    case TAG_DEFINITION_HISTORY:
+                        return Map.of();
+
+                    case ACCOUNT:
+                        return getRecordIdsForIds(rawObjectIds, tableName, "record_id", handle);
+
+                    default:
+                        return getRecordIdsForIds(rawObjectIds, tableName, "account_record_id", handle);
+                }
+            }
+        }, objectIds, objectType, tableName, cache);
+    }
+
     @Override
     public Long retrieveTenantRecordIdFromObject(@Nullable final UUID objectId, final ObjectType objectType, @Nullable final CacheController<String, Long> cache) {
         return retrieveTenantRecordIdFromObjectInTransaction(objectId, objectType, cache, null);
@@ -136,6 +169,30 @@ public class DefaultNonEntityDao implements NonEntityDao {
         }, objectIdOrNull, objectType, tableName, cache);
     }
 
+    @Override
+    public Map<UUID, Long> retrieveTenantRecordIdsFromObjects(final Collection<UUID> objectIds, final ObjectType objectType, @Nullable final CacheController<String, Long> cache) {
+        return retrieveTenantRecordIdsFromObjectsInTransaction(objectIds, objectType, cache, null);
+    }
+
+    @Override
+    public Map<UUID, Long> retrieveTenantRecordIdsFromObjectsInTransaction(final Collection<UUID> objectIds, final ObjectType objectType, @Nullable final CacheController<String, Long> cache, @Nullable final Handle handle) {
+        final TableName tableName = TableName.fromObjectType(objectType);
+        Preconditions.checkNotNull(tableName, "%s is not a valid ObjectType", objectType);
+
+        return withCachingObjectId.withCachingAll(new OperationRetrievalAll<String, Long>() {
+            @Override
+            public Map<String, Long> doRetrieve(final Collection<String> rawObjectIds, final ObjectType objectType) {
+                switch (tableName) {
+                    case TENANT:
+                        return getRecordIdsForIds(rawObjectIds, tableName, "record_id", handle);
+
+                    default:
+                        return getRecordIdsForIds(rawObjectIds, tableName, "tenant_record_id", handle);
+                }
+            }
+        }, objectIds, objectType, tableName, cache);
+    }
+
     @Override
     public UUID retrieveIdFromObject(final Long recordId, final ObjectType objectType, @Nullable final CacheController<String, UUID> cache) {
         return retrieveIdFromObjectInTransaction(recordId, objectType, cache, null);
@@ -170,11 +227,26 @@ public class DefaultNonEntityDao implements NonEntityDao {
         return dbRouter.onDemand(true).getHistoryTargetRecordId(recordId, tableName.getTableName());
     }
 
+    private Map<String, Long> getRecordIdsForIds(final Collection<String> objectIds, final TableName tableName, final String recordIdColumn, @Nullable final Handle handle) {
+        final NonEntitySqlDao inTransactionNonEntitySqlDao = handle == null ? dbRouter.onDemand(true) : SqlObjectBuilder.attach(handle, NonEntitySqlDao.class);
+        final Map<String, Long> result = new HashMap<String, Long>();
+        for (final RecordIdIdMappings mapping : inTransactionNonEntitySqlDao.getRecordIdIdMappingsForIds(tableName.getTableName(), recordIdColumn, objectIds)) {
+            result.put(mapping.getId().toString(), mapping.getRecordId());
+        }
+        return result;
+    }
+
     private interface OperationRetrieval<TypeOut> {
 
         public TypeOut doRetrieve(final ObjectType objectType);
     }
 
+    private interface OperationRetrievalAll<TypeIn, TypeOut> {
+
+        // Objects without a value are not part of the returned map
+        public Map<TypeIn, TypeOut> doRetrieve(final Collection<TypeIn> objectIds, final ObjectType objectType);
+    }
+
     // 'cache' will be null for the CacheLoader classes -- or if cache is not configured.
     private static class WithCaching<TypeIn, TypeOut> {
 
@@ -199,5 +271,40 @@ public class DefaultNonEntityDao implements NonEntityDao {
             });
             return result;
         }
+
+        // Bulk version of withCaching: the cached values are fetched, and the missing ones loaded, in batch
+        private Map<UUID, TypeOut> withCachingAll(final OperationRetrievalAll<TypeIn, TypeOut> op, final Collection<UUID> objectIds, final ObjectType objectType, final TableName tableName, @Nullable final CacheController<TypeIn, TypeOut> cache) {
+            final Map<TypeIn, UUID> objectIdsByKey = new HashMap<TypeIn, UUID>();
+            for (final UUID objectId : objectIds) {
+                if (objectId != null) {
+                    final TypeIn key = (cache != null && cache.getCacheType().isKeyPrefixedWithTableName()) ?
+                                       (TypeIn) (tableName + CacheControllerDispatcher.CACHE_KEY_SEPARATOR + objectId) :
+                                       (TypeIn) objectId.toString();
+                    objectIdsByKey.put(key, objectId);
+                }
+            }
+            if (objectIdsByKey.isEmpty()) {
+                return Map.of();
+            }
+
+            final Map<TypeIn, TypeOut> values;
+            if (cache != null) {
+                values = cache.getAll(objectIdsByKey.keySet(), new CacheLoaderArgument(objectType));
+            } else {
+                final Profiling<Map<TypeIn, TypeOut>, RuntimeException> prof = new Profiling<Map<TypeIn, TypeOut>, RuntimeException>();
+                values = prof.executeWithProfiling(ProfilingFeatureType.DAO_DETAILS, "NonEntityDao (type = " + objectType + ") cache misses", new WithProfilingCallback<Map<TypeIn, TypeOut>, RuntimeException>() {
+                    @Override
+                    public Map<TypeIn, TypeOut> execute() throws RuntimeException {
+                        return op.doRetrieve(objectIdsByKey.keySet(), objectType);
+                    }
+                });
+            }
+
+            final Map<UUID, TypeOut> result = new HashMap<UUID, TypeOut>();
+            for (final Entry<TypeIn, TypeOut> entry : values.entrySet()) {
+                result.put(objectIdsByKey.get(entry.getKey()), entry.getValue());
+            }
+            return result;
+        }
     }
 }
@@ -18,6 +18,8 @@
 
 package org.killbill.billing.util.dao;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.UUID;
 
 import javax.annotation.Nullable;
@@ -37,10 +39,20 @@ public interface NonEntityDao {
 
     public Long retrieveAccountRecordIdFromObjectInTransaction(final UUID objectId, final ObjectType objectType, @Nullable final CacheController<String, Long> cache, @Nullable final Handle handle);
 
+    // Bulk version of retrieveAccountRecordIdFromObject: objects without account_record_id are not part of the returned map
+    public Map<UUID, Long> retrieveAccountRecordIdsFromObjects(final Collection<UUID> objectIds, final ObjectType objectType, @Nullable final CacheController<String, Long> cache);
+
+    public Map<UUID, Long> retrieveAccountRecordIdsFromObjectsInTransaction(final Collection<UUID> objectIds, final ObjectType objectType, @Nullable final CacheController<String, Long> cache, @Nullable final Handle handle);
+
     public Long retrieveTenantRecordIdFromObject(final UUID objectId, final ObjectType objectType, @Nullable final CacheController<String, Long> cache);
 
     public Long retrieveTenantRecordIdFromObjectInTransaction(final UUID objectId, final ObjectType objectType, @Nullable final CacheController<String, Long> cache, @Nullable final Handle handle);
 
+    // Bulk version of retrieveTenantRecordIdFromObject: objects which don't exist are not part of the returned map
+    public Map<UUID, Long> retrieveTenantRecordIdsFromObjects(final Collection<UUID> objectIds, final ObjectType objectType, @Nullable final CacheController<String, Long> cache);
+
+    public Map<UUID, Long> retrieveTenantRecordIdsFromObjectsInTransaction(final Collection<UUID> objectIds, final ObjectType objectType, @Nullable final CacheController<String, Long> cache, @Nullable final Handle handle);
+
     public UUID retrieveIdFromObject(final Long recordId, final ObjectType objectType, @Nullable final CacheController<String, UUID> cache);
 
     public UUID retrieveIdFromObjectInTransaction(final Long recordId, final ObjectType objectType, @Nullable final CacheController<String, UUID> cache, @Nullable final Handle handle);
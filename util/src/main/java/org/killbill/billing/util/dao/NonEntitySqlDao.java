@@ -18,6 +18,8 @@
 
 package org.killbill.billing.util.dao;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 import org.killbill.billing.callcontext.InternalTenantContext;
@@ -28,6 +30,7 @@ import org.skife.jdbi.v2.sqlobject.SqlQuery;
 import org.skife.jdbi.v2.sqlobject.customizers.Define;
 import org.skife.jdbi.v2.sqlobject.mixins.CloseMe;
 import org.skife.jdbi.v2.sqlobject.mixins.Transactional;
+import org.skife.jdbi.v2.unstable.BindIn;
 
 @KillBillSqlDaoStringTemplate
 public interface NonEntitySqlDao extends Transactional<NonEntitySqlDao>, CloseMe {
@@ -77,4 +80,21 @@ public interface NonEntitySqlDao extends Transactional<NonEntitySqlDao>, CloseMe
     @SqlQuery
     public Iterable<RecordIdIdMappings> getRecordIdIdMappings(@Define("tableName") String tableName,
                                                               @SmartBindBean final InternalTenantContext context);
+
+    @SqlQuery
+    public Iterable<RecordIdIdMappings> getRecordIdIdMappingsForRecordIds(@Define("tableName") String tableName,
+                                                                          @BindIn("recordIds") final Collection<Long> recordIds,
+                                                                          @SmartBindBean final InternalTenantContext context);
+
+    // Not tenant aware: see the callers of NonEntityDao
+    @SqlQuery
+    public List<RecordIdIdMappings> getRecordIdIdMappingsForIds(@Define("tableName") String tableName,
+                                                                @Define("recordIdColumn") String recordIdColumn,
+                                                                @BindIn("ids") final Collection<String> ids);
+
+    @SqlQuery
+    public Iterable<RecordIdIdMappings> getHistoryRecordIdIdMappingsForHistoryRecordIds(@Define("tableName") String tableName,
+                                                                                        @Define("historyTableName") String historyTableName,
+                                                                                        @BindIn("recordIds") final Collection<Long> historyRecordIds,
+                                                                                        @SmartBindBean final InternalTenantContext context);
 }
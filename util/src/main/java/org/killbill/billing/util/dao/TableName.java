@@ -65,7 +65,8 @@ public enum TableName {
     TENANT_KVS("tenant_kvs", ObjectType.TENANT_KVS),
     TENANT_BROADCASTS("tenant_broadcasts"),
     TAG("tags", ObjectType.TAG, TAG_HISTORY),
-    ROLLED_UP_USAGE("rolled_up_usage");
+    ROLLED_UP_USAGE("rolled_up_usage"),
+    ROLLED_UP_USAGE_DAILY("rolled_up_usage_daily");
 
     private final String tableName;
     private final ObjectType objectType;
@@ -35,6 +35,9 @@ public class DefaultPagination<T> implements Pagination<T>, Closeable {
     private final Long limit;
     private final Long totalNbRecords;
     private final Long maxNbRecords;
+    // Keyset (seek) pagination, see DefaultPaginationSqlDaoHelper
+    private final boolean withCursor;
+    private final Long nextCursor;
     private final Iterator<T> delegateIterator;
 
     // Builders when the streaming API can't be used (should only be used for tests)
@@ -59,7 +62,13 @@ public class DefaultPagination<T> implements Pagination<T>, Closeable {
 
     // Constructor for DAO -> API bridge
     public DefaultPagination(final Pagination original, final Long limit, final Iterator<T> delegate) {
-        this(original.getCurrentOffset(), limit, original.getTotalNbRecords(), original.getMaxNbRecords(), delegate);
+        this(original.getCurrentOffset(),
+             limit,
+             original.getTotalNbRecords(),
+             original.getMaxNbRecords(),
+             original instanceof DefaultPagination && ((DefaultPagination) original).withCursor,
+             original instanceof DefaultPagination ? ((DefaultPagination) original).nextCursor : null,
+             delegate);
     }
 
     // Constructor for DAO getAll calls
@@ -70,11 +79,28 @@ public class DefaultPagination<T> implements Pagination<T>, Closeable {
     public DefaultPagination(final Long currentOffset, final Long limit,
                              @Nullable final Long totalNbRecords, @Nullable final Long maxNbRecords,
                              final Iterator<T> delegateIterator) {
+        this(currentOffset, limit, totalNbRecords, maxNbRecords, false, null, delegateIterator);
+    }
+
+    // Constructor for keyset (seek) pagination: a null nextCursor means there are no more results
+    public DefaultPagination(final Long currentOffset, final Long limit,
+                             @Nullable final Long totalNbRecords, @Nullable final Long maxNbRecords,
+                             @Nullable final Long nextCursor,
+                             final Iterator<T> delegateIterator) {
+        this(currentOffset, limit, totalNbRecords, maxNbRecords, true, nextCursor, delegateIterator);
+    }
+
+    private DefaultPagination(final Long currentOffset, final Long limit,
+                              @Nullable final Long totalNbRecords, @Nullable final Long maxNbRecords,
+                              final boolean withCursor, @Nullable final Long nextCursor,
+                              final Iterator<T> delegateIterator) {
         this.currentOffset = currentOffset;
         // See DefaultPaginationSqlDaoHelper
         this.limit = Math.abs(limit);
         this.totalNbRecords = totalNbRecords;
         this.maxNbRecords = maxNbRecords;
+        this.withCursor = withCursor;
+        this.nextCursor = nextCursor;
         this.delegateIterator = delegateIterator;
     }
 
@@ -103,7 +129,7 @@ public class DefaultPagination<T> implements Pagination<T>, Closeable {
     @Override
     public Long getNextOffset() {
         final long candidate = currentOffset + limit;
-        if (totalNbRecords != null && candidate >= totalNbRecords) {
+        if ((totalNbRecords != null && candidate >= totalNbRecords) || (withCursor && nextCursor == null)) {
             // No more results
             return null;
         } else {
@@ -115,6 +141,14 @@ public class DefaultPagination<T> implements Pagination<T>, Closeable {
         }
     }
 
+    /**
+     * @return the cursor to use to retrieve the next page, null if keyset pagination wasn't requested or if there are no more results
+     */
+    @Nullable
+    public Long getNextCursor() {
+        return getNextOffset() == null ? null : nextCursor;
+    }
+
     @Override
     public Long getMaxNbRecords() {
         return maxNbRecords;
@@ -130,6 +164,7 @@ public class DefaultPagination<T> implements Pagination<T>, Closeable {
         final StringBuilder sb = new StringBuilder("DefaultPagination{");
         sb.append("currentOffset=").append(currentOffset);
         sb.append(", nextOffset=").append(getNextOffset());
+        sb.append(", nextCursor=").append(nextCursor);
         sb.append(", totalNbRecords=").append(totalNbRecords);
         sb.append(", maxNbRecords=").append(maxNbRecords);
         sb.append('}');
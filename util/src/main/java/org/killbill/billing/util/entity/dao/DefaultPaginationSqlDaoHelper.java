@@ -18,7 +18,10 @@
 
 package org.killbill.billing.util.entity.dao;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
 
 import javax.annotation.Nullable;
 
@@ -38,6 +41,9 @@ public class DefaultPaginationSqlDaoHelper {
     // but small enough to not impact very large deployments
     private static final Long DEFAULT_SIMPLE_PAGINATION_THRESHOLD = 20000L;
 
+    // Keyset pagination: pages up to that size are fetched in a single query (and kept in memory), larger ones are streamed
+    private static final Long MAX_LIMIT_FOR_FETCHED_PAGES = 1000L;
+
     private final EntitySqlDaoTransactionalJdbiWrapper transactionalSqlDao;
     private final Long simplePaginationThreshold;
 
@@ -58,7 +64,24 @@ public class DefaultPaginationSqlDaoHelper {
                                                                                                                      final Long limitMaybeNegative,
                                                                                                                      @Nullable final InternalTenantContext context) {
 
-        return getPaginationInternal(sqlDaoClazz, paginationIteratorBuilder, offset, limitMaybeNegative, false, context);
+        return getPaginationInternal(sqlDaoClazz, paginationIteratorBuilder, offset, limitMaybeNegative, false, false, null, context);
+
+    }
+
+    /**
+     * Keyset (seek) pagination: records are looked up after the cursor (the record_id of the last record of the previous page) instead of
+     * skipping offset records, and the cursor of the next page is returned via {@link DefaultPagination#getNextCursor()}. A null cursor
+     * requests the page at offset (typically the first one). Builders which don't implement
+     * {@link PaginationIteratorBuilder#buildFromCursor(EntitySqlDao, Long, Long, Long, Ordering, InternalTenantContext)} use the offset instead.
+     */
+    public <E extends Entity, M extends EntityModelDao<E>, S extends EntitySqlDao<M, E>> Pagination<M> getPaginationWithCursor(final Class<? extends EntitySqlDao<M, E>> sqlDaoClazz,
+                                                                                                                               final PaginationIteratorBuilder<M, E, S> paginationIteratorBuilder,
+                                                                                                                               @Nullable final Long cursor,
+                                                                                                                               final Long offset,
+                                                                                                                               final Long limitMaybeNegative,
+                                                                                                                               @Nullable final InternalTenantContext context) {
+
+        return getPaginationInternal(sqlDaoClazz, paginationIteratorBuilder, offset, limitMaybeNegative, false, true, cursor, context);
 
     }
 
@@ -68,7 +91,7 @@ public class DefaultPaginationSqlDaoHelper {
                                                                                                                                         final Long limitMaybeNegative,
                                                                                                                                         @Nullable final InternalTenantContext context) {
 
-        return getPaginationInternal(sqlDaoClazz, paginationIteratorBuilder, offset, limitMaybeNegative, true, context);
+        return getPaginationInternal(sqlDaoClazz, paginationIteratorBuilder, offset, limitMaybeNegative, true, false, null, context);
 
     }
 
@@ -77,12 +100,25 @@ public class DefaultPaginationSqlDaoHelper {
                                                                                                                               final Long offset,
                                                                                                                               final Long limitMaybeNegative,
                                                                                                                               final boolean withAccountRecordId,
+                                                                                                                              final boolean cursorRequested,
+                                                                                                                              @Nullable final Long cursor,
                                                                                                                               @Nullable final InternalTenantContext context) {
         // Use a negative limit as a hint to go backwards. It's a bit awkward -- using a negative offset instead would be more intuitive,
         // but it is non-deterministic for the first page unfortunately (limit 0 offset 50: ASC or DESC?)
         final Ordering ordering = limitMaybeNegative >= 0 ? Ordering.ASC : Ordering.DESC;
         final Long limit = Math.abs(limitMaybeNegative);
 
+        // Keyset (seek) pagination, if requested by the caller (see getPaginationWithCursor)
+        final boolean withCursor = cursorRequested && context != null && limit > 0;
+        if (withCursor && cursor != null) {
+            // Page N costs the same as page 1: no count queries (the caller got them with the first page) and no offset to skip
+            final Pagination<M> pagination = getPaginationFromCursor(sqlDaoClazz, paginationIteratorBuilder, offset, cursor, 0L, limit, ordering, null, null, context);
+            if (pagination != null) {
+                return pagination;
+            }
+            logger.debug("Keyset pagination not supported for sqlDaoClazz='{}', using offset='{}'", sqlDaoClazz, offset);
+        }
+
         // Note: the connection will be busy as we stream the results out: hence we cannot use
         // SQL_CALC_FOUND_ROWS / FOUND_ROWS on the actual query.
         // We still need to know the actual number of results, mainly for the UI so that it knows if it needs to fetch
@@ -116,13 +152,99 @@ public class DefaultPaginationSqlDaoHelper {
             }
         }
 
-        final Iterator<M> results = paginationIteratorBuilder.build((S) sqlDao, offset, limit, ordering, context);
-
         final Long totalNbRecords = totalNbRecordsOrNull == null ? maxNbRecords : totalNbRecordsOrNull;
 
+        // First page of a keyset pagination: the records at offset, along with the cursor of the next page
+        if (withCursor) {
+            final Pagination<M> pagination = getPaginationFromCursor(sqlDaoClazz, paginationIteratorBuilder, offset, ordering.getInitialCursor(), offset, limit, ordering, totalNbRecords, maxNbRecords, context);
+            if (pagination != null) {
+                return pagination;
+            }
+        }
+
+        final Iterator<M> results = paginationIteratorBuilder.build((S) sqlDao, offset, limit, ordering, context);
         return new DefaultPagination<M>(offset, limit, totalNbRecords, maxNbRecords, results);
     }
 
+    // The last record of the page is the cursor of the next one, if there is a record after it. Returns null if keyset pagination isn't supported
+    private <E extends Entity, M extends EntityModelDao<E>, S extends EntitySqlDao<M, E>> Pagination<M> getPaginationFromCursor(final Class<? extends EntitySqlDao<M, E>> sqlDaoClazz,
+                                                                                                                                final PaginationIteratorBuilder<M, E, S> paginationIteratorBuilder,
+                                                                                                                                final Long offset,
+                                                                                                                                final Long cursor,
+                                                                                                                                final Long offsetFromCursor,
+                                                                                                                                final Long limit,
+                                                                                                                                final Ordering ordering,
+                                                                                                                                @Nullable final Long totalNbRecords,
+                                                                                                                                @Nullable final Long maxNbRecords,
+                                                                                                                                final InternalTenantContext context) {
+        if (limit > MAX_LIMIT_FOR_FETCHED_PAGES) {
+            // The next cursor must be known before we start streaming
+            final Optional<Long> nextCursorOrNull = getNextCursor(sqlDaoClazz, paginationIteratorBuilder, cursor, offsetFromCursor + limit - 1, ordering, context);
+            if (nextCursorOrNull == null) {
+                return null;
+            }
+
+            final EntitySqlDao<M, E> sqlDao = transactionalSqlDao.onDemandForStreamingResults(sqlDaoClazz);
+            final Iterator<M> results = paginationIteratorBuilder.buildFromCursor((S) sqlDao, cursor, offsetFromCursor, limit, ordering, context);
+            return new DefaultPagination<M>(offset, limit, totalNbRecords, maxNbRecords, nextCursorOrNull.orElse(null), results);
+        }
+
+        // Single query: the extra record tells whether there is a next page
+        final List<M> records = transactionalSqlDao.execute(true, new EntitySqlDaoTransactionWrapper<List<M>>() {
+            @Override
+            public List<M> inTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory) throws Exception {
+                final EntitySqlDao<M, E> sqlDao = entitySqlDaoWrapperFactory.become(sqlDaoClazz);
+                final Iterator<M> results = paginationIteratorBuilder.buildFromCursor((S) sqlDao, cursor, offsetFromCursor, limit + 1, ordering, context);
+                if (results == null) {
+                    return null;
+                }
+
+                final List<M> records = new ArrayList<M>();
+                results.forEachRemaining(records::add);
+                return records;
+            }
+        });
+        if (records == null) {
+            return null;
+        }
+
+        final boolean hasNextPage = records.size() > limit;
+        final List<M> page = hasNextPage ? records.subList(0, limit.intValue()) : records;
+        final Long nextCursor = hasNextPage ? page.get(page.size() - 1).getRecordId() : null;
+        return new DefaultPagination<M>(offset, limit, totalNbRecords, maxNbRecords, nextCursor, page.iterator());
+    }
+
+    // Returns the record_id at that position (i.e. the last record of the page), as long as there is at least one record after it.
+    // Returns null if keyset pagination isn't supported, empty if there is no next page
+    private <E extends Entity, M extends EntityModelDao<E>, S extends EntitySqlDao<M, E>> Optional<Long> getNextCursor(final Class<? extends EntitySqlDao<M, E>> sqlDaoClazz,
+                                                                                                                               final PaginationIteratorBuilder<M, E, S> paginationIteratorBuilder,
+                                                                                                                               final Long cursor,
+                                                                                                                               final Long offset,
+                                                                                                                               final Ordering ordering,
+                                                                                                                               final InternalTenantContext context) {
+        return transactionalSqlDao.execute(true, new EntitySqlDaoTransactionWrapper<Optional<Long>>() {
+            @Override
+            public Optional<Long> inTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory) throws Exception {
+                final EntitySqlDao<M, E> sqlDao = entitySqlDaoWrapperFactory.become(sqlDaoClazz);
+                // Fetch the first record of the next page as well, to know whether there is one
+                final Iterator<M> records = paginationIteratorBuilder.buildFromCursor((S) sqlDao, cursor, offset, 2L, ordering, context);
+                if (records == null) {
+                    return null;
+                }
+
+                Long recordId = null;
+                int nbRecords = 0;
+                while (records.hasNext()) {
+                    final Long curRecordId = records.next().getRecordId();
+                    if (nbRecords++ == 0) {
+                        recordId = curRecordId;
+                    }
+                }
+                return Optional.ofNullable(nbRecords > 1 ? recordId : null);
+            }
+        });
+    }
+
     public abstract static class PaginationIteratorBuilder<M extends EntityModelDao<E>, E extends Entity, S extends EntitySqlDao<M, E>> {
 
         // Determine the totalNbRecords:
@@ -131,10 +253,32 @@ public class DefaultPaginationSqlDaoHelper {
         public abstract Long getCount(final S sqlDao, final InternalTenantContext context);
 
         public abstract Iterator<M> build(final S sqlDao, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context);
+
+        // Keyset (seek) pagination: same as build, but only considering the records after (ASC) or before (DESC) the cursor record_id.
+        // Return null if not supported, the offset will be used instead.
+        public Iterator<M> buildFromCursor(final S sqlDao, final Long cursor, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context) {
+            return null;
+        }
     }
 
     public enum Ordering {
-        ASC,
-        DESC
+        ASC(">", 0L),
+        DESC("<", Long.MAX_VALUE);
+
+        private final String cursorComparator;
+        private final Long initialCursor;
+
+        Ordering(final String cursorComparator, final Long initialCursor) {
+            this.cursorComparator = cursorComparator;
+            this.initialCursor = initialCursor;
+        }
+
+        public String getCursorComparator() {
+            return cursorComparator;
+        }
+
+        public Long getInitialCursor() {
+            return initialCursor;
+        }
     }
 }
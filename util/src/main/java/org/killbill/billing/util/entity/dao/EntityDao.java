@@ -20,6 +20,8 @@ package org.killbill.billing.util.entity.dao;
 
 import java.util.UUID;
 
+import javax.annotation.Nullable;
+
 import org.killbill.billing.BillingExceptionBase;
 import org.killbill.billing.callcontext.InternalCallContext;
 import org.killbill.billing.callcontext.InternalTenantContext;
@@ -37,6 +39,9 @@ public interface EntityDao<M extends EntityModelDao<E>, E extends Entity, U exte
     public Pagination<M> getAll(InternalTenantContext context);
 
     public Pagination<M> get(Long offset, Long limit, InternalTenantContext context);
+
+    // Keyset (seek) pagination, see DefaultPaginationSqlDaoHelper#getPaginationWithCursor
+    public Pagination<M> get(@Nullable Long cursor, Long offset, Long limit, InternalTenantContext context);
     
     public Pagination<M> getByAccountRecordId(Long offset, Long limit, InternalTenantContext context);
 
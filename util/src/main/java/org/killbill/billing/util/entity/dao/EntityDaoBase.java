@@ -204,23 +204,42 @@ public abstract class EntityDaoBase<M extends EntityModelDao<E>, E extends Entit
     @Override
     public Pagination<M> get(final Long offset, final Long limit, final InternalTenantContext context) {
         return paginationHelper.getPagination(realSqlDao,
-                                              new PaginationIteratorBuilder<M, E, EntitySqlDao<M, E>>() {
-                                                  @Override
-                                                  public Long getCount(final EntitySqlDao<M, E> sqlDao, final InternalTenantContext context) {
-                                                      // Only need to compute it once, because no search filter has been applied (see DefaultPaginationSqlDaoHelper)
-                                                      return null;
-                                                  }
-
-                                                  @Override
-                                                  public Iterator<M> build(final EntitySqlDao<M, E> sqlDao, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context) {
-                                                      return sqlDao.get(offset, limit, getNaturalOrderingColumns(), ordering.toString(), context);
-                                                  }
-                                              },
+                                              getPaginationIteratorBuilder(),
                                               offset,
                                               limit,
                                               context);
     }
 
+    @Override
+    public Pagination<M> get(@Nullable final Long cursor, final Long offset, final Long limit, final InternalTenantContext context) {
+        return paginationHelper.getPaginationWithCursor(realSqlDao,
+                                                        getPaginationIteratorBuilder(),
+                                                        cursor,
+                                                        offset,
+                                                        limit,
+                                                        context);
+    }
+
+    private PaginationIteratorBuilder<M, E, EntitySqlDao<M, E>> getPaginationIteratorBuilder() {
+        return new PaginationIteratorBuilder<M, E, EntitySqlDao<M, E>>() {
+            @Override
+            public Long getCount(final EntitySqlDao<M, E> sqlDao, final InternalTenantContext context) {
+                // Only need to compute it once, because no search filter has been applied (see DefaultPaginationSqlDaoHelper)
+                return null;
+            }
+
+            @Override
+            public Iterator<M> build(final EntitySqlDao<M, E> sqlDao, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context) {
+                return sqlDao.get(offset, limit, getNaturalOrderingColumns(), ordering.toString(), context);
+            }
+
+            @Override
+            public Iterator<M> buildFromCursor(final EntitySqlDao<M, E> sqlDao, final Long cursor, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context) {
+                return sqlDao.getFromCursor(cursor, offset, limit, ordering.toString(), ordering.getCursorComparator(), context);
+            }
+        };
+    }
+
     @Override
     public Pagination<M> getByAccountRecordId(final Long offset, final Long limit, final InternalTenantContext context) {
         return paginationHelper.getPaginationWithAccountRecordId(realSqlDao,
@@ -103,11 +103,45 @@ public interface EntitySqlDao<M extends EntityModelDao<E>, E extends Entity> ext
                               @Define("ordering") final String ordering,
                               @SmartBindBean final InternalTenantContext context);
 
+    @SqlQuery
+    @SmartFetchSize(shouldStream = true)
+    public Iterator<M> searchFromCursor(@Bind("searchKey") final String searchKey,
+                                        @Bind("likeSearchKey") final String likeSearchKey,
+                                        @Bind("cursor") final Long cursor,
+                                        @Bind("offset") final Long offset,
+                                        @Bind("rowCount") final Long rowCount,
+                                        @Define("ordering") final String ordering,
+                                        @Define("cursorComparator") final String cursorComparator,
+                                        @SmartBindBean final InternalTenantContext context);
+
     @SqlQuery
     public Long getSearchCount(@Bind("searchKey") final String searchKey,
                                @Bind("likeSearchKey") final String likeSearchKey,
                                @SmartBindBean final InternalTenantContext context);
 
+    // See SearchIndexSqlDao
+    @SqlQuery
+    @SmartFetchSize(shouldStream = true)
+    public Iterator<M> searchFromIndex(@Bind("tokenPrefix") final String tokenPrefix,
+                                       @Bind("offset") final Long offset,
+                                       @Bind("rowCount") final Long rowCount,
+                                       @Define("ordering") final String ordering,
+                                       @SmartBindBean final InternalTenantContext context);
+
+    @SqlQuery
+    @SmartFetchSize(shouldStream = true)
+    public Iterator<M> searchFromIndexFromCursor(@Bind("tokenPrefix") final String tokenPrefix,
+                                                 @Bind("cursor") final Long cursor,
+                                                 @Bind("offset") final Long offset,
+                                                 @Bind("rowCount") final Long rowCount,
+                                                 @Define("ordering") final String ordering,
+                                                 @Define("cursorComparator") final String cursorComparator,
+                                                 @SmartBindBean final InternalTenantContext context);
+
+    @SqlQuery
+    public Long getSearchFromIndexCount(@Bind("tokenPrefix") final String tokenPrefix,
+                                        @SmartBindBean final InternalTenantContext context);
+
     @SqlQuery
     @SmartFetchSize(shouldStream = true)
     public Iterator<M> getAll(@SmartBindBean final InternalTenantContext context);
@@ -120,6 +154,15 @@ public interface EntitySqlDao<M extends EntityModelDao<E>, E extends Entity> ext
                            @Define("ordering") final String ordering,
                            @SmartBindBean final InternalTenantContext context);
 
+    @SqlQuery
+    @SmartFetchSize(shouldStream = true)
+    public Iterator<M> getFromCursor(@Bind("cursor") final Long cursor,
+                                     @Bind("offset") final Long offset,
+                                     @Bind("rowCount") final Long rowCount,
+                                     @Define("ordering") final String ordering,
+                                     @Define("cursorComparator") final String cursorComparator,
+                                     @SmartBindBean final InternalTenantContext context);
+
     @SqlQuery
     public Long getRecordIdAtOffset(@Bind("offset") final Long offset);
     
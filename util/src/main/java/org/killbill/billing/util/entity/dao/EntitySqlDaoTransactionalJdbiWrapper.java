@@ -22,6 +22,7 @@ import javax.annotation.Nullable;
 
 import org.killbill.billing.util.cache.CacheControllerDispatcher;
 import org.killbill.billing.util.callcontext.InternalCallContextFactory;
+import org.killbill.billing.util.config.definition.SearchConfig;
 import org.killbill.billing.util.dao.NonEntityDao;
 import org.killbill.billing.util.entity.Entity;
 import org.killbill.clock.Clock;
@@ -44,13 +45,26 @@ public class EntitySqlDaoTransactionalJdbiWrapper {
     private final CacheControllerDispatcher cacheControllerDispatcher;
     private final NonEntityDao nonEntityDao;
     private final InternalCallContextFactory internalCallContextFactory;
+    private final boolean searchIndexEnabled;
 
     public EntitySqlDaoTransactionalJdbiWrapper(final IDBI dbi, final IDBI roDbi, final Clock clock, final CacheControllerDispatcher cacheControllerDispatcher,
                                                 final NonEntityDao nonEntityDao, final InternalCallContextFactory internalCallContextFactory) {
+        this(dbi, roDbi, clock, cacheControllerDispatcher, nonEntityDao, internalCallContextFactory, true);
+    }
+
+    // For the DAOs writing searchable entities (see SearchableModelDao): the search index is only maintained when enabled
+    public EntitySqlDaoTransactionalJdbiWrapper(final IDBI dbi, final IDBI roDbi, final Clock clock, final CacheControllerDispatcher cacheControllerDispatcher,
+                                                final NonEntityDao nonEntityDao, final InternalCallContextFactory internalCallContextFactory, final SearchConfig searchConfig) {
+        this(dbi, roDbi, clock, cacheControllerDispatcher, nonEntityDao, internalCallContextFactory, searchConfig.isSearchIndexEnabled());
+    }
+
+    private EntitySqlDaoTransactionalJdbiWrapper(final IDBI dbi, final IDBI roDbi, final Clock clock, final CacheControllerDispatcher cacheControllerDispatcher,
+                                                 final NonEntityDao nonEntityDao, final InternalCallContextFactory internalCallContextFactory, final boolean searchIndexEnabled) {
         this.clock = clock;
         this.cacheControllerDispatcher = cacheControllerDispatcher;
         this.nonEntityDao = nonEntityDao;
         this.internalCallContextFactory = internalCallContextFactory;
+        this.searchIndexEnabled = searchIndexEnabled;
         this.dbRouter = new DBRouterUntyped(dbi, roDbi);
     }
 
@@ -70,7 +84,7 @@ public class EntitySqlDaoTransactionalJdbiWrapper {
 
         @Override
         public ReturnType inTransaction(final EntitySqlDao<M, E> transactionalSqlDao, final TransactionStatus status) throws Exception {
-            final EntitySqlDaoWrapperFactory factoryEntitySqlDao = new EntitySqlDaoWrapperFactory(h, clock, cacheControllerDispatcher, internalCallContextFactory);
+            final EntitySqlDaoWrapperFactory factoryEntitySqlDao = new EntitySqlDaoWrapperFactory(h, clock, cacheControllerDispatcher, internalCallContextFactory, searchIndexEnabled);
             return entitySqlDaoTransactionWrapper.inTransaction(factoryEntitySqlDao);
         }
     }
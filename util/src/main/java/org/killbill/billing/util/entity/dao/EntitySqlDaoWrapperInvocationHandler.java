@@ -51,6 +51,8 @@ import org.killbill.billing.util.dao.EntityAudit;
 import org.killbill.billing.util.dao.EntityHistoryModelDao;
 import org.killbill.billing.util.dao.TableName;
 import org.killbill.billing.util.entity.Entity;
+import org.killbill.billing.util.search.SearchIndexWriter;
+import org.killbill.billing.util.search.SearchableModelDao;
 import org.killbill.clock.Clock;
 import org.killbill.commons.profiling.Profiling;
 import org.killbill.commons.profiling.Profiling.WithProfilingCallback;
@@ -86,6 +88,7 @@ public class EntitySqlDaoWrapperInvocationHandler<S extends EntitySqlDao<M, E>,
 
     private final CacheControllerDispatcher cacheControllerDispatcher;
     private final InternalCallContextFactory internalCallContextFactory;
+    private final boolean searchIndexEnabled;
     private final Profiling<Object, Throwable> prof;
 
     public EntitySqlDaoWrapperInvocationHandler(final Class<S> sqlDaoClass,
@@ -93,12 +96,14 @@ public class EntitySqlDaoWrapperInvocationHandler<S extends EntitySqlDao<M, E>,
                                                 final Handle handle,
                                                 // Special DAO that don't require caching can invoke EntitySqlDaoWrapperInvocationHandler with no caching (e.g NoCachingTenantDao)
                                                 @Nullable final CacheControllerDispatcher cacheControllerDispatcher,
-                                                final InternalCallContextFactory internalCallContextFactory) {
+                                                final InternalCallContextFactory internalCallContextFactory,
+                                                final boolean searchIndexEnabled) {
         this.sqlDaoClass = sqlDaoClass;
         this.sqlDao = sqlDao;
         this.handle = handle;
         this.cacheControllerDispatcher = cacheControllerDispatcher;
         this.internalCallContextFactory = internalCallContextFactory;
+        this.searchIndexEnabled = searchIndexEnabled;
         this.prof = new Profiling<Object, Throwable>();
     }
 
@@ -278,6 +283,7 @@ public class EntitySqlDaoWrapperInvocationHandler<S extends EntitySqlDao<M, E>,
         }
 
         final Collection<M> reHydratedEntities = updateHistoryAndAudit(entityRecordIds, deletedAndUpdatedEntities, tableName, changeType, context);
+        updateSearchIndex(reHydratedEntities, tableName, changeType, context);
         if (method.getReturnType().equals(Void.TYPE)) {
             // Return early
             return null;
@@ -401,6 +407,25 @@ public class EntitySqlDaoWrapperInvocationHandler<S extends EntitySqlDao<M, E>,
         return (Collection<M>) reHydratedEntitiesOrNull;
     }
 
+    // Searchable entities all have history tables, so the re-hydrated entities are always available here
+    private void updateSearchIndex(final Collection<M> reHydratedEntities,
+                                   final TableName tableName,
+                                   final ChangeType changeType,
+                                   final InternalCallContext context) throws Throwable {
+        if (!searchIndexEnabled || reHydratedEntities.isEmpty() || !(reHydratedEntities.iterator().next() instanceof SearchableModelDao)) {
+            return;
+        }
+
+        prof.executeWithProfiling(ProfilingFeatureType.DAO_DETAILS, getProfilingId("search index", null), new WithProfilingCallback<Object, Throwable>() {
+            @Override
+            public Object execute() {
+                new SearchIndexWriter(handle).update(tableName, reHydratedEntities, changeType == ChangeType.DELETE, context);
+                printSQLWarnings();
+                return null;
+            }
+        });
+    }
+
     private List<String> retrieveEntityIdsFromArguments(final Method method, final Object[] args) {
         final Annotation[][] parameterAnnotations = getAnnotations(method);
 
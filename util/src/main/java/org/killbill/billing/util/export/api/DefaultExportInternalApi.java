@@ -0,0 +1,109 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.export.api;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+
+import org.killbill.billing.callcontext.InternalCallContext;
+import org.killbill.billing.callcontext.InternalTenantContext;
+import org.killbill.billing.export.ExportInternalApi;
+import org.killbill.billing.export.TenantExportStatus;
+import org.killbill.billing.export.TenantExportStatus.State;
+import org.killbill.billing.util.UUIDs;
+import org.killbill.billing.util.callcontext.InternalCallContextFactory;
+import org.killbill.billing.util.config.definition.ExportConfig;
+import org.killbill.billing.util.export.dao.TenantDataExporter;
+import org.killbill.clock.Clock;
+import org.killbill.commons.concurrent.Executors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class DefaultExportInternalApi implements ExportInternalApi {
+
+    private static final Logger logger = LoggerFactory.getLogger(DefaultExportInternalApi.class);
+
+    private final TenantDataExporter tenantDataExporter;
+    private final ExportConfig exportConfig;
+    private final InternalCallContextFactory internalCallContextFactory;
+    private final Clock clock;
+
+    // Exports run one at a time (each one already exports several tables concurrently), the thread going away when idle
+    private final ExecutorService exportExecutor = Executors.newCachedThreadPool(0, 1, "TenantDataExport", 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+    // Last export of each tenant (by tenant record id)
+    private final ConcurrentMap<Long, TenantExportStatus> exportStatuses = new ConcurrentHashMap<Long, TenantExportStatus>();
+
+    @Inject
+    public DefaultExportInternalApi(final TenantDataExporter tenantDataExporter,
+                                    final ExportConfig exportConfig,
+                                    final InternalCallContextFactory internalCallContextFactory,
+                                    final Clock clock) {
+        this.tenantDataExporter = tenantDataExporter;
+        this.exportConfig = exportConfig;
+        this.internalCallContextFactory = internalCallContextFactory;
+        this.clock = clock;
+    }
+
+    @Override
+    public TenantExportStatus exportDataAsCSVForTenant(final InternalCallContext context) {
+        final String rootDirectory = exportConfig.getTenantExportDirectory();
+        if (rootDirectory == null || rootDirectory.isEmpty()) {
+            throw new IllegalStateException("Tenant exports are disabled: org.killbill.export.tenant.directory isn't configured");
+        }
+
+        final Long tenantRecordId = context.getTenantRecordId();
+        final TenantExportStatus queued = new TenantExportStatus(UUIDs.randomUUID(), State.QUEUED, clock.getUTCNow(), null, null, null);
+        final TenantExportStatus status = exportStatuses.compute(tenantRecordId, (key, current) -> current != null && !current.isCompleted() ? current : queued);
+        if (status != queued) {
+            return status;
+        }
+
+        final UUID tenantId = internalCallContextFactory.createTenantContext(context).getTenantId();
+        final Path directory = Paths.get(rootDirectory).resolve(tenantId.toString());
+        exportExecutor.submit(() -> runExport(tenantId, queued, directory, context));
+        return queued;
+    }
+
+    @Override
+    public TenantExportStatus getTenantExportStatus(final UUID exportId, final InternalTenantContext context) {
+        final TenantExportStatus status = exportStatuses.get(context.getTenantRecordId());
+        return status != null && status.getExportId().equals(exportId) ? status : null;
+    }
+
+    private void runExport(final UUID tenantId, final TenantExportStatus queued, final Path directory, final InternalCallContext context) {
+        final Long tenantRecordId = context.getTenantRecordId();
+        exportStatuses.put(tenantRecordId, new TenantExportStatus(queued.getExportId(), State.RUNNING, queued.getRequestedDate(), null, null, null));
+        try {
+            final Map<String, Long> nbRowsPerTable = tenantDataExporter.exportDataForTenant(directory, context);
+            exportStatuses.put(tenantRecordId, new TenantExportStatus(queued.getExportId(), State.SUCCEEDED, queued.getRequestedDate(), clock.getUTCNow(), nbRowsPerTable, null));
+        } catch (final IOException | RuntimeException e) {
+            logger.warn("Failed to export data of tenantId='{}' to {}", tenantId, directory, e);
+            exportStatuses.put(tenantRecordId, new TenantExportStatus(queued.getExportId(), State.FAILED, queued.getRequestedDate(), clock.getUTCNow(), null, e.getMessage()));
+        }
+    }
+}
@@ -20,11 +20,13 @@ import java.io.IOException;
 import java.sql.Blob;
 import java.sql.Clob;
 import java.util.ArrayList;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.TreeMap;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
@@ -32,7 +34,6 @@ import org.killbill.billing.callcontext.InternalTenantContext;
 import org.killbill.billing.util.api.ColumnInfo;
 import org.killbill.billing.util.api.DatabaseExportOutputStream;
 import org.killbill.billing.util.dao.TableName;
-import org.killbill.billing.util.validation.DefaultColumnInfo;
 import org.killbill.billing.util.validation.dao.DatabaseSchemaDao;
 import org.skife.jdbi.v2.Handle;
 import org.skife.jdbi.v2.IDBI;
@@ -46,6 +47,8 @@ public class DatabaseExportDao {
 
     private static final Logger logger = LoggerFactory.getLogger(DatabaseExportDao.class);
 
+    private static final String RECORD_ID_COLUMN_NAME = "record_id";
+
     private final DatabaseSchemaDao databaseSchemaDao;
     private final IDBI dbi;
 
@@ -90,70 +93,89 @@ public class DatabaseExportDao {
             return;
         }
 
-        final List<DefaultColumnInfo> columns = databaseSchemaDao.getColumnInfoList();
-        if (columns.size() == 0) {
-            return;
+        for (final List<ColumnInfo> columnsForTable : getColumnsPerTable()) {
+            exportDataForAccountAndTable(out, columnsForTable, context);
         }
+    }
 
-        final List<ColumnInfo> columnsForTable = new ArrayList<ColumnInfo>();
-        // Separate lookup table, to keep the ordering of the columns
-        final Map<String, Integer> columnsLookup = new TreeMap<>(String.CASE_INSENSITIVE_ORDER); // Ignore casing (for H2)
+    /**
+     * @return the columns of each table (in the database order), grouped by table
+     */
+    public List<List<ColumnInfo>> getColumnsPerTable() {
+        final List<List<ColumnInfo>> columnsPerTable = new LinkedList<List<ColumnInfo>>();
 
         // The list of columns is ordered by table name first
-        String lastSeenTableName = columns.get(0).getTableName();
-        int j = 0;
-        for (final ColumnInfo column : columns) {
-            if (!column.getTableName().equals(lastSeenTableName)) {
-                exportDataForAccountAndTable(out, columnsForTable, columnsLookup, context);
-                lastSeenTableName = column.getTableName();
-                columnsForTable.clear();
-                columnsLookup.clear();
-                j = 0;
+        List<ColumnInfo> columnsForTable = null;
+        for (final ColumnInfo column : databaseSchemaDao.getColumnInfoList()) {
+            if (columnsForTable == null || !column.getTableName().equals(columnsForTable.get(0).getTableName())) {
+                columnsForTable = new ArrayList<ColumnInfo>();
+                columnsPerTable.add(columnsForTable);
             }
             columnsForTable.add(column);
-            columnsLookup.put(column.getColumnName(), j);
-            j++;
         }
-        exportDataForAccountAndTable(out, columnsForTable, columnsLookup, context);
+        return columnsPerTable;
     }
 
+    /**
+     * Whether the table can be exported chunk by chunk, across all accounts of the tenant.
+     *
+     * @param columnsForTable columns of the table, as returned by {@link #getColumnsPerTable()}
+     * @return true if the table has a record_id column and can be filtered by tenant
+     */
+    public boolean isExportableForTenant(final List<ColumnInfo> columnsForTable) {
+        return getTableType(columnsForTable) != TableType.OTHER && findColumn(columnsForTable, RECORD_ID_COLUMN_NAME) != null;
+    }
 
-    private void exportDataForAccountAndTable(final DatabaseExportOutputStream out,
-                                              final List<ColumnInfo> columnsForTable,
-                                              final Map<String, Integer> columnsLookup,
-                                              final InternalTenantContext context) {
-
+    /**
+     * Export, across all accounts of the tenant, the rows of a table whose record_id is greater than fromRecordId.
+     * At most limit rows are exported, ordered by record_id, so that successive calls can walk the table chunk by chunk.
+     *
+     * @param out             the stream to write to
+     * @param columnsForTable columns of the table, as returned by {@link #getColumnsPerTable()}
+     * @param fromRecordId    exclusive lower bound of the record_id of the rows to export
+     * @param limit           max number of rows to export
+     * @param context         the tenant context
+     * @return the record_id of the last row exported or null if there was no (more) row to export
+     */
+    @Nullable
+    public Long exportDataForTenantAndTable(final DatabaseExportOutputStream out,
+                                            final List<ColumnInfo> columnsForTable,
+                                            final long fromRecordId,
+                                            final int limit,
+                                            final InternalTenantContext context) {
+        final TableType tableType = getTableType(columnsForTable);
+        final String recordIdColumnName = findColumn(columnsForTable, RECORD_ID_COLUMN_NAME);
+        if (context.getTenantRecordId() == null || tableType == TableType.OTHER || recordIdColumnName == null) {
+            return null;
+        }
 
-        TableType tableType = TableType.OTHER;
+        // Build the query - make sure to filter by tenant! Keyset pagination keeps each query cheap, regardless of the chunk position
         final String tableName = columnsForTable.get(0).getTableName();
+        final String query = buildSelect(columnsForTable) +
+                             " from " + tableName +
+                             " where " + tableType.getTenantRecordIdColumnName() + " = :tenantRecordId" +
+                             " and " + recordIdColumnName + " > :fromRecordId" +
+                             " order by " + recordIdColumnName +
+                             " limit " + limit;
 
-        // Ignore casing (for H2)
-        if (TableName.ACCOUNT.getTableName().equalsIgnoreCase(tableName)) {
-            tableType = TableType.KB_ACCOUNT;
-        } else if (TableName.ACCOUNT_HISTORY.getTableName().equalsIgnoreCase(tableName)) {
-            tableType = TableType.KB_ACCOUNT_HISTORY;
-        }
+        out.newTable(tableName, columnsForTable);
 
-        boolean firstColumn = true;
-        final StringBuilder queryBuilder = new StringBuilder("select ");
-        for (final ColumnInfo column : columnsForTable) {
-            if (!firstColumn) {
-                queryBuilder.append(", ");
-            } else {
-                firstColumn = false;
+        return dbi.withHandle(new HandleCallback<Long>() {
+            @Override
+            public Long withHandle(final Handle handle) throws Exception {
+                final ResultIterator<Map<String, Object>> iterator = handle.createQuery(query)
+                                                                           .bind("tenantRecordId", context.getTenantRecordId())
+                                                                           .bind("fromRecordId", fromRecordId)
+                                                                           .iterator();
+                return exportRows(out, iterator, columnsForTable, recordIdColumnName);
             }
+        });
+    }
 
-            queryBuilder.append(column.getColumnName());
-
-            if (tableType == TableType.OTHER) {
-                // Ignore casing (for H2)
-                if (column.getColumnName().equalsIgnoreCase(TableType.KB_PER_ACCOUNT.getAccountRecordIdColumnName())) {
-                    tableType = TableType.KB_PER_ACCOUNT;
-                } else if (column.getColumnName().equalsIgnoreCase(TableType.NOTIFICATION.getAccountRecordIdColumnName())) {
-                    tableType = TableType.NOTIFICATION;
-                }
-            }
-        }
+    private void exportDataForAccountAndTable(final DatabaseExportOutputStream out,
+                                              final List<ColumnInfo> columnsForTable,
+                                              final InternalTenantContext context) {
+        final TableType tableType = getTableType(columnsForTable);
 
         // Don't export non-account specific tables
         if (tableType == TableType.OTHER) {
@@ -161,13 +183,11 @@ public class DatabaseExportDao {
         }
 
         // Build the query - make sure to filter by account and tenant!
-        queryBuilder.append(" from ")
-                    .append(tableName)
-                    .append(" where ")
-                    .append(tableType.getAccountRecordIdColumnName())
-                    .append(" = :accountRecordId and ")
-                    .append(tableType.getTenantRecordIdColumnName())
-                    .append("  = :tenantRecordId");
+        final String tableName = columnsForTable.get(0).getTableName();
+        final String query = buildSelect(columnsForTable) +
+                             " from " + tableName +
+                             " where " + tableType.getAccountRecordIdColumnName() + " = :accountRecordId and " +
+                             tableType.getTenantRecordIdColumnName() + "  = :tenantRecordId";
 
         // Notify the stream that we're about to write data for a different table
         out.newTable(tableName, columnsForTable);
@@ -175,46 +195,106 @@ public class DatabaseExportDao {
         dbi.withHandle(new HandleCallback<Void>() {
             @Override
             public Void withHandle(final Handle handle) throws Exception {
-                final ResultIterator<Map<String, Object>> iterator = handle.createQuery(queryBuilder.toString())
+                final ResultIterator<Map<String, Object>> iterator = handle.createQuery(query)
                                                                            .bind("accountRecordId", context.getAccountRecordId())
                                                                            .bind("tenantRecordId", context.getTenantRecordId())
                                                                            .iterator();
-                try {
-                    while (iterator.hasNext()) {
-                        final Map<String, Object> row = iterator.next();
-
-                        for (final Entry<String, Object> entry : row.entrySet()) {
-                            final String k = entry.getKey();
-                            final Object value = entry.getValue();
-                            // For h2, transform a JdbcBlob and a JdbcClob into a byte[]
-                            // See also LowerToCamelBeanMapper
-                            if (value instanceof Blob) {
-                                final Blob blob = (Blob) value;
-                                row.put(k, blob.getBytes(1, (int) blob.length()));
-                            } else if (value instanceof Clob) {
-                                // TODO Update LowerToCamelBeanMapper?
-                                final Clob clob = (Clob) value;
-                                row.put(k, clob.getSubString(1, (int) clob.length()));
-                            } else if (value != null &&
-                                       columnsLookup.get(k) != null &&
-                                       columnsForTable.get(columnsLookup.get(k)) != null &&
-                                       "boolean".equals(columnsForTable.get(columnsLookup.get(k)).getDataType())) {
-                                row.put(k, value instanceof Boolean ? value : "1".equals(value.toString())); // Most likely Byte
-                            }
-                        }
-
-                        try {
-                            out.write(row);
-                        } catch (final IOException e) {
-                            logger.warn("Unable to write row: {}", row, e);
-                            throw e;
-                        }
-                    }
-                } finally {
-                    iterator.close();
-                }
+                exportRows(out, iterator, columnsForTable, null);
                 return null;
             }
         });
     }
+
+    private Long exportRows(final DatabaseExportOutputStream out,
+                            final ResultIterator<Map<String, Object>> iterator,
+                            final List<ColumnInfo> columnsForTable,
+                            @Nullable final String recordIdColumnName) throws Exception {
+        // Separate lookup table, to keep the ordering of the columns
+        final Map<String, ColumnInfo> columnsLookup = new TreeMap<>(String.CASE_INSENSITIVE_ORDER); // Ignore casing (for H2)
+        for (final ColumnInfo column : columnsForTable) {
+            columnsLookup.put(column.getColumnName(), column);
+        }
+
+        Long lastRecordId = null;
+        try {
+            while (iterator.hasNext()) {
+                final Map<String, Object> row = iterator.next();
+
+                for (final Entry<String, Object> entry : row.entrySet()) {
+                    final String k = entry.getKey();
+                    final Object value = entry.getValue();
+                    // For h2, transform a JdbcBlob and a JdbcClob into a byte[]
+                    // See also LowerToCamelBeanMapper
+                    if (value instanceof Blob) {
+                        final Blob blob = (Blob) value;
+                        row.put(k, blob.getBytes(1, (int) blob.length()));
+                    } else if (value instanceof Clob) {
+                        // TODO Update LowerToCamelBeanMapper?
+                        final Clob clob = (Clob) value;
+                        row.put(k, clob.getSubString(1, (int) clob.length()));
+                    } else if (value != null &&
+                               columnsLookup.get(k) != null &&
+                               "boolean".equals(columnsLookup.get(k).getDataType())) {
+                        row.put(k, value instanceof Boolean ? value : "1".equals(value.toString())); // Most likely Byte
+                    }
+
+                    if (value != null && recordIdColumnName != null && recordIdColumnName.equalsIgnoreCase(k)) {
+                        lastRecordId = ((Number) value).longValue();
+                    }
+                }
+
+                try {
+                    out.write(row);
+                } catch (final IOException e) {
+                    logger.warn("Unable to write row: {}", row, e);
+                    throw e;
+                }
+            }
+        } finally {
+            iterator.close();
+        }
+        return lastRecordId;
+    }
+
+    private TableType getTableType(final List<ColumnInfo> columnsForTable) {
+        final String tableName = columnsForTable.get(0).getTableName();
+
+        // Ignore casing (for H2)
+        if (TableName.ACCOUNT.getTableName().equalsIgnoreCase(tableName)) {
+            return TableType.KB_ACCOUNT;
+        } else if (TableName.ACCOUNT_HISTORY.getTableName().equalsIgnoreCase(tableName)) {
+            return TableType.KB_ACCOUNT_HISTORY;
+        } else if (findColumn(columnsForTable, TableType.KB_PER_ACCOUNT.getAccountRecordIdColumnName()) != null) {
+            return TableType.KB_PER_ACCOUNT;
+        } else if (findColumn(columnsForTable, TableType.NOTIFICATION.getAccountRecordIdColumnName()) != null) {
+            return TableType.NOTIFICATION;
+        } else {
+            return TableType.OTHER;
+        }
+    }
+
+    private String buildSelect(final List<ColumnInfo> columnsForTable) {
+        boolean firstColumn = true;
+        final StringBuilder queryBuilder = new StringBuilder("select ");
+        for (final ColumnInfo column : columnsForTable) {
+            if (!firstColumn) {
+                queryBuilder.append(", ");
+            } else {
+                firstColumn = false;
+            }
+            queryBuilder.append(column.getColumnName());
+        }
+        return queryBuilder.toString();
+    }
+
+    @Nullable
+    private String findColumn(final List<ColumnInfo> columnsForTable, final String columnName) {
+        for (final ColumnInfo column : columnsForTable) {
+            // Ignore casing (for H2)
+            if (column.getColumnName().equalsIgnoreCase(columnName)) {
+                return column.getColumnName();
+            }
+        }
+        return null;
+    }
 }
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.export.dao;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.killbill.billing.callcontext.InternalTenantContext;
+import org.killbill.billing.util.api.ColumnInfo;
+import org.killbill.billing.util.config.definition.ExportConfig;
+import org.killbill.commons.concurrent.Executors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tenant-wide export: each table is written as a series of gzipped CSV chunk files, several tables being exported concurrently.
+ * <p>
+ * Layout of the output directory:
+ * <ul>
+ * <li>{@code <table>/<table>-<fromRecordId>.csv.gz}: rows of the table whose record_id is greater than fromRecordId (at most chunkSize rows)</li>
+ * <li>{@code <table>.checkpoint}: record_id of the last row of the last chunk fully written</li>
+ * </ul>
+ * Both files are atomically moved into place, so an interrupted export can be resumed by re-running it against the same directory:
+ * it restarts from the checkpoint of each table, overwriting at most the chunk which was being written. The checkpoints are deleted
+ * once all tables have been exported, so that the next export starts over (replacing the chunks of the previous one).
+ * <p>
+ * Memory usage doesn't depend on the size of the tenant (rows are streamed from the database to the files) and at most
+ * {@link ExportConfig#getTenantExportNbThreads()} database connections are used at any given time.
+ */
+@Singleton
+public class TenantDataExporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TenantDataExporter.class);
+
+    static final String CHUNK_FILE_SUFFIX = ".csv.gz";
+    static final String CHECKPOINT_FILE_SUFFIX = ".checkpoint";
+
+    private final DatabaseExportDao exportDao;
+    private final ExportConfig exportConfig;
+    // Directories being exported to
+    private final Set<Path> exportsInProgress = ConcurrentHashMap.newKeySet();
+
+    @Inject
+    public TenantDataExporter(final DatabaseExportDao exportDao, final ExportConfig exportConfig) {
+        this.exportDao = exportDao;
+        this.exportConfig = exportConfig;
+    }
+
+    /**
+     * Export (or resume the export of) all data of the tenant.
+     *
+     * @param directory the output directory
+     * @param context   the tenant context
+     * @return the number of rows exported by this run, per table
+     * @throws IOException if the files cannot be written
+     */
+    public Map<String, Long> exportDataForTenant(final Path directory, final InternalTenantContext context) throws IOException {
+        final Path normalizedDirectory = directory.toAbsolutePath().normalize();
+        if (!exportsInProgress.add(normalizedDirectory)) {
+            throw new IllegalStateException(String.format("An export to %s is already in progress", normalizedDirectory));
+        }
+
+        try {
+            Files.createDirectories(normalizedDirectory);
+
+            final List<List<ColumnInfo>> tables = new ArrayList<List<ColumnInfo>>();
+            for (final List<ColumnInfo> columnsForTable : exportDao.getColumnsPerTable()) {
+                if (exportDao.isExportableForTenant(columnsForTable)) {
+                    tables.add(columnsForTable);
+                }
+            }
+            if (tables.isEmpty()) {
+                return Map.of();
+            }
+
+            final int nbThreads = Math.max(1, Math.min(exportConfig.getTenantExportNbThreads(), tables.size()));
+            final ExecutorService executor = Executors.newFixedThreadPool(nbThreads, "TenantDataExporter");
+            try {
+                final Map<String, Future<Long>> futures = new LinkedHashMap<String, Future<Long>>();
+                for (final List<ColumnInfo> columnsForTable : tables) {
+                    futures.put(getTableName(columnsForTable), executor.submit(new Callable<Long>() {
+                        @Override
+                        public Long call() throws Exception {
+                            return exportTable(normalizedDirectory, columnsForTable, context);
+                        }
+                    }));
+                }
+
+                final Map<String, Long> nbRowsPerTable = new LinkedHashMap<String, Long>();
+                for (final Map.Entry<String, Future<Long>> entry : futures.entrySet()) {
+                    nbRowsPerTable.put(entry.getKey(), entry.getValue().get());
+                }
+
+                // Export complete
+                for (final String tableName : nbRowsPerTable.keySet()) {
+                    Files.deleteIfExists(normalizedDirectory.resolve(tableName + CHECKPOINT_FILE_SUFFIX));
+                }
+                return nbRowsPerTable;
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while exporting to " + normalizedDirectory, e);
+            } catch (final ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new RuntimeException(e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+        } finally {
+            exportsInProgress.remove(normalizedDirectory);
+        }
+    }
+
+    private long exportTable(final Path directory, final List<ColumnInfo> columnsForTable, final InternalTenantContext context) throws IOException {
+        final String tableName = getTableName(columnsForTable);
+        final int chunkSize = Math.max(1, exportConfig.getTenantExportChunkSize());
+        final Path tableDirectory = Files.createDirectories(directory.resolve(tableName));
+        final Path checkpointFile = directory.resolve(tableName + CHECKPOINT_FILE_SUFFIX);
+
+        long checkpoint = readCheckpoint(checkpointFile);
+        if (checkpoint == 0L) {
+            // New export: don't leave chunks of a previous export behind (their boundaries may differ)
+            deleteChunks(tableDirectory);
+        }
+
+        long nbRows = 0;
+        while (true) {
+            final Path chunkFile = tableDirectory.resolve(String.format("%s-%d%s", tableName, checkpoint, CHUNK_FILE_SUFFIX));
+            final Path tmpChunkFile = tableDirectory.resolve(chunkFile.getFileName() + ".tmp");
+
+            final CountingExportOutputStream out;
+            final Long lastRecordId;
+            try (final OutputStream gzipOut = new GZIPOutputStream(Files.newOutputStream(tmpChunkFile))) {
+                out = new CountingExportOutputStream(gzipOut);
+                lastRecordId = exportDao.exportDataForTenantAndTable(out, columnsForTable, checkpoint, chunkSize, context);
+            }
+
+            if (lastRecordId == null) {
+                // Nothing left to export
+                Files.delete(tmpChunkFile);
+                break;
+            }
+
+            Files.move(tmpChunkFile, chunkFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            writeCheckpoint(checkpointFile, lastRecordId);
+            checkpoint = lastRecordId;
+            nbRows += out.getNbRows();
+
+            if (out.getNbRows() < chunkSize) {
+                break;
+            }
+        }
+
+        logger.info("Exported {} rows from table {} to {} (checkpoint={})", nbRows, tableName, tableDirectory, checkpoint);
+        return nbRows;
+    }
+
+    private void deleteChunks(final Path tableDirectory) throws IOException {
+        try (final DirectoryStream<Path> chunkFiles = Files.newDirectoryStream(tableDirectory, "*" + CHUNK_FILE_SUFFIX)) {
+            for (final Path chunkFile : chunkFiles) {
+                Files.delete(chunkFile);
+            }
+        }
+    }
+
+    private long readCheckpoint(final Path checkpointFile) throws IOException {
+        if (!Files.exists(checkpointFile)) {
+            return 0L;
+        }
+        return Long.parseLong(new String(Files.readAllBytes(checkpointFile), StandardCharsets.UTF_8).trim());
+    }
+
+    private void writeCheckpoint(final Path checkpointFile, final long recordId) throws IOException {
+        final Path tmpCheckpointFile = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        Files.write(tmpCheckpointFile, String.valueOf(recordId).getBytes(StandardCharsets.UTF_8));
+        Files.move(tmpCheckpointFile, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private String getTableName(final List<ColumnInfo> columnsForTable) {
+        // Ignore casing (for H2)
+        return columnsForTable.get(0).getTableName().toLowerCase();
+    }
+
+    private static final class CountingExportOutputStream extends CSVExportOutputStream {
+
+        private long nbRows = 0;
+
+        private CountingExportOutputStream(final OutputStream delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void write(final Map<String, Object> row) throws IOException {
+            super.write(row);
+            nbRows++;
+        }
+
+        private long getNbRows() {
+            return nbRows;
+        }
+    }
+}
@@ -18,8 +18,10 @@
 
 package org.killbill.billing.util.glue;
 
+import org.killbill.billing.customfield.CustomFieldInternalApi;
 import org.killbill.billing.platform.api.KillbillConfigSource;
 import org.killbill.billing.util.api.CustomFieldUserApi;
+import org.killbill.billing.util.customfield.DefaultCustomFieldInternalApi;
 import org.killbill.billing.util.customfield.api.DefaultCustomFieldUserApi;
 import org.killbill.billing.util.customfield.dao.CustomFieldDao;
 import org.killbill.billing.util.customfield.dao.DefaultCustomFieldDao;
@@ -34,12 +36,17 @@ public class CustomFieldModule extends KillBillModule {
     protected void configure() {
         installCustomFieldDao();
         installCustomFieldUserApi();
+        installCustomFieldInternalApi();
     }
 
     protected void installCustomFieldUserApi() {
         bind(CustomFieldUserApi.class).to(DefaultCustomFieldUserApi.class).asEagerSingleton();
     }
 
+    protected void installCustomFieldInternalApi() {
+        bind(CustomFieldInternalApi.class).to(DefaultCustomFieldInternalApi.class).asEagerSingleton();
+    }
+
     protected void installCustomFieldDao() {
         bind(CustomFieldDao.class).to(DefaultCustomFieldDao.class).asEagerSingleton();
     }
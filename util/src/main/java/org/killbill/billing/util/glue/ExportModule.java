@@ -18,9 +18,13 @@
 
 package org.killbill.billing.util.glue;
 
+import org.killbill.billing.export.ExportInternalApi;
 import org.killbill.billing.platform.api.KillbillConfigSource;
 import org.killbill.billing.util.api.ExportUserApi;
+import org.killbill.billing.util.config.definition.ExportConfig;
+import org.killbill.billing.util.export.api.DefaultExportInternalApi;
 import org.killbill.billing.util.export.api.DefaultExportUserApi;
+import org.skife.config.ConfigurationObjectFactory;
 
 public class ExportModule extends KillBillModule {
 
@@ -32,8 +36,16 @@ public class ExportModule extends KillBillModule {
         bind(ExportUserApi.class).to(DefaultExportUserApi.class).asEagerSingleton();
     }
 
+    protected void installExportInternalApi() {
+        bind(ExportInternalApi.class).to(DefaultExportInternalApi.class).asEagerSingleton();
+    }
+
     @Override
     protected void configure() {
+        final ExportConfig exportConfig = new ConfigurationObjectFactory(skifeConfigSource).build(ExportConfig.class);
+        bind(ExportConfig.class).toInstance(exportConfig);
+
         installUserApi();
+        installExportInternalApi();
     }
 }
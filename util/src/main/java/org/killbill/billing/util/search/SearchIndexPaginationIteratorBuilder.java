@@ -0,0 +1,55 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.search;
+
+import java.util.Iterator;
+
+import org.killbill.billing.callcontext.InternalTenantContext;
+import org.killbill.billing.util.entity.Entity;
+import org.killbill.billing.util.entity.dao.DefaultPaginationSqlDaoHelper.Ordering;
+import org.killbill.billing.util.entity.dao.DefaultPaginationSqlDaoHelper.PaginationIteratorBuilder;
+import org.killbill.billing.util.entity.dao.EntityModelDao;
+import org.killbill.billing.util.entity.dao.EntitySqlDao;
+
+/**
+ * Answers a search from the search_index table: records with at least one token starting with the search key
+ * (case insensitive). The count is computed from the index only.
+ */
+public class SearchIndexPaginationIteratorBuilder<M extends EntityModelDao<E>, E extends Entity, S extends EntitySqlDao<M, E>> extends PaginationIteratorBuilder<M, E, S> {
+
+    private final String tokenPrefix;
+
+    public SearchIndexPaginationIteratorBuilder(final String searchKey) {
+        this.tokenPrefix = SearchIndexTokenizer.toTokenPrefix(searchKey);
+    }
+
+    @Override
+    public Long getCount(final S sqlDao, final InternalTenantContext context) {
+        return sqlDao.getSearchFromIndexCount(tokenPrefix, context);
+    }
+
+    @Override
+    public Iterator<M> build(final S sqlDao, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context) {
+        return sqlDao.searchFromIndex(tokenPrefix, offset, limit, ordering.toString(), context);
+    }
+
+    @Override
+    public Iterator<M> buildFromCursor(final S sqlDao, final Long cursor, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context) {
+        return sqlDao.searchFromIndexFromCursor(tokenPrefix, cursor, offset, limit, ordering.toString(), ordering.getCursorComparator(), context);
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.search;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.killbill.billing.callcontext.InternalCallContext;
+import org.killbill.billing.callcontext.InternalTenantContext;
+import org.killbill.commons.jdbi.binder.SmartBindBean;
+import org.killbill.commons.jdbi.template.KillBillSqlDaoStringTemplate;
+import org.skife.jdbi.v2.sqlobject.Bind;
+import org.skife.jdbi.v2.sqlobject.SqlBatch;
+import org.skife.jdbi.v2.sqlobject.SqlQuery;
+import org.skife.jdbi.v2.sqlobject.SqlUpdate;
+import org.skife.jdbi.v2.sqlobject.customizers.BatchChunkSize;
+import org.skife.jdbi.v2.unstable.BindIn;
+
+/**
+ * Inverted index (token to record_id) of the searchable fields, see SearchableModelDao. The index is derived data,
+ * so this is not an EntitySqlDao: rows are neither audited nor cached.
+ * <p>
+ * The search queries themselves are defined in EntitySqlDao (searchFromIndex), to join back on the entity table.
+ */
+@KillBillSqlDaoStringTemplate
+public interface SearchIndexSqlDao {
+
+    @SqlQuery
+    List<String> getTokens(@Bind("tableName") final String tableName,
+                           @Bind("targetRecordId") final Long targetRecordId,
+                           @SmartBindBean final InternalTenantContext context);
+
+    @SqlBatch
+    @BatchChunkSize(1000)
+    void addTokens(@Bind("tableName") final String tableName,
+                   @Bind("targetRecordId") final Long targetRecordId,
+                   @Bind("token") final Iterable<String> tokens,
+                   @SmartBindBean final InternalCallContext context);
+
+    @SqlUpdate
+    void removeTokens(@Bind("tableName") final String tableName,
+                      @Bind("targetRecordId") final Long targetRecordId,
+                      @BindIn("tokens") final Collection<String> tokens,
+                      @SmartBindBean final InternalCallContext context);
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.search;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import javax.annotation.Nullable;
+
+/**
+ * Turns searchable values into search_index tokens, and search keys into the matching token prefixes.
+ * <p>
+ * Each value is indexed as a whole (lower cased), so ids, emails and external keys can be looked up by prefix.
+ * Values made of several words (e.g. names) are also indexed word by word.
+ */
+public abstract class SearchIndexTokenizer {
+
+    // See search_index.token
+    public static final int MAX_TOKEN_LENGTH = 255;
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s");
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    public static Set<String> tokenize(final Iterable<String> values) {
+        final Set<String> tokens = new LinkedHashSet<>();
+        for (final String value : values) {
+            final String token = normalize(value);
+            if (token == null) {
+                continue;
+            }
+            tokens.add(token);
+
+            if (WHITESPACE.matcher(token).find()) {
+                for (final String word : WORD_SEPARATOR.split(token)) {
+                    if (!word.isEmpty()) {
+                        tokens.add(word);
+                    }
+                }
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * @param searchKey search key, as entered by the user
+     * @return the pattern to use against search_index.token (like clause)
+     */
+    public static String toTokenPrefix(final String searchKey) {
+        final String normalized = normalize(searchKey);
+        if (normalized == null) {
+            return "%";
+        }
+        return normalized.replace("\\", "\\\\")
+                         .replace("%", "\\%")
+                         .replace("_", "\\_") + "%";
+    }
+
+    @Nullable
+    private static String normalize(@Nullable final String value) {
+        if (value == null) {
+            return null;
+        }
+        final String normalized = value.trim().toLowerCase(Locale.ROOT);
+        if (normalized.isEmpty()) {
+            return null;
+        }
+        return normalized.length() > MAX_TOKEN_LENGTH ? normalized.substring(0, MAX_TOKEN_LENGTH) : normalized;
+    }
+}
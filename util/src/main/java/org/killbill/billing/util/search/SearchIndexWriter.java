@@ -0,0 +1,69 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.search;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.killbill.billing.callcontext.InternalCallContext;
+import org.killbill.billing.util.dao.TableName;
+import org.killbill.billing.util.entity.dao.EntityModelDao;
+import org.skife.jdbi.v2.Handle;
+
+/**
+ * Keeps the search_index rows of an entity in sync with its current state, in the caller's transaction.
+ */
+public class SearchIndexWriter {
+
+    private final SearchIndexSqlDao searchIndexSqlDao;
+
+    public SearchIndexWriter(final Handle handle) {
+        this.searchIndexSqlDao = handle.attach(SearchIndexSqlDao.class);
+    }
+
+    public void update(final TableName tableName, final Iterable<? extends EntityModelDao> entities, final boolean deleted, final InternalCallContext context) {
+        for (final EntityModelDao entity : entities) {
+            if (!(entity instanceof SearchableModelDao)) {
+                continue;
+            }
+            final Set<String> tokens = deleted ? Set.of() : SearchIndexTokenizer.tokenize(((SearchableModelDao) entity).searchableValues());
+            update(tableName.getTableName(), entity.getRecordId(), tokens, context);
+        }
+    }
+
+    private void update(final String tableName, final Long targetRecordId, final Set<String> tokens, final InternalCallContext context) {
+        // Most updates (e.g. payment state changes) don't modify the searchable fields
+        final Set<String> existingTokens = new HashSet<>(searchIndexSqlDao.getTokens(tableName, targetRecordId, context));
+        if (existingTokens.equals(tokens)) {
+            return;
+        }
+
+        final Set<String> tokensToRemove = new HashSet<>(existingTokens);
+        tokensToRemove.removeAll(tokens);
+        if (!tokensToRemove.isEmpty()) {
+            searchIndexSqlDao.removeTokens(tableName, targetRecordId, tokensToRemove, context);
+        }
+
+        final Set<String> tokensToAdd = new LinkedHashSet<>(tokens);
+        tokensToAdd.removeAll(existingTokens);
+        if (!tokensToAdd.isEmpty()) {
+            searchIndexSqlDao.addTokens(tableName, targetRecordId, tokensToAdd, context);
+        }
+    }
+}
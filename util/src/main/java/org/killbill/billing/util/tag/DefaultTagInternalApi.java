@@ -20,6 +20,7 @@ import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 
 import org.killbill.billing.ErrorCode;
@@ -28,11 +29,16 @@ import org.killbill.billing.callcontext.InternalCallContext;
 import org.killbill.billing.callcontext.InternalTenantContext;
 import org.killbill.billing.tag.TagInternalApi;
 import org.killbill.billing.util.api.TagApiException;
+import org.killbill.billing.util.entity.Pagination;
+import org.killbill.billing.util.entity.dao.DefaultPaginationHelper.SourcePaginationBuilder;
 import org.killbill.billing.util.tag.dao.TagDao;
 import org.killbill.billing.util.tag.dao.TagDefinitionDao;
 import org.killbill.billing.util.tag.dao.TagModelDao;
 import org.killbill.billing.util.tag.dao.TagModelDaoHelper;
 
+import static org.killbill.billing.util.entity.dao.DefaultPaginationHelper.getEntityPaginationNoException;
+import static org.killbill.billing.util.tag.api.DefaultTagUserApi.TAG_MODEL_DAO_TAG_FUNCTION;
+
 public class DefaultTagInternalApi implements TagInternalApi {
 
     private final TagDao tagDao;
@@ -87,6 +93,30 @@ public class DefaultTagInternalApi implements TagInternalApi {
         tagDao.deleteTag(objectId, objectType, tagDefinitionId, context);
     }
 
+    @Override
+    public Pagination<Tag> getTags(@Nullable final Long cursor, final Long offset, final Long limit, final InternalTenantContext context) {
+        return getEntityPaginationNoException(limit,
+                                              new SourcePaginationBuilder<TagModelDao, TagApiException>() {
+                                                  @Override
+                                                  public Pagination<TagModelDao> build() {
+                                                      return tagDao.get(cursor, offset, limit, context);
+                                                  }
+                                              },
+                                              TAG_MODEL_DAO_TAG_FUNCTION);
+    }
+
+    @Override
+    public Pagination<Tag> searchTags(final String searchKey, @Nullable final Long cursor, final Long offset, final Long limit, final InternalTenantContext context) {
+        return getEntityPaginationNoException(limit,
+                                              new SourcePaginationBuilder<TagModelDao, TagApiException>() {
+                                                  @Override
+                                                  public Pagination<TagModelDao> build() {
+                                                      return tagDao.searchTags(searchKey, cursor, offset, limit, context);
+                                                  }
+                                              },
+                                              TAG_MODEL_DAO_TAG_FUNCTION);
+    }
+
     private List<Tag> toTagList(final List<TagModelDao> input) {
         final List<Tag> result = input.stream()
                 .map(modelDao -> TagModelDaoHelper.isControlTag(modelDao.getTagDefinitionId()) ?
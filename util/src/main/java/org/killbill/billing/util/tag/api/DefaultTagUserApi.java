@@ -60,7 +60,7 @@ public class DefaultTagUserApi implements TagUserApi {
 
     private static final Joiner JOINER = Joiner.on(",");
 
-    private static final Function<TagModelDao, Tag> TAG_MODEL_DAO_TAG_FUNCTION = input ->
+    public static final Function<TagModelDao, Tag> TAG_MODEL_DAO_TAG_FUNCTION = input ->
             TagModelDaoHelper.isControlTag(input.getTagDefinitionId()) ?
                new DefaultControlTag(input.getId(), ControlTagType.getTypeFromId(input.getTagDefinitionId()), input.getObjectType(), input.getObjectId(), input.getCreatedDate()) :
                new DescriptiveTag(input.getId(), input.getTagDefinitionId(), input.getObjectType(), input.getObjectId(), input.getCreatedDate());
@@ -25,6 +25,7 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Named;
 
@@ -249,19 +250,38 @@ public class DefaultTagDao extends EntityDaoBase<TagModelDao, Tag, TagApiExcepti
     @Override
     public Pagination<TagModelDao> searchTags(final String searchKey, final Long offset, final Long limit, final InternalTenantContext context) {
         return paginationHelper.getPagination(TagSqlDao.class,
-                                              new PaginationIteratorBuilder<TagModelDao, Tag, TagSqlDao>() {
-                                                  @Override
-                                                  public Long getCount(final TagSqlDao tagSqlDao, final InternalTenantContext context) {
-                                                      return tagSqlDao.getSearchCount(searchKey, String.format("%%%s%%", searchKey), context);
-                                                  }
-
-                                                  @Override
-                                                  public Iterator<TagModelDao> build(final TagSqlDao tagSqlDao, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context) {
-                                                      return tagSqlDao.search(searchKey, String.format("%%%s%%", searchKey), offset, limit, ordering.toString(), context);
-                                                  }
-                                              },
+                                              getSearchTagsPaginationIteratorBuilder(searchKey),
                                               offset,
                                               limit,
                                               context);
     }
+
+    @Override
+    public Pagination<TagModelDao> searchTags(final String searchKey, @Nullable final Long cursor, final Long offset, final Long limit, final InternalTenantContext context) {
+        return paginationHelper.getPaginationWithCursor(TagSqlDao.class,
+                                                        getSearchTagsPaginationIteratorBuilder(searchKey),
+                                                        cursor,
+                                                        offset,
+                                                        limit,
+                                                        context);
+    }
+
+    private PaginationIteratorBuilder<TagModelDao, Tag, TagSqlDao> getSearchTagsPaginationIteratorBuilder(final String searchKey) {
+        return new PaginationIteratorBuilder<TagModelDao, Tag, TagSqlDao>() {
+            @Override
+            public Long getCount(final TagSqlDao tagSqlDao, final InternalTenantContext context) {
+                return tagSqlDao.getSearchCount(searchKey, String.format("%%%s%%", searchKey), context);
+            }
+
+            @Override
+            public Iterator<TagModelDao> build(final TagSqlDao tagSqlDao, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context) {
+                return tagSqlDao.search(searchKey, String.format("%%%s%%", searchKey), offset, limit, ordering.toString(), context);
+            }
+
+            @Override
+            public Iterator<TagModelDao> buildFromCursor(final TagSqlDao tagSqlDao, final Long cursor, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context) {
+                return tagSqlDao.searchFromCursor(searchKey, String.format("%%%s%%", searchKey), cursor, offset, limit, ordering.toString(), ordering.getCursorComparator(), context);
+            }
+        };
+    }
 }
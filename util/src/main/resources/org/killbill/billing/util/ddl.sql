@@ -20,6 +20,7 @@ CREATE TABLE custom_fields (
 CREATE UNIQUE INDEX custom_fields_id ON custom_fields(id);
 CREATE INDEX custom_fields_object_id_object_type ON custom_fields(object_id, object_type);
 CREATE INDEX custom_fields_tenant_account_record_id ON custom_fields(tenant_record_id, account_record_id);
+CREATE INDEX custom_fields_tenant_record_id_record_id ON custom_fields(tenant_record_id, record_id);
 CREATE INDEX custom_fields_name_value ON custom_fields(field_name, field_value);
 
 
@@ -107,6 +108,7 @@ CREATE TABLE tags (
 CREATE UNIQUE INDEX tags_id ON tags(id);
 CREATE INDEX tags_by_object ON tags(object_id);
 CREATE INDEX tags_tenant_account_record_id ON tags(tenant_record_id, account_record_id);
+CREATE INDEX tags_tenant_record_id_record_id ON tags(tenant_record_id, record_id);
 
 DROP TABLE IF EXISTS tag_history;
 CREATE TABLE tag_history (
@@ -150,6 +152,7 @@ CREATE TABLE audit_log (
 CREATE INDEX audit_log_fetch_target_record_id ON audit_log(table_name, target_record_id);
 CREATE INDEX audit_log_user_name ON audit_log(created_by);
 CREATE INDEX audit_log_tenant_account_record_id ON audit_log(tenant_record_id, account_record_id);
+CREATE INDEX audit_log_tenant_record_id_record_id ON audit_log(tenant_record_id, record_id);
 CREATE INDEX audit_log_via_history ON audit_log(target_record_id, table_name, tenant_record_id);
 
 
@@ -323,3 +326,17 @@ CREATE TABLE service_broadcasts (
     created_by varchar(50) NOT NULL,
     PRIMARY KEY(record_id)
 ) /*! CHARACTER SET utf8 COLLATE utf8_bin */;
+
+
+DROP TABLE IF EXISTS search_index;
+CREATE TABLE search_index (
+    record_id serial unique,
+    table_name varchar(50) NOT NULL,
+    target_record_id bigint /*! unsigned */ not null,
+    token varchar(255) NOT NULL,
+    account_record_id bigint /*! unsigned */ not null,
+    tenant_record_id bigint /*! unsigned */ not null default 0,
+    PRIMARY KEY(record_id)
+) /*! CHARACTER SET utf8 COLLATE utf8_bin */;
+CREATE INDEX search_index_tenant_table_name_token ON search_index(tenant_record_id, table_name, token, target_record_id);
+CREATE INDEX search_index_table_name_target_record_id ON search_index(table_name, target_record_id);
@@ -0,0 +1,11 @@
+CREATE TABLE search_index (
+    record_id serial unique,
+    table_name varchar(50) NOT NULL,
+    target_record_id bigint /*! unsigned */ not null,
+    token varchar(255) NOT NULL,
+    account_record_id bigint /*! unsigned */ not null,
+    tenant_record_id bigint /*! unsigned */ not null default 0,
+    PRIMARY KEY(record_id)
+) /*! CHARACTER SET utf8 COLLATE utf8_bin */;
+CREATE INDEX search_index_tenant_table_name_token ON search_index(tenant_record_id, table_name, token, target_record_id);
+CREATE INDEX search_index_table_name_target_record_id ON search_index(table_name, target_record_id);
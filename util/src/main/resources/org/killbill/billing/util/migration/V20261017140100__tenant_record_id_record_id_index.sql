@@ -0,0 +1,3 @@
+CREATE INDEX custom_fields_tenant_record_id_record_id ON custom_fields(tenant_record_id, record_id);
+CREATE INDEX tags_tenant_record_id_record_id ON tags(tenant_record_id, record_id);
+CREATE INDEX audit_log_tenant_record_id_record_id ON audit_log(tenant_record_id, record_id);
@@ -58,6 +58,11 @@ public class MockAuditDao implements AuditDao {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public DefaultAccountAuditLogs streamAuditLogsForAccountRecordId(final InternalTenantContext context) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public DefaultAccountAuditLogsForObjectType getAuditLogsForAccountRecordId(final TableName tableName, final AuditLevel auditLevel, final InternalTenantContext context) {
         throw new UnsupportedOperationException();
@@ -16,6 +16,7 @@
 
 package org.killbill.billing.util.audit.dao;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
 
@@ -33,11 +34,15 @@ import org.killbill.billing.util.audit.AccountAuditLogs;
 import org.killbill.billing.util.audit.AccountAuditLogsForObjectType;
 import org.killbill.billing.util.audit.AuditLog;
 import org.killbill.billing.util.audit.ChangeType;
+import org.killbill.billing.util.audit.DefaultAccountAuditLogs;
+import org.killbill.billing.util.dao.NonEntitySqlDao;
 import org.killbill.billing.util.dao.TableName;
+import org.killbill.billing.util.entity.dao.EntitySqlDao;
 import org.killbill.billing.util.tag.DescriptiveTag;
 import org.killbill.billing.util.tag.Tag;
 import org.killbill.billing.util.tag.dao.TagDefinitionModelDao;
 import org.killbill.billing.util.tag.dao.TagModelDao;
+import org.killbill.commons.utils.collect.Iterators;
 
 public class TestDefaultAuditDao extends UtilTestSuiteWithEmbeddedDB {
 
@@ -91,6 +96,38 @@ public class TestDefaultAuditDao extends UtilTestSuiteWithEmbeddedDB {
         Assert.assertEquals(secondAuditLogs.get(1).getChangeType(), ChangeType.DELETE);
     }
 
+    @Test(groups = "slow")
+    public void testStreamAuditLogsForAccount() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            addTag();
+            eventsListener.pushExpectedEvent(NextEvent.TAG);
+            tagDao.deleteTag(tag.getObjectId(), tag.getObjectType(), tag.getTagDefinitionId(), internalCallContext);
+            assertListenerStatus();
+        }
+
+        final List<AuditLog> expectedAuditLogs = auditDao.getAuditLogsForAccountRecordId(AuditLevel.FULL, internalCallContext).getAuditLogs();
+        Assert.assertEquals(expectedAuditLogs.stream().filter(auditLog -> auditLog.getAuditedObjectType() == ObjectType.TAG).count(), 6);
+        for (final AuditLog auditLog : expectedAuditLogs) {
+            Assert.assertNotNull(auditLog.getAuditedEntityId());
+        }
+
+        final DefaultAccountAuditLogs streamedAuditLogs = auditDao.streamAuditLogsForAccountRecordId(internalCallContext);
+        Assert.assertEquals(Iterators.toUnmodifiableList(streamedAuditLogs.streamAuditLogs()), expectedAuditLogs);
+        streamedAuditLogs.close();
+        try {
+            streamedAuditLogs.getAuditLogs();
+            Assert.fail("Audit logs can only be consumed once");
+        } catch (final IllegalStateException e) {
+            // Expected
+        }
+
+        // Ids are resolved across batches (entries of a table span several of them)
+        final Iterator<AuditLogModelDao> auditLogModelDaos = dbi.onDemand(EntitySqlDao.class).getAuditLogsForAccountRecordId(internalCallContext);
+        final AuditLogIdResolvingIterator auditLogs = new AuditLogIdResolvingIterator(auditLogModelDaos, dbi.onDemand(NonEntitySqlDao.class), internalCallContext, 2);
+        Assert.assertEquals(Iterators.toUnmodifiableList(auditLogs), expectedAuditLogs);
+        auditLogs.close();
+    }
+
     private void addTag() throws TagDefinitionApiException, TagApiException {
         // Create a tag definition
         eventsListener.pushExpectedEvent(NextEvent.TAG_DEFINITION);
@@ -17,11 +17,31 @@
 
 package org.killbill.billing.util.cache;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
 import javax.cache.Cache;
 import javax.cache.CacheException;
 
 import org.killbill.billing.util.UtilTestSuiteNoDB;
 import org.killbill.billing.util.cache.Cachable.CacheType;
+import org.killbill.commons.metrics.api.Counter;
+import org.killbill.commons.metrics.api.MetricRegistry;
+import org.killbill.commons.metrics.api.Timer;
+import org.killbill.commons.metrics.impl.NoOpMetricRegistry;
 import org.mockito.Mockito;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
@@ -52,7 +72,7 @@ public class TestKillBillCacheController extends UtilTestSuiteNoDB {
             }
         };
 
-        final KillBillCacheController<String, Long> killBillCacheController = new KillBillCacheController<String, Long>(cache, baseCacheLoader);
+        final KillBillCacheController<String, Long> killBillCacheController = new KillBillCacheController<String, Long>(cache, baseCacheLoader, new NoOpMetricRegistry());
 
         try {
             killBillCacheController.getKeys();
@@ -64,4 +84,119 @@ public class TestKillBillCacheController extends UtilTestSuiteNoDB {
         // This will go back to the cache loader
         Assert.assertEquals(killBillCacheController.get("12", null), new Long(12));
     }
+
+    @Test(groups = "fast")
+    public void testConcurrentLoads() throws Exception {
+        final CountDownLatch slowLoadStarted = new CountDownLatch(1);
+        final CountDownLatch slowLoadReleased = new CountDownLatch(1);
+        final Map<String, AtomicInteger> nbComputes = new ConcurrentHashMap<String, AtomicInteger>();
+        final BaseCacheLoader<String, Long> baseCacheLoader = new BaseCacheLoader<String, Long>() {
+            @Override
+            public CacheType getCacheType() {
+                return CacheType.RECORD_ID;
+            }
+
+            @Override
+            public Long compute(final String key, final CacheLoaderArgument cacheLoaderArgument) {
+                nbComputes.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+                if ("1".equals(key)) {
+                    slowLoadStarted.countDown();
+                    try {
+                        slowLoadReleased.await();
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return Long.valueOf(key);
+            }
+        };
+        final KillBillCacheController<String, Long> killBillCacheController = new KillBillCacheController<String, Long>(createInMemoryCache(), baseCacheLoader, new NoOpMetricRegistry());
+
+        final ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            final List<Future<Long>> slowLoads = new ArrayList<Future<Long>>();
+            for (int i = 0; i < 5; i++) {
+                slowLoads.add(executor.submit(() -> killBillCacheController.get("1", null)));
+            }
+            Assert.assertTrue(slowLoadStarted.await(10, TimeUnit.SECONDS));
+
+            // Misses on other keys are not blocked by the slow load
+            Assert.assertEquals(killBillCacheController.get("2", null), Long.valueOf(2));
+
+            slowLoadReleased.countDown();
+            for (final Future<Long> slowLoad : slowLoads) {
+                Assert.assertEquals(slowLoad.get(10, TimeUnit.SECONDS), Long.valueOf(1));
+            }
+        } finally {
+            slowLoadReleased.countDown();
+            executor.shutdownNow();
+        }
+
+        Assert.assertEquals(nbComputes.get("1").get(), 1);
+        Assert.assertEquals(nbComputes.get("2").get(), 1);
+    }
+
+    @Test(groups = "fast")
+    public void testGetAll() {
+        final List<Set<String>> computedKeys = new ArrayList<Set<String>>();
+        final BaseCacheLoader<String, Long> baseCacheLoader = new BaseCacheLoader<String, Long>() {
+            @Override
+            public CacheType getCacheType() {
+                return CacheType.RECORD_ID;
+            }
+
+            @Override
+            public Long compute(final String key, final CacheLoaderArgument cacheLoaderArgument) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Map<String, Long> computeAll(final Collection<String> keys, final CacheLoaderArgument cacheLoaderArgument) {
+                computedKeys.add(Set.copyOf(keys));
+                return keys.stream().filter(key -> !"0".equals(key)).collect(Collectors.toMap(key -> key, Long::valueOf));
+            }
+        };
+
+        final Counter hits = Mockito.mock(Counter.class);
+        final Counter misses = Mockito.mock(Counter.class);
+        final MetricRegistry metricRegistry = Mockito.mock(MetricRegistry.class);
+        Mockito.when(metricRegistry.counter("killbill.cache.record-id.hits")).thenReturn(hits);
+        Mockito.when(metricRegistry.counter("killbill.cache.record-id.misses")).thenReturn(misses);
+        Mockito.when(metricRegistry.timer("killbill.cache.record-id.loads")).thenReturn(Mockito.mock(Timer.class));
+
+        final Cache<String, Long> cache = createInMemoryCache();
+        cache.put("1", 1L);
+        final KillBillCacheController<String, Long> killBillCacheController = new KillBillCacheController<String, Long>(cache, baseCacheLoader, metricRegistry);
+
+        final Map<String, Long> values = killBillCacheController.getAll(Arrays.asList("0", "1", "2", null, "2"), null);
+        Assert.assertEquals(values, Map.of("1", 1L, "2", 2L));
+        // The misses are loaded in one batch
+        Assert.assertEquals(computedKeys, List.of(Set.of("0", "2")));
+        Assert.assertTrue(killBillCacheController.isKeyInCache("2"));
+        Mockito.verify(hits, Mockito.times(1)).inc(1);
+        Mockito.verify(misses, Mockito.times(2)).inc(1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<String, Long> createInMemoryCache() {
+        final Map<String, Long> entries = new ConcurrentHashMap<String, Long>();
+        final Cache<String, Long> cache = Mockito.mock(Cache.class);
+        Mockito.when(cache.get(Mockito.any())).thenAnswer(invocation -> entries.get(invocation.<String>getArgument(0)));
+        Mockito.when(cache.containsKey(Mockito.any())).thenAnswer(invocation -> entries.containsKey(invocation.<String>getArgument(0)));
+        Mockito.when(cache.getAll(Mockito.any())).thenAnswer(invocation -> {
+            final Map<String, Long> result = new HashMap<String, Long>();
+            for (final String key : invocation.<Set<String>>getArgument(0)) {
+                if (entries.containsKey(key)) {
+                    result.put(key, entries.get(key));
+                }
+            }
+            return result;
+        });
+        Mockito.doAnswer(invocation -> entries.put(invocation.getArgument(0), invocation.getArgument(1))).when(cache).put(Mockito.any(), Mockito.any());
+        Mockito.doAnswer(invocation -> {
+            entries.putAll(invocation.<Map<String, Long>>getArgument(0));
+            return null;
+        }).when(cache).putAll(Mockito.any());
+        return cache;
+    }
 }
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.cache;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.cache.Cache;
+
+import org.killbill.billing.util.UtilTestSuiteNoDB;
+import org.killbill.billing.util.cache.Cachable.CacheType;
+import org.killbill.commons.metrics.impl.NoOpMetricRegistry;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestNearCacheController extends UtilTestSuiteNoDB {
+
+    @Test(groups = "fast")
+    public void testInvalidationsAcrossNodes() {
+        final Map<String, String> remoteEntries = new ConcurrentHashMap<String, String>();
+        final Map<String, String> source = new ConcurrentHashMap<String, String>(Map.of("a", "1", "b", "1"));
+        final CacheController<String, String> remoteCache = createRemoteCache(CacheType.TENANT_KV, remoteEntries, source);
+
+        final NearCacheController<String, String>[] nodes = createNodes(remoteCache, 60000L);
+        final NearCacheController<String, String> node1 = nodes[0];
+        final NearCacheController<String, String> node2 = nodes[1];
+
+        Assert.assertEquals(node1.get("a", null), "1");
+        Assert.assertEquals(node2.getAll(List.of("a", "b"), null), Map.of("a", "1", "b", "1"));
+        Assert.assertEquals(node2.localSize(), 2);
+
+        // Served locally, without going to the remote cache
+        remoteEntries.clear();
+        source.put("a", "2");
+        Assert.assertEquals(node1.get("a", null), "1");
+        Assert.assertEquals(node2.get("a", null), "1");
+
+        // Invalidated on both nodes
+        node1.remove("a");
+        Assert.assertEquals(node1.get("a", null), "2");
+        Assert.assertEquals(node2.get("a", null), "2");
+        Assert.assertEquals(node2.get("b", null), "1");
+
+        source.put("b", "2");
+        remoteEntries.clear();
+        node2.removeAll();
+        Assert.assertEquals(node1.localSize(), 0);
+        Assert.assertEquals(node1.get("b", null), "2");
+    }
+
+    @Test(groups = "fast")
+    public void testExpiration() {
+        final Map<String, String> remoteEntries = new ConcurrentHashMap<String, String>();
+        final Map<String, String> source = new ConcurrentHashMap<String, String>(Map.of("a", "1"));
+
+        // Mutable mappings expire
+        final NearCacheController<String, String> mutableNearCache = createNodes(createRemoteCache(CacheType.TENANT_KV, remoteEntries, source), 0L)[0];
+        Assert.assertEquals(mutableNearCache.get("a", null), "1");
+        remoteEntries.clear();
+        source.put("a", "2");
+        Assert.assertEquals(mutableNearCache.get("a", null), "2");
+
+        // Immutable mappings don't
+        final NearCacheController<String, String> immutableNearCache = createNodes(createRemoteCache(CacheType.RECORD_ID, remoteEntries, source), 0L)[0];
+        Assert.assertEquals(immutableNearCache.get("a", null), "2");
+        remoteEntries.clear();
+        source.put("a", "3");
+        Assert.assertEquals(immutableNearCache.get("a", null), "2");
+    }
+
+    @SuppressWarnings("unchecked")
+    private NearCacheController<String, String>[] createNodes(final CacheController<String, String> remoteCache, final long ttlMillis) {
+        final NearCacheController<String, String>[] nodes = new NearCacheController[2];
+        nodes[0] = new NearCacheController<String, String>(remoteCache, (cacheType, key) -> invalidate(nodes[1], key), 100, ttlMillis);
+        nodes[1] = new NearCacheController<String, String>(remoteCache, (cacheType, key) -> invalidate(nodes[0], key), 100, ttlMillis);
+        return nodes;
+    }
+
+    private void invalidate(final NearCacheController<String, String> node, final Object key) {
+        if (key == null) {
+            node.invalidateAllLocally();
+        } else {
+            node.invalidateLocally(key);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private CacheController<String, String> createRemoteCache(final CacheType cacheType, final Map<String, String> remoteEntries, final Map<String, String> source) {
+        final Cache<String, String> cache = Mockito.mock(Cache.class);
+        Mockito.when(cache.get(Mockito.any())).thenAnswer(invocation -> remoteEntries.get(invocation.<String>getArgument(0)));
+        Mockito.when(cache.containsKey(Mockito.any())).thenAnswer(invocation -> remoteEntries.containsKey(invocation.<String>getArgument(0)));
+        Mockito.when(cache.getAll(Mockito.any())).thenAnswer(invocation -> {
+            final Map<String, String> result = new HashMap<String, String>();
+            for (final String key : invocation.<Set<String>>getArgument(0)) {
+                if (remoteEntries.containsKey(key)) {
+                    result.put(key, remoteEntries.get(key));
+                }
+            }
+            return result;
+        });
+        Mockito.doAnswer(invocation -> remoteEntries.put(invocation.getArgument(0), invocation.getArgument(1))).when(cache).put(Mockito.any(), Mockito.any());
+        Mockito.doAnswer(invocation -> remoteEntries.remove(invocation.<String>getArgument(0)) != null).when(cache).remove(Mockito.<String>any());
+        Mockito.doAnswer(invocation -> {
+            remoteEntries.clear();
+            return null;
+        }).when(cache).clear();
+
+        final BaseCacheLoader<String, String> cacheLoader = new BaseCacheLoader<String, String>() {
+            @Override
+            public CacheType getCacheType() {
+                return cacheType;
+            }
+
+            @Override
+            public String compute(final String key, final CacheLoaderArgument cacheLoaderArgument) {
+                return source.get(key);
+            }
+        };
+        return new KillBillCacheController<String, String>(cache, cacheLoader, new NoOpMetricRegistry());
+    }
+}
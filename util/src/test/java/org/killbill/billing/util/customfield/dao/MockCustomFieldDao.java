@@ -74,6 +74,11 @@ public class MockCustomFieldDao extends MockEntityDaoBase<CustomFieldModelDao, C
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public Pagination<CustomFieldModelDao> searchCustomFields(final String searchKey, final Long cursor, final Long offset, final Long limit, final InternalTenantContext context) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public Pagination<CustomFieldModelDao> searchCustomFields(final String fieldName, final ObjectType objectType, final Long offset, final Long limit, final InternalTenantContext context) {
         throw new UnsupportedOperationException();
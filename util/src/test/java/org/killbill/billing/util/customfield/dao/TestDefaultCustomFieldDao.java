@@ -17,13 +17,19 @@
 
 package org.killbill.billing.util.customfield.dao;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
+import javax.annotation.Nullable;
+
 import org.killbill.billing.ObjectType;
 import org.killbill.billing.api.TestApiListener.NextEvent;
 import org.killbill.billing.util.UtilTestSuiteWithEmbeddedDB;
 import org.killbill.billing.util.api.CustomFieldApiException;
+import org.killbill.billing.util.entity.DefaultPagination;
 import org.killbill.billing.util.entity.Pagination;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -86,4 +92,74 @@ public class TestDefaultCustomFieldDao extends UtilTestSuiteWithEmbeddedDB {
 
     }
 
+    @Test(groups = "slow")
+    public void testKeysetPagination() throws CustomFieldApiException {
+        final UUID objectId = UUID.randomUUID();
+        final List<CustomFieldModelDao> input = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            input.add(new CustomFieldModelDao(internalCallContext.getCreatedDate(), i % 2 == 0 ? "Even" : "Odd", String.valueOf(i), objectId, ObjectType.ACCOUNT));
+        }
+        eventsListener.pushExpectedEvents(NextEvent.CUSTOM_FIELD, NextEvent.CUSTOM_FIELD, NextEvent.CUSTOM_FIELD, NextEvent.CUSTOM_FIELD, NextEvent.CUSTOM_FIELD);
+        ((DefaultCustomFieldDao) customFieldDao).create(input, internalCallContext);
+        eventsListener.assertListenerStatus();
+
+        final List<Long> allRecordIds = toRecordIds(customFieldDao.get(0L, 100L, internalCallContext));
+        Assert.assertEquals(allRecordIds.size(), 5);
+        final List<Long> allRecordIdsDesc = new ArrayList<>(allRecordIds);
+        Collections.reverse(allRecordIdsDesc);
+
+        Assert.assertEquals(getWithCursor(null, 2L), allRecordIds);
+        Assert.assertEquals(getWithCursor(null, 5L), allRecordIds);
+        Assert.assertEquals(getWithCursor(null, -2L), allRecordIdsDesc);
+        Assert.assertEquals(getWithCursor("Even", 1L), List.of(allRecordIds.get(0), allRecordIds.get(2), allRecordIds.get(4)));
+        Assert.assertEquals(getWithCursor("Odd", -1L), List.of(allRecordIds.get(3), allRecordIds.get(1)));
+
+        // Only the first page carries the counts
+        final Pagination<CustomFieldModelDao> firstPage = customFieldDao.get(null, 0L, 2L, internalCallContext);
+        Assert.assertEquals(firstPage.getTotalNbRecords(), (Long) 5L);
+        final Long cursor = ((DefaultPagination<CustomFieldModelDao>) firstPage).getNextCursor();
+        Assert.assertEquals(cursor, allRecordIds.get(1));
+        toRecordIds(firstPage);
+        final Pagination<CustomFieldModelDao> secondPage = customFieldDao.get(cursor, 2L, 2L, internalCallContext);
+        Assert.assertNull(secondPage.getTotalNbRecords());
+        Assert.assertNull(secondPage.getMaxNbRecords());
+        Assert.assertEquals(secondPage.getNextOffset(), (Long) 4L);
+        Assert.assertEquals(toRecordIds(secondPage), allRecordIds.subList(2, 4));
+
+        // A full last page doesn't point to an (empty) next page
+        final Pagination<CustomFieldModelDao> lastPage = customFieldDao.get(allRecordIds.get(3), 4L, 1L, internalCallContext);
+        Assert.assertNull(lastPage.getNextOffset());
+        Assert.assertNull(((DefaultPagination<CustomFieldModelDao>) lastPage).getNextCursor());
+        Assert.assertEquals(toRecordIds(lastPage), allRecordIds.subList(4, 5));
+        final Pagination<CustomFieldModelDao> singlePage = customFieldDao.get(null, 0L, 5L, internalCallContext);
+        Assert.assertNull(singlePage.getNextOffset());
+        Assert.assertEquals(toRecordIds(singlePage), allRecordIds);
+    }
+
+    private List<Long> getWithCursor(@Nullable final String searchKey, final Long limit) {
+        final List<Long> recordIds = new ArrayList<>();
+        Long offset = 0L;
+        Long cursor = null;
+        do {
+            final Pagination<CustomFieldModelDao> page = searchKey == null ?
+                                                         customFieldDao.get(cursor, offset, limit, internalCallContext) :
+                                                         customFieldDao.searchCustomFields(searchKey, cursor, offset, limit, internalCallContext);
+            cursor = ((DefaultPagination<CustomFieldModelDao>) page).getNextCursor();
+            offset = page.getNextOffset();
+            Assert.assertEquals(offset == null, cursor == null);
+            recordIds.addAll(toRecordIds(page));
+            Assert.assertTrue(recordIds.size() <= 5);
+        } while (offset != null);
+        return recordIds;
+    }
+
+    private List<Long> toRecordIds(final Pagination<CustomFieldModelDao> pagination) {
+        final List<Long> recordIds = new ArrayList<>();
+        pagination.forEach(customField -> recordIds.add(customField.getRecordId()));
+        try {
+            pagination.close();
+        } catch (final IOException ignored) {
+        }
+        return recordIds;
+    }
 }
@@ -20,10 +20,14 @@ package org.killbill.billing.util.dao;
 
 import java.io.IOException;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.killbill.billing.ObjectType;
 import org.killbill.billing.util.UtilTestSuiteWithEmbeddedDB;
+import org.killbill.billing.util.cache.Cachable.CacheType;
+import org.killbill.billing.util.cache.CacheController;
 import org.skife.jdbi.v2.Handle;
 import org.skife.jdbi.v2.Update;
 import org.skife.jdbi.v2.tweak.HandleCallback;
@@ -86,6 +90,35 @@ public class TestNonEntityDao extends UtilTestSuiteWithEmbeddedDB {
         Assert.assertEquals(resultAccountRecordId, accountRecordId);
     }
 
+    @Test(groups = "slow")
+    public void testRetrieveAccountRecordIdsFromObjects() throws IOException {
+        accountRecordId = generateAccountRecordId(accountId);
+        final UUID otherAccountId = UUID.randomUUID();
+        final Long otherAccountRecordId = generateAccountRecordId(otherAccountId);
+        final UUID unknownAccountId = UUID.randomUUID();
+
+        final List<UUID> accountIds = List.of(accountId, otherAccountId, unknownAccountId);
+        final Map<UUID, Long> expected = Map.of(accountId, accountRecordId, otherAccountId, otherAccountRecordId);
+        Assert.assertEquals(nonEntityDao.retrieveAccountRecordIdsFromObjects(accountIds, ObjectType.ACCOUNT, null), expected);
+
+        // Through the cache (bulk load of the missing keys)
+        final CacheController<String, Long> cache = cacheControllerDispatcher.getCacheController(CacheType.ACCOUNT_RECORD_ID);
+        Assert.assertEquals(nonEntityDao.retrieveAccountRecordIdsFromObjects(accountIds, ObjectType.ACCOUNT, cache), expected);
+        Assert.assertTrue(cache.isKeyInCache(otherAccountId.toString()));
+        Assert.assertEquals(nonEntityDao.retrieveAccountRecordIdsFromObjects(accountIds, ObjectType.ACCOUNT, cache), expected);
+
+        insertTag();
+        Assert.assertEquals(nonEntityDao.retrieveAccountRecordIdsFromObjects(List.of(tagId), ObjectType.TAG, null), Map.of(tagId, accountRecordId));
+    }
+
+    @Test(groups = "slow")
+    public void testRetrieveTenantRecordIdsFromObjects() throws IOException {
+        accountRecordId = generateAccountRecordId(accountId);
+
+        final Map<UUID, Long> resultTenantRecordIds = nonEntityDao.retrieveTenantRecordIdsFromObjects(List.of(accountId, UUID.randomUUID()), ObjectType.ACCOUNT, null);
+        Assert.assertEquals(resultTenantRecordIds, Map.of(accountId, tenantRecordId));
+    }
+
     @Test(groups = "slow")
     public void testRetrieveTenantRecordIdFromObject() throws IOException {
         accountRecordId = generateAccountRecordId(accountId);
@@ -77,6 +77,11 @@ public class MockEntityDaoBase<M extends EntityModelDao<E>, E extends Entity, U
         return DefaultPagination.<M>build(offset, limit, Iterables.toUnmodifiableList(getAll(context)));
     }
 
+    @Override
+    public Pagination<M> get(final Long cursor, final Long offset, final Long limit, final InternalTenantContext context) {
+        return get(offset, limit, context);
+    }
+
     @Override
     public Long getCount(final InternalTenantContext context) {
         return (long) entities.keySet().size();
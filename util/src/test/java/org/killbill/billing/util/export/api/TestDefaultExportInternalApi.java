@@ -0,0 +1,85 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.export.api;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.killbill.billing.export.TenantExportStatus;
+import org.killbill.billing.export.TenantExportStatus.State;
+import org.killbill.billing.util.UUIDs;
+import org.killbill.billing.util.UtilTestSuiteWithEmbeddedDB;
+import org.killbill.billing.util.callcontext.InternalCallContextFactory;
+import org.killbill.billing.util.callcontext.TenantContext;
+import org.killbill.billing.util.config.definition.ExportConfig;
+import org.killbill.billing.util.export.dao.TenantDataExporter;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import static org.awaitility.Awaitility.await;
+
+public class TestDefaultExportInternalApi extends UtilTestSuiteWithEmbeddedDB {
+
+    @Test(groups = "slow")
+    public void testExportDataForTenantInTheBackground() throws Exception {
+        final Path directory = Files.createTempDirectory("TestDefaultExportInternalApi");
+        final ExportConfig exportConfig = Mockito.mock(ExportConfig.class);
+        Mockito.when(exportConfig.getTenantExportDirectory()).thenReturn(directory.toString());
+        Mockito.when(exportConfig.getTenantExportNbThreads()).thenReturn(2);
+        Mockito.when(exportConfig.getTenantExportChunkSize()).thenReturn(100);
+        final TenantContext tenantContext = internalCallContext.toTenantContext(null, UUIDs.randomUUID());
+        final InternalCallContextFactory contextFactory = Mockito.mock(InternalCallContextFactory.class);
+        Mockito.when(contextFactory.createTenantContext(internalCallContext)).thenReturn(tenantContext);
+
+        final DefaultExportInternalApi exportInternalApi = new DefaultExportInternalApi(new TenantDataExporter(dao, exportConfig), exportConfig, contextFactory, clock);
+
+        final TenantExportStatus queued = exportInternalApi.exportDataAsCSVForTenant(internalCallContext);
+        Assert.assertEquals(queued.getState(), State.QUEUED);
+        Assert.assertNull(exportInternalApi.getTenantExportStatus(UUIDs.randomUUID(), internalCallContext));
+
+        // The export runs in the background: its status is polled using its id
+        await().atMost(30, TimeUnit.SECONDS).until(() -> exportInternalApi.getTenantExportStatus(queued.getExportId(), internalCallContext).isCompleted());
+        final TenantExportStatus completed = exportInternalApi.getTenantExportStatus(queued.getExportId(), internalCallContext);
+        Assert.assertEquals(completed.getState(), State.SUCCEEDED, completed.toString());
+        Assert.assertNotNull(completed.getCompletedDate());
+        Assert.assertFalse(completed.getNbRowsPerTable().isEmpty());
+        Assert.assertTrue(Files.isDirectory(directory.resolve(tenantContext.getTenantId().toString())));
+
+        // A new export is started once the previous one is completed
+        final TenantExportStatus next = exportInternalApi.exportDataAsCSVForTenant(internalCallContext);
+        Assert.assertNotEquals(next.getExportId(), queued.getExportId());
+        await().atMost(30, TimeUnit.SECONDS).until(() -> exportInternalApi.getTenantExportStatus(next.getExportId(), internalCallContext).isCompleted());
+        Assert.assertNull(exportInternalApi.getTenantExportStatus(queued.getExportId(), internalCallContext));
+    }
+
+    @Test(groups = "slow")
+    public void testExportDataForTenantRequiresADirectory() throws Exception {
+        final ExportConfig exportConfig = Mockito.mock(ExportConfig.class);
+        Mockito.when(exportConfig.getTenantExportDirectory()).thenReturn("");
+        final DefaultExportInternalApi exportInternalApi = new DefaultExportInternalApi(new TenantDataExporter(dao, exportConfig), exportConfig, Mockito.mock(InternalCallContextFactory.class), clock);
+
+        try {
+            exportInternalApi.exportDataAsCSVForTenant(internalCallContext);
+            Assert.fail("Tenant exports should be disabled");
+        } catch (final IllegalStateException e) {
+            Assert.assertNull(exportInternalApi.getTenantExportStatus(UUIDs.randomUUID(), internalCallContext));
+        }
+    }
+}
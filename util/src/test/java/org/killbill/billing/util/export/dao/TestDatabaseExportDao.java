@@ -19,11 +19,21 @@
 package org.killbill.billing.util.export.dao;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Date;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 import org.killbill.billing.util.UtilTestSuiteWithEmbeddedDB;
 import org.killbill.billing.util.api.DatabaseExportOutputStream;
+import org.killbill.billing.util.config.definition.ExportConfig;
+import org.mockito.Mockito;
 import org.skife.jdbi.v2.Handle;
 import org.skife.jdbi.v2.tweak.HandleCallback;
 import org.testng.Assert;
@@ -95,6 +105,93 @@ public class TestDatabaseExportDao extends UtilTestSuiteWithEmbeddedDB {
 
     }
 
+    @Test(groups = "slow")
+    public void testExportTenantDataByChunks() throws Exception {
+        final String tableName = "test_database_export_dao_c";
+        dbi.withHandle(new HandleCallback<Void>() {
+            @Override
+            public Void withHandle(final Handle handle) throws Exception {
+                handle.execute("drop table if exists " + tableName);
+                handle.execute("create table " + tableName + "(record_id serial unique," +
+                               "c_column varchar(10)," +
+                               "account_record_id bigint /*! unsigned */ not null," +
+                               "tenant_record_id bigint /*! unsigned */ not null default 0," +
+                               "primary key(record_id));");
+                for (int i = 1; i <= 5; i++) {
+                    handle.execute("insert into " + tableName + " (c_column, account_record_id, tenant_record_id) values (?, ?, ?)",
+                                   "c" + i, i, internalCallContext.getTenantRecordId());
+                }
+                // Other tenant
+                handle.execute("insert into " + tableName + " (c_column, account_record_id, tenant_record_id) values (?, ?, ?)",
+                               "other", 1, internalCallContext.getTenantRecordId() + 1);
+                return null;
+            }
+        });
+
+        final ExportConfig exportConfig = Mockito.mock(ExportConfig.class);
+        Mockito.when(exportConfig.getTenantExportNbThreads()).thenReturn(2);
+        Mockito.when(exportConfig.getTenantExportChunkSize()).thenReturn(2);
+        final TenantDataExporter exporter = new TenantDataExporter(dao, exportConfig);
+
+        final Path directory = Files.createTempDirectory("TestDatabaseExportDao");
+        final Path tableDirectory = directory.resolve(tableName);
+
+        Map<String, Long> nbRowsPerTable = exporter.exportDataForTenant(directory, internalCallContext);
+        Assert.assertEquals(nbRowsPerTable.get(tableName), (Long) 5L);
+        final String header = "-- " + tableName + " record_id|c_column|account_record_id|tenant_record_id\n";
+        Assert.assertEquals(readChunk(tableDirectory.resolve(tableName + "-0.csv.gz")),
+                            header + "1|c1|1|" + internalCallContext.getTenantRecordId() + "\n" + "2|c2|2|" + internalCallContext.getTenantRecordId() + "\n");
+        Assert.assertEquals(readChunk(tableDirectory.resolve(tableName + "-2.csv.gz")),
+                            header + "3|c3|3|" + internalCallContext.getTenantRecordId() + "\n" + "4|c4|4|" + internalCallContext.getTenantRecordId() + "\n");
+        Assert.assertEquals(readChunk(tableDirectory.resolve(tableName + "-4.csv.gz")),
+                            header + "5|c5|5|" + internalCallContext.getTenantRecordId() + "\n");
+        // No empty chunk nor leftover temporary file, and the checkpoint is gone once the export is complete
+        try (final Stream<Path> files = Files.list(tableDirectory)) {
+            Assert.assertEquals(files.count(), 3);
+        }
+        Assert.assertFalse(Files.exists(getCheckpointFile(directory, tableName)));
+
+        dbi.withHandle(new HandleCallback<Void>() {
+            @Override
+            public Void withHandle(final Handle handle) throws Exception {
+                handle.execute("delete from " + tableName + " where c_column = ?", "c3");
+                handle.execute("insert into " + tableName + " (c_column, account_record_id, tenant_record_id) values (?, ?, ?)",
+                               "c7", 7, internalCallContext.getTenantRecordId());
+                return null;
+            }
+        });
+
+        // The next export starts over, without chunks of the previous one
+        nbRowsPerTable = exporter.exportDataForTenant(directory, internalCallContext);
+        Assert.assertEquals(nbRowsPerTable.get(tableName), (Long) 5L);
+        Assert.assertEquals(readChunk(tableDirectory.resolve(tableName + "-2.csv.gz")),
+                            header + "4|c4|4|" + internalCallContext.getTenantRecordId() + "\n" + "5|c5|5|" + internalCallContext.getTenantRecordId() + "\n");
+        Assert.assertEquals(readChunk(tableDirectory.resolve(tableName + "-5.csv.gz")),
+                            header + "7|c7|7|" + internalCallContext.getTenantRecordId() + "\n");
+        try (final Stream<Path> files = Files.list(tableDirectory)) {
+            Assert.assertEquals(files.count(), 3);
+        }
+
+        // Interrupted export (checkpoint left behind): only the rows after the checkpoint are exported
+        Files.write(getCheckpointFile(directory, tableName), "5".getBytes(StandardCharsets.UTF_8));
+        nbRowsPerTable = exporter.exportDataForTenant(directory, internalCallContext);
+        Assert.assertEquals(nbRowsPerTable.get(tableName), (Long) 1L);
+        Assert.assertEquals(readChunk(tableDirectory.resolve(tableName + "-5.csv.gz")),
+                            header + "7|c7|7|" + internalCallContext.getTenantRecordId() + "\n");
+        Assert.assertTrue(Files.exists(tableDirectory.resolve(tableName + "-0.csv.gz")));
+        Assert.assertFalse(Files.exists(getCheckpointFile(directory, tableName)));
+    }
+
+    private String readChunk(final Path chunkFile) throws IOException {
+        try (final InputStream in = new GZIPInputStream(Files.newInputStream(chunkFile))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private Path getCheckpointFile(final Path directory, final String tableName) {
+        return directory.resolve(tableName + ".checkpoint");
+    }
+
     private String getDump() {
         final DatabaseExportOutputStream out = new CSVExportOutputStream(new ByteArrayOutputStream());
         dao.exportDataForAccount(out, internalCallContext);
@@ -58,6 +58,7 @@ public class TestUtilModuleWithEmbeddedDB extends TestUtilModule {
         install(new TagStoreModule(configSource));
         install(new CustomFieldModule(configSource));
         install(new NonEntityDaoModule(configSource));
+        install(new SearchModule(configSource));
         install(new SecurityModuleWithNoSecurityManager(configSource));
         bind(TestApiListener.class).asEagerSingleton();
     }
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.search;
+
+import java.util.Arrays;
+import java.util.Set;
+
+import org.killbill.billing.util.UtilTestSuiteNoDB;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestSearchIndexTokenizer extends UtilTestSuiteNoDB {
+
+    @Test(groups = "fast")
+    public void testTokenize() {
+        final Set<String> tokens = SearchIndexTokenizer.tokenize(Arrays.asList(" John O'Doe ", "John.Doe@Example.com", null, "  ", "Acme"));
+        Assert.assertEquals(tokens.toArray(), new String[]{"john o'doe", "john", "o", "doe", "john.doe@example.com", "acme"});
+    }
+
+    @Test(groups = "fast")
+    public void testTokenizeLongValue() {
+        final StringBuilder value = new StringBuilder();
+        for (int i = 0; i < SearchIndexTokenizer.MAX_TOKEN_LENGTH + 10; i++) {
+            value.append('A');
+        }
+
+        final Set<String> tokens = SearchIndexTokenizer.tokenize(Arrays.asList(value.toString()));
+        Assert.assertEquals(tokens.size(), 1);
+        Assert.assertEquals(tokens.iterator().next().length(), SearchIndexTokenizer.MAX_TOKEN_LENGTH);
+    }
+
+    @Test(groups = "fast")
+    public void testToTokenPrefix() {
+        Assert.assertEquals(SearchIndexTokenizer.toTokenPrefix(" John "), "john%");
+        Assert.assertEquals(SearchIndexTokenizer.toTokenPrefix("50%_off\\"), "50\\%\\_off\\\\%");
+        Assert.assertEquals(SearchIndexTokenizer.toTokenPrefix(" "), "%");
+        Assert.assertEquals(SearchIndexTokenizer.toTokenPrefix(null), "%");
+    }
+}
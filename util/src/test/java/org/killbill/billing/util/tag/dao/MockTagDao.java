@@ -73,6 +73,11 @@ public class MockTagDao extends MockEntityDaoBase<TagModelDao, Tag, TagApiExcept
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public Pagination<TagModelDao> searchTags(final String searchKey, final Long cursor, final Long offset, final Long limit, final InternalTenantContext context) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public TagModelDao getById(final UUID tagId, final InternalTenantContext context) {
         throw new UnsupportedOperationException();
@@ -20,12 +20,15 @@ package org.killbill.billing.util.tag.dao;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import org.killbill.billing.util.api.AuditLevel;
 import org.killbill.billing.util.audit.AuditLog;
 import org.killbill.billing.util.audit.ChangeType;
 import org.killbill.billing.util.dao.TableName;
+import org.killbill.billing.util.entity.DefaultPagination;
+import org.killbill.billing.util.entity.Pagination;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -203,4 +206,27 @@ public class TestDefaultTagDao extends UtilTestSuiteWithEmbeddedDB {
             Assert.assertEquals(ErrorCode.TAG_ALREADY_EXISTS.getCode(), e.getCode());
         }
     }
+
+    @Test(groups = "slow")
+    public void testSearchTagsWithCursor() throws TagApiException {
+        for (int i = 0; i < 3; i++) {
+            eventsListener.pushExpectedEvent(NextEvent.TAG);
+            final Tag tag = new DescriptiveTag(ControlTagType.AUTO_INVOICING_OFF.getId(), ObjectType.ACCOUNT, UUID.randomUUID(), internalCallContext.getCreatedDate());
+            tagDao.create(new TagModelDao(tag), internalCallContext);
+            assertListenerStatus();
+        }
+
+        final List<Long> recordIds = new ArrayList<>();
+        Long offset = 0L;
+        Long cursor = null;
+        do {
+            final Pagination<TagModelDao> page = tagDao.searchTags(ControlTagType.AUTO_INVOICING_OFF.name(), cursor, offset, 2L, internalCallContext);
+            page.forEach(tagModelDao -> recordIds.add(tagModelDao.getRecordId()));
+            cursor = ((DefaultPagination<TagModelDao>) page).getNextCursor();
+            offset = page.getNextOffset();
+        } while (offset != null);
+
+        Assert.assertEquals(recordIds.size(), 3);
+        Assert.assertEquals(Set.copyOf(recordIds).size(), 3);
+    }
 }